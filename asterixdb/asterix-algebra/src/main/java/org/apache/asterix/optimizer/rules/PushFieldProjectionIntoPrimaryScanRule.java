@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.FieldProjectionInfo;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * Sets the top-level fields of the scanned records that are used by a query on the primary index scans of datasets
+ * that are stored in the columnar format, so that only the columns of these fields are read and assembled. A scan is
+ * left unchanged when its records are used in any other way than accessing a field by a constant name or index.
+ * The rule is applied to the root of a plan, whether it is a query, a data manipulation statement or a write, once
+ * all the other rewrites that may change the way the records are used have been applied.
+ */
+public class PushFieldProjectionIntoPrimaryScanRule implements IAlgebraicRewriteRule {
+    // the operators at the root of queries (DISTRIBUTE_RESULT), data manipulation statements (SINK) and writes
+    private static final Set<LogicalOperatorTag> ROOT_OPERATORS = EnumSet.of(LogicalOperatorTag.DISTRIBUTE_RESULT,
+            LogicalOperatorTag.SINK, LogicalOperatorTag.WRITE, LogicalOperatorTag.WRITE_RESULT);
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (!ROOT_OPERATORS.contains(op.getOperatorTag())) {
+            return false;
+        }
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+
+        Map<LogicalVariable, ScannedRecord> scannedRecords = new HashMap<>();
+        collectScannedRecords(op, scannedRecords, new HashSet<>());
+        if (scannedRecords.isEmpty()) {
+            return false;
+        }
+        collectFieldAccesses(op, scannedRecords, new HashSet<>());
+        boolean changed = false;
+        for (ScannedRecord record : scannedRecords.values()) {
+            if (record.fieldNames != null) {
+                record.scan.setProjectionInfo(new FieldProjectionInfo(record.fieldNames));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static void collectScannedRecords(ILogicalOperator op, Map<LogicalVariable, ScannedRecord> scannedRecords,
+            Set<ILogicalOperator> visited) throws AlgebricksException {
+        if (!visited.add(op)) {
+            return;
+        }
+        if (op.getOperatorTag() == LogicalOperatorTag.DATASOURCESCAN) {
+            DataSourceScanOperator scan = (DataSourceScanOperator) op;
+            DataSource dataSource = (DataSource) scan.getDataSource();
+            if (scan.getProjectionInfo() == null
+                    && dataSource.getDatasourceType() == DataSource.Type.INTERNAL_DATASET) {
+                Dataset dataset = ((DatasetDataSource) dataSource).getDataset();
+                if (dataset.getDatasetFormat() == DatasetFormat.COLUMN) {
+                    LogicalVariable recordVar = scan.getVariables().get(dataset.getPrimaryKeys().size());
+                    scannedRecords.put(recordVar, new ScannedRecord(scan, (ARecordType) dataSource.getItemType()));
+                }
+            }
+        }
+        if (op instanceof AbstractOperatorWithNestedPlans) {
+            for (ILogicalPlan plan : ((AbstractOperatorWithNestedPlans) op).getNestedPlans()) {
+                for (Mutable<ILogicalOperator> rootRef : plan.getRoots()) {
+                    collectScannedRecords(rootRef.getValue(), scannedRecords, visited);
+                }
+            }
+        }
+        for (Mutable<ILogicalOperator> inputRef : op.getInputs()) {
+            collectScannedRecords(inputRef.getValue(), scannedRecords, visited);
+        }
+    }
+
+    private static void collectFieldAccesses(ILogicalOperator op, Map<LogicalVariable, ScannedRecord> scannedRecords,
+            Set<ILogicalOperator> visited) throws AlgebricksException {
+        if (!visited.add(op)) {
+            return;
+        }
+        Set<LogicalVariable> varsInExpressions = new HashSet<>();
+        op.acceptExpressionTransform(exprRef -> {
+            collectFieldAccesses(exprRef.getValue(), scannedRecords, varsInExpressions);
+            return false;
+        });
+        if (op.getOperatorTag() == LogicalOperatorTag.DATASOURCESCAN) {
+            Mutable<ILogicalExpression> selectCondition = ((DataSourceScanOperator) op).getSelectCondition();
+            if (selectCondition != null) {
+                collectFieldAccesses(selectCondition.getValue(), scannedRecords, varsInExpressions);
+            }
+        }
+        if (op.getOperatorTag() != LogicalOperatorTag.PROJECT) {
+            // the records are used without accessing their fields, e.g., by renaming them in a UNION_ALL
+            Set<LogicalVariable> usedVars = new HashSet<>();
+            VariableUtilities.getUsedVariables(op, usedVars);
+            usedVars.removeAll(varsInExpressions);
+            for (LogicalVariable var : usedVars) {
+                ScannedRecord record = scannedRecords.get(var);
+                if (record != null) {
+                    record.fieldNames = null;
+                }
+            }
+        }
+        if (op instanceof AbstractOperatorWithNestedPlans) {
+            for (ILogicalPlan plan : ((AbstractOperatorWithNestedPlans) op).getNestedPlans()) {
+                for (Mutable<ILogicalOperator> rootRef : plan.getRoots()) {
+                    collectFieldAccesses(rootRef.getValue(), scannedRecords, visited);
+                }
+            }
+        }
+        for (Mutable<ILogicalOperator> inputRef : op.getInputs()) {
+            collectFieldAccesses(inputRef.getValue(), scannedRecords, visited);
+        }
+    }
+
+    private static void collectFieldAccesses(ILogicalExpression expr,
+            Map<LogicalVariable, ScannedRecord> scannedRecords, Set<LogicalVariable> varsInExpressions) {
+        switch (expr.getExpressionTag()) {
+            case VARIABLE:
+                LogicalVariable var = ((VariableReferenceExpression) expr).getVariableReference();
+                varsInExpressions.add(var);
+                ScannedRecord record = scannedRecords.get(var);
+                if (record != null) {
+                    // the whole record is used
+                    record.fieldNames = null;
+                }
+                break;
+            case FUNCTION_CALL:
+                AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+                if (!collectFieldAccess(f, scannedRecords, varsInExpressions)) {
+                    for (Mutable<ILogicalExpression> argRef : f.getArguments()) {
+                        collectFieldAccesses(argRef.getValue(), scannedRecords, varsInExpressions);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return true if the function is a field access with a constant name or index to a scanned record
+     */
+    private static boolean collectFieldAccess(AbstractFunctionCallExpression f,
+            Map<LogicalVariable, ScannedRecord> scannedRecords, Set<LogicalVariable> varsInExpressions) {
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        if (!fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME) && !fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            return false;
+        }
+        ILogicalExpression recordExpr = f.getArguments().get(0).getValue();
+        if (!(recordExpr instanceof VariableReferenceExpression)) {
+            return false;
+        }
+        LogicalVariable var = ((VariableReferenceExpression) recordExpr).getVariableReference();
+        ScannedRecord record = scannedRecords.get(var);
+        if (record == null) {
+            return false;
+        }
+        ILogicalExpression fieldExpr = f.getArguments().get(1).getValue();
+        String fieldName;
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            fieldName = ConstantExpressionUtil.getStringConstant(fieldExpr);
+        } else {
+            Integer fieldIndex = ConstantExpressionUtil.getIntConstant(fieldExpr);
+            String[] fieldNames = record.recordType.getFieldNames();
+            fieldName = fieldIndex != null && fieldIndex >= 0 && fieldIndex < fieldNames.length ? fieldNames[fieldIndex]
+                    : null;
+        }
+        if (fieldName == null) {
+            return false;
+        }
+        varsInExpressions.add(var);
+        if (record.fieldNames != null) {
+            record.fieldNames.add(fieldName);
+        }
+        return true;
+    }
+
+    private static class ScannedRecord {
+        private final DataSourceScanOperator scan;
+        private final ARecordType recordType;
+        // null if the whole record is used
+        private Set<String> fieldNames = new TreeSet<>();
+
+        private ScannedRecord(DataSourceScanOperator scan, ARecordType recordType) {
+            this.scan = scan;
+            this.recordType = recordType;
+        }
+    }
+}
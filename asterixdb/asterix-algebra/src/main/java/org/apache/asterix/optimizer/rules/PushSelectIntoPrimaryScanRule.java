@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Pattern:
+ * SCAN -> (ASSIGN)* -> SELECT
+ * We push the SELECT condition into a primary index SCAN when it is a conjunction of simple comparisons between
+ * constants and (fields of) the scanned variables, so that the index search drops the tuples that do not satisfy it
+ * before they are written into its output frames. The pushdown is enabled by the compiler.scan.pushdown option and
+ * is always enabled for datasets that are stored in the columnar format.
+ */
+public class PushSelectIntoPrimaryScanRule implements IAlgebraicRewriteRule {
+
+    private static final Set<FunctionIdentifier> COMPARISON_FUNCTIONS = ImmutableSet.of(AlgebricksBuiltinFunctions.EQ,
+            AlgebricksBuiltinFunctions.NEQ, AlgebricksBuiltinFunctions.LT, AlgebricksBuiltinFunctions.LE,
+            AlgebricksBuiltinFunctions.GT, AlgebricksBuiltinFunctions.GE);
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.SELECT) {
+            return false;
+        }
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+
+        SelectOperator select = (SelectOperator) op;
+        Map<LogicalVariable, ILogicalExpression> varAssignRhs = new HashMap<>();
+        ILogicalOperator child = select.getInputs().get(0).getValue();
+        for (; child.getOperatorTag() == LogicalOperatorTag.ASSIGN; child = child.getInputs().get(0).getValue()) {
+            AssignOperator assignOp = (AssignOperator) child;
+            List<LogicalVariable> vars = assignOp.getVariables();
+            List<Mutable<ILogicalExpression>> exprs = assignOp.getExpressions();
+            for (int i = 0, ln = vars.size(); i < ln; i++) {
+                varAssignRhs.put(vars.get(i), exprs.get(i).getValue());
+            }
+        }
+        if (child.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            return false;
+        }
+        DataSourceScanOperator scan = (DataSourceScanOperator) child;
+        if (!isScanPushable(scan, context)) {
+            return false;
+        }
+        // the assigned variables are inlined into the condition as the SCAN cannot see them
+        Mutable<ILogicalExpression> selectConditionRef =
+                new MutableObject<>(select.getCondition().getValue().cloneExpression());
+        inlineVariables(selectConditionRef, varAssignRhs);
+        if (!isSimpleCondition(selectConditionRef.getValue(), scan.getVariables())) {
+            return false;
+        }
+        scan.setSelectCondition(selectConditionRef);
+        // SELECT is not needed
+        opRef.setValue(select.getInputs().get(0).getValue());
+        OperatorPropertiesUtil.typeOpRec(opRef, context);
+        return true;
+    }
+
+    private static boolean isScanPushable(DataSourceScanOperator op, IOptimizationContext context) {
+        if (op.getSelectCondition() != null || op.getOutputLimit() >= 0) {
+            // already pushed
+            return false;
+        }
+        if (!op.getInputs().isEmpty()
+                && op.getInputs().get(0).getValue().getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE) {
+            return false;
+        }
+        if (((DataSource) op.getDataSource()).getDatasourceType() != DataSource.Type.INTERNAL_DATASET) {
+            return false;
+        }
+        return isScanPushdownEnabled(((DatasetDataSource) op.getDataSource()).getDataset(), context);
+    }
+
+    /**
+     * @return true if field projections and conditions may be pushed into the scans of the given dataset
+     */
+    public static boolean isScanPushdownEnabled(Dataset dataset, IOptimizationContext context) {
+        if (dataset.getDatasetFormat() == DatasetFormat.COLUMN) {
+            return true;
+        }
+        return context.getPhysicalOptimizationConfig().getScanPushdown();
+    }
+
+    private static void inlineVariables(Mutable<ILogicalExpression> exprRef,
+            Map<LogicalVariable, ILogicalExpression> varAssignRhs) {
+        ILogicalExpression expr = exprRef.getValue();
+        switch (expr.getExpressionTag()) {
+            case VARIABLE:
+                ILogicalExpression rhs = varAssignRhs.get(((VariableReferenceExpression) expr).getVariableReference());
+                if (rhs != null && rhs.isFunctional()) {
+                    exprRef.setValue(rhs.cloneExpression());
+                    // the assigned expression may use variables of assigns below
+                    inlineVariables(exprRef, varAssignRhs);
+                }
+                break;
+            case FUNCTION_CALL:
+                for (Mutable<ILogicalExpression> argRef : ((AbstractFunctionCallExpression) expr).getArguments()) {
+                    inlineVariables(argRef, varAssignRhs);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static boolean isSimpleCondition(ILogicalExpression expr, List<LogicalVariable> scanVariables) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        if (fid.equals(AlgebricksBuiltinFunctions.AND)) {
+            for (Mutable<ILogicalExpression> argRef : f.getArguments()) {
+                if (!isSimpleCondition(argRef.getValue(), scanVariables)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return COMPARISON_FUNCTIONS.contains(fid) && isSimpleOperand(f.getArguments().get(0).getValue(), scanVariables)
+                && isSimpleOperand(f.getArguments().get(1).getValue(), scanVariables);
+    }
+
+    private static boolean isSimpleOperand(ILogicalExpression expr, List<LogicalVariable> scanVariables) {
+        switch (expr.getExpressionTag()) {
+            case CONSTANT:
+                return true;
+            case VARIABLE:
+                return scanVariables.contains(((VariableReferenceExpression) expr).getVariableReference());
+            case FUNCTION_CALL:
+                AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+                FunctionIdentifier fid = f.getFunctionIdentifier();
+                if (!fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)
+                        && !fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+                    return false;
+                }
+                return isSimpleOperand(f.getArguments().get(0).getValue(), scanVariables)
+                        && f.getArguments().get(1).getValue().getExpressionTag() == LogicalExpressionTag.CONSTANT;
+            default:
+                return false;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -40,6 +41,9 @@ import org.apache.hyracks.http.api.IServletRequest;
 import org.apache.hyracks.http.api.IServletResponse;
 import org.apache.hyracks.http.server.AbstractServlet;
 import org.apache.hyracks.http.server.utils.HttpUtil;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThrottlingScheduler;
+import org.apache.hyracks.storage.common.buffercache.BufferCachePartition;
 import org.apache.hyracks.util.JSONUtil;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -75,6 +79,10 @@ public class StorageApiServlet extends AbstractServlet {
                 json = getPartitionStatus(path);
             } else if (path.startsWith("/stats")) {
                 json = getStats();
+            } else if (path.startsWith("/buffercache")) {
+                json = getBufferCacheStats();
+            } else if (path.startsWith("/io")) {
+                json = getIoSchedulerStats();
             } else {
                 throw new IllegalArgumentException();
             }
@@ -105,6 +113,9 @@ public class StorageApiServlet extends AbstractServlet {
             case "/release":
                 processRelease(request, response);
                 break;
+            case "/mergeRate":
+                processMergeRate(request, response);
+                break;
             default:
                 sendError(response, HttpResponseStatus.NOT_FOUND);
                 break;
@@ -194,6 +205,63 @@ public class StorageApiServlet extends AbstractServlet {
         response.setStatus(HttpResponseStatus.OK);
     }
 
+    private void processMergeRate(IServletRequest request, IServletResponse response) {
+        final String rate = request.getParameter("rate");
+        final ILSMIOOperationScheduler ioScheduler = appCtx.getLSMIOScheduler();
+        if (rate == null || !(ioScheduler instanceof ThrottlingScheduler)) {
+            response.setStatus(HttpResponseStatus.BAD_REQUEST);
+            return;
+        }
+        ((ThrottlingScheduler) ioScheduler).setMergeBandwidth(Long.parseLong(rate));
+        response.setStatus(HttpResponseStatus.OK);
+    }
+
+    private JsonNode getIoSchedulerStats() {
+        final ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        final ILSMIOOperationScheduler ioScheduler = appCtx.getLSMIOScheduler();
+        result.put("scheduler", ioScheduler.getClass().getSimpleName());
+        if (!(ioScheduler instanceof ThrottlingScheduler)) {
+            return result;
+        }
+        final ThrottlingScheduler scheduler = (ThrottlingScheduler) ioScheduler;
+        result.put("mergeRate", scheduler.getMergeBandwidth());
+        result.put("mergesPaused", scheduler.areMergesPaused());
+        result.put("waitingMerges", scheduler.getNumWaitingMerges());
+        result.put("completedMerges", scheduler.getNumCompletedMerges());
+        result.put("totalQueuedTimeMs", TimeUnit.NANOSECONDS.toMillis(scheduler.getTotalQueuedTime()));
+        result.put("totalThrottledTimeMs", TimeUnit.NANOSECONDS.toMillis(scheduler.getTotalThrottledTime()));
+        final ArrayNode merges = OBJECT_MAPPER.createArrayNode();
+        for (ThrottlingScheduler.MergeThrottle merge : scheduler.getCompletedMerges()) {
+            final ObjectNode mergeJson = OBJECT_MAPPER.createObjectNode();
+            mergeJson.put("index", merge.getOperation().getIndexIdentifier());
+            mergeJson.put("status", String.valueOf(merge.getOperation().getStatus()));
+            mergeJson.put("queuedTimeMs", TimeUnit.NANOSECONDS.toMillis(merge.getQueuedTime()));
+            mergeJson.put("runningTimeMs", TimeUnit.NANOSECONDS.toMillis(merge.getRunningTime()));
+            mergeJson.put("throttledTimeMs", TimeUnit.NANOSECONDS.toMillis(merge.getThrottledTime()));
+            merges.add(mergeJson);
+        }
+        result.set("lastMerges", merges);
+        return result;
+    }
+
+    private JsonNode getBufferCacheStats() {
+        final ArrayNode result = OBJECT_MAPPER.createArrayNode();
+        for (BufferCachePartition partition : appCtx.getBufferCache().getPartitions()) {
+            final long hits = partition.getHits();
+            final long accesses = hits + partition.getMisses();
+            final ObjectNode partitionJson = OBJECT_MAPPER.createObjectNode();
+            partitionJson.put("name", partition.getName());
+            partitionJson.put("minPages", partition.getMinPages());
+            partitionJson.put("maxPages", partition.getMaxPages());
+            partitionJson.put("pages", partition.getNumPages());
+            partitionJson.put("hits", hits);
+            partitionJson.put("misses", partition.getMisses());
+            partitionJson.put("hitRate", accesses == 0 ? 0 : (double) hits / accesses);
+            result.add(partitionJson);
+        }
+        return result;
+    }
+
     private JsonNode getStats() throws HyracksDataException {
         final PersistentLocalResourceRepository localResourceRepository =
                 (PersistentLocalResourceRepository) appCtx.getLocalResourceRepository();
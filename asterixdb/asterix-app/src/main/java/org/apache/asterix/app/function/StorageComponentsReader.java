@@ -55,7 +55,11 @@ public class StorageComponentsReader extends FunctionReader {
                 strBuilder.append(nodeId);
                 strBuilder.append("\", \"path\":\"");
                 strBuilder.append(path);
-                strBuilder.append("\", \"components\":[");
+                strBuilder.append("\", \"flushedBytes\":");
+                strBuilder.append(index.getFlushedBytes());
+                strBuilder.append(", \"mergedBytes\":");
+                strBuilder.append(index.getMergedBytes());
+                strBuilder.append(", \"components\":[");
                 // syncronize over the opTracker
                 synchronized (index.getOperationTracker()) {
                     List<ILSMDiskComponent> diskComponents = index.getDiskComponents();
@@ -59,8 +59,10 @@ import org.apache.asterix.metadata.utils.SecondaryCorrelatedTreeIndexOperationsH
 import org.apache.asterix.om.pointables.nonvisitor.AIntervalPointable;
 import org.apache.asterix.om.pointables.nonvisitor.AListPointable;
 import org.apache.asterix.om.pointables.nonvisitor.ARecordPointable;
+import org.apache.asterix.runtime.column.ARecordColumnShredderFactory;
 import org.apache.asterix.runtime.compression.CompressionManager;
 import org.apache.asterix.runtime.utils.RuntimeComponentsProvider;
+import org.apache.asterix.runtime.zonemap.ARecordZoneMapValueExtractorFactory;
 import org.apache.asterix.transaction.management.opcallbacks.PrimaryIndexOperationTrackerFactory;
 import org.apache.asterix.transaction.management.opcallbacks.SecondaryIndexOperationTrackerFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -89,9 +91,11 @@ import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeLocalResour
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeWithBuddyLocalResource;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.LSMBTreeLocalResource;
 import org.apache.hyracks.storage.am.lsm.common.impls.ConstantMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.LeveledMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.NoMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.PrefixMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.SizeTieredMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.LSMInvertedIndexLocalResource;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.DelimitedUTF8StringBinaryTokenizerFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.HashedUTF8NGramTokenFactory;
@@ -146,6 +150,8 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
         REGISTERED_CLASSES.put("PrefixMergePolicyFactory", PrefixMergePolicyFactory.class);
         REGISTERED_CLASSES.put("ConstantMergePolicyFactory", ConstantMergePolicyFactory.class);
         REGISTERED_CLASSES.put("CorrelatedPrefixMergePolicyFactory", CorrelatedPrefixMergePolicyFactory.class);
+        REGISTERED_CLASSES.put("SizeTieredMergePolicyFactory", SizeTieredMergePolicyFactory.class);
+        REGISTERED_CLASSES.put("LeveledMergePolicyFactory", LeveledMergePolicyFactory.class);
 
         // ILSMIOOperationSchedulerProvider
         REGISTERED_CLASSES.put("RuntimeComponentsProvider", RuntimeComponentsProvider.class);
@@ -252,6 +258,12 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
 
         //ICompressorDecompressorFactory
         CompressionManager.registerCompressorDecompressorsFactoryClasses(REGISTERED_CLASSES);
+
+        // IColumnShredderFactory
+        REGISTERED_CLASSES.put("ARecordColumnShredderFactory", ARecordColumnShredderFactory.class);
+
+        // IZoneMapValueExtractorFactory
+        REGISTERED_CLASSES.put("ARecordZoneMapValueExtractorFactory", ARecordZoneMapValueExtractorFactory.class);
     }
 
     @Override
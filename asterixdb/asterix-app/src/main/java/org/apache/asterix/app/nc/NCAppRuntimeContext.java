@@ -58,6 +58,7 @@ import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.library.ILibraryManager;
 import org.apache.asterix.common.replication.IReplicationChannel;
 import org.apache.asterix.common.replication.IReplicationManager;
+import org.apache.asterix.common.storage.DatasetBufferCachePartitionResolver;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
 import org.apache.asterix.common.storage.IReplicaManager;
 import org.apache.asterix.common.transactions.IRecoveryManager;
@@ -95,6 +96,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
 import org.apache.hyracks.storage.am.lsm.common.impls.PrefixMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThrottlingScheduler;
 import org.apache.hyracks.storage.common.ILocalResourceRepository;
 import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
@@ -104,6 +106,7 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICacheMemoryAllocator;
 import org.apache.hyracks.storage.common.buffercache.IPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.ScanResistantClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.storage.common.file.ILocalResourceRepositoryFactory;
 import org.apache.hyracks.storage.common.file.IResourceIdFactory;
@@ -185,9 +188,8 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 MaintainedThreadNameExecutorService.newCachedThreadPool(getServiceContext().getThreadFactory());
         ICacheMemoryAllocator allocator = new HeapBufferAllocator();
         IPageCleanerPolicy pcp = new DelayPageCleanerPolicy(600000);
-        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(allocator,
-                storageProperties.getBufferCachePageSize(), storageProperties.getBufferCacheNumPages());
-        lsmIOScheduler = new AsynchronousScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE);
+        IPageReplacementStrategy prs = createPageReplacementStrategy(allocator);
+        lsmIOScheduler = createIoScheduler();
         metadataMergePolicyFactory = new PrefixMergePolicyFactory();
         indexCheckpointManagerProvider = new IndexCheckpointManagerProvider(ioManager);
         ILocalResourceRepositoryFactory persistentLocalResourceRepositoryFactory =
@@ -236,11 +238,14 @@ public class NCAppRuntimeContext implements INcApplicationContext {
 
             bufferCache = new BufferCache(ioManager, prs, pcp, new FileMapManager(),
                     storageProperties.getBufferCacheMaxOpenFiles(), getServiceContext().getThreadFactory(),
-                    replicationManager);
+                    storageProperties.getBufferCacheReadAheadPages(), replicationManager);
         } else {
             bufferCache = new BufferCache(ioManager, prs, pcp, new FileMapManager(),
-                    storageProperties.getBufferCacheMaxOpenFiles(), getServiceContext().getThreadFactory());
+                    storageProperties.getBufferCacheMaxOpenFiles(), getServiceContext().getThreadFactory(),
+                    storageProperties.getBufferCacheReadAheadPages());
         }
+        ((BufferCache) bufferCache).setPartitionResolver(new DatasetBufferCachePartitionResolver(
+                storageProperties.getBufferCachePartitions(), storageProperties.getBufferCacheNumPages()));
 
         /*
          * The order of registration is important. The buffer cache must registered before recovery and transaction
@@ -270,6 +275,37 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         lccm.register(txnSubsystem.getCheckpointManager());
     }
 
+    private ILSMIOOperationScheduler createIoScheduler() {
+        final int maxConcurrentMerges = storageProperties.getMaxConcurrentMergesPerDevice();
+        final long maxMergeWriteRate = storageProperties.getMaxMergeWriteRate();
+        final int flushParallelism = storageProperties.getFlushParallelism();
+        final int mergeParallelism = storageProperties.getMergeParallelism();
+        final int numIoDevices = ioManager.getIODevices().size();
+        if (maxConcurrentMerges == 0 && maxMergeWriteRate == 0) {
+            return new AsynchronousScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                    flushParallelism, mergeParallelism, numIoDevices);
+        }
+        return new ThrottlingScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                maxConcurrentMerges, maxMergeWriteRate, flushParallelism, mergeParallelism, numIoDevices,
+                storageProperties.getMaxMergeFlushYieldTime());
+    }
+
+    private IPageReplacementStrategy createPageReplacementStrategy(ICacheMemoryAllocator allocator) {
+        final int pageSize = storageProperties.getBufferCachePageSize();
+        final int numPages = storageProperties.getBufferCacheNumPages();
+        final String policy = storageProperties.getBufferCacheReplacementPolicy();
+        switch (policy.toLowerCase()) {
+            case "clock":
+                return new ClockPageReplacementStrategy(allocator, pageSize, numPages);
+            case "scan-resistant":
+                return new ScanResistantClockPageReplacementStrategy(allocator, pageSize, numPages);
+            default:
+                throw new IllegalStateException("Invalid buffer cache replacement policy ("
+                        + StorageProperties.Option.STORAGE_BUFFERCACHE_REPLACEMENTPOLICY.ini() + " = " + policy
+                        + "). Valid values are: [clock,scan-resistant]");
+        }
+    }
+
     @Override
     public boolean isShuttingdown() {
         return isShuttingdown;
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.nc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.asterix.common.exceptions.ACIDException;
+
+/**
+ * Redoes log records on a pool of workers during recovery. The records of a resource are always redone by the same
+ * worker in the order they were submitted, so the redo of each resource follows its LSN order while different
+ * resources are redone in parallel.
+ */
+class ParallelRedo {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Runnable STOP = () -> {
+    };
+    private final List<BlockingQueue<Runnable>> queues;
+    private final List<Future<?>> workers;
+    private volatile Throwable failure;
+
+    ParallelRedo(ExecutorService executor, int parallelism) {
+        queues = new ArrayList<>(parallelism);
+        workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            workers.add(executor.submit(() -> work(queue)));
+        }
+    }
+
+    /**
+     * Queues the redo of a log record of a resource after the previously queued redos of the same resource
+     *
+     * @param resourceId
+     *            the id of the resource the log record belongs to
+     * @param redo
+     *            the redo of the log record, which must not refer to the log reader buffers
+     */
+    void submit(long resourceId, Runnable redo) {
+        checkFailure();
+        put(queues.get(Math.floorMod(Long.hashCode(resourceId), queues.size())), redo);
+    }
+
+    /**
+     * Waits until all the queued redos are done
+     */
+    void sync() {
+        Barrier barrier = new Barrier(queues.size());
+        for (BlockingQueue<Runnable> queue : queues) {
+            put(queue, barrier);
+        }
+        try {
+            barrier.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ACIDException(e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Stops the workers after they are done with the queued redos
+     */
+    void close() {
+        for (BlockingQueue<Runnable> queue : queues) {
+            put(queue, STOP);
+        }
+        boolean interrupted = false;
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work(BlockingQueue<Runnable> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                Runnable task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) { //NOSONAR the workers must survive interrupts until stopped
+                    interrupted = true;
+                    continue;
+                }
+                if (task == STOP) {
+                    return;
+                }
+                run(task);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        // once a redo failed, the remaining ones are skipped but the workers keep draining their queues
+        if (failure == null || task instanceof Barrier) {
+            try {
+                task.run();
+            } catch (Throwable th) { // NOSONAR the failure is rethrown by the recovering thread
+                if (failure == null) {
+                    failure = th;
+                }
+            }
+        }
+    }
+
+    private void checkFailure() {
+        Throwable th = failure;
+        if (th != null) {
+            throw new ACIDException("Failed to redo", th);
+        }
+    }
+
+    private static void put(BlockingQueue<Runnable> queue, Runnable task) {
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ACIDException(e);
+        }
+    }
+
+    private static class Barrier implements Runnable {
+        private final CountDownLatch latch;
+
+        Barrier(int parties) {
+            latch = new CountDownLatch(parties);
+        }
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+}
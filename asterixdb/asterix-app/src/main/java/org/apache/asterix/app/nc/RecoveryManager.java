@@ -39,6 +39,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.asterix.common.api.IDatasetLifecycleManager;
@@ -72,6 +74,8 @@ import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId.IdCompareResult;
@@ -103,6 +107,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
     private static final String RECOVERY_FILES_DIR_NAME = "recovery_temp";
     private Map<Long, JobEntityCommits> jobId2WinnerEntitiesMap = null;
     private final long cachedEntityCommitsPerJobSize;
+    private final int redoParallelism;
     protected final PersistentLocalResourceRepository localResourceRepository;
     private final ICheckpointManager checkpointManager;
     private SystemState state;
@@ -119,6 +124,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
         replicationEnabled = repProperties.isReplicationEnabled();
         localResourceRepository = (PersistentLocalResourceRepository) appCtx.getLocalResourceRepository();
         cachedEntityCommitsPerJobSize = txnSubsystem.getTransactionProperties().getJobRecoveryMemorySize();
+        redoParallelism = txnSubsystem.getTransactionProperties().getRecoveryRedoParallelism();
         checkpointManager = txnSubsystem.getCheckpointManager();
     }
 
@@ -179,9 +185,12 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
     @Override
     public synchronized void replayPartitionsLogs(Set<Integer> partitions, ILogReader logReader, long lowWaterMarkLSN)
             throws IOException, ACIDException {
+        final long startTime = System.nanoTime();
         try {
             Set<Long> winnerJobSet = startRecoverysAnalysisPhase(partitions, logReader, lowWaterMarkLSN);
             startRecoveryRedoPhase(partitions, logReader, lowWaterMarkLSN, winnerJobSet);
+            LOGGER.info("Replayed the logs of partitions {} in {} ms", partitions,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
         } finally {
             logReader.close();
             deleteRecoveryTemporaryFiles();
@@ -190,6 +199,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
 
     private synchronized Set<Long> startRecoverysAnalysisPhase(Set<Integer> partitions, ILogReader logReader,
             long lowWaterMarkLSN) throws IOException, ACIDException {
+        final long startTime = System.nanoTime();
         int updateLogCount = 0;
         int entityCommitLogCount = 0;
         int jobCommitLogCount = 0;
@@ -241,7 +251,8 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
             winners.prepareForSearch();
         }
 
-        LOGGER.info("Logs analysis phase completed.");
+        LOGGER.info("Logs analysis phase completed in {} ms.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
         LOGGER.info("Analysis log count update/entityCommit/jobCommit/abort = " + updateLogCount + "/"
                 + entityCommitLogCount + "/" + jobCommitLogCount + "/" + abortLogCount);
 
@@ -278,6 +289,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
 
     private synchronized void startRecoveryRedoPhase(Set<Integer> partitions, ILogReader logReader,
             long lowWaterMarkLSN, Set<Long> winnerTxnSet) throws IOException, ACIDException {
+        final long startTime = System.nanoTime();
         int redoCount = 0;
         long txnId = 0;
 
@@ -299,6 +311,9 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
         TxnEntityId tempKeyTxnEntityId = new TxnEntityId(-1, -1, -1, null, -1, false);
 
         ILogRecord logRecord = null;
+        // with a single redo thread, log records are redone by the thread reading them
+        final ParallelRedo parallelRedo = redoParallelism > 1
+                ? new ParallelRedo((ExecutorService) appCtx.getThreadExecutor(), redoParallelism) : null;
         try {
             logReader.setPosition(lowWaterMarkLSN);
             logRecord = logReader.next();
@@ -378,7 +393,11 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                             }
                             // lsn @ maxDiskLastLsn is either a flush log or a master replica log
                             if (lsn >= maxDiskLastLsn) {
-                                redo(logRecord, datasetLifecycleManager);
+                                if (parallelRedo != null) {
+                                    submitRedo(parallelRedo, logRecord, datasetLifecycleManager);
+                                } else {
+                                    redo(logRecord, datasetLifecycleManager);
+                                }
                                 redoCount++;
                             }
                         }
@@ -392,6 +411,10 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                                 logRecord = logReader.next();
                                 continue;
                             }
+                            if (parallelRedo != null) {
+                                // the memory components must hold all the records preceding the flush
+                                parallelRedo.sync();
+                            }
                             DatasetInfo dsInfo = datasetLifecycleManager.getDatasetInfo(datasetId);
                             // we only need to flush open indexes here (opened by previous update records)
                             // if an index has no ongoing updates, then it's memory component must be empty
@@ -433,17 +456,37 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                 }
                 logRecord = logReader.next();
             }
-            LOGGER.info("Logs REDO phase completed. Redo logs count: " + redoCount);
+            if (parallelRedo != null) {
+                parallelRedo.sync();
+            }
+            LOGGER.info("Logs REDO phase completed in {} ms with {} redo thread(s). Redo logs count: {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), redoParallelism, redoCount);
         } finally {
+            if (parallelRedo != null) {
+                parallelRedo.close();
+            }
             txnSubsystem.getTransactionManager().ensureMaxTxnId(txnId);
             //close all indexes
+            final long closeStartTime = System.nanoTime();
             Set<Long> resourceIdList = resourceId2MaxLSNMap.keySet();
             for (long r : resourceIdList) {
                 datasetLifecycleManager.close(resourcesMap.get(r).getPath());
             }
+            LOGGER.info("Closed {} recovered indexes in {} ms", resourceIdList.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - closeStartTime));
         }
     }
 
+    private static void submitRedo(ParallelRedo parallelRedo, ILogRecord logRecord,
+            IDatasetLifecycleManager datasetLifecycleManager) throws HyracksDataException {
+        // the log record and its values are reused by the log reader, so the redo gets its own copies
+        final int datasetId = logRecord.getDatasetId();
+        final long resourceId = logRecord.getResourceId();
+        final byte newOp = logRecord.getNewOp();
+        final ITupleReference newValue = TupleUtils.copyTuple(logRecord.getNewValue());
+        parallelRedo.submit(resourceId, () -> redo(datasetId, resourceId, newOp, newValue, datasetLifecycleManager));
+    }
+
     private boolean needToFreeMemory() {
         return Runtime.getRuntime().freeMemory() < cachedEntityCommitsPerJobSize;
     }
@@ -797,26 +840,30 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
     }
 
     private static void redo(ILogRecord logRecord, IDatasetLifecycleManager datasetLifecycleManager) {
+        redo(logRecord.getDatasetId(), logRecord.getResourceId(), logRecord.getNewOp(), logRecord.getNewValue(),
+                datasetLifecycleManager);
+    }
+
+    private static void redo(int datasetId, long resourceId, byte newOp, ITupleReference newValue,
+            IDatasetLifecycleManager datasetLifecycleManager) {
         try {
-            int datasetId = logRecord.getDatasetId();
-            long resourceId = logRecord.getResourceId();
             ILSMIndex index = (ILSMIndex) datasetLifecycleManager.getIndex(datasetId, resourceId);
             ILSMIndexAccessor indexAccessor = index.createAccessor(NoOpIndexAccessParameters.INSTANCE);
             ILSMIndexOperationContext opCtx = indexAccessor.getOpContext();
             opCtx.setFilterSkip(true);
             opCtx.setRecovery(true);
-            if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.INSERT_BYTE) {
-                indexAccessor.forceInsert(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.DELETE_BYTE) {
-                indexAccessor.forceDelete(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.UPSERT_BYTE) {
+            if (newOp == AbstractIndexModificationOperationCallback.INSERT_BYTE) {
+                indexAccessor.forceInsert(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.DELETE_BYTE) {
+                indexAccessor.forceDelete(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.UPSERT_BYTE) {
                 // redo, upsert the new value
-                indexAccessor.forceUpsert(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.FILTER_BYTE) {
+                indexAccessor.forceUpsert(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.FILTER_BYTE) {
                 opCtx.setFilterSkip(false);
-                indexAccessor.updateFilter(logRecord.getNewValue());
+                indexAccessor.updateFilter(newValue);
             } else {
-                throw new IllegalStateException("Unsupported OperationType: " + logRecord.getNewOp());
+                throw new IllegalStateException("Unsupported OperationType: " + newOp);
             }
         } catch (Exception e) {
             throw new IllegalStateException("Failed to redo", e);
@@ -28,11 +28,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.asterix.app.bootstrap.TestNodeController;
 import org.apache.asterix.app.data.gen.RecordTupleGenerator;
 import org.apache.asterix.app.data.gen.RecordTupleGenerator.GenerationFunction;
 import org.apache.asterix.app.nc.RecoveryManager;
+import org.apache.asterix.common.config.TransactionProperties.Option;
 import org.apache.asterix.common.dataflow.LSMInsertDeleteOperatorNodePushable;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.Checkpoint;
@@ -55,7 +57,9 @@ import org.apache.asterix.test.dataflow.StorageTestUtils;
 import org.apache.asterix.transaction.management.service.logging.LogManager;
 import org.apache.asterix.transaction.management.service.recovery.AbstractCheckpointManager;
 import org.apache.asterix.transaction.management.service.transaction.TransactionManager;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.config.IOption;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.job.JobId;
@@ -280,6 +284,118 @@ public class CheckpointingTest {
         }
     }
 
+    @Test
+    public void testEstimatedRecoveryTime() {
+        try {
+            TestNodeController nc = new TestNodeController(new File(TEST_CONFIG_FILE_PATH).getAbsolutePath(), false);
+            StorageComponentProvider storageManager = new StorageComponentProvider();
+            nc.init();
+            try {
+                nc.createPrimaryIndex(StorageTestUtils.DATASET, KEY_TYPES, RECORD_TYPE, META_TYPE, null, storageManager,
+                        KEY_INDEXES, KEY_INDICATOR_LIST, 0);
+                JobId jobId = nc.newJobId();
+                IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+                nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                        new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+                LSMInsertDeleteOperatorNodePushable insertOp =
+                        nc.getInsertPipeline(ctx, StorageTestUtils.DATASET, KEY_TYPES, RECORD_TYPE, META_TYPE, null,
+                                KEY_INDEXES, KEY_INDICATOR_LIST, storageManager, null).getLeft();
+                insertOp.open();
+                RecordTupleGenerator tupleGenerator =
+                        new RecordTupleGenerator(RECORD_TYPE, META_TYPE, KEY_INDEXES, KEY_INDICATOR,
+                                RECORD_GEN_FUNCTION, UNIQUE_RECORD_FIELDS, META_GEN_FUNCTION, UNIQUE_META_FIELDS);
+                VSizeFrame frame = new VSizeFrame(ctx);
+                FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+                final ITransactionSubsystem txnSubsystem = nc.getTransactionSubsystem();
+                final ICheckpointManager checkpointManager = txnSubsystem.getCheckpointManager();
+                final long redoRate = nc.getAppRuntimeContext().getTransactionProperties().getCheckpointRedoRate();
+                for (int i = 0; i < 1000; i++) {
+                    DataflowUtils.addTupleToFrame(tupleAppender, tupleGenerator.next(), insertOp);
+                }
+                tupleAppender.write(insertOp, true);
+                // the estimate covers the log from the low-water mark to the end of the log
+                final long redoBytes = txnSubsystem.getLogManager().getAppendLSN()
+                        - txnSubsystem.getRecoveryManager().getMinFirstLSN();
+                Assert.assertTrue(redoBytes > 0);
+                Assert.assertEquals(redoBytes * 1000 / redoRate, checkpointManager.getEstimatedRecoveryTime());
+                // a checkpoint at the end of the log flushes the lagging index and the estimate drops
+                checkpointManager.tryCheckpoint(txnSubsystem.getLogManager().getAppendLSN());
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+                while (txnSubsystem.getRecoveryManager().getMinFirstLSN() < txnSubsystem.getLogManager()
+                        .getAppendLSN()) {
+                    Assert.assertTrue("the lagging index was not flushed", System.nanoTime() < deadline);
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(0, checkpointManager.getEstimatedRecoveryTime());
+            } finally {
+                nc.deInit();
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRecoveryTimeTarget() {
+        try {
+            TestNodeController nc = new TestNodeController(new File(TEST_CONFIG_FILE_PATH).getAbsolutePath(), false);
+            final int recoveryTimeTarget = 1;
+            final int redoRate = 1024;
+            List<Pair<IOption, Object>> opts = new ArrayList<>();
+            opts.add(Pair.of(Option.TXN_LOG_CHECKPOINT_POLLFREQUENCY, 1));
+            opts.add(Pair.of(Option.TXN_LOG_CHECKPOINT_RECOVERYTIMETARGET, recoveryTimeTarget));
+            opts.add(Pair.of(Option.TXN_LOG_CHECKPOINT_REDORATE, redoRate));
+            nc.setOpts(opts);
+            StorageComponentProvider storageManager = new StorageComponentProvider();
+            nc.init();
+            try {
+                nc.createPrimaryIndex(StorageTestUtils.DATASET, KEY_TYPES, RECORD_TYPE, META_TYPE, null, storageManager,
+                        KEY_INDEXES, KEY_INDICATOR_LIST, 0);
+                JobId jobId = nc.newJobId();
+                IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+                nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                        new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+                LSMInsertDeleteOperatorNodePushable insertOp =
+                        nc.getInsertPipeline(ctx, StorageTestUtils.DATASET, KEY_TYPES, RECORD_TYPE, META_TYPE, null,
+                                KEY_INDEXES, KEY_INDICATOR_LIST, storageManager, null).getLeft();
+                insertOp.open();
+                RecordTupleGenerator tupleGenerator =
+                        new RecordTupleGenerator(RECORD_TYPE, META_TYPE, KEY_INDEXES, KEY_INDICATOR,
+                                RECORD_GEN_FUNCTION, UNIQUE_RECORD_FIELDS, META_GEN_FUNCTION, UNIQUE_META_FIELDS);
+                VSizeFrame frame = new VSizeFrame(ctx);
+                FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+                final ITransactionSubsystem txnSubsystem = nc.getTransactionSubsystem();
+                final ICheckpointManager checkpointManager = txnSubsystem.getCheckpointManager();
+                final Checkpoint checkpointBefore = checkpointManager.getLatest();
+                final long appendLSNBefore = txnSubsystem.getLogManager().getAppendLSN();
+                for (int i = 0; i < 1000; i++) {
+                    DataflowUtils.addTupleToFrame(tupleAppender, tupleGenerator.next(), insertOp);
+                }
+                tupleAppender.write(insertOp, true);
+                // the inserts logged more than can be redone within the target
+                final long loggedBytes = txnSubsystem.getLogManager().getAppendLSN() - appendLSNBefore;
+                Assert.assertTrue(loggedBytes * 1000 / redoRate > TimeUnit.SECONDS.toMillis(recoveryTimeTarget));
+                // the checkpoint thread flushes the lagging index and checkpoints until the estimate meets the target
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+                Checkpoint checkpointAfter = checkpointManager.getLatest();
+                while (checkpointManager.getEstimatedRecoveryTime() > TimeUnit.SECONDS.toMillis(recoveryTimeTarget)
+                        || checkpointAfter == null || checkpointAfter.getMinMCTFirstLsn() <= appendLSNBefore) {
+                    Assert.assertTrue("no checkpoint met the recovery time target", System.nanoTime() < deadline);
+                    Thread.sleep(100);
+                    checkpointAfter = checkpointManager.getLatest();
+                }
+                Assert.assertTrue(checkpointBefore == null || checkpointAfter.getId() > checkpointBefore.getId());
+            } finally {
+                nc.deInit();
+                nc.clearOpts();
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
     @Test
     public void testCorruptedCheckpointFiles() {
         try {
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.runtime;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.common.config.CompilerProperties;
+import org.apache.asterix.common.config.GlobalConfig;
+import org.apache.asterix.common.utils.Servlets;
+import org.apache.asterix.test.common.TestExecutor;
+import org.apache.asterix.testframework.context.TestCaseContext.OutputFormat;
+import org.apache.commons.io.IOUtils;
+
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Compares the CPU time of TPC-H Q1 and Q6 with the interpreted and the fused execution of the chained assign, select
+ * and project operators. The cluster runs in this process, so the CPU time of the process is the CPU time of the
+ * queries. It is not run as part of the tests. Usage:
+ * PipelineFusionBenchmark [lineitem file] [loads] [iterations]
+ */
+public class PipelineFusionBenchmark {
+    private static final String CONFIG_FILE_NAME = "src/main/resources/cc.conf";
+    private static final String Q1 = "USE tpch; SELECT l.l_returnflag, l.l_linestatus, sum(l.l_quantity) AS sum_qty, "
+            + "sum(l.l_extendedprice) AS sum_base_price, "
+            + "sum(l.l_extendedprice * (1 - l.l_discount)) AS sum_disc_price, "
+            + "sum(l.l_extendedprice * (1 - l.l_discount) * (1 + l.l_tax)) AS sum_charge, "
+            + "avg(l.l_quantity) AS ave_qty, avg(l.l_extendedprice) AS ave_price, avg(l.l_discount) AS ave_disc, "
+            + "count(l) AS count_order FROM LineItem AS l WHERE l.l_shipdate <= '1998-09-02' "
+            + "GROUP BY l.l_returnflag, l.l_linestatus ORDER BY l.l_returnflag, l.l_linestatus;";
+    private static final String Q6 = "USE tpch; SELECT SUM(l.l_extendedprice * l.l_discount) FROM LineItem AS l "
+            + "WHERE l.l_shipdate >= '1994-01-01' AND l.l_shipdate < '1995-01-01' AND l.l_discount >= 0.05 "
+            + "AND l.l_discount <= 0.07 AND l.l_quantity < 24;";
+    private static final TestExecutor testExecutor = new TestExecutor();
+
+    private PipelineFusionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String lineitemFile = args.length > 0 ? args[0] : "data/tpch0.001/lineitem.tbl";
+        final int loads = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        System.setProperty(GlobalConfig.CONFIG_FILE_PROPERTY, CONFIG_FILE_NAME);
+        final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+        integrationUtil.init(true, CONFIG_FILE_NAME);
+        try {
+            load(lineitemFile, loads);
+            System.out.println(String.format("%s loaded %d times, %d iterations per query", lineitemFile, loads,
+                    iterations));
+            System.out.println(String.format("%-6s %-8s %16s %16s", "query", "fusion", "cpu (ms/query)",
+                    "wall (ms/query)"));
+            for (String[] query : new String[][] { { "Q1", Q1 }, { "Q6", Q6 } }) {
+                for (boolean fusion : new boolean[] { false, true }) {
+                    run(query[0], query[1], fusion, iterations);
+                }
+            }
+        } finally {
+            integrationUtil.deinit(true);
+        }
+    }
+
+    private static void load(String lineitemFile, int loads) throws Exception {
+        final OutputFormat format = OutputFormat.CLEAN_JSON;
+        testExecutor.executeSqlppUpdateOrDdl("DROP DATAVERSE tpch IF EXISTS; CREATE DATAVERSE tpch; USE tpch; "
+                + "CREATE TYPE LineItemType AS CLOSED { l_orderkey: bigint, l_partkey: bigint, l_suppkey: bigint, "
+                + "l_linenumber: bigint, l_quantity: double, l_extendedprice: double, l_discount: double, "
+                + "l_tax: double, l_returnflag: string, l_linestatus: string, l_shipdate: string, "
+                + "l_commitdate: string, l_receiptdate: string, l_shipinstruct: string, l_shipmode: string, "
+                + "l_comment: string }; "
+                + "CREATE DATASET LineItemLoad(LineItemType) PRIMARY KEY l_orderkey, l_linenumber; "
+                + "CREATE TYPE LineItemCopyType AS { id: bigint }; "
+                + "CREATE DATASET LineItem(LineItemCopyType) PRIMARY KEY id AUTOGENERATED;", format);
+        testExecutor.executeSqlppUpdateOrDdl("USE tpch; LOAD DATASET LineItemLoad USING localfs "
+                + "((`path`=`asterix_nc1://" + lineitemFile + "`),(`format`=`delimited-text`),(`delimiter`=`|`));",
+                format);
+        // copies the lineitems several times to get queries that run long enough to be measured
+        for (int i = 0; i < loads; i++) {
+            testExecutor.executeSqlppUpdateOrDdl("USE tpch; INSERT INTO LineItem (SELECT VALUE l FROM LineItemLoad l);",
+                    format);
+        }
+    }
+
+    private static void run(String name, String query, boolean fusion, int iterations) throws Exception {
+        final String statement =
+                "SET `" + CompilerProperties.COMPILER_PIPELINE_FUSION_KEY + "` \"" + fusion + "\"; " + query;
+        final URI endpoint = testExecutor.getEndpoint(Servlets.QUERY_SERVICE);
+        final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        // warms up the compiled code of both modes
+        for (int i = 0; i < iterations; i++) {
+            execute(statement, endpoint);
+        }
+        final long cpuStart = os.getProcessCpuTime();
+        final long wallStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            execute(statement, endpoint);
+        }
+        final long cpu = os.getProcessCpuTime() - cpuStart;
+        final long wall = System.nanoTime() - wallStart;
+        System.out.println(String.format("%-6s %-8s %16.1f %16.1f", name, fusion,
+                (double) TimeUnit.NANOSECONDS.toMicros(cpu) / iterations / 1000,
+                (double) TimeUnit.NANOSECONDS.toMicros(wall) / iterations / 1000));
+    }
+
+    private static void execute(String statement, URI endpoint) throws Exception {
+        try (InputStream result = testExecutor.executeQueryService(statement, endpoint, OutputFormat.CLEAN_JSON)) {
+            IOUtils.toString(result, "UTF-8");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.config.StorageProperties;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.ZstdCompressorDecompressorFactory;
+
+/**
+ * Compares the compression ratio and the compression/decompression throughput of the block compression schemes on
+ * buffer cache pages filled with the TPC-H data of the tests. It is not run as part of the tests. Usage:
+ * CompressionBenchmark [data directory] [page size in bytes] [iterations]
+ */
+public class CompressionBenchmark {
+    private static final String[] TABLES = { "lineitem", "orders", "customer", "part", "partsupp", "supplier" };
+    private static final int DICTIONARY_SIZE = 16 * 1024;
+
+    private CompressionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final File dataDir = new File(args.length > 0 ? args[0] : "data/tpch0.001");
+        final int pageSize = args.length > 1 ? Integer.parseInt(args[1])
+                : (int) StorageProperties.Option.STORAGE_BUFFERCACHE_PAGESIZE.defaultValue();
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final List<ByteBuffer> pages = readPages(dataDir, pageSize);
+        // a raw content dictionary made of a sample of every table
+        final byte[] dictionary = sampleDictionary(dataDir);
+
+        final Map<String, ICompressorDecompressorFactory> schemes = new LinkedHashMap<>();
+        schemes.put("snappy", new SnappyCompressorDecompressorFactory());
+        schemes.put("lz4", new Lz4CompressorDecompressorFactory());
+        schemes.put("lz4:9", new Lz4CompressorDecompressorFactory(9));
+        schemes.put("zstd:1", new ZstdCompressorDecompressorFactory(1, null));
+        schemes.put("zstd:3", new ZstdCompressorDecompressorFactory(3, null));
+        schemes.put("zstd:9", new ZstdCompressorDecompressorFactory(9, null));
+        schemes.put("zstd:19", new ZstdCompressorDecompressorFactory(19, null));
+        schemes.put("zstd:3:dictionary", new ZstdCompressorDecompressorFactory(3, dictionary));
+
+        System.out.println(String.format("%d pages of %d bytes from %s", pages.size(), pageSize, dataDir));
+        System.out.println(
+                String.format("%-20s %10s %20s %22s", "scheme", "ratio", "compress (MB/s)", "decompress (MB/s)"));
+        for (Map.Entry<String, ICompressorDecompressorFactory> scheme : schemes.entrySet()) {
+            run(scheme.getKey(), scheme.getValue().createInstance(), pages, pageSize, iterations);
+        }
+    }
+
+    private static void run(String name, ICompressorDecompressor compDecomp, List<ByteBuffer> pages, int pageSize,
+            int iterations) throws Exception {
+        final ByteBuffer uBuffer = ByteBuffer.allocate(pageSize);
+        final List<ByteBuffer> compressedPages = new ArrayList<>();
+        long compressedSize = 0;
+        for (ByteBuffer page : pages) {
+            final ByteBuffer cBuffer = ByteBuffer.allocate(compDecomp.computeCompressedBufferSize(pageSize));
+            page.clear();
+            compDecomp.compress(page, cBuffer);
+            compressedSize += cBuffer.remaining();
+            compressedPages.add(cBuffer);
+            // verify the round trip once before timing
+            uBuffer.clear();
+            compDecomp.uncompress(cBuffer.duplicate(), uBuffer);
+            page.clear();
+            if (!uBuffer.equals(page)) {
+                throw new IllegalStateException(name + " failed to decompress a page");
+            }
+        }
+
+        final ByteBuffer cBuffer = ByteBuffer.allocate(compDecomp.computeCompressedBufferSize(pageSize));
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (ByteBuffer page : pages) {
+                page.clear();
+                cBuffer.clear();
+                compDecomp.compress(page, cBuffer);
+            }
+        }
+        final long compressNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (ByteBuffer compressedPage : compressedPages) {
+                uBuffer.clear();
+                compDecomp.uncompress(compressedPage.duplicate(), uBuffer);
+            }
+        }
+        final long decompressNanos = System.nanoTime() - start;
+
+        final double totalMB = (double) pages.size() * pageSize * iterations / (1024 * 1024);
+        System.out.println(
+                String.format("%-20s %10.2f %20.1f %22.1f", name, (double) pages.size() * pageSize / compressedSize,
+                        totalMB / (compressNanos / 1e9), totalMB / (decompressNanos / 1e9)));
+    }
+
+    private static List<ByteBuffer> readPages(File dataDir, int pageSize) throws Exception {
+        final List<ByteBuffer> pages = new ArrayList<>();
+        for (String table : TABLES) {
+            final byte[] data = Files.readAllBytes(new File(dataDir, table + ".tbl").toPath());
+            // only full pages, a partially filled page would inflate the ratio
+            for (int offset = 0; offset + pageSize <= data.length; offset += pageSize) {
+                pages.add(ByteBuffer.wrap(Arrays.copyOfRange(data, offset, offset + pageSize)));
+            }
+        }
+        return pages;
+    }
+
+    private static byte[] sampleDictionary(File dataDir) throws Exception {
+        final ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        final int sampleSize = DICTIONARY_SIZE / TABLES.length;
+        for (String table : TABLES) {
+            final byte[] data = Files.readAllBytes(new File(dataDir, table + ".tbl").toPath());
+            // sample from the end of the table, the pages at the start of the table are compressed in the benchmark
+            final int length = Math.min(sampleSize, data.length);
+            dictionary.write(data, data.length - length, length);
+        }
+        return dictionary.toByteArray();
+    }
+}
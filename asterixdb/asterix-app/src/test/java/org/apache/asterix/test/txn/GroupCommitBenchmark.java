@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.txn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.GlobalConfig;
+import org.apache.asterix.common.config.TransactionProperties;
+import org.apache.asterix.transaction.management.service.logging.LogFlushStatistics;
+import org.apache.asterix.transaction.management.service.logging.LogManager;
+
+/**
+ * Measures the commits per second of concurrent committers, each waiting for its log record to be forced, for
+ * several group commit windows. It is not run as part of the tests. Usage:
+ * GroupCommitBenchmark [committers] [seconds per window] [window in microseconds]...
+ */
+public class GroupCommitBenchmark {
+    private static final String CONFIG_FILE_NAME = "src/main/resources/cc.conf";
+    private static final long[] DEFAULT_WINDOWS = { 0, 50, 100, 500, 1000, 5000 };
+
+    private GroupCommitBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int committers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long[] windows = DEFAULT_WINDOWS;
+        if (args.length > 2) {
+            windows = new long[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                windows[i - 2] = Long.parseLong(args[i]);
+            }
+        }
+        System.setProperty(GlobalConfig.CONFIG_FILE_PROPERTY, CONFIG_FILE_NAME);
+        System.out.println(String.format("%d committers, %d seconds per window", committers, seconds));
+        System.out.println(String.format("%-12s %14s %12s %16s %20s", "window (us)", "commits/sec", "batch size",
+                "avg force (us)", "avg commit wait (us)"));
+        for (long window : windows) {
+            run(window, committers, seconds);
+        }
+        // the stopped clusters may leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    private static void run(long window, int committers, int seconds) throws Exception {
+        final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+        integrationUtil.addOption(TransactionProperties.Option.TXN_LOG_GROUPCOMMIT_WINDOW, (int) window);
+        integrationUtil.init(true, CONFIG_FILE_NAME);
+        try {
+            final INcApplicationContext ncAppCtx =
+                    (INcApplicationContext) integrationUtil.ncs[0].getApplicationContext();
+            final LogManager logManager = (LogManager) ncAppCtx.getTransactionSubsystem().getLogManager();
+            final LogFlushStatistics stats = logManager.getFlushStatistics();
+            final AtomicBoolean done = new AtomicBoolean();
+            final AtomicLong commits = new AtomicLong();
+            final List<Thread> threads = new ArrayList<>();
+            stats.reset();
+            for (int i = 0; i < committers; i++) {
+                final long txnId = i + 1L;
+                threads.add(new Thread(() -> {
+                    while (!done.get()) {
+                        logManager.log(LogTestUtil.createWaitLog(txnId));
+                        commits.incrementAndGet();
+                    }
+                }));
+            }
+            final long start = System.nanoTime();
+            threads.forEach(Thread::start);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            done.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            final double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            final long forces = Math.max(1, stats.getForceCount());
+            final long waits = Math.max(1, stats.getCommitCount());
+            System.out.println(String.format("%-12d %14.0f %12.1f %16d %20d", window, commits.get() / elapsedSeconds,
+                    stats.getAverageBatchSize(), TimeUnit.NANOSECONDS.toMicros(stats.getForceTimeNanos() / forces),
+                    TimeUnit.NANOSECONDS.toMicros(stats.getCommitWaitTimeNanos() / waits)));
+        } finally {
+            integrationUtil.deinit(true);
+        }
+    }
+}
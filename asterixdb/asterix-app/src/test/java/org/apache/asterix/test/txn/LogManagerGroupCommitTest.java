@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.txn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.GlobalConfig;
+import org.apache.asterix.common.config.TransactionProperties;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.transaction.management.service.logging.LogFlushStatistics;
+import org.apache.asterix.transaction.management.service.logging.LogManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogManagerGroupCommitTest {
+
+    protected static final String TEST_CONFIG_FILE_NAME = "src/main/resources/cc.conf";
+    private static final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+    private static final int NUM_COMMITTERS = 16;
+
+    @Before
+    public void setUp() {
+        System.setProperty(GlobalConfig.CONFIG_FILE_PROPERTY, TEST_CONFIG_FILE_NAME);
+        integrationUtil.clearOptions();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        integrationUtil.deinit(true);
+        integrationUtil.clearOptions();
+    }
+
+    @Test
+    public void groupedCommits() throws Exception {
+        final long window = TimeUnit.MILLISECONDS.toMicros(200);
+        init(window, 0);
+        final LogManager logManager = getLogManager();
+        final LogFlushStatistics stats = logManager.getFlushStatistics();
+        stats.reset();
+        final List<LogRecord> records = new ArrayList<>();
+        final List<Thread> committers = new ArrayList<>();
+        final CyclicBarrier barrier = new CyclicBarrier(NUM_COMMITTERS);
+        for (int i = 0; i < NUM_COMMITTERS; i++) {
+            final LogRecord logRecord = LogTestUtil.createWaitLog(i + 1);
+            records.add(logRecord);
+            committers.add(new Thread(() -> {
+                try {
+                    barrier.await();
+                    logManager.log(logRecord);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        committers.forEach(Thread::start);
+        for (Thread committer : committers) {
+            committer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        for (LogRecord logRecord : records) {
+            Assert.assertTrue(logRecord.isFlushed());
+        }
+        Assert.assertTrue(stats.getCommitCount() >= NUM_COMMITTERS);
+        // the commits that arrived within the window were forced together
+        Assert.assertTrue(stats.toString(), stats.getForceCount() < NUM_COMMITTERS);
+        Assert.assertTrue(stats.toString(), stats.getAverageBatchSize() > 1);
+        // a lone commit waits for the window to elapse
+        final long start = System.nanoTime();
+        logManager.log(LogTestUtil.createWaitLog(NUM_COMMITTERS + 1));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MICROSECONDS.toNanos(window));
+    }
+
+    @Test
+    public void groupCommitBytesThreshold() throws Exception {
+        // a window long enough to fail the test if the threshold does not end it
+        init(TimeUnit.SECONDS.toMicros(60), 1);
+        final LogManager logManager = getLogManager();
+        final LogRecord logRecord = LogTestUtil.createWaitLog(1);
+        Thread committer = new Thread(() -> logManager.log(logRecord));
+        committer.start();
+        committer.join(TimeUnit.SECONDS.toMillis(30));
+        Assert.assertTrue(logRecord.isFlushed());
+    }
+
+    private static void init(long window, int bytes) throws Exception {
+        integrationUtil.addOption(TransactionProperties.Option.TXN_LOG_GROUPCOMMIT_WINDOW, (int) window);
+        integrationUtil.addOption(TransactionProperties.Option.TXN_LOG_GROUPCOMMIT_BYTES, bytes);
+        integrationUtil.init(true, TEST_CONFIG_FILE_NAME);
+    }
+
+    private static LogManager getLogManager() {
+        final INcApplicationContext ncAppCtx = (INcApplicationContext) integrationUtil.ncs[0].getApplicationContext();
+        return (LogManager) ncAppCtx.getTransactionSubsystem().getLogManager();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.txn;
+
+import org.apache.asterix.common.transactions.ITransactionManager;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.TransactionOptions;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.transaction.management.service.transaction.TransactionContextFactory;
+
+class LogTestUtil {
+
+    private LogTestUtil() {
+    }
+
+    /**
+     * @return a log record that, like a job commit, makes its appender wait until it is forced
+     */
+    static LogRecord createWaitLog(long txnId) {
+        LogRecord logRecord = new LogRecord();
+        logRecord.setTxnCtx(TransactionContextFactory.create(new TxnId(txnId),
+                new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL)));
+        logRecord.setLogSource(LogSource.LOCAL);
+        logRecord.setLogType(LogType.WAIT);
+        logRecord.setTxnId(txnId);
+        logRecord.isFlushed(false);
+        logRecord.computeAndSetLogSize();
+        return logRecord;
+    }
+}
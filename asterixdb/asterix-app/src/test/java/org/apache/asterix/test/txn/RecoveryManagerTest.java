@@ -28,6 +28,7 @@ import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
 import org.apache.asterix.common.TestDataUtil;
 import org.apache.asterix.common.config.GlobalConfig;
 import org.apache.asterix.common.config.StorageProperties;
+import org.apache.asterix.common.config.TransactionProperties;
 import org.apache.asterix.common.utils.Servlets;
 import org.apache.asterix.test.common.TestExecutor;
 import org.apache.asterix.metadata.bootstrap.MetadataBuiltinEntities;
@@ -89,6 +90,39 @@ public class RecoveryManagerTest {
         Assert.assertEquals(countBeforeSecondRecovery, countAfterSecondRecovery);
     }
 
+    @Test
+    public void parallelRedoRecovery() throws Exception {
+        String datasetNamePrefix = "ds_";
+        int numDatasets = 10;
+        long[] countsBeforeRecovery = new long[numDatasets];
+        for (int i = 0; i < numDatasets; i++) {
+            TestDataUtil.createIdOnlyDataset(datasetNamePrefix + i);
+            TestDataUtil.upsertData(datasetNamePrefix + i, 10 + i);
+            countsBeforeRecovery[i] = TestDataUtil.getDatasetCount(datasetNamePrefix + i);
+        }
+        // do ungraceful shutdown to enforce recovery and redo the logs of the datasets in parallel
+        integrationUtil.deinit(false);
+        integrationUtil.addOption(TransactionProperties.Option.TXN_RECOVERY_REDO_PARALLELISM, 4);
+        integrationUtil.init(false, TEST_CONFIG_FILE_PATH);
+        for (int i = 0; i < numDatasets; i++) {
+            Assert.assertEquals(countsBeforeRecovery[i], TestDataUtil.getDatasetCount(datasetNamePrefix + i));
+        }
+    }
+
+    @Test
+    public void memoryMappedLogRecovery() throws Exception {
+        String datasetName = "ds";
+        TestDataUtil.createIdOnlyDataset(datasetName);
+        TestDataUtil.upsertData(datasetName, 100);
+        final long countBeforeRecovery = TestDataUtil.getDatasetCount(datasetName);
+        // do ungraceful shutdown to enforce recovery and read the logs through memory mapped log files
+        integrationUtil.deinit(false);
+        integrationUtil.addOption(TransactionProperties.Option.TXN_LOG_READER_MEMORYMAPPED, true);
+        integrationUtil.init(false, TEST_CONFIG_FILE_PATH);
+        final long countAfterRecovery = TestDataUtil.getDatasetCount(datasetName);
+        Assert.assertEquals(countBeforeRecovery, countAfterRecovery);
+    }
+
     @Test
     public void reoveryAfterRebalance() throws Exception {
         String datasetName = "ds";
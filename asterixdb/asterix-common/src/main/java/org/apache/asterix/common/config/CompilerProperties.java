@@ -64,7 +64,23 @@ public class CompilerProperties extends AbstractProperties {
         COMPILER_SORT_SAMPLES(
                 POSITIVE_INTEGER,
                 AlgebricksConfig.SORT_SAMPLES,
-                "The number of samples which parallel sorting should take from each partition");
+                "The number of samples which parallel sorting should take from each partition"),
+        COMPILER_SCAN_PUSHDOWN(
+                BOOLEAN,
+                AlgebricksConfig.SCAN_PUSHDOWN,
+                "Enabling/Disabling the pushdown of simple selections into the primary index scans of row datasets"),
+        COMPILER_JOIN_FILTER(
+                BOOLEAN,
+                AlgebricksConfig.JOIN_FILTER,
+                "Enabling/Disabling the runtime bloom filters of hash joins whose build side is estimated to spill"),
+        COMPILER_PIPELINE_FUSION(
+                BOOLEAN,
+                AlgebricksConfig.PIPELINE_FUSION,
+                "Enabling/Disabling the fused execution of chained assign, select and project operators"),
+        COMPILER_GROUPBY_ADAPTIVE(
+                BOOLEAN,
+                AlgebricksConfig.GROUPBY_ADAPTIVE,
+                "Enabling/Disabling the pass-through of local hash group-bys that do not reduce their input");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -116,6 +132,14 @@ public class CompilerProperties extends AbstractProperties {
 
     public static final String COMPILER_SORT_SAMPLES_KEY = Option.COMPILER_SORT_SAMPLES.ini();
 
+    public static final String COMPILER_SCAN_PUSHDOWN_KEY = Option.COMPILER_SCAN_PUSHDOWN.ini();
+
+    public static final String COMPILER_JOIN_FILTER_KEY = Option.COMPILER_JOIN_FILTER.ini();
+
+    public static final String COMPILER_PIPELINE_FUSION_KEY = Option.COMPILER_PIPELINE_FUSION.ini();
+
+    public static final String COMPILER_GROUPBY_ADAPTIVE_KEY = Option.COMPILER_GROUPBY_ADAPTIVE.ini();
+
     public static final int COMPILER_PARALLELISM_AS_STORAGE = 0;
 
     public CompilerProperties(PropertiesAccessor accessor) {
@@ -159,4 +183,20 @@ public class CompilerProperties extends AbstractProperties {
         int numSamples = accessor.getInt(Option.COMPILER_SORT_SAMPLES);
         return numSamples > 0 ? numSamples : AlgebricksConfig.SORT_SAMPLES;
     }
+
+    public boolean getScanPushdown() {
+        return accessor.getBoolean(Option.COMPILER_SCAN_PUSHDOWN);
+    }
+
+    public boolean getJoinFilter() {
+        return accessor.getBoolean(Option.COMPILER_JOIN_FILTER);
+    }
+
+    public boolean getPipelineFusion() {
+        return accessor.getBoolean(Option.COMPILER_PIPELINE_FUSION);
+    }
+
+    public boolean getGroupByAdaptive() {
+        return accessor.getBoolean(Option.COMPILER_GROUPBY_ADAPTIVE);
+    }
 }
@@ -33,6 +33,24 @@ public class DatasetConfig {
         EXTERNAL
     }
 
+    /*
+     * The storage format of the disk components of a dataset's primary index. ROW: records are stored as a whole.
+     * COLUMN: the records of a leaf page are stored as one column per declared field (see ColumnLeafFrame).
+     */
+    public enum DatasetFormat {
+        ROW,
+        COLUMN
+    }
+
+    /*
+     * The index that holds the records of a dataset's memory components. BTREE: a BTree with latched pages.
+     * SKIPLIST: a lock-free skip list (see SkipListBTree) that doesn't block concurrent writers on hot pages.
+     */
+    public enum MemoryComponentType {
+        BTREE,
+        SKIPLIST
+    }
+
     public enum IndexType {
         BTREE,
         RTREE,
@@ -52,6 +52,10 @@ public class OptimizationConfUtil {
         int textSearchFrameLimit = getTextSearchNumFrames(compilerProperties, querySpecificConfig, sourceLoc);
         int sortNumSamples = getSortSamples(compilerProperties, querySpecificConfig, sourceLoc);
         boolean fullParallelSort = getSortParallel(compilerProperties, querySpecificConfig);
+        boolean scanPushdown = getScanPushdown(compilerProperties, querySpecificConfig);
+        boolean joinFilter = getJoinFilter(compilerProperties, querySpecificConfig);
+        boolean pipelineFusion = getPipelineFusion(compilerProperties, querySpecificConfig);
+        boolean groupByAdaptive = getGroupByAdaptive(compilerProperties, querySpecificConfig);
 
         PhysicalOptimizationConfig physOptConf = new PhysicalOptimizationConfig();
         physOptConf.setFrameSize(frameSize);
@@ -61,6 +65,10 @@ public class OptimizationConfUtil {
         physOptConf.setMaxFramesForTextSearch(textSearchFrameLimit);
         physOptConf.setSortParallel(fullParallelSort);
         physOptConf.setSortSamples(sortNumSamples);
+        physOptConf.setScanPushdown(scanPushdown);
+        physOptConf.setJoinFilter(joinFilter);
+        physOptConf.setPipelineFusion(pipelineFusion);
+        physOptConf.setGroupByAdaptive(groupByAdaptive);
 
         return physOptConf;
     }
@@ -109,6 +117,42 @@ public class OptimizationConfUtil {
         return compilerProperties.getSortParallel();
     }
 
+    private static boolean getScanPushdown(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_SCAN_PUSHDOWN_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.getScanPushdown();
+    }
+
+    private static boolean getJoinFilter(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_JOIN_FILTER_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.getJoinFilter();
+    }
+
+    private static boolean getPipelineFusion(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_PIPELINE_FUSION_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.getPipelineFusion();
+    }
+
+    private static boolean getGroupByAdaptive(CompilerProperties compilerProperties,
+            Map<String, Object> querySpecificConfig) {
+        String valueInQuery = (String) querySpecificConfig.get(CompilerProperties.COMPILER_GROUPBY_ADAPTIVE_KEY);
+        if (valueInQuery != null) {
+            return OptionTypes.BOOLEAN.parse(valueInQuery);
+        }
+        return compilerProperties.getGroupByAdaptive();
+    }
+
     @SuppressWarnings("squid:S1166") // Either log or rethrow this exception
     private static int getSortSamples(CompilerProperties compilerProperties, Map<String, Object> querySpecificConfig,
             SourceLocation sourceLoc) throws AsterixException {
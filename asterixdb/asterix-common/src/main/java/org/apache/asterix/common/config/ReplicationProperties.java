@@ -46,6 +46,14 @@ public class ReplicationProperties extends AbstractProperties {
                 INTEGER_BYTE_UNIT,
                 StorageUtil.getIntSizeInBytes(4, StorageUnit.KILOBYTE),
                 "The size in bytes to replicate in each batch"),
+        REPLICATION_LOG_INFLIGHT_BATCHES(
+                POSITIVE_INTEGER,
+                16,
+                "The maximum number of log batches queued to be sent to each replica"),
+        REPLICATION_LOG_COMPRESSION(
+                STRING,
+                "none",
+                "The compression scheme of replicated log batches (none, snappy or lz4)"),
         REPLICATION_TIMEOUT(
                 LONG,
                 TimeUnit.SECONDS.toSeconds(30),
@@ -105,6 +113,14 @@ public class ReplicationProperties extends AbstractProperties {
         return accessor.getInt(Option.REPLICATION_LOG_BATCHSIZE);
     }
 
+    public int getLogInflightBatches() {
+        return accessor.getInt(Option.REPLICATION_LOG_INFLIGHT_BATCHES);
+    }
+
+    public String getLogCompressionScheme() {
+        return accessor.getString(Option.REPLICATION_LOG_COMPRESSION);
+    }
+
     public String getReplicationAddress() {
         return accessor.getString(NCConfig.Option.REPLICATION_LISTEN_ADDRESS);
     }
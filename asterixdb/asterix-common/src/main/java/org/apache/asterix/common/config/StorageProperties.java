@@ -23,6 +23,7 @@ import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.STRING;
+import static org.apache.hyracks.control.common.config.OptionTypes.STRING_ARRAY;
 import static org.apache.hyracks.control.common.config.OptionTypes.UNSIGNED_INTEGER;
 import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
 
@@ -43,13 +44,23 @@ public class StorageProperties extends AbstractProperties {
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
         STORAGE_BUFFERCACHE_SIZE(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_BUFFERCACHE_MAXOPENFILES(UNSIGNED_INTEGER, Integer.MAX_VALUE),
+        STORAGE_BUFFERCACHE_REPLACEMENTPOLICY(STRING, "clock"),
+        STORAGE_BUFFERCACHE_READAHEADPAGES(UNSIGNED_INTEGER, 0),
+        STORAGE_BUFFERCACHE_PARTITIONS(STRING_ARRAY, new String[0]),
         STORAGE_MEMORYCOMPONENT_GLOBALBUDGET(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_MEMORYCOMPONENT_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS(POSITIVE_INTEGER, 2),
         STORAGE_METADATA_MEMORYCOMPONENT_NUMPAGES(POSITIVE_INTEGER, 8),
         STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE(DOUBLE, 0.01d),
+        STORAGE_LSM_BLOOMFILTER_PREFIXLENGTH(UNSIGNED_INTEGER, 0),
         STORAGE_MAX_ACTIVE_WRITABLE_DATASETS(UNSIGNED_INTEGER, 8),
-        STORAGE_COMPRESSION_BLOCK(STRING, "none");
+        STORAGE_MAX_CONCURRENT_MERGES_PER_DEVICE(UNSIGNED_INTEGER, 0),
+        STORAGE_MAX_MERGE_WRITE_RATE(LONG_BYTE_UNIT, 0L),
+        STORAGE_MAX_MERGE_FLUSH_YIELD_TIME(UNSIGNED_INTEGER, 1000),
+        STORAGE_FLUSH_PARALLELISM(POSITIVE_INTEGER, 1),
+        STORAGE_MERGE_PARALLELISM(POSITIVE_INTEGER, 1),
+        STORAGE_COMPRESSION_BLOCK(STRING, "none"),
+        STORAGE_COMPRESSION_DICTIONARY_DIR(STRING, null);
 
         private final IOptionType interpreter;
         private final Object defaultValue;
@@ -77,6 +88,17 @@ public class StorageProperties extends AbstractProperties {
                             + " of the buffer cache page size.";
                 case STORAGE_BUFFERCACHE_MAXOPENFILES:
                     return "The maximum number of open files in the buffer cache";
+                case STORAGE_BUFFERCACHE_REPLACEMENTPOLICY:
+                    return "The page replacement policy of the buffer cache (clock or scan-resistant). The "
+                            + "scan-resistant policy prevents sequential scans from evicting frequently accessed pages";
+                case STORAGE_BUFFERCACHE_READAHEADPAGES:
+                    return "The number of pages the buffer cache reads ahead of sequential scans of disk components "
+                            + "(0 disables read-ahead)";
+                case STORAGE_BUFFERCACHE_PARTITIONS:
+                    return "A comma separated list of buffer cache partitions of the form "
+                            + "<dataverse>[.<dataset>]:<min%>:<max%>. The pages of a partition are not evicted for "
+                            + "other datasets while it holds less than its minimum share of the buffer cache and it "
+                            + "evicts its own pages once it holds its maximum share";
                 case STORAGE_MEMORYCOMPONENT_GLOBALBUDGET:
                     return "The size of memory allocated to the memory components.  The value should be a multiple "
                             + "of the memory component page size";
@@ -88,10 +110,31 @@ public class StorageProperties extends AbstractProperties {
                     return "The number of pages to allocate for a metadata memory component";
                 case STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE:
                     return "The maximum acceptable false positive rate for bloom filters associated with LSM indexes";
+                case STORAGE_LSM_BLOOMFILTER_PREFIXLENGTH:
+                    return "The number of leading primary key fields that the bloom filters of new primary indexes are "
+                            + "built on (0 for all of them). Bloom filters on a prefix of a composite primary key skip "
+                            + "components in searches on that prefix but have more false positives for point lookups";
                 case STORAGE_MAX_ACTIVE_WRITABLE_DATASETS:
                     return "The maximum number of datasets that can be concurrently modified";
+                case STORAGE_MAX_CONCURRENT_MERGES_PER_DEVICE:
+                    return "The maximum number of merges that run concurrently on an IO device (0 for no limit)";
+                case STORAGE_MAX_MERGE_WRITE_RATE:
+                    return "The maximum number of bytes per second that are written by the merges of an NC (0 for no "
+                            + "limit). Flushes are not limited";
+                case STORAGE_MAX_MERGE_FLUSH_YIELD_TIME:
+                    return "The maximum time in milliseconds a merge yields to the pending flushes on its IO device "
+                            + "at each write when merges are limited (0 for not yielding)";
+                case STORAGE_FLUSH_PARALLELISM:
+                    return "The maximum number of threads that flush a memory component. The key ranges of a large "
+                            + "component are loaded concurrently into its disk component";
+                case STORAGE_MERGE_PARALLELISM:
+                    return "The maximum number of threads that merge disk components. The key ranges of large "
+                            + "components are merged concurrently into the merged component";
                 case STORAGE_COMPRESSION_BLOCK:
                     return "The default compression scheme for the storage";
+                case STORAGE_COMPRESSION_DICTIONARY_DIR:
+                    return "The directory of the compression dictionaries that a storage-block-compression clause "
+                            + "can name. Dictionaries cannot be used when it is not set";
                 default:
                     throw new IllegalStateException("NYI: " + this);
             }
@@ -134,6 +177,18 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_BUFFERCACHE_MAXOPENFILES);
     }
 
+    public String getBufferCacheReplacementPolicy() {
+        return accessor.getString(Option.STORAGE_BUFFERCACHE_REPLACEMENTPOLICY);
+    }
+
+    public int getBufferCacheReadAheadPages() {
+        return accessor.getInt(Option.STORAGE_BUFFERCACHE_READAHEADPAGES);
+    }
+
+    public String[] getBufferCachePartitions() {
+        return accessor.getStringArray(Option.STORAGE_BUFFERCACHE_PARTITIONS);
+    }
+
     public int getMemoryComponentPageSize() {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_PAGESIZE);
     }
@@ -162,6 +217,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getDouble(Option.STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE);
     }
 
+    public int getBloomFilterPrefixLength() {
+        return accessor.getInt(Option.STORAGE_LSM_BLOOMFILTER_PREFIXLENGTH);
+    }
+
     public int getBufferCacheNumPages() {
         return (int) (getBufferCacheSize() / (getBufferCachePageSize() + IBufferCache.RESERVED_HEADER_BYTES));
     }
@@ -183,10 +242,34 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_MAX_ACTIVE_WRITABLE_DATASETS);
     }
 
+    public int getMaxConcurrentMergesPerDevice() {
+        return accessor.getInt(Option.STORAGE_MAX_CONCURRENT_MERGES_PER_DEVICE);
+    }
+
+    public long getMaxMergeWriteRate() {
+        return accessor.getLong(Option.STORAGE_MAX_MERGE_WRITE_RATE);
+    }
+
+    public int getMaxMergeFlushYieldTime() {
+        return accessor.getInt(Option.STORAGE_MAX_MERGE_FLUSH_YIELD_TIME);
+    }
+
+    public int getFlushParallelism() {
+        return accessor.getInt(Option.STORAGE_FLUSH_PARALLELISM);
+    }
+
+    public int getMergeParallelism() {
+        return accessor.getInt(Option.STORAGE_MERGE_PARALLELISM);
+    }
+
     public String getCompressionScheme() {
         return accessor.getString(Option.STORAGE_COMPRESSION_BLOCK);
     }
 
+    public String getCompressionDictionaryDir() {
+        return accessor.getString(Option.STORAGE_COMPRESSION_DICTIONARY_DIR);
+    }
+
     protected int getMetadataDatasets() {
         return MetadataIndexImmutableProperties.METADATA_DATASETS_COUNT;
     }
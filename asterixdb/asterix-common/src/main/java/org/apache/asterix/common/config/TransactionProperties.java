@@ -60,10 +60,40 @@ public class TransactionProperties extends AbstractProperties {
                 "The frequency (in seconds) the checkpoint thread should check to see if a checkpoint should be "
                         + "written"),
         TXN_LOG_CHECKPOINT_HISTORY(UNSIGNED_INTEGER, 0, "The number of checkpoints to keep in the transaction log"),
+        TXN_LOG_CHECKPOINT_RECOVERYTIMETARGET(
+                UNSIGNED_INTEGER,
+                0,
+                "The target (in seconds) for the time it takes to redo the transaction log after a failure. If set, "
+                        + "checkpoints are driven by this target instead of the checkpoint LSN threshold (0 disables "
+                        + "it)"),
+        TXN_LOG_CHECKPOINT_REDORATE(
+                INTEGER_BYTE_UNIT,
+                StorageUtil.getIntSizeInBytes(32, MEGABYTE),
+                "The estimated amount of transaction log (in bytes) that is redone per second during recovery"),
+        TXN_LOG_READER_MEMORYMAPPED(
+                BOOLEAN,
+                false,
+                "Whether transaction log files are memory mapped instead of read through file reads when scanning "
+                        + "the transaction log (e.g. during recovery)"),
+        TXN_LOG_GROUPCOMMIT_WINDOW(
+                UNSIGNED_INTEGER,
+                0,
+                "The maximum time (in microseconds) the log flusher waits for more log records to force them to "
+                        + "disk together (0 disables group commit)"),
+        TXN_LOG_GROUPCOMMIT_BYTES(
+                INTEGER_BYTE_UNIT,
+                0,
+                "The amount of unforced log data (in bytes) that ends the group commit window early (0 means the "
+                        + "whole window is always waited)"),
         TXN_LOCK_ESCALATIONTHRESHOLD(
                 UNSIGNED_INTEGER,
                 1000,
                 "The maximum number of entity locks to obtain before upgrading to a dataset lock"),
+        TXN_LOCK_FASTPATH(
+                BOOLEAN,
+                false,
+                "Whether exclusive entity locks are granted without latching the lock table as long as they do not "
+                        + "conflict with other lock requests"),
         TXN_LOCK_SHRINKTIMER(
                 POSITIVE_INTEGER,
                 5000,
@@ -78,7 +108,11 @@ public class TransactionProperties extends AbstractProperties {
         TXN_JOB_RECOVERY_MEMORYSIZE(
                 LONG_BYTE_UNIT,
                 StorageUtil.getLongSizeInBytes(64L, MEGABYTE),
-                "The memory budget (in bytes) used for recovery");
+                "The memory budget (in bytes) used for recovery"),
+        TXN_RECOVERY_REDO_PARALLELISM(
+                POSITIVE_INTEGER,
+                1,
+                "The number of threads that redo the transaction log records of different indexes during recovery");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -151,10 +185,34 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getInt(Option.TXN_LOG_CHECKPOINT_HISTORY);
     }
 
+    public int getCheckpointRecoveryTimeTarget() {
+        return accessor.getInt(Option.TXN_LOG_CHECKPOINT_RECOVERYTIMETARGET);
+    }
+
+    public int getCheckpointRedoRate() {
+        return accessor.getInt(Option.TXN_LOG_CHECKPOINT_REDORATE);
+    }
+
+    public boolean isLogReaderMemoryMapped() {
+        return accessor.getBoolean(Option.TXN_LOG_READER_MEMORYMAPPED);
+    }
+
+    public int getGroupCommitWindow() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_WINDOW);
+    }
+
+    public int getGroupCommitBytes() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_BYTES);
+    }
+
     public int getEntityToDatasetLockEscalationThreshold() {
         return accessor.getInt(Option.TXN_LOCK_ESCALATIONTHRESHOLD);
     }
 
+    public boolean isLockFastPathEnabled() {
+        return accessor.getBoolean(Option.TXN_LOCK_FASTPATH);
+    }
+
     public int getLockManagerShrinkTimer() {
         return accessor.getInt(Option.TXN_LOCK_SHRINKTIMER);
     }
@@ -179,6 +237,10 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getLong(Option.TXN_JOB_RECOVERY_MEMORYSIZE);
     }
 
+    public int getRecoveryRedoParallelism() {
+        return accessor.getInt(Option.TXN_RECOVERY_REDO_PARALLELISM);
+    }
+
     public int getDatasetCheckpointInterval() {
         return accessor.getInt(Option.TXN_DATASET_CHECKPOINT_INTERVAL);
     }
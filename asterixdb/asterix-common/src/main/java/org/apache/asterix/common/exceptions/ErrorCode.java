@@ -189,6 +189,9 @@ public class ErrorCode {
     public static final int COMPILATION_UNEXPECTED_WINDOW_EXPRESSION = 1100;
     public static final int COMPILATION_UNEXPECTED_WINDOW_ORDERBY = 1101;
     public static final int COMPILATION_EXPECTED_WINDOW_FUNCTION = 1102;
+    public static final int INVALID_COMPRESSION_SCHEME_PARAMETERS = 1103;
+    public static final int UNKNOWN_DATASET_FORMAT = 1104;
+    public static final int UNKNOWN_MEMORY_COMPONENT_TYPE = 1105;
 
     // Feed errors
     public static final int DATAFLOW_ILLEGAL_STATE = 3001;
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.config.StorageProperties;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.storage.common.buffercache.BufferCachePartition;
+import org.apache.hyracks.storage.common.buffercache.IBufferCachePartitionResolver;
+
+/**
+ * Resolves the files of datasets to the buffer cache partitions configured by
+ * {@link StorageProperties.Option#STORAGE_BUFFERCACHE_PARTITIONS}. Each partition is configured as
+ * {@code <dataverse>[.<dataset>]:<min%>:<max%>} where the quotas are percentages of the buffer cache pages.
+ * A dataset partition takes precedence over the partition of its dataverse.
+ */
+public class DatasetBufferCachePartitionResolver implements IBufferCachePartitionResolver {
+    private static final char DATASET_SEPARATOR = '.';
+    private static final String QUOTA_SEPARATOR = ":";
+
+    private final Map<String, BufferCachePartition> partitions = new HashMap<>();
+    private final List<BufferCachePartition> partitionList = new ArrayList<>();
+
+    public DatasetBufferCachePartitionResolver(String[] partitionConfigs, int bufferCacheNumPages) {
+        int totalMinPercentage = 0;
+        for (String config : partitionConfigs) {
+            final String[] tokens = config.split(QUOTA_SEPARATOR);
+            final int minPercentage;
+            final int maxPercentage;
+            try {
+                minPercentage = tokens.length == 3 ? Integer.parseInt(tokens[1]) : -1;
+                maxPercentage = tokens.length == 3 ? Integer.parseInt(tokens[2]) : -1;
+            } catch (NumberFormatException e) {
+                throw invalidConfig(config);
+            }
+            if (tokens[0].isEmpty() || minPercentage < 0 || maxPercentage < minPercentage || maxPercentage > 100
+                    || partitions.containsKey(tokens[0])) {
+                throw invalidConfig(config);
+            }
+            totalMinPercentage += minPercentage;
+            final BufferCachePartition partition =
+                    new BufferCachePartition(tokens[0], (int) ((long) bufferCacheNumPages * minPercentage / 100),
+                            (int) ((long) bufferCacheNumPages * maxPercentage / 100));
+            partitions.put(tokens[0], partition);
+            partitionList.add(partition);
+        }
+        if (totalMinPercentage > 100) {
+            throw new IllegalStateException(
+                    "Invalid buffer cache partitions (" + StorageProperties.Option.STORAGE_BUFFERCACHE_PARTITIONS.ini()
+                            + " = " + String.join(",", partitionConfigs) + "). The minimum quotas exceed 100%");
+        }
+    }
+
+    @Override
+    public BufferCachePartition resolve(FileReference fileRef) {
+        if (partitions.isEmpty()) {
+            return null;
+        }
+        final ResourceReference ref;
+        try {
+            ref = ResourceReference.of(fileRef.getRelativePath());
+        } catch (IllegalStateException e) {
+            // not a dataset file
+            return null;
+        }
+        final BufferCachePartition datasetPartition =
+                partitions.get(ref.getDataverse() + DATASET_SEPARATOR + ref.getDataset());
+        return datasetPartition != null ? datasetPartition : partitions.get(ref.getDataverse());
+    }
+
+    @Override
+    public List<BufferCachePartition> getPartitions() {
+        return Collections.unmodifiableList(partitionList);
+    }
+
+    private static IllegalStateException invalidConfig(String config) {
+        return new IllegalStateException(
+                "Invalid buffer cache partition (" + StorageProperties.Option.STORAGE_BUFFERCACHE_PARTITIONS.ini()
+                        + " = " + config + "). Expected format: <dataverse>[.<dataset>]:<min%>:<max%>");
+    }
+}
@@ -27,6 +27,8 @@ public class CheckpointProperties {
     private final int pollFrequency;
     private final int historyToKeep;
     private final int datasetCheckpointInterval;
+    private final int recoveryTimeTarget;
+    private final int redoRate;
 
     public CheckpointProperties(TransactionProperties txnProperties, String nodeId) {
         // Currently we use the log files directory for checkpoints
@@ -35,6 +37,8 @@ public class CheckpointProperties {
         pollFrequency = txnProperties.getCheckpointPollFrequency();
         historyToKeep = txnProperties.getCheckpointHistory();
         datasetCheckpointInterval = txnProperties.getDatasetCheckpointInterval();
+        recoveryTimeTarget = txnProperties.getCheckpointRecoveryTimeTarget();
+        redoRate = txnProperties.getCheckpointRedoRate();
     }
 
     public int getLsnThreshold() {
@@ -57,11 +61,20 @@ public class CheckpointProperties {
         return datasetCheckpointInterval;
     }
 
+    public int getRecoveryTimeTarget() {
+        return recoveryTimeTarget;
+    }
+
+    public int getRedoRate() {
+        return redoRate;
+    }
+
     @Override
     public String toString() {
         return "{\"class\" : \"" + getClass().getSimpleName() + "\", \"checkpoint-dir-path\" : \"" + checkpointDirPath
                 + "\", \"lsn-threshold\" : " + lsnThreshold + ", \"poll-frequency\" : " + pollFrequency
                 + ", \"history-to-keep\" : " + historyToKeep + ", \"dataset-checkpoint-interval\" : "
-                + datasetCheckpointInterval + "}";
+                + datasetCheckpointInterval + ", \"recovery-time-target\" : " + recoveryTimeTarget
+                + ", \"redo-rate\" : " + redoRate + "}";
     }
 }
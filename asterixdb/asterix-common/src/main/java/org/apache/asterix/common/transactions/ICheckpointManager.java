@@ -65,4 +65,11 @@ public interface ICheckpointManager extends ILifeCycleComponent {
      * @throws HyracksDataException
      */
     void checkpointIdleDatasets() throws HyracksDataException;
+
+    /**
+     * @return The estimated time (in milliseconds) it would take to redo the transaction log from the current
+     *         low-water mark to its end, i.e. the redo time of a recovery that starts now.
+     * @throws HyracksDataException
+     */
+    long getEstimatedRecoveryTime() throws HyracksDataException;
 }
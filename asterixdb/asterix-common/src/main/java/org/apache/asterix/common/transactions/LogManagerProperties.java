@@ -39,6 +39,12 @@ public class LogManagerProperties implements Serializable {
     private final int numLogPages;
     // maximum size of each log file
     private final long logPartitionSize;
+    // whether log readers memory map the log files
+    private final boolean logReaderMemoryMapped;
+    // maximum time (in microseconds) the log flusher waits to group the forces of log records
+    private final int groupCommitWindow;
+    // amount of unforced log data that ends the group commit window
+    private final int groupCommitBytes;
 
     public LogManagerProperties(TransactionProperties txnProperties, String nodeId) {
         this.logPageSize = txnProperties.getLogBufferPageSize();
@@ -49,6 +55,9 @@ public class LogManagerProperties implements Serializable {
         int logBufferSize = logPageSize * numLogPages;
         //make sure that the log partition size is the multiple of log buffer size.
         this.logPartitionSize = (logPartitionSize / logBufferSize) * logBufferSize;
+        this.logReaderMemoryMapped = txnProperties.isLogReaderMemoryMapped();
+        this.groupCommitWindow = txnProperties.getGroupCommitWindow();
+        this.groupCommitBytes = txnProperties.getGroupCommitBytes();
     }
 
     public long getLogPartitionSize() {
@@ -71,6 +80,18 @@ public class LogManagerProperties implements Serializable {
         return numLogPages;
     }
 
+    public boolean isLogReaderMemoryMapped() {
+        return logReaderMemoryMapped;
+    }
+
+    public int getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    public int getGroupCommitBytes() {
+        return groupCommitBytes;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -79,6 +100,9 @@ public class LogManagerProperties implements Serializable {
         builder.append("log_page_size : " + logPageSize + lineSeparator);
         builder.append("num_log_pages : " + numLogPages + lineSeparator);
         builder.append("log_partition_size : " + logPartitionSize + lineSeparator);
+        builder.append("log_reader_memory_mapped : " + logReaderMemoryMapped + lineSeparator);
+        builder.append("group_commit_window : " + groupCommitWindow + lineSeparator);
+        builder.append("group_commit_bytes : " + groupCommitBytes + lineSeparator);
         return builder.toString();
     }
 }
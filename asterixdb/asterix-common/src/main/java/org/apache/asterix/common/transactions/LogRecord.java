@@ -196,11 +196,19 @@ public class LogRecord implements ILogRecord {
     @Override
     public void writeRemoteLogRecord(ByteBuffer buffer) {
         doWriteLogRecord(buffer);
-        if (logType == LogType.FLUSH) {
+        if (hasRemoteLSN()) {
             buffer.putLong(LSN);
         }
     }
 
+    /**
+     * Remote flush logs carry their LSN to map replica flushes to master flushes and remote job termination logs
+     * carry it to be acknowledged by replicas.
+     */
+    private boolean hasRemoteLSN() {
+        return logType == LogType.FLUSH || logType == LogType.JOB_COMMIT || logType == LogType.ABORT;
+    }
+
     private void writePKValue(ByteBuffer buffer) {
         if (logSource == LogSource.LOCAL) {
             for (int i = 0; i < PKFieldCnt; i++) {
@@ -396,7 +404,7 @@ public class LogRecord implements ILogRecord {
         //read common fields
         doReadLogRecord(buffer);
 
-        if (logType == LogType.FLUSH) {
+        if (hasRemoteLSN()) {
             LSN = buffer.getLong();
         }
     }
@@ -583,7 +591,7 @@ public class LogRecord implements ILogRecord {
     @Override
     public int getRemoteLogSize() {
         int remoteLogSize = logSize;
-        if (logType == LogType.FLUSH) {
+        if (hasRemoteLSN()) {
             //LSN
             remoteLogSize += Long.BYTES;
         }
@@ -20,6 +20,7 @@ package org.apache.asterix.common.transactions;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 
 public class TxnLogFile {
@@ -49,6 +50,20 @@ public class TxnLogFile {
         return fileChannel.read(readBuffer);
     }
 
+    /**
+     * Maps a region of the log file to memory in read only mode
+     *
+     * @param position
+     *            the position in the file at which the region starts
+     * @param size
+     *            the size of the region
+     * @return the mapped region
+     * @throws IOException
+     */
+    public MappedByteBuffer map(long position, long size) throws IOException {
+        return fileChannel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
     public long getLogFileId() {
         return logFileId;
     }
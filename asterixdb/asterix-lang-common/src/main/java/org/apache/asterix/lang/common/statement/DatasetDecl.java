@@ -18,10 +18,15 @@
  */
 package org.apache.asterix.lang.common.statement;
 
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.MemoryComponentType;
 import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.lang.common.base.AbstractStatement;
 import org.apache.asterix.lang.common.base.Statement;
 import org.apache.asterix.lang.common.expression.RecordConstructor;
@@ -161,8 +166,60 @@ public class DatasetDecl extends AbstractStatement {
         if (storageBlockCompression == null) {
             return null;
         }
-        return storageBlockCompression
+        final String scheme = storageBlockCompression
                 .getOptionalString(DatasetDeclParametersUtil.STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME);
+        final IAdmNode level =
+                storageBlockCompression.get(DatasetDeclParametersUtil.STORAGE_BLOCK_COMPRESSION_LEVEL_PARAMETER_NAME);
+        final String dictionary = storageBlockCompression
+                .getOptionalString(DatasetDeclParametersUtil.STORAGE_BLOCK_COMPRESSION_DICTIONARY_PARAMETER_NAME);
+        return CompressionManager.toSchemeWithParameters(scheme, level == null ? null : Long.valueOf(level.toString()),
+                dictionary);
+    }
+
+    public DatasetFormat getDatasetFormat() throws CompilationException {
+        if (datasetType != DatasetType.INTERNAL) {
+            return DatasetFormat.ROW;
+        }
+
+        final AdmObjectNode storageFormat =
+                (AdmObjectNode) withObjectNode.get(DatasetDeclParametersUtil.STORAGE_FORMAT_PARAMETER_NAME);
+        if (storageFormat == null) {
+            return DatasetFormat.ROW;
+        }
+        final String format =
+                storageFormat.getOptionalString(DatasetDeclParametersUtil.STORAGE_FORMAT_FORMAT_PARAMETER_NAME);
+        if (format == null) {
+            return DatasetFormat.ROW;
+        }
+        try {
+            return DatasetFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CompilationException(ErrorCode.UNKNOWN_DATASET_FORMAT, e, format,
+                    Arrays.toString(DatasetFormat.values()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public MemoryComponentType getMemoryComponentType() throws CompilationException {
+        if (datasetType != DatasetType.INTERNAL) {
+            return MemoryComponentType.BTREE;
+        }
+
+        final AdmObjectNode storageFormat =
+                (AdmObjectNode) withObjectNode.get(DatasetDeclParametersUtil.STORAGE_FORMAT_PARAMETER_NAME);
+        if (storageFormat == null) {
+            return MemoryComponentType.BTREE;
+        }
+        final String type = storageFormat
+                .getOptionalString(DatasetDeclParametersUtil.STORAGE_FORMAT_MEMORY_COMPONENT_PARAMETER_NAME);
+        if (type == null) {
+            return MemoryComponentType.BTREE;
+        }
+        try {
+            return MemoryComponentType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CompilationException(ErrorCode.UNKNOWN_MEMORY_COMPONENT_TYPE, e, type,
+                    Arrays.toString(MemoryComponentType.values()).toLowerCase(Locale.ROOT));
+        }
     }
 
     public Map<String, String> getHints() {
@@ -44,6 +44,16 @@ public class DatasetDeclParametersUtil {
      */
     public static final String STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME = "storage-block-compression";
     public static final String STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME = "scheme";
+    public static final String STORAGE_BLOCK_COMPRESSION_LEVEL_PARAMETER_NAME = "level";
+    public static final String STORAGE_BLOCK_COMPRESSION_DICTIONARY_PARAMETER_NAME = "dictionary";
+
+    /* ***********************************************
+     * Storage Format Parameters
+     * ***********************************************
+     */
+    public static final String STORAGE_FORMAT_PARAMETER_NAME = "storage-format";
+    public static final String STORAGE_FORMAT_FORMAT_PARAMETER_NAME = "format";
+    public static final String STORAGE_FORMAT_MEMORY_COMPONENT_PARAMETER_NAME = "memory-component";
 
     /* ***********************************************
      * Private members
@@ -66,9 +76,11 @@ public class DatasetDeclParametersUtil {
     }
 
     private static ARecordType getWithObjectType() {
-        final String[] withNames = { MERGE_POLICY_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME };
+        final String[] withNames = { MERGE_POLICY_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME,
+                STORAGE_FORMAT_PARAMETER_NAME };
         final IAType[] withTypes = { AUnionType.createUnknownableType(getMergePolicyType()),
-                AUnionType.createUnknownableType(getStorageBlockCompressionType()) };
+                AUnionType.createUnknownableType(getStorageBlockCompressionType()),
+                AUnionType.createUnknownableType(getStorageFormatType()) };
         return new ARecordType("withObject", withNames, withTypes, false);
     }
 
@@ -90,8 +102,18 @@ public class DatasetDeclParametersUtil {
     }
 
     private static ARecordType getStorageBlockCompressionType() {
-        final String[] schemeName = { STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME };
-        final IAType[] schemeType = { BuiltinType.ASTRING };
+        final String[] schemeName = { STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME,
+                STORAGE_BLOCK_COMPRESSION_LEVEL_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_DICTIONARY_PARAMETER_NAME };
+        final IAType[] schemeType = { BuiltinType.ASTRING, AUnionType.createUnknownableType(BuiltinType.AINT64),
+                AUnionType.createUnknownableType(BuiltinType.ASTRING) };
         return new ARecordType(STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME, schemeName, schemeType, false);
     }
+
+    private static ARecordType getStorageFormatType() {
+        final String[] formatName =
+                { STORAGE_FORMAT_FORMAT_PARAMETER_NAME, STORAGE_FORMAT_MEMORY_COMPONENT_PARAMETER_NAME };
+        final IAType[] formatType = { AUnionType.createUnknownableType(BuiltinType.ASTRING),
+                AUnionType.createUnknownableType(BuiltinType.ASTRING) };
+        return new ARecordType(STORAGE_FORMAT_PARAMETER_NAME, formatName, formatType, false);
+    }
 }
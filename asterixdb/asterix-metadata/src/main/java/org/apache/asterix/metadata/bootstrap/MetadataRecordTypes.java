@@ -168,6 +168,8 @@ public final class MetadataRecordTypes {
             "BlockLevelStorageCompression";
     public static final String DATASET_ARECORD_DATASET_COMPRESSION_SCHEME_FIELD_NAME = "DatasetCompressionScheme";
     public static final String DATASET_ARECORD_REBALANCE_FIELD_NAME = "rebalanceCount";
+    public static final String DATASET_ARECORD_DATASET_FORMAT_FIELD_NAME = "DatasetFormat";
+    public static final String DATASET_ARECORD_MEMORY_COMPONENT_TYPE_FIELD_NAME = "MemoryComponentType";
     public static final ARecordType DATASET_RECORDTYPE = createRecordType(
             // RecordTypeName
             RECORD_NAME_DATASET,
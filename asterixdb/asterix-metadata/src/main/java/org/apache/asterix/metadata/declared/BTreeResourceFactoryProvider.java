@@ -21,7 +21,9 @@ package org.apache.asterix.metadata.declared;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.MemoryComponentType;
 import org.apache.asterix.common.context.AsterixVirtualBufferCacheProvider;
 import org.apache.asterix.common.context.IStorageComponentProvider;
 import org.apache.asterix.common.exceptions.CompilationException;
@@ -31,9 +33,12 @@ import org.apache.asterix.external.indexing.IndexingConstants;
 import org.apache.asterix.metadata.api.IResourceFactoryProvider;
 import org.apache.asterix.metadata.entities.Dataset;
 import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.metadata.utils.DatasetUtil;
 import org.apache.asterix.metadata.utils.IndexUtil;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.column.ARecordColumnShredderFactory;
+import org.apache.asterix.runtime.zonemap.ARecordZoneMapValueExtractorFactory;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
@@ -42,9 +47,13 @@ import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeWithBuddyLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.LSMBTreeLocalResourceFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractorFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationSchedulerProvider;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
@@ -70,7 +79,8 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
         IStorageComponentProvider storageComponentProvider = mdProvider.getStorageComponentProvider();
         ITypeTraits[] typeTraits = getTypeTraits(mdProvider, dataset, index, recordType, metaType);
         IBinaryComparatorFactory[] cmpFactories = getCmpFactories(mdProvider, dataset, index, recordType, metaType);
-        int[] bloomFilterFields = getBloomFilterFields(dataset, index);
+        int[] bloomFilterFields =
+                getBloomFilterFields(dataset, index, mdProvider.getStorageProperties().getBloomFilterPrefixLength());
         double bloomFilterFalsePositiveRate = mdProvider.getStorageProperties().getBloomFilterFalsePositiveRate();
         ILSMOperationTrackerFactory opTrackerFactory = dataset.getIndexOperationTrackerFactory(index);
         ILSMIOOperationCallbackFactory ioOpCallbackFactory = dataset.getIoOperationCallbackFactory(index);
@@ -103,12 +113,27 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
                 } else {
                     compDecompFactory = NoOpCompressorDecompressorFactory.INSTANCE;
                 }
+                // Only the primary index stores the records in columns
+                final IColumnShredderFactory columnShredderFactory =
+                        index.isPrimaryIndex() && dataset.getDatasetFormat() == DatasetFormat.COLUMN
+                                ? new ARecordColumnShredderFactory(recordType)
+                                : null;
+                // The disk components of the primary index have zone maps on the filter field, if it is closed
+                final IZoneMapValueExtractorFactory zoneMapValueExtractorFactory = index.isPrimaryIndex()
+                        ? ARecordZoneMapValueExtractorFactory.of(recordType, DatasetUtil.getFilterField(dataset),
+                                dataset.getPrimaryKeys().size())
+                        : null;
+                // The memory components of all the BTree indexes of the dataset are of the same type
+                final LSMBTreeMemoryComponentType memoryComponentType =
+                        dataset.getMemoryComponentType() == MemoryComponentType.SKIPLIST
+                                ? LSMBTreeMemoryComponentType.SKIPLIST : LSMBTreeMemoryComponentType.BTREE;
 
                 return new LSMBTreeLocalResourceFactory(storageManager, typeTraits, cmpFactories, filterTypeTraits,
                         filterCmpFactories, filterFields, opTrackerFactory, ioOpCallbackFactory,
                         metadataPageManagerFactory, vbcProvider, ioSchedulerProvider, mergePolicyFactory,
                         mergePolicyProperties, true, bloomFilterFields, bloomFilterFalsePositiveRate,
-                        index.isPrimaryIndex(), btreeFields, compDecompFactory);
+                        index.isPrimaryIndex(), btreeFields, compDecompFactory, columnShredderFactory,
+                        zoneMapValueExtractorFactory, memoryComponentType);
             default:
                 throw new CompilationException(ErrorCode.COMPILATION_UNKNOWN_DATASET_TYPE,
                         dataset.getDatasetType().toString());
@@ -184,9 +209,15 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
         return secondaryCmpFactories;
     }
 
-    private static int[] getBloomFilterFields(Dataset dataset, Index index) throws AlgebricksException {
+    private static int[] getBloomFilterFields(Dataset dataset, Index index, int primaryBloomFilterPrefixLength)
+            throws AlgebricksException {
         if (index.isPrimaryIndex()) {
-            return dataset.getPrimaryBloomFilterFields();
+            int[] primaryBloomFilterFields = dataset.getPrimaryBloomFilterFields();
+            int numPrimaryKeys = primaryBloomFilterFields.length;
+            // a prefix that covers the whole primary key is the whole primary key
+            return primaryBloomFilterPrefixLength > 0 && primaryBloomFilterPrefixLength < numPrimaryKeys
+                    ? LSMBTreeUtil.getBloomFilterKeyFields(numPrimaryKeys, primaryBloomFilterPrefixLength)
+                    : primaryBloomFilterFields;
         } else if (dataset.getDatasetType() == DatasetType.EXTERNAL) {
             if (index.getIndexName().equals(IndexingConstants.getFilesIndexName(dataset.getDatasetName()))) {
                 return FilesIndexDescription.BLOOM_FILTER_FIELDS;
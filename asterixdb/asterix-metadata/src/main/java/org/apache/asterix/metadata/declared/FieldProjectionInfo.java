@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.metadata.declared;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.hyracks.algebricks.core.algebra.metadata.IProjectionInfo;
+
+/**
+ * The top-level fields of the records of a dataset that are used by a plan
+ */
+public class FieldProjectionInfo implements IProjectionInfo {
+    private final Set<String> fieldNames;
+
+    public FieldProjectionInfo(Collection<String> fieldNames) {
+        this.fieldNames = Collections.unmodifiableSet(new TreeSet<>(fieldNames));
+    }
+
+    public Set<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return fieldNames.equals(((FieldProjectionInfo) o).fieldNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return fieldNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fieldNames.toString();
+    }
+}
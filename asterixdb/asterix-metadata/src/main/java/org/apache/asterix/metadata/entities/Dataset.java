@@ -27,7 +27,9 @@ import java.util.stream.IntStream;
 
 import org.apache.asterix.common.api.IDatasetInfoProvider;
 import org.apache.asterix.common.api.ILSMComponentIdGeneratorFactory;
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.MemoryComponentType;
 import org.apache.asterix.common.context.CorrelatedPrefixMergePolicyFactory;
 import org.apache.asterix.common.context.DatasetInfoProvider;
 import org.apache.asterix.common.context.DatasetLSMComponentIdGeneratorFactory;
@@ -148,6 +150,8 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
     private final long rebalanceCount;
     private int pendingOp;
     private final String compressionScheme;
+    private final DatasetFormat datasetFormat;
+    private final MemoryComponentType memoryComponentType;
 
     public Dataset(String dataverseName, String datasetName, String recordTypeDataverseName, String recordTypeName,
             String nodeGroupName, String compactionPolicy, Map<String, String> compactionPolicyProperties,
@@ -172,13 +176,24 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
                 dataset.metaTypeDataverseName, dataset.metaTypeName, dataset.nodeGroupName,
                 dataset.compactionPolicyFactory, dataset.compactionPolicyProperties, dataset.datasetDetails,
                 dataset.hints, dataset.datasetType, dataset.datasetId, dataset.pendingOp, dataset.rebalanceCount,
-                dataset.compressionScheme);
+                dataset.compressionScheme, dataset.datasetFormat, dataset.memoryComponentType);
     }
 
     public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
             String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
             Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
             DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount, String compressionScheme) {
+        this(dataverseName, datasetName, itemTypeDataverseName, itemTypeName, metaItemTypeDataverseName,
+                metaItemTypeName, nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints,
+                datasetType, datasetId, pendingOp, rebalanceCount, compressionScheme, DatasetFormat.ROW,
+                MemoryComponentType.BTREE);
+    }
+
+    public Dataset(String dataverseName, String datasetName, String itemTypeDataverseName, String itemTypeName,
+            String metaItemTypeDataverseName, String metaItemTypeName, String nodeGroupName, String compactionPolicy,
+            Map<String, String> compactionPolicyProperties, IDatasetDetails datasetDetails, Map<String, String> hints,
+            DatasetType datasetType, int datasetId, int pendingOp, long rebalanceCount, String compressionScheme,
+            DatasetFormat datasetFormat, MemoryComponentType memoryComponentType) {
         this.dataverseName = dataverseName;
         this.datasetName = datasetName;
         this.recordTypeName = itemTypeName;
@@ -195,6 +210,8 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         this.hints = hints;
         this.rebalanceCount = rebalanceCount;
         this.compressionScheme = compressionScheme;
+        this.datasetFormat = datasetFormat;
+        this.memoryComponentType = memoryComponentType;
     }
 
     @Override
@@ -647,6 +664,8 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         tree.put("pendingOp", MetadataUtil.pendingOpToString(pendingOp));
         tree.put("rebalanceCount", rebalanceCount);
         tree.put("compressionScheme", compressionScheme);
+        tree.put("datasetFormat", datasetFormat.name());
+        tree.put("memoryComponentType", memoryComponentType.name());
         return tree;
     }
 
@@ -827,7 +846,7 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
                 this.metaTypeDataverseName, this.metaTypeName, targetNodeGroupName, this.compactionPolicyFactory,
                 this.compactionPolicyProperties, this.datasetDetails, this.hints, this.datasetType,
                 DatasetIdFactory.generateAlternatingDatasetId(this.datasetId), this.pendingOp, this.rebalanceCount + 1,
-                this.compressionScheme);
+                this.compressionScheme, this.datasetFormat, this.memoryComponentType);
     }
 
     // Gets an array of partition numbers for this dataset.
@@ -848,4 +867,12 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
     public String getCompressionScheme() {
         return compressionScheme;
     }
+
+    public DatasetFormat getDatasetFormat() {
+        return datasetFormat;
+    }
+
+    public MemoryComponentType getMemoryComponentType() {
+        return memoryComponentType;
+    }
 }
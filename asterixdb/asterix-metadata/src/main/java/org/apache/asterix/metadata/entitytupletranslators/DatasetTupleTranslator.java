@@ -35,7 +35,9 @@ import org.apache.asterix.builders.IARecordBuilder;
 import org.apache.asterix.builders.OrderedListBuilder;
 import org.apache.asterix.builders.RecordBuilder;
 import org.apache.asterix.builders.UnorderedListBuilder;
+import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.MemoryComponentType;
 import org.apache.asterix.common.config.DatasetConfig.TransactionState;
 import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.metadata.IDatasetDetails;
@@ -260,10 +262,30 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
 
         long rebalanceCount = getRebalanceCount(datasetRecord);
         String compressionScheme = getCompressionScheme(datasetRecord);
+        DatasetFormat datasetFormat = getDatasetFormat(datasetRecord);
+        MemoryComponentType memoryComponentType = getMemoryComponentType(datasetRecord);
 
         return new Dataset(dataverseName, datasetName, typeDataverseName, typeName, metaTypeDataverseName, metaTypeName,
                 nodeGroupName, compactionPolicy, compactionPolicyProperties, datasetDetails, hints, datasetType,
-                datasetId, pendingOp, rebalanceCount, compressionScheme);
+                datasetId, pendingOp, rebalanceCount, compressionScheme, datasetFormat, memoryComponentType);
+    }
+
+    private DatasetFormat getDatasetFormat(ARecord datasetRecord) {
+        // Read the format if there is one.
+        int formatIndex =
+                datasetRecord.getType().getFieldIndex(MetadataRecordTypes.DATASET_ARECORD_DATASET_FORMAT_FIELD_NAME);
+        return formatIndex >= 0
+                ? DatasetFormat.valueOf(((AString) datasetRecord.getValueByPos(formatIndex)).getStringValue())
+                : DatasetFormat.ROW;
+    }
+
+    private MemoryComponentType getMemoryComponentType(ARecord datasetRecord) {
+        // Read the memory component type if there is one.
+        int typeIndex = datasetRecord.getType()
+                .getFieldIndex(MetadataRecordTypes.DATASET_ARECORD_MEMORY_COMPONENT_TYPE_FIELD_NAME);
+        return typeIndex >= 0
+                ? MemoryComponentType.valueOf(((AString) datasetRecord.getValueByPos(typeIndex)).getStringValue())
+                : MemoryComponentType.BTREE;
     }
 
     private long getRebalanceCount(ARecord datasetRecord) {
@@ -423,6 +445,8 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
         writeMetaPart(dataset);
         writeRebalanceCount(dataset);
         writeBlockLevelStorageCompression(dataset);
+        writeDatasetFormat(dataset);
+        writeMemoryComponentType(dataset);
     }
 
     private void writeMetaPart(Dataset dataset) throws HyracksDataException {
@@ -469,6 +493,32 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
         recordBuilder.addField(fieldName, fieldValue);
     }
 
+    private void writeDatasetFormat(Dataset dataset) throws HyracksDataException {
+        if (dataset.getDatasetFormat() != DatasetFormat.ROW) {
+            // Adds the field DatasetFormat.
+            fieldName.reset();
+            aString.setValue(MetadataRecordTypes.DATASET_ARECORD_DATASET_FORMAT_FIELD_NAME);
+            stringSerde.serialize(aString, fieldName.getDataOutput());
+            fieldValue.reset();
+            aString.setValue(dataset.getDatasetFormat().name());
+            stringSerde.serialize(aString, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
+    }
+
+    private void writeMemoryComponentType(Dataset dataset) throws HyracksDataException {
+        if (dataset.getMemoryComponentType() != MemoryComponentType.BTREE) {
+            // Adds the field MemoryComponentType.
+            fieldName.reset();
+            aString.setValue(MetadataRecordTypes.DATASET_ARECORD_MEMORY_COMPONENT_TYPE_FIELD_NAME);
+            stringSerde.serialize(aString, fieldName.getDataOutput());
+            fieldValue.reset();
+            aString.setValue(dataset.getMemoryComponentType().name());
+            stringSerde.serialize(aString, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
+    }
+
     private void writeRebalanceCount(Dataset dataset) throws HyracksDataException {
         if (dataset.getRebalanceCount() > 0) {
             // Adds the field rebalanceCount.
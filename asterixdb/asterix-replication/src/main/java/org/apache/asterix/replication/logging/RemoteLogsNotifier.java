@@ -19,6 +19,8 @@
 package org.apache.asterix.replication.logging;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +34,7 @@ import org.apache.asterix.common.storage.DatasetResourceReference;
 import org.apache.asterix.common.storage.IIndexCheckpointManager;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
 import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.replication.api.IReplicationWorker;
 import org.apache.asterix.replication.messaging.ReplicationProtocol;
 import org.apache.asterix.transaction.management.resource.PersistentLocalResourceRepository;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -58,28 +61,53 @@ class RemoteLogsNotifier implements Runnable {
     public void run() {
         final String nodeId = appCtx.getServiceContext().getNodeId();
         Thread.currentThread().setName(nodeId + RemoteLogsNotifier.class.getSimpleName());
+        final List<RemoteLogRecord> logRecords = new ArrayList<>();
+        // the master LSN of the last job termination log flushed for each master
+        final Map<IReplicationWorker, Long> acks = new LinkedHashMap<>();
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                final RemoteLogRecord logRecord = remoteLogsQ.take();
-                switch (logRecord.getLogType()) {
-                    case LogType.JOB_COMMIT:
-                    case LogType.ABORT:
-                        // send ACK to requester
-                        logRecord.getReplicationWorker().getChannel().getSocketChannel().socket().getOutputStream()
-                                .write((nodeId + ReplicationProtocol.LOG_REPLICATION_ACK + logRecord.getTxnId()
-                                        + System.lineSeparator()).getBytes());
-                        break;
-                    case LogType.FLUSH:
-                        checkpointReplicaIndexes(logRecord, logRecord.getDatasetId());
-                        break;
-                    default:
-                        throw new IllegalStateException("Unexpected log type: " + logRecord.getLogType());
+                logRecords.add(remoteLogsQ.take());
+                remoteLogsQ.drainTo(logRecords);
+                for (RemoteLogRecord logRecord : logRecords) {
+                    process(logRecord, acks);
+                }
+                // a single cumulative ACK acknowledges all the job termination logs received before it
+                for (Map.Entry<IReplicationWorker, Long> ack : acks.entrySet()) {
+                    sendAck(nodeId, ack.getKey(), ack.getValue());
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-            } catch (IOException e) {
-                LOGGER.error("Failed to process replicated log", e);
+            } finally {
+                logRecords.clear();
+                acks.clear();
+            }
+        }
+    }
+
+    private void process(RemoteLogRecord logRecord, Map<IReplicationWorker, Long> acks) {
+        try {
+            switch (logRecord.getLogType()) {
+                case LogType.JOB_COMMIT:
+                case LogType.ABORT:
+                    acks.put(logRecord.getReplicationWorker(), logRecord.getMasterLsn());
+                    break;
+                case LogType.FLUSH:
+                    checkpointReplicaIndexes(logRecord, logRecord.getDatasetId());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected log type: " + logRecord.getLogType());
             }
+        } catch (IOException e) {
+            LOGGER.error("Failed to process replicated log", e);
+        }
+    }
+
+    private static void sendAck(String nodeId, IReplicationWorker worker, long masterLsn) {
+        try {
+            worker.getChannel().getSocketChannel().socket().getOutputStream().write(
+                    (nodeId + ReplicationProtocol.LOG_REPLICATION_ACK + masterLsn + System.lineSeparator()).getBytes());
+        } catch (IOException e) {
+            LOGGER.error("Failed to ack replicated logs", e);
         }
     }
 
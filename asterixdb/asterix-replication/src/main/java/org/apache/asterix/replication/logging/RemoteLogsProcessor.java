@@ -64,6 +64,7 @@ public class RemoteLogsProcessor implements ILogRequester {
                     jobTerminationLog.setRequester(this);
                     jobTerminationLog.setReplicationWorker(worker);
                     jobTerminationLog.setLogSource(LogSource.REMOTE);
+                    jobTerminationLog.setMasterLsn(reusableLog.getLSN());
                     logManager.log(jobTerminationLog);
                     break;
                 case LogType.FLUSH:
@@ -27,10 +27,12 @@ public class TxnAck {
 
     private final Set<IReplicationDestination> pendingAcks;
     private final ILogRecord logRecord;
+    private final long trackTime;
 
     public TxnAck(ILogRecord logRecord, Set<IReplicationDestination> pendingAcks) {
         this.logRecord = logRecord;
         this.pendingAcks = pendingAcks;
+        trackTime = System.nanoTime();
     }
 
     public synchronized void ack(IReplicationDestination dest) {
@@ -46,4 +48,16 @@ public class TxnAck {
     public synchronized boolean allAcked() {
         return pendingAcks.isEmpty();
     }
+
+    public synchronized boolean isPending(IReplicationDestination dest) {
+        return pendingAcks.contains(dest);
+    }
+
+    public long getLSN() {
+        return logRecord.getLSN();
+    }
+
+    public long getTrackTime() {
+        return trackTime;
+    }
 }
@@ -19,45 +19,107 @@
 package org.apache.asterix.replication.logging;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.asterix.common.replication.IReplicationDestination;
 import org.apache.asterix.common.transactions.ILogRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Tracks the replicas acks of job termination logs. Logs must be tracked in the order they are sent to replicas
+ * since an ack of a log LSN acknowledges all the logs sent before it.
+ */
 public class TxnAckTracker {
 
     private static final Logger LOGGER = LogManager.getLogger();
-    private final Map<Long, TxnAck> txnsAcks = new HashMap<>();
+    private final Map<Long, TxnAck> txnsAcks = new LinkedHashMap<>();
+    private final Map<IReplicationDestination, Long> ackedLSNs = new HashMap<>();
+    private long maxTrackedLSN = -1;
 
     public synchronized void track(ILogRecord logRecord, Set<IReplicationDestination> replicas) {
         if (replicas.isEmpty()) {
             logRecord.setReplicated(true);
             return;
         }
-        final long txnId = logRecord.getTxnId();
-        //TODO use LSN instead of txnId when all logs have LSN
-        txnsAcks.put(txnId, new TxnAck(logRecord, replicas));
+        // logs may be replicated slightly out of their LSN order
+        maxTrackedLSN = Math.max(maxTrackedLSN, logRecord.getLSN());
+        txnsAcks.put(logRecord.getLSN(), new TxnAck(logRecord, replicas));
     }
 
-    public synchronized void ack(long txnId, IReplicationDestination replica) {
-        if (!txnsAcks.containsKey(txnId)) {
-            LOGGER.warn("Received ack for unknown txn {}", txnId);
+    public synchronized void ack(long lsn, IReplicationDestination replica) {
+        if (!txnsAcks.containsKey(lsn)) {
+            LOGGER.warn("Received ack for unknown log LSN {} from {}", lsn, replica);
             return;
         }
-        TxnAck txnAcks = txnsAcks.get(txnId);
-        txnAcks.ack(replica);
-        if (txnAcks.allAcked()) {
-            txnsAcks.remove(txnId);
+        // an ack that arrives after a newer one acknowledges no additional log
+        ackedLSNs.merge(replica, lsn, Math::max);
+        final Iterator<TxnAck> it = txnsAcks.values().iterator();
+        while (it.hasNext()) {
+            final TxnAck txnAck = it.next();
+            txnAck.ack(replica);
+            if (txnAck.allAcked()) {
+                it.remove();
+            }
+            if (txnAck.getLSN() == lsn) {
+                break;
+            }
         }
     }
 
     public synchronized void unregister(IReplicationDestination replica) {
         // assume the ack was received from leaving replicas
-        final HashSet<Long> pendingTxn = new HashSet<>(txnsAcks.keySet());
-        pendingTxn.forEach(txnId -> ack(txnId, replica));
+        final Iterator<TxnAck> it = txnsAcks.values().iterator();
+        while (it.hasNext()) {
+            final TxnAck txnAck = it.next();
+            txnAck.ack(replica);
+            if (txnAck.allAcked()) {
+                it.remove();
+            }
+        }
+        ackedLSNs.remove(replica);
+    }
+
+    /**
+     * @return the LSN of the last log acked by {@code replica} or -1 if none was acked
+     */
+    public synchronized long getAckedLSN(IReplicationDestination replica) {
+        return ackedLSNs.getOrDefault(replica, -1L);
+    }
+
+    /**
+     * @return the distance in LSNs between the newest tracked log and the last log acked by {@code replica} (or the
+     *         oldest log it did not ack if it never acked) or 0 if {@code replica} acked all tracked logs
+     */
+    public synchronized long getLagLSNs(IReplicationDestination replica) {
+        final TxnAck oldestPending = getOldestPending(replica);
+        if (oldestPending == null) {
+            return 0;
+        }
+        final long ackedLSN = ackedLSNs.getOrDefault(replica, oldestPending.getLSN());
+        return maxTrackedLSN - Math.min(ackedLSN, oldestPending.getLSN());
+    }
+
+    /**
+     * @return the time in milliseconds since the oldest log not acked by {@code replica} was tracked or 0 if
+     *         {@code replica} acked all tracked logs
+     */
+    public synchronized long getLagMillis(IReplicationDestination replica) {
+        final TxnAck oldestPending = getOldestPending(replica);
+        return oldestPending == null ? 0
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestPending.getTrackTime());
+    }
+
+    private TxnAck getOldestPending(IReplicationDestination replica) {
+        for (TxnAck txnAck : txnsAcks.values()) {
+            if (txnAck.isPending(replica)) {
+                return txnAck;
+            }
+        }
+        return null;
     }
 }
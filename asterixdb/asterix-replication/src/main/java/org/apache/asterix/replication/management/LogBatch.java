@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.management;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A batch of logs that is shared by the senders of all replicas. The batch returns to its pool once every sender
+ * released it.
+ */
+class LogBatch {
+
+    private final ByteBuffer buffer;
+    private final Queue<LogBatch> pool;
+    private final AtomicInteger references = new AtomicInteger();
+
+    /**
+     * @param pool
+     *            the pool the batch returns to once it is released or null if the batch is not pooled
+     */
+    LogBatch(ByteBuffer buffer, Queue<LogBatch> pool) {
+        this.buffer = buffer;
+        this.pool = pool;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Sets the number of senders that must release the batch before it is reused
+     */
+    void setReferences(int count) {
+        references.set(count);
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0 && pool != null) {
+            pool.offer(this);
+        }
+    }
+}
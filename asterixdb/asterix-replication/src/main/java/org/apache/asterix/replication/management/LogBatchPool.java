@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.management;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.asterix.common.exceptions.ReplicationException;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Prepares the batches of logs that are sent to replicas. A batch starts with its size and, when the logs are
+ * compressed, the size of the uncompressed logs. Batches of up to a log page are reused once all senders released
+ * them, larger batches are allocated for each large page.
+ */
+class LogBatchPool {
+
+    private final ICompressorDecompressor compressor;
+    private final int pooledBatchSize;
+    private final Queue<LogBatch> freeBatches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param compressor
+     *            the compressor of the logs or null if the logs are not compressed
+     */
+    LogBatchPool(ICompressorDecompressor compressor, int logPageSize) {
+        this.compressor = compressor;
+        pooledBatchSize = getBatchSize(logPageSize);
+    }
+
+    /**
+     * Copies (and compresses if enabled) the logs into a batch. The batch can be shared by all the senders since the
+     * log buffer is reused once the batch is queued.
+     */
+    LogBatch prepare(ByteBuffer logs) {
+        final int logsSize = logs.remaining();
+        final LogBatch batch = getBatch(getBatchSize(logsSize));
+        final ByteBuffer buffer = batch.getBuffer();
+        buffer.clear();
+        if (compressor == null) {
+            buffer.putInt(logsSize);
+            buffer.put(logs.duplicate());
+        } else {
+            final int headerSize = Integer.BYTES * 2;
+            buffer.position(headerSize);
+            try {
+                compressor.compress(logs, buffer);
+            } catch (HyracksDataException e) {
+                throw new ReplicationException(e);
+            }
+            // the batch size then the size of the uncompressed logs
+            buffer.putInt(0, buffer.limit() - Integer.BYTES);
+            buffer.putInt(Integer.BYTES, logsSize);
+            buffer.position(buffer.limit());
+        }
+        buffer.flip();
+        return batch;
+    }
+
+    private LogBatch getBatch(int size) {
+        if (size > pooledBatchSize) {
+            return new LogBatch(ByteBuffer.allocate(size), null);
+        }
+        final LogBatch batch = freeBatches.poll();
+        return batch != null ? batch : new LogBatch(ByteBuffer.allocate(pooledBatchSize), freeBatches);
+    }
+
+    private int getBatchSize(int logsSize) {
+        return compressor == null ? Integer.BYTES + logsSize
+                : Integer.BYTES * 2 + compressor.computeCompressedBufferSize(logsSize);
+    }
+}
@@ -21,13 +21,13 @@ package org.apache.asterix.replication.management;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousCloseException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -49,23 +49,30 @@ import org.apache.hyracks.api.network.ISocketChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Replicates transaction logs to the registered destinations. Each destination has its own sender with a bounded
+ * queue of log batches so that multiple batches can be in flight to a replica without waiting for the other
+ * replicas. Replicas acknowledge the job termination logs cumulatively using their LSNs.
+ */
 public class LogReplicationManager {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final ReplicaLogSender[] NO_SENDERS = new ReplicaLogSender[0];
     private final LinkedBlockingQueue<ReplicationLogBuffer> emptyLogBuffersQ;
     private final LinkedBlockingQueue<ReplicationLogBuffer> pendingFlushLogBuffersQ;
-    private final ByteBuffer txnLogsBatchSizeBuffer = ByteBuffer.allocate(Integer.BYTES);
-    private final Map<ReplicationDestination, ISocketChannel> destinations = new HashMap<>();
+    private final Map<ReplicationDestination, ReplicaLogSender> destinations = new HashMap<>();
     private final IReplicationManager replicationManager;
     private final Executor executor;
     private final TxnAckTracker ackTracker = new TxnAckTracker();
-    private final Set<ISocketChannel> failedSockets = new HashSet<>();
-    private final Object transferLock = new Object();
+    private final Object registrationLock = new Object();
     private final INcApplicationContext appCtx;
     private final int logPageSize;
     private final int logBatchSize;
+    private final int inflightBatches;
+    private final String compressionScheme;
+    private final LogBatchPool batchPool;
     private ReplicationLogBuffer currentTxnLogBuffer;
-    private ISocketChannel[] destSockets;
+    private volatile ReplicaLogSender[] senders = NO_SENDERS;
 
     public LogReplicationManager(INcApplicationContext appCtx, IReplicationManager replicationManager) {
         this.appCtx = appCtx;
@@ -73,6 +80,9 @@ public class LogReplicationManager {
         final ReplicationProperties replicationProperties = appCtx.getReplicationProperties();
         logPageSize = replicationProperties.getLogBufferPageSize();
         logBatchSize = replicationProperties.getLogBatchSize();
+        inflightBatches = replicationProperties.getLogInflightBatches();
+        compressionScheme = replicationProperties.getLogCompressionScheme();
+        batchPool = new LogBatchPool(ReplicationProtocol.getLogCompressor(compressionScheme), logPageSize);
         executor = appCtx.getThreadExecutor();
         emptyLogBuffersQ = new LinkedBlockingQueue<>();
         pendingFlushLogBuffersQ = new LinkedBlockingQueue<>();
@@ -94,67 +104,56 @@ public class LogReplicationManager {
     }
 
     public void register(ReplicationDestination dest) {
-        synchronized (transferLock) {
+        synchronized (registrationLock) {
             synchronized (destinations) {
                 if (destinations.containsKey(dest)) {
                     return;
                 }
                 LOGGER.info(() -> "register " + dest);
                 ISocketChannel socketChannel = dest.getLogReplicationChannel(appCtx);
-                handshake(dest, socketChannel);
-                destinations.put(dest, socketChannel);
-                failedSockets.remove(socketChannel);
-                destSockets = destinations.values().toArray(new ISocketChannel[0]);
+                ReplicaLogSender sender =
+                        new ReplicaLogSender(dest, socketChannel, replicationManager, inflightBatches);
+                handshake(sender);
+                destinations.put(dest, sender);
+                senders = destinations.values().toArray(NO_SENDERS);
             }
         }
     }
 
     public void unregister(IReplicationDestination dest) {
-        synchronized (transferLock) {
+        synchronized (registrationLock) {
+            final ReplicaLogSender sender;
             synchronized (destinations) {
                 if (!destinations.containsKey(dest)) {
                     return;
                 }
                 LOGGER.info(() -> "unregister " + dest);
                 ackTracker.unregister(dest);
-                ISocketChannel destSocket = destinations.remove(dest);
-                failedSockets.remove(destSocket);
-                destSockets = destinations.values().toArray(new ISocketChannel[0]);
-                endReplication(destSocket);
+                sender = destinations.remove(dest);
+                senders = destinations.values().toArray(NO_SENDERS);
             }
+            // send the pending batches then end the replication
+            sender.stop();
         }
     }
 
     public void replicate(ILogRecord logRecord) throws InterruptedException {
-        if (logRecord.getLogType() == LogType.JOB_COMMIT || logRecord.getLogType() == LogType.ABORT) {
-            synchronized (destinations) {
-                ackTracker.track(logRecord, new HashSet<>(destinations.keySet()));
-            }
-        }
         appendToLogBuffer(logRecord);
     }
 
     public void transferBatch(final ByteBuffer buffer) {
-        // prepare the batch size buffer
-        txnLogsBatchSizeBuffer.clear();
-        txnLogsBatchSizeBuffer.putInt(buffer.remaining());
-        txnLogsBatchSizeBuffer.flip();
-
-        buffer.mark();
-        synchronized (transferLock) {
-            if (destSockets != null) {
-                for (ISocketChannel replicaSocket : destSockets) {
-                    try {
-                        // send batch size then the batch itself
-                        NetworkingUtil.transferBufferToChannel(replicaSocket, txnLogsBatchSizeBuffer);
-                        NetworkingUtil.transferBufferToChannel(replicaSocket, buffer);
-                    } catch (IOException e) {
-                        handleFailure(replicaSocket, e);
-                    } finally {
-                        txnLogsBatchSizeBuffer.position(0);
-                        buffer.reset();
-                    }
+        // sending may block on a slow replica, so it holds no lock. A sender unregistered meanwhile releases the batch
+        final ReplicaLogSender[] currentSenders = senders;
+        if (currentSenders.length > 0) {
+            final LogBatch batch = batchPool.prepare(buffer);
+            batch.setReferences(currentSenders.length);
+            try {
+                for (ReplicaLogSender sender : currentSenders) {
+                    sender.send(batch);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ReplicationException(e);
             }
         }
         // move the buffer position to the sent limit
@@ -165,6 +164,39 @@ public class LogReplicationManager {
         return logPageSize;
     }
 
+    /**
+     * @return the distance in LSNs between the last replicated job termination log and the last one acked by
+     *         {@code dest}
+     */
+    public long getReplicationLagLSNs(IReplicationDestination dest) {
+        return ackTracker.getLagLSNs(dest);
+    }
+
+    /**
+     * @return the time in milliseconds since the oldest job termination log not acked by {@code dest} was replicated
+     */
+    public long getReplicationLagMillis(IReplicationDestination dest) {
+        return ackTracker.getLagMillis(dest);
+    }
+
+    public void dumpState(OutputStream os) throws IOException {
+        final StringBuilder state = new StringBuilder("{\"log-replication\" : [");
+        synchronized (destinations) {
+            String separator = "";
+            for (Map.Entry<ReplicationDestination, ReplicaLogSender> entry : destinations.entrySet()) {
+                final ReplicationDestination dest = entry.getKey();
+                state.append(separator).append("{\"destination\" : \"").append(dest).append("\", \"acked-lsn\" : ")
+                        .append(ackTracker.getAckedLSN(dest)).append(", \"lag-lsns\" : ")
+                        .append(ackTracker.getLagLSNs(dest)).append(", \"lag-ms\" : ")
+                        .append(ackTracker.getLagMillis(dest)).append(", \"queued-batches\" : ")
+                        .append(entry.getValue().getQueuedBatches()).append('}');
+                separator = ", ";
+            }
+        }
+        state.append("]}\n");
+        os.write(state.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     private synchronized void appendToLogBuffer(ILogRecord logRecord) throws InterruptedException {
         if (!currentTxnLogBuffer.hasSpace(logRecord)) {
             currentTxnLogBuffer.setFull(true);
@@ -174,6 +206,12 @@ public class LogReplicationManager {
                 getAndInitNewPage();
             }
         }
+        if (logRecord.getLogType() == LogType.JOB_COMMIT || logRecord.getLogType() == LogType.ABORT) {
+            // track in the replication order since replicas acks are cumulative
+            synchronized (destinations) {
+                ackTracker.track(logRecord, new HashSet<>(destinations.keySet()));
+            }
+        }
         currentTxnLogBuffer.append(logRecord);
     }
 
@@ -192,66 +230,43 @@ public class LogReplicationManager {
         pendingFlushLogBuffersQ.add(currentTxnLogBuffer);
     }
 
-    private void handshake(ReplicationDestination dest, ISocketChannel socketChannel) {
+    private void handshake(ReplicaLogSender sender) {
         final String nodeId = appCtx.getServiceContext().getNodeId();
-        final ReplicateLogsTask task = new ReplicateLogsTask(nodeId);
-        ReplicationProtocol.sendTo(socketChannel, task, null);
-        executor.execute(new TxnAckListener(dest, socketChannel));
-    }
-
-    private void endReplication(ISocketChannel socketChannel) {
-        if (socketChannel.getSocketChannel().isConnected()) {
-            // end log replication (by sending a dummy log with a single byte)
-            final ByteBuffer endLogRepBuffer = ReplicationProtocol.getEndLogReplicationBuffer();
-            try {
-                NetworkingUtil.transferBufferToChannel(socketChannel, endLogRepBuffer);
-            } catch (IOException e) {
-                LOGGER.warn("Failed to end txn log", e);
-            }
-        }
-    }
-
-    private synchronized void handleFailure(ISocketChannel replicaSocket, IOException e) {
-        if (failedSockets.contains(replicaSocket)) {
-            return;
-        }
-        LOGGER.error("Replica failed", e);
-        failedSockets.add(replicaSocket);
-        Optional<ReplicationDestination> socketDest = destinations.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(replicaSocket)).map(Map.Entry::getKey).findFirst();
-        socketDest.ifPresent(dest -> replicationManager.notifyFailure(dest, e));
+        final ReplicateLogsTask task = new ReplicateLogsTask(nodeId, compressionScheme);
+        ReplicationProtocol.sendTo(sender.getReplicaSocket(), task, null);
+        executor.execute(sender);
+        executor.execute(new TxnAckListener(sender));
     }
 
     private class TxnAckListener implements Runnable {
-        private final ReplicationDestination dest;
-        private final ISocketChannel replicaSocket;
+        private final ReplicaLogSender sender;
 
-        TxnAckListener(ReplicationDestination dest, ISocketChannel replicaSocket) {
-            this.dest = dest;
-            this.replicaSocket = replicaSocket;
+        TxnAckListener(ReplicaLogSender sender) {
+            this.sender = sender;
         }
 
         @Override
         public void run() {
+            final ReplicationDestination dest = sender.getDestination();
             Thread.currentThread().setName("TxnAckListener (" + dest + ")");
             LOGGER.info("Started listening on socket: {}", dest);
             try (BufferedReader incomingResponse = new BufferedReader(
-                    new InputStreamReader(replicaSocket.getSocketChannel().socket().getInputStream()))) {
+                    new InputStreamReader(sender.getReplicaSocket().getSocketChannel().socket().getInputStream()))) {
                 while (true) {
                     final String response = incomingResponse.readLine();
                     if (response == null) {
-                        handleFailure(replicaSocket, new IOException("Unexpected response from replica " + dest));
+                        sender.fail(new IOException("Unexpected response from replica " + dest));
                         break;
                     }
-                    // read ACK
-                    final int txnId = ReplicationProtocol.getTxnIdFromLogAckMessage(response);
-                    ackTracker.ack(txnId, dest);
+                    // read the cumulative ACK
+                    final long lsn = ReplicationProtocol.getLsnFromLogAckMessage(response);
+                    ackTracker.ack(lsn, dest);
                 }
             } catch (AsynchronousCloseException e) {
                 LOGGER.debug(() -> "Stopped listening on socket:" + dest, e);
             } catch (IOException e) {
-                handleFailure(replicaSocket, e);
+                sender.fail(e);
             }
         }
     }
-}
\ No newline at end of file
+}
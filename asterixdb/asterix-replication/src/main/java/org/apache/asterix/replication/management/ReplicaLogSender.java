@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.management;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.asterix.common.replication.IReplicationManager;
+import org.apache.asterix.replication.api.ReplicationDestination;
+import org.apache.asterix.replication.messaging.ReplicationProtocol;
+import org.apache.hyracks.api.network.ISocketChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Sends the log batches to a replica. The batches wait in a bounded queue so that several batches can be in flight to
+ * the replica, and queuing a batch blocks only once the queue of the replica is full.
+ */
+class ReplicaLogSender implements Runnable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long SEND_WAIT_MILLIS = 100;
+    private final ReplicationDestination dest;
+    private final ISocketChannel replicaSocket;
+    private final IReplicationManager replicationManager;
+    private final BlockingQueue<LogBatch> batches;
+    private final LogBatch endBatch = new LogBatch(ReplicationProtocol.getEndLogReplicationBuffer(), null);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    ReplicaLogSender(ReplicationDestination dest, ISocketChannel replicaSocket,
+            IReplicationManager replicationManager, int inflightBatches) {
+        this.dest = dest;
+        this.replicaSocket = replicaSocket;
+        this.replicationManager = replicationManager;
+        batches = new ArrayBlockingQueue<>(inflightBatches);
+    }
+
+    ReplicationDestination getDestination() {
+        return dest;
+    }
+
+    ISocketChannel getReplicaSocket() {
+        return replicaSocket;
+    }
+
+    /**
+     * Queues a batch to the replica. Blocks when the replica has too many batches in flight. A batch sent after the
+     * sender stopped is released without being sent.
+     */
+    void send(LogBatch batch) throws InterruptedException {
+        while (!isStopped()) {
+            if (batches.offer(batch, SEND_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the sender may have drained its queue before the batch was queued
+                if (isStopped() && batches.remove(batch)) {
+                    batch.release();
+                }
+                return;
+            }
+        }
+        batch.release();
+    }
+
+    private boolean isStopped() {
+        return stopped.getCount() == 0;
+    }
+
+    int getQueuedBatches() {
+        return batches.size();
+    }
+
+    /**
+     * Sends the queued batches then ends the log replication
+     */
+    void stop() {
+        try {
+            batches.put(endBatch);
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void fail(IOException e) {
+        if (!failed.compareAndSet(false, true)) {
+            return;
+        }
+        LOGGER.error("Replica failed", e);
+        replicationManager.notifyFailure(dest, e);
+    }
+
+    @Override
+    public void run() {
+        Thread.currentThread().setName("TxnLogSender (" + dest + ")");
+        try {
+            while (true) {
+                final LogBatch batch = batches.take();
+                final boolean end = batch == endBatch;
+                try {
+                    // end log replication only if the socket is still usable
+                    if (!failed.get() && (!end || replicaSocket.getSocketChannel().isConnected())) {
+                        transfer(batch, end);
+                    }
+                } finally {
+                    batch.release();
+                }
+                if (end) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+            // release the batches sent while stopping
+            LogBatch batch;
+            while ((batch = batches.poll()) != null) {
+                batch.release();
+            }
+        }
+    }
+
+    private void transfer(LogBatch batch, boolean end) {
+        try {
+            // the batch buffer is shared by the senders of all replicas
+            NetworkingUtil.transferBufferToChannel(replicaSocket, batch.getBuffer().duplicate());
+        } catch (IOException e) {
+            if (end) {
+                LOGGER.warn("Failed to end txn log", e);
+            } else {
+                fail(e);
+            }
+        }
+    }
+}
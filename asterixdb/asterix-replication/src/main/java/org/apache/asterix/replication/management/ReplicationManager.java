@@ -124,8 +124,8 @@ public class ReplicationManager implements IReplicationManager {
     }
 
     @Override
-    public void dumpState(OutputStream os) {
-        // no op
+    public void dumpState(OutputStream os) throws IOException {
+        logReplicationManager.dumpState(os);
     }
 
     @Override
@@ -20,6 +20,7 @@ package org.apache.asterix.replication.messaging;
 
 import java.io.DataInput;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -33,29 +34,51 @@ import org.apache.asterix.replication.api.IReplicaTask;
 import org.apache.asterix.replication.logging.RemoteLogRecord;
 import org.apache.asterix.replication.logging.RemoteLogsProcessor;
 import org.apache.asterix.replication.management.ReplicationChannel;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.network.ISocketChannel;
 
 /**
- * A task to replicate transaction logs from master replica
+ * A task to replicate transaction logs from master replica. When the master compresses the log batches, each batch
+ * starts with its uncompressed size followed by the compressed logs.
  */
 public class ReplicateLogsTask implements IReplicaTask {
 
     public static final int END_REPLICATION_LOG_SIZE = 1;
+    /**
+     * The format of the replicated logs. Version 2 job termination logs carry their master LSN. Masters of version 1
+     * only send their node id in the handshake.
+     */
+    public static final int LOG_FORMAT_VERSION = 2;
+    private static final int UNVERSIONED_LOG_FORMAT = 1;
     private final String nodeId;
+    private final int logFormatVersion;
+    private final String compressionScheme;
 
-    public ReplicateLogsTask(String nodeId) {
+    public ReplicateLogsTask(String nodeId, String compressionScheme) {
+        this(nodeId, LOG_FORMAT_VERSION, compressionScheme);
+    }
+
+    private ReplicateLogsTask(String nodeId, int logFormatVersion, String compressionScheme) {
         this.nodeId = nodeId;
+        this.logFormatVersion = logFormatVersion;
+        this.compressionScheme = compressionScheme;
     }
 
     @Override
     public void perform(INcApplicationContext appCtx, IReplicationWorker worker) {
+        if (logFormatVersion != LOG_FORMAT_VERSION) {
+            throw new ReplicationException(new IllegalStateException("Unsupported log format version "
+                    + logFormatVersion + " of master " + nodeId + ", expected " + LOG_FORMAT_VERSION));
+        }
         final ReplicationChannel replicationChannel = (ReplicationChannel) appCtx.getReplicationChannel();
         final RemoteLogsProcessor logsProcessor = replicationChannel.getRemoteLogsProcessor();
         final ILogManager logManager = appCtx.getTransactionSubsystem().getLogManager();
         final RemoteLogRecord reusableLog = new RemoteLogRecord();
         final ISocketChannel channel = worker.getChannel();
+        final ICompressorDecompressor decompressor = ReplicationProtocol.getLogCompressor(compressionScheme);
         ByteBuffer logsBuffer = ByteBuffer.allocate(logManager.getLogPageSize());
+        ByteBuffer uncompressedLogsBuffer = null;
         try {
             while (true) {
                 // read a batch of logs
@@ -64,13 +87,41 @@ public class ReplicateLogsTask implements IReplicaTask {
                 if (logsBuffer.remaining() == END_REPLICATION_LOG_SIZE) {
                     break;
                 }
-                logsProcessor.process(logsBuffer, reusableLog, worker);
+                if (decompressor != null) {
+                    uncompressedLogsBuffer = uncompress(decompressor, logsBuffer, uncompressedLogsBuffer);
+                    logsProcessor.process(uncompressedLogsBuffer, reusableLog, worker);
+                } else {
+                    logsProcessor.process(logsBuffer, reusableLog, worker);
+                }
             }
         } catch (IOException e) {
             throw new ReplicationException(e);
         }
     }
 
+    /**
+     * Uncompresses a batch of logs that starts with the size of the uncompressed logs
+     *
+     * @param uncompressedLogs
+     *            the buffer to reuse for the uncompressed logs if it is large enough, or null
+     * @return the buffer holding the uncompressed logs
+     */
+    public static ByteBuffer uncompress(ICompressorDecompressor decompressor, ByteBuffer batch,
+            ByteBuffer uncompressedLogs) throws HyracksDataException {
+        final int uncompressedSize = batch.getInt();
+        final ByteBuffer logs = ReplicationProtocol.ensureSize(uncompressedLogs, uncompressedSize);
+        decompressor.uncompress(batch, logs);
+        return logs;
+    }
+
+    public int getLogFormatVersion() {
+        return logFormatVersion;
+    }
+
+    public String getCompressionScheme() {
+        return compressionScheme;
+    }
+
     @Override
     public ReplicationProtocol.ReplicationRequestType getMessageType() {
         return ReplicationProtocol.ReplicationRequestType.REPLICATE_LOGS;
@@ -81,6 +132,8 @@ public class ReplicateLogsTask implements IReplicaTask {
         try {
             DataOutputStream dos = new DataOutputStream(out);
             dos.writeUTF(nodeId);
+            dos.writeInt(logFormatVersion);
+            dos.writeUTF(compressionScheme);
         } catch (IOException e) {
             throw HyracksDataException.create(e);
         }
@@ -88,6 +141,13 @@ public class ReplicateLogsTask implements IReplicaTask {
 
     public static ReplicateLogsTask create(DataInput input) throws IOException {
         final String node = input.readUTF();
-        return new ReplicateLogsTask(node);
+        final int logFormatVersion;
+        try {
+            logFormatVersion = input.readInt();
+        } catch (EOFException e) { // NOSONAR the master does not version its logs
+            return new ReplicateLogsTask(node, UNVERSIONED_LOG_FORMAT, ReplicationProtocol.NO_LOG_COMPRESSION);
+        }
+        final String compressionScheme = input.readUTF();
+        return new ReplicateLogsTask(node, logFormatVersion, compressionScheme);
     }
 }
\ No newline at end of file
@@ -34,9 +34,12 @@ import org.apache.asterix.common.exceptions.ReplicationException;
 import org.apache.asterix.replication.api.IReplicationMessage;
 import org.apache.asterix.replication.api.PartitionReplica;
 import org.apache.asterix.replication.management.NetworkingUtil;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.network.ISocketChannel;
 import org.apache.hyracks.api.network.ISocketChannelFactory;
 import org.apache.hyracks.data.std.util.ExtendedByteArrayOutputStream;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
 import org.apache.hyracks.util.NetworkUtil;
 import org.apache.hyracks.util.StorageUtil;
 
@@ -46,6 +49,7 @@ public class ReplicationProtocol {
      * All replication messages start with ReplicationRequestType (4 bytes), then the length of the request in bytes
      */
     public static final String LOG_REPLICATION_ACK = "$";
+    public static final String NO_LOG_COMPRESSION = "none";
     public static final int INITIAL_BUFFER_SIZE = StorageUtil.getIntSizeInBytes(4, StorageUtil.StorageUnit.KILOBYTE);
     private static final int REPLICATION_REQUEST_TYPE_SIZE = Integer.BYTES;
     private static final int REPLICATION_REQUEST_HEADER_SIZE = REPLICATION_REQUEST_TYPE_SIZE + Integer.BYTES;
@@ -94,8 +98,26 @@ public class ReplicationProtocol {
         return bb;
     }
 
-    public static int getTxnIdFromLogAckMessage(String msg) {
-        return Integer.parseInt(msg.substring(msg.indexOf(LOG_REPLICATION_ACK) + 1));
+    public static long getLsnFromLogAckMessage(String msg) {
+        return Long.parseLong(msg.substring(msg.indexOf(LOG_REPLICATION_ACK) + 1));
+    }
+
+    /**
+     * @param scheme
+     *            the compression scheme of replicated log batches
+     * @return the compressor of the scheme or null if log batches are not compressed
+     */
+    public static ICompressorDecompressor getLogCompressor(String scheme) {
+        switch (scheme.toLowerCase()) {
+            case NO_LOG_COMPRESSION:
+                return null;
+            case "snappy":
+                return new SnappyCompressorDecompressorFactory().createInstance();
+            case "lz4":
+                return new Lz4CompressorDecompressorFactory().createInstance();
+            default:
+                throw new IllegalArgumentException("Unknown log replication compression scheme: " + scheme);
+        }
     }
 
     public static void sendGoodbye(ISocketChannel socketChannel) throws IOException {
@@ -214,7 +236,7 @@ public class ReplicationProtocol {
         return clientChannel;
     }
 
-    private static ByteBuffer ensureSize(ByteBuffer buffer, int size) {
+    public static ByteBuffer ensureSize(ByteBuffer buffer, int size) {
         if (buffer == null || buffer.capacity() < size) {
             return ByteBuffer.allocate(size);
         }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.logging;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.asterix.common.replication.IReplicationDestination;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TxnAckTrackerTest {
+
+    private final IReplicationDestination replica1 = Mockito.mock(IReplicationDestination.class);
+    private final IReplicationDestination replica2 = Mockito.mock(IReplicationDestination.class);
+    private final TxnAckTracker tracker = new TxnAckTracker();
+
+    @Test
+    public void cumulativeAckTest() {
+        LogRecord log10 = track(10, replica1, replica2);
+        LogRecord log20 = track(20, replica1, replica2);
+        LogRecord log30 = track(30, replica1, replica2);
+        // an ack acknowledges all the logs sent before it
+        tracker.ack(20, replica1);
+        Assert.assertEquals(20, tracker.getAckedLSN(replica1));
+        Assert.assertEquals(-1, tracker.getAckedLSN(replica2));
+        assertReplicated(false, log10, log20, log30);
+        tracker.ack(30, replica2);
+        assertReplicated(true, log10, log20);
+        assertReplicated(false, log30);
+        tracker.ack(30, replica1);
+        assertReplicated(true, log30);
+        Assert.assertEquals(30, tracker.getAckedLSN(replica1));
+        Assert.assertEquals(30, tracker.getAckedLSN(replica2));
+    }
+
+    @Test
+    public void outOfOrderAckTest() {
+        LogRecord log10 = track(10, replica1, replica2);
+        LogRecord log20 = track(20, replica1, replica2);
+        tracker.ack(20, replica1);
+        // an older ack does not move the acked LSN back
+        tracker.ack(10, replica1);
+        Assert.assertEquals(20, tracker.getAckedLSN(replica1));
+        assertReplicated(false, log10, log20);
+        tracker.ack(10, replica2);
+        assertReplicated(true, log10);
+        assertReplicated(false, log20);
+        tracker.ack(20, replica2);
+        assertReplicated(true, log20);
+    }
+
+    @Test
+    public void logsAckedInReplicationOrderTest() {
+        // logs may be replicated slightly out of their LSN order
+        LogRecord log10 = track(10, replica1);
+        LogRecord log30 = track(30, replica1);
+        LogRecord log20 = track(20, replica1);
+        tracker.ack(30, replica1);
+        assertReplicated(true, log10, log30);
+        assertReplicated(false, log20);
+        tracker.ack(20, replica1);
+        assertReplicated(true, log20);
+    }
+
+    @Test
+    public void unknownLsnAckTest() {
+        LogRecord log10 = track(10, replica1, replica2);
+        LogRecord log20 = track(20, replica1, replica2);
+        tracker.ack(15, replica1);
+        Assert.assertEquals(-1, tracker.getAckedLSN(replica1));
+        assertReplicated(false, log10, log20);
+        tracker.ack(10, replica1);
+        tracker.ack(10, replica2);
+        assertReplicated(true, log10);
+        // the log is no longer tracked once all replicas acked it
+        tracker.ack(10, replica1);
+        Assert.assertEquals(10, tracker.getAckedLSN(replica1));
+        assertReplicated(false, log20);
+    }
+
+    @Test
+    public void noReplicasTest() {
+        LogRecord log = track(10);
+        assertReplicated(true, log);
+        Assert.assertEquals(0, tracker.getLagLSNs(replica1));
+    }
+
+    @Test
+    public void unregisterTest() {
+        LogRecord log10 = track(10, replica1, replica2);
+        tracker.ack(10, replica1);
+        Assert.assertEquals(10, tracker.getAckedLSN(replica1));
+        tracker.unregister(replica2);
+        assertReplicated(true, log10);
+        tracker.unregister(replica1);
+        Assert.assertEquals(-1, tracker.getAckedLSN(replica1));
+    }
+
+    @Test
+    public void lagLsnsTest() {
+        track(100, replica1, replica2);
+        track(200, replica1, replica2);
+        track(300, replica1, replica2);
+        // without an ack, the lag starts at the oldest pending log
+        Assert.assertEquals(200, tracker.getLagLSNs(replica1));
+        tracker.ack(200, replica1);
+        Assert.assertEquals(100, tracker.getLagLSNs(replica1));
+        Assert.assertEquals(200, tracker.getLagLSNs(replica2));
+        tracker.ack(300, replica1);
+        Assert.assertEquals(0, tracker.getLagLSNs(replica1));
+        Assert.assertEquals(200, tracker.getLagLSNs(replica2));
+        tracker.ack(300, replica2);
+        Assert.assertEquals(0, tracker.getLagLSNs(replica2));
+    }
+
+    @Test
+    public void lagMillisTest() throws InterruptedException {
+        track(100, replica1, replica2);
+        Thread.sleep(50);
+        track(200, replica1, replica2);
+        // the lag is the age of the oldest pending log
+        Assert.assertTrue(tracker.getLagMillis(replica1) >= 50);
+        tracker.ack(100, replica1);
+        Assert.assertTrue(tracker.getLagMillis(replica1) < tracker.getLagMillis(replica2));
+        Assert.assertTrue(tracker.getLagMillis(replica2) >= 50);
+        tracker.ack(200, replica1);
+        Assert.assertEquals(0, tracker.getLagMillis(replica1));
+    }
+
+    private LogRecord track(long lsn, IReplicationDestination... replicas) {
+        LogRecord logRecord = new LogRecord();
+        logRecord.setLSN(lsn);
+        Set<IReplicationDestination> destinations = new HashSet<>(Arrays.asList(replicas));
+        tracker.track(logRecord, destinations);
+        return logRecord;
+    }
+
+    private static void assertReplicated(boolean replicated, LogRecord... logRecords) {
+        for (LogRecord logRecord : logRecords) {
+            Assert.assertEquals("log " + logRecord.getLSN(), replicated, logRecord.isReplicated());
+        }
+    }
+}
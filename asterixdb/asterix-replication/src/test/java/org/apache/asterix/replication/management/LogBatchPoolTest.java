@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.management;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.replication.messaging.ReplicateLogsTask;
+import org.apache.asterix.replication.messaging.ReplicationProtocol;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.network.ISocketChannel;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class LogBatchPoolTest {
+
+    private static final int LOG_PAGE_SIZE = 4096;
+
+    @Test
+    public void uncompressedRoundTripTest() throws Exception {
+        roundTrip(ReplicationProtocol.NO_LOG_COMPRESSION);
+    }
+
+    @Test
+    public void snappyRoundTripTest() throws Exception {
+        roundTrip("snappy");
+    }
+
+    @Test
+    public void lz4RoundTripTest() throws Exception {
+        roundTrip("lz4");
+    }
+
+    @Test
+    public void unversionedHandshakeTest() throws Exception {
+        // masters that do not version their logs only send their node id
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        new DataOutputStream(handshake).writeUTF("nc1");
+        ReplicateLogsTask task =
+                ReplicateLogsTask.create(new DataInputStream(new ByteArrayInputStream(handshake.toByteArray())));
+        Assert.assertNotEquals(ReplicateLogsTask.LOG_FORMAT_VERSION, task.getLogFormatVersion());
+        Assert.assertEquals(ReplicationProtocol.NO_LOG_COMPRESSION, task.getCompressionScheme());
+    }
+
+    @Test
+    public void releasedBatchIsReusedTest() {
+        LogBatchPool pool = new LogBatchPool(ReplicationProtocol.getLogCompressor("snappy"), LOG_PAGE_SIZE);
+        LogBatch batch = pool.prepare(createLogs(LOG_PAGE_SIZE));
+        batch.setReferences(2);
+        batch.release();
+        // the batch is still used by a sender
+        LogBatch otherBatch = pool.prepare(createLogs(LOG_PAGE_SIZE));
+        Assert.assertNotSame(batch, otherBatch);
+        batch.release();
+        LogBatch reusedBatch = pool.prepare(createLogs(100));
+        Assert.assertSame(batch, reusedBatch);
+        reusedBatch.setReferences(1);
+        // batches of large log pages are not pooled
+        LogBatch largeBatch = pool.prepare(createLogs(2 * LOG_PAGE_SIZE));
+        largeBatch.setReferences(1);
+        largeBatch.release();
+        reusedBatch.release();
+        Assert.assertSame(batch, pool.prepare(createLogs(100)));
+        Assert.assertNotSame(largeBatch, pool.prepare(createLogs(100)));
+    }
+
+    /**
+     * Sends a batch of logs through the log replication handshake and batch format of the master and reads it back
+     * like the replica does
+     */
+    private static void roundTrip(String compressionScheme) throws Exception {
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        new ReplicateLogsTask("nc1", compressionScheme).serialize(handshake);
+        ReplicateLogsTask task =
+                ReplicateLogsTask.create(new DataInputStream(new ByteArrayInputStream(handshake.toByteArray())));
+        Assert.assertEquals(compressionScheme, task.getCompressionScheme());
+        Assert.assertEquals(ReplicateLogsTask.LOG_FORMAT_VERSION, task.getLogFormatVersion());
+
+        LogBatchPool pool = new LogBatchPool(ReplicationProtocol.getLogCompressor(compressionScheme), LOG_PAGE_SIZE);
+        ICompressorDecompressor decompressor = ReplicationProtocol.getLogCompressor(task.getCompressionScheme());
+        ByteBuffer uncompressedLogs = null;
+        // the second batch reuses the buffers of the first one
+        for (int i = 0; i < 2; i++) {
+            ByteBuffer logs = createLogs(LOG_PAGE_SIZE - i * 100);
+            LogBatch batch = pool.prepare(logs);
+            ByteBuffer received = ReplicationProtocol.readRequest(createChannel(batch.getBuffer().duplicate()),
+                    ByteBuffer.allocate(Integer.BYTES));
+            if (decompressor == null) {
+                Assert.assertEquals(logs, received);
+            } else {
+                Assert.assertTrue(received.remaining() < logs.remaining());
+                uncompressedLogs = ReplicateLogsTask.uncompress(decompressor, received, uncompressedLogs);
+                Assert.assertEquals(logs, uncompressedLogs);
+            }
+            batch.setReferences(1);
+            batch.release();
+        }
+    }
+
+    private static ByteBuffer createLogs(int size) {
+        ByteBuffer logs = ByteBuffer.allocate(size);
+        for (int i = 0; i < size; i++) {
+            logs.put((byte) (i % 13));
+        }
+        logs.flip();
+        return logs;
+    }
+
+    /**
+     * @return a channel whose reads return the bytes of {@code data}
+     */
+    private static ISocketChannel createChannel(ByteBuffer data) throws Exception {
+        ISocketChannel channel = Mockito.mock(ISocketChannel.class);
+        Mockito.when(channel.read(Mockito.any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer dst = invocation.getArgumentAt(0, ByteBuffer.class);
+            int length = Math.min(dst.remaining(), data.remaining());
+            for (int i = 0; i < length; i++) {
+                dst.put(data.get());
+            }
+            return length == 0 ? -1 : length;
+        });
+        return channel;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.replication.management;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.common.replication.IReplicationDestination;
+import org.apache.asterix.common.replication.IReplicationManager;
+import org.apache.asterix.replication.api.ReplicationDestination;
+import org.apache.hyracks.api.network.ISocketChannel;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ReplicaLogSenderTest {
+
+    private static final int INFLIGHT_BATCHES = 2;
+    private final ReplicationDestination dest = ReplicationDestination.at(InetSocketAddress.createUnresolved("nc2", 1));
+    private final IReplicationManager replicationManager = Mockito.mock(IReplicationManager.class);
+    private final LogBatchPool pool = new LogBatchPool(null, 1024);
+
+    @Test
+    public void fullQueueBlocksTest() throws Exception {
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        ISocketChannel socket = createSocket((buffer, length) -> {
+            synchronized (sent) {
+                sent.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            }
+        });
+        ReplicaLogSender sender = new ReplicaLogSender(dest, socket, replicationManager, INFLIGHT_BATCHES);
+        List<LogBatch> batches = new ArrayList<>();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < INFLIGHT_BATCHES + 1; i++) {
+            LogBatch batch = createBatch(i);
+            expected.write(batch.getBuffer().array(), 0, batch.getBuffer().limit());
+            batches.add(batch);
+        }
+        for (int i = 0; i < INFLIGHT_BATCHES; i++) {
+            sender.send(batches.get(i));
+        }
+        Thread blocked = new Thread(() -> {
+            try {
+                sender.send(batches.get(INFLIGHT_BATCHES));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocked.start();
+        // nothing is sent yet, so the batch waits for a free slot of the queue
+        blocked.join(200);
+        Assert.assertTrue(blocked.isAlive());
+        Assert.assertEquals(INFLIGHT_BATCHES, sender.getQueuedBatches());
+        Thread senderThread = new Thread(sender);
+        senderThread.start();
+        blocked.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(blocked.isAlive());
+        sender.stop();
+        Assert.assertEquals(0, sender.getQueuedBatches());
+        Assert.assertArrayEquals(expected.toByteArray(), sent.toByteArray());
+        Mockito.verify(replicationManager, Mockito.never()).notifyFailure(Mockito.any(IReplicationDestination.class),
+                Mockito.any(Exception.class));
+        // the batches sent to the only replica are reused
+        Assert.assertTrue(batches.contains(pool.prepare(ByteBuffer.allocate(1))));
+    }
+
+    @Test
+    public void failedReplicaDoesNotBlockTest() throws Exception {
+        ISocketChannel socket = createSocket((buffer, length) -> {
+            throw new IOException("replica failed");
+        });
+        ReplicaLogSender sender = new ReplicaLogSender(dest, socket, replicationManager, INFLIGHT_BATCHES);
+        Thread senderThread = new Thread(sender);
+        senderThread.start();
+        // the batches of a failed replica are dropped
+        for (int i = 0; i < 4 * INFLIGHT_BATCHES; i++) {
+            sender.send(createBatch(i));
+        }
+        sender.stop();
+        Mockito.verify(replicationManager, Mockito.times(1)).notifyFailure(Mockito.eq(dest),
+                Mockito.any(IOException.class));
+    }
+
+    @Test
+    public void sendAfterStopTest() throws Exception {
+        ISocketChannel socket = createSocket((buffer, length) -> {
+        });
+        ReplicaLogSender sender = new ReplicaLogSender(dest, socket, replicationManager, INFLIGHT_BATCHES);
+        Thread senderThread = new Thread(sender);
+        senderThread.start();
+        sender.stop();
+        // a batch sent to an unregistered replica does not block and returns to the pool
+        for (int i = 0; i < 2 * INFLIGHT_BATCHES; i++) {
+            LogBatch batch = createBatch(i);
+            sender.send(batch);
+            Assert.assertSame(batch, pool.prepare(ByteBuffer.allocate(1)));
+        }
+        Assert.assertEquals(0, sender.getQueuedBatches());
+    }
+
+    private LogBatch createBatch(int value) {
+        ByteBuffer logs = ByteBuffer.allocate(16);
+        while (logs.hasRemaining()) {
+            logs.put((byte) value);
+        }
+        logs.flip();
+        LogBatch batch = pool.prepare(logs);
+        batch.setReferences(1);
+        return batch;
+    }
+
+    @FunctionalInterface
+    private interface IWriter {
+        void write(ByteBuffer buffer, int length) throws IOException;
+    }
+
+    private static ISocketChannel createSocket(IWriter writer) throws IOException {
+        ISocketChannel socket = Mockito.mock(ISocketChannel.class);
+        Mockito.when(socket.write(Mockito.any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgumentAt(0, ByteBuffer.class);
+            int length = buffer.remaining();
+            writer.write(buffer, length);
+            buffer.position(buffer.limit());
+            return length;
+        });
+        // the end of the log replication is only sent to connected replicas
+        SocketChannel socketChannel = Mockito.mock(SocketChannel.class);
+        Mockito.when(socket.getSocketChannel()).thenReturn(socketChannel);
+        return socket;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredder;
+
+/**
+ * Shreds a serialized record into the columns [header][closed field 0]...[closed field n - 1][open part] where the
+ * closed fields are untagged and empty when they are null or missing. The record length and the offsets of the header
+ * and the open part are cleared (the open part offsets are made relative to the open part) so that records of the
+ * same shape have the same header and encode well. They are recomputed when a record is reassembled. A record that
+ * is assembled from a subset of its columns has the same layout with the omitted closed fields being empty and the
+ * omitted open part having no fields.
+ */
+public class ARecordColumnShredder implements IColumnShredder {
+    private static final int TAG_SIZE = 1;
+    private static final int LENGTH_OFFSET = TAG_SIZE;
+    private static final int EXPANDED_OFFSET = LENGTH_OFFSET + Integer.BYTES;
+    private static final int OPEN_PART_OFFSET = EXPANDED_OFFSET + 1;
+    private static final int OPEN_FIELD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final boolean open;
+    private final int closedFieldCount;
+    private final int nullBitmapSize;
+    private final IBinaryComparator[] closedFieldComparators;
+    private final long[] sortedOffsets;
+    private final int[] offsets;
+    private final int[] lengths;
+    private byte[] buffer = new byte[0];
+
+    /**
+     * @param closedFieldTypeTags
+     *            the (non-optional) types of the closed fields
+     */
+    public ARecordColumnShredder(boolean open, int closedFieldCount, int nullBitmapSize,
+            ATypeTag[] closedFieldTypeTags) {
+        this.open = open;
+        this.closedFieldCount = closedFieldCount;
+        this.nullBitmapSize = nullBitmapSize;
+        closedFieldComparators = new IBinaryComparator[closedFieldCount];
+        for (int i = 0; i < closedFieldTypeTags.length; i++) {
+            closedFieldComparators[i] = ColumnValueComparator.of(closedFieldTypeTags[i]);
+        }
+        sortedOffsets = new long[closedFieldCount];
+        offsets = new int[closedFieldCount];
+        lengths = new int[closedFieldCount];
+    }
+
+    /**
+     * @return the columns that are needed to assemble the given fields of records of the given type. Fields that are
+     *         not declared by the type are read from the open part.
+     */
+    public static BitSet createProjection(ARecordType recordType, Collection<String> fieldNames) {
+        int closedFieldCount = recordType.getFieldNames().length;
+        BitSet projection = new BitSet(closedFieldCount + 2);
+        projection.set(0);
+        for (String fieldName : fieldNames) {
+            int fieldIndex = recordType.getFieldIndex(fieldName);
+            projection.set(fieldIndex >= 0 ? fieldIndex + 1 : closedFieldCount + 1);
+        }
+        return projection;
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return closedFieldCount + 2;
+    }
+
+    @Override
+    public void shred(byte[] data, int start, int length, ArrayTupleBuilder columns) throws HyracksDataException {
+        boolean expanded = isExpanded(data, start);
+        int headerLength = getHeaderLength(expanded);
+        int closedEnd = expanded ? IntegerPointable.getInteger(data, start + OPEN_PART_OFFSET) : length;
+        // the closed fields are not necessarily written in the order of the record type
+        int numPresentFields = 0;
+        for (int i = 0; i < closedFieldCount; i++) {
+            lengths[i] = 0;
+            if (isPresent(data, start, i)) {
+                int offset = IntegerPointable.getInteger(data, start + headerLength - getOffsetsSize() + i * 4);
+                sortedOffsets[numPresentFields++] = ((long) offset << Integer.SIZE) | i;
+            }
+        }
+        Arrays.sort(sortedOffsets, 0, numPresentFields);
+        for (int j = 0; j < numPresentFields; j++) {
+            int field = (int) sortedOffsets[j];
+            int offset = (int) (sortedOffsets[j] >>> Integer.SIZE);
+            int end = j + 1 < numPresentFields ? (int) (sortedOffsets[j + 1] >>> Integer.SIZE) : closedEnd;
+            offsets[field] = offset;
+            lengths[field] = end - offset;
+        }
+        byte[] header = copy(data, start, headerLength);
+        IntegerPointable.setInteger(header, LENGTH_OFFSET, 0);
+        if (expanded) {
+            IntegerPointable.setInteger(header, OPEN_PART_OFFSET, 0);
+        }
+        Arrays.fill(header, headerLength - getOffsetsSize(), headerLength, (byte) 0);
+        columns.addField(header, 0, headerLength);
+        for (int i = 0; i < closedFieldCount; i++) {
+            columns.addField(data, start + offsets[i], lengths[i]);
+        }
+        byte[] openPart = copy(data, start + closedEnd, length - closedEnd);
+        if (expanded) {
+            shiftOpenFieldOffsets(openPart, 0, -closedEnd);
+        }
+        columns.addField(openPart, 0, length - closedEnd);
+    }
+
+    @Override
+    public void assemble(ITupleReference columns, BitSet projection, ArrayBackedValueStorage value)
+            throws HyracksDataException {
+        int base = value.getLength();
+        DataOutput out = value.getDataOutput();
+        try {
+            write(columns, 0, out);
+            int headerLength = columns.getFieldLength(0);
+            int position = headerLength;
+            for (int i = 0; i < closedFieldCount; i++) {
+                offsets[i] = position;
+                if (isProjected(projection, i + 1)) {
+                    write(columns, i + 1, out);
+                    position += columns.getFieldLength(i + 1);
+                }
+            }
+            int closedEnd = position;
+            boolean expanded = isExpanded(value.getByteArray(), value.getStartOffset() + base);
+            if (expanded) {
+                if (isProjected(projection, closedFieldCount + 1)) {
+                    write(columns, closedFieldCount + 1, out);
+                } else {
+                    // an open part without fields
+                    out.writeInt(0);
+                }
+            }
+            byte[] bytes = value.getByteArray();
+            int start = value.getStartOffset() + base;
+            if (expanded) {
+                IntegerPointable.setInteger(bytes, start + OPEN_PART_OFFSET, closedEnd);
+                shiftOpenFieldOffsets(bytes, start + closedEnd, closedEnd);
+            }
+            for (int i = 0; i < closedFieldCount; i++) {
+                IntegerPointable.setInteger(bytes, start + headerLength - getOffsetsSize() + i * 4, offsets[i]);
+            }
+            IntegerPointable.setInteger(bytes, start + LENGTH_OFFSET, value.getLength() - base);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public IBinaryComparator getColumnComparator(int column) {
+        return column >= 1 && column <= closedFieldCount ? closedFieldComparators[column - 1] : null;
+    }
+
+    private byte[] copy(byte[] data, int start, int length) {
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        System.arraycopy(data, start, buffer, 0, length);
+        return buffer;
+    }
+
+    private static void shiftOpenFieldOffsets(byte[] data, int openPartStart, int delta) {
+        int numOpenFields = IntegerPointable.getInteger(data, openPartStart);
+        for (int j = 0; j < numOpenFields; j++) {
+            int offsetPosition = openPartStart + Integer.BYTES + j * OPEN_FIELD_HEADER_SIZE + Integer.BYTES;
+            IntegerPointable.setInteger(data, offsetPosition,
+                    IntegerPointable.getInteger(data, offsetPosition) + delta);
+        }
+    }
+
+    private boolean isExpanded(byte[] data, int start) {
+        return open && data[start + EXPANDED_OFFSET] != 0;
+    }
+
+    private int getHeaderLength(boolean expanded) {
+        int length = TAG_SIZE + Integer.BYTES;
+        if (open) {
+            length += expanded ? 1 + Integer.BYTES : 1;
+        }
+        if (closedFieldCount > 0) {
+            length += Integer.BYTES + nullBitmapSize + getOffsetsSize();
+        }
+        return length;
+    }
+
+    private int getOffsetsSize() {
+        return closedFieldCount * Integer.BYTES;
+    }
+
+    private boolean isPresent(byte[] data, int start, int field) {
+        if (nullBitmapSize == 0) {
+            return true;
+        }
+        // two bits (not null, not missing) per field
+        int bitmapOffset = start + getHeaderLength(isExpanded(data, start)) - getOffsetsSize() - nullBitmapSize;
+        int bits = data[bitmapOffset + field / 4] >>> (6 - 2 * (field % 4));
+        return (bits & 0x3) == 0x3;
+    }
+
+    private static boolean isProjected(BitSet projection, int column) {
+        return projection == null || projection.get(column);
+    }
+
+    private static void write(ITupleReference columns, int column, DataOutput out) throws IOException {
+        out.write(columns.getFieldData(column), columns.getFieldStart(column), columns.getFieldLength(column));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredder;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Shreds the records of a columnar dataset into one column per declared (closed) field. Only the shape of the record
+ * type that determines the serialized layout of its records and the types of the closed fields (for the min/max
+ * statistics of their columns) are persisted.
+ */
+public class ARecordColumnShredderFactory implements IColumnShredderFactory {
+    private static final long serialVersionUID = 1L;
+    private final boolean open;
+    private final int closedFieldCount;
+    private final int nullBitmapSize;
+    private final ATypeTag[] closedFieldTypeTags;
+
+    public ARecordColumnShredderFactory(ARecordType recordType) {
+        this(recordType.isOpen(), recordType.getFieldNames().length, RecordUtil.computeNullBitmapSize(recordType),
+                getClosedFieldTypeTags(recordType));
+    }
+
+    private ARecordColumnShredderFactory(boolean open, int closedFieldCount, int nullBitmapSize,
+            ATypeTag[] closedFieldTypeTags) {
+        this.open = open;
+        this.closedFieldCount = closedFieldCount;
+        this.nullBitmapSize = nullBitmapSize;
+        this.closedFieldTypeTags = closedFieldTypeTags;
+    }
+
+    @Override
+    public IColumnShredder createShredder() {
+        return new ARecordColumnShredder(open, closedFieldCount, nullBitmapSize, closedFieldTypeTags);
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        final ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
+        json.put("open", open);
+        json.put("closedFieldCount", closedFieldCount);
+        json.put("nullBitmapSize", nullBitmapSize);
+        ArrayNode typeTags = json.putArray("closedFieldTypeTags");
+        for (ATypeTag typeTag : closedFieldTypeTags) {
+            typeTags.add(typeTag.serialize());
+        }
+        return json;
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        // resources that were persisted before the closed field types were added have no statistics
+        JsonNode typeTagsNode = json.get("closedFieldTypeTags");
+        ATypeTag[] typeTags = new ATypeTag[typeTagsNode != null ? typeTagsNode.size() : 0];
+        for (int i = 0; i < typeTags.length; i++) {
+            typeTags[i] = ATypeTag.VALUE_TYPE_MAPPING[typeTagsNode.get(i).asInt()];
+        }
+        return new ARecordColumnShredderFactory(json.get("open").asBoolean(), json.get("closedFieldCount").asInt(),
+                json.get("nullBitmapSize").asInt(), typeTags);
+    }
+
+    private static ATypeTag[] getClosedFieldTypeTags(ARecordType recordType) {
+        IAType[] fieldTypes = recordType.getFieldTypes();
+        ATypeTag[] typeTags = new ATypeTag[fieldTypes.length];
+        for (int i = 0; i < fieldTypes.length; i++) {
+            IAType fieldType = fieldTypes[i];
+            if (fieldType.getTypeTag() == ATypeTag.UNION) {
+                fieldType = ((AUnionType) fieldType).getActualType();
+            }
+            typeTags[i] = fieldType.getTypeTag();
+        }
+        return typeTags;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.data.std.primitive.BytePointable;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.FloatPointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.primitive.ShortPointable;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * Compares the untagged values of a closed field column. The comparator is stateless.
+ */
+public class ColumnValueComparator implements IBinaryComparator {
+    private final ATypeTag typeTag;
+
+    private ColumnValueComparator(ATypeTag typeTag) {
+        this.typeTag = typeTag;
+    }
+
+    /**
+     * @param typeTag
+     *            the type of the column's values
+     * @return the comparator or {@code null} if the values of the type are not compared
+     */
+    public static ColumnValueComparator of(ATypeTag typeTag) {
+        switch (typeTag) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case DATE:
+            case TIME:
+            case YEARMONTHDURATION:
+            case BIGINT:
+            case DATETIME:
+            case DAYTIMEDURATION:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+                return new ColumnValueComparator(typeTag);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+        switch (typeTag) {
+            case TINYINT:
+                return Byte.compare(BytePointable.getByte(b1, s1), BytePointable.getByte(b2, s2));
+            case SMALLINT:
+                return Short.compare(ShortPointable.getShort(b1, s1), ShortPointable.getShort(b2, s2));
+            case INTEGER:
+            case DATE:
+            case TIME:
+            case YEARMONTHDURATION:
+                return Integer.compare(IntegerPointable.getInteger(b1, s1), IntegerPointable.getInteger(b2, s2));
+            case BIGINT:
+            case DATETIME:
+            case DAYTIMEDURATION:
+                return Long.compare(LongPointable.getLong(b1, s1), LongPointable.getLong(b2, s2));
+            case FLOAT:
+                return Float.compare(FloatPointable.getFloat(b1, s1), FloatPointable.getFloat(b2, s2));
+            case DOUBLE:
+                return Double.compare(DoublePointable.getDouble(b1, s1), DoublePointable.getDouble(b2, s2));
+            case STRING:
+                return UTF8StringUtil.compareTo(b1, s1, b2, s2);
+            default:
+                throw new IllegalStateException("Unexpected column type " + typeTag);
+        }
+    }
+}
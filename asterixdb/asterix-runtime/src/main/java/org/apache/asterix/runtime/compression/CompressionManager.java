@@ -18,9 +18,15 @@
  */
 package org.apache.asterix.runtime.compression;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.asterix.common.config.StorageProperties;
 import org.apache.asterix.common.exceptions.CompilationException;
@@ -28,14 +34,27 @@ import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.storage.ICompressionManager;
 import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
 import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
 import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.ZstdCompressorDecompressorFactory;
 
 public class CompressionManager implements ICompressionManager {
     private static final Map<String, Class<? extends ICompressorDecompressorFactory>> REGISTERED_SCHEMES =
             getRegisteredSchemes();
     public static final String NONE = "none";
+    public static final String LZ4 = "lz4";
+    public static final String ZSTD = "zstd";
+    /*
+     * A scheme can be given as <scheme>[:<level>[:<dictionary>]]. Only lz4 (level) and zstd (level and dictionary)
+     * accept parameters. A dictionary is a file in the configured dictionary directory
+     */
+    private static final String PARAMETER_SEPARATOR = ":";
     private final String defaultScheme;
+    // null if dictionaries cannot be used
+    private final Path dictionaryDir;
+    // dictionaries are read once since the scheme of a dataset is validated and resolved several times
+    private final Map<Path, byte[]> dictionaries = new ConcurrentHashMap<>();
 
     /*
      * New compression schemes can be added by registering the name and the factory class
@@ -48,34 +67,115 @@ public class CompressionManager implements ICompressionManager {
         //No compression
         registeredSchemes.put(NONE, NoOpCompressorDecompressorFactory.class);
         registeredSchemes.put("snappy", SnappyCompressorDecompressorFactory.class);
+        registeredSchemes.put(LZ4, Lz4CompressorDecompressorFactory.class);
+        registeredSchemes.put(ZSTD, ZstdCompressorDecompressorFactory.class);
         return registeredSchemes;
     }
 
     public CompressionManager(StorageProperties storageProperties) {
+        final String dir = storageProperties.getCompressionDictionaryDir();
+        dictionaryDir = dir == null || dir.isEmpty() ? null : Paths.get(dir).toAbsolutePath().normalize();
         validateCompressionConfiguration(storageProperties);
         defaultScheme = storageProperties.getCompressionScheme();
     }
 
     @Override
     public ICompressorDecompressorFactory getFactory(String schemeName) throws CompilationException {
-        final String scheme = getDdlOrDefaultCompressionScheme(schemeName);
-        Class<? extends ICompressorDecompressorFactory> clazz = REGISTERED_SCHEMES.get(scheme);
-        try {
-            return clazz.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new IllegalStateException("Failed to instantiate compressor/decompressor: " + scheme, e);
-        }
+        return createFactory(getDdlOrDefaultCompressionScheme(schemeName));
     }
 
     @Override
     public String getDdlOrDefaultCompressionScheme(String ddlScheme) throws CompilationException {
-        if (ddlScheme != null && !isRegisteredScheme(ddlScheme)) {
-            throw new CompilationException(ErrorCode.UNKNOWN_COMPRESSION_SCHEME, ddlScheme, formatSupportedValues());
+        if (ddlScheme != null) {
+            //validates the scheme and its parameters
+            createFactory(ddlScheme);
         }
-
         return ddlScheme != null ? ddlScheme : defaultScheme;
     }
 
+    /**
+     * @param scheme
+     *            Compression scheme name
+     * @param level
+     *            Compression level or null for the scheme's default level
+     * @param dictionary
+     *            Name of a compression dictionary in the dictionary directory or null for none
+     * @return
+     *         the scheme with its parameters as accepted by {@link #getFactory(String)}
+     */
+    public static String toSchemeWithParameters(String scheme, Long level, String dictionary) {
+        if (scheme == null || level == null && dictionary == null) {
+            return scheme;
+        }
+        final StringBuilder schemeWithParameters = new StringBuilder(scheme).append(PARAMETER_SEPARATOR);
+        if (level != null) {
+            schemeWithParameters.append(level);
+        }
+        if (dictionary != null) {
+            schemeWithParameters.append(PARAMETER_SEPARATOR).append(dictionary);
+        }
+        return schemeWithParameters.toString();
+    }
+
+    private ICompressorDecompressorFactory createFactory(String schemeWithParameters)
+            throws CompilationException {
+        final String[] tokens = schemeWithParameters.split(PARAMETER_SEPARATOR, 3);
+        final String scheme = tokens[0].toLowerCase();
+        if (!isRegisteredScheme(scheme)) {
+            throw new CompilationException(ErrorCode.UNKNOWN_COMPRESSION_SCHEME, scheme, formatSupportedValues());
+        }
+        if (tokens.length == 1) {
+            Class<? extends ICompressorDecompressorFactory> clazz = REGISTERED_SCHEMES.get(scheme);
+            try {
+                return clazz.newInstance();
+            } catch (IllegalAccessException | InstantiationException e) {
+                throw new IllegalStateException("Failed to instantiate compressor/decompressor: " + scheme, e);
+            }
+        }
+        try {
+            final String level = tokens[1];
+            final String dictionary = tokens.length == 3 ? tokens[2] : null;
+            if (LZ4.equals(scheme) && dictionary == null) {
+                return new Lz4CompressorDecompressorFactory(Integer.parseInt(level));
+            } else if (ZSTD.equals(scheme)) {
+                return new ZstdCompressorDecompressorFactory(
+                        level.isEmpty() ? ZstdCompressorDecompressorFactory.DEFAULT_LEVEL : Integer.parseInt(level),
+                        dictionary == null ? null : getDictionary(dictionary));
+            }
+            throw new IllegalArgumentException("Unsupported parameters of compression scheme " + scheme);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new CompilationException(ErrorCode.INVALID_COMPRESSION_SCHEME_PARAMETERS, e, schemeWithParameters,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * @param dictionary
+     *            Name of a compression dictionary
+     * @return
+     *         the content of the dictionary, which is read from the dictionary directory the first time
+     */
+    private byte[] getDictionary(String dictionary) throws IOException {
+        final String option = StorageProperties.Option.STORAGE_COMPRESSION_DICTIONARY_DIR.ini();
+        if (dictionaryDir == null) {
+            throw new IllegalArgumentException("Compression dictionaries cannot be used since " + option
+                    + " is not set");
+        }
+        final Path path = dictionaryDir.resolve(dictionary).normalize();
+        // rejects absolute paths, ".." and links that lead out of the dictionary directory
+        if (!path.startsWith(dictionaryDir) || path.equals(dictionaryDir)
+                || !path.toRealPath().startsWith(dictionaryDir.toRealPath())) {
+            throw new IllegalArgumentException("Compression dictionary " + dictionary + " is not in " + option);
+        }
+        byte[] content = dictionaries.get(path);
+        if (content == null) {
+            content = Files.readAllBytes(path);
+            final byte[] existing = dictionaries.putIfAbsent(path, content);
+            content = existing != null ? existing : content;
+        }
+        return content;
+    }
+
     /**
      * Register factory classes for persisted resources
      *
@@ -94,7 +194,7 @@ public class CompressionManager implements ICompressionManager {
      * @return
      *         true if it is registered
      */
-    private boolean isRegisteredScheme(String schemeName) {
+    private static boolean isRegisteredScheme(String schemeName) {
         return schemeName != null && REGISTERED_SCHEMES.containsKey(schemeName.toLowerCase());
     }
 
@@ -104,18 +204,21 @@ public class CompressionManager implements ICompressionManager {
      * @param storageProperties
      */
     private void validateCompressionConfiguration(StorageProperties storageProperties) {
-        if (!isRegisteredScheme(storageProperties.getCompressionScheme())) {
+        try {
+            createFactory(storageProperties.getCompressionScheme());
+        } catch (CompilationException e) {
             final String option = StorageProperties.Option.STORAGE_COMPRESSION_BLOCK.ini();
             final String value = storageProperties.getCompressionScheme();
             throw new IllegalStateException("Invalid compression configuration (" + option + " = " + value
-                    + "). Valid values are: " + formatSupportedValues());
+                    + "). Valid values are: " + formatSupportedValues(), e);
         }
 
     }
 
-    private String formatSupportedValues() {
+    private static String formatSupportedValues() {
         final StringBuilder schemes = new StringBuilder();
-        final Iterator<String> iterator = REGISTERED_SCHEMES.keySet().iterator();
+        // sorted so that the message does not depend on the order of the map
+        final Iterator<String> iterator = new TreeSet<>(REGISTERED_SCHEMES.keySet()).iterator();
         schemes.append('[');
         schemes.append(iterator.next());
         while (iterator.hasNext()) {
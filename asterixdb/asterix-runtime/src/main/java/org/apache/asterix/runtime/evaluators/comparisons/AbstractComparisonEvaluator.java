@@ -43,19 +43,25 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.types.IAType;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
 import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.TaggedValuePointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
+public abstract class AbstractComparisonEvaluator implements IBatchScalarEvaluator {
 
     @SuppressWarnings("unchecked")
     protected final ISerializerDeserializer<AMissing> missingSerde =
@@ -69,6 +75,11 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
     private final TaggedValuePointable argRight = TaggedValuePointable.FACTORY.createPointable();
     private final IScalarEvaluator evalLeft;
     private final IScalarEvaluator evalRight;
+    private final IBatchScalarEvaluator batchEvalLeft;
+    private final IBatchScalarEvaluator batchEvalRight;
+    private final ValueVector leftValues = new ValueVector();
+    private final ValueVector rightValues = new ValueVector();
+    private final IPointable resultPtr = VoidPointable.FACTORY.createPointable();
     protected final SourceLocation sourceLoc;
     private final ILogicalBinaryComparator logicalComparator;
     private IAObject leftConstant;
@@ -79,6 +90,8 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
             SourceLocation sourceLoc, boolean isEquality) throws HyracksDataException {
         this.evalLeft = evalLeftFactory.createScalarEvaluator(ctx);
         this.evalRight = evalRightFactory.createScalarEvaluator(ctx);
+        this.batchEvalLeft = BatchScalarEvaluators.asBatch(evalLeft);
+        this.batchEvalRight = BatchScalarEvaluators.asBatch(evalRight);
         this.sourceLoc = sourceLoc;
         logicalComparator = LogicalComparatorUtil.createLogicalComparator(leftType, rightType, isEquality);
         leftConstant = getValueOfConstantEval(evalLeftFactory);
@@ -100,6 +113,39 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
         evaluateImpl(result);
     }
 
+    @Override
+    public boolean canEvaluateBatches() {
+        return batchEvalLeft != null && batchEvalRight != null;
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+            throws HyracksDataException {
+        int tupleCount = accessor.getTupleCount();
+        leftValues.reset(tupleCount);
+        rightValues.reset(tupleCount);
+        batchEvalLeft.evaluate(accessor, selection, size, leftValues);
+        batchEvalRight.evaluate(accessor, selection, size, rightValues);
+        for (int i = 0; i < size; i++) {
+            int tIndex = selection[i];
+            try {
+                evaluateImpl(tIndex, result);
+            } catch (HyracksDataException e) {
+                throw new BatchEvaluationException(e, tIndex);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the comparison for a tuple of a batch and copies its result to the result vector
+     */
+    protected void evaluateImpl(int tIndex, ValueVector result) throws HyracksDataException {
+        leftValues.get(tIndex, argLeft);
+        rightValues.get(tIndex, argRight);
+        evaluateImpl(resultPtr);
+        result.copy(tIndex, resultPtr);
+    }
+
     protected abstract void evaluateImpl(IPointable result) throws HyracksDataException;
 
     Result compare() throws HyracksDataException {
@@ -124,6 +170,36 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
         }
     }
 
+    /**
+     * Compares the arguments of a tuple of a batch. Arguments of the same bigint, integer or double type are compared
+     * directly.
+     */
+    Result compare(int tIndex) throws HyracksDataException {
+        byte[] leftBytes = leftValues.getByteArray(tIndex);
+        int leftStart = leftValues.getStartOffset(tIndex);
+        byte[] rightBytes = rightValues.getByteArray(tIndex);
+        int rightStart = rightValues.getStartOffset(tIndex);
+        byte typeTag = leftBytes[leftStart];
+        if (typeTag == rightBytes[rightStart]) {
+            if (typeTag == ATypeTag.SERIALIZED_INT64_TYPE_TAG) {
+                return ILogicalBinaryComparator.asResult(
+                        Long.compare(AInt64SerializerDeserializer.getLong(leftBytes, leftStart + 1),
+                                AInt64SerializerDeserializer.getLong(rightBytes, rightStart + 1)));
+            } else if (typeTag == ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
+                return ILogicalBinaryComparator.asResult(
+                        Integer.compare(AInt32SerializerDeserializer.getInt(leftBytes, leftStart + 1),
+                                AInt32SerializerDeserializer.getInt(rightBytes, rightStart + 1)));
+            } else if (typeTag == ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG) {
+                return ILogicalBinaryComparator.asResult(
+                        Double.compare(ADoubleSerializerDeserializer.getDouble(leftBytes, leftStart + 1),
+                                ADoubleSerializerDeserializer.getDouble(rightBytes, rightStart + 1)));
+            }
+        }
+        leftValues.get(tIndex, argLeft);
+        rightValues.get(tIndex, argRight);
+        return compare();
+    }
+
     void writeMissing(IPointable result) throws HyracksDataException {
         resultStorage.reset();
         missingSerde.serialize(AMissing.MISSING, out);
@@ -22,9 +22,11 @@ package org.apache.asterix.runtime.evaluators.comparisons;
 import org.apache.asterix.dataflow.data.common.ILogicalBinaryComparator.Result;
 import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -32,6 +34,10 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.data.std.api.IPointable;
 
 public abstract class AbstractValueComparisonEvaluator extends AbstractComparisonEvaluator {
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
     @SuppressWarnings("unchecked")
     private ISerializerDeserializer<ABoolean> serde =
             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABOOLEAN);
@@ -61,5 +67,23 @@ public abstract class AbstractValueComparisonEvaluator extends AbstractCompariso
         }
     }
 
+    @Override
+    protected void evaluateImpl(int tIndex, ValueVector result) throws HyracksDataException {
+        // the result of a batch references constant bytes instead of being copied
+        Result comparisonResult = compare(tIndex);
+        switch (comparisonResult) {
+            case MISSING:
+                result.set(tIndex, MISSING, 0, MISSING.length);
+                break;
+            case NULL:
+            case MISMATCH:
+                result.set(tIndex, NULL, 0, NULL.length);
+                break;
+            default:
+                byte[] b = getComparisonResult(comparisonResult) ? TRUE : FALSE;
+                result.set(tIndex, b, 0, b.length);
+        }
+    }
+
     protected abstract boolean getComparisonResult(Result r);
 }
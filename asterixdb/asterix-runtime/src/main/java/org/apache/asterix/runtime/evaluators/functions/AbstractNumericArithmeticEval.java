@@ -54,8 +54,13 @@ import org.apache.asterix.runtime.exceptions.OverflowException;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.asterix.runtime.exceptions.UnderflowException;
 import org.apache.asterix.runtime.exceptions.UnsupportedTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -66,6 +71,7 @@ import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
 public abstract class AbstractNumericArithmeticEval extends AbstractScalarFunctionDynamicDescriptor {
     private static final long serialVersionUID = 527445160961348706L;
+    private static final byte[] NULL_BYTES = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
 
     /**
      * abstract method for arithmetic operation between two integer values
@@ -120,13 +126,18 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
             @Override
             public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext ctx) throws HyracksDataException {
 
-                return new IScalarEvaluator() {
+                return new IBatchScalarEvaluator() {
                     private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
                     private final DataOutput out = resultStorage.getDataOutput();
                     private final IPointable argPtr0 = new VoidPointable();
                     private final IPointable argPtr1 = new VoidPointable();
                     private final IScalarEvaluator evalLeft = args[0].createScalarEvaluator(ctx);
                     private final IScalarEvaluator evalRight = args[1].createScalarEvaluator(ctx);
+                    private final IBatchScalarEvaluator batchLeft = BatchScalarEvaluators.asBatch(evalLeft);
+                    private final IBatchScalarEvaluator batchRight = BatchScalarEvaluators.asBatch(evalRight);
+                    private final ValueVector leftValues = new ValueVector();
+                    private final ValueVector rightValues = new ValueVector();
+                    private final IPointable resultPtr = new VoidPointable();
                     private final double[] operandsFloating = new double[args.length];
                     private final long[] operandsInteger = new long[args.length];
 
@@ -177,11 +188,67 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
                             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANULL);
 
                     @Override
-                    @SuppressWarnings("unchecked")
                     public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
                         evalLeft.evaluate(tuple, argPtr0);
                         evalRight.evaluate(tuple, argPtr1);
+                        evaluateImpl(result);
+                    }
+
+                    @Override
+                    public boolean canEvaluateBatches() {
+                        return batchLeft != null && batchRight != null;
+                    }
 
+                    @Override
+                    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+                            throws HyracksDataException {
+                        int tupleCount = accessor.getTupleCount();
+                        leftValues.reset(tupleCount);
+                        rightValues.reset(tupleCount);
+                        batchLeft.evaluate(accessor, selection, size, leftValues);
+                        batchRight.evaluate(accessor, selection, size, rightValues);
+                        ATypeTag bigintResultType = getNumericResultType(ATypeTag.BIGINT);
+                        ATypeTag doubleResultType = getNumericResultType(ATypeTag.DOUBLE);
+                        for (int i = 0; i < size; i++) {
+                            int tIndex = selection[i];
+                            try {
+                                byte[] bytes0 = leftValues.getByteArray(tIndex);
+                                int offset0 = leftValues.getStartOffset(tIndex);
+                                byte[] bytes1 = rightValues.getByteArray(tIndex);
+                                int offset1 = rightValues.getStartOffset(tIndex);
+                                byte typeTag = bytes0[offset0];
+                                // bigint and double arguments of the same type are computed directly into the
+                                // result vector
+                                if (typeTag == bytes1[offset1] && typeTag == ATypeTag.SERIALIZED_INT64_TYPE_TAG
+                                        && bigintResultType == ATypeTag.BIGINT) {
+                                    if (evaluateInteger(AInt64SerializerDeserializer.getLong(bytes0, offset0 + 1),
+                                            AInt64SerializerDeserializer.getLong(bytes1, offset1 + 1), aInt64)) {
+                                        result.copyLong(tIndex, typeTag, aInt64.getLongValue());
+                                    } else {
+                                        result.set(tIndex, NULL_BYTES, 0, NULL_BYTES.length);
+                                    }
+                                } else if (typeTag == bytes1[offset1] && typeTag == ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG
+                                        && doubleResultType == ATypeTag.DOUBLE) {
+                                    if (evaluateDouble(ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1),
+                                            ADoubleSerializerDeserializer.getDouble(bytes1, offset1 + 1), aDouble)) {
+                                        result.copyDouble(tIndex, typeTag, aDouble.getDoubleValue());
+                                    } else {
+                                        result.set(tIndex, NULL_BYTES, 0, NULL_BYTES.length);
+                                    }
+                                } else {
+                                    leftValues.get(tIndex, argPtr0);
+                                    rightValues.get(tIndex, argPtr1);
+                                    evaluateImpl(resultPtr);
+                                    result.copy(tIndex, resultPtr);
+                                }
+                            } catch (HyracksDataException e) {
+                                throw new BatchEvaluationException(e, tIndex);
+                            }
+                        }
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    private void evaluateImpl(IPointable result) throws HyracksDataException {
                         resultStorage.reset();
 
                         ATypeTag argTypeMax = null;
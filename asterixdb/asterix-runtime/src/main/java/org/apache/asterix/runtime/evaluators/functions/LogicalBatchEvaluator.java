@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Evaluates AND/OR for a batch of tuples. Each argument is only evaluated for the tuples whose result is not decided
+ * by the previous arguments, like the per-tuple evaluators do.
+ */
+class LogicalBatchEvaluator {
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
+    private static final byte MET_NULL = 1;
+    private static final byte MET_MISSING = 2;
+
+    private final IBatchScalarEvaluator[] evals;
+    // the argument value that decides the result, false for AND and true for OR
+    private final boolean decidingValue;
+    private final boolean missingOverNull;
+    private final SourceLocation sourceLoc;
+    private final FunctionIdentifier funId;
+    private final ValueVector argValues = new ValueVector();
+    private int[] undecided = new int[0];
+    private byte[] met = new byte[0];
+
+    LogicalBatchEvaluator(IBatchScalarEvaluator[] evals, boolean decidingValue, boolean missingOverNull,
+            SourceLocation sourceLoc, FunctionIdentifier funId) {
+        this.evals = evals;
+        this.decidingValue = decidingValue;
+        this.missingOverNull = missingOverNull;
+        this.sourceLoc = sourceLoc;
+        this.funId = funId;
+    }
+
+    void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+            throws HyracksDataException {
+        int tupleCount = accessor.getTupleCount();
+        if (undecided.length < size) {
+            undecided = new int[size];
+        }
+        if (met.length < tupleCount) {
+            met = new byte[tupleCount];
+        }
+        System.arraycopy(selection, 0, undecided, 0, size);
+        for (int i = 0; i < size; i++) {
+            met[selection[i]] = 0;
+        }
+        int n = size;
+        for (int i = 0; i < evals.length && n > 0; i++) {
+            argValues.reset(tupleCount);
+            evals[i].evaluate(accessor, undecided, n, argValues);
+            int m = 0;
+            for (int j = 0; j < n; j++) {
+                int tIndex = undecided[j];
+                byte[] bytes = argValues.getByteArray(tIndex);
+                int offset = argValues.getStartOffset(tIndex);
+                if (bytes[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+                    met[tIndex] |= MET_MISSING;
+                } else if (bytes[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+                    met[tIndex] |= MET_NULL;
+                } else if (bytes[offset] != ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG) {
+                    throw new BatchEvaluationException(new TypeMismatchException(sourceLoc, funId, i, bytes[offset],
+                            ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG), tIndex);
+                } else if (ABooleanSerializerDeserializer.getBoolean(bytes, offset + 1) == decidingValue) {
+                    set(result, tIndex, decidingValue ? TRUE : FALSE);
+                    continue;
+                }
+                undecided[m++] = tIndex;
+            }
+            n = m;
+        }
+        for (int j = 0; j < n; j++) {
+            int tIndex = undecided[j];
+            boolean metNull = (met[tIndex] & MET_NULL) != 0;
+            boolean metMissing = (met[tIndex] & MET_MISSING) != 0;
+            if (metMissing && (missingOverNull || !metNull)) {
+                set(result, tIndex, MISSING);
+            } else if (metNull) {
+                set(result, tIndex, NULL);
+            } else {
+                set(result, tIndex, decidingValue ? FALSE : TRUE);
+            }
+        }
+    }
+
+    private static void set(ValueVector result, int tIndex, byte[] value) {
+        result.set(tIndex, value, 0, value.length);
+    }
+}
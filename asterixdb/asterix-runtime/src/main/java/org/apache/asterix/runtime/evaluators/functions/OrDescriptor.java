@@ -33,8 +33,12 @@ import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -69,8 +73,11 @@ public class OrDescriptor extends AbstractScalarFunctionDynamicDescriptor {
                 for (int i = 0; i < evals.length; i++) {
                     evals[i] = args[i].createScalarEvaluator(ctx);
                 }
+                final IBatchScalarEvaluator[] batchEvals = BatchScalarEvaluators.asBatch(evals);
+                final LogicalBatchEvaluator batchEval = batchEvals == null ? null
+                        : new LogicalBatchEvaluator(batchEvals, true, false, sourceLoc, getIdentifier());
 
-                return new IScalarEvaluator() {
+                return new IBatchScalarEvaluator() {
                     private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
                     private DataOutput output = resultStorage.getDataOutput();
                     @SuppressWarnings("unchecked")
@@ -128,6 +135,17 @@ public class OrDescriptor extends AbstractScalarFunctionDynamicDescriptor {
                         }
                         result.set(resultStorage);
                     }
+
+                    @Override
+                    public boolean canEvaluateBatches() {
+                        return batchEval != null;
+                    }
+
+                    @Override
+                    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+                            throws HyracksDataException {
+                        batchEval.evaluate(accessor, selection, size, result);
+                    }
                 };
             }
         };
@@ -30,8 +30,13 @@ import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.asterix.om.utils.RecordUtil;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.SourceLocation;
@@ -62,7 +67,7 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
             private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
             private DataOutput out = resultStorage.getDataOutput();
 
@@ -70,6 +75,11 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
             private IPointable inputArg1 = new VoidPointable();
             private IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
             private IScalarEvaluator eval1 = fieldIndexEvalFactory.createScalarEvaluator(ctx);
+            private IBatchScalarEvaluator batchEval0 = BatchScalarEvaluators.asBatch(eval0);
+            private IBatchScalarEvaluator batchEval1 = BatchScalarEvaluators.asBatch(eval1);
+            private ValueVector values0 = new ValueVector();
+            private ValueVector values1 = new ValueVector();
+            private IPointable fieldValue = new VoidPointable();
             private int fieldIndex;
             private int fieldValueOffset;
             private int fieldValueLength;
@@ -84,17 +94,51 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
              */
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                eval0.evaluate(tuple, inputArg0);
+                checkRecord();
+                eval1.evaluate(tuple, inputArg1);
+                accessField(result);
+            }
+
+            @Override
+            public boolean canEvaluateBatches() {
+                return batchEval0 != null && batchEval1 != null;
+            }
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+                    throws HyracksDataException {
+                values0.reset(accessor.getTupleCount());
+                values1.reset(accessor.getTupleCount());
+                batchEval0.evaluate(accessor, selection, size, values0);
+                batchEval1.evaluate(accessor, selection, size, values1);
+                for (int i = 0; i < size; i++) {
+                    int tIndex = selection[i];
+                    values0.get(tIndex, inputArg0);
+                    values1.get(tIndex, inputArg1);
+                    try {
+                        checkRecord();
+                        accessField(fieldValue);
+                    } catch (HyracksDataException e) {
+                        throw new BatchEvaluationException(e, tIndex);
+                    }
+                    result.copy(tIndex, fieldValue);
+                }
+            }
+
+            private void checkRecord() throws HyracksDataException {
+                byte[] serRecord = inputArg0.getByteArray();
+                int offset = inputArg0.getStartOffset();
+                if (serRecord[offset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+                    throw new TypeMismatchException(sourceLoc, serRecord[offset], ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                }
+            }
+
+            private void accessField(IPointable result) throws HyracksDataException {
                 try {
                     resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
                     byte[] serRecord = inputArg0.getByteArray();
                     int offset = inputArg0.getStartOffset();
-
-                    if (serRecord[offset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
-                        throw new TypeMismatchException(sourceLoc, serRecord[offset],
-                                ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
-                    }
-                    eval1.evaluate(tuple, inputArg1);
                     byte[] indexBytes = inputArg1.getByteArray();
                     int indexOffset = inputArg1.getStartOffset();
                     if (indexBytes[indexOffset] != ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
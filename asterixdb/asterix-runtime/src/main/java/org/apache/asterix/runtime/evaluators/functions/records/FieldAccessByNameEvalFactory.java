@@ -28,8 +28,13 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
@@ -57,7 +62,7 @@ public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
 
             private final IBinaryHashFunction fieldNameHashFunction =
                     BinaryHashFunctionFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryHashFunction();
@@ -70,16 +75,56 @@ public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
             private IPointable inputArg1 = new VoidPointable();
             private IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
             private IScalarEvaluator eval1 = fldNameEvalFactory.createScalarEvaluator(ctx);
+            private IBatchScalarEvaluator batchEval0 = BatchScalarEvaluators.asBatch(eval0);
+            private IBatchScalarEvaluator batchEval1 = BatchScalarEvaluators.asBatch(eval1);
+            private ValueVector values0 = new ValueVector();
+            private ValueVector values1 = new ValueVector();
+            private IPointable fieldValue = new VoidPointable();
             private int fieldValueOffset;
             private int fieldValueLength;
             private ATypeTag fieldValueTypeTag;
 
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                eval0.evaluate(tuple, inputArg0);
+                eval1.evaluate(tuple, inputArg1);
+                accessField(result);
+            }
+
+            @Override
+            public boolean canEvaluateBatches() {
+                return batchEval0 != null && batchEval1 != null;
+            }
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+                    throws HyracksDataException {
+                values0.reset(accessor.getTupleCount());
+                values1.reset(accessor.getTupleCount());
+                batchEval0.evaluate(accessor, selection, size, values0);
+                batchEval1.evaluate(accessor, selection, size, values1);
+                for (int i = 0; i < size; i++) {
+                    int tIndex = selection[i];
+                    values0.get(tIndex, inputArg0);
+                    values1.get(tIndex, inputArg1);
+                    try {
+                        accessField(fieldValue);
+                    } catch (HyracksDataException e) {
+                        throw new BatchEvaluationException(e, tIndex);
+                    }
+                    if (fieldValue.getByteArray() == resultStorage.getByteArray()) {
+                        // missing field, the storage is overwritten by the next tuple
+                        result.copy(tIndex, fieldValue);
+                    } else {
+                        // the field value stays in the record until the argument values are reset
+                        result.set(tIndex, fieldValue);
+                    }
+                }
+            }
+
+            private void accessField(IPointable result) throws HyracksDataException {
                 try {
                     resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
-                    eval1.evaluate(tuple, inputArg1);
                     byte[] serRecord = inputArg0.getByteArray();
                     int serRecordOffset = inputArg0.getStartOffset();
                     int serRecordLen = inputArg0.getLength();
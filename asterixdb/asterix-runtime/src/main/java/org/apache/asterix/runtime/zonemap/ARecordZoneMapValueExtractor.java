@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.zonemap;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractor;
+
+/**
+ * Extracts the (untagged) value of a closed field of a record and tags it, which is the format of the values of a
+ * dataset's filter field. Null and missing values are not extracted.
+ */
+public class ARecordZoneMapValueExtractor implements IZoneMapValueExtractor {
+    private final int recordField;
+    private final boolean open;
+    private final int nullBitmapSize;
+    private final int fieldId;
+    private final ATypeTag fieldTypeTag;
+    private final ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+
+    public ARecordZoneMapValueExtractor(int recordField, boolean open, int nullBitmapSize, int fieldId,
+            ATypeTag fieldTypeTag) {
+        this.recordField = recordField;
+        this.open = open;
+        this.nullBitmapSize = nullBitmapSize;
+        this.fieldId = fieldId;
+        this.fieldTypeTag = fieldTypeTag;
+    }
+
+    @Override
+    public boolean extract(ITupleReference tuple, IPointable[] values) throws HyracksDataException {
+        byte[] data = tuple.getFieldData(recordField);
+        int offset = ARecordSerializerDeserializer.getFieldOffsetById(data, tuple.getFieldStart(recordField),
+                fieldId, nullBitmapSize, open);
+        if (offset <= 0) {
+            // null, missing or not a record
+            return false;
+        }
+        int length = NonTaggedFormatUtil.getFieldValueLength(data, offset, fieldTypeTag, false);
+        value.reset();
+        DataOutput out = value.getDataOutput();
+        try {
+            out.writeByte(fieldTypeTag.serialize());
+            out.write(data, offset, length);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        values[0].set(value);
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.zonemap;
+
+import java.util.List;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractor;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractorFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Extracts the values of a dataset's filter field from the records of its primary index for the zone maps of the
+ * disk components. Only a closed top-level filter field is supported since its value can be found without parsing
+ * the open part of the records.
+ */
+public class ARecordZoneMapValueExtractorFactory implements IZoneMapValueExtractorFactory {
+    private static final long serialVersionUID = 1L;
+    private final int recordField;
+    private final boolean open;
+    private final int nullBitmapSize;
+    private final int fieldId;
+    private final ATypeTag fieldTypeTag;
+
+    private ARecordZoneMapValueExtractorFactory(int recordField, boolean open, int nullBitmapSize, int fieldId,
+            ATypeTag fieldTypeTag) {
+        this.recordField = recordField;
+        this.open = open;
+        this.nullBitmapSize = nullBitmapSize;
+        this.fieldId = fieldId;
+        this.fieldTypeTag = fieldTypeTag;
+    }
+
+    /**
+     * @param recordType
+     *            the type of the records
+     * @param filterField
+     *            the dataset's filter field or {@code null} if it has none
+     * @param recordField
+     *            the field of the primary index tuples that holds the records
+     * @return the factory or {@code null} if the filter field is not a closed top-level field
+     */
+    public static ARecordZoneMapValueExtractorFactory of(ARecordType recordType, List<String> filterField,
+            int recordField) {
+        if (filterField == null || filterField.size() != 1) {
+            return null;
+        }
+        int fieldId = recordType.getFieldIndex(filterField.get(0));
+        if (fieldId < 0) {
+            return null;
+        }
+        IAType fieldType = recordType.getFieldTypes()[fieldId];
+        if (fieldType.getTypeTag() == ATypeTag.UNION) {
+            fieldType = ((AUnionType) fieldType).getActualType();
+        }
+        if (fieldType.getTypeTag() == ATypeTag.ANY) {
+            return null;
+        }
+        return new ARecordZoneMapValueExtractorFactory(recordField, recordType.isOpen(),
+                RecordUtil.computeNullBitmapSize(recordType), fieldId, fieldType.getTypeTag());
+    }
+
+    @Override
+    public IZoneMapValueExtractor createExtractor() {
+        return new ARecordZoneMapValueExtractor(recordField, open, nullBitmapSize, fieldId, fieldTypeTag);
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        final ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
+        json.put("recordField", recordField);
+        json.put("open", open);
+        json.put("nullBitmapSize", nullBitmapSize);
+        json.put("fieldId", fieldId);
+        json.put("fieldTypeTag", fieldTypeTag.serialize());
+        return json;
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        return new ARecordZoneMapValueExtractorFactory(json.get("recordField").asInt(), json.get("open").asBoolean(),
+                json.get("nullBitmapSize").asInt(), json.get("fieldId").asInt(),
+                ATypeTag.VALUE_TYPE_MAPPING[json.get("fieldTypeTag").asInt()]);
+    }
+}
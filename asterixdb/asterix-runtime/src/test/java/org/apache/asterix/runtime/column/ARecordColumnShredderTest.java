@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.pointables.nonvisitor.ARecordPointable;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ARecordColumnShredderTest {
+    private static final ARecordType RECORD_TYPE =
+            new ARecordType("TestType", new String[] { "id", "name", "age" }, new IAType[] { BuiltinType.AINT64,
+                    BuiltinType.ASTRING, AUnionType.createUnknownableType(BuiltinType.AINT64) }, true);
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        IColumnShredder shredder = new ARecordColumnShredderFactory(RECORD_TYPE).createShredder();
+        Assert.assertEquals(5, shredder.getNumberOfColumns());
+        ArrayBackedValueStorage record = createRecord(new AInt64(1L), new AString("one"), ANull.NULL, "extra");
+        Assert.assertArrayEquals(toBytes(record), toBytes(shredAndAssemble(shredder, record, null)));
+        record = createRecord(new AInt64(2L), new AString("two"), new AInt64(22L), null);
+        Assert.assertArrayEquals(toBytes(record), toBytes(shredAndAssemble(shredder, record, null)));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        IColumnShredder shredder = new ARecordColumnShredderFactory(RECORD_TYPE).createShredder();
+        ArrayBackedValueStorage record = createRecord(new AInt64(3L), new AString("three"), new AInt64(33L), "extra");
+        // the header and the "name" field
+        BitSet projection = new BitSet();
+        projection.set(0);
+        projection.set(2);
+        ArrayBackedValueStorage assembled = shredAndAssemble(shredder, record, projection);
+
+        ARecordPointable expected = ARecordPointable.FACTORY.createPointable();
+        expected.set(record);
+        ARecordPointable actual = ARecordPointable.FACTORY.createPointable();
+        actual.set(assembled);
+        Assert.assertEquals(assembled.getLength(), actual.getLength());
+        Assert.assertEquals(0, actual.getOpenFieldCount(RECORD_TYPE));
+        ArrayBackedValueStorage expectedName = new ArrayBackedValueStorage();
+        expected.getClosedFieldValue(RECORD_TYPE, 1, expectedName.getDataOutput());
+        ArrayBackedValueStorage actualName = new ArrayBackedValueStorage();
+        actual.getClosedFieldValue(RECORD_TYPE, 1, actualName.getDataOutput());
+        Assert.assertArrayEquals(toBytes(expectedName), toBytes(actualName));
+    }
+
+    @Test
+    public void testColumnComparators() throws Exception {
+        IColumnShredder shredder = new ARecordColumnShredderFactory(RECORD_TYPE).createShredder();
+        // the header and the open part are not compared
+        Assert.assertNull(shredder.getColumnComparator(0));
+        Assert.assertNull(shredder.getColumnComparator(4));
+        Assert.assertNotNull(shredder.getColumnComparator(2));
+        IBinaryComparator columnComparator = shredder.getColumnComparator(3);
+        ArrayBackedValueStorage small = serialize(new AInt64(5L));
+        ArrayBackedValueStorage large = serialize(new AInt64(50L));
+        // the columns hold untagged values
+        Assert.assertTrue(columnComparator.compare(small.getByteArray(), 1, 8, large.getByteArray(), 1, 8) < 0);
+        Assert.assertTrue(columnComparator.compare(large.getByteArray(), 1, 8, small.getByteArray(), 1, 8) > 0);
+    }
+
+    private static ArrayBackedValueStorage shredAndAssemble(IColumnShredder shredder, ArrayBackedValueStorage record,
+            BitSet projection) throws Exception {
+        ArrayTupleBuilder columns = new ArrayTupleBuilder(shredder.getNumberOfColumns());
+        shredder.shred(record.getByteArray(), record.getStartOffset(), record.getLength(), columns);
+        ArrayTupleReference columnsTuple = new ArrayTupleReference();
+        columnsTuple.reset(columns.getFieldEndOffsets(), columns.getByteArray());
+        ArrayBackedValueStorage assembled = new ArrayBackedValueStorage();
+        shredder.assemble(columnsTuple, projection, assembled);
+        return assembled;
+    }
+
+    private static ArrayBackedValueStorage createRecord(IAObject id, IAObject name, IAObject age, String extra)
+            throws Exception {
+        RecordBuilder builder = new RecordBuilder();
+        builder.reset(RECORD_TYPE);
+        builder.init();
+        IAObject[] values = { id, name, age };
+        for (int i = 0; i < values.length; i++) {
+            builder.addField(i, serialize(values[i]));
+        }
+        if (extra != null) {
+            builder.addField(serialize(new AString(extra)), serialize(new AString(extra + "-value")));
+        }
+        ArrayBackedValueStorage record = new ArrayBackedValueStorage();
+        builder.write(record.getDataOutput(), true);
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBackedValueStorage serialize(IAObject value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(value.getType());
+        serde.serialize(value, storage.getDataOutput());
+        return storage;
+    }
+
+    private static byte[] toBytes(ArrayBackedValueStorage value) {
+        return Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.asterix.runtime.compression;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.asterix.common.config.StorageProperties;
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.storage.common.compression.ZstdCompressorDecompressorFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CompressionManagerTest {
+    private static File testDir;
+    private static File dictionaryDir;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "compressionmanagertest-" + System.nanoTime());
+        dictionaryDir = new File(testDir, "dictionaries");
+        Files.createDirectories(dictionaryDir.toPath());
+        Files.write(new File(dictionaryDir, "dict").toPath(), "a dictionary".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(testDir, "secret").toPath(), "not a dictionary".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        IoUtil.delete(testDir);
+    }
+
+    @Test
+    public void dictionaryInDictionaryDirTest() throws Exception {
+        CompressionManager manager = createManager(dictionaryDir.getAbsolutePath());
+        Assert.assertTrue(manager.getFactory("zstd:3:dict") instanceof ZstdCompressorDecompressorFactory);
+        Assert.assertEquals("zstd::dict", manager.getDdlOrDefaultCompressionScheme("zstd::dict"));
+    }
+
+    @Test
+    public void dictionaryOutsideDictionaryDirTest() throws Exception {
+        CompressionManager manager = createManager(dictionaryDir.getAbsolutePath());
+        assertInvalid(manager, "zstd:3:../secret");
+        assertInvalid(manager, "zstd:3:" + new File(testDir, "secret").getAbsolutePath());
+        assertInvalid(manager, "zstd:3:.");
+        assertInvalid(manager, "zstd:3:missing");
+    }
+
+    @Test
+    public void dictionaryWithoutDictionaryDirTest() throws Exception {
+        CompressionManager manager = createManager(null);
+        assertInvalid(manager, "zstd:3:" + new File(dictionaryDir, "dict").getAbsolutePath());
+        Assert.assertTrue(manager.getFactory("zstd:3") instanceof ZstdCompressorDecompressorFactory);
+    }
+
+    @Test
+    public void unknownSchemeTest() throws Exception {
+        CompressionManager manager = createManager(null);
+        try {
+            manager.getFactory("zip");
+            Assert.fail("Expected an unknown compression scheme");
+        } catch (CompilationException e) {
+            Assert.assertEquals(ErrorCode.UNKNOWN_COMPRESSION_SCHEME, e.getErrorCode());
+            // the supported schemes are listed in order, whatever the order of the registered schemes
+            Assert.assertTrue(e.getMessage(), e.getMessage().endsWith("[lz4,none,snappy,zstd]"));
+        }
+    }
+
+    private static CompressionManager createManager(String dictionaryDir) {
+        StorageProperties storageProperties = Mockito.mock(StorageProperties.class);
+        Mockito.when(storageProperties.getCompressionScheme()).thenReturn(CompressionManager.NONE);
+        Mockito.when(storageProperties.getCompressionDictionaryDir()).thenReturn(dictionaryDir);
+        return new CompressionManager(storageProperties);
+    }
+
+    private static void assertInvalid(CompressionManager manager, String scheme) {
+        try {
+            manager.getFactory(scheme);
+            Assert.fail("Expected an invalid compression scheme: " + scheme);
+        } catch (CompilationException e) {
+            Assert.assertEquals(ErrorCode.INVALID_COMPRESSION_SCHEME_PARAMETERS, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AFloat;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.evaluators.comparisons.EqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericAddDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericDivideDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericMultiplyDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericSubDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.OrDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByIndexEvalFactory;
+import org.apache.asterix.runtime.evaluators.functions.records.FieldAccessByNameEvalFactory;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.TupleFieldEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that evaluating an expression in batches gives the same values and failures as evaluating it tuple by tuple.
+ */
+public class BatchScalarEvaluatorTest {
+    private static final int FRAME_SIZE = 64 * 1024;
+    private static final IAObject[] LOGICAL_VALUES = { ABoolean.TRUE, ABoolean.FALSE, ANull.NULL, AMissing.MISSING };
+    private static final IAObject[] NUMERIC_VALUES = { new AInt8((byte) 3), new AInt16((short) -7), new AInt32(11),
+            new AInt64(1L << 20), new AFloat(2.5f), new ADouble(-0.125), ANull.NULL, AMissing.MISSING };
+    private static final IAObject[] PRIMITIVE_VALUES = { new AInt32(-7), new AInt32(7), new AInt64(0L),
+            new AInt64(-5L), new AInt64(1L << 20), new ADouble(0.0), new ADouble(-0.0), new ADouble(Double.NaN) };
+    private static final ARecordType RECORD_TYPE =
+            new ARecordType("TestType", new String[] { "id", "name", "age" }, new IAType[] { BuiltinType.AINT64,
+                    BuiltinType.ASTRING, AUnionType.createUnknownableType(BuiltinType.AINT64) }, true);
+
+    @Test
+    public void testLogicalWithNullAndMissing() throws Exception {
+        FrameTupleAccessor frame = createFrame(product(LOGICAL_VALUES, 3));
+        for (IFunctionDescriptorFactory logical : new IFunctionDescriptorFactory[] { AndDescriptor.FACTORY,
+                OrDescriptor.FACTORY }) {
+            assertBatchEqualsPerTuple(function(logical, column(0), column(1)), frame);
+            assertBatchEqualsPerTuple(function(logical, column(0), column(1), column(2)), frame);
+            assertBatchEqualsPerTuple(function(logical, column(0), constant(ANull.NULL), column(2)), frame);
+            assertBatchEqualsPerTuple(function(logical, constant(AMissing.MISSING), column(1)), frame);
+        }
+    }
+
+    @Test
+    public void testArithmeticTypePromotion() throws Exception {
+        FrameTupleAccessor frame = createFrame(product(NUMERIC_VALUES, 2));
+        for (IFunctionDescriptorFactory arithmetic : new IFunctionDescriptorFactory[] { NumericAddDescriptor.FACTORY,
+                NumericSubDescriptor.FACTORY, NumericMultiplyDescriptor.FACTORY }) {
+            assertBatchEqualsPerTuple(function(arithmetic, column(0), column(1)), frame);
+            assertBatchEqualsPerTuple(function(arithmetic, column(0), constant(new ADouble(1.5))), frame);
+            assertBatchEqualsPerTuple(
+                    function(arithmetic, function(arithmetic, column(0), column(1)), constant(new AInt8((byte) 2))),
+                    frame);
+        }
+    }
+
+    @Test
+    public void testSameTypePrimitives() throws Exception {
+        FrameTupleAccessor frame = createFrame(product(PRIMITIVE_VALUES, 2));
+        for (IFunctionDescriptorFactory function : new IFunctionDescriptorFactory[] { NumericAddDescriptor.FACTORY,
+                NumericMultiplyDescriptor.FACTORY, NumericDivideDescriptor.FACTORY, EqualsDescriptor.FACTORY,
+                LessThanDescriptor.FACTORY, GreaterThanOrEqualsDescriptor.FACTORY }) {
+            assertBatchEqualsPerTuple(function(function, column(0), column(1)), frame);
+            assertBatchEqualsPerTuple(function(function, column(1), constant(new AInt64(0L))), frame);
+        }
+    }
+
+    @Test
+    public void testComparisonTypePromotion() throws Exception {
+        FrameTupleAccessor frame = createFrame(product(NUMERIC_VALUES, 2));
+        for (IFunctionDescriptorFactory comparison : new IFunctionDescriptorFactory[] { EqualsDescriptor.FACTORY,
+                LessThanDescriptor.FACTORY, GreaterThanOrEqualsDescriptor.FACTORY }) {
+            assertBatchEqualsPerTuple(function(comparison, column(0), column(1)), frame);
+            assertBatchEqualsPerTuple(function(comparison, column(0), constant(new AInt32(11))), frame);
+            assertBatchEqualsPerTuple(function(AndDescriptor.FACTORY, function(comparison, column(0), column(1)),
+                    function(comparison, column(1), constant(new AFloat(2.5f)))), frame);
+        }
+    }
+
+    @Test
+    public void testFieldAccess() throws Exception {
+        List<IValueReference[]> rows = new ArrayList<>();
+        rows.add(new IValueReference[] { createRecord(1, "one", new AInt64(30L), null, null),
+                serialize(new AInt64(20L)) });
+        rows.add(new IValueReference[] { createRecord(2, "two", ANull.NULL, "extra", new AInt32(5)),
+                serialize(new AInt32(40)) });
+        rows.add(new IValueReference[] { createRecord(3, "three", null, "other", new ADouble(2.5)),
+                serialize(ANull.NULL) });
+        rows.add(new IValueReference[] { createRecord(4, "four", new AInt64(12L), "extra", new AFloat(1.5f)),
+                serialize(new ADouble(12.0)) });
+        FrameTupleAccessor frame = createFrame(rows);
+        // closed fields of the type, including an optional one
+        for (int i = 0; i < RECORD_TYPE.getFieldNames().length; i++) {
+            assertBatchEqualsPerTuple(fieldByIndex(column(0), i), frame);
+            assertBatchEqualsPerTuple(fieldByName(column(0), RECORD_TYPE.getFieldNames()[i]), frame);
+        }
+        // open fields and absent fields
+        for (String fieldName : new String[] { "extra", "other", "none" }) {
+            assertBatchEqualsPerTuple(fieldByName(column(0), fieldName), frame);
+        }
+        assertBatchEqualsPerTuple(function(LessThanDescriptor.FACTORY, fieldByName(column(0), "age"), column(1)),
+                frame);
+        assertBatchEqualsPerTuple(
+                function(NumericAddDescriptor.FACTORY, fieldByName(column(0), "extra"), fieldByIndex(column(0), 0)),
+                frame);
+    }
+
+    @Test
+    public void testFailureReportsTheFailingTuple() throws Exception {
+        IAObject[][] rows = { { new AInt32(1) }, { new AString("two") }, { new AInt32(3) }, { new AString("four") } };
+        FrameTupleAccessor frame = createFrame(Arrays.asList(rows));
+        assertBatchEqualsPerTuple(function(NumericAddDescriptor.FACTORY, column(0), constant(new AInt64(1L))), frame);
+        assertBatchEqualsPerTuple(function(LessThanDescriptor.FACTORY, column(0), constant(new AInt64(1L))), frame);
+        assertBatchEqualsPerTuple(function(AndDescriptor.FACTORY, constant(ABoolean.TRUE), column(0)), frame);
+        assertBatchEqualsPerTuple(fieldByName(column(0), "name"), frame);
+    }
+
+    @Test
+    public void testTreesWithPerTupleArgumentsAreNotBatched() throws Exception {
+        IScalarEvaluatorFactory perTuple = new TupleFieldEvaluatorFactory(0);
+        Assert.assertNull(BatchScalarEvaluators.asBatch(perTuple.createScalarEvaluator(null)));
+        Assert.assertNull(BatchScalarEvaluators
+                .asBatch(function(AndDescriptor.FACTORY, column(0), perTuple).createScalarEvaluator(null)));
+        Assert.assertNull(BatchScalarEvaluators.asBatch(
+                function(NumericAddDescriptor.FACTORY, function(NumericAddDescriptor.FACTORY, column(0), perTuple),
+                        column(1)).createScalarEvaluator(null)));
+        Assert.assertNull(BatchScalarEvaluators.asBatch(fieldByName(perTuple, "id").createScalarEvaluator(null)));
+        Assert.assertNotNull(BatchScalarEvaluators
+                .asBatch(function(AndDescriptor.FACTORY, column(0), column(1)).createScalarEvaluator(null)));
+    }
+
+    /**
+     * Evaluates the expression for all the tuples of the frame and for every other tuple.
+     */
+    private static void assertBatchEqualsPerTuple(IScalarEvaluatorFactory factory, FrameTupleAccessor frame)
+            throws HyracksDataException {
+        int tupleCount = frame.getTupleCount();
+        assertBatchEqualsPerTuple(factory, frame, BatchScalarEvaluators.selectAll(null, tupleCount), tupleCount);
+        int[] selection = new int[tupleCount / 2];
+        for (int i = 0; i < selection.length; i++) {
+            selection[i] = 2 * i + 1;
+        }
+        assertBatchEqualsPerTuple(factory, frame, selection, selection.length);
+    }
+
+    private static void assertBatchEqualsPerTuple(IScalarEvaluatorFactory factory, FrameTupleAccessor frame,
+            int[] selection, int size) throws HyracksDataException {
+        IBatchScalarEvaluator batchEval = BatchScalarEvaluators.asBatch(factory.createScalarEvaluator(null));
+        Assert.assertNotNull(batchEval);
+        IScalarEvaluator eval = factory.createScalarEvaluator(null);
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable value = VoidPointable.FACTORY.createPointable();
+        List<byte[]> expected = new ArrayList<>();
+        HyracksDataException expectedFailure = null;
+        int failedTuple = -1;
+        for (int i = 0; i < size && expectedFailure == null; i++) {
+            tuple.reset(frame, selection[i]);
+            try {
+                eval.evaluate(tuple, value);
+                expected.add(toBytes(value));
+            } catch (HyracksDataException e) {
+                expectedFailure = e;
+                failedTuple = selection[i];
+            }
+        }
+
+        ValueVector values = new ValueVector();
+        values.reset(frame.getTupleCount());
+        try {
+            batchEval.evaluate(frame, selection, size, values);
+        } catch (BatchEvaluationException e) {
+            Assert.assertNotNull("unexpected failure " + e.getFailure(), expectedFailure);
+            Assert.assertEquals(failedTuple, e.getTupleIndex());
+            Assert.assertEquals(expectedFailure.getClass(), e.getFailure().getClass());
+            Assert.assertEquals(expectedFailure.getMessage(), e.getFailure().getMessage());
+            return;
+        }
+        Assert.assertNull("missing failure of tuple " + failedTuple, expectedFailure);
+        for (int i = 0; i < size; i++) {
+            values.get(selection[i], value);
+            Assert.assertArrayEquals("tuple " + selection[i], expected.get(i), toBytes(value));
+        }
+    }
+
+    private static IScalarEvaluatorFactory function(IFunctionDescriptorFactory functionFactory,
+            IScalarEvaluatorFactory... args) throws Exception {
+        IFunctionDescriptor function = functionFactory.createFunctionDescriptor();
+        // comparisons take the static types of their arguments
+        function.setImmutableStates(BuiltinType.ANY, BuiltinType.ANY);
+        return function.createEvaluatorFactory(args);
+    }
+
+    private static IScalarEvaluatorFactory fieldByIndex(IScalarEvaluatorFactory record, int fieldIndex)
+            throws Exception {
+        return new FieldAccessByIndexEvalFactory(record, constant(new AInt32(fieldIndex)), RECORD_TYPE, null);
+    }
+
+    private static IScalarEvaluatorFactory fieldByName(IScalarEvaluatorFactory record, String fieldName)
+            throws Exception {
+        return new FieldAccessByNameEvalFactory(record, constant(new AString(fieldName)), null);
+    }
+
+    private static IScalarEvaluatorFactory column(int fieldIndex) {
+        return new ColumnAccessEvalFactory(fieldIndex);
+    }
+
+    private static IScalarEvaluatorFactory constant(IAObject value) throws Exception {
+        return new ConstantEvalFactory(toBytes(serialize(value)));
+    }
+
+    /**
+     * @return all the rows of the given number of columns that take the given values
+     */
+    private static List<IAObject[]> product(IAObject[] values, int columns) {
+        List<IAObject[]> rows = new ArrayList<>();
+        rows.add(new IAObject[0]);
+        for (int c = 0; c < columns; c++) {
+            List<IAObject[]> extended = new ArrayList<>();
+            for (IAObject[] row : rows) {
+                for (IAObject value : values) {
+                    IAObject[] newRow = Arrays.copyOf(row, c + 1);
+                    newRow[c] = value;
+                    extended.add(newRow);
+                }
+            }
+            rows = extended;
+        }
+        return rows;
+    }
+
+    private static FrameTupleAccessor createFrame(List<? extends Object[]> rows) throws Exception {
+        int fieldCount = rows.get(0).length;
+        FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(fieldCount);
+        for (Object[] row : rows) {
+            tb.reset();
+            for (Object field : row) {
+                IValueReference value =
+                        field instanceof IAObject ? serialize((IAObject) field) : (IValueReference) field;
+                tb.addField(value.getByteArray(), value.getStartOffset(), value.getLength());
+            }
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        FrameTupleAccessor accessor =
+                new FrameTupleAccessor(new RecordDescriptor(new ISerializerDeserializer[fieldCount]));
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+
+    /**
+     * @return a record of the test type, whose age is missing if null, with an optional open field
+     */
+    private static ArrayBackedValueStorage createRecord(long id, String name, IAObject age, String openFieldName,
+            IAObject openFieldValue) throws Exception {
+        RecordBuilder builder = new RecordBuilder();
+        builder.reset(RECORD_TYPE);
+        builder.init();
+        builder.addField(0, serialize(new AInt64(id)));
+        builder.addField(1, serialize(new AString(name)));
+        if (age != null) {
+            builder.addField(2, serialize(age));
+        }
+        if (openFieldName != null) {
+            builder.addField(serialize(new AString(openFieldName)), serialize(openFieldValue));
+        }
+        ArrayBackedValueStorage record = new ArrayBackedValueStorage();
+        builder.write(record.getDataOutput(), true);
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBackedValueStorage serialize(IAObject value) throws HyracksDataException {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(value.getType());
+        serde.serialize(value, storage.getDataOutput());
+        return storage;
+    }
+
+    private static byte[] toBytes(IValueReference value) {
+        return Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength());
+    }
+}
@@ -60,12 +60,16 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
     private static final boolean DEBUG_MODE = false;//true
     private static final boolean CHECK_CONSISTENCY = false;
 
+    private static final int FAST_PATH_STRIPES = 4096;
+
     private final ResourceGroupTable table;
     private final ResourceArenaManager resArenaMgr;
     private final RequestArenaManager reqArenaMgr;
     private final JobArenaManager jobArenaMgr;
     private final Long2LongMap txnId2TxnSlotMap;
     private final LockManagerStats stats = new LockManagerStats(10000);
+    // null, if exclusive entity locks are always served by the ResourceGroupTable
+    private final EntityLockTable fastPath;
 
     enum LockAction {
         ERR(false, false),
@@ -93,17 +97,32 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
     };
 
     public ConcurrentLockManager(final int lockManagerShrinkTimer) throws ACIDException {
-        this(lockManagerShrinkTimer, Runtime.getRuntime().availableProcessors() * 2, 1024);
+        this(lockManagerShrinkTimer, false);
+    }
+
+    public ConcurrentLockManager(final int lockManagerShrinkTimer, final boolean fastPath) throws ACIDException {
+        this(lockManagerShrinkTimer, Runtime.getRuntime().availableProcessors() * 2, 1024, fastPath);
         // TODO increase table size?
     }
 
     public ConcurrentLockManager(final int lockManagerShrinkTimer, final int noArenas, final int tableSize)
             throws ACIDException {
+        this(lockManagerShrinkTimer, noArenas, tableSize, false);
+    }
+
+    /**
+     * @param fastPath
+     *            if true, exclusive entity locks are granted by CAS on a striped lock word as long as no other
+     *            request for the same stripe needs the ResourceGroupTable (see {@link EntityLockTable})
+     */
+    public ConcurrentLockManager(final int lockManagerShrinkTimer, final int noArenas, final int tableSize,
+            final boolean fastPath) throws ACIDException {
         this.table = new ResourceGroupTable(tableSize);
         resArenaMgr = new ResourceArenaManager(noArenas, lockManagerShrinkTimer);
         reqArenaMgr = new RequestArenaManager(noArenas, lockManagerShrinkTimer);
         jobArenaMgr = new JobArenaManager(noArenas, lockManagerShrinkTimer);
         txnId2TxnSlotMap = Long2LongMaps.synchronize(new Long2LongOpenHashMap());
+        this.fastPath = fastPath ? new EntityLockTable(FAST_PATH_STRIPES) : null;
     }
 
     @Override
@@ -112,9 +131,14 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         log("lock", datasetId.getId(), entityHashValue, lockMode, txnContext);
         stats.lock();
 
+        if (tryFastLock(datasetId.getId(), entityHashValue, lockMode, txnContext)) {
+            return;
+        }
+        final int stripe = enterSlowPath(datasetId.getId(), entityHashValue);
         final long txnId = txnContext.getTxnId().getId();
         final long jobSlot = findOrAllocJobSlot(txnId);
         final ResourceGroup group = table.get(datasetId.getId(), entityHashValue);
+        boolean granted = false;
         group.getLatch();
         try {
             validateJob(txnContext);
@@ -151,11 +175,15 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
                         throw new IllegalStateException();
                 }
             }
+            granted = true;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ACIDException(e);
         } finally {
             group.releaseLatch();
+            if (!granted) {
+                leaveSlowPath(stripe);
+            }
         }
 
         if (CHECK_CONSISTENCY) {
@@ -336,6 +364,20 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         log("instantLock", datasetId.getId(), entityHashValue, lockMode, txnContext);
         stats.instantLock();
 
+        if (isFastPathFree(datasetId.getId(), entityHashValue, txnContext)) {
+            validateJob(txnContext);
+            return;
+        }
+        final int stripe = enterSlowPath(datasetId.getId(), entityHashValue);
+        try {
+            instantLockInTable(datasetId, entityHashValue, lockMode, txnContext);
+        } finally {
+            leaveSlowPath(stripe);
+        }
+    }
+
+    private void instantLockInTable(DatasetId datasetId, int entityHashValue, byte lockMode,
+            ITransactionContext txnContext) throws ACIDException {
         final long txnId = txnContext.getTxnId().getId();
         final ResourceGroup group = table.get(datasetId.getId(), entityHashValue);
         if (group.firstResourceIndex.get() == NILL) {
@@ -398,6 +440,23 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         log("tryLock", datasetId.getId(), entityHashValue, lockMode, txnContext);
         stats.tryLock();
 
+        if (tryFastLock(datasetId.getId(), entityHashValue, lockMode, txnContext)) {
+            return true;
+        }
+        final int stripe = enterSlowPath(datasetId.getId(), entityHashValue);
+        boolean granted = false;
+        try {
+            granted = tryLockInTable(datasetId, entityHashValue, lockMode, txnContext);
+            return granted;
+        } finally {
+            if (!granted) {
+                leaveSlowPath(stripe);
+            }
+        }
+    }
+
+    private boolean tryLockInTable(DatasetId datasetId, int entityHashValue, byte lockMode,
+            ITransactionContext txnContext) throws ACIDException {
         final long txnId = txnContext.getTxnId().getId();
         final long jobSlot = findOrAllocJobSlot(txnId);
         final ResourceGroup group = table.get(datasetId.getId(), entityHashValue);
@@ -434,6 +493,20 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         log("instantTryLock", datasetId.getId(), entityHashValue, lockMode, txnContext);
         stats.instantTryLock();
 
+        if (isFastPathFree(datasetId.getId(), entityHashValue, txnContext)) {
+            validateJob(txnContext);
+            return true;
+        }
+        final int stripe = enterSlowPath(datasetId.getId(), entityHashValue);
+        try {
+            return instantTryLockInTable(datasetId, entityHashValue, lockMode, txnContext);
+        } finally {
+            leaveSlowPath(stripe);
+        }
+    }
+
+    private boolean instantTryLockInTable(DatasetId datasetId, int entityHashValue, byte lockMode,
+            ITransactionContext txnContext) throws ACIDException {
         final long txnId = txnContext.getTxnId().getId();
         final ResourceGroup group = table.get(datasetId.getId(), entityHashValue);
         if (group.firstResourceIndex.get() == NILL) {
@@ -477,6 +550,12 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
             throws ACIDException {
         log("unlock", datasetId.getId(), entityHashValue, lockMode, txnContext);
         final long txnId = txnContext.getTxnId().getId();
+        if (fastPath != null && (lockMode == LockMode.X || lockMode == LockMode.ANY)
+                && fastPath.unlock(fastPath.stripe(datasetId.getId(), entityHashValue),
+                        EntityLockTable.entity(datasetId.getId(), entityHashValue), txnId)) {
+            stats.unlock();
+            return;
+        }
         final long jobSlot = txnId2TxnSlotMap.get(txnId);
 
         unlock(datasetId.getId(), entityHashValue, lockMode, jobSlot);
@@ -530,6 +609,9 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         } finally {
             group.releaseLatch();
         }
+        if (fastPath != null) {
+            leaveSlowPath(fastPath.stripe(dsId, entityHashValue));
+        }
     }
 
     @Override
@@ -538,6 +620,9 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         stats.releaseLocks();
 
         long txnId = txnContext.getTxnId().getId();
+        if (fastPath != null) {
+            fastPath.releaseAll(txnId);
+        }
         long jobSlot = txnId2TxnSlotMap.get(txnId);
         if (jobSlot == 0) {
             // we don't know the job, so there are no locks for it - we're done
@@ -570,6 +655,73 @@ public class ConcurrentLockManager implements ILockManager, ILifeCycleComponent
         stats.logCounters(LOGGER, Level.DEBUG, true);
     }
 
+    private boolean tryFastLock(int dsId, int entityHashValue, byte lockMode, ITransactionContext txnContext)
+            throws ACIDException {
+        final long txnId = txnContext.getTxnId().getId();
+        if (fastPath == null || lockMode != LockMode.X || !EntityLockTable.fits(txnId)) {
+            return false;
+        }
+        validateJob(txnContext);
+        return fastPath.tryLock(fastPath.stripe(dsId, entityHashValue), EntityLockTable.entity(dsId, entityHashValue),
+                txnId);
+    }
+
+    private boolean isFastPathFree(int dsId, int entityHashValue, ITransactionContext txnContext) {
+        return fastPath != null
+                && fastPath.isFree(fastPath.stripe(dsId, entityHashValue), txnContext.getTxnId().getId());
+    }
+
+    /**
+     * registers a request for the ResourceGroupTable with the fast path and moves all fast path locks of the stripe
+     * of the entity into the ResourceGroupTable, so that conflicts and deadlocks with them can be detected.
+     *
+     * @return the stripe of the entity or NIL, if the fast path is disabled
+     */
+    private int enterSlowPath(int dsId, int entityHashValue) {
+        if (fastPath == null) {
+            return NIL;
+        }
+        final int stripe = fastPath.stripe(dsId, entityHashValue);
+        fastPath.register(stripe);
+        while (true) {
+            final long word = fastPath.get(stripe);
+            final long owner = EntityLockTable.owner(word);
+            if (owner == 0) {
+                return stripe;
+            }
+            if (EntityLockTable.isPending(word)) {
+                Thread.yield();
+                continue;
+            }
+            final long entity = fastPath.entity(stripe);
+            final int ownerDsId = EntityLockTable.datasetId(entity);
+            final int ownerEntityHashValue = EntityLockTable.entityHashValue(entity);
+            final ResourceGroup group = table.get(ownerDsId, ownerEntityHashValue);
+            group.getLatch();
+            try {
+                if (fastPath.beginInflate(stripe, word)) {
+                    final int count = EntityLockTable.count(word);
+                    final long jobSlot = findOrAllocJobSlot(owner);
+                    final long resSlot = findOrAllocResourceSlot(group, ownerDsId, ownerEntityHashValue);
+                    for (int i = 0; i < count; i++) {
+                        addHolder(allocRequestSlot(resSlot, jobSlot, LockMode.X), resSlot, jobSlot);
+                    }
+                    resArenaMgr.setMaxMode(resSlot, LockMode.X);
+                    fastPath.endInflate(stripe, count);
+                    return stripe;
+                }
+            } finally {
+                group.releaseLatch();
+            }
+        }
+    }
+
+    private void leaveSlowPath(int stripe) {
+        if (stripe != NIL) {
+            fastPath.deregister(stripe);
+        }
+    }
+
     private long findOrAllocJobSlot(long txnId) {
         long jobSlot = txnId2TxnSlotMap.get(txnId);
         if (jobSlot == 0) {
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.locking;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A striped table of lock words that lets a ConcurrentLockManager grant exclusive entity locks without touching its
+ * ResourceGroupTable. Each stripe covers all entities that hash to it and is described by a single word that packs
+ * <ul>
+ * <li>the id of the transaction that holds the stripe on the fast path (0 if there is none),</li>
+ * <li>the number of fast path locks that this transaction holds on the entity of the stripe,</li>
+ * <li>a pending flag that is set while the holder is installed or while its locks are inflated and</li>
+ * <li>the number of requests for entities of the stripe that are served by the ResourceGroupTable.</li>
+ * </ul>
+ * The fast path is only taken as long as no request for the stripe is served by the ResourceGroupTable. A request
+ * that takes the slow path first registers itself and then moves the fast path locks of the stripe into the
+ * ResourceGroupTable ("inflates" them), so that all lock conflicts and deadlocks are handled by the
+ * ResourceGroupTable. Once the last of these requests is gone, the stripe can be used by the fast path again.
+ *
+ * @see ConcurrentLockManager
+ */
+class EntityLockTable {
+    private static final int OWNER_BITS = 36;
+    private static final int COUNT_BITS = 7;
+    private static final int COUNT_SHIFT = OWNER_BITS;
+    private static final int PENDING_SHIFT = COUNT_SHIFT + COUNT_BITS;
+    private static final int FULL_SHIFT = PENDING_SHIFT + 1;
+
+    static final long MAX_OWNER = (1L << OWNER_BITS) - 1;
+    private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+    private static final long MAX_FULL = (1L << (Long.SIZE - 1 - FULL_SHIFT)) - 1;
+
+    private static final long OWNER_MASK = MAX_OWNER;
+    private static final long COUNT_MASK = MAX_COUNT << COUNT_SHIFT;
+    private static final long PENDING = 1L << PENDING_SHIFT;
+    private static final long FULL_MASK = MAX_FULL << FULL_SHIFT;
+    private static final long COUNT_ONE = 1L << COUNT_SHIFT;
+    private static final long FULL_ONE = 1L << FULL_SHIFT;
+
+    private final AtomicLongArray words;
+    // the entity held on the fast path. written before the pending flag is cleared and only read afterwards
+    private final long[] entities;
+    private final int mask;
+
+    EntityLockTable(int size) {
+        if (Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("size must be a power of 2, got " + size);
+        }
+        words = new AtomicLongArray(size);
+        entities = new long[size];
+        mask = size - 1;
+    }
+
+    int size() {
+        return mask + 1;
+    }
+
+    int stripe(int dsId, int entityHashValue) {
+        int h = dsId * 0x9E3779B9 + entityHashValue;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    static long entity(int dsId, int entityHashValue) {
+        return ((long) dsId << Integer.SIZE) | (entityHashValue & 0xFFFFFFFFL);
+    }
+
+    static int datasetId(long entity) {
+        return (int) (entity >>> Integer.SIZE);
+    }
+
+    static int entityHashValue(long entity) {
+        return (int) entity;
+    }
+
+    static boolean fits(long txnId) {
+        return txnId > 0 && txnId <= MAX_OWNER;
+    }
+
+    static long owner(long word) {
+        return word & OWNER_MASK;
+    }
+
+    static int count(long word) {
+        return (int) ((word & COUNT_MASK) >>> COUNT_SHIFT);
+    }
+
+    static int full(long word) {
+        return (int) ((word & FULL_MASK) >>> FULL_SHIFT);
+    }
+
+    static boolean isPending(long word) {
+        return (word & PENDING) != 0;
+    }
+
+    long get(int stripe) {
+        return words.get(stripe);
+    }
+
+    /**
+     * tries to lock an entity on the fast path. This succeeds if the stripe of the entity is not used at all or if
+     * the transaction already holds the same entity on the fast path.
+     *
+     * @return true, if the lock was granted
+     */
+    boolean tryLock(int stripe, long entity, long txnId) {
+        while (true) {
+            final long word = words.get(stripe);
+            if (word == 0) {
+                if (words.compareAndSet(stripe, 0, txnId | COUNT_ONE | PENDING)) {
+                    entities[stripe] = entity;
+                    clearPending(stripe);
+                    return true;
+                }
+            } else if (isPending(word) && owner(word) == txnId && full(word) == 0) {
+                // another thread of the same transaction is installing itself
+                Thread.yield();
+            } else if (owner(word) != txnId || isPending(word) || full(word) != 0 || count(word) == MAX_COUNT
+                    || entities[stripe] != entity) {
+                return false;
+            } else if (words.compareAndSet(stripe, word, word + COUNT_ONE)) {
+                return true;
+            }
+        }
+    }
+
+    private void clearPending(int stripe) {
+        while (true) {
+            // requests for the ResourceGroupTable might have registered in the meantime
+            final long word = words.get(stripe);
+            if (words.compareAndSet(stripe, word, word & ~PENDING)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * releases a lock that was granted on the fast path.
+     *
+     * @return true, if the transaction held the entity on the fast path, false if the lock has to be released by the
+     *         ResourceGroupTable
+     */
+    boolean unlock(int stripe, long entity, long txnId) {
+        while (true) {
+            final long word = words.get(stripe);
+            if (owner(word) != txnId) {
+                return false;
+            } else if (isPending(word)) {
+                Thread.yield();
+            } else if (entities[stripe] != entity) {
+                return false;
+            } else if (words.compareAndSet(stripe, word, count(word) == 1 ? word & FULL_MASK : word - COUNT_ONE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return true, if the stripe of an entity is neither held on the fast path by another transaction nor used by
+     *         the ResourceGroupTable, i.e. if an instant lock for the transaction can be granted right away
+     */
+    boolean isFree(int stripe, long txnId) {
+        final long word = words.get(stripe);
+        return full(word) == 0 && (owner(word) == 0 || (owner(word) == txnId && !isPending(word)));
+    }
+
+    /**
+     * registers a request that is served by the ResourceGroupTable. No locks are granted on the fast path for the
+     * stripe until the request is deregistered.
+     */
+    void register(int stripe) {
+        while (true) {
+            final long word = words.get(stripe);
+            if (full(word) == MAX_FULL) {
+                throw new IllegalStateException("too many lock requests for stripe " + stripe);
+            }
+            if (words.compareAndSet(stripe, word, word + FULL_ONE)) {
+                return;
+            }
+        }
+    }
+
+    void deregister(int stripe) {
+        while (true) {
+            final long word = words.get(stripe);
+            if (full(word) == 0) {
+                throw new IllegalStateException("no lock requests registered for stripe " + stripe);
+            }
+            if (words.compareAndSet(stripe, word, word - FULL_ONE)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the entity that is held on the fast path, valid while the stripe has an owner and no pending flag
+     */
+    long entity(int stripe) {
+        return entities[stripe];
+    }
+
+    /**
+     * starts to inflate the fast path locks of a stripe. Succeeds only if the word did not change since it was read.
+     */
+    boolean beginInflate(int stripe, long word) {
+        return !isPending(word) && owner(word) != 0 && words.compareAndSet(stripe, word, word | PENDING);
+    }
+
+    /**
+     * finishes the inflation of the fast path locks of a stripe. The inflated locks are now held in the
+     * ResourceGroupTable and are counted as registered requests.
+     */
+    void endInflate(int stripe, int inflated) {
+        while (true) {
+            final long word = words.get(stripe);
+            if (words.compareAndSet(stripe, word, (word & FULL_MASK) + inflated * FULL_ONE)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * releases all fast path locks of a transaction
+     */
+    void releaseAll(long txnId) {
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            while (true) {
+                final long word = words.get(stripe);
+                if (owner(word) != txnId) {
+                    break;
+                } else if (isPending(word)) {
+                    Thread.yield();
+                } else if (words.compareAndSet(stripe, word, word & FULL_MASK)) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -19,7 +19,7 @@
 
 package org.apache.asterix.transaction.management.service.locking;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
@@ -27,39 +27,39 @@ import org.apache.logging.log4j.Logger;
 final class LockManagerStats {
     private final int loggingPeriod;
 
-    private final AtomicLong lCnt = new AtomicLong();
-    private final AtomicLong ilCnt = new AtomicLong();
-    private final AtomicLong tlCnt = new AtomicLong();
-    private final AtomicLong itlCnt = new AtomicLong();
-    private final AtomicLong ulCnt = new AtomicLong();
-    private final AtomicLong rlCnt = new AtomicLong();
+    private final LongAdder lCnt = new LongAdder();
+    private final LongAdder ilCnt = new LongAdder();
+    private final LongAdder tlCnt = new LongAdder();
+    private final LongAdder itlCnt = new LongAdder();
+    private final LongAdder ulCnt = new LongAdder();
+    private final LongAdder rlCnt = new LongAdder();
 
     LockManagerStats(int loggingPeriod) {
         this.loggingPeriod = loggingPeriod;
     }
 
     final void lock() {
-        lCnt.incrementAndGet();
+        lCnt.increment();
     }
 
     final void instantLock() {
-        ilCnt.incrementAndGet();
+        ilCnt.increment();
     }
 
     final void tryLock() {
-        tlCnt.incrementAndGet();
+        tlCnt.increment();
     }
 
     final void instantTryLock() {
-        itlCnt.incrementAndGet();
+        itlCnt.increment();
     }
 
     final void unlock() {
-        ulCnt.incrementAndGet();
+        ulCnt.increment();
     }
 
     final void releaseLocks() {
-        rlCnt.incrementAndGet();
+        rlCnt.increment();
     }
 
     final int requestSum() {
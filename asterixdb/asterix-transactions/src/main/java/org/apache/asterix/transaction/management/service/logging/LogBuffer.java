@@ -21,6 +21,7 @@ package org.apache.asterix.transaction.management.service.logging;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
@@ -49,6 +50,9 @@ public class LogBuffer implements ILogBuffer {
     private final LogBufferTailReader logBufferTailReader;
     private final int logPageSize;
     private final MutableLong flushLSN;
+    private final long groupCommitWindowNanos;
+    private final int groupCommitBytes;
+    private final LogFlushStatistics flushStatistics;
     private final AtomicBoolean full;
     protected int appendOffset;
     private int flushOffset;
@@ -64,9 +68,26 @@ public class LogBuffer implements ILogBuffer {
     private final DatasetId reusableDatasetId;
 
     public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN) {
+        this(txnSubsystem, logPageSize, flushLSN, 0, 0, new LogFlushStatistics());
+    }
+
+    /**
+     * @param groupCommitWindowNanos
+     *            the maximum time the flusher waits for more log records before forcing the pending ones
+     *            (0 disables group commit)
+     * @param groupCommitBytes
+     *            the amount of pending log data that ends the group commit window early (0 for no limit)
+     * @param flushStatistics
+     *            the statistics to which forces of this buffer are reported
+     */
+    public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN,
+            long groupCommitWindowNanos, int groupCommitBytes, LogFlushStatistics flushStatistics) {
         this.txnSubsystem = txnSubsystem;
         this.logPageSize = logPageSize;
         this.flushLSN = flushLSN;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
+        this.groupCommitBytes = groupCommitBytes;
+        this.flushStatistics = flushStatistics;
         appendBuffer = ByteBuffer.allocate(logPageSize);
         flushBuffer = appendBuffer.duplicate();
         unlockBuffer = appendBuffer.duplicate();
@@ -175,6 +196,9 @@ public class LogBuffer implements ILogBuffer {
                             }
                             wait();
                         }
+                        if (!stopping) {
+                            waitForGroupCommit();
+                        }
                         endOffset = appendOffset;
                     }
                     internalFlush(flushOffset, endOffset);
@@ -190,12 +214,32 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
+    /**
+     * Waits, while holding the buffer monitor, for more log records to be appended so that they are forced together
+     * with the pending ones. The wait ends when the group commit window elapses, the pending log data reaches the
+     * group commit bytes threshold, or the buffer becomes full or is stopped.
+     */
+    private void waitForGroupCommit() throws InterruptedException {
+        if (groupCommitWindowNanos <= 0) {
+            return;
+        }
+        final long deadline = System.nanoTime() + groupCommitWindowNanos;
+        long remaining = groupCommitWindowNanos;
+        while (remaining > 0 && appendOffset > flushOffset && !full.get() && !stop
+                && (groupCommitBytes <= 0 || appendOffset - flushOffset < groupCommitBytes)) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
     private void internalFlush(int beginOffset, int endOffset) {
         try {
             if (endOffset > beginOffset) {
                 flushBuffer.limit(endOffset);
+                final long forceStartTime = System.nanoTime();
                 fileChannel.write(flushBuffer);
                 fileChannel.force(false);
+                final long forceTime = System.nanoTime() - forceStartTime;
                 flushOffset = endOffset;
                 synchronized (flushLSN) {
                     flushLSN.set(flushLSN.get() + (endOffset - beginOffset));
@@ -204,7 +248,8 @@ public class LogBuffer implements ILogBuffer {
                 if (IS_DEBUG_MODE) {
                     LOGGER.info("internalFlush()| flushOffset: " + flushOffset + ", flushLSN: " + flushLSN.get());
                 }
-                batchUnlock(beginOffset, endOffset);
+                int numRecords = batchUnlock(beginOffset, endOffset);
+                flushStatistics.forced(endOffset - beginOffset, numRecords, forceTime);
             }
         } catch (Exception e) {
             throw new IllegalStateException(e);
@@ -215,7 +260,8 @@ public class LogBuffer implements ILogBuffer {
         return new LogBufferTailReader(unlockBuffer);
     }
 
-    private void batchUnlock(int beginOffset, int endOffset) throws ACIDException {
+    private int batchUnlock(int beginOffset, int endOffset) throws ACIDException {
+        int numRecords = 0;
         if (endOffset > beginOffset) {
             logBufferTailReader.initializeScan(beginOffset, endOffset);
             ITransactionContext txnCtx;
@@ -245,9 +291,11 @@ public class LogBuffer implements ILogBuffer {
                         || logRecord.getLogType() == LogType.ABORT || logRecord.getLogType() == LogType.FLUSH)) {
                     notifyReplicationTermination();
                 }
+                numRecords++;
                 logRecord = logBufferTailReader.next();
             }
         }
+        return numRecords;
     }
 
     public void notifyJobTermination() {
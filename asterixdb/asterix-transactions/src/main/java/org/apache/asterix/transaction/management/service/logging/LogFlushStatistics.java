@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the log flusher forces and of the time committers wait for them. The force counters are only
+ * updated by the log flusher thread while the commit wait counters are updated by the committing threads.
+ */
+public class LogFlushStatistics {
+
+    private final AtomicLong forceCount = new AtomicLong();
+    private final AtomicLong forcedBytes = new AtomicLong();
+    private final AtomicLong forcedRecords = new AtomicLong();
+    private final AtomicLong forceTimeNanos = new AtomicLong();
+    private final AtomicLong maxForceTimeNanos = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong commitWaitTimeNanos = new AtomicLong();
+
+    void forced(int bytes, int records, long timeNanos) {
+        forceCount.incrementAndGet();
+        forcedBytes.addAndGet(bytes);
+        forcedRecords.addAndGet(records);
+        forceTimeNanos.addAndGet(timeNanos);
+        if (timeNanos > maxForceTimeNanos.get()) {
+            maxForceTimeNanos.set(timeNanos);
+        }
+    }
+
+    void committed(long waitTimeNanos) {
+        commitCount.incrementAndGet();
+        commitWaitTimeNanos.addAndGet(waitTimeNanos);
+    }
+
+    /**
+     * @return the number of forces of the log to disk
+     */
+    public long getForceCount() {
+        return forceCount.get();
+    }
+
+    public long getForcedBytes() {
+        return forcedBytes.get();
+    }
+
+    public long getForcedRecords() {
+        return forcedRecords.get();
+    }
+
+    /**
+     * @return the average number of log records made durable by a single force
+     */
+    public double getAverageBatchSize() {
+        long forces = forceCount.get();
+        return forces == 0 ? 0 : (double) forcedRecords.get() / forces;
+    }
+
+    public long getForceTimeNanos() {
+        return forceTimeNanos.get();
+    }
+
+    public long getMaxForceTimeNanos() {
+        return maxForceTimeNanos.get();
+    }
+
+    /**
+     * @return the number of log records (job commits, aborts and waits) whose appenders waited for their force
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public long getCommitWaitTimeNanos() {
+        return commitWaitTimeNanos.get();
+    }
+
+    public void reset() {
+        forceCount.set(0);
+        forcedBytes.set(0);
+        forcedRecords.set(0);
+        forceTimeNanos.set(0);
+        maxForceTimeNanos.set(0);
+        commitCount.set(0);
+        commitWaitTimeNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        long forces = forceCount.get();
+        long commits = commitCount.get();
+        return "{ \"forces\": " + forces + ", \"forcedBytes\": " + forcedBytes.get() + ", \"averageBatchSize\": "
+                + getAverageBatchSize() + ", \"averageForceTimeNanos\": "
+                + (forces == 0 ? 0 : forceTimeNanos.get() / forces) + ", \"maxForceTimeNanos\": "
+                + maxForceTimeNanos.get() + ", \"commits\": " + commits + ", \"averageCommitWaitNanos\": "
+                + (commits == 0 ? 0 : commitWaitTimeNanos.get() / commits) + " }";
+    }
+}
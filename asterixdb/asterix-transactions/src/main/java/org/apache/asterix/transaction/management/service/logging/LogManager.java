@@ -36,6 +36,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.exceptions.ACIDException;
@@ -76,6 +77,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private final int logPageSize;
     private final AtomicLong appendLSN;
     private final long maxLogRecordSize;
+    private final long groupCommitWindowNanos;
+    private final int groupCommitBytes;
+    protected final LogFlushStatistics flushStatistics;
 
     private LinkedBlockingQueue<ILogBuffer> emptyQ;
     private LinkedBlockingQueue<ILogBuffer> flushQ;
@@ -97,6 +101,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         numLogPages = logManagerProperties.getNumLogPages();
         logDir = logManagerProperties.getLogDir();
         logFilePrefix = logManagerProperties.getLogFilePrefix();
+        groupCommitWindowNanos = TimeUnit.MICROSECONDS.toNanos(logManagerProperties.getGroupCommitWindow());
+        groupCommitBytes = logManagerProperties.getGroupCommitBytes();
+        flushStatistics = new LogFlushStatistics();
         flushLSN = new MutableLong();
         appendLSN = new AtomicLong();
         nodeId = txnSubsystem.getId();
@@ -111,7 +118,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         flushQ = new LinkedBlockingQueue<>(numLogPages);
         stashQ = new LinkedBlockingQueue<>(numLogPages);
         for (int i = 0; i < numLogPages; i++) {
-            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN));
+            emptyQ.add(newLogBuffer(logPageSize));
         }
         appendLSN.set(initializeLogAnchor(nextLogFileId));
         flushLSN.set(appendLSN.get());
@@ -129,6 +136,11 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                 ((ExecutorService) txnSubsystem.getApplicationContext().getThreadExecutor()).submit(logFlusher);
     }
 
+    private LogBuffer newLogBuffer(int pageSize) {
+        return new LogBuffer(txnSubsystem, pageSize, flushLSN, groupCommitWindowNanos, groupCommitBytes,
+                flushStatistics);
+    }
+
     @Override
     public void log(ILogRecord logRecord) {
         if (!logToFlushQueue(logRecord)) {
@@ -159,8 +171,10 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
     @SuppressWarnings("squid:S2445")
     protected void appendToLogTail(ILogRecord logRecord) {
+        final boolean waitForFlush = waitForFlush(logRecord);
+        final long appendTime = waitForFlush ? System.nanoTime() : 0;
         syncAppendToLogTail(logRecord);
-        if (waitForFlush(logRecord) && !logRecord.isFlushed()) {
+        if (waitForFlush && !logRecord.isFlushed()) {
             InvokeUtil.doUninterruptibly(() -> {
                 synchronized (logRecord) {
                     while (!logRecord.isFlushed()) {
@@ -169,6 +183,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                 }
             });
         }
+        if (waitForFlush) {
+            flushStatistics.committed(System.nanoTime() - appendTime);
+        }
     }
 
     protected static boolean waitForFlush(ILogRecord logRecord) {
@@ -187,7 +204,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         }
         final int logSize = logRecord.getLogSize();
         ensureSpace(logSize);
-        if (logRecord.getLogType() == LogType.FLUSH) {
+        if (logRecord.getLogType() == LogType.FLUSH || logRecord.isReplicate()
+                && (logRecord.getLogType() == LogType.JOB_COMMIT || logRecord.getLogType() == LogType.ABORT)) {
+            // replicated job termination logs are acknowledged by replicas using their LSN
             logRecord.setLSN(appendLSN.get());
         }
         appendPage.append(logRecord, appendLSN.get());
@@ -232,7 +251,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (largePage) {
             // for now, alloc a new buffer for each large page
             // TODO: pool large pages??
-            appendPage = new LogBuffer(txnSubsystem, logSize, flushLSN);
+            appendPage = newLogBuffer(logSize);
         } else {
             appendPage.reset();
         }
@@ -295,7 +314,12 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
     @Override
     public ILogReader getLogReader(boolean isRecoveryMode) {
-        return new LogReader(this, logFileSize, logPageSize, flushLSN, isRecoveryMode);
+        return new LogReader(this, logFileSize, logPageSize, flushLSN, isRecoveryMode,
+                logManagerProperties.isLogReaderMemoryMapped());
+    }
+
+    public LogFlushStatistics getFlushStatistics() {
+        return flushStatistics;
     }
 
     public LogManagerProperties getLogManagerProperties() {
@@ -332,6 +356,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
         // #. dump LSNInfo
         dumpLSNInfo(os);
+
+        // #. dump FlushStatistics
+        dumpFlushStatistics(os);
     }
 
     private void dumpConfVars(OutputStream os) {
@@ -365,6 +392,21 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         }
     }
 
+    private void dumpFlushStatistics(OutputStream os) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n>>dump_begin\t>>----- [FlushStatistics] -----");
+            sb.append("\n" + flushStatistics);
+            sb.append("\n>>dump_end\t>>----- [FlushStatistics] -----\n");
+            os.write(sb.toString().getBytes());
+        } catch (Exception e) {
+            // ignore exception and continue dumping as much as possible.
+            if (IS_DEBUG_MODE) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     private long initializeLogAnchor(long fileId) {
         final String logFilePath = getLogFilePath(fileId);
         createFileIfNotExists(logFilePath);
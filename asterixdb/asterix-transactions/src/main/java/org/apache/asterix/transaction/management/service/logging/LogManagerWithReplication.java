@@ -73,6 +73,8 @@ public class LogManagerWithReplication extends LogManager {
     @SuppressWarnings("squid:S2445")
     @Override
     protected void appendToLogTail(ILogRecord logRecord) {
+        final boolean waitForFlush = logRecord.getLogSource() == LogSource.LOCAL && waitForFlush(logRecord);
+        final long appendTime = waitForFlush ? System.nanoTime() : 0;
         syncAppendToLogTail(logRecord);
 
         if (logRecord.isReplicate()) {
@@ -84,7 +86,7 @@ public class LogManagerWithReplication extends LogManager {
             }
         }
 
-        if (logRecord.getLogSource() == LogSource.LOCAL && waitForFlush(logRecord) && !logRecord.isFlushed()) {
+        if (waitForFlush && !logRecord.isFlushed()) {
             InvokeUtil.doUninterruptibly(() -> {
                 synchronized (logRecord) {
                     while (!logRecord.isFlushed()) {
@@ -100,6 +102,9 @@ public class LogManagerWithReplication extends LogManager {
                 }
             });
         }
+        if (waitForFlush) {
+            flushStatistics.committed(System.nanoTime() - appendTime);
+        }
     }
 
     @Override
@@ -19,7 +19,10 @@
 package org.apache.asterix.transaction.management.service.logging;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.ILogManager;
@@ -37,17 +40,25 @@ import org.apache.logging.log4j.Logger;
 public class LogReader implements ILogReader {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    // the maximum size of a mapped region of a log file
+    private static final long MAX_MAPPED_REGION_SIZE = 1L << 30;
+    // releases a mapped region without waiting for it to be garbage collected, null if the JVM does not expose it
+    private static final IUnmapper UNMAPPER = createUnmapper();
     private final ILogManager logMgr;
     private final long logFileSize;
     private final int logPageSize;
     private final MutableLong flushLSN;
     private final boolean isRecoveryMode;
+    private final boolean memoryMapped;
     private final ByteBuffer readBuffer;
+    private ByteBuffer largeRecordBuffer;
     private final ILogRecord logRecord;
     private long readLSN;
     private long bufferBeginLSN;
     private long fileBeginLSN;
     private TxnLogFile logFile;
+    private MappedByteBuffer mappedRegion;
+    private long mappedRegionOffset;
 
     private enum ReturnState {
         FLUSH,
@@ -56,11 +67,22 @@ public class LogReader implements ILogReader {
 
     public LogReader(ILogManager logMgr, long logFileSize, int logPageSize, MutableLong flushLSN,
             boolean isRecoveryMode) {
+        this(logMgr, logFileSize, logPageSize, flushLSN, isRecoveryMode, false);
+    }
+
+    /**
+     * @param memoryMapped
+     *            whether the log files are memory mapped and copied from the mapped regions instead of being read
+     *            through their file channels
+     */
+    public LogReader(ILogManager logMgr, long logFileSize, int logPageSize, MutableLong flushLSN,
+            boolean isRecoveryMode, boolean memoryMapped) {
         this.logMgr = logMgr;
         this.logFileSize = logFileSize;
         this.logPageSize = logPageSize;
         this.flushLSN = flushLSN;
         this.isRecoveryMode = isRecoveryMode;
+        this.memoryMapped = memoryMapped;
         this.readBuffer = ByteBuffer.allocate(logPageSize);
         this.logRecord = new LogRecord();
     }
@@ -114,7 +136,7 @@ public class LogReader implements ILogReader {
                     }
                 }
                 case LARGE_RECORD: {
-                    readBuffer = ByteBuffer.allocate(logRecord.getLogSize());
+                    readBuffer = getLargeRecordBuffer(logRecord.getLogSize());
                     fillLogReadBuffer(logRecord.getLogSize(), readBuffer);
                     //now see what we have in the expanded buffer
                     continue;
@@ -188,13 +210,20 @@ public class LogReader implements ILogReader {
         readBuffer.position(0);
         readBuffer.limit(readSize);
         try {
-            logFile.position(readLSN % logFileSize);
-            //We loop here because read() may return 0, but this simply means we are waiting on IO.
-            //Therefore we want to break out only when either the buffer is full, or we reach EOF.
-            while (size < readSize && read != -1) {
-                read = logFile.read(readBuffer);
-                if (read > 0) {
-                    size += read;
+            if (memoryMapped) {
+                size = copyFromMappedRegion(readLSN % logFileSize, readSize, readBuffer);
+                if (size == 0) {
+                    read = -1;
+                }
+            } else {
+                logFile.position(readLSN % logFileSize);
+                //We loop here because read() may return 0, but this simply means we are waiting on IO.
+                //Therefore we want to break out only when either the buffer is full, or we reach EOF.
+                while (size < readSize && read != -1) {
+                    read = logFile.read(readBuffer);
+                    if (read > 0) {
+                        size += read;
+                    }
                 }
             }
         } catch (IOException e) {
@@ -209,6 +238,42 @@ public class LogReader implements ILogReader {
         return true;
     }
 
+    /**
+     * Copies up to {@code readSize} bytes of the log file starting at {@code offset} into {@code readBuffer}. The
+     * file is mapped in regions that are remapped only when the bytes to copy are not in the current region, so
+     * sequential scans copy straight from the page cache without a read call per page.
+     *
+     * @return the number of copied bytes, 0 if the offset is at the end of the file
+     */
+    private int copyFromMappedRegion(long offset, int readSize, ByteBuffer readBuffer) throws IOException {
+        final long fileSize = logFile.size();
+        final int size = (int) Math.min(readSize, fileSize - offset);
+        if (size <= 0) {
+            return 0;
+        }
+        if (mappedRegion == null || offset < mappedRegionOffset
+                || offset + size > mappedRegionOffset + mappedRegion.capacity()) {
+            // map as much of the file as allowed, the file may have grown since it was last mapped
+            final long regionSize = Math.max(size, Math.min(fileSize - offset, MAX_MAPPED_REGION_SIZE));
+            unmapRegion();
+            mappedRegion = logFile.map(offset, regionSize);
+            mappedRegionOffset = offset;
+        }
+        final ByteBuffer region = mappedRegion.duplicate();
+        final int regionPosition = (int) (offset - mappedRegionOffset);
+        region.position(regionPosition);
+        region.limit(regionPosition + size);
+        readBuffer.put(region);
+        return size;
+    }
+
+    private ByteBuffer getLargeRecordBuffer(int size) {
+        if (largeRecordBuffer == null || largeRecordBuffer.capacity() < size) {
+            largeRecordBuffer = ByteBuffer.allocate(size);
+        }
+        return largeRecordBuffer;
+    }
+
     @Override
     public ILogRecord read(long lsn) {
         readLSN = lsn;
@@ -244,7 +309,7 @@ public class LogReader implements ILogReader {
             RecordReadStatus status = logRecord.readLogRecord(readBuffer);
             switch (status) {
                 case LARGE_RECORD: {
-                    readBuffer = ByteBuffer.allocate(logRecord.getLogSize());
+                    readBuffer = getLargeRecordBuffer(logRecord.getLogSize());
                     fillLogReadBuffer(logRecord.getLogSize(), readBuffer);
                     //now see what we have in the refilled buffer
                     continue;
@@ -290,8 +355,55 @@ public class LogReader implements ILogReader {
                 logFile.close();
                 logFile = null;
             }
+            unmapRegion();
         } catch (IOException e) {
             throw new ACIDException(e);
         }
     }
+
+    /**
+     * Releases the current mapped region, whose buffer must not be accessed afterwards. A region that cannot be
+     * unmapped explicitly is released once it is garbage collected.
+     */
+    private void unmapRegion() {
+        if (mappedRegion == null) {
+            return;
+        }
+        final MappedByteBuffer region = mappedRegion;
+        mappedRegion = null;
+        if (UNMAPPER != null) {
+            try {
+                UNMAPPER.unmap(region);
+            } catch (Exception e) { // NOSONAR the region is still released when garbage collected
+                LOGGER.warn("failed to unmap a region of a log file", e);
+            }
+        }
+    }
+
+    private static IUnmapper createUnmapper() {
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return region -> invokeCleaner.invoke(unsafe, region);
+        } catch (ReflectiveOperationException | RuntimeException e) { // NOSONAR try the Java 8 cleaner
+            LOGGER.trace("Unsafe.invokeCleaner is not available", e);
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return region -> clean.invoke(cleaner.invoke(region));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("mapped regions of log files are only released when they are garbage collected", e);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IUnmapper {
+        void unmap(MappedByteBuffer region) throws ReflectiveOperationException;
+    }
 }
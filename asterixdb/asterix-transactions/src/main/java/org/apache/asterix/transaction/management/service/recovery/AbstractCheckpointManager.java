@@ -65,6 +65,7 @@ public abstract class AbstractCheckpointManager implements ICheckpointManager {
     private final int historyToKeep;
     private final int lsnThreshold;
     private final int pollFrequency;
+    private final long maxRedoBytes;
     private final IPersistedResourceRegistry persistedResourceRegistry;
     protected final ITransactionSubsystem txnSubsystem;
     private CheckpointThread checkpointer;
@@ -88,6 +89,7 @@ public abstract class AbstractCheckpointManager implements ICheckpointManager {
         }
         lsnThreshold = checkpointProperties.getLsnThreshold();
         pollFrequency = checkpointProperties.getPollFrequency();
+        maxRedoBytes = (long) checkpointProperties.getRecoveryTimeTarget() * checkpointProperties.getRedoRate();
         // We must keep at least the latest checkpoint
         historyToKeep = checkpointProperties.getHistoryToKeep() + 1;
         persistedResourceRegistry = txnSubsystem.getApplicationContext().getPersistedResourceRegistry();
@@ -114,7 +116,8 @@ public abstract class AbstractCheckpointManager implements ICheckpointManager {
 
     @Override
     public void start() {
-        checkpointer = new CheckpointThread(this, txnSubsystem.getLogManager(), lsnThreshold, pollFrequency);
+        checkpointer =
+                new CheckpointThread(this, txnSubsystem.getLogManager(), lsnThreshold, pollFrequency, maxRedoBytes);
         checkpointer.start();
     }
 
@@ -18,6 +18,9 @@
  */
 package org.apache.asterix.transaction.management.service.recovery;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -44,11 +47,15 @@ public class CheckpointManager extends AbstractCheckpointManager {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final long NO_SECURED_LSN = -1L;
     private final long datasetCheckpointInterval;
+    private final int recoveryTimeTarget;
+    private final int redoRate;
     private final Map<TxnId, Long> securedLSNs;
 
     public CheckpointManager(ITransactionSubsystem txnSubsystem, CheckpointProperties checkpointProperties) {
         super(txnSubsystem, checkpointProperties);
         datasetCheckpointInterval = checkpointProperties.getDatasetCheckpointInterval();
+        recoveryTimeTarget = checkpointProperties.getRecoveryTimeTarget();
+        redoRate = Math.max(checkpointProperties.getRedoRate(), 1);
         securedLSNs = new HashMap<>();
     }
 
@@ -111,6 +118,24 @@ public class CheckpointManager extends AbstractCheckpointManager {
         dlcm.asyncFlushMatchingIndexes(newIdleDatasetPredicate());
     }
 
+    /**
+     * Estimates the redo time from the volume of transaction logs between the low-water mark, i.e. the first LSN of
+     * the index that lags behind the most, and the end of the log.
+     */
+    @Override
+    public long getEstimatedRecoveryTime() throws HyracksDataException {
+        final long redoBytes =
+                txnSubsystem.getLogManager().getAppendLSN() - txnSubsystem.getRecoveryManager().getMinFirstLSN();
+        return Math.max(redoBytes, 0) * 1000 / redoRate;
+    }
+
+    @Override
+    public void dumpState(OutputStream os) throws IOException {
+        final String state = "{\"estimated-recovery-time\" : " + getEstimatedRecoveryTime()
+                + ", \"recovery-time-target\" : " + recoveryTimeTarget * 1000L + "}\n";
+        os.write(state.getBytes(StandardCharsets.UTF_8));
+    }
+
     private synchronized long getMinSecuredLSN() {
         return securedLSNs.isEmpty() ? NO_SECURED_LSN : Collections.min(securedLSNs.values());
     }
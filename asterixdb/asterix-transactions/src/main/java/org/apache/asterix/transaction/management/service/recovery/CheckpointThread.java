@@ -27,12 +27,15 @@ import org.apache.logging.log4j.Logger;
  * A daemon thread that periodically attempts to perform checkpoints.
  * A checkpoint attempt is made when the volume of transaction logs written
  * since the last successful checkpoint exceeds a certain threshold.
+ * If a recovery time target is set, the threshold is derived from the volume
+ * of transaction logs that can be redone within that time instead.
  */
 public class CheckpointThread extends Thread {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private long lsnThreshold;
     private long checkpointTermInSecs;
+    private long maxRedoBytes;
 
     private final ILogManager logManager;
     private final ICheckpointManager checkpointManager;
@@ -40,10 +43,21 @@ public class CheckpointThread extends Thread {
 
     public CheckpointThread(ICheckpointManager checkpointManager, ILogManager logManager, long lsnThreshold,
             long checkpointTermInSecs) {
+        this(checkpointManager, logManager, lsnThreshold, checkpointTermInSecs, 0);
+    }
+
+    /**
+     * @param maxRedoBytes
+     *            the volume of transaction logs that can be redone within the recovery time target, 0 if there is no
+     *            recovery time target
+     */
+    public CheckpointThread(ICheckpointManager checkpointManager, ILogManager logManager, long lsnThreshold,
+            long checkpointTermInSecs, long maxRedoBytes) {
         this.checkpointManager = checkpointManager;
         this.logManager = logManager;
         this.lsnThreshold = lsnThreshold;
         this.checkpointTermInSecs = checkpointTermInSecs;
+        this.maxRedoBytes = maxRedoBytes;
         setDaemon(true);
     }
 
@@ -70,6 +84,23 @@ public class CheckpointThread extends Thread {
                 //1. get current log LSN
                 currentLogLSN = logManager.getAppendLSN();
 
+                if (maxRedoBytes > 0) {
+                    // keep the log that has to be redone within half of the recovery time target, so that the
+                    // indexes that lag behind are flushed before the target is missed. Only the indexes whose
+                    // first LSN is older than that are flushed, i.e. the ones that hold back log truncation the most
+                    targetCheckpointLSN = currentLogLSN - maxRedoBytes / 2;
+                    if (targetCheckpointLSN > lastCheckpointLSN) {
+                        currentCheckpointAttemptMinLSN = checkpointManager.tryCheckpoint(targetCheckpointLSN);
+                        if (currentCheckpointAttemptMinLSN >= targetCheckpointLSN) {
+                            lastCheckpointLSN = currentCheckpointAttemptMinLSN;
+                        }
+                    }
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("Estimated recovery time: {} ms", checkpointManager.getEstimatedRecoveryTime());
+                    }
+                    continue;
+                }
+
                 //2. if current log LSN - previous checkpoint > threshold, do checkpoint
                 if (currentLogLSN - lastCheckpointLSN > lsnThreshold) {
 
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.locking;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.asterix.common.exceptions.ACIDException;
+import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.ILockManager;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.transaction.management.service.transaction.TransactionManagementConstants.LockManagerConstants.LockMode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the lock manager tests with the fast path for exclusive entity locks enabled
+ */
+public class FastPathLockManagerUnitTest extends LockManagerUnitTest {
+
+    private static final int THREADS = 8;
+    private static final int ENTITIES = 16;
+    private static final int OPERATIONS = 20000;
+
+    @Override
+    protected ILockManager createLockManager() throws ACIDException {
+        return new ConcurrentLockManager(LOCK_MGR_SHRINK_TIMER, LOCK_MGR_ARENAS, LOCK_MGR_TABLE_SIZE, true);
+    }
+
+    @Test
+    public void testConcurrentMixedLocks() throws Exception {
+        final DatasetId dsId = new DatasetId(1);
+        final AtomicInteger[] exclusive = new AtomicInteger[ENTITIES];
+        final AtomicInteger[] shared = new AtomicInteger[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            exclusive[i] = new AtomicInteger();
+            shared[i] = new AtomicInteger();
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final ITransactionContext txnCtx = txnContext(t + 1);
+            final Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        final int entity = random.nextInt(ENTITIES);
+                        // most requests take the fast path, the shared ones force it to fall back
+                        if (random.nextInt(8) == 0) {
+                            lockMgr.lock(dsId, entity, LockMode.S, txnCtx);
+                            shared[entity].incrementAndGet();
+                            Assert.assertEquals(0, exclusive[entity].get());
+                            shared[entity].decrementAndGet();
+                            lockMgr.unlock(dsId, entity, LockMode.S, txnCtx);
+                        } else if (random.nextInt(8) == 0) {
+                            lockMgr.instantLock(dsId, entity, LockMode.X, txnCtx);
+                        } else {
+                            lockMgr.lock(dsId, entity, LockMode.X, txnCtx);
+                            Assert.assertEquals(1, exclusive[entity].incrementAndGet());
+                            Assert.assertEquals(0, shared[entity].get());
+                            exclusive[entity].decrementAndGet();
+                            lockMgr.unlock(dsId, entity, LockMode.ANY, txnCtx);
+                        }
+                    }
+                    lockMgr.releaseLocks(txnCtx);
+                } catch (Throwable th) {
+                    failure.compareAndSet(null, th);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        // nothing may be left behind on either path
+        final ITransactionContext txnCtx = txnContext(THREADS + 1);
+        for (int entity = 0; entity < ENTITIES; entity++) {
+            Assert.assertTrue(lockMgr.instantTryLock(dsId, entity, LockMode.S, txnCtx));
+            Assert.assertTrue(lockMgr.tryLock(dsId, entity, LockMode.X, txnCtx));
+        }
+        lockMgr.releaseLocks(txnCtx);
+    }
+
+    @Test
+    public void testReleaseFastPathLocks() throws Exception {
+        final DatasetId dsId = new DatasetId(1);
+        final ITransactionContext holder = txnContext(1);
+        final ITransactionContext other = txnContext(2);
+        lockMgr.lock(dsId, 1, LockMode.X, holder);
+        lockMgr.lock(dsId, 2, LockMode.X, holder);
+        // moves the lock on entity 1 into the lock table, the one on entity 2 stays on the fast path
+        Assert.assertFalse(lockMgr.tryLock(dsId, 1, LockMode.X, other));
+        lockMgr.releaseLocks(holder);
+        Assert.assertTrue(lockMgr.tryLock(dsId, 1, LockMode.X, other));
+        Assert.assertTrue(lockMgr.tryLock(dsId, 2, LockMode.X, other));
+        lockMgr.releaseLocks(other);
+    }
+
+    private static ITransactionContext txnContext(long txnId) {
+        ITransactionContext txnCtx = mock(ITransactionContext.class);
+        when(txnCtx.getTxnId()).thenReturn(new TxnId(txnId));
+        return txnCtx;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.locking;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.ILockManager;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.transaction.management.service.transaction.EntityLevelTransactionContext;
+import org.apache.asterix.transaction.management.service.transaction.TransactionManagementConstants.LockManagerConstants.LockMode;
+
+/**
+ * Measures the throughput of exclusive entity lock/unlock pairs with and without the fast path for 1 to 64 threads.
+ * Every thread runs its own transaction and locks random entities of a single dataset, as single partition inserts
+ * and upserts do. It is not run as part of the tests. Usage:
+ * LockManagerBenchmark [entities] [seconds per run]
+ */
+public class LockManagerBenchmark {
+    private static final int MAX_THREADS = 64;
+    private static final int SHRINK_TIMER = 5000;
+
+    private LockManagerBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int entities = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final long seconds = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        System.out.println("threads, slow path (ops/s), fast path (ops/s)");
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            final long slow = run(new ConcurrentLockManager(SHRINK_TIMER, false), threads, entities, seconds);
+            final long fast = run(new ConcurrentLockManager(SHRINK_TIMER, true), threads, entities, seconds);
+            System.out.println(threads + ", " + slow + ", " + fast);
+        }
+    }
+
+    private static long run(ILockManager lockMgr, int threads, int entities, long seconds) throws Exception {
+        final DatasetId dsId = new DatasetId(1);
+        final AtomicBoolean stop = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(threads);
+        final LongAdder ops = new LongAdder();
+        for (int t = 0; t < threads; t++) {
+            final ITransactionContext txnCtx = new EntityLevelTransactionContext(new TxnId(t + 1));
+            new Thread(() -> {
+                try {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long count = 0;
+                    while (!stop.get()) {
+                        final int entity = random.nextInt(entities);
+                        lockMgr.lock(dsId, entity, LockMode.X, txnCtx);
+                        lockMgr.unlock(dsId, entity, LockMode.ANY, txnCtx);
+                        count++;
+                    }
+                    lockMgr.releaseLocks(txnCtx);
+                    ops.add(count);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        TimeUnit.SECONDS.sleep(seconds);
+        stop.set(true);
+        done.await();
+        return ops.sum() / seconds;
+    }
+}
@@ -66,7 +66,11 @@ public class LockManagerUnitTest {
     @Before
     public void setUp() throws Exception {
         jobId2TxnCtxMap = new HashMap<>();
-        lockMgr = new ConcurrentLockManager(LOCK_MGR_SHRINK_TIMER, LOCK_MGR_ARENAS, LOCK_MGR_TABLE_SIZE);
+        lockMgr = createLockManager();
+    }
+
+    protected ILockManager createLockManager() throws ACIDException {
+        return new ConcurrentLockManager(LOCK_MGR_SHRINK_TIMER, LOCK_MGR_ARENAS, LOCK_MGR_TABLE_SIZE);
     }
 
     @After
@@ -130,6 +134,22 @@ public class LockManagerUnitTest {
         reportErrors(execute(reqs));
     }
 
+    @Test
+    public void testExclusiveReacquire() throws Exception {
+        List<Request> reqs = new ArrayList<>();
+        reqs.add(req(Kind.LOCK, j(1), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.LOCK, j(1), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.TRY_LOCK, j(2), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.INSTANT_TRY_LOCK, j(3), d(1), e(1), LockMode.S));
+        reqs.add(req(Kind.UNLOCK, j(1), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.RELEASE, j(1)));
+        reqs.add(req(Kind.LOCK, j(2), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.RELEASE, j(2)));
+        reqs.add(req(Kind.INSTANT_LOCK, j(3), d(1), e(1), LockMode.X));
+        reqs.add(req(Kind.RELEASE, j(3)));
+        reportErrors(execute(reqs));
+    }
+
     @Test
     /**
      * lock conversion/upgrade is not supported when deadlock-free locking
@@ -104,6 +104,7 @@ public class HeuristicCompilerFactoryBuilder extends AbstractCompilerFactoryBuil
                                 clusterLocations);
 
                         PlanCompiler pc = new PlanCompiler(context);
+                        pc.setFusePipelines(physicalOptimizationConfig.getPipelineFusion());
                         return pc.compilePlan(plan, jobEventListenerFactory);
                     }
                 };
@@ -447,6 +447,11 @@ public class IsomorphismOperatorVisitor implements ILogicalOperatorVisitor<Boole
         if (!argScan.getDataSource().toString().equals(op.getDataSource().toString())) {
             return Boolean.FALSE;
         }
+        if (op.getOutputLimit() != argScan.getOutputLimit()
+                || !Objects.equals(op.getProjectionInfo(), argScan.getProjectionInfo())
+                || !isSelectConditionIsomorphic(op, argScan)) {
+            return Boolean.FALSE;
+        }
         DataSourceScanOperator scanOpArg = (DataSourceScanOperator) copyAndSubstituteVar(op, arg);
         boolean isomorphic = VariableUtilities.varListEqualUnordered(op.getVariables(), scanOpArg.getVariables())
                 && op.getDataSource().toString().equals(scanOpArg.getDataSource().toString());
@@ -701,6 +706,29 @@ public class IsomorphismOperatorVisitor implements ILogicalOperatorVisitor<Boole
         return true;
     }
 
+    /**
+     * The pushed down conditions of two scans of the same data source refer to the variables of their own scans. They
+     * are isomorphic if they are equal once the variables of one scan are replaced by the variables at the same
+     * positions in the other scan.
+     */
+    private static boolean isSelectConditionIsomorphic(DataSourceScanOperator op, DataSourceScanOperator argScan) {
+        Mutable<ILogicalExpression> condition = op.getSelectCondition();
+        Mutable<ILogicalExpression> argCondition = argScan.getSelectCondition();
+        if (condition == null || argCondition == null) {
+            return condition == argCondition;
+        }
+        List<LogicalVariable> vars = op.getVariables();
+        List<LogicalVariable> argVars = argScan.getVariables();
+        if (vars.size() != argVars.size()) {
+            return false;
+        }
+        ILogicalExpression argConditionCopy = argCondition.getValue().cloneExpression();
+        for (int i = 0; i < vars.size(); i++) {
+            argConditionCopy.substituteVar(argVars.get(i), vars.get(i));
+        }
+        return condition.getValue().equals(argConditionCopy);
+    }
+
     private ILogicalOperator copyAndSubstituteVar(ILogicalOperator op, ILogicalOperator argOp)
             throws AlgebricksException {
         ILogicalOperator newOp = OperatorManipulationUtil.deepCopy(argOp);
@@ -328,6 +328,7 @@ public class LogicalOperatorDeepCopyWithNewVariablesVisitor
                 ? exprDeepCopyVisitor.deepCopyExpressionReference(op.getSelectCondition()) : null;
         DataSourceScanOperator opCopy = new DataSourceScanOperator(deepCopyVariableList(op.getVariables()),
                 op.getDataSource(), newSelectCondition, op.getOutputLimit());
+        opCopy.setProjectionInfo(op.getProjectionInfo());
         deepCopyInputsAnnotationsAndExecutionMode(op, arg, opCopy);
         return opCopy;
     }
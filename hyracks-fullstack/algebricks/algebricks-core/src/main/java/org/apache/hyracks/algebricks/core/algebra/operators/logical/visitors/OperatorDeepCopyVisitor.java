@@ -250,6 +250,7 @@ public class OperatorDeepCopyVisitor implements ILogicalOperatorVisitor<ILogical
                 op.getSelectCondition() != null ? deepCopyExpressionRef(op.getSelectCondition()) : null;
         DataSourceScanOperator newOp =
                 new DataSourceScanOperator(newInputList, op.getDataSource(), newSelectCondition, op.getOutputLimit());
+        newOp.setProjectionInfo(op.getProjectionInfo());
         return newOp;
     }
 
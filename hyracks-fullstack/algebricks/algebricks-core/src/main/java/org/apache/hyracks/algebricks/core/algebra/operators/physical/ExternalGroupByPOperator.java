@@ -70,12 +70,15 @@ public class ExternalGroupByPOperator extends AbstractPhysicalOperator {
 
     private final long inputSize;
     private final int frameLimit;
+    // whether a local group-by below a global one aggregates adaptively, see ExternalGroupOperatorDescriptor
+    private final boolean adaptiveLocalAggregation;
     private List<LogicalVariable> columnSet = new ArrayList<LogicalVariable>();
 
     public ExternalGroupByPOperator(List<Pair<LogicalVariable, Mutable<ILogicalExpression>>> gbyList, int frameLimit,
-            long fileSize) {
+            long fileSize, boolean adaptiveLocalAggregation) {
         this.frameLimit = frameLimit;
         this.inputSize = fileSize;
+        this.adaptiveLocalAggregation = adaptiveLocalAggregation;
         computeColumnSet(gbyList);
     }
 
@@ -109,6 +112,14 @@ public class ExternalGroupByPOperator extends AbstractPhysicalOperator {
         return columnSet;
     }
 
+    public boolean getAdaptiveLocalAggregation() {
+        return adaptiveLocalAggregation;
+    }
+
+    private boolean isAdaptiveLocalAggregation(ILogicalOperator op) {
+        return adaptiveLocalAggregation && !((GroupByOperator) op).isGlobal();
+    }
+
     @Override
     public void computeDeliveredProperties(ILogicalOperator op, IOptimizationContext context) {
         List<ILocalStructuralProperty> propsLocal = new LinkedList<ILocalStructuralProperty>();
@@ -271,6 +282,9 @@ public class ExternalGroupByPOperator extends AbstractPhysicalOperator {
                 keyAndDecFields, frameLimit, comparatorFactories, normalizedKeyFactory, aggregatorFactory, mergeFactory,
                 recordDescriptor, recordDescriptor, new HashSpillableTableFactory(hashFunctionFactories));
         gbyOpDesc.setSourceLocation(gby.getSourceLocation());
+        if (isAdaptiveLocalAggregation(gby)) {
+            gbyOpDesc.setAdaptiveLocalAggregation(hashFunctionFactories);
+        }
         contributeOpDesc(builder, gby, gbyOpDesc);
         ILogicalOperator src = op.getInputs().get(0).getValue();
         builder.contributeGraphEdge(src, 0, op, 0);
@@ -278,6 +292,10 @@ public class ExternalGroupByPOperator extends AbstractPhysicalOperator {
 
     @Override
     public Pair<int[], int[]> getInputOutputDependencyLabels(ILogicalOperator op) {
+        if (isAdaptiveLocalAggregation(op)) {
+            // the adaptive local aggregation streams its partial results
+            return super.getInputOutputDependencyLabels(op);
+        }
         int[] inputDependencyLabels = new int[] { 0 };
         int[] outputDependencyLabels = new int[] { 1 };
         return new Pair<int[], int[]>(inputDependencyLabels, outputDependencyLabels);
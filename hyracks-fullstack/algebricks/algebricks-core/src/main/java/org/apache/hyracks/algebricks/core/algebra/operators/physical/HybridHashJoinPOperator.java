@@ -64,22 +64,27 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
     private final int memSizeInFrames;
     private final int maxInputBuildSizeInFrames;
     private final double fudgeFactor;
+    // whether the runtime filters the probe tuples that spill with a bloom filter of the build keys
+    private final boolean useJoinFilter;
 
     private static final Logger LOGGER = LogManager.getLogger();
 
     public HybridHashJoinPOperator(JoinKind kind, JoinPartitioningType partitioningType,
             List<LogicalVariable> sideLeftOfEqualities, List<LogicalVariable> sideRightOfEqualities,
-            int memSizeInFrames, int maxInputSizeInFrames, int aveRecordsPerFrame, double fudgeFactor) {
+            int memSizeInFrames, int maxInputSizeInFrames, int aveRecordsPerFrame, double fudgeFactor,
+            boolean useJoinFilter) {
         super(kind, partitioningType, sideLeftOfEqualities, sideRightOfEqualities);
         this.memSizeInFrames = memSizeInFrames;
         this.maxInputBuildSizeInFrames = maxInputSizeInFrames;
         this.fudgeFactor = fudgeFactor;
+        this.useJoinFilter = useJoinFilter;
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("HybridHashJoinPOperator constructed with: JoinKind=" + kind + ", JoinPartitioningType="
                     + partitioningType + ", List<LogicalVariable>=" + sideLeftOfEqualities + ", List<LogicalVariable>="
                     + sideRightOfEqualities + ", int memSizeInFrames=" + memSizeInFrames
                     + ", int maxInputSize0InFrames=" + maxInputSizeInFrames + ", int aveRecordsPerFrame="
-                    + aveRecordsPerFrame + ", double fudgeFactor=" + fudgeFactor + ".");
+                    + aveRecordsPerFrame + ", double fudgeFactor=" + fudgeFactor + ", boolean useJoinFilter="
+                    + useJoinFilter + ".");
         }
     }
 
@@ -101,6 +106,10 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
         return memSizeInFrames;
     }
 
+    public boolean getUseJoinFilter() {
+        return useJoinFilter;
+    }
+
     @Override
     public String toString() {
         return getOperatorTag().toString() + " " + keysLeftBranch + keysRightBranch;
@@ -150,11 +159,13 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
             RecordDescriptor recDescriptor, IOperatorDescriptorRegistry spec) throws AlgebricksException {
         switch (kind) {
             case INNER:
-                return new OptimizedHybridHashJoinOperatorDescriptor(spec, getMemSizeInFrames(),
-                        maxInputBuildSizeInFrames, getFudgeFactor(), keysLeft, keysRight, hashFunFamilies,
-                        comparatorFactories, recDescriptor,
+                OptimizedHybridHashJoinOperatorDescriptor innerJoinDesc = new OptimizedHybridHashJoinOperatorDescriptor(
+                        spec, getMemSizeInFrames(), maxInputBuildSizeInFrames, getFudgeFactor(), keysLeft, keysRight,
+                        hashFunFamilies, comparatorFactories, recDescriptor,
                         new JoinMultiComparatorFactory(comparatorFactories, keysLeft, keysRight),
                         new JoinMultiComparatorFactory(comparatorFactories, keysRight, keysLeft), predEvaluatorFactory);
+                innerJoinDesc.setUseJoinFilter(useJoinFilter);
+                return innerJoinDesc;
             case LEFT_OUTER:
                 IMissingWriterFactory[] nonMatchWriterFactories = new IMissingWriterFactory[inputSchemas[1].getSize()];
                 for (int j = 0; j < nonMatchWriterFactories.length; j++) {
@@ -326,6 +326,9 @@ public class LogicalOperatorPrettyPrintVisitor extends AbstractLogicalOperatorPr
         appendFilterInformation(plan, op.getMinFilterVars(), op.getMaxFilterVars());
         appendSelectConditionInformation(plan, op.getSelectCondition(), indent);
         appendLimitInformation(plan, op.getOutputLimit());
+        if (op.getProjectionInfo() != null) {
+            plan.append(" projection (").append(op.getProjectionInfo().toString()).append(")");
+        }
         return null;
     }
 
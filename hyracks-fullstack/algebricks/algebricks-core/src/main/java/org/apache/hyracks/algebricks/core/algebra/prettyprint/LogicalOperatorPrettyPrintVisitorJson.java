@@ -429,6 +429,10 @@ public class LogicalOperatorPrettyPrintVisitorJson extends AbstractLogicalOperat
         appendFilterInformation(plan, op.getMinFilterVars(), op.getMaxFilterVars(), indent);
         appendSelectConditionInformation(plan, op.getSelectCondition(), indent);
         appendLimitInformation(plan, op.getOutputLimit(), indent);
+        if (op.getProjectionInfo() != null) {
+            plan.append(",\n");
+            addIndent(indent).append("\"projection\": \"" + op.getProjectionInfo() + "\"");
+        }
         return null;
     }
 
@@ -27,4 +27,8 @@ public class AlgebricksConfig {
     public static final Logger ALGEBRICKS_LOGGER = LogManager.getLogger(ALGEBRICKS_LOGGER_NAME);
     public static final int SORT_SAMPLES = 100;
     public static final boolean SORT_PARALLEL = true;
+    public static final boolean SCAN_PUSHDOWN = false;
+    public static final boolean JOIN_FILTER = false;
+    public static final boolean PIPELINE_FUSION = false;
+    public static final boolean GROUPBY_ADAPTIVE = false;
 }
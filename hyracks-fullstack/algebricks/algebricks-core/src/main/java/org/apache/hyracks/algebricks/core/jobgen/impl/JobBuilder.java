@@ -70,6 +70,7 @@ public class JobBuilder implements IHyracksJobBuilder {
     private final Map<IOperatorDescriptor, AlgebricksPartitionConstraint> partitionConstraintMap = new HashMap<>();
 
     private int aodCounter = 0;
+    private boolean fusePipelines = false;
 
     public JobBuilder(JobSpecification jobSpec, AlgebricksAbsolutePartitionConstraint clusterLocations) {
         this.jobSpec = jobSpec;
@@ -93,6 +94,10 @@ public class JobBuilder implements IHyracksJobBuilder {
                 new String[] { clusterLocations.getLocations()[Math.abs(jobSpec.hashCode() % nPartitions)] });
     }
 
+    public void setFusePipelines(boolean fusePipelines) {
+        this.fusePipelines = fusePipelines;
+    }
+
     @Override
     public void contributeMicroOperator(ILogicalOperator op, IPushRuntimeFactory runtime, RecordDescriptor recDesc) {
         contributeMicroOperator(op, runtime, recDesc, null);
@@ -356,8 +361,10 @@ public class JobBuilder implements IHyracksJobBuilder {
         ILogicalOperator firstLogicalOp = revMicroOpMap.get(runtimeFactories[0]);
         ArrayList<ILogicalOperator> inOps = inEdges.get(firstLogicalOp);
         int inArity = (inOps == null) ? 0 : inOps.size();
-        return new AlgebricksMetaOperatorDescriptor(jobSpec, inArity, outArity, runtimeFactories,
-                internalRecordDescriptors, outRuntimeFactories, outPositions);
+        AlgebricksMetaOperatorDescriptor metaOp = new AlgebricksMetaOperatorDescriptor(jobSpec, inArity, outArity,
+                runtimeFactories, internalRecordDescriptors, outRuntimeFactories, outPositions);
+        metaOp.setFusePipeline(fusePipelines);
+        return metaOp;
     }
 
     private void addMicroOpToMetaRuntimeOp(ILogicalOperator aop) {
@@ -37,6 +37,7 @@ import org.apache.hyracks.api.job.JobSpecification;
 
 public class PlanCompiler {
     private JobGenContext context;
+    private boolean fusePipelines;
     private Map<Mutable<ILogicalOperator>, List<Mutable<ILogicalOperator>>> operatorVisitedToParents =
             new HashMap<Mutable<ILogicalOperator>, List<Mutable<ILogicalOperator>>>();
 
@@ -48,6 +49,13 @@ public class PlanCompiler {
         return context;
     }
 
+    /**
+     * Sets whether the generated meta-operators run their chains of assign/select/project micro-operators fused.
+     */
+    public void setFusePipelines(boolean fusePipelines) {
+        this.fusePipelines = fusePipelines;
+    }
+
     public JobSpecification compilePlan(ILogicalPlan plan, IJobletEventListenerFactory jobEventListenerFactory)
             throws AlgebricksException {
         return compilePlanImpl(plan, false, null, jobEventListenerFactory);
@@ -66,6 +74,7 @@ public class PlanCompiler {
         }
         List<ILogicalOperator> rootOps = new ArrayList<>();
         JobBuilder builder = new JobBuilder(spec, context.getClusterLocations());
+        builder.setFusePipelines(fusePipelines);
         for (Mutable<ILogicalOperator> opRef : plan.getRoots()) {
             compileOpRef(opRef, spec, builder, outerPlanSchema);
             rootOps.add(opRef.getValue());
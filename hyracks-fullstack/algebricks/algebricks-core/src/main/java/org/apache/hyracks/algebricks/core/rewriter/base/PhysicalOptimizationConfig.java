@@ -38,6 +38,10 @@ public class PhysicalOptimizationConfig {
     private static final String DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE = "DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE";
     private static final String SORT_PARALLEL = "SORT_PARALLEL";
     private static final String SORT_SAMPLES = "SORT_SAMPLES";
+    private static final String SCAN_PUSHDOWN = "SCAN_PUSHDOWN";
+    private static final String JOIN_FILTER = "JOIN_FILTER";
+    private static final String PIPELINE_FUSION = "PIPELINE_FUSION";
+    private static final String GROUPBY_ADAPTIVE = "GROUPBY_ADAPTIVE";
 
     private Properties properties = new Properties();
 
@@ -162,6 +166,38 @@ public class PhysicalOptimizationConfig {
         setInt(SORT_SAMPLES, sortSamples);
     }
 
+    public boolean getScanPushdown() {
+        return getBoolean(SCAN_PUSHDOWN, AlgebricksConfig.SCAN_PUSHDOWN);
+    }
+
+    public void setScanPushdown(boolean scanPushdown) {
+        setBoolean(SCAN_PUSHDOWN, scanPushdown);
+    }
+
+    public boolean getJoinFilter() {
+        return getBoolean(JOIN_FILTER, AlgebricksConfig.JOIN_FILTER);
+    }
+
+    public void setJoinFilter(boolean joinFilter) {
+        setBoolean(JOIN_FILTER, joinFilter);
+    }
+
+    public boolean getPipelineFusion() {
+        return getBoolean(PIPELINE_FUSION, AlgebricksConfig.PIPELINE_FUSION);
+    }
+
+    public void setPipelineFusion(boolean pipelineFusion) {
+        setBoolean(PIPELINE_FUSION, pipelineFusion);
+    }
+
+    public boolean getGroupByAdaptive() {
+        return getBoolean(GROUPBY_ADAPTIVE, AlgebricksConfig.GROUPBY_ADAPTIVE);
+    }
+
+    public void setGroupByAdaptive(boolean groupByAdaptive) {
+        setBoolean(GROUPBY_ADAPTIVE, groupByAdaptive);
+    }
+
     private void setInt(String property, int value) {
         properties.setProperty(property, Integer.toString(value));
     }
@@ -178,7 +178,8 @@ public class SetAlgebricksPhysicalOperatorsRule implements IAlgebraicRewriteRule
                                     ExternalGroupByPOperator externalGby = new ExternalGroupByPOperator(
                                             gby.getGroupByList(), physicalOptimizationConfig.getMaxFramesForGroupBy(),
                                             (long) physicalOptimizationConfig.getMaxFramesForGroupBy()
-                                                    * physicalOptimizationConfig.getFrameSize());
+                                                    * physicalOptimizationConfig.getFrameSize(),
+                                            physicalOptimizationConfig.getGroupByAdaptive());
                                     op.setPhysicalOperator(externalGby);
                                     break;
                                 }
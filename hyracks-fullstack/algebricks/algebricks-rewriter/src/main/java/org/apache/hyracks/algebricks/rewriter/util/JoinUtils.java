@@ -46,6 +46,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.InMemoryHas
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.NestedLoopJoinPOperator;
 import org.apache.hyracks.algebricks.core.algebra.properties.ILogicalPropertiesVector;
 import org.apache.hyracks.algebricks.core.config.AlgebricksConfig;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
 
 public class JoinUtils {
     private JoinUtils() {
@@ -103,12 +104,31 @@ public class JoinUtils {
                 context.getPhysicalOptimizationConfig().getMaxFramesForJoin(),
                 context.getPhysicalOptimizationConfig().getMaxFramesForJoinLeftInput(),
                 context.getPhysicalOptimizationConfig().getMaxRecordsPerFrame(),
-                context.getPhysicalOptimizationConfig().getFudgeFactor()));
+                context.getPhysicalOptimizationConfig().getFudgeFactor(), useJoinFilter(op, context)));
         if (partitioningType == JoinPartitioningType.BROADCAST) {
             hybridToInMemHashJoin(op, context);
         }
     }
 
+    /**
+     * A join filter only pays off for an inner join whose build side does not fit in memory, since only the probe
+     * tuples that would be spilled are filtered. It is not used when the size of the build side is unknown.
+     */
+    private static boolean useJoinFilter(AbstractBinaryJoinOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        PhysicalOptimizationConfig physicalConfig = context.getPhysicalOptimizationConfig();
+        if (!physicalConfig.getJoinFilter() || op.getJoinKind() != AbstractBinaryJoinOperator.JoinKind.INNER) {
+            return false;
+        }
+        ILogicalOperator opBuild = op.getInputs().get(1).getValue();
+        LogicalPropertiesVisitor.computeLogicalPropertiesDFS(opBuild, context);
+        ILogicalPropertiesVector v = context.getLogicalPropertiesVector(opBuild);
+        if (v == null || v.getMaxOutputFrames() <= 0) {
+            return false;
+        }
+        return v.getMaxOutputFrames() * physicalConfig.getFudgeFactor() > physicalConfig.getMaxFramesForJoin();
+    }
+
     private static void hybridToInMemHashJoin(AbstractBinaryJoinOperator op, IOptimizationContext context)
             throws AlgebricksException {
         ILogicalOperator opBuild = op.getInputs().get(1).getValue();
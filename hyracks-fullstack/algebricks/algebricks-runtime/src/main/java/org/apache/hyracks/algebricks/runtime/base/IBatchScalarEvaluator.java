@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A scalar evaluator that can also evaluate its expression for a batch of tuples of a frame at once.
+ * Runtimes evaluate a whole frame through this interface when
+ * {@link org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators#asBatch(IScalarEvaluator)} returns
+ * the root evaluator of an expression, and batch evaluators evaluate their arguments the same way. An evaluator
+ * whose arguments are not all batch evaluators is only evaluated through the per-tuple
+ * {@link IScalarEvaluator#evaluate} path.
+ */
+public interface IBatchScalarEvaluator extends IScalarEvaluator {
+
+    /**
+     * @return whether the whole expression can be evaluated in batches, false if some argument is only evaluated
+     *         tuple by tuple
+     */
+    default boolean canEvaluateBatches() {
+        return true;
+    }
+
+    /**
+     * Evaluates the expression for the tuples of the frame whose indexes are in the first {@code size} entries of
+     * the selection. The value of the tuple at index t is stored at position t of the result, the other positions
+     * of the result are left undefined. The caller resets the result for the tuples of the frame beforehand.
+     *
+     * @param accessor
+     *            the frame
+     * @param selection
+     *            the indexes of the tuples to evaluate in increasing order
+     * @param size
+     *            the number of tuples to evaluate
+     * @param result
+     *            the values of the expression
+     * @throws org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException
+     *             if the expression fails for a tuple, with the exception of the per-tuple evaluation of the tuple
+     */
+    void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result)
+            throws HyracksDataException;
+}
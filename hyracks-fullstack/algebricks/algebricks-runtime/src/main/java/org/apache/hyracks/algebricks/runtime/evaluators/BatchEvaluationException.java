@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Thrown by a batch evaluator when the expression fails for a tuple of the batch. It carries the index of the tuple
+ * in the frame so that the runtime can report the failure the same way as the per-tuple path.
+ */
+public class BatchEvaluationException extends HyracksDataException {
+    private static final long serialVersionUID = 1L;
+
+    private final HyracksDataException failure;
+    private final int tupleIndex;
+
+    public BatchEvaluationException(HyracksDataException failure, int tupleIndex) {
+        super(failure);
+        this.failure = failure;
+        this.tupleIndex = tupleIndex;
+    }
+
+    /**
+     * @return the exception the per-tuple evaluation of the failing tuple throws
+     */
+    public HyracksDataException getFailure() {
+        return failure;
+    }
+
+    public int getTupleIndex() {
+        return tupleIndex;
+    }
+}
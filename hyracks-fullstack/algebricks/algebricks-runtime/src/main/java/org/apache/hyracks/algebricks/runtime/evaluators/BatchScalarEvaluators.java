@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+
+public class BatchScalarEvaluators {
+
+    private BatchScalarEvaluators() {
+    }
+
+    /**
+     * @return the given evaluator if it evaluates its whole expression in batches, otherwise null, in which case
+     *         the expression is evaluated tuple by tuple
+     */
+    public static IBatchScalarEvaluator asBatch(IScalarEvaluator eval) {
+        return eval instanceof IBatchScalarEvaluator && ((IBatchScalarEvaluator) eval).canEvaluateBatches()
+                ? (IBatchScalarEvaluator) eval : null;
+    }
+
+    /**
+     * @return the batch evaluators of the given evaluators if they all evaluate their expressions in batches,
+     *         otherwise null
+     */
+    public static IBatchScalarEvaluator[] asBatch(IScalarEvaluator[] evals) {
+        IBatchScalarEvaluator[] batchEvals = new IBatchScalarEvaluator[evals.length];
+        for (int i = 0; i < evals.length; i++) {
+            batchEvals[i] = asBatch(evals[i]);
+            if (batchEvals[i] == null) {
+                return null;
+            }
+        }
+        return batchEvals;
+    }
+
+    /**
+     * @return a selection of the first {@code size} tuples, reusing the given one if it is large enough
+     */
+    public static int[] selectAll(int[] selection, int size) {
+        int[] result = selection != null && selection.length >= size ? selection : new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+}
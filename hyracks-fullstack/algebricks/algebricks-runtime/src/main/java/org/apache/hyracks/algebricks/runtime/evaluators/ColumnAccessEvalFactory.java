@@ -18,8 +18,10 @@
  */
 package org.apache.hyracks.algebricks.runtime.evaluators;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
@@ -42,7 +44,7 @@ public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
 
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
@@ -51,6 +53,17 @@ public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
                 int length = tuple.getFieldLength(fieldIndex);
                 result.set(buffer, start, length);
             }
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result) {
+                // references the fields in the frame
+                byte[] buffer = accessor.getBuffer().array();
+                for (int i = 0; i < size; i++) {
+                    int tIndex = selection[i];
+                    result.set(tIndex, buffer, accessor.getAbsoluteFieldStartOffset(tIndex, fieldIndex),
+                            accessor.getFieldLength(tIndex, fieldIndex));
+                }
+            }
         };
     }
 
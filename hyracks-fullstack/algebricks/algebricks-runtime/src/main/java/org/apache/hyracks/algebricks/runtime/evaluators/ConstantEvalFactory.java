@@ -18,8 +18,10 @@
  */
 package org.apache.hyracks.algebricks.runtime.evaluators;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
@@ -45,12 +47,19 @@ public class ConstantEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
 
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
                 result.set(value, 0, value.length);
             }
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, ValueVector result) {
+                for (int i = 0; i < size; i++) {
+                    result.set(selection[i], value, 0, value.length);
+                }
+            }
         };
     }
 
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.GrowableArray;
+
+/**
+ * The values of an expression for the tuples of a frame, indexed by tuple index.
+ * A value either references bytes that stay valid until the vector is reset, such as the frame being evaluated or
+ * a constant, or is copied into the storage of the vector.
+ */
+public class ValueVector {
+    private final GrowableArray storage = new GrowableArray();
+    // null if the value is in the storage, whose array may change as it grows
+    private byte[][] arrays = new byte[0][];
+    private int[] starts = new int[0];
+    private int[] lengths = new int[0];
+
+    /**
+     * Drops the values of the vector and makes room for the values of the given number of tuples.
+     */
+    public void reset(int tupleCount) {
+        if (arrays.length < tupleCount) {
+            arrays = new byte[tupleCount][];
+            starts = new int[tupleCount];
+            lengths = new int[tupleCount];
+        }
+        storage.reset();
+    }
+
+    /**
+     * Sets the value of a tuple to the given bytes without copying them.
+     */
+    public void set(int tIndex, byte[] bytes, int start, int length) {
+        arrays[tIndex] = bytes;
+        starts[tIndex] = start;
+        lengths[tIndex] = length;
+    }
+
+    public void set(int tIndex, IValueReference value) {
+        set(tIndex, value.getByteArray(), value.getStartOffset(), value.getLength());
+    }
+
+    /**
+     * Sets the value of a tuple to a copy of the given bytes.
+     */
+    public void copy(int tIndex, byte[] bytes, int start, int length) throws HyracksDataException {
+        arrays[tIndex] = null;
+        starts[tIndex] = storage.getLength();
+        lengths[tIndex] = length;
+        try {
+            storage.append(bytes, start, length);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    public void copy(int tIndex, IValueReference value) throws HyracksDataException {
+        copy(tIndex, value.getByteArray(), value.getStartOffset(), value.getLength());
+    }
+
+    /**
+     * Sets the value of a tuple to the given type tag followed by a long, written to the storage of the vector.
+     */
+    public void copyLong(int tIndex, byte typeTag, long value) throws HyracksDataException {
+        DataOutput out = startCopy(tIndex, Byte.BYTES + Long.BYTES);
+        try {
+            out.writeByte(typeTag);
+            out.writeLong(value);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Sets the value of a tuple to the given type tag followed by a double, written to the storage of the vector.
+     */
+    public void copyDouble(int tIndex, byte typeTag, double value) throws HyracksDataException {
+        DataOutput out = startCopy(tIndex, Byte.BYTES + Double.BYTES);
+        try {
+            out.writeByte(typeTag);
+            out.writeDouble(value);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private DataOutput startCopy(int tIndex, int length) {
+        arrays[tIndex] = null;
+        starts[tIndex] = storage.getLength();
+        lengths[tIndex] = length;
+        return storage.getDataOutput();
+    }
+
+    public void get(int tIndex, IPointable value) {
+        value.set(getByteArray(tIndex), starts[tIndex], lengths[tIndex]);
+    }
+
+    public byte[] getByteArray(int tIndex) {
+        byte[] bytes = arrays[tIndex];
+        return bytes != null ? bytes : storage.getByteArray();
+    }
+
+    public int getStartOffset(int tIndex) {
+        return starts[tIndex];
+    }
+
+    public int getLength(int tIndex) {
+        return lengths[tIndex];
+    }
+}
@@ -32,6 +32,10 @@ public abstract class AbstractOneInputOneOutputRuntimeFactory extends AbstractPu
         this.projectionList = projectionList;
     }
 
+    public int[] getProjectionList() {
+        return projectionList;
+    }
+
     @Override
     public IPushRuntime[] createPushRuntime(IHyracksTaskContext ctx) throws HyracksDataException {
         return new IPushRuntime[] { createOneOutputPushRuntime(ctx) };
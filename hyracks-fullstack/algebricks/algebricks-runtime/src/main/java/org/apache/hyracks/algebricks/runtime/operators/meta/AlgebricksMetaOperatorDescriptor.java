@@ -42,6 +42,10 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
 
     // array of factories for building the local runtime pipeline
     private final AlgebricksPipeline pipeline;
+    // whether to run the chains of assign/select/project micro-operators as fused micro-operators
+    private boolean fusePipeline;
+    // the executed pipeline, built once per deserialized descriptor
+    private transient AlgebricksPipeline executablePipeline;
 
     public AlgebricksMetaOperatorDescriptor(IOperatorDescriptorRegistry spec, int inputArity, int outputArity,
             IPushRuntimeFactory[] runtimeFactories, RecordDescriptor[] internalRecordDescriptors) {
@@ -63,6 +67,21 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
         return pipeline;
     }
 
+    public boolean isFusePipeline() {
+        return fusePipeline;
+    }
+
+    public void setFusePipeline(boolean fusePipeline) {
+        this.fusePipeline = fusePipeline;
+    }
+
+    private synchronized AlgebricksPipeline getExecutablePipeline() {
+        if (executablePipeline == null) {
+            executablePipeline = fusePipeline ? PipelineFuser.fuse(pipeline) : pipeline;
+        }
+        return executablePipeline;
+    }
+
     @Override
     public ObjectNode toJSON() {
         ObjectNode json = super.toJSON();
@@ -97,8 +116,8 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
             IFrameWriter startOfPipeline;
             RecordDescriptor pipelineOutputRecordDescriptor =
                     outputArity > 0 ? AlgebricksMetaOperatorDescriptor.this.outRecDescs[0] : null;
-            PipelineAssembler pa =
-                    new PipelineAssembler(pipeline, inputArity, outputArity, null, pipelineOutputRecordDescriptor);
+            PipelineAssembler pa = new PipelineAssembler(getExecutablePipeline(), inputArity, outputArity, null,
+                    pipelineOutputRecordDescriptor);
             startOfPipeline = pa.assemblePipeline(writer, ctx);
             HyracksDataException exception = null;
             try {
@@ -137,7 +156,7 @@ public class AlgebricksMetaOperatorDescriptor extends AbstractSingleActivityOper
                             outputArity > 0 ? AlgebricksMetaOperatorDescriptor.this.outRecDescs[0] : null;
                     RecordDescriptor pipelineInputRecordDescriptor = recordDescProvider
                             .getInputRecordDescriptor(AlgebricksMetaOperatorDescriptor.this.getActivityId(), 0);
-                    PipelineAssembler pa = new PipelineAssembler(pipeline, inputArity, outputArity,
+                    PipelineAssembler pa = new PipelineAssembler(getExecutablePipeline(), inputArity, outputArity,
                             pipelineInputRecordDescriptor, pipelineOutputRecordDescriptor);
                     startOfPipeline = pa.assemblePipeline(writer, ctx);
                 }
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.meta;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Runs a chain of assign, select and project micro-operators as a single micro-operator. Each input tuple goes
+ * through all the stages before it is appended to the output frame, so the tuples produced by the intermediate stages
+ * are neither copied into frames nor pushed from one runtime to the next. The fields of these tuples reference the
+ * input frame or the values computed by the assigns for the current tuple.
+ * <p>
+ * No code is generated: the scalar evaluators of the stages are still interpreted, only the frame handling between
+ * the stages is removed.
+ */
+public class FusedPipelineRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AbstractOneInputOneOutputRuntimeFactory[] stages;
+    private final boolean flushFramesRapidly;
+
+    /**
+     * @param stages
+     *            the assign, select (without retained missing values) and project factories in pipeline order
+     * @param flushFramesRapidly
+     *            whether to push the output frame after each input frame
+     */
+    public FusedPipelineRuntimeFactory(AbstractOneInputOneOutputRuntimeFactory[] stages, boolean flushFramesRapidly) {
+        super(null);
+        this.stages = stages;
+        this.flushFramesRapidly = flushFramesRapidly;
+    }
+
+    public AbstractOneInputOneOutputRuntimeFactory[] getStages() {
+        return stages;
+    }
+
+    @Override
+    public String toString() {
+        return "fused " + Arrays.toString(stages);
+    }
+
+    @Override
+    public AbstractOneInputOneOutputOneFramePushRuntime createOneOutputPushRuntime(final IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        return new AbstractOneInputOneOutputOneFramePushRuntime() {
+            // the values computed for the current tuple
+            private final ArrayBackedValueStorage values = new ArrayBackedValueStorage();
+            private final FusedTupleReference[] tuples =
+                    { new FusedTupleReference(values), new FusedTupleReference(values) };
+            private Stage[] stageRuntimes;
+            private ArrayTupleBuilder tupleBuilder;
+
+            @Override
+            public void open() throws HyracksDataException {
+                if (stageRuntimes == null) {
+                    initAccessAppend(ctx);
+                    stageRuntimes = new Stage[stages.length];
+                    for (int i = 0; i < stages.length; i++) {
+                        stageRuntimes[i] = createStage(stages[i], ctx);
+                    }
+                }
+                super.open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                tAccess.reset(buffer);
+                int nTuple = tAccess.getTupleCount();
+                if (nTuple == 0) {
+                    appender.flush(writer);
+                    return;
+                }
+                for (int t = 0; t < nTuple; t++) {
+                    values.reset();
+                    FusedTupleReference tuple = tuples[0];
+                    tuple.reset(tAccess, t);
+                    for (int i = 0; i < stageRuntimes.length && tuple != null; i++) {
+                        tuple = stageRuntimes[i].process(tuple, tuple == tuples[0] ? tuples[1] : tuples[0], t);
+                    }
+                    if (tuple != null) {
+                        appendTuple(tuple);
+                    }
+                }
+                if (flushFramesRapidly) {
+                    // pushes the frame to the next operator once all the tuples of the input frame are consumed
+                    flushAndReset();
+                }
+            }
+
+            private void appendTuple(FusedTupleReference tuple) throws HyracksDataException {
+                int fieldCount = tuple.getFieldCount();
+                if (tupleBuilder == null) {
+                    tupleBuilder = new ArrayTupleBuilder(fieldCount);
+                }
+                tupleBuilder.reset();
+                for (int f = 0; f < fieldCount; f++) {
+                    tupleBuilder.addField(tuple.getFieldData(f), tuple.getFieldStart(f), tuple.getFieldLength(f));
+                }
+                appendToFrameFromTupleBuilder(tupleBuilder);
+            }
+
+            @Override
+            public void flush() throws HyracksDataException {
+                appender.flush(writer);
+            }
+        };
+    }
+
+    private static Stage createStage(AbstractOneInputOneOutputRuntimeFactory factory, IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        if (factory instanceof AssignRuntimeFactory) {
+            AssignRuntimeFactory assign = (AssignRuntimeFactory) factory;
+            IScalarEvaluatorFactory[] evalFactories = assign.getEvalFactories();
+            IScalarEvaluator[] evals = new IScalarEvaluator[evalFactories.length];
+            for (int i = 0; i < evals.length; i++) {
+                evals[i] = evalFactories[i].createScalarEvaluator(ctx);
+            }
+            return new AssignStage(evals, assign.getOutColumns(), assign.getProjectionList(),
+                    assign.getSourceLocation());
+        } else if (factory instanceof StreamSelectRuntimeFactory) {
+            StreamSelectRuntimeFactory select = (StreamSelectRuntimeFactory) factory;
+            return new SelectStage(select.getCondition().createScalarEvaluator(ctx),
+                    select.getBinaryBooleanInspectorFactory().createBinaryBooleanInspector(ctx),
+                    select.getProjectionList());
+        } else {
+            return new ProjectStage(factory.getProjectionList());
+        }
+    }
+
+    private abstract static class Stage {
+        /**
+         * @param in
+         *            the tuple produced by the previous stage
+         * @param out
+         *            a tuple that the stage may overwrite
+         * @param tIndex
+         *            the index of the tuple in the input frame
+         * @return the tuple produced by the stage, or {@code null} if the tuple was filtered out
+         */
+        abstract FusedTupleReference process(FusedTupleReference in, FusedTupleReference out, int tIndex)
+                throws HyracksDataException;
+    }
+
+    private static class AssignStage extends Stage {
+        private final IScalarEvaluator[] evals;
+        private final int[] projectionList;
+        private final int[] projectionToOutColumns;
+        private final SourceLocation sourceLoc;
+        private final IPointable result = VoidPointable.FACTORY.createPointable();
+
+        AssignStage(IScalarEvaluator[] evals, int[] outColumns, int[] projectionList, SourceLocation sourceLoc) {
+            this.evals = evals;
+            this.projectionList = projectionList;
+            this.sourceLoc = sourceLoc;
+            projectionToOutColumns = new int[projectionList.length];
+            for (int j = 0; j < projectionList.length; j++) {
+                projectionToOutColumns[j] = Arrays.binarySearch(outColumns, projectionList[j]);
+            }
+        }
+
+        @Override
+        FusedTupleReference process(FusedTupleReference in, FusedTupleReference out, int tIndex)
+                throws HyracksDataException {
+            try {
+                out.reset(in, projectionList.length);
+                for (int f = 0; f < projectionList.length; f++) {
+                    int k = projectionToOutColumns[f];
+                    if (k >= 0) {
+                        evals[k].evaluate(in, result);
+                        out.setValue(f, result);
+                    } else {
+                        out.setField(f, in, projectionList[f]);
+                    }
+                }
+                return out;
+            } catch (HyracksDataException e) {
+                throw HyracksDataException.create(ErrorCode.ERROR_PROCESSING_TUPLE, e, sourceLoc, tIndex);
+            }
+        }
+    }
+
+    private static class SelectStage extends Stage {
+        private final IScalarEvaluator eval;
+        private final IBinaryBooleanInspector bbi;
+        private final int[] projectionList;
+        private final IPointable p = VoidPointable.FACTORY.createPointable();
+
+        SelectStage(IScalarEvaluator eval, IBinaryBooleanInspector bbi, int[] projectionList) {
+            this.eval = eval;
+            this.bbi = bbi;
+            this.projectionList = projectionList;
+        }
+
+        @Override
+        FusedTupleReference process(FusedTupleReference in, FusedTupleReference out, int tIndex)
+                throws HyracksDataException {
+            eval.evaluate(in, p);
+            if (!bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
+                return null;
+            }
+            if (projectionList == null) {
+                return in;
+            }
+            out.project(in, projectionList);
+            return out;
+        }
+    }
+
+    private static class ProjectStage extends Stage {
+        private final int[] projectionList;
+
+        ProjectStage(int[] projectionList) {
+            this.projectionList = projectionList;
+        }
+
+        @Override
+        FusedTupleReference process(FusedTupleReference in, FusedTupleReference out, int tIndex) {
+            out.project(in, projectionList);
+            return out;
+        }
+    }
+
+    /**
+     * A tuple whose fields reference either an input frame or the values computed for the current tuple. The values
+     * are referenced by offset since their storage may be reallocated as it grows.
+     */
+    private static class FusedTupleReference implements IFrameTupleReference {
+        private final ArrayBackedValueStorage values;
+        // null for the fields stored in the values
+        private byte[][] data = new byte[0][];
+        private int[] starts = new int[0];
+        private int[] lengths = new int[0];
+        private int fieldCount;
+        private IFrameTupleAccessor accessor;
+        private int tIndex;
+
+        FusedTupleReference(ArrayBackedValueStorage values) {
+            this.values = values;
+        }
+
+        void reset(IFrameTupleAccessor accessor, int tIndex) {
+            setFieldCount(accessor.getFieldCount());
+            this.accessor = accessor;
+            this.tIndex = tIndex;
+            byte[] frame = accessor.getBuffer().array();
+            for (int f = 0; f < fieldCount; f++) {
+                data[f] = frame;
+                starts[f] = accessor.getAbsoluteFieldStartOffset(tIndex, f);
+                lengths[f] = accessor.getFieldLength(tIndex, f);
+            }
+        }
+
+        void reset(FusedTupleReference source, int fieldCount) {
+            setFieldCount(fieldCount);
+            this.accessor = source.accessor;
+            this.tIndex = source.tIndex;
+        }
+
+        void project(FusedTupleReference source, int[] projectionList) {
+            reset(source, projectionList.length);
+            for (int f = 0; f < projectionList.length; f++) {
+                setField(f, source, projectionList[f]);
+            }
+        }
+
+        void setField(int f, FusedTupleReference source, int sourceField) {
+            data[f] = source.data[sourceField];
+            starts[f] = source.starts[sourceField];
+            lengths[f] = source.lengths[sourceField];
+        }
+
+        void setValue(int f, IPointable value) throws HyracksDataException {
+            data[f] = null;
+            starts[f] = values.getLength();
+            lengths[f] = value.getLength();
+            values.append(value);
+        }
+
+        private void setFieldCount(int fieldCount) {
+            if (data.length < fieldCount) {
+                data = new byte[fieldCount][];
+                starts = new int[fieldCount];
+                lengths = new int[fieldCount];
+            }
+            this.fieldCount = fieldCount;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return fieldCount;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            byte[] bytes = data[fIdx];
+            return bytes != null ? bytes : values.getByteArray();
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return starts[fIdx];
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return lengths[fIdx];
+        }
+
+        @Override
+        public IFrameTupleAccessor getFrameTupleAccessor() {
+            return accessor;
+        }
+
+        @Override
+        public int getTupleIndex() {
+            return tIndex;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.meta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.algebricks.runtime.base.AlgebricksPipeline;
+import org.apache.hyracks.algebricks.runtime.base.IPushRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamProjectRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+
+/**
+ * Replaces the chains of at least two assign, select and project micro-operators of a pipeline by
+ * {@link FusedPipelineRuntimeFactory fused} micro-operators.
+ */
+public class PipelineFuser {
+
+    private PipelineFuser() {
+    }
+
+    /**
+     * @return the pipeline with its chains fused, or the given pipeline if it has no chain to fuse
+     */
+    public static AlgebricksPipeline fuse(AlgebricksPipeline pipeline) {
+        IPushRuntimeFactory[] runtimeFactories = pipeline.getRuntimeFactories();
+        RecordDescriptor[] recordDescriptors = pipeline.getRecordDescriptors();
+        List<IPushRuntimeFactory> fusedFactories = new ArrayList<>();
+        List<RecordDescriptor> fusedRecordDescriptors = new ArrayList<>();
+        int i = 0;
+        while (i < runtimeFactories.length) {
+            int end = i;
+            while (end < runtimeFactories.length && isFusible(runtimeFactories[end])) {
+                end++;
+            }
+            if (end - i > 1) {
+                AbstractOneInputOneOutputRuntimeFactory[] stages = new AbstractOneInputOneOutputRuntimeFactory[end - i];
+                for (int j = 0; j < stages.length; j++) {
+                    stages[j] = (AbstractOneInputOneOutputRuntimeFactory) runtimeFactories[i + j];
+                }
+                // only the last stage decides when the fused output frames are pushed
+                fusedFactories.add(new FusedPipelineRuntimeFactory(stages, isFlushFramesRapidly(stages[end - i - 1])));
+                fusedRecordDescriptors.add(recordDescriptors[end - 1]);
+                i = end;
+            } else {
+                fusedFactories.add(runtimeFactories[i]);
+                fusedRecordDescriptors.add(recordDescriptors[i]);
+                i++;
+            }
+        }
+        if (fusedFactories.size() == runtimeFactories.length) {
+            return pipeline;
+        }
+        return new AlgebricksPipeline(fusedFactories.toArray(new IPushRuntimeFactory[0]),
+                fusedRecordDescriptors.toArray(new RecordDescriptor[0]), pipeline.getOutputRuntimeFactories(),
+                pipeline.getOutputPositions());
+    }
+
+    private static boolean isFusible(IPushRuntimeFactory runtimeFactory) {
+        if (runtimeFactory instanceof StreamSelectRuntimeFactory) {
+            // the missing placeholder tuples of outer selects are not supported
+            return !((StreamSelectRuntimeFactory) runtimeFactory).isRetainMissing();
+        }
+        return runtimeFactory instanceof AssignRuntimeFactory || runtimeFactory instanceof StreamProjectRuntimeFactory;
+    }
+
+    private static boolean isFlushFramesRapidly(AbstractOneInputOneOutputRuntimeFactory stage) {
+        if (stage instanceof AssignRuntimeFactory) {
+            return ((AssignRuntimeFactory) stage).isFlushFramesRapidly();
+        } else if (stage instanceof StreamProjectRuntimeFactory) {
+            return ((StreamProjectRuntimeFactory) stage).isFlushFramesRapidly();
+        }
+        return false;
+    }
+}
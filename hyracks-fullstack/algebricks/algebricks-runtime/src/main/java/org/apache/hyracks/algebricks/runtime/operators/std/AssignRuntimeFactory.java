@@ -21,8 +21,12 @@ package org.apache.hyracks.algebricks.runtime.operators.std;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
@@ -62,6 +66,18 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         this.flushFramesRapidly = flushFramesRapidly;
     }
 
+    public int[] getOutColumns() {
+        return outColumns;
+    }
+
+    public IScalarEvaluatorFactory[] getEvalFactories() {
+        return evalFactories;
+    }
+
+    public boolean isFlushFramesRapidly() {
+        return flushFramesRapidly;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -94,6 +110,11 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         return new AbstractOneInputOneOutputOneFramePushRuntime() {
             private IPointable result = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator[] eval = new IScalarEvaluator[evalFactories.length];
+            // the evaluators that evaluate whole frames at once and their values, null for the others
+            private IBatchScalarEvaluator[] batchEval = new IBatchScalarEvaluator[evalFactories.length];
+            private ValueVector[] batchValues = new ValueVector[evalFactories.length];
+            private boolean hasBatchEval = false;
+            private int[] selection;
             private ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(projectionList.length);
             private boolean first = true;
             private int tupleIndex = 0;
@@ -106,6 +127,11 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     int n = evalFactories.length;
                     for (int i = 0; i < n; i++) {
                         eval[i] = evalFactories[i].createScalarEvaluator(ctx);
+                        batchEval[i] = BatchScalarEvaluators.asBatch(eval[i]);
+                        if (batchEval[i] != null) {
+                            batchValues[i] = new ValueVector();
+                            hasBatchEval = true;
+                        }
                     }
                 }
                 super.open();
@@ -122,6 +148,9 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     }
                     appender.flush(writer);
                 } else {
+                    if (hasBatchEval) {
+                        evaluateBatches(nTuple);
+                    }
                     if (nTuple > 1) {
                         for (; tupleIndex < nTuple - 1; tupleIndex++) {
                             tRef.reset(tAccess, tupleIndex);
@@ -149,13 +178,32 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                 tupleIndex = 0;
             }
 
+            private void evaluateBatches(int nTuple) throws HyracksDataException {
+                selection = BatchScalarEvaluators.selectAll(selection, nTuple);
+                try {
+                    for (int i = 0; i < batchEval.length; i++) {
+                        if (batchEval[i] != null) {
+                            batchValues[i].reset(nTuple);
+                            batchEval[i].evaluate(tAccess, selection, nTuple, batchValues[i]);
+                        }
+                    }
+                } catch (BatchEvaluationException e) {
+                    throw HyracksDataException.create(ErrorCode.ERROR_PROCESSING_TUPLE, e.getFailure(), sourceLoc,
+                            e.getTupleIndex());
+                }
+            }
+
             private void produceTuple(ArrayTupleBuilder tb, IFrameTupleAccessor accessor, int tIndex,
                     FrameTupleReference tupleRef) throws HyracksDataException {
                 try {
                     tb.reset();
                     for (int f = 0; f < projectionList.length; f++) {
                         int k = projectionToOutColumns[f];
-                        if (k >= 0) {
+                        if (k >= 0 && batchEval[k] != null) {
+                            ValueVector values = batchValues[k];
+                            tb.addField(values.getByteArray(tIndex), values.getStartOffset(tIndex),
+                                    values.getLength(tIndex));
+                        } else if (k >= 0) {
                             eval[k].evaluate(tupleRef, result);
                             tb.addField(result.getByteArray(), result.getStartOffset(), result.getLength());
                         } else {
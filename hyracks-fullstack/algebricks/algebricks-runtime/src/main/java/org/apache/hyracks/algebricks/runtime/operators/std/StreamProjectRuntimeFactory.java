@@ -40,6 +40,10 @@ public class StreamProjectRuntimeFactory extends AbstractOneInputOneOutputRuntim
         this(projectionList, false);
     }
 
+    public boolean isFlushFramesRapidly() {
+        return flushFramesRapidly;
+    }
+
     @Override
     public String toString() {
         return "stream-project " + Arrays.toString(projectionList);
@@ -23,8 +23,12 @@ import java.nio.ByteBuffer;
 
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluationException;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchScalarEvaluators;
+import org.apache.hyracks.algebricks.runtime.evaluators.ValueVector;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFieldFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
@@ -72,6 +76,18 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         this.missingPlaceholderVariableIndex = index;
     }
 
+    public IScalarEvaluatorFactory getCondition() {
+        return cond;
+    }
+
+    public IBinaryBooleanInspectorFactory getBinaryBooleanInspectorFactory() {
+        return binaryBooleanInspectorFactory;
+    }
+
+    public boolean isRetainMissing() {
+        return retainMissing;
+    }
+
     @Override
     public String toString() {
         return "stream-select " + cond.toString();
@@ -83,6 +99,10 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         return new AbstractOneInputOneOutputOneFieldFramePushRuntime() {
             private IPointable p = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator eval;
+            // set if the condition evaluates whole frames at once
+            private IBatchScalarEvaluator batchEval;
+            private ValueVector condValues;
+            private int[] selection;
             private IMissingWriter missingWriter = null;
             private ArrayTupleBuilder missingTupleBuilder = null;
 
@@ -91,6 +111,10 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
                 if (eval == null) {
                     initAccessAppendFieldRef(ctx);
                     eval = cond.createScalarEvaluator(ctx);
+                    batchEval = BatchScalarEvaluators.asBatch(eval);
+                    if (batchEval != null) {
+                        condValues = new ValueVector();
+                    }
                 }
                 super.open();
                 //prepare nullTupleBuilder
@@ -107,9 +131,22 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
             public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
                 tAccess.reset(buffer);
                 int nTuple = tAccess.getTupleCount();
+                if (batchEval != null) {
+                    selection = BatchScalarEvaluators.selectAll(selection, nTuple);
+                    condValues.reset(nTuple);
+                    try {
+                        batchEval.evaluate(tAccess, selection, nTuple, condValues);
+                    } catch (BatchEvaluationException e) {
+                        throw e.getFailure();
+                    }
+                }
                 for (int t = 0; t < nTuple; t++) {
                     tRef.reset(tAccess, t);
-                    eval.evaluate(tRef, p);
+                    if (batchEval != null) {
+                        condValues.get(t, p);
+                    } else {
+                        eval.evaluate(tRef, p);
+                    }
                     if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
                         if (projectionList != null) {
                             appendProjectionToFrame(t, projectionList);
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.tests.pushruntime;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.algebricks.data.impl.BinaryBooleanInspectorImpl;
+import org.apache.hyracks.algebricks.runtime.base.AlgebricksPipeline;
+import org.apache.hyracks.algebricks.runtime.base.IPushRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.TupleFieldEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.operators.meta.FusedPipelineRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.meta.PipelineAssembler;
+import org.apache.hyracks.algebricks.runtime.operators.meta.PipelineFuser;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamProjectRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that a fused chain of assign, select and project micro-operators produces the same tuples and failures as
+ * the chain of push runtimes it replaces.
+ */
+public class FusedPipelineTest {
+    private static final int FRAME_SIZE = 256;
+    private static final int NUM_TUPLES = 2000;
+    private static final RecordDescriptor[] INT_RECORD_DESCS = new RecordDescriptor[5];
+
+    static {
+        for (int i = 0; i < INT_RECORD_DESCS.length; i++) {
+            ISerializerDeserializer<?>[] fields = new ISerializerDeserializer[i];
+            Arrays.fill(fields, IntegerSerializerDeserializer.INSTANCE);
+            INT_RECORD_DESCS[i] = new RecordDescriptor(fields);
+        }
+    }
+
+    private final IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+
+    @Test
+    public void assignSelectAssignProject() throws Exception {
+        // $2 := $0 + $1; select $2 > 10; $3 := $2 + 5; project [$3, $0]
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { assign(2, add(field(0), field(1)), new int[] { 0, 1, 2 }, false),
+                        select(greaterThan(field(2), constant(10)), null),
+                        assign(3, add(field(2), constant(5)), new int[] { 0, 1, 2, 3 }, false),
+                        new StreamProjectRuntimeFactory(new int[] { 3, 0 }) }, 3, 3, 4, 2);
+        assertFusedEqualsUnfused(pipeline, 2, false);
+    }
+
+    @Test
+    public void selectWithProjectionAssignSelect() throws Exception {
+        // select $1 > 5 project [$1, $0]; $2 := $0 + $1 project [$2, $1]; select $0 > 20
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { select(greaterThan(field(1), constant(5)), new int[] { 1, 0 }),
+                        assign(2, add(field(0), field(1)), new int[] { 2, 1 }, false),
+                        select(greaterThan(field(0), constant(20)), null) }, 2, 2, 2);
+        assertFusedEqualsUnfused(pipeline, 2, false);
+    }
+
+    @Test
+    public void assignsFlushFramesRapidly() throws Exception {
+        // every input frame is pushed through before the next one arrives
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { assign(2, add(field(0), field(1)), new int[] { 0, 1, 2 }, true),
+                        assign(3, add(field(2), field(2)), new int[] { 3 }, true) }, 3, 1);
+        assertFusedEqualsUnfused(pipeline, 1, true);
+    }
+
+    @Test
+    public void failingAssign() throws Exception {
+        // the first stage fails on the same tuple of the input frame with and without fusion
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { assign(2, new FailingEvalFactory(37), new int[] { 0, 2 }, false),
+                        select(greaterThan(field(1), constant(3)), null) }, 2, 2);
+        HyracksDataException unfused = runAndFail(pipeline, 2);
+        HyracksDataException fused = runAndFail(PipelineFuser.fuse(pipeline), 2);
+        Assert.assertEquals(ErrorCode.ERROR_PROCESSING_TUPLE, unfused.getErrorCode());
+        Assert.assertEquals(unfused.getErrorCode(), fused.getErrorCode());
+        Assert.assertArrayEquals(unfused.getParams(), fused.getParams());
+        Assert.assertEquals(unfused.getCause().getMessage(), fused.getCause().getMessage());
+    }
+
+    @Test
+    public void failingAssignAfterSelect() throws Exception {
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { select(greaterThan(field(0), constant(30)), null),
+                        assign(2, new FailingEvalFactory(37), new int[] { 0, 2 }, false) }, 2, 2);
+        HyracksDataException fused = runAndFail(PipelineFuser.fuse(pipeline), 2);
+        Assert.assertEquals(ErrorCode.ERROR_PROCESSING_TUPLE, fused.getErrorCode());
+        // the fused pipeline reports the index of the failing tuple in its input frame
+        Assert.assertEquals(37 % tuplesPerFrame(), fused.getParams()[0]);
+        Assert.assertEquals(runAndFail(pipeline, 2).getCause().getMessage(), fused.getCause().getMessage());
+    }
+
+    @Test
+    public void failingSelect() throws Exception {
+        AlgebricksPipeline pipeline =
+                pipeline(new IPushRuntimeFactory[] { assign(2, add(field(0), field(1)), new int[] { 0, 1, 2 }, false),
+                        select(new FailingEvalFactory(37), null) }, 3, 3);
+        HyracksDataException unfused = runAndFail(pipeline, 3);
+        HyracksDataException fused = runAndFail(PipelineFuser.fuse(pipeline), 3);
+        Assert.assertEquals(unfused.getErrorCode(), fused.getErrorCode());
+        Assert.assertEquals(unfused.getMessage(), fused.getMessage());
+    }
+
+    private void assertFusedEqualsUnfused(AlgebricksPipeline pipeline, int outputFieldCount, boolean flushFramesRapidly)
+            throws HyracksDataException {
+        AlgebricksPipeline fused = PipelineFuser.fuse(pipeline);
+        Assert.assertEquals(1, fused.getRuntimeFactories().length);
+        Assert.assertTrue(fused.getRuntimeFactories()[0] instanceof FusedPipelineRuntimeFactory);
+
+        TupleCollector unfusedOutput = run(pipeline, outputFieldCount);
+        TupleCollector fusedOutput = run(fused, outputFieldCount);
+        Assert.assertFalse(unfusedOutput.tuples.isEmpty());
+        Assert.assertEquals(unfusedOutput.tuples.size(), fusedOutput.tuples.size());
+        for (int i = 0; i < unfusedOutput.tuples.size(); i++) {
+            Assert.assertArrayEquals("tuple " + i, unfusedOutput.tuples.get(i), fusedOutput.tuples.get(i));
+        }
+        if (flushFramesRapidly) {
+            // the output of each input frame reached the writer before the next input frame
+            Assert.assertEquals(unfusedOutput.tupleCountsAfterInputFrames, fusedOutput.tupleCountsAfterInputFrames);
+            List<Integer> inputTupleCounts = new ArrayList<>();
+            for (int count = 0; count < NUM_TUPLES;) {
+                count = Math.min(NUM_TUPLES, count + tuplesPerFrame());
+                inputTupleCounts.add(count);
+            }
+            Assert.assertEquals(inputTupleCounts, fusedOutput.tupleCountsAfterInputFrames);
+        }
+    }
+
+    private TupleCollector run(AlgebricksPipeline pipeline, int outputFieldCount) throws HyracksDataException {
+        TupleCollector collector = new TupleCollector(INT_RECORD_DESCS[outputFieldCount]);
+        IFrameWriter start =
+                new PipelineAssembler(pipeline, 1, 1, INT_RECORD_DESCS[2], INT_RECORD_DESCS[outputFieldCount])
+                        .assemblePipeline(collector, ctx);
+        start.open();
+        try {
+            for (ByteBuffer frame : createInput()) {
+                start.nextFrame(frame);
+                collector.tupleCountsAfterInputFrames.add(collector.tuples.size());
+            }
+        } catch (Throwable th) {
+            start.fail();
+            throw th;
+        } finally {
+            start.close();
+        }
+        return collector;
+    }
+
+    private HyracksDataException runAndFail(AlgebricksPipeline pipeline, int outputFieldCount) {
+        try {
+            run(pipeline, outputFieldCount);
+        } catch (HyracksDataException e) {
+            return e;
+        }
+        throw new AssertionError("the pipeline did not fail");
+    }
+
+    /**
+     * @return frames of tuples ($0, $1) with $0 from 0 to NUM_TUPLES - 1 and $1 = $0 * 7 mod 13
+     */
+    private List<ByteBuffer> createInput() throws HyracksDataException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, i);
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, i * 7 % 13);
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                frames.add(copy(frame));
+                appender.reset(frame, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        frames.add(copy(frame));
+        return frames;
+    }
+
+    private int tuplesPerFrame() throws HyracksDataException {
+        FrameTupleAccessor accessor = new FrameTupleAccessor(INT_RECORD_DESCS[2]);
+        accessor.reset(createInput().get(0));
+        return accessor.getTupleCount();
+    }
+
+    private static ByteBuffer copy(VSizeFrame frame) {
+        return ByteBuffer.wrap(Arrays.copyOf(frame.getBuffer().array(), frame.getFrameSize()));
+    }
+
+    private static AlgebricksPipeline pipeline(IPushRuntimeFactory[] factories, int... outputFieldCounts) {
+        RecordDescriptor[] recordDescs = new RecordDescriptor[outputFieldCounts.length];
+        for (int i = 0; i < recordDescs.length; i++) {
+            recordDescs[i] = INT_RECORD_DESCS[outputFieldCounts[i]];
+        }
+        return new AlgebricksPipeline(factories, recordDescs, null, null);
+    }
+
+    private static AssignRuntimeFactory assign(int outColumn, IScalarEvaluatorFactory eval, int[] projectionList,
+            boolean flushFramesRapidly) {
+        return new AssignRuntimeFactory(new int[] { outColumn }, new IScalarEvaluatorFactory[] { eval }, projectionList,
+                flushFramesRapidly);
+    }
+
+    private static StreamSelectRuntimeFactory select(IScalarEvaluatorFactory cond, int[] projectionList) {
+        return new StreamSelectRuntimeFactory(cond, projectionList, BinaryBooleanInspectorImpl.FACTORY, false, -1,
+                null);
+    }
+
+    private static IScalarEvaluatorFactory add(IScalarEvaluatorFactory left, IScalarEvaluatorFactory right) {
+        return new IntegerAddEvalFactory(left, right);
+    }
+
+    private static IScalarEvaluatorFactory greaterThan(IScalarEvaluatorFactory left, IScalarEvaluatorFactory right) {
+        return new IntegerGreaterThanEvalFactory(left, right);
+    }
+
+    private static IScalarEvaluatorFactory field(int fieldIndex) {
+        return new TupleFieldEvaluatorFactory(fieldIndex);
+    }
+
+    private static IScalarEvaluatorFactory constant(int value) {
+        return new IntegerConstantEvalFactory(value);
+    }
+
+    private static class TupleCollector implements IFrameWriter {
+        private final FrameTupleAccessor accessor;
+        private final List<int[]> tuples = new ArrayList<>();
+        private final List<Integer> tupleCountsAfterInputFrames = new ArrayList<>();
+
+        TupleCollector(RecordDescriptor recordDesc) {
+            accessor = new FrameTupleAccessor(recordDesc);
+        }
+
+        @Override
+        public void open() {
+            // nothing to open
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            accessor.reset(buffer);
+            for (int t = 0; t < accessor.getTupleCount(); t++) {
+                int[] tuple = new int[accessor.getFieldCount()];
+                for (int f = 0; f < tuple.length; f++) {
+                    tuple[f] = IntegerPointable.getInteger(buffer.array(), accessor.getAbsoluteFieldStartOffset(t, f));
+                }
+                tuples.add(tuple);
+            }
+        }
+
+        @Override
+        public void fail() {
+            // nothing to fail
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    /**
+     * Returns the first field and fails on the tuple whose first field has the given value.
+     */
+    private static class FailingEvalFactory implements IScalarEvaluatorFactory {
+        private static final long serialVersionUID = 1L;
+        private final int failingValue;
+
+        FailingEvalFactory(int failingValue) {
+            this.failingValue = failingValue;
+        }
+
+        @Override
+        public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext ctx) {
+            return (IFrameTupleReference tuple, IPointable result) -> {
+                int value = IntegerPointable.getInteger(tuple.getFieldData(0), tuple.getFieldStart(0));
+                if (value == failingValue) {
+                    throw HyracksDataException.create(ErrorCode.INVALID_INPUT_PARAMETER);
+                }
+                result.set(tuple.getFieldData(0), tuple.getFieldStart(0), tuple.getFieldLength(0));
+            };
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class HyracksConstants {
     public static final String INVERTED_INDEX_SEARCH_FRAME_MANAGER = "INVERTED_INDEX_SEARCH_FRAME_MANAGER";
     // Hyracks task context
     public static final String HYRACKS_TASK_CONTEXT = "HYRACKS_TASK_CONTEXT";
+    // The columns (java.util.BitSet) of a columnar index that are read by a search
+    public static final String COLUMN_PROJECTION = "COLUMN_PROJECTION";
 
     private HyracksConstants() {
     }
@@ -75,6 +75,8 @@ public class NCConfig extends ControllerConfig {
                 appConfig -> new String[] {
                         FileUtil.joinPath(appConfig.getString(ControllerConfig.Option.DEFAULT_DIR), "iodevice") },
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/iodevice"),
+        IO_WORKERS_PER_DEVICE(POSITIVE_INTEGER, 2),
+        IO_QUEUE_SIZE(POSITIVE_INTEGER, 100),
         NET_THREAD_COUNT(POSITIVE_INTEGER, 1),
         NET_BUFFER_COUNT(POSITIVE_INTEGER, 1),
         RESULT_TTL(LONG, 86400000L),
@@ -189,6 +191,11 @@ public class NCConfig extends ControllerConfig {
                     return "Number of attempts to retry contacting CC before giving up";
                 case IODEVICES:
                     return "Comma separated list of IO Device mount points";
+                case IO_WORKERS_PER_DEVICE:
+                    return "Number of threads serving the IO requests of each IO device. Devices that can serve many "
+                            + "concurrent requests (e.g. NVMe SSDs) benefit from more workers";
+                case IO_QUEUE_SIZE:
+                    return "Maximum number of IO requests that can wait to be served per IO device";
                 case NET_THREAD_COUNT:
                     return "Number of threads to use for Network I/O";
                 case NET_BUFFER_COUNT:
@@ -492,6 +499,14 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.TRACE_CATEGORIES, traceCategories);
     }
 
+    public int getIOWorkersPerDevice() {
+        return appConfig.getInt(Option.IO_WORKERS_PER_DEVICE);
+    }
+
+    public int getIOQueueSize() {
+        return appConfig.getInt(Option.IO_QUEUE_SIZE);
+    }
+
     public int getNetThreadCount() {
         return appConfig.getInt(Option.NET_THREAD_COUNT);
     }
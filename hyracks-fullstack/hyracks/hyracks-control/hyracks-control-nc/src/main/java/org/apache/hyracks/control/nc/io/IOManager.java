@@ -29,7 +29,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -57,6 +59,7 @@ public class IOManager implements IIOManager {
      * Constants
      */
     public static final int IO_REQUEST_QUEUE_SIZE = 100; // TODO: Make configurable
+    public static final int DEFAULT_IO_WORKERS_PER_DEVICE = 2;
     private static final Logger LOGGER = LogManager.getLogger();
     private static final String WORKSPACE_FILE_SUFFIX = ".waf";
     private static final FilenameFilter WORKSPACE_FILES_FILTER = (dir, name) -> name.endsWith(WORKSPACE_FILE_SUFFIX);
@@ -64,7 +67,8 @@ public class IOManager implements IIOManager {
      * Finals
      */
     private final ExecutorService executor;
-    private final BlockingQueue<IoRequest> submittedRequests;
+    // one submission queue per IO device so that a slow device does not hold back the requests of the others
+    private final Map<IODeviceHandle, BlockingQueue<IoRequest>> submittedRequests;
     private final BlockingQueue<IoRequest> freeRequests;
     private final List<IODeviceHandle> ioDevices;
     private final List<IODeviceHandle> workspaces;
@@ -75,6 +79,22 @@ public class IOManager implements IIOManager {
     private final IFileDeviceResolver deviceComputer;
 
     public IOManager(List<IODeviceHandle> devices, IFileDeviceResolver deviceComputer) throws HyracksDataException {
+        this(devices, deviceComputer, DEFAULT_IO_WORKERS_PER_DEVICE, IO_REQUEST_QUEUE_SIZE);
+    }
+
+    /**
+     * @param ioWorkersPerDevice
+     *            the number of threads serving the requests of each IO device, i.e. the number of requests that can
+     *            be outstanding on a device at any time
+     * @param ioQueueSize
+     *            the maximum number of requests waiting to be served per IO device
+     */
+    public IOManager(List<IODeviceHandle> devices, IFileDeviceResolver deviceComputer, int ioWorkersPerDevice,
+            int ioQueueSize) throws HyracksDataException {
+        if (ioWorkersPerDevice <= 0 || ioQueueSize <= 0) {
+            throw new IllegalArgumentException("Invalid IO workers per device (" + ioWorkersPerDevice
+                    + ") or IO queue size (" + ioQueueSize + ")");
+        }
         this.ioDevices = Collections.unmodifiableList(devices);
         checkDeviceValidity(devices);
         workspaces = new ArrayList<>();
@@ -93,23 +113,48 @@ public class IOManager implements IIOManager {
         }
         workspaceIndex = 0;
         this.deviceComputer = deviceComputer;
-        submittedRequests = new ArrayBlockingQueue<>(IO_REQUEST_QUEUE_SIZE);
-        freeRequests = new ArrayBlockingQueue<>(IO_REQUEST_QUEUE_SIZE);
-        int numIoThreads = ioDevices.size() * 2;
-        executor = Executors.newFixedThreadPool(numIoThreads);
-        for (int i = 0; i < numIoThreads; i++) {
-            executor.execute(new IoRequestHandler(i, submittedRequests));
+        submittedRequests = new IdentityHashMap<>();
+        freeRequests = new ArrayBlockingQueue<>(ioQueueSize * ioDevices.size());
+        executor = Executors.newFixedThreadPool(ioWorkersPerDevice * ioDevices.size());
+        int handlerId = 0;
+        for (IODeviceHandle d : ioDevices) {
+            BlockingQueue<IoRequest> deviceQueue = new ArrayBlockingQueue<>(ioQueueSize);
+            submittedRequests.put(d, deviceQueue);
+            for (int i = 0; i < ioWorkersPerDevice; i++) {
+                executor.execute(new IoRequestHandler(handlerId++, deviceQueue));
+            }
         }
     }
 
     public IoRequest getOrAllocRequest() {
         IoRequest request = freeRequests.poll();
         if (request == null) {
-            request = new IoRequest(this, submittedRequests, freeRequests);
+            request = new IoRequest(this, freeRequests);
         }
         return request;
     }
 
+    void submit(IoRequest request) throws InterruptedException {
+        getSubmissionQueue(request.getFileHandle()).put(request);
+    }
+
+    private BlockingQueue<IoRequest> getSubmissionQueue(IFileHandle fHandle) {
+        if (fHandle != null) {
+            final IODeviceHandle device = fHandle.getFileReference().getDeviceHandle();
+            final BlockingQueue<IoRequest> queue = submittedRequests.get(device);
+            if (queue != null) {
+                return queue;
+            }
+            for (IODeviceHandle d : ioDevices) {
+                if (d.equals(device)) {
+                    return submittedRequests.get(d);
+                }
+            }
+        }
+        // files that do not belong to any of the IO devices are served by the first device's workers
+        return submittedRequests.get(ioDevices.get(0));
+    }
+
     private void checkDeviceValidity(List<IODeviceHandle> devices) throws HyracksDataException {
         for (IODeviceHandle d : devices) {
             Path p = Paths.get(d.getMount().toURI());
@@ -406,7 +451,9 @@ public class IOManager implements IIOManager {
 
     @Override
     public void close() throws IOException {
-        InvokeUtil.doUninterruptibly(() -> submittedRequests.put(IoRequestHandler.POISON_PILL));
+        for (BlockingQueue<IoRequest> deviceQueue : submittedRequests.values()) {
+            InvokeUtil.doUninterruptibly(() -> deviceQueue.put(IoRequestHandler.POISON_PILL));
+        }
         executor.shutdown();
         try {
             if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
@@ -37,7 +37,6 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     }
 
     private final IOManager ioManager;
-    private final BlockingQueue<IoRequest> submittedRequests;
     private final BlockingQueue<IoRequest> freeRequests;
     private State state;
     private IFileHandle fHandle;
@@ -49,10 +48,8 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     private int write;
     private long writes;
 
-    public IoRequest(IOManager ioManager, BlockingQueue<IoRequest> submittedRequests,
-            BlockingQueue<IoRequest> freeRequests) {
+    public IoRequest(IOManager ioManager, BlockingQueue<IoRequest> freeRequests) {
         this.ioManager = ioManager;
-        this.submittedRequests = submittedRequests;
         this.freeRequests = freeRequests;
         reset();
     }
@@ -100,7 +97,7 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
 
     private void queue() throws HyracksDataException {
         try {
-            submittedRequests.put(this);
+            ioManager.submit(this);
         } catch (InterruptedException e) { // NOSONAR: The call below will re-interrupt
             throw HyracksDataException.create(e);
         }
@@ -139,6 +136,10 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
         }
     }
 
+    IFileHandle getFileHandle() {
+        return fHandle;
+    }
+
     public State getState() {
         return state;
     }
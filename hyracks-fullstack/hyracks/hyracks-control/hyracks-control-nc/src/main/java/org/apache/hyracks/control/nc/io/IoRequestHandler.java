@@ -27,7 +27,7 @@ import org.apache.logging.log4j.Logger;
 
 public class IoRequestHandler implements Runnable {
     private static final Logger LOGGER = LogManager.getLogger();
-    public static final IoRequest POISON_PILL = new IoRequest(null, null, null);
+    public static final IoRequest POISON_PILL = new IoRequest(null, null);
     private final int num;
     private final BlockingQueue<IoRequest> queue;
 
@@ -43,6 +43,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
@@ -55,13 +56,29 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
     private static final double FUDGE_FACTOR = 1.1;
     private static final long serialVersionUID = 1L;
     private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final boolean useOpenAddressingTable;
     private static final int MIN_DATA_TABLE_FRAME_LIMT = 1;
     private static final int MIN_HASH_TABLE_FRAME_LIMT = 2;
     private static final int OUTPUT_FRAME_LIMT = 1;
     private static final int MIN_FRAME_LIMT = MIN_DATA_TABLE_FRAME_LIMT + MIN_HASH_TABLE_FRAME_LIMT + OUTPUT_FRAME_LIMT;
 
     public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        this(hashFunctionFamilies, false);
+    }
+
+    /**
+     * @param useOpenAddressingTable
+     *            whether the tuple pointers are kept in an {@link OpenAddressingHashTable} instead of a
+     *            {@link SerializableHashTable}
+     */
+    public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies, boolean useOpenAddressingTable) {
         this.hashFunctionFamilies = hashFunctionFamilies;
+        this.useOpenAddressingTable = useOpenAddressingTable;
+    }
+
+    @Override
+    public boolean isUseOpenAddressingTable() {
+        return useOpenAddressingTable;
     }
 
     @Override
@@ -129,7 +146,8 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                     new FramePoolBackedFrameBufferManager(framePool);
 
             private final ISerializableTable hashTableForTuplePointer =
-                    new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
+                    useOpenAddressingTable ? new OpenAddressingHashTable(tableSize, ctx, bufferManagerForHashTable)
+                            : new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
 
             // buffer manager for data table
             final IPartitionedTupleBufferManager bufferManager = new VPartitionTupleBufferManager(
@@ -182,9 +200,10 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
 
             @Override
             public boolean insert(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
-                int entryInHashTable = tpc.partition(accessor, tIndex, tableSize);
-                for (int i = 0; i < hashTableForTuplePointer.getTupleCount(entryInHashTable); i++) {
-                    hashTableForTuplePointer.getTuplePointer(entryInHashTable, i, pointer);
+                int hash = tpc.partition(accessor, tIndex, hashTableForTuplePointer.getHashRange());
+                int entryInHashTable = hash % tableSize;
+                for (int i = 0; i < hashTableForTuplePointer.getTupleCount(entryInHashTable, hash); i++) {
+                    hashTableForTuplePointer.getTuplePointer(entryInHashTable, hash, i, pointer);
                     bufferAccessor.reset(pointer);
                     int c = ftpcInputCompareToAggregate.compare(accessor, tIndex, bufferAccessor);
                     if (c == 0) {
@@ -192,7 +211,7 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                         return true;
                     }
                 }
-                return insertNewAggregateEntry(entryInHashTable, accessor, tIndex);
+                return insertNewAggregateEntry(entryInHashTable, hash, accessor, tIndex);
             }
 
             /**
@@ -201,8 +220,8 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
              * So, if an insertion succeeds on the data table and the same insertion on the hash table fails, then
              * we need to revert the effect of data table insertion.
              */
-            private boolean insertNewAggregateEntry(int entryInHashTable, IFrameTupleAccessor accessor, int tIndex)
-                    throws HyracksDataException {
+            private boolean insertNewAggregateEntry(int entryInHashTable, int hash, IFrameTupleAccessor accessor,
+                    int tIndex) throws HyracksDataException {
                 initStateTupleBuilder(accessor, tIndex);
                 int pid = getPartition(entryInHashTable);
 
@@ -213,7 +232,7 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                 }
 
                 // Insertion to the hash table
-                if (!hashTableForTuplePointer.insert(entryInHashTable, pointer)) {
+                if (!hashTableForTuplePointer.insert(entryInHashTable, hash, pointer)) {
                     // To preserve the atomicity of this method, we need to undo the effect
                     // of the above bufferManager.insertTuple() call since the given insertion has failed.
                     bufferManager.cancelInsertTuple(pid);
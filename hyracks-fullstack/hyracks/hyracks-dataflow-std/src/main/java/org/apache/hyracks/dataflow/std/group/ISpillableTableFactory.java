@@ -25,6 +25,8 @@ import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
+import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 
 public interface ISpillableTableFactory extends Serializable {
     ISpillableTable buildSpillableTable(IHyracksTaskContext ctx, int inputSizeInTuple, long dataBytesSize,
@@ -32,4 +34,11 @@ public interface ISpillableTableFactory extends Serializable {
             IAggregatorDescriptorFactory aggregateFactory, RecordDescriptor inRecordDescriptor,
             RecordDescriptor outRecordDescriptor, int framesLimit, int seed) throws HyracksDataException;
 
+    /**
+     * @return whether the tables keep their tuple pointers in an {@link OpenAddressingHashTable}, which takes a
+     *         different amount of memory per hash value than a {@link SerializableHashTable}
+     */
+    default boolean isUseOpenAddressingTable() {
+        return false;
+    }
 }
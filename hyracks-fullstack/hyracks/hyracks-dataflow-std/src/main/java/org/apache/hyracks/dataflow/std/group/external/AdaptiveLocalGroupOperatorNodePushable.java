@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.group.external;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFamily;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.group.AggregateState;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptor;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
+import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The local (partial) aggregation of an {@link ExternalGroupOperatorDescriptor} in adaptive mode.
+ * Since the global aggregation after the exchange merges the partial results of the same group anyway, this
+ * operator never spills: it aggregates into a fixed-size in-memory table and emits the partial results of all its
+ * groups whenever the table is full. The table is an open-addressing table with linear probing, and each slot holds
+ * the hash of the group key next to the location of the group state, so most mismatches are resolved without
+ * touching the state. The table is allocated from the memory of the task like the frames of the group states.
+ * The operator measures the ratio of new groups to input tuples over each batch of input frames. When almost every
+ * tuple starts a new group, aggregating does not reduce the data and the operator passes the partial result of each
+ * tuple through without probing the table. After a while, it aggregates one batch again to re-check the ratio.
+ * Either way, it never outputs more tuples than it receives.
+ */
+public class AdaptiveLocalGroupOperatorNodePushable extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    // number of input frames over which the ratio of new groups to input tuples is measured
+    private static final int BATCH_FRAMES = 8;
+    // number of batches passed through before the aggregation is tried again
+    private static final int PASS_THROUGH_BATCHES = 16;
+    // the aggregation is bypassed when a batch creates more groups than this fraction of its tuples
+    private static final double MAX_NEW_GROUP_RATIO = 0.9;
+    // each slot holds the hash of the key, the data frame and the tuple index of the group state
+    private static final int SLOT_SIZE = 3;
+    // the data frame of an empty slot, any hash is valid
+    private static final int EMPTY_SLOT = -1;
+    private static final int FRAME_OFFSET = Integer.BYTES;
+    private static final int TUPLE_OFFSET = 2 * Integer.BYTES;
+    // the table is a single buffer of whole frames
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / (2 * SLOT_SIZE * Integer.BYTES);
+    // 1 frame for the input and 1 frame for the output
+    private static final int IO_FRAMES = 2;
+
+    private final IHyracksTaskContext ctx;
+    private final int[] keyFields;
+    private final int[] intermediateResultKeys;
+    private final IBinaryComparator[] comparators;
+    private final IAggregatorDescriptorFactory aggregatorFactory;
+    private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final RecordDescriptor inRecordDescriptor;
+    private final RecordDescriptor outRecordDescriptor;
+    private final int framesLimit;
+
+    private IAggregatorDescriptor aggregator;
+    private AggregateState aggregateState;
+    private ITuplePartitionComputer tpc;
+    private FrameTuplePairComparator ftpcInputCompareToAggregate;
+    private FrameTupleAccessor inAccessor;
+    private FrameTupleAccessor stateAccessor;
+    private ArrayTupleBuilder stateTupleBuilder;
+    private ArrayTupleBuilder outputTupleBuilder;
+    private FrameTupleAppender dataAppender;
+    private FrameTupleAppender outputAppender;
+    private List<IFrame> dataFrames;
+    private int maxDataFrames;
+    private int currentDataFrame;
+
+    private ByteBuffer slots;
+    private int slotMask;
+    private int maxGroups;
+    private int numGroups;
+    private boolean tableEmpty;
+
+    private boolean passThrough;
+    private int batchFrames;
+    private int batchTuples;
+    private int batchNewGroups;
+    private int passThroughBatches;
+    private long inputTuples;
+    private long outputTuples;
+    private boolean isFailed;
+
+    public AdaptiveLocalGroupOperatorNodePushable(IHyracksTaskContext ctx, int[] keyFields, int framesLimit,
+            IBinaryComparatorFactory[] comparatorFactories, IAggregatorDescriptorFactory aggregatorFactory,
+            IBinaryHashFunctionFamily[] hashFunctionFamilies, RecordDescriptor inRecordDescriptor,
+            RecordDescriptor outRecordDescriptor) {
+        this.ctx = ctx;
+        this.keyFields = keyFields;
+        this.intermediateResultKeys = new int[keyFields.length];
+        for (int i = 0; i < keyFields.length; i++) {
+            intermediateResultKeys[i] = i;
+        }
+        this.comparators = new IBinaryComparator[comparatorFactories.length];
+        for (int i = 0; i < comparatorFactories.length; ++i) {
+            comparators[i] = comparatorFactories[i].createBinaryComparator();
+        }
+        this.aggregatorFactory = aggregatorFactory;
+        this.hashFunctionFamilies = hashFunctionFamilies;
+        this.inRecordDescriptor = inRecordDescriptor;
+        this.outRecordDescriptor = outRecordDescriptor;
+        this.framesLimit = framesLimit;
+    }
+
+    @Override
+    public void open() throws HyracksDataException {
+        writer.open();
+        aggregator = aggregatorFactory.createAggregator(ctx, inRecordDescriptor, outRecordDescriptor, keyFields,
+                intermediateResultKeys, null, -1);
+        aggregateState = aggregator.createAggregateStates();
+        tpc = new FieldHashPartitionComputerFamily(keyFields, hashFunctionFamilies).createPartitioner(0);
+        ftpcInputCompareToAggregate = new FrameTuplePairComparator(keyFields, intermediateResultKeys, comparators);
+        inAccessor = new FrameTupleAccessor(inRecordDescriptor);
+        stateAccessor = new FrameTupleAccessor(outRecordDescriptor);
+        stateTupleBuilder = new ArrayTupleBuilder(outRecordDescriptor.getFields().length);
+        outputTupleBuilder = new ArrayTupleBuilder(outRecordDescriptor.getFields().length);
+        dataAppender = new FrameTupleAppender();
+        outputAppender = new FrameTupleAppender(new VSizeFrame(ctx));
+        dataFrames = new ArrayList<>();
+        currentDataFrame = -1;
+
+        // A quarter of the remaining budget goes to the table and the rest to the group states.
+        int tableFrames = Math.max(1, (framesLimit - IO_FRAMES) / 4);
+        maxDataFrames = Math.max(1, framesLimit - IO_FRAMES - tableFrames);
+        int frameSize = ctx.getInitialFrameSize();
+        long tableSlots = (long) tableFrames * frameSize / (SLOT_SIZE * Integer.BYTES);
+        int capacity = Integer.highestOneBit((int) Math.min(MAX_SLOTS, Math.max(2, tableSlots)));
+        // the task allocates whole frames
+        int tableBytes = capacity * SLOT_SIZE * Integer.BYTES;
+        slots = ctx.allocateFrame((tableBytes + frameSize - 1) / frameSize * frameSize);
+        slotMask = capacity - 1;
+        clearTable();
+        // keeps the load factor at 1/2 at most so that the probe sequences stay short
+        maxGroups = capacity / 2;
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        inAccessor.reset(buffer);
+        int tupleCount = inAccessor.getTupleCount();
+        if (passThrough) {
+            for (int i = 0; i < tupleCount; i++) {
+                addGroup(i);
+            }
+        } else {
+            for (int i = 0; i < tupleCount; i++) {
+                insert(i);
+            }
+        }
+        inputTuples += tupleCount;
+        batchTuples += tupleCount;
+        if (++batchFrames == BATCH_FRAMES) {
+            endBatch();
+        }
+    }
+
+    private void endBatch() {
+        if (passThrough) {
+            if (++passThroughBatches == PASS_THROUGH_BATCHES) {
+                passThrough = false;
+            }
+        } else if (batchNewGroups > MAX_NEW_GROUP_RATIO * batchTuples) {
+            passThrough = true;
+            passThroughBatches = 0;
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("local group-by passes through after " + inputTuples + " tuples, " + batchNewGroups
+                        + " new groups for the last " + batchTuples + " tuples");
+            }
+        }
+        batchFrames = 0;
+        batchTuples = 0;
+        batchNewGroups = 0;
+    }
+
+    private void insert(int tIndex) throws HyracksDataException {
+        int hash = tpc.partition(inAccessor, tIndex, Integer.MAX_VALUE);
+        int slot = mix(hash) & slotMask;
+        int s = slotOffset(slot);
+        while (slots.getInt(s + FRAME_OFFSET) != EMPTY_SLOT) {
+            if (slots.getInt(s) == hash) {
+                int stateTupleIndex = slots.getInt(s + TUPLE_OFFSET);
+                stateAccessor.reset(dataFrames.get(slots.getInt(s + FRAME_OFFSET)).getBuffer());
+                if (ftpcInputCompareToAggregate.compare(inAccessor, tIndex, stateAccessor, stateTupleIndex) == 0) {
+                    aggregator.aggregate(inAccessor, tIndex, stateAccessor, stateTupleIndex, aggregateState);
+                    return;
+                }
+            }
+            slot = (slot + 1) & slotMask;
+            s = slotOffset(slot);
+        }
+        batchNewGroups++;
+        if (!addGroup(tIndex)) {
+            // the table was flushed to make room for the group
+            slot = mix(hash) & slotMask;
+        }
+        s = slotOffset(slot);
+        slots.putInt(s, hash);
+        slots.putInt(s + FRAME_OFFSET, currentDataFrame);
+        slots.putInt(s + TUPLE_OFFSET, dataAppender.getTupleCount() - 1);
+        tableEmpty = false;
+    }
+
+    private static int slotOffset(int slot) {
+        return slot * SLOT_SIZE * Integer.BYTES;
+    }
+
+    private void clearTable() {
+        for (int slot = 0; slot <= slotMask; slot++) {
+            slots.putInt(slotOffset(slot) + FRAME_OFFSET, EMPTY_SLOT);
+        }
+        tableEmpty = true;
+    }
+
+    // the murmur3 finalizer, spreads the high bits of field hash functions into the low bits that pick the slot
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Appends the state of a new group that starts with the given input tuple.
+     *
+     * @return false if the groups had to be flushed before the new group could be added, true otherwise
+     */
+    private boolean addGroup(int tIndex) throws HyracksDataException {
+        stateTupleBuilder.reset();
+        for (int k = 0; k < keyFields.length; k++) {
+            stateTupleBuilder.addField(inAccessor, tIndex, keyFields[k]);
+        }
+        aggregator.init(stateTupleBuilder, inAccessor, tIndex, aggregateState);
+        if (numGroups < maxGroups && appendState()) {
+            numGroups++;
+            return true;
+        }
+        flushGroups();
+        // an empty frame grows to fit the state, so this cannot fail
+        appendState();
+        numGroups++;
+        return false;
+    }
+
+    private boolean appendState() throws HyracksDataException {
+        if (currentDataFrame >= 0 && dataAppender.append(stateTupleBuilder.getFieldEndOffsets(),
+                stateTupleBuilder.getByteArray(), 0, stateTupleBuilder.getSize())) {
+            return true;
+        }
+        if (currentDataFrame + 1 >= maxDataFrames) {
+            return false;
+        }
+        currentDataFrame++;
+        if (currentDataFrame == dataFrames.size()) {
+            dataFrames.add(new VSizeFrame(ctx));
+        }
+        dataAppender.reset(dataFrames.get(currentDataFrame), true);
+        return dataAppender.append(stateTupleBuilder.getFieldEndOffsets(), stateTupleBuilder.getByteArray(), 0,
+                stateTupleBuilder.getSize());
+    }
+
+    private void flushGroups() throws HyracksDataException {
+        for (int f = 0; f <= currentDataFrame; f++) {
+            stateAccessor.reset(dataFrames.get(f).getBuffer());
+            int tupleCount = stateAccessor.getTupleCount();
+            for (int t = 0; t < tupleCount; t++) {
+                outputTupleBuilder.reset();
+                for (int k = 0; k < intermediateResultKeys.length; k++) {
+                    outputTupleBuilder.addField(stateAccessor, t, intermediateResultKeys[k]);
+                }
+                if (aggregator.outputFinalResult(outputTupleBuilder, stateAccessor, t, aggregateState)) {
+                    FrameUtils.appendSkipEmptyFieldToWriter(writer, outputAppender,
+                            outputTupleBuilder.getFieldEndOffsets(), outputTupleBuilder.getByteArray(), 0,
+                            outputTupleBuilder.getSize());
+                    outputTuples++;
+                }
+            }
+        }
+        currentDataFrame = -1;
+        numGroups = 0;
+        if (!tableEmpty) {
+            clearTable();
+        }
+    }
+
+    @Override
+    public void fail() throws HyracksDataException {
+        isFailed = true;
+        writer.fail();
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+        try {
+            if (!isFailed && aggregator != null) {
+                flushGroups();
+                if (outputAppender.getTupleCount() > 0) {
+                    outputAppender.write(writer, true);
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("local group-by reduced " + inputTuples + " tuples to " + outputTuples + " tuples");
+                }
+            }
+        } finally {
+            if (aggregator != null) {
+                aggregator.close();
+            }
+            if (slots != null) {
+                ctx.deallocateFrames(slots.capacity());
+                slots = null;
+            }
+            writer.close();
+        }
+    }
+
+    @Override
+    public void flush() throws HyracksDataException {
+        outputAppender.flush(writer);
+    }
+}
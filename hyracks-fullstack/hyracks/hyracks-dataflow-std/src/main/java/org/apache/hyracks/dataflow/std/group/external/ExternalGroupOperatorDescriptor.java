@@ -24,6 +24,7 @@ import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
 import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
 import org.apache.hyracks.api.dataflow.TaskId;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
 import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
@@ -33,6 +34,7 @@ import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
 import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
 import org.apache.hyracks.dataflow.std.group.ISpillableTableFactory;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 
 /**
@@ -58,6 +60,8 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
     private final RecordDescriptor outRecDesc;
     private final int tableSize;
     private final long fileSize;
+    // non-null when this operator is the adaptive local aggregation below a global one
+    private IBinaryHashFunctionFamily[] adaptiveHashFunctionFamilies;
 
     public ExternalGroupOperatorDescriptor(IOperatorDescriptorRegistry spec, int inputSizeInTuple, long inputFileSize,
             int[] keyFields, int framesLimit, IBinaryComparatorFactory[] comparatorFactories,
@@ -93,6 +97,22 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
         this.fileSize = inputFileSize;
     }
 
+    /**
+     * Turns this operator into the local (partial) aggregation of a two-stage group-by. The operator then streams
+     * its partial results to the global aggregation instead of building and merging spilled runs, and passes the
+     * input through when aggregating does not reduce it. See {@link AdaptiveLocalGroupOperatorNodePushable}.
+     *
+     * @param hashFunctionFamilies
+     *            the hash function families of the key fields, or null to use the regular two-phase aggregation
+     */
+    public void setAdaptiveLocalAggregation(IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        this.adaptiveHashFunctionFamilies = hashFunctionFamilies;
+    }
+
+    public boolean isAdaptiveLocalAggregation() {
+        return adaptiveHashFunctionFamilies != null;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -102,6 +122,14 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
      */
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
+        if (isAdaptiveLocalAggregation()) {
+            AdaptiveLocalAggregateActivity localAggregateAct =
+                    new AdaptiveLocalAggregateActivity(new ActivityId(getOperatorId(), AGGREGATE_ACTIVITY_ID));
+            builder.addActivity(this, localAggregateAct);
+            builder.addSourceEdge(0, localAggregateAct, 0);
+            builder.addTargetEdge(0, localAggregateAct, 0);
+            return;
+        }
         AggregateActivity aggregateAct = new AggregateActivity(new ActivityId(getOperatorId(), AGGREGATE_ACTIVITY_ID));
         MergeActivity mergeAct = new MergeActivity(new ActivityId(odId, MERGE_ACTIVITY_ID));
 
@@ -152,6 +180,23 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
 
     }
 
+    private class AdaptiveLocalAggregateActivity extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public AdaptiveLocalAggregateActivity(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                final IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            return new AdaptiveLocalGroupOperatorNodePushable(ctx, keyFields, framesLimit, comparatorFactories,
+                    partialAggregatorFactory, adaptiveHashFunctionFamilies,
+                    recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), outRecDescs[0]);
+        }
+    }
+
     /**
      * Based on a rough estimation of a tuple (each field size: 4 bytes) size and the number of possible hash values
      * for the given number of group-by columns, calculates the number of hash entries for the hash table in Group-by.
@@ -166,6 +211,15 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
      */
     public static int calculateGroupByTableCardinality(long memoryBudgetByteSize, int numberOfGroupByColumns,
             int frameSize) {
+        return calculateGroupByTableCardinality(memoryBudgetByteSize, numberOfGroupByColumns, frameSize, false);
+    }
+
+    /**
+     * Same as {@link #calculateGroupByTableCardinality(long, int, int)} for a group-by table whose hash table is an
+     * {@link OpenAddressingHashTable} if useOpenAddressingTable is set, and a {@link SerializableHashTable} otherwise.
+     */
+    public static int calculateGroupByTableCardinality(long memoryBudgetByteSize, int numberOfGroupByColumns,
+            int frameSize, boolean useOpenAddressingTable) {
         // Estimates a minimum tuple size with n fields:
         // (4:tuple offset in a frame, 4n:each field offset in a tuple, 4n:each field size 4 bytes)
         int tupleByteSize = 4 + 8 * numberOfGroupByColumns;
@@ -184,7 +238,9 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
 
         // Between # of entries in Data table and # of possible hash values, we choose the smaller one.
         long groupByTableCardinality = Math.min(possibleNumberOfHashEntries, maxNumberOfTuplesInDataTable);
-        long groupByTableByteSize = SerializableHashTable.getExpectedTableByteSize(groupByTableCardinality, frameSize);
+        long groupByTableByteSize = useOpenAddressingTable
+                ? OpenAddressingHashTable.getExpectedTableByteSize(groupByTableCardinality, frameSize)
+                : SerializableHashTable.getExpectedTableByteSize(groupByTableCardinality, frameSize);
 
         // Gets the ratio of hash-table size in the total size (hash + data table).
         double hashTableRatio = (double) groupByTableByteSize / (groupByTableByteSize + memoryBudgetByteSize);
@@ -192,8 +248,9 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
         // Gets the table size based on the ratio that we have calculated.
         long finalGroupByTableByteSize = (long) (hashTableRatio * memoryBudgetByteSize);
 
-        long finalGroupByTableCardinality =
-                finalGroupByTableByteSize / SerializableHashTable.getExpectedByteSizePerHashValue();
+        long finalGroupByTableCardinality = useOpenAddressingTable
+                ? OpenAddressingHashTable.getTableSizeForByteSize(finalGroupByTableByteSize, frameSize)
+                : finalGroupByTableByteSize / SerializableHashTable.getExpectedByteSizePerHashValue();
 
         // The maximum cardinality of a hash table: Integer.MAX_VALUE
         return finalGroupByTableCardinality > Integer.MAX_VALUE ? Integer.MAX_VALUE
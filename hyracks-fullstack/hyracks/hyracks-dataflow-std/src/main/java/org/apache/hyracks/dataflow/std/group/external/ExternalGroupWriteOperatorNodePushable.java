@@ -124,7 +124,8 @@ public class ExternalGroupWriteOperatorNodePushable extends AbstractUnaryOutputS
                 int memoryBudgetInBytes = ctx.getInitialFrameSize() * frameLimit;
                 int groupByColumnsCount = mergeGroupFields.length;
                 int hashTableCardinality = ExternalGroupOperatorDescriptor.calculateGroupByTableCardinality(
-                        memoryBudgetInBytes, groupByColumnsCount, ctx.getInitialFrameSize());
+                        memoryBudgetInBytes, groupByColumnsCount, ctx.getInitialFrameSize(),
+                        spillableTableFactory.isUseOpenAddressingTable());
                 hashTableCardinality = Math.min(hashTableCardinality, numOfTuples[i]);
                 ISpillableTable partitionTable = spillableTableFactory.buildSpillableTable(ctx, hashTableCardinality,
                         runs[i].getFileSize(), mergeGroupFields, groupByComparators, nmkComputer,
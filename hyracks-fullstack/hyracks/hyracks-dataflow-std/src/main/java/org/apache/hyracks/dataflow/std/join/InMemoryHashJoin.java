@@ -122,19 +122,20 @@ public class InMemoryHashJoin {
         accessorBuild.reset(buffer);
         int tCount = accessorBuild.getTupleCount();
         for (int i = 0; i < tCount; ++i) {
-            int entry = tpcBuild.partition(accessorBuild, i, table.getTableSize());
+            int hash = tpcBuild.partition(accessorBuild, i, table.getHashRange());
+            int entry = hash % table.getTableSize();
             storedTuplePointer.reset(bIndex, i);
             // If an insertion fails, then tries to insert the same tuple pointer again after compacting the table.
-            if (!table.insert(entry, storedTuplePointer)) {
-                compactTableAndInsertAgain(entry, storedTuplePointer);
+            if (!table.insert(entry, hash, storedTuplePointer)) {
+                compactTableAndInsertAgain(entry, hash, storedTuplePointer);
             }
         }
     }
 
-    public boolean compactTableAndInsertAgain(int entry, TuplePointer tPointer) throws HyracksDataException {
+    public boolean compactTableAndInsertAgain(int entry, int hash, TuplePointer tPointer) throws HyracksDataException {
         boolean oneMoreTry = false;
         if (compactHashTable() >= 0) {
-            oneMoreTry = table.insert(entry, tPointer);
+            oneMoreTry = table.insert(entry, hash, tPointer);
         }
         return oneMoreTry;
     }
@@ -158,10 +159,11 @@ public class InMemoryHashJoin {
     void join(int tid, IFrameWriter writer) throws HyracksDataException {
         boolean matchFound = false;
         if (isTableCapacityNotZero) {
-            int entry = tpcProbe.partition(accessorProbe, tid, table.getTableSize());
-            int tupleCount = table.getTupleCount(entry);
+            int hash = tpcProbe.partition(accessorProbe, tid, table.getHashRange());
+            int entry = hash % table.getTableSize();
+            int tupleCount = table.getTupleCount(entry, hash);
             for (int i = 0; i < tupleCount; i++) {
-                table.getTuplePointer(entry, i, storedTuplePointer);
+                table.getTuplePointer(entry, hash, i, storedTuplePointer);
                 int bIndex = storedTuplePointer.getFrameIndex();
                 int tIndex = storedTuplePointer.getTupleIndex();
                 accessorBuild.reset(buffers.get(bIndex));
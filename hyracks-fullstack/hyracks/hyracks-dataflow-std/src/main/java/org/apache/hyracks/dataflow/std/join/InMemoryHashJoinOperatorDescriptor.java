@@ -54,6 +54,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferM
 import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 
@@ -69,6 +70,7 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
     private final int tableSize;
     // The maximum number of in-memory frames that this hash join can use.
     private final int memSizeInFrames;
+    private boolean useOpenAddressingTable = false;
 
     public InMemoryHashJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int[] keys0, int[] keys1,
             IBinaryHashFunctionFactory[] hashFunctionFactories, IBinaryComparatorFactory[] comparatorFactories,
@@ -104,6 +106,13 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
         this.memSizeInFrames = memSizeInFrames;
     }
 
+    /**
+     * Makes the join use an {@link OpenAddressingHashTable} instead of a {@link SerializableHashTable}.
+     */
+    public void setUseOpenAddressingTable(boolean useOpenAddressingTable) {
+        this.useOpenAddressingTable = useOpenAddressingTable;
+    }
+
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
         ActivityId hbaId = new ActivityId(odId, 0);
@@ -187,7 +196,9 @@ public class InMemoryHashJoinOperatorDescriptor extends AbstractOperatorDescript
                             new FieldHashPartitionComputerFactory(keys1, hashFunctionFactories).createPartitioner(ctx);
                     state = new HashBuildTaskState(ctx.getJobletContext().getJobId(),
                             new TaskId(getActivityId(), partition));
-                    ISerializableTable table = new SerializableHashTable(tableSize, ctx, bufferManager);
+                    ISerializableTable table =
+                            useOpenAddressingTable ? new OpenAddressingHashTable(tableSize, ctx, bufferManager)
+                                    : new SerializableHashTable(tableSize, ctx, bufferManager);
                     state.joiner =
                             new InMemoryHashJoin(ctx, new FrameTupleAccessor(rd0), hpc0, new FrameTupleAccessor(rd1),
                                     rd1, hpc1, new FrameTuplePairComparator(keys0, keys1, comparators), isLeftOuter,
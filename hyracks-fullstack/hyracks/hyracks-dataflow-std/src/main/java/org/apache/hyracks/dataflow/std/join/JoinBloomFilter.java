@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A bloom filter over the join keys of the build side of a hash join.
+ * It is populated while the build side is partitioned and lets the probe phase drop the probe tuples that
+ * cannot have a match before they are written to the spilled partitions.
+ * A filter only answers for the build tuples that were added to it, so it must not be used for outer joins.
+ * The filter is local to a join partition and is not pushed below the join, to the probe side scans or exchanges.
+ */
+public class JoinBloomFilter {
+    // a seed different from the ones that the hybrid hash join uses to partition its inputs
+    private static final int HASH_SEED = 0x2b7e1516;
+    private static final int NUM_HASHES = 3;
+
+    private final IBinaryHashFunction[] hashFunctions;
+    private final long[] bits;
+    private final int numBits;
+
+    public JoinBloomFilter(IBinaryHashFunctionFamily[] hashFunctionFamilies, int sizeInBytes) {
+        hashFunctions = new IBinaryHashFunction[hashFunctionFamilies.length];
+        for (int i = 0; i < hashFunctionFamilies.length; i++) {
+            hashFunctions[i] = hashFunctionFamilies[i].createBinaryHashFunction(HASH_SEED);
+        }
+        // caps the number of bits to what an int can index
+        bits = new long[Math.max(1, Math.min(sizeInBytes, Integer.MAX_VALUE / Byte.SIZE) / Long.BYTES)];
+        numBits = bits.length * Long.SIZE;
+    }
+
+    public void add(IFrameTupleAccessor accessor, int tIndex, int[] keys) throws HyracksDataException {
+        int h1 = hash(accessor, tIndex, keys);
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = index(h1 + i * h2);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return false if the key of the given tuple was never added to this filter, true if it may have been
+     */
+    public boolean mightContain(IFrameTupleAccessor accessor, int tIndex, int[] keys) throws HyracksDataException {
+        int h1 = hash(accessor, tIndex, keys);
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getSizeInBytes() {
+        return bits.length * Long.BYTES;
+    }
+
+    private int hash(IFrameTupleAccessor accessor, int tIndex, int[] keys) throws HyracksDataException {
+        // both inputs are hashed with the same functions of this filter, so equal keys hash alike. Unlike the sum of
+        // the join partitioners, the field hashes are combined in order so that permuted composite keys differ.
+        int h = 0;
+        int startOffset = accessor.getTupleStartOffset(tIndex) + accessor.getFieldSlotsLength();
+        for (int j = 0; j < keys.length; j++) {
+            int fStart = accessor.getFieldStartOffset(tIndex, keys[j]);
+            int fEnd = accessor.getFieldEndOffset(tIndex, keys[j]);
+            h = h * 31 + hashFunctions[j].hash(accessor.getBuffer().array(), startOffset + fStart, fEnd - fStart);
+        }
+        return mix(h);
+    }
+
+    private int index(int h) {
+        return (h & Integer.MAX_VALUE) % numBits;
+    }
+
+    // the murmur3 finalizer, spreads the bits of field hash functions that are weak in their low bits
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
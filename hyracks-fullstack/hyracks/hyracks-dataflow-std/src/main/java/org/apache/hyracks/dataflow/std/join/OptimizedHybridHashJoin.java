@@ -45,9 +45,12 @@ import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * This class mainly applies one level of HHJ on a pair of
@@ -55,6 +58,12 @@ import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
  */
 public class OptimizedHybridHashJoin {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+    // the number of spilling probe tuples after which the join filter must have shown that it pays off
+    private static final int JOIN_FILTER_SAMPLE_SIZE = 1 << 16;
+    // the join filter is dropped if it discards less than 1/JOIN_FILTER_MIN_SELECTIVITY of the sampled tuples
+    private static final int JOIN_FILTER_MIN_SELECTIVITY = 10;
+
     // Used for special probe BigObject which can not be held into the Join memory
     private FrameTupleAppender bigProbeFrameAppender;
 
@@ -109,6 +118,12 @@ public class OptimizedHybridHashJoin {
                                                        // we mainly use it to match the corresponding function signature.
     private int[] probePSizeInTups;
 
+    // filters the probe tuples of the spilled partitions, null if there is no filter or it did not pay off
+    private JoinBloomFilter joinFilter;
+    private long joinFilterCheckedTups;
+    private long joinFilterDroppedTups;
+    private boolean useOpenAddressingTable = false;
+
     public OptimizedHybridHashJoin(IHyracksTaskContext ctx, int memSizeInFrames, int numOfPartitions,
             String probeRelName, String buildRelName, int[] probeKeys, int[] buildKeys, IBinaryComparator[] comparators,
             RecordDescriptor probeRd, RecordDescriptor buildRd, ITuplePartitionComputer probeHpc,
@@ -158,6 +173,26 @@ public class OptimizedHybridHashJoin {
         buildPSizeInTups = new int[numOfPartitions];
     }
 
+    /**
+     * Sets the filter that the build phase populates with the build keys and that the probe phase then uses to
+     * drop the probe tuples of the spilled partitions that have no match. It must be set before the build phase
+     * starts and only for inner joins.
+     */
+    public void setJoinFilter(JoinBloomFilter joinFilter) {
+        if (isLeftOuter) {
+            throw new IllegalStateException("A join filter cannot be used by an outer join");
+        }
+        this.joinFilter = joinFilter;
+    }
+
+    /**
+     * Makes the in-memory join use an {@link OpenAddressingHashTable} instead of a {@link SerializableHashTable}.
+     * It must be set before the build phase ends since the table size is accounted for when the build closes.
+     */
+    public void setUseOpenAddressingTable(boolean useOpenAddressingTable) {
+        this.useOpenAddressingTable = useOpenAddressingTable;
+    }
+
     public void build(ByteBuffer buffer) throws HyracksDataException {
         accessorBuild.reset(buffer);
         int tupleCount = accessorBuild.getTupleCount();
@@ -166,6 +201,9 @@ public class OptimizedHybridHashJoin {
             int pid = buildHpc.partition(accessorBuild, i, numOfPartitions);
             processTuple(i, pid);
             buildPSizeInTups[pid]++;
+            if (joinFilter != null) {
+                joinFilter.add(accessorBuild, i, buildKeys);
+            }
         }
 
     }
@@ -234,6 +272,11 @@ public class OptimizedHybridHashJoin {
         createInMemoryJoiner(inMemTupCount);
 
         loadDataInMemJoin();
+
+        if (isBuildRelAllInMemory()) {
+            // the in-memory hash table already answers every probe
+            joinFilter = null;
+        }
     }
 
     /**
@@ -300,7 +343,7 @@ public class OptimizedHybridHashJoin {
 
         // Calculates the expected hash table size for the given number of tuples in main memory
         // and deducts it from the free space.
-        long hashTableByteSizeForInMemTuples = SerializableHashTable.getExpectedTableByteSize(inMemTupCount, frameSize);
+        long hashTableByteSizeForInMemTuples = getExpectedTableByteSize(inMemTupCount, frameSize);
         freeSpace -= hashTableByteSizeForInMemTuples;
 
         // In the case where free space is less than zero after considering the hash table size,
@@ -315,9 +358,8 @@ public class OptimizedHybridHashJoin {
             int pidToSpill = selectSinglePartitionToSpill(freeSpace, inMemTupCount, frameSize);
             if (pidToSpill >= 0) {
                 // There is a suitable one. We spill that partition to the disk.
-                long hashTableSizeDecrease =
-                        -SerializableHashTable.calculateByteSizeDeltaForTableSizeChange(inMemTupCount,
-                                -buildPSizeInTups[pidToSpill], frameSize);
+                long hashTableSizeDecrease = -calculateByteSizeDeltaForTableSizeChange(inMemTupCount,
+                        -buildPSizeInTups[pidToSpill], frameSize);
                 freeSpace = freeSpace + bufferManager.getPhysicalSize(pidToSpill) + hashTableSizeDecrease;
                 inMemTupCount -= buildPSizeInTups[pidToSpill];
                 spillPartition(pidToSpill);
@@ -339,9 +381,8 @@ public class OptimizedHybridHashJoin {
                     // Since the number of tuples in memory has been decreased,
                     // the hash table size will be decreased, too.
                     // We put minus since the method returns a negative value to represent a newly reclaimed space.
-                    long expectedHashTableSizeDecrease =
-                            -SerializableHashTable.calculateByteSizeDeltaForTableSizeChange(inMemTupCount,
-                                    -numberOfTuplesToBeSpilled, frameSize);
+                    long expectedHashTableSizeDecrease = -calculateByteSizeDeltaForTableSizeChange(inMemTupCount,
+                            -numberOfTuplesToBeSpilled, frameSize);
                     freeSpace = freeSpace + spaceToBeReturned + expectedHashTableSizeDecrease;
                     // Adjusts the hash table size
                     inMemTupCount -= numberOfTuplesToBeSpilled;
@@ -355,7 +396,7 @@ public class OptimizedHybridHashJoin {
         // If more partitions have been spilled to the disk, calculate the expected hash table size again
         // before bringing some partitions to main memory.
         if (moreSpilled) {
-            hashTableByteSizeForInMemTuples = SerializableHashTable.getExpectedTableByteSize(inMemTupCount, frameSize);
+            hashTableByteSizeForInMemTuples = getExpectedTableByteSize(inMemTupCount, frameSize);
         }
 
         // Brings back some partitions if there is enough free space.
@@ -364,8 +405,8 @@ public class OptimizedHybridHashJoin {
             if (!loadSpilledPartitionToMem(pid, buildRFWriters[pid])) {
                 break;
             }
-            long expectedHashTableByteSizeIncrease = SerializableHashTable
-                    .calculateByteSizeDeltaForTableSizeChange(inMemTupCount, buildPSizeInTups[pid], frameSize);
+            long expectedHashTableByteSizeIncrease =
+                    calculateByteSizeDeltaForTableSizeChange(inMemTupCount, buildPSizeInTups[pid], frameSize);
             freeSpace = freeSpace - bufferManager.getPhysicalSize(pid) - expectedHashTableByteSizeIncrease;
             inMemTupCount += buildPSizeInTups[pid];
             // Adjusts the hash table size
@@ -391,8 +432,9 @@ public class OptimizedHybridHashJoin {
                 continue;
             }
             // We put minus since the method returns a negative value to represent a newly reclaimed space.
-            spaceAfterSpill = currentFreeSpace + bufferManager.getPhysicalSize(p) + (-SerializableHashTable
-                    .calculateByteSizeDeltaForTableSizeChange(currentInMemTupCount, -buildPSizeInTups[p], frameSize));
+            long hashTableSizeDecrease =
+                    -calculateByteSizeDeltaForTableSizeChange(currentInMemTupCount, -buildPSizeInTups[p], frameSize);
+            spaceAfterSpill = currentFreeSpace + bufferManager.getPhysicalSize(p) + hashTableSizeDecrease;
             if (spaceAfterSpill == 0) {
                 // Found the perfect one. Just returns this partition.
                 return p;
@@ -410,8 +452,8 @@ public class OptimizedHybridHashJoin {
                 spilledStatus.nextSetBit(i + 1)) {
             int spilledTupleCount = buildPSizeInTups[i];
             // Expected hash table size increase after reloading this partition
-            long expectedHashTableByteSizeIncrease = SerializableHashTable.calculateByteSizeDeltaForTableSizeChange(
-                    inMemTupCount, spilledTupleCount, ctx.getInitialFrameSize());
+            long expectedHashTableByteSizeIncrease = calculateByteSizeDeltaForTableSizeChange(inMemTupCount,
+                    spilledTupleCount, ctx.getInitialFrameSize());
             if (freeSpace >= buildRFWriters[i].getFileSize() + expectedHashTableByteSizeIncrease) {
                 return i;
             }
@@ -448,8 +490,21 @@ public class OptimizedHybridHashJoin {
         return true;
     }
 
+    private long getExpectedTableByteSize(long tableSize, int frameSize) {
+        return useOpenAddressingTable ? OpenAddressingHashTable.getExpectedTableByteSize(tableSize, frameSize)
+                : SerializableHashTable.getExpectedTableByteSize(tableSize, frameSize);
+    }
+
+    private long calculateByteSizeDeltaForTableSizeChange(long origTableSize, long delta, int frameSize) {
+        return useOpenAddressingTable
+                ? OpenAddressingHashTable.calculateByteSizeDeltaForTableSizeChange(origTableSize, delta, frameSize)
+                : SerializableHashTable.calculateByteSizeDeltaForTableSizeChange(origTableSize, delta, frameSize);
+    }
+
     private void createInMemoryJoiner(int inMemTupCount) throws HyracksDataException {
-        ISerializableTable table = new SerializableHashTable(inMemTupCount, ctx, bufferManagerForHashTable);
+        ISerializableTable table =
+                useOpenAddressingTable ? new OpenAddressingHashTable(inMemTupCount, ctx, bufferManagerForHashTable)
+                        : new SerializableHashTable(inMemTupCount, ctx, bufferManagerForHashTable);
         this.inMemJoiner =
                 new InMemoryHashJoin(ctx, new FrameTupleAccessor(probeRd), probeHpc, new FrameTupleAccessor(buildRd),
                         buildRd, buildHpc, new FrameTuplePairComparator(probeKeys, buildKeys, comparators), isLeftOuter,
@@ -506,6 +561,9 @@ public class OptimizedHybridHashJoin {
 
             if (buildPSizeInTups[pid] > 0 || isLeftOuter) { //Tuple has potential match from previous phase
                 if (spilledStatus.get(pid)) { //pid is Spilled
+                    if (joinFilter != null && !passJoinFilter(i)) {
+                        continue;
+                    }
                     while (!bufferManager.insertTuple(pid, accessorProbe, i, tempPtr)) {
                         int victim = pid;
                         if (bufferManager.getNumTuples(pid) == 0) { // current pid is empty, choose the biggest one
@@ -527,6 +585,22 @@ public class OptimizedHybridHashJoin {
         }
     }
 
+    private boolean passJoinFilter(int tid) throws HyracksDataException {
+        boolean pass = joinFilter.mightContain(accessorProbe, tid, probeKeys);
+        if (!pass) {
+            joinFilterDroppedTups++;
+        }
+        if (++joinFilterCheckedTups == JOIN_FILTER_SAMPLE_SIZE
+                && joinFilterDroppedTups * JOIN_FILTER_MIN_SELECTIVITY < joinFilterCheckedTups) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Dropping the join filter which discarded only " + joinFilterDroppedTups + " out of "
+                        + joinFilterCheckedTups + " spilling probe tuples");
+            }
+            joinFilter = null;
+        }
+        return pass;
+    }
+
     private void flushBigProbeObjectToDisk(int pid, FrameTupleAccessor accessorProbe, int i)
             throws HyracksDataException {
         if (bigProbeFrameAppender == null) {
@@ -539,11 +613,23 @@ public class OptimizedHybridHashJoin {
         bigProbeFrameAppender.write(runFileWriter, true);
     }
 
+    /**
+     * @return the number of probe tuples that the join filter dropped instead of writing them to a spilled partition
+     */
+    public long getJoinFilterDroppedTups() {
+        return joinFilterDroppedTups;
+    }
+
     private boolean isBuildRelAllInMemory() {
         return spilledStatus.nextSetBit(0) < 0;
     }
 
     public void completeProbe(IFrameWriter writer) throws HyracksDataException {
+        if (joinFilterDroppedTups > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("The join filter discarded " + joinFilterDroppedTups + " out of " + joinFilterCheckedTups
+                    + " spilling probe tuples");
+        }
+        joinFilter = null;
         //We do NOT join the spilled partitions here, that decision is made at the descriptor level
         //(which join technique to use)
         inMemJoiner.completeJoin(writer);
@@ -62,6 +62,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferM
 import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 import org.apache.logging.log4j.LogManager;
@@ -114,6 +115,8 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
 
     private static final long serialVersionUID = 1L;
     private static final double NLJ_SWITCH_THRESHOLD = 0.8;
+    // the join filter takes 1/JOIN_FILTER_MEMORY_RATIO of the frames of the join, and at least one frame
+    private static final int JOIN_FILTER_MEMORY_RATIO = 64;
 
     private static final String PROBE_REL = "RelR";
     private static final String BUILD_REL = "RelS";
@@ -132,6 +135,9 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
     private final boolean isLeftOuter;
     private final IMissingWriterFactory[] nonMatchWriterFactories;
 
+    private boolean useJoinFilter = false;
+    private boolean useOpenAddressingTable = false;
+
     //Flags added for test purpose
     private boolean skipInMemoryHJ = false;
     private boolean forceNLJ = false;
@@ -171,6 +177,22 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                 predEvaluatorFactory, false, null);
     }
 
+    /**
+     * Makes the build phase of an inner join collect its keys into a {@link JoinBloomFilter} that the probe phase
+     * uses to drop the probe tuples of the spilled partitions that have no match.
+     */
+    public void setUseJoinFilter(boolean useJoinFilter) {
+        this.useJoinFilter = useJoinFilter;
+    }
+
+    /**
+     * Makes the in-memory hash joins use an {@link OpenAddressingHashTable} instead of a
+     * {@link SerializableHashTable}.
+     */
+    public void setUseOpenAddressingTable(boolean useOpenAddressingTable) {
+        this.useOpenAddressingTable = useOpenAddressingTable;
+    }
+
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
         ActivityId buildAid = new ActivityId(odId, BUILD_AND_PARTITION_ACTIVITY_ID);
@@ -288,16 +310,29 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                         throw new HyracksDataException("Not enough memory is assigend for Hybrid Hash Join.");
                     }
                     state.memForJoin = memSizeInFrames - 2;
-                    state.numOfPartitions =
-                            getNumberOfPartitions(state.memForJoin, inputsize0, fudgeFactor, nPartitions);
-                    state.hybridHJ = new OptimizedHybridHashJoin(ctx, state.memForJoin, state.numOfPartitions,
-                            PROBE_REL, BUILD_REL, probeKeys, buildKeys, comparators, probeRd, buildRd, probeHpc,
-                            buildHpc, predEvaluator, isLeftOuter, nonMatchWriterFactories);
+                    // the join filter is dropped once the probe completes, so only the first level of the join
+                    // gives up memory for it
+                    int joinFilterFrames = useJoinFilter && !isLeftOuter
+                            ? Math.max(1, state.memForJoin / JOIN_FILTER_MEMORY_RATIO) : 0;
+                    if (state.memForJoin - joinFilterFrames <= 2) {
+                        joinFilterFrames = 0;
+                    }
+                    int memForBuild = state.memForJoin - joinFilterFrames;
+                    state.numOfPartitions = getNumberOfPartitions(memForBuild, inputsize0, fudgeFactor, nPartitions);
+                    state.hybridHJ = new OptimizedHybridHashJoin(ctx, memForBuild, state.numOfPartitions, PROBE_REL,
+                            BUILD_REL, probeKeys, buildKeys, comparators, probeRd, buildRd, probeHpc, buildHpc,
+                            predEvaluator, isLeftOuter, nonMatchWriterFactories);
+                    if (joinFilterFrames > 0) {
+                        long filterSize = (long) joinFilterFrames * ctx.getInitialFrameSize();
+                        state.hybridHJ.setJoinFilter(new JoinBloomFilter(hashFunctionGeneratorFactories,
+                                (int) Math.min(filterSize, Integer.MAX_VALUE)));
+                    }
+                    state.hybridHJ.setUseOpenAddressingTable(useOpenAddressingTable);
 
                     state.hybridHJ.initBuild();
                     if (LOGGER.isTraceEnabled()) {
                         LOGGER.trace("OptimizedHybridHashJoin is starting the build phase with " + state.numOfPartitions
-                                + " partitions using " + state.memForJoin + " frames for memory.");
+                                + " partitions using " + memForBuild + " frames for memory.");
                     }
                 }
 
@@ -495,10 +530,12 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     }
 
                     // Calculate the expected hash table size for the both side.
-                    long expectedHashTableSizeForBuildInFrame =
-                            SerializableHashTable.getExpectedTableFrameCount(buildSizeInTuple, frameSize);
-                    long expectedHashTableSizeForProbeInFrame =
-                            SerializableHashTable.getExpectedTableFrameCount(probeSizeInTuple, frameSize);
+                    long expectedHashTableSizeForBuildInFrame = useOpenAddressingTable
+                            ? OpenAddressingHashTable.getExpectedTableFrameCount(buildSizeInTuple, frameSize)
+                            : SerializableHashTable.getExpectedTableFrameCount(buildSizeInTuple, frameSize);
+                    long expectedHashTableSizeForProbeInFrame = useOpenAddressingTable
+                            ? OpenAddressingHashTable.getExpectedTableFrameCount(probeSizeInTuple, frameSize)
+                            : SerializableHashTable.getExpectedTableFrameCount(probeSizeInTuple, frameSize);
 
                     //Apply in-Mem HJ if possible
                     if (!skipInMemoryHJ && ((buildPartSize + expectedHashTableSizeForBuildInFrame < state.memForJoin)
@@ -719,7 +756,9 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             new DeallocatableFramePool(ctx, state.memForJoin * ctx.getInitialFrameSize());
                     ISimpleFrameBufferManager bufferManager = new FramePoolBackedFrameBufferManager(framePool);
 
-                    ISerializableTable table = new SerializableHashTable(tabSize, ctx, bufferManager);
+                    ISerializableTable table =
+                            useOpenAddressingTable ? new OpenAddressingHashTable(tabSize, ctx, bufferManager)
+                                    : new SerializableHashTable(tabSize, ctx, bufferManager);
                     InMemoryHashJoin joiner = new InMemoryHashJoin(ctx, new FrameTupleAccessor(probeRDesc), hpcRepProbe,
                             new FrameTupleAccessor(buildRDesc), buildRDesc, hpcRepBuild,
                             new FrameTuplePairComparator(pKeys, bKeys, comparators), isLeftOuter, nonMatchWriter, table,
@@ -26,10 +26,26 @@ public interface ISerializableTable {
 
     boolean insert(int entry, TuplePointer tuplePointer) throws HyracksDataException;
 
+    /**
+     * Inserts a tuple pointer of a key with the given hash value, which is computed by {@link #getHashRange()}. A
+     * table that stores the hash values tells apart the keys of an entry by them. Otherwise, the hash value is ignored.
+     */
+    default boolean insert(int entry, int hash, TuplePointer tuplePointer) throws HyracksDataException {
+        return insert(entry, tuplePointer);
+    }
+
     void delete(int entry);
 
     boolean getTuplePointer(int entry, int offset, TuplePointer tuplePointer);
 
+    /**
+     * Gets the n-th (n = offset) tuple pointer of the key with the given hash value. A table that does not store the
+     * hash values gets the n-th tuple pointer of the entry.
+     */
+    default boolean getTuplePointer(int entry, int hash, int offset, TuplePointer tuplePointer) {
+        return getTuplePointer(entry, offset, tuplePointer);
+    }
+
     /**
      * Returns the byte size of entire frames that are currently allocated to the table.
      */
@@ -39,6 +55,14 @@ public interface ISerializableTable {
 
     int getTupleCount(int entry);
 
+    /**
+     * Returns the tuple count of the key with the given hash value. A table that does not store the hash values
+     * returns the tuple count of the entry.
+     */
+    default int getTupleCount(int entry, int hash) {
+        return getTupleCount(entry);
+    }
+
     void reset();
 
     void close();
@@ -69,4 +93,17 @@ public interface ISerializableTable {
      * @return the number entries.
      */
     int getTableSize();
+
+    /**
+     * Returns the range of the hash values of the keys, i.e., a hash value is
+     * tpc.partition(accessor, tIndex, getHashRange()) and its entry is the hash value modulo the table size.
+     * The range is the largest multiple of the table size that is an int, so the entry is the same as
+     * tpc.partition(accessor, tIndex, getTableSize()), which keeps the entries of a garbage collection right.
+     *
+     * @return the range of the hash values, or 0 if the table size is 0.
+     */
+    default int getHashRange() {
+        int tableSize = getTableSize();
+        return tableSize == 0 ? 0 : Integer.MAX_VALUE / tableSize * tableSize;
+    }
 }
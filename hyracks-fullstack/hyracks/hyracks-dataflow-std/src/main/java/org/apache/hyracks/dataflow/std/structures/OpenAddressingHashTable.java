@@ -0,0 +1,756 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
+import org.apache.hyracks.dataflow.std.structures.SimpleSerializableHashTable.IntSerDeBuffer;
+
+/**
+ * An open-addressing alternative to {@link SerializableHashTable}.
+ * The table is an array of slots spread over frames that are acquired from a buffer manager. There is one slot per
+ * key, i.e., per pair of an entry and a hash value. A slot is as follows:
+ * [entry], [hash], [frameIndex], [tupleIndex], [lastBlock]; <fIndex, tIndex> forms the first tuple pointer of the key.
+ * A slot is stored in the first free slot after the home slot of its entry (linear probing).
+ * The slots of a cluster are kept in Robin Hood order, i.e., sorted by their home slot and then by their entry.
+ * So, all the keys of an entry are in consecutive slots, and a lookup stops at the first slot whose home slot is after
+ * the one of the given entry.
+ * The other tuple pointers of a key, i.e., its duplicates, are appended to a circular list of blocks in separate
+ * frames, so an insertion of a duplicate does not depend on the number of duplicates of its key. The blocks of a key
+ * hold 1, 2, 4, ... duplicates up to a maximum that depends on the frame size, so that the duplicates of a key are
+ * read from a few contiguous blocks. A block is as follows:
+ * [nextBlock], [duplicateCount], ([frameIndex], [tupleIndex])*. The slot refers to the last block, whose next block is
+ * the first one and whose duplicate count is the one of the key.
+ * The callers pass the hash value of a key as well as its entry. The hash value tells apart the keys of an entry, so a
+ * probe of a key only reads its own tuple pointers. The callers that only pass the entry share one key per entry.
+ * The table grows by doubling its capacity when three quarters of the slots are used. If the buffer manager cannot
+ * provide the frames for that, the insertion fails. Deleted slots are reclaimed right away by shifting the following
+ * slots of the cluster back, and deleted blocks are reused, so this table never needs a garbage collection.
+ */
+public class OpenAddressingHashTable implements ISerializableTable {
+
+    // unit size: int
+    private static final int INT_SIZE = 4;
+    // [entry], [hash], [frameIndex], [tupleIndex], [lastBlock]
+    private static final int SLOT_INT_SIZE = 5;
+    private static final int HASH = 1;
+    private static final int LAST_BLOCK = 4;
+    // [nextBlock], [duplicateCount]
+    private static final int BLOCK_HEADER_INT_SIZE = 2;
+    private static final int NEXT_BLOCK = 0;
+    private static final int DUPLICATE_COUNT = 1;
+    // A key with 2^n duplicates takes n + 1 blocks, whose header and unused tuple pointers take at most 5 ints
+    // per duplicate.
+    private static final int MAX_BLOCK_INT_SIZE_PER_DUPLICATE = 5;
+    // the largest number of duplicates in a block is 2^MAX_BLOCK_CLASS
+    private static final int MAX_BLOCK_CLASS = 10;
+    // the value of an int in a reset frame, which is also never a valid entry, hash value or block
+    private static final int INVALID_VALUE = 0xFFFFFFFF;
+    // the hash value of the callers that only pass the entry, which also matches any hash value in a lookup
+    private static final int ANY_HASH = INVALID_VALUE;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // spreads the entries over the slots since the callers compute an entry as hash % tableSize
+    private static final int FIBONACCI_MULTIPLIER = 0x9E3779B9;
+
+    private final ISimpleFrameBufferManager bufferManager;
+    private final int tableSize;
+    private final int frameSize;
+    private final int slotsPerFrame;
+    private final int intsPerFrame;
+    private final int maxBlockClass;
+
+    // frames are allocated when a slot in them is used for the first time
+    private IntSerDeBuffer[] frames;
+    private final List<IntSerDeBuffer> blockFrames = new ArrayList<>();
+    // the first free block of each block class
+    private final int[] freeBlocks;
+    // the position of the first int in the block frames that is not used by a block
+    private int nextBlock = 0;
+    private int capacity;
+    private int mask;
+    private int shift;
+    private int maxSlotCount;
+    private int slotCount = 0;
+    private int tupleCount = 0;
+    // The byte size of total frames that are allocated to the slots and the blocks
+    private int currentByteSize = 0;
+    // the position of the last lookup, so that the tuple pointers of a key can be read one by one cheaply
+    private int cachedEntry = INVALID_VALUE;
+    private int cachedHash;
+    private int cachedFirstSlot;
+    private int cachedTupleCount;
+    private int cachedOffset;
+    private int cachedSlot;
+    private int cachedLastBlock;
+    private int cachedDuplicateCount;
+    // -1 for the tuple pointer in the slot
+    private int cachedDuplicate;
+    private int cachedBlock;
+    private int cachedBlockNumber;
+    private IntSerDeBuffer cachedBlockFrame;
+    // the positions of the tuple pointer and of the end of the block in the frame of the block
+    private int cachedPointer;
+    private int cachedBlockEnd;
+
+    public OpenAddressingHashTable(int tableSize, final IHyracksFrameMgrContext ctx,
+            ISimpleFrameBufferManager bufferManager) {
+        this.bufferManager = bufferManager;
+        this.tableSize = tableSize;
+        this.frameSize = ctx.getInitialFrameSize();
+        this.slotsPerFrame = frameSize / (SLOT_INT_SIZE * INT_SIZE);
+        this.intsPerFrame = frameSize / INT_SIZE;
+        this.maxBlockClass = getMaxBlockClass(frameSize);
+        this.freeBlocks = new int[maxBlockClass + 1];
+        Arrays.fill(freeBlocks, INVALID_VALUE);
+        setCapacity(getCapacity(tableSize));
+        frames = new IntSerDeBuffer[getFrameCount(capacity)];
+    }
+
+    private void setCapacity(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.maxSlotCount = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    @Override
+    public boolean insert(int entry, TuplePointer pointer) throws HyracksDataException {
+        return insert(entry, ANY_HASH, pointer);
+    }
+
+    @Override
+    public boolean insert(int entry, int hash, TuplePointer pointer) throws HyracksDataException {
+        cachedEntry = INVALID_VALUE;
+        int slot = findFirstSlot(entry, hash);
+        if (slot >= 0) {
+            if (!appendDuplicate(slot, pointer.getFrameIndex(), pointer.getTupleIndex())) {
+                return false;
+            }
+        } else {
+            if (slotCount >= maxSlotCount && !grow()) {
+                return false;
+            }
+            if (!insertSlot(entry, hash, pointer.getFrameIndex(), pointer.getTupleIndex(), INVALID_VALUE)) {
+                return false;
+            }
+            slotCount++;
+        }
+        tupleCount++;
+        return true;
+    }
+
+    private boolean insertSlot(int entry, int hash, int frameIndex, int tupleIndex, int lastBlock)
+            throws HyracksDataException {
+        // Finds the position of the new slot in its cluster, which is after the other keys of the same entry.
+        int home = getHomeSlot(entry);
+        int slot = home;
+        int distance = 0;
+        int slotEntry;
+        while ((slotEntry = getInt(frames, slot, 0)) != INVALID_VALUE) {
+            int slotDistance = (slot - getHomeSlot(slotEntry)) & mask;
+            if (slotDistance < distance || (slotDistance == distance && slotEntry > entry)) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        // Shifts the rest of the cluster by one slot to make room for the new slot.
+        int end = slot;
+        while (getInt(frames, end, 0) != INVALID_VALUE) {
+            end = (end + 1) & mask;
+        }
+        if (!ensureFrame(end)) {
+            return false;
+        }
+        for (int s = end; s != slot;) {
+            int previous = (s - 1) & mask;
+            copySlot(frames, previous, s);
+            s = previous;
+        }
+        setSlot(slot, entry, hash, frameIndex, tupleIndex, lastBlock);
+        return true;
+    }
+
+    /**
+     * Appends a tuple pointer to the duplicates of the key of the given slot.
+     *
+     * @return false if the frame for a new block could not be acquired. The table is unchanged then.
+     */
+    private boolean appendDuplicate(int slot, int frameIndex, int tupleIndex) throws HyracksDataException {
+        int lastBlock = getInt(frames, slot, LAST_BLOCK);
+        int duplicate = lastBlock == INVALID_VALUE ? 0 : getBlockInt(lastBlock, DUPLICATE_COUNT);
+        int indexInBlock = getIndexInBlock(duplicate);
+        int block = lastBlock;
+        if (indexInBlock == 0) {
+            block = allocateBlock(getBlockClass(getBlockNumber(duplicate)));
+            if (block == INVALID_VALUE) {
+                return false;
+            }
+            if (lastBlock == INVALID_VALUE) {
+                setBlockInt(block, NEXT_BLOCK, block);
+            } else {
+                setBlockInt(block, NEXT_BLOCK, getBlockInt(lastBlock, NEXT_BLOCK));
+                setBlockInt(lastBlock, NEXT_BLOCK, block);
+            }
+            frames[slot / slotsPerFrame].writeInt((slot % slotsPerFrame) * SLOT_INT_SIZE + LAST_BLOCK, block);
+        }
+        setBlockInt(block, DUPLICATE_COUNT, duplicate + 1);
+        setBlockInt(block, BLOCK_HEADER_INT_SIZE + indexInBlock * 2, frameIndex);
+        setBlockInt(block, BLOCK_HEADER_INT_SIZE + indexInBlock * 2 + 1, tupleIndex);
+        return true;
+    }
+
+    /**
+     * @return the n-th (n = duplicate) block of a key that holds its given duplicate
+     */
+    private int getBlockNumber(int duplicate) {
+        int growingBlocksCapacity = (2 << maxBlockClass) - 1;
+        if (duplicate < growingBlocksCapacity) {
+            return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(duplicate + 1);
+        }
+        return maxBlockClass + 1 + ((duplicate - growingBlocksCapacity) >>> maxBlockClass);
+    }
+
+    private int getIndexInBlock(int duplicate) {
+        int growingBlocksCapacity = (2 << maxBlockClass) - 1;
+        if (duplicate < growingBlocksCapacity) {
+            return duplicate + 1 - Integer.highestOneBit(duplicate + 1);
+        }
+        return (duplicate - growingBlocksCapacity) & ((1 << maxBlockClass) - 1);
+    }
+
+    private int getBlockClass(int blockNumber) {
+        return Math.min(blockNumber, maxBlockClass);
+    }
+
+    private static int getBlockIntSize(int blockClass) {
+        return BLOCK_HEADER_INT_SIZE + (2 << blockClass);
+    }
+
+    /**
+     * @return a block of the given class or INVALID_VALUE if the frame for it could not be acquired
+     */
+    private int allocateBlock(int blockClass) throws HyracksDataException {
+        if (freeBlocks[blockClass] != INVALID_VALUE) {
+            int block = freeBlocks[blockClass];
+            freeBlocks[blockClass] = getBlockInt(block, NEXT_BLOCK);
+            return block;
+        }
+        int blockIntSize = getBlockIntSize(blockClass);
+        int offset = nextBlock % intsPerFrame;
+        if (nextBlock < blockFrames.size() * intsPerFrame && offset + blockIntSize > intsPerFrame) {
+            // Keeps the rest of the frame as free blocks of smaller classes.
+            for (int c = blockClass - 1; c >= 0; c--) {
+                while (offset + getBlockIntSize(c) <= intsPerFrame) {
+                    releaseBlock(nextBlock, c);
+                    nextBlock += getBlockIntSize(c);
+                    offset += getBlockIntSize(c);
+                }
+            }
+            nextBlock += intsPerFrame - offset;
+        }
+        if (nextBlock == blockFrames.size() * intsPerFrame) {
+            ByteBuffer newFrame = bufferManager.acquireFrame(frameSize);
+            if (newFrame == null) {
+                return INVALID_VALUE;
+            }
+            blockFrames.add(new IntSerDeBuffer(newFrame));
+            currentByteSize += frameSize;
+        }
+        int block = nextBlock;
+        nextBlock += blockIntSize;
+        return block;
+    }
+
+    private void releaseBlock(int block, int blockClass) {
+        setBlockInt(block, NEXT_BLOCK, freeBlocks[blockClass]);
+        freeBlocks[blockClass] = block;
+    }
+
+    /**
+     * Releases the blocks of the key of the given slot.
+     *
+     * @return the number of the duplicates of the key
+     */
+    private int releaseBlocks(int slot) {
+        int lastBlock = getInt(frames, slot, LAST_BLOCK);
+        if (lastBlock == INVALID_VALUE) {
+            return 0;
+        }
+        int duplicateCount = getBlockInt(lastBlock, DUPLICATE_COUNT);
+        int blockCount = getBlockNumber(duplicateCount - 1) + 1;
+        int block = getBlockInt(lastBlock, NEXT_BLOCK);
+        for (int i = 0; i < blockCount; i++) {
+            int next = getBlockInt(block, NEXT_BLOCK);
+            releaseBlock(block, getBlockClass(i));
+            block = next;
+        }
+        return duplicateCount;
+    }
+
+    /**
+     * Doubles the capacity of the table and moves all the slots to their new position. The blocks stay where they
+     * are.
+     *
+     * @return false if the frames for the new capacity could not be acquired. The table is unchanged then.
+     */
+    private boolean grow() throws HyracksDataException {
+        if (capacity >= MAX_CAPACITY) {
+            return false;
+        }
+        IntSerDeBuffer[] oldFrames = frames;
+        int oldCapacity = capacity;
+        int oldByteSize = currentByteSize;
+        setCapacity(oldCapacity * 2);
+        frames = new IntSerDeBuffer[getFrameCount(capacity)];
+        // Starts from a free slot so that the keys of an entry stay in insertion order
+        // even if their cluster wraps around the end of the table.
+        int start = 0;
+        while (getInt(oldFrames, start, 0) != INVALID_VALUE) {
+            start++;
+        }
+        for (int i = 0; i < oldCapacity; i++) {
+            int slot = (start + i) & (oldCapacity - 1);
+            int entry = getInt(oldFrames, slot, 0);
+            if (entry != INVALID_VALUE && !insertSlot(entry, getInt(oldFrames, slot, HASH), getInt(oldFrames, slot, 2),
+                    getInt(oldFrames, slot, 3), getInt(oldFrames, slot, LAST_BLOCK))) {
+                // Reverts to the old table.
+                releaseFrames(frames);
+                frames = oldFrames;
+                setCapacity(oldCapacity);
+                currentByteSize = oldByteSize;
+                return false;
+            }
+        }
+        releaseFrames(oldFrames);
+        return true;
+    }
+
+    @Override
+    /**
+     * Removes all the tuple pointers of the given entry. The slots that follow them in the cluster are shifted back
+     * so that no lookup has to skip a deleted slot.
+     */
+    public void delete(int entry) {
+        int slot = findFirstSlot(entry, ANY_HASH);
+        if (slot < 0) {
+            return;
+        }
+        cachedEntry = INVALID_VALUE;
+        while (getInt(frames, slot, 0) == entry) {
+            tupleCount -= 1 + releaseBlocks(slot);
+            slotCount--;
+            int s = slot;
+            int next = (s + 1) & mask;
+            int nextEntry;
+            while ((nextEntry = getInt(frames, next, 0)) != INVALID_VALUE && getHomeSlot(nextEntry) != next) {
+                copySlot(frames, next, s);
+                s = next;
+                next = (next + 1) & mask;
+            }
+            frames[s / slotsPerFrame].writeInvalidVal((s % slotsPerFrame) * SLOT_INT_SIZE, SLOT_INT_SIZE);
+        }
+    }
+
+    @Override
+    /**
+     * For the given entry, gets the n-th (n = offsetInSlot) tuple pointer.
+     */
+    public boolean getTuplePointer(int entry, int offsetInSlot, TuplePointer dataPointer) {
+        return getTuplePointer(entry, ANY_HASH, offsetInSlot, dataPointer);
+    }
+
+    @Override
+    /**
+     * For the given key, gets the n-th (n = offsetInSlot) tuple pointer. Reading the tuple pointers of a key in order
+     * takes a constant time per tuple pointer.
+     */
+    public boolean getTuplePointer(int entry, int hash, int offsetInSlot, TuplePointer dataPointer) {
+        lookUp(entry, hash);
+        if (cachedFirstSlot < 0 || offsetInSlot < 0) {
+            dataPointer.reset(INVALID_VALUE, INVALID_VALUE);
+            return false;
+        }
+        if (offsetInSlot < cachedOffset) {
+            rewind();
+        }
+        while (cachedOffset < offsetInSlot) {
+            if (!advance()) {
+                dataPointer.reset(INVALID_VALUE, INVALID_VALUE);
+                return false;
+            }
+        }
+        if (cachedDuplicate < 0) {
+            dataPointer.reset(getInt(frames, cachedSlot, 2), getInt(frames, cachedSlot, 3));
+        } else {
+            dataPointer.reset(cachedBlockFrame.getInt(cachedPointer), cachedBlockFrame.getInt(cachedPointer + 1));
+        }
+        return true;
+    }
+
+    @Override
+    /**
+     * Returns the tuple count for the given entry.
+     */
+    public int getTupleCount(int entry) {
+        return getTupleCount(entry, ANY_HASH);
+    }
+
+    @Override
+    /**
+     * Returns the tuple count for the given key.
+     */
+    public int getTupleCount(int entry, int hash) {
+        lookUp(entry, hash);
+        if (cachedTupleCount < 0) {
+            int count = 0;
+            for (int slot = cachedFirstSlot; slot >= 0; slot = findNextSlot(slot, entry, hash)) {
+                count += 1 + getDuplicateCount(slot);
+            }
+            cachedTupleCount = count;
+        }
+        return cachedTupleCount;
+    }
+
+    private int getDuplicateCount(int slot) {
+        int lastBlock = getInt(frames, slot, LAST_BLOCK);
+        return lastBlock == INVALID_VALUE ? 0 : getBlockInt(lastBlock, DUPLICATE_COUNT);
+    }
+
+    /**
+     * Points the cached position at the first tuple pointer of the given key, unless it already points at one of its
+     * tuple pointers.
+     */
+    private void lookUp(int entry, int hash) {
+        if (entry == cachedEntry && hash == cachedHash) {
+            return;
+        }
+        cachedEntry = entry;
+        cachedHash = hash;
+        cachedFirstSlot = findFirstSlot(entry, hash);
+        cachedTupleCount = cachedFirstSlot < 0 ? 0 : -1;
+        rewind();
+    }
+
+    private void rewind() {
+        cachedOffset = 0;
+        if (cachedFirstSlot >= 0) {
+            moveToSlot(cachedFirstSlot);
+        }
+    }
+
+    private void moveToSlot(int slot) {
+        cachedSlot = slot;
+        cachedLastBlock = getInt(frames, slot, LAST_BLOCK);
+        cachedDuplicateCount = cachedLastBlock == INVALID_VALUE ? 0 : getBlockInt(cachedLastBlock, DUPLICATE_COUNT);
+        cachedDuplicate = -1;
+    }
+
+    private void moveToBlock(int block, int blockNumber) {
+        cachedBlock = block;
+        cachedBlockNumber = blockNumber;
+        cachedBlockFrame = blockFrames.get(block / intsPerFrame);
+        cachedPointer = block % intsPerFrame + BLOCK_HEADER_INT_SIZE;
+        cachedBlockEnd = cachedPointer + (2 << getBlockClass(blockNumber));
+    }
+
+    /**
+     * Moves the cached position to the next tuple pointer of its key.
+     *
+     * @return false if there is none. The cached position is rewound then.
+     */
+    private boolean advance() {
+        if (cachedDuplicate + 1 < cachedDuplicateCount) {
+            cachedDuplicate++;
+            if (cachedDuplicate == 0) {
+                moveToBlock(getBlockInt(cachedLastBlock, NEXT_BLOCK), 0);
+            } else {
+                cachedPointer += 2;
+                if (cachedPointer == cachedBlockEnd) {
+                    moveToBlock(getBlockInt(cachedBlock, NEXT_BLOCK), cachedBlockNumber + 1);
+                }
+            }
+        } else {
+            int slot = findNextSlot(cachedSlot, cachedEntry, cachedHash);
+            if (slot < 0) {
+                rewind();
+                return false;
+            }
+            moveToSlot(slot);
+        }
+        cachedOffset++;
+        return true;
+    }
+
+    /**
+     * @return the first slot of the given key or -1 if the key has no tuple pointer.
+     */
+    private int findFirstSlot(int entry, int hash) {
+        int home = getHomeSlot(entry);
+        int slot = home;
+        int distance = 0;
+        int slotEntry;
+        while ((slotEntry = getInt(frames, slot, 0)) != INVALID_VALUE) {
+            if (slotEntry == entry && (hash == ANY_HASH || getInt(frames, slot, HASH) == hash)) {
+                return slot;
+            }
+            int slotDistance = (slot - getHomeSlot(slotEntry)) & mask;
+            if (slotDistance < distance || (slotDistance == distance && slotEntry > entry)) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the slot of the given key after the given slot or -1 if there is none.
+     */
+    private int findNextSlot(int slot, int entry, int hash) {
+        for (int s = (slot + 1) & mask; getInt(frames, s, 0) == entry; s = (s + 1) & mask) {
+            if (hash == ANY_HASH || getInt(frames, s, HASH) == hash) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private int getHomeSlot(int entry) {
+        return (entry * FIBONACCI_MULTIPLIER) >>> shift;
+    }
+
+    private int getInt(IntSerDeBuffer[] slotFrames, int slot, int field) {
+        IntSerDeBuffer frame = slotFrames[slot / slotsPerFrame];
+        return frame == null ? INVALID_VALUE : frame.getInt((slot % slotsPerFrame) * SLOT_INT_SIZE + field);
+    }
+
+    private void setSlot(int slot, int entry, int hash, int frameIndex, int tupleIndex, int lastBlock) {
+        IntSerDeBuffer frame = frames[slot / slotsPerFrame];
+        int offset = (slot % slotsPerFrame) * SLOT_INT_SIZE;
+        frame.writeInt(offset, entry);
+        frame.writeInt(offset + HASH, hash);
+        frame.writeInt(offset + 2, frameIndex);
+        frame.writeInt(offset + 3, tupleIndex);
+        frame.writeInt(offset + LAST_BLOCK, lastBlock);
+    }
+
+    private void copySlot(IntSerDeBuffer[] slotFrames, int fromSlot, int toSlot) {
+        setSlot(toSlot, getInt(slotFrames, fromSlot, 0), getInt(slotFrames, fromSlot, HASH),
+                getInt(slotFrames, fromSlot, 2), getInt(slotFrames, fromSlot, 3),
+                getInt(slotFrames, fromSlot, LAST_BLOCK));
+    }
+
+    private int getBlockInt(int block, int field) {
+        return blockFrames.get(block / intsPerFrame).getInt(block % intsPerFrame + field);
+    }
+
+    private void setBlockInt(int block, int field, int value) {
+        blockFrames.get(block / intsPerFrame).writeInt(block % intsPerFrame + field, value);
+    }
+
+    private boolean ensureFrame(int slot) throws HyracksDataException {
+        int frameIndex = slot / slotsPerFrame;
+        if (frames[frameIndex] == null) {
+            ByteBuffer newFrame = bufferManager.acquireFrame(frameSize);
+            if (newFrame == null) {
+                return false;
+            }
+            frames[frameIndex] = new IntSerDeBuffer(newFrame);
+            currentByteSize += frameSize;
+        }
+        return true;
+    }
+
+    private void releaseFrames(IntSerDeBuffer[] slotFrames) {
+        for (int i = 0; i < slotFrames.length; i++) {
+            if (slotFrames[i] != null) {
+                bufferManager.releaseFrame(slotFrames[i].getByteBuffer());
+                slotFrames[i] = null;
+                currentByteSize -= frameSize;
+            }
+        }
+    }
+
+    private int getFrameCount(int capacity) {
+        return (capacity + slotsPerFrame - 1) / slotsPerFrame;
+    }
+
+    @Override
+    public int getCurrentByteSize() {
+        return currentByteSize;
+    }
+
+    @Override
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    @Override
+    public void reset() {
+        for (IntSerDeBuffer frame : frames) {
+            if (frame != null) {
+                frame.resetFrame();
+            }
+        }
+        Arrays.fill(freeBlocks, INVALID_VALUE);
+        nextBlock = 0;
+        slotCount = 0;
+        tupleCount = 0;
+        cachedEntry = INVALID_VALUE;
+    }
+
+    @Override
+    public void close() {
+        releaseFrames(frames);
+        for (IntSerDeBuffer frame : blockFrames) {
+            bufferManager.releaseFrame(frame.getByteBuffer());
+            currentByteSize -= frameSize;
+        }
+        blockFrames.clear();
+        Arrays.fill(freeBlocks, INVALID_VALUE);
+        nextBlock = 0;
+        slotCount = 0;
+        tupleCount = 0;
+        cachedEntry = INVALID_VALUE;
+    }
+
+    @Override
+    public boolean isGarbageCollectionNeeded() {
+        // Deleted slots and blocks are reclaimed right away.
+        return false;
+    }
+
+    @Override
+    public int collectGarbage(ITuplePointerAccessor bufferAccessor, ITuplePartitionComputer tpc)
+            throws HyracksDataException {
+        // Deleted slots and blocks are reclaimed right away.
+        return -1;
+    }
+
+    @Override
+    public String printInfo() {
+        return "capacity:" + capacity + " keyCount:" + slotCount + " tupleCount:" + tupleCount + " byteSize:"
+                + currentByteSize;
+    }
+
+    @Override
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Returns the largest block class whose blocks take at most a quarter of a frame, so that at least three quarters
+     * of a block frame are used when the next block does not fit in it.
+     */
+    private static int getMaxBlockClass(int frameSize) {
+        int maxBlockClass = 0;
+        while (maxBlockClass < MAX_BLOCK_CLASS && getBlockIntSize(maxBlockClass + 1) <= frameSize / INT_SIZE / 4) {
+            maxBlockClass++;
+        }
+        return maxBlockClass;
+    }
+
+    /**
+     * Returns the number of slots of a table that holds the given number of keys without growing.
+     */
+    private static int getCapacity(long keyCount) {
+        long requiredSlots = (long) Math.ceil(Math.max(1, keyCount) / MAX_LOAD_FACTOR);
+        return (int) Math.min(MAX_CAPACITY, Long.highestOneBit(requiredSlots - 1) << 1);
+    }
+
+    /**
+     * Returns the frame count of a table with the given capacity whose slots are all used and that holds the given
+     * number of duplicates.
+     */
+    private static long getExpectedFrameCount(long capacity, long duplicateCount, int frameSize) {
+        long slotsPerFrame = frameSize / (SLOT_INT_SIZE * INT_SIZE);
+        long slotFrameCount = (capacity + slotsPerFrame - 1) / slotsPerFrame;
+        if (duplicateCount <= 0) {
+            return slotFrameCount;
+        }
+        long usedIntsPerFrame = frameSize / INT_SIZE - getBlockIntSize(getMaxBlockClass(frameSize));
+        return slotFrameCount + 1
+                + (duplicateCount * MAX_BLOCK_INT_SIZE_PER_DUPLICATE + usedIntsPerFrame - 1) / usedIntsPerFrame;
+    }
+
+    /**
+     * Calculates the expected frame count of a table that holds the given number of tuple pointers. Since the keys of
+     * the tuple pointers are not known, this is the frame count of all the slots and of the blocks of as many
+     * duplicates.
+     *
+     * @param tableSize
+     *            : the number of tuple pointers
+     * @param frameSize
+     *            : the frame size
+     * @return
+     *         the expected frame count of the table
+     */
+    public static long getExpectedTableFrameCount(long tableSize, int frameSize) {
+        return getExpectedFrameCount(getCapacity(tableSize), tableSize - 1, frameSize);
+    }
+
+    public static long getExpectedTableByteSize(long tableSize, int frameSize) {
+        return getExpectedTableFrameCount(tableSize, frameSize) * frameSize;
+    }
+
+    /**
+     * Calculates the number of tuple pointers that a table holds without growing in the given memory. Since the
+     * capacity is a power of two and at most three quarters of the slots are used, the slot of a tuple pointer takes
+     * between 27 and 54 bytes, and its block at most 27 bytes more.
+     *
+     * @param byteSize
+     *            : the memory for the slots and the blocks
+     * @param frameSize
+     *            : the frame size
+     * @return
+     *         the number of tuple pointers, at least 1
+     */
+    public static long getTableSizeForByteSize(long byteSize, int frameSize) {
+        long frameCount = byteSize / frameSize;
+        long tableSize = 1;
+        for (long capacity = 2; capacity <= MAX_CAPACITY; capacity *= 2) {
+            long maxTableSize = (long) (capacity * MAX_LOAD_FACTOR);
+            if (getExpectedTableFrameCount(maxTableSize, frameSize) > frameCount) {
+                break;
+            }
+            tableSize = maxTableSize;
+        }
+        return tableSize;
+    }
+
+    /**
+     * Calculates the byte size increment/decrement of the table for a new number of tuple pointers.
+     *
+     * @see SimpleSerializableHashTable#calculateByteSizeDeltaForTableSizeChange(long, long, int)
+     */
+    public static long calculateByteSizeDeltaForTableSizeChange(long origTableSize, long delta, int frameSize) {
+        return getExpectedTableByteSize(origTableSize + delta, frameSize)
+                - getExpectedTableByteSize(origTableSize, frameSize);
+    }
+}
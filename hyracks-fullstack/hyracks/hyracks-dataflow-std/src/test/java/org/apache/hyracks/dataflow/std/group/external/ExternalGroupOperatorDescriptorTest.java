@@ -21,6 +21,7 @@ package org.apache.hyracks.dataflow.std.group.external;
 
 import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
 import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.dataflow.std.structures.OpenAddressingHashTable;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -114,4 +115,34 @@ public class ExternalGroupOperatorDescriptorTest {
         Assert.assertTrue(resultCardinality == 441913);
     }
 
+    @Test
+    public void testCalculateOpenAddressingGroupByTableCardinality() throws Exception {
+        // The slots and the blocks of an open-addressing table take 54 to 81 bytes per hash value, so the table holds
+        // fewer hash values than a SerializableHashTable in the same budget, and its expected size has to fit in its
+        // share.
+
+        // Test 1: memory size: 2 KB, frame size: 256 bytes, 1 column group-by
+        int resultCardinality = ExternalGroupOperatorDescriptor.calculateGroupByTableCardinality(2048, 1, 256, true);
+        Assert.assertEquals(12, resultCardinality);
+        Assert.assertEquals(1280L, OpenAddressingHashTable.getExpectedTableByteSize(resultCardinality, 256));
+
+        int frameSize = 128 * 1024;
+
+        // Test 2: memory size: 1 MB, frame size: 128 KB, 1 column group-by
+        long memoryBudgetInBytes = 1024 * 1024;
+        resultCardinality = ExternalGroupOperatorDescriptor.calculateGroupByTableCardinality(memoryBudgetInBytes, 1,
+                frameSize, true);
+        Assert.assertEquals(12288, resultCardinality);
+        Assert.assertEquals(6L * frameSize,
+                OpenAddressingHashTable.getExpectedTableByteSize(resultCardinality, frameSize));
+
+        // Test 3: memory size: 100 MB, frame size: 128 KB, 1 column group-by
+        memoryBudgetInBytes = 1024 * 1024 * 100L;
+        resultCardinality = ExternalGroupOperatorDescriptor.calculateGroupByTableCardinality(memoryBudgetInBytes, 1,
+                frameSize, true);
+        Assert.assertEquals(1572864, resultCardinality);
+        Assert.assertTrue(
+                OpenAddressingHashTable.getExpectedTableByteSize(resultCardinality, frameSize) < memoryBudgetInBytes);
+    }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.junit.Test;
+
+public class JoinBloomFilterTest {
+
+    private static final IBinaryHashFunctionFamily[] HASH_FAMILIES = { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+    private static final int[] BUILD_KEYS = { 0 };
+    private static final int[] PROBE_KEYS = { 1 };
+    private static final int NUM_KEYS = 10000;
+    // about 10 bits per key
+    private static final int FILTER_SIZE = NUM_KEYS * 10 / Byte.SIZE;
+
+    private final FrameManager ctx = new FrameManager(256);
+
+    @Test
+    public void testNoFalseNegatives() throws HyracksDataException {
+        JoinBloomFilter filter = new JoinBloomFilter(HASH_FAMILIES, FILTER_SIZE);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            filter.add(createTuple(i * 2, -1), 0, BUILD_KEYS);
+        }
+        for (int i = 0; i < NUM_KEYS; i++) {
+            // the key is in another field of the probe tuples
+            FrameTupleAccessor accessor = createTuple(-1, i * 2);
+            assertTrue("key " + i * 2, filter.mightContain(accessor, 0, PROBE_KEYS));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() throws HyracksDataException {
+        JoinBloomFilter filter = new JoinBloomFilter(HASH_FAMILIES, FILTER_SIZE);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            filter.add(createTuple(i * 2, -1), 0, BUILD_KEYS);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < NUM_KEYS; i++) {
+            if (filter.mightContain(createTuple(-1, i * 2 + 1), 0, PROBE_KEYS)) {
+                falsePositives++;
+            }
+        }
+        // the expected rate with 3 hash functions and 10 bits per key is below 2%
+        assertTrue("false positives: " + falsePositives, falsePositives < NUM_KEYS / 20);
+    }
+
+    private FrameTupleAccessor createTuple(int field0, int field1) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        tb.addField(IntegerSerializerDeserializer.INSTANCE, field0);
+        tb.addField(IntegerSerializerDeserializer.INSTANCE, field1);
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+}
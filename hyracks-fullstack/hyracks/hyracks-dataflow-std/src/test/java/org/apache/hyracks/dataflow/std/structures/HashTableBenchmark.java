@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.util.Random;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+
+/**
+ * Compares the build and the probe time of a {@link SerializableHashTable} and an {@link OpenAddressingHashTable}
+ * used the way the hash join uses them: the entry of a tuple is its hash modulo the number of build tuples, a probe
+ * reads the tuple count of the key and then its tuple pointers. Half of the probes have no match.
+ * The build tuples of a key are spread over the build input, so that a key with many duplicates is not built in a
+ * row.
+ * It is not run as part of the tests. Usage:
+ * HashTableBenchmark [build tuples] [probe tuples] [duplicates per key] [iterations]
+ */
+public class HashTableBenchmark {
+    private static final int FRAME_SIZE = 32768;
+    private static final int MEMORY_BUDGET = 1 << 30;
+
+    private HashTableBenchmark() {
+    }
+
+    private interface ITableFactory {
+        ISerializableTable create(int tableSize, IHyracksFrameMgrContext ctx, ISimpleFrameBufferManager bufferManager)
+                throws HyracksDataException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int buildTuples = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 22;
+        final int probeTuples = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 23;
+        final int duplicates = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        final int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final Random random = new Random(0);
+        final int[] keyHashes = new int[(buildTuples + duplicates - 1) / duplicates];
+        for (int i = 0; i < keyHashes.length; i++) {
+            keyHashes[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        final int[] buildHashes = new int[buildTuples];
+        for (int i = 0; i < buildTuples; i++) {
+            buildHashes[i] = keyHashes[i % keyHashes.length];
+        }
+        final int[] probeHashes = new int[probeTuples];
+        for (int i = 0; i < probeTuples; i++) {
+            probeHashes[i] = i % 2 == 0 ? buildHashes[random.nextInt(buildTuples)] : random.nextInt(Integer.MAX_VALUE);
+        }
+        System.out.println(String.format("%d build tuples, %d probe tuples, %d duplicates per key, %d iterations",
+                buildTuples, probeTuples, duplicates, iterations));
+        System.out.println(String.format("%-16s %16s %16s %16s %16s", "table", "build (ms)", "probe (ms)", "size (MB)",
+                "matches"));
+        for (int i = 0; i < 2; i++) {
+            // the first round warms up the compiled code of both tables
+            run("serializable", SerializableHashTable::new, buildHashes, probeHashes, iterations, i > 0);
+            run("open-addressing", OpenAddressingHashTable::new, buildHashes, probeHashes, iterations, i > 0);
+        }
+    }
+
+    private static void run(String name, ITableFactory factory, int[] buildHashes, int[] probeHashes, int iterations,
+            boolean print) throws HyracksDataException {
+        final IHyracksFrameMgrContext ctx = new FrameManager(FRAME_SIZE);
+        final TuplePointer pointer = new TuplePointer();
+        final int tableSize = buildHashes.length;
+        final int[] hashes = new int[Math.max(buildHashes.length, probeHashes.length)];
+        long buildTime = 0;
+        long probeTime = 0;
+        long byteSize = 0;
+        long matches = 0;
+        for (int it = 0; it < iterations; it++) {
+            final ISimpleFrameBufferManager bufferManager =
+                    new FramePoolBackedFrameBufferManager(new DeallocatableFramePool(ctx, MEMORY_BUDGET));
+            final ISerializableTable table = factory.create(tableSize, ctx, bufferManager);
+            for (int i = 0; i < buildHashes.length; i++) {
+                hashes[i] = buildHashes[i] % table.getHashRange();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < buildHashes.length; i++) {
+                pointer.reset(i / 64, i % 64);
+                if (!table.insert(hashes[i] % tableSize, hashes[i], pointer)) {
+                    throw new HyracksDataException("Not enough memory for the hash table");
+                }
+            }
+            buildTime += System.nanoTime() - start;
+            for (int i = 0; i < probeHashes.length; i++) {
+                hashes[i] = probeHashes[i] % table.getHashRange();
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < probeHashes.length; i++) {
+                final int entry = hashes[i] % tableSize;
+                final int count = table.getTupleCount(entry, hashes[i]);
+                for (int j = 0; j < count; j++) {
+                    table.getTuplePointer(entry, hashes[i], j, pointer);
+                    matches++;
+                }
+            }
+            probeTime += System.nanoTime() - start;
+            byteSize = table.getCurrentByteSize();
+            table.close();
+        }
+        if (print) {
+            System.out.println(String.format("%-16s %16.1f %16.1f %16.1f %16d", name, buildTime / 1e6 / iterations,
+                    probeTime / 1e6 / iterations, byteSize / 1048576.0, matches / iterations));
+        }
+    }
+}
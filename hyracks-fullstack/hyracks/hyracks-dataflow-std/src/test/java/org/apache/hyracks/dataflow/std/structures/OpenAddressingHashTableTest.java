@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.std.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenAddressingHashTableTest {
+
+    OpenAddressingHashTable nsTable;
+    final int NUM_PART = 101;
+    TuplePointer pointer = new TuplePointer(0, 0);
+    final int num = 10000;
+    protected IHyracksFrameMgrContext ctx;
+    private IDeallocatableFramePool framePool;
+    private ISimpleFrameBufferManager bufferManager;
+
+    @Before
+    public void setup() throws HyracksDataException {
+        ctx = new FrameManager(256);
+        framePool = new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 2048);
+        bufferManager = new FramePoolBackedFrameBufferManager(framePool);
+        nsTable = new OpenAddressingHashTable(NUM_PART, ctx, bufferManager);
+    }
+
+    @Test
+    public void testBatchDeletePartition() throws Exception {
+        testInsert();
+        for (int i = 0; i < NUM_PART; i++) {
+            nsTable.delete(i);
+            assertFalse(nsTable.getTuplePointer(i, 0, pointer));
+            assertEquals(0, nsTable.getTupleCount(i));
+
+            for (int j = i; j < num; j += NUM_PART) {
+                pointer.reset(j, j);
+                nsTable.insert(i, pointer);
+            }
+
+            assertGetValue();
+        }
+        assertEquals(num, nsTable.getTupleCount());
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, i);
+            assertTrue(nsTable.insert(i % NUM_PART, pointer));
+        }
+        assertGetValue();
+    }
+
+    @Test
+    public void testInsertDistinctEntries() throws Exception {
+        OpenAddressingHashTable table = new OpenAddressingHashTable(num, ctx, bufferManager);
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, -i);
+            assertTrue(table.insert(i, pointer));
+        }
+        for (int i = 0; i < num; i += 2) {
+            table.delete(i);
+        }
+        for (int i = 0; i < num; i++) {
+            assertEquals(i % 2, table.getTupleCount(i));
+            if (i % 2 == 1) {
+                assertTrue(table.getTuplePointer(i, 0, pointer));
+                assertEquals(i, pointer.getFrameIndex());
+                assertEquals(-i, pointer.getTupleIndex());
+            }
+        }
+        table.close();
+        assertEquals(0, table.getCurrentByteSize());
+    }
+
+    @Test
+    public void testInsertKeysOfAnEntry() throws Exception {
+        // Two keys share every entry and are told apart by their hash values.
+        for (int i = 0; i < num; i++) {
+            int hash = i % (2 * NUM_PART);
+            pointer.reset(i, hash);
+            assertTrue(nsTable.insert(hash % NUM_PART, hash, pointer));
+        }
+        for (int hash = 0; hash < 2 * NUM_PART; hash++) {
+            int entry = hash % NUM_PART;
+            int count = nsTable.getTupleCount(entry, hash);
+            assertEquals((num - hash + 2 * NUM_PART - 1) / (2 * NUM_PART), count);
+            for (int j = 0; j < count; j++) {
+                assertTrue(nsTable.getTuplePointer(entry, hash, j, pointer));
+                assertEquals(hash + j * 2 * NUM_PART, pointer.getFrameIndex());
+                assertEquals(hash, pointer.getTupleIndex());
+            }
+            assertFalse(nsTable.getTuplePointer(entry, hash, count, pointer));
+            assertEquals(0, nsTable.getTupleCount(entry, hash + 2 * NUM_PART));
+        }
+        assertGetValueByEntry();
+        assertEquals(num, nsTable.getTupleCount());
+    }
+
+    @Test
+    public void testInsertDuplicateKeys() throws Exception {
+        // All the tuple pointers have the same key, and the nodes of a deleted key are used again.
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < num; i++) {
+                pointer.reset(i, round);
+                assertTrue(nsTable.insert(0, 0, pointer));
+            }
+            int byteSize = nsTable.getCurrentByteSize();
+            assertEquals(num, nsTable.getTupleCount(0, 0));
+            for (int i = num - 1; i >= 0; i -= 7) {
+                assertTrue(nsTable.getTuplePointer(0, 0, i, pointer));
+                assertEquals(i, pointer.getFrameIndex());
+                assertEquals(round, pointer.getTupleIndex());
+            }
+            nsTable.delete(0);
+            assertEquals(0, nsTable.getTupleCount());
+            assertEquals(0, nsTable.getTupleCount(0));
+            assertEquals(byteSize, nsTable.getCurrentByteSize());
+        }
+        nsTable.close();
+        assertEquals(0, nsTable.getCurrentByteSize());
+    }
+
+    @Test
+    public void testInsertWithoutEnoughMemory() throws Exception {
+        framePool = new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 4);
+        bufferManager = new FramePoolBackedFrameBufferManager(framePool);
+        OpenAddressingHashTable table = new OpenAddressingHashTable(1, ctx, bufferManager);
+        int inserted = 0;
+        pointer.reset(0, 0);
+        while (table.insert(inserted, pointer)) {
+            inserted++;
+        }
+        // A failed insertion leaves the table unchanged.
+        assertEquals(inserted, table.getTupleCount());
+        for (int i = 0; i < inserted; i++) {
+            assertEquals(1, table.getTupleCount(i));
+        }
+        assertEquals(0, table.getTupleCount(inserted));
+        // The duplicates of a key take the frames that are left, and a failed insertion leaves the table unchanged.
+        int duplicates = 0;
+        while (table.insert(0, pointer)) {
+            duplicates++;
+        }
+        assertEquals(inserted + duplicates, table.getTupleCount());
+        assertEquals(1 + duplicates, table.getTupleCount(0));
+        assertEquals(1, table.getTupleCount(1));
+    }
+
+    protected void assertGetValue() {
+        int loop = 0;
+        for (int i = 0; i < num; i++) {
+            assertTrue(nsTable.getTuplePointer(i % NUM_PART, loop, pointer));
+            assertTrue(pointer.getFrameIndex() == i);
+            if (i % NUM_PART == NUM_PART - 1) {
+                loop++;
+            }
+        }
+        int tupleCntPerPart = (int) Math.ceil((double) num / NUM_PART);
+        for (int i = 0; i < NUM_PART; i++) {
+            assertTrue(nsTable.getTupleCount(i) == tupleCntPerPart || nsTable.getTupleCount(i) == tupleCntPerPart - 1);
+        }
+
+    }
+
+    private void assertGetValueByEntry() {
+        for (int entry = 0; entry < NUM_PART; entry++) {
+            int count = nsTable.getTupleCount(entry);
+            assertEquals(nsTable.getTupleCount(entry, entry) + nsTable.getTupleCount(entry, entry + NUM_PART), count);
+            for (int j = 0; j < count; j++) {
+                assertTrue(nsTable.getTuplePointer(entry, j, pointer));
+                assertEquals(entry, pointer.getTupleIndex() % NUM_PART);
+            }
+            assertFalse(nsTable.getTuplePointer(entry, count, pointer));
+        }
+    }
+
+    @Test
+    public void testGetCount() throws Exception {
+        assertAllPartitionsCountIsZero();
+    }
+
+    protected void assertAllPartitionsCountIsZero() {
+        for (int i = 0; i < NUM_PART; i++) {
+            assertEquals(0, nsTable.getTupleCount(i));
+        }
+    }
+}
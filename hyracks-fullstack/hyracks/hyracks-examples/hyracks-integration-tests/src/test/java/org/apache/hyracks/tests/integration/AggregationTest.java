@@ -20,6 +20,8 @@ package org.apache.hyracks.tests.integration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
 import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
@@ -30,6 +32,7 @@ import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.io.FileSplit;
 import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.result.ResultSetId;
 import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
@@ -66,6 +69,7 @@ import org.apache.hyracks.dataflow.std.group.external.ExternalGroupOperatorDescr
 import org.apache.hyracks.dataflow.std.group.preclustered.PreclusteredGroupOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
 import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -195,6 +199,111 @@ public class AggregationTest extends AbstractIntegrationTest {
         runTest(spec);
     }
 
+    @Test
+    public void singleKeySumAdaptiveLocalExtGroupTest() throws Exception {
+        List<String> adaptiveResults = runSingleKeySumTwoStageExtGroup(true, false);
+        List<String> results = runSingleKeySumTwoStageExtGroup(false, false);
+        Assert.assertFalse(results.isEmpty());
+        Collections.sort(adaptiveResults);
+        Collections.sort(results);
+        Assert.assertEquals(results, adaptiveResults);
+    }
+
+    @Test
+    public void singleKeySumOpenAddressingExtGroupTest() throws Exception {
+        // small frame limits, so that the group-bys also spill and merge their runs with open-addressing tables
+        List<String> openAddressingResults = runSingleKeySumTwoStageExtGroup(false, true);
+        List<String> results = runSingleKeySumTwoStageExtGroup(false, false);
+        Assert.assertFalse(results.isEmpty());
+        Collections.sort(openAddressingResults);
+        Collections.sort(results);
+        Assert.assertEquals(results, openAddressingResults);
+    }
+
+    private List<String> runSingleKeySumTwoStageExtGroup(boolean adaptiveLocalAggregation,
+            boolean useOpenAddressingTable) throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        FileScanOperatorDescriptor csvScanner =
+                new FileScanOperatorDescriptor(spec, splitProvider, tupleParserFactory, desc);
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, csvScanner, NC2_ID);
+
+        // integer sums and a count, so that the results do not depend on the order of the partial aggregation
+        RecordDescriptor outputRec = new RecordDescriptor(new ISerializerDeserializer[] {
+                new UTF8StringSerializerDeserializer(), IntegerSerializerDeserializer.INSTANCE,
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+        int[] keyFields = new int[] { 0 };
+        int frameLimits = 5;
+        int tableSize = 8;
+        long fileSize = frameLimits * spec.getFrameSize();
+
+        ExternalGroupOperatorDescriptor localGrouper =
+                new ExternalGroupOperatorDescriptor(spec, tableSize, fileSize, keyFields, frameLimits,
+                        new IBinaryComparatorFactory[] {
+                                PointableBinaryComparatorFactory.of(UTF8StringPointable.FACTORY) },
+                        new UTF8StringNormalizedKeyComputerFactory(),
+                        new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                                new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(3, false),
+                                new CountFieldAggregatorFactory(false) }),
+                        new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                                new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(2, false),
+                                new IntSumFieldAggregatorFactory(3, false) }),
+                        outputRec, outputRec,
+                        new HashSpillableTableFactory(
+                                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                                useOpenAddressingTable));
+        if (adaptiveLocalAggregation) {
+            localGrouper.setAdaptiveLocalAggregation(
+                    new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE });
+        }
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, localGrouper, NC2_ID);
+
+        IConnectorDescriptor conn1 = new OneToOneConnectorDescriptor(spec);
+        spec.connect(conn1, csvScanner, 0, localGrouper, 0);
+
+        ExternalGroupOperatorDescriptor globalGrouper =
+                new ExternalGroupOperatorDescriptor(spec, tableSize, fileSize, keyFields, frameLimits,
+                        new IBinaryComparatorFactory[] {
+                                PointableBinaryComparatorFactory.of(UTF8StringPointable.FACTORY) },
+                        new UTF8StringNormalizedKeyComputerFactory(),
+                        new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                                new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(2, false),
+                                new IntSumFieldAggregatorFactory(3, false) }),
+                        new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                                new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(2, false),
+                                new IntSumFieldAggregatorFactory(3, false) }),
+                        outputRec, outputRec,
+                        new HashSpillableTableFactory(
+                                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                                useOpenAddressingTable));
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, globalGrouper, NC2_ID, NC1_ID);
+
+        IConnectorDescriptor conn2 = new MToNPartitioningConnectorDescriptor(spec,
+                new FieldHashPartitionComputerFactory(keyFields, new IBinaryHashFunctionFactory[] {
+                        PointableBinaryHashFunctionFactory.of(UTF8StringPointable.FACTORY) }));
+        spec.connect(conn2, localGrouper, 0, globalGrouper, 0);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+        AbstractSingleActivityOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, false, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC2_ID, NC1_ID);
+
+        IConnectorDescriptor conn3 = new OneToOneConnectorDescriptor(spec);
+        spec.connect(conn3, globalGrouper, 0, printer, 0);
+
+        spec.addRoot(printer);
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        return results;
+    }
+
     @Test
     public void singleKeyAvgPreClusterGroupTest() throws Exception {
         JobSpecification spec = new JobSpecification();
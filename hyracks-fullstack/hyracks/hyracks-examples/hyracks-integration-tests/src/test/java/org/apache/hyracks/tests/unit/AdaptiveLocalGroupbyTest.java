@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryHashFunctionFamily;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.ByteBufferInputStream;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.UTF8StringNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.std.group.HashSpillableTableFactory;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
+import org.apache.hyracks.dataflow.std.group.IFieldAggregateDescriptorFactory;
+import org.apache.hyracks.dataflow.std.group.ISpillableTableFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.CountFieldAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.IntSumFieldAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.MultiFieldsAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.external.AdaptiveLocalGroupOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.group.external.ExternalGroupBuildOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.group.external.ExternalGroupWriteOperatorNodePushable;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveLocalGroupbyTest {
+    private static final int FRAME_SIZE = 256;
+    private static final int NUM_FRAMES = 23;
+    private static final int TABLE_SIZE = 101;
+    // the adaptive operator measures the ratio of new groups over batches of this many input frames
+    private static final int BATCH_FRAMES = 8;
+
+    private final RecordDescriptor inRecordDesc = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+    private final RecordDescriptor outputRec =
+            new RecordDescriptor(new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer(), // key
+                    IntegerSerializerDeserializer.INSTANCE, // sum
+                    IntegerSerializerDeserializer.INSTANCE, // count
+            });
+    private final int[] keyFields = new int[] { 1 };
+    private final int[] keyFieldsAfterPartial = new int[] { 0 };
+    private final IBinaryComparatorFactory[] comparatorFactories =
+            new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(UTF8StringPointable.FACTORY) };
+    private final IBinaryHashFunctionFamily[] hashFunctionFamilies =
+            new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE };
+    private final INormalizedKeyComputerFactory normalizedKeyComputerFactory =
+            new UTF8StringNormalizedKeyComputerFactory();
+    private final IAggregatorDescriptorFactory partialAggregator =
+            new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                    new IntSumFieldAggregatorFactory(0, false), new CountFieldAggregatorFactory(false) });
+    private final IAggregatorDescriptorFactory mergeAggregator =
+            new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                    new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(2, false) });
+
+    @Test
+    public void testPassThroughAndBack() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        List<ByteBuffer> input = new ArrayList<>();
+        // two batches of unique keys turn the pass-through on
+        int uniqueTuples = addFrames(ctx, input, 2 * BATCH_FRAMES, 0, i -> "unique" + i);
+        // the repeated keys are passed through until the aggregation is tried again, then they are aggregated
+        int repeatedTuples = addFrames(ctx, input, 40 * BATCH_FRAMES, uniqueTuples, i -> "repeated" + i % 5);
+        int tuplesPerFrame = repeatedTuples / (40 * BATCH_FRAMES);
+
+        ResultCollector adaptiveResult = new ResultCollector();
+        AdaptiveLocalGroupOperatorNodePushable adaptive = new AdaptiveLocalGroupOperatorNodePushable(ctx, keyFields,
+                NUM_FRAMES, comparatorFactories, partialAggregator, hashFunctionFamilies, inRecordDesc, outputRec);
+        adaptive.setOutputFrameWriter(0, adaptiveResult, outputRec);
+        adaptive.open();
+        try {
+            for (ByteBuffer frame : input) {
+                adaptive.nextFrame(frame);
+            }
+        } finally {
+            adaptive.close();
+        }
+
+        ResultCollector expectedResult = new ResultCollector();
+        ISpillableTableFactory tableFactory = new HashSpillableTableFactory(hashFunctionFamilies);
+        Object stateId = new Object();
+        ExternalGroupBuildOperatorNodePushable build = new ExternalGroupBuildOperatorNodePushable(ctx, stateId,
+                TABLE_SIZE, NUM_FRAMES * ctx.getInitialFrameSize(), keyFields, NUM_FRAMES, comparatorFactories,
+                normalizedKeyComputerFactory, partialAggregator, inRecordDesc, outputRec, tableFactory);
+        build.open();
+        try {
+            for (ByteBuffer frame : input) {
+                build.nextFrame(frame);
+            }
+        } finally {
+            build.close();
+        }
+        ExternalGroupWriteOperatorNodePushable merge =
+                new ExternalGroupWriteOperatorNodePushable(ctx, stateId, tableFactory, outputRec, outputRec, NUM_FRAMES,
+                        keyFieldsAfterPartial, normalizedKeyComputerFactory, comparatorFactories, mergeAggregator);
+        merge.setOutputFrameWriter(0, expectedResult, outputRec);
+        merge.initialize();
+
+        // the partial results of the adaptive group-by merge into the result of the non-adaptive group-by
+        Assert.assertEquals(uniqueTuples + 5, expectedResult.groups.size());
+        Assert.assertEquals(expectedResult.groups.keySet(), adaptiveResult.groups.keySet());
+        expectedResult.groups.forEach(
+                (key, sumAndCount) -> Assert.assertArrayEquals(key, sumAndCount, adaptiveResult.groups.get(key)));
+        Assert.assertEquals(uniqueTuples + repeatedTuples,
+                adaptiveResult.groups.values().stream().mapToInt(sumAndCount -> sumAndCount[1]).sum());
+
+        // at least a batch of repeated keys was passed through without aggregation
+        Assert.assertTrue(adaptiveResult.tupleCount > uniqueTuples + BATCH_FRAMES * tuplesPerFrame);
+        // and at least a batch of repeated keys was aggregated again after the pass-through
+        Assert.assertTrue(adaptiveResult.tupleCount < uniqueTuples + repeatedTuples - BATCH_FRAMES * tuplesPerFrame);
+    }
+
+    /**
+     * Appends full frames of (value, key) tuples to the input.
+     *
+     * @return the number of tuples in the added frames
+     */
+    private int addFrames(IHyracksTaskContext ctx, List<ByteBuffer> input, int numFrames, int firstTuple,
+            IntFunction<String> key) throws HyracksDataException {
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender();
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(inRecordDesc.getFieldCount());
+        int tuple = firstTuple;
+        for (int f = 0; f < numFrames; f++) {
+            appender.reset(frame, true);
+            while (true) {
+                tb.reset();
+                tb.addField(IntegerSerializerDeserializer.INSTANCE, tuple % 100);
+                tb.addField(inRecordDesc.getFields()[1], key.apply(tuple));
+                if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                    break;
+                }
+                tuple++;
+            }
+            ByteBuffer copy = ByteBuffer.allocate(frame.getFrameSize());
+            copy.put(frame.getBuffer().array(), 0, frame.getFrameSize());
+            copy.flip();
+            input.add(copy);
+        }
+        return tuple - firstTuple;
+    }
+
+    /**
+     * Merges the sums and counts of the output tuples by key, like the global stage of a two-stage group-by.
+     */
+    private class ResultCollector implements IFrameWriter {
+        private final Map<String, int[]> groups = new HashMap<>();
+        private final FrameTupleAccessor accessor = new FrameTupleAccessor(outputRec);
+        private final ByteBufferInputStream bbis = new ByteBufferInputStream();
+        private final DataInputStream di = new DataInputStream(bbis);
+        private int tupleCount;
+
+        @Override
+        public void open() {
+            // nothing to open
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            accessor.reset(buffer);
+            for (int t = 0; t < accessor.getTupleCount(); t++) {
+                Object[] fields = new Object[outputRec.getFieldCount()];
+                for (int f = 0; f < fields.length; f++) {
+                    bbis.setByteBuffer(buffer, accessor.getAbsoluteFieldStartOffset(t, f));
+                    fields[f] = outputRec.getFields()[f].deserialize(di);
+                }
+                int[] sumAndCount = groups.computeIfAbsent((String) fields[0], k -> new int[2]);
+                sumAndCount[0] += (int) fields[1];
+                sumAndCount[1] += (int) fields[2];
+                tupleCount++;
+            }
+        }
+
+        @Override
+        public void fail() {
+            // the operator rethrows its failure to the test
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
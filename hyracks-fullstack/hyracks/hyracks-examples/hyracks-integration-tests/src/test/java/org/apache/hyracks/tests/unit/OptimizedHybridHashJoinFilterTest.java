@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFamily;
+import org.apache.hyracks.dataflow.std.join.JoinBloomFilter;
+import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoin;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Test;
+
+public class OptimizedHybridHashJoinFilterTest {
+
+    private static final int FRAME_SIZE = 256;
+    private static final int MEM_FRAMES = 8;
+    private static final int NUM_PARTITIONS = 4;
+    private static final int NUM_BUILD_TUPLES = 2000;
+    // only one probe tuple out of ten has a match
+    private static final int NUM_PROBE_TUPLES = 10 * NUM_BUILD_TUPLES;
+    private static final int FILTER_SIZE = 4096;
+    private static final int[] KEYS = { 0 };
+    private static final IBinaryHashFunctionFamily[] HASH_FAMILIES = { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+    private static final RecordDescriptor JOIN_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+    private final IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+
+    @Test
+    public void testSelectiveBuildSide() throws HyracksDataException {
+        List<ByteBuffer> buildFrames = createFrames(NUM_BUILD_TUPLES);
+        List<ByteBuffer> probeFrames = createFrames(NUM_PROBE_TUPLES);
+        JoinStats filtered = join(buildFrames, probeFrames, true);
+        JoinStats unfiltered = join(buildFrames, probeFrames, false);
+        // the filter drops probe tuples without a match instead of spilling them
+        assertTrue(filtered.droppedTups > 0);
+        assertTrue(filtered.droppedTups <= NUM_PROBE_TUPLES - NUM_BUILD_TUPLES);
+        assertEquals(0, unfiltered.droppedTups);
+        assertEquals(unfiltered.spilledProbeTups, filtered.spilledProbeTups + filtered.droppedTups);
+        // the resident partitions are joined alike
+        assertEquals(unfiltered.joinedTups, filtered.joinedTups);
+    }
+
+    private JoinStats join(List<ByteBuffer> buildFrames, List<ByteBuffer> probeFrames, boolean useJoinFilter)
+            throws HyracksDataException {
+        IBinaryComparator[] comparators =
+                { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY).createBinaryComparator() };
+        ITuplePartitionComputer hpc = new FieldHashPartitionComputerFamily(KEYS, HASH_FAMILIES).createPartitioner(0);
+        OptimizedHybridHashJoin join = new OptimizedHybridHashJoin(ctx, MEM_FRAMES, NUM_PARTITIONS, "probe", "build",
+                KEYS, KEYS, comparators, RECORD_DESC, RECORD_DESC, hpc, hpc, null, false, null);
+        if (useJoinFilter) {
+            join.setJoinFilter(new JoinBloomFilter(HASH_FAMILIES, FILTER_SIZE));
+        }
+        JoinStats stats = new JoinStats();
+        IFrameWriter writer = new IFrameWriter() {
+            private final FrameTupleAccessor accessor = new FrameTupleAccessor(JOIN_DESC);
+
+            @Override
+            public void open() {
+                // nothing to open
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) {
+                accessor.reset(buffer);
+                stats.joinedTups += accessor.getTupleCount();
+            }
+
+            @Override
+            public void fail() {
+                // nothing to fail
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+        join.initBuild();
+        for (ByteBuffer frame : buildFrames) {
+            join.build(frame);
+        }
+        join.closeBuild();
+        join.initProbe();
+        for (ByteBuffer frame : probeFrames) {
+            join.probe(frame, writer);
+        }
+        join.completeProbe(writer);
+        BitSet spilled = join.getPartitionStatus();
+        assertFalse(spilled.isEmpty());
+        for (int pid = spilled.nextSetBit(0); pid >= 0; pid = spilled.nextSetBit(pid + 1)) {
+            stats.spilledProbeTups += join.getProbePartitionSizeInTup(pid);
+        }
+        stats.droppedTups = join.getJoinFilterDroppedTups();
+        join.releaseResource();
+        join.clearBuildTempFiles();
+        join.clearProbeTempFiles();
+        return stats;
+    }
+
+    /**
+     * @return frames of tuples whose key and value are 0 to numTuples - 1
+     */
+    private List<ByteBuffer> createFrames(int numTuples) throws HyracksDataException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(RECORD_DESC.getFieldCount());
+        for (int i = 0; i < numTuples; i++) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, i);
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, i);
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                frames.add(copy(frame));
+                appender.reset(frame, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        if (appender.getTupleCount() > 0) {
+            frames.add(copy(frame));
+        }
+        return frames;
+    }
+
+    private static ByteBuffer copy(VSizeFrame frame) {
+        return ByteBuffer.wrap(Arrays.copyOf(frame.getBuffer().array(), frame.getFrameSize()));
+    }
+
+    private static class JoinStats {
+        private long joinedTups;
+        private long spilledProbeTups;
+        private long droppedTups;
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.hyracks.storage.am.bloomfilter.impls;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -283,6 +284,8 @@ public class BloomFilter {
         private final long numBits;
         private final int numPages;
         private long actualNumElements;
+        // the number of elements added concurrently
+        private final LongAdder concurrentNumElements = new LongAdder();
         private final IFIFOPageQueue queue;
         private final ICachedPage[] pages;
         private ICachedPage metaDataPage = null;
@@ -355,17 +358,43 @@ public class BloomFilter {
             }
             actualNumElements++;
             MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+            ICachedPage page = pages[getPageIndex(hashes)];
+            setBits(page, hashes);
+        }
 
-            long hash = Math.abs(hashes[0] % numBits);
-            long groupId = hash / NUM_BITS_PER_BLOCK;
-            int pageId = (int) (groupId / numBlocksPerPage);
-            long groupStartIndex = (groupId % numBlocksPerPage) * NUM_BITS_PER_BLOCK;
+        /**
+         * Adds a tuple to the filter. Unlike {@link #add(ITupleReference)}, it can be called by several threads at
+         * the same time: the tuples are hashed concurrently and only the pages of the filter are locked while their
+         * bits are set. Tuples must not be added through {@link #add(ITupleReference)} meanwhile.
+         *
+         * @param tuple
+         *            the tuple to add
+         * @param hashes
+         *            a hash array created by {@link BloomFilter#createHashArray()} that is only used by the caller
+         */
+        public void addConcurrently(ITupleReference tuple, long[] hashes) throws HyracksDataException {
+            if (numPages == 0) {
+                throw HyracksDataException.create(ErrorCode.CANNOT_ADD_TUPLES_TO_DUMMY_BLOOM_FILTER);
+            }
+            MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+            ICachedPage page = pages[getPageIndex(hashes)];
+            synchronized (page) {
+                setBits(page, hashes);
+            }
+            concurrentNumElements.increment();
+        }
 
-            ICachedPage page = pages[pageId];
-            ByteBuffer buffer = page.getBuffer();
+        private int getPageIndex(long[] hashes) {
+            long groupId = Math.abs(hashes[0] % numBits) / NUM_BITS_PER_BLOCK;
+            return (int) (groupId / numBlocksPerPage);
+        }
 
+        private void setBits(ICachedPage page, long[] hashes) {
+            long groupId = Math.abs(hashes[0] % numBits) / NUM_BITS_PER_BLOCK;
+            long groupStartIndex = (groupId % numBlocksPerPage) * NUM_BITS_PER_BLOCK;
+            ByteBuffer buffer = page.getBuffer();
             for (int i = 1; i < numHashes; ++i) {
-                hash = Math.abs((hashes[0] + i * hashes[1]) % NUM_BITS_PER_BLOCK);
+                long hash = Math.abs((hashes[0] + i * hashes[1]) % NUM_BITS_PER_BLOCK);
                 int byteIndex = (int) ((hash + groupStartIndex) >> 3); // divide 8
                 byte b = buffer.get(byteIndex);
                 int bitIndex = (int) (hash & 0x07); // mod 8
@@ -376,6 +405,7 @@ public class BloomFilter {
 
         @Override
         public void end() throws HyracksDataException {
+            actualNumElements += concurrentNumElements.sumThenReset();
             allocateAndInitMetaDataPage();
             queue.put(metaDataPage, this);
             for (ICachedPage p : pages) {
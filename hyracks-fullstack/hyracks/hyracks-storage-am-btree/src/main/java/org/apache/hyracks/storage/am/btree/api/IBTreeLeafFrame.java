@@ -53,4 +53,12 @@ public interface IBTreeLeafFrame extends IBTreeFrame {
 
     void ensureCapacity(IBufferCache bufferCache, ITupleReference tuple, IExtraPageBlockHelper extraPageBlockHelper)
             throws HyracksDataException;
+
+    /**
+     * @return true if the pages of the frame can only be written by bulk loads. Such a frame buffers the tuples of the
+     *         page that is being loaded and writes them to the page when it is compressed.
+     */
+    default boolean isBulkLoadOnly() {
+        return false;
+    }
 }
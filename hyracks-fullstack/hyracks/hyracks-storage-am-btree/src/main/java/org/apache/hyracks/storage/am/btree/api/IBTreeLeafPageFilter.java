@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.btree.api;
+
+/**
+ * Lets a range search skip leaf pages that are known not to contain any tuple of interest, e.g. based on synopses of
+ * the tuples that were written to the pages when the tree was bulk loaded. Leaf page ids are assumed to increase
+ * along the leaf chain.
+ */
+@FunctionalInterface
+public interface IBTreeLeafPageFilter {
+    /**
+     * @param pageId
+     *            a leaf page id
+     * @return the first leaf page id at or after pageId whose tuples may be of interest or -1 if there is none
+     */
+    int getNextLeafPage(int pageId);
+}
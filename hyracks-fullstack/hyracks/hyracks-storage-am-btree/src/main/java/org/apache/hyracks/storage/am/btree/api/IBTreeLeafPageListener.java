@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.btree.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Is told by a bulk loader about each leaf page that it completes, e.g. to build synopses of the tuples of the pages
+ * (see {@link IBTreeLeafPageFilter}).
+ */
+@FunctionalInterface
+public interface IBTreeLeafPageListener {
+    /**
+     * Called once the last tuple of a leaf page was added, before the first tuple of the next leaf page is added. The
+     * pages are completed in the order of the leaf chain.
+     *
+     * @param pageId
+     *            the id of the completed leaf page
+     */
+    void leafPageCompleted(int pageId) throws HyracksDataException;
+}
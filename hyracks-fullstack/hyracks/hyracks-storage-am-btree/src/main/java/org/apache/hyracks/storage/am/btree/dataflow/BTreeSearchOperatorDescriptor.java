@@ -19,6 +19,8 @@
 
 package org.apache.hyracks.storage.am.btree.dataflow;
 
+import java.util.BitSet;
+
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
 import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
@@ -51,6 +53,7 @@ public class BTreeSearchOperatorDescriptor extends AbstractSingleActivityOperato
     protected byte[] searchCallbackProceedResultTrueValue;
     protected final ITupleFilterFactory tupleFilterFactory;
     protected final long outputLimit;
+    protected BitSet columnProjection;
 
     public BTreeSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
             int[] lowKeyFields, int[] highKeyFields, boolean lowKeyInclusive, boolean highKeyInclusive,
@@ -90,15 +93,28 @@ public class BTreeSearchOperatorDescriptor extends AbstractSingleActivityOperato
         this.searchCallbackProceedResultTrueValue = searchCallbackProceedResultTrueValue;
     }
 
+    /**
+     * Sets the columns of a columnar index that are read by the search. The other columns are not assembled into the
+     * output tuples.
+     *
+     * @param columnProjection
+     *            the columns to read or null to read all of them
+     */
+    public void setColumnProjection(BitSet columnProjection) {
+        this.columnProjection = columnProjection;
+    }
+
     @Override
     public BTreeSearchOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
             IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
-        return new BTreeSearchOperatorNodePushable(ctx, partition,
+        BTreeSearchOperatorNodePushable pushable = new BTreeSearchOperatorNodePushable(ctx, partition,
                 recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), lowKeyFields, highKeyFields,
                 lowKeyInclusive, highKeyInclusive, minFilterFieldIndexes, maxFilterFieldIndexes, indexHelperFactory,
                 retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, appendIndexFilter,
                 tupleFilterFactory, outputLimit, appendOpCallbackProceedResult, searchCallbackProceedResultFalseValue,
                 searchCallbackProceedResultTrueValue);
+        pushable.setColumnProjection(columnProjection);
+        return pushable;
     }
 
 }
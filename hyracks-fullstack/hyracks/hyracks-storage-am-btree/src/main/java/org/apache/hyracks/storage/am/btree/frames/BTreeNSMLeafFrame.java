@@ -153,7 +153,7 @@ public class BTreeNSMLeafFrame extends TreeIndexNSMFrame implements IBTreeLeafFr
     }
 
     @Override
-    public void insertSorted(ITupleReference tuple) {
+    public void insertSorted(ITupleReference tuple) throws HyracksDataException {
         insert(tuple, slotManager.getGreatestKeyIndicator());
     }
 
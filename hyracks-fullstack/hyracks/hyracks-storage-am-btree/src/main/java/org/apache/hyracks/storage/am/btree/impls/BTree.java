@@ -36,16 +36,19 @@ import org.apache.hyracks.dataflow.common.utils.TupleUtils;
 import org.apache.hyracks.storage.am.btree.api.IBTreeFrame;
 import org.apache.hyracks.storage.am.btree.api.IBTreeInteriorFrame;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafPageListener;
 import org.apache.hyracks.storage.am.btree.api.ITupleAcceptor;
 import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrame;
 import org.apache.hyracks.storage.am.btree.impls.BTreeOpContext.PageValidationInfo;
 import org.apache.hyracks.storage.am.common.api.IBTreeIndexTupleReference;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
 import org.apache.hyracks.storage.am.common.api.ISplitKey;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexAccessor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriter;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
 import org.apache.hyracks.storage.am.common.frames.FrameOpSpaceStatus;
 import org.apache.hyracks.storage.am.common.impls.AbstractTreeIndex;
@@ -88,6 +91,17 @@ public class BTree extends AbstractTreeIndex {
         ITreeIndexFrame interiorFrame = interiorFrameFactory.createFrame();
         maxTupleSize = Math.min(leafFrame.getMaxTupleSize(bufferCache.getPageSize()),
                 interiorFrame.getMaxTupleSize(bufferCache.getPageSize()));
+        if (((IBTreeLeafFrame) leafFrame).isBulkLoadOnly() && isModifiable()) {
+            throw new IllegalArgumentException(
+                    "The leaf pages of " + leafFrameFactory + " can only be bulk loaded, which requires a DiskBTree");
+        }
+    }
+
+    /**
+     * @return true if tuples can be inserted, updated and deleted after the tree is bulk loaded
+     */
+    protected boolean isModifiable() {
+        return true;
     }
 
     private void diskOrderScan(ITreeIndexCursor icursor, BTreeOpContext ctx) throws HyracksDataException {
@@ -996,17 +1010,37 @@ public class BTree extends AbstractTreeIndex {
         return new BTreeBulkLoader(fillFactor, verifyInput);
     }
 
-    public class BTreeBulkLoader extends AbstractTreeIndex.AbstractTreeIndexBulkLoader {
+    public class BTreeBulkLoader extends AbstractTreeIndex.AbstractTreeIndexBulkLoader
+            implements IRangePartitionedBulkLoader {
         protected final ISplitKey splitKey;
         protected final boolean verifyInput;
+        // bulk load only leaves are written when they are compressed, which must happen exactly once per leaf
+        protected final boolean bulkLoadOnlyLeaves;
+        private boolean createdRangeLoader = false;
+        // the page id of the empty leaf frontier, which is given to the first leaf taken by a range loader
+        private int unusedLeafPageId = IBufferCache.INVALID_PAGEID;
+        // the first and the last leaves of the chain of leaves that were written
+        private int firstWrittenLeafPageId = IBufferCache.INVALID_PAGEID;
+        private int lastWrittenLeafPageId = IBufferCache.INVALID_PAGEID;
+        private IBTreeLeafPageListener leafPageListener;
 
         public BTreeBulkLoader(float fillFactor, boolean verifyInput) throws HyracksDataException {
             super(fillFactor);
             this.verifyInput = verifyInput;
+            bulkLoadOnlyLeaves = ((IBTreeLeafFrame) leafFrame).isBulkLoadOnly();
             splitKey = new BTreeSplitKey(leafFrame.getTupleWriter().createTupleReference());
             splitKey.getTuple().setFieldCount(cmp.getKeyFieldCount());
         }
 
+        /**
+         * @param leafPageListener
+         *            is told about the leaf pages that this loader completes (but not about those of its range
+         *            loaders) or null
+         */
+        public void setLeafPageListener(IBTreeLeafPageListener leafPageListener) {
+            this.leafPageListener = leafPageListener;
+        }
+
         @Override
         public void add(ITupleReference tuple) throws HyracksDataException {
             try {
@@ -1017,7 +1051,7 @@ public class BTree extends AbstractTreeIndex {
                 int spaceUsed = leafFrame.getBuffer().capacity() - leafFrame.getTotalFreeSpace();
 
                 // try to free space by compression
-                if (spaceUsed + spaceNeeded > leafMaxBytes) {
+                if (spaceUsed + spaceNeeded > leafMaxBytes && !bulkLoadOnlyLeaves) {
                     leafFrame.compress();
                     spaceUsed = leafFrame.getBuffer().capacity() - leafFrame.getTotalFreeSpace();
                 }
@@ -1030,25 +1064,8 @@ public class BTree extends AbstractTreeIndex {
                         if (verifyInput) {
                             verifyInputTuple(tuple, leafFrontier.lastTuple);
                         }
-                        int splitKeySize = tupleWriter.bytesRequired(leafFrontier.lastTuple, 0, cmp.getKeyFieldCount());
-                        splitKey.initData(splitKeySize);
-                        tupleWriter.writeTupleFields(leafFrontier.lastTuple, 0, cmp.getKeyFieldCount(),
-                                splitKey.getBuffer().array(), 0);
-                        splitKey.getTuple().resetByTupleOffset(splitKey.getBuffer().array(), 0);
-                        splitKey.setLeftPage(leafFrontier.pageId);
-
-                        propagateBulk(1, pagesToWrite);
-
-                        leafFrontier.pageId = freePageManager.takePage(metaFrame);
-
-                        ((IBTreeLeafFrame) leafFrame).setNextLeaf(leafFrontier.pageId);
-
-                        putInQueue(leafFrontier.page);
-                        for (ICachedPage c : pagesToWrite) {
-                            putInQueue(c);
-                        }
-                        pagesToWrite.clear();
-                        splitKey.setRightPage(leafFrontier.pageId);
+                        propagateLeafSplitKey();
+                        writeLeafFrontier(freePageManager.takePage(metaFrame));
                     }
                     if (tupleSize > maxTupleSize) {
                         final long dpid = BufferedFileHandle.getDiskPageId(getFileId(), leafFrontier.pageId);
@@ -1084,6 +1101,45 @@ public class BTree extends AbstractTreeIndex {
             }
         }
 
+        /**
+         * Propagates the key of the last tuple of the leaf frontier to the interior levels
+         */
+        private void propagateLeafSplitKey() throws HyracksDataException {
+            NodeFrontier leafFrontier = nodeFrontiers.get(0);
+            int splitKeySize = tupleWriter.bytesRequired(leafFrontier.lastTuple, 0, cmp.getKeyFieldCount());
+            splitKey.initData(splitKeySize);
+            tupleWriter.writeTupleFields(leafFrontier.lastTuple, 0, cmp.getKeyFieldCount(),
+                    splitKey.getBuffer().array(), 0);
+            splitKey.getTuple().resetByTupleOffset(splitKey.getBuffer().array(), 0);
+            splitKey.setLeftPage(leafFrontier.pageId);
+            propagateBulk(1, pagesToWrite);
+        }
+
+        /**
+         * Writes the leaf frontier and the interior pages that were completed by its split key
+         *
+         * @param nextLeafPageId
+         *            the page id of the next leaf, which becomes the page id of the frontier
+         */
+        private void writeLeafFrontier(int nextLeafPageId) throws HyracksDataException {
+            NodeFrontier leafFrontier = nodeFrontiers.get(0);
+            if (leafPageListener != null) {
+                leafPageListener.leafPageCompleted(leafFrontier.pageId);
+            }
+            leafWritten(leafFrontier.pageId);
+            leafFrontier.pageId = nextLeafPageId;
+            ((IBTreeLeafFrame) leafFrame).setNextLeaf(leafFrontier.pageId);
+            if (bulkLoadOnlyLeaves) {
+                leafFrame.compress();
+            }
+            putInQueue(leafFrontier.page);
+            for (ICachedPage c : pagesToWrite) {
+                putInQueue(c);
+            }
+            pagesToWrite.clear();
+            splitKey.setRightPage(leafFrontier.pageId);
+        }
+
         protected void verifyInputTuple(ITupleReference tuple, ITupleReference prevTuple) throws HyracksDataException {
             // New tuple should be strictly greater than last tuple.
             int cmpResult = cmp.compare(tuple, prevTuple);
@@ -1152,6 +1208,13 @@ public class BTree extends AbstractTreeIndex {
                 ICachedPage lastLeaf = nodeFrontiers.get(level).page;
                 int lastLeafPage = nodeFrontiers.get(level).pageId;
                 lastLeaf.setDiskPageId(BufferedFileHandle.getDiskPageId(getFileId(), nodeFrontiers.get(level).pageId));
+                if (leafPageListener != null) {
+                    leafPageListener.leafPageCompleted(lastLeafPage);
+                }
+                if (bulkLoadOnlyLeaves) {
+                    leafFrame.setPage(lastLeaf);
+                    leafFrame.compress();
+                }
                 putInQueue(lastLeaf);
                 nodeFrontiers.get(level).page = null;
                 persistFrontiers(level + 1, lastLeafPage);
@@ -1187,6 +1250,305 @@ public class BTree extends AbstractTreeIndex {
         public void abort() throws HyracksDataException {
             super.handleException();
         }
+
+        /**
+         * Range loaders can be used concurrently, but tuples must not be added while range loaders are in use
+         */
+        @Override
+        public IIndexBulkLoader createRangeLoader() throws HyracksDataException {
+            synchronized (metaFrame) {
+                if (!createdRangeLoader) {
+                    createdRangeLoader = true;
+                    if (leafFrame.getTupleCount() == 0) {
+                        unusedLeafPageId = nodeFrontiers.get(0).pageId;
+                    }
+                }
+            }
+            return new RangeLoader();
+        }
+
+        @Override
+        public void appendRange(IIndexBulkLoader rangeLoader) throws HyracksDataException {
+            RangeLoader range = (RangeLoader) rangeLoader;
+            if (range.page == null) {
+                return;
+            }
+            try {
+                NodeFrontier leafFrontier = nodeFrontiers.get(0);
+                leafFrame.setPage(leafFrontier.page);
+                if (leafFrame.getTupleCount() == 0) {
+                    bufferCache.returnPage(leafFrontier.page, false);
+                } else {
+                    leafFrontier.lastTuple.resetByTupleIndex(leafFrame, leafFrame.getTupleCount() - 1);
+                    propagateLeafSplitKey();
+                    writeLeafFrontier(range.firstPageId);
+                }
+                // the last leaf of the range becomes the frontier
+                leafFrontier.page = range.page;
+                leafFrontier.pageId = range.pageId;
+                range.page = null;
+                leafFrame.setPage(leafFrontier.page);
+                for (int i = 0; i < range.splitKeys.size(); i++) {
+                    byte[] key = range.splitKeys.get(i);
+                    splitKey.initData(key.length);
+                    System.arraycopy(key, 0, splitKey.getBuffer().array(), 0, key.length);
+                    splitKey.getTuple().resetByTupleOffset(splitKey.getBuffer().array(), 0);
+                    splitKey.setLeftPage(range.leafPageIds.get(i));
+                    propagateBulk(1, pagesToWrite);
+                    for (ICachedPage c : pagesToWrite) {
+                        putInQueue(c);
+                    }
+                    pagesToWrite.clear();
+                    leafWritten(range.leafPageIds.get(i));
+                }
+            } catch (HyracksDataException | RuntimeException e) {
+                handleException();
+                throw e;
+            }
+        }
+
+        /**
+         * Appends a leaf that was not built by this loader, e.g. a leaf that an interrupted load of the same tree
+         * wrote to another file. Its tuples must be greater than those of the leaves that were appended before and its
+         * next leaf is set when the next leaf is appended. Tuples must not be added while leaves are appended and the
+         * loader must be aborted if the append fails.
+         *
+         * @param page
+         *            a page confiscated for the leaf at its page id in the file of this tree, which the loader takes
+         *            over
+         * @param pageId
+         *            the page id of the leaf, which must have been reserved through {@link #reservePages(int)}
+         */
+        public void appendLeaf(ICachedPage page, int pageId) throws HyracksDataException {
+            NodeFrontier leafFrontier = nodeFrontiers.get(0);
+            try {
+                leafFrame.setPage(leafFrontier.page);
+                if (leafFrame.getTupleCount() == 0) {
+                    bufferCache.returnPage(leafFrontier.page, false);
+                } else {
+                    leafFrontier.lastTuple.resetByTupleIndex(leafFrame, leafFrame.getTupleCount() - 1);
+                    propagateLeafSplitKey();
+                    writeLeafFrontier(pageId);
+                }
+                leafFrontier.page = page;
+                leafFrontier.pageId = pageId;
+                leafFrame.setPage(leafFrontier.page);
+            } catch (HyracksDataException | RuntimeException e) {
+                if (leafFrontier.page != page) {
+                    bufferCache.returnPage(page, false);
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Makes the pages up to the given page id unavailable to this loader and to its range loaders
+         *
+         * @param maxPageId
+         *            the largest reserved page id
+         */
+        public void reservePages(int maxPageId) throws HyracksDataException {
+            synchronized (metaFrame) {
+                int currentMaxPageId = freePageManager.getMaxPageId(metaFrame);
+                if (maxPageId > currentMaxPageId) {
+                    freePageManager.takeBlock(metaFrame, maxPageId - currentMaxPageId);
+                }
+            }
+        }
+
+        /**
+         * @return the largest page id that was taken by this loader and its range loaders
+         */
+        public int getMaxPageId() throws HyracksDataException {
+            synchronized (metaFrame) {
+                return freePageManager.getMaxPageId(metaFrame);
+            }
+        }
+
+        /**
+         * @return the page id of the first leaf of the chain of leaves that were written or
+         *         {@link IBufferCache#INVALID_PAGEID} if none was written. The leaf that is being built and the last
+         *         leaves of the ranges that were not appended are not written.
+         */
+        public int getFirstWrittenLeafPageId() {
+            return firstWrittenLeafPageId;
+        }
+
+        /**
+         * @return the page id of the last leaf of the chain of leaves that were written or
+         *         {@link IBufferCache#INVALID_PAGEID} if none was written
+         */
+        public int getLastWrittenLeafPageId() {
+            return lastWrittenLeafPageId;
+        }
+
+        /**
+         * Waits until the pages that were written so far, including the leaves of the chain of written leaves, are
+         * durable
+         */
+        public void force() throws HyracksDataException {
+            bufferCache.finishQueue();
+            if (hasFailed()) {
+                throw HyracksDataException.create(getFailure());
+            }
+            bufferCache.force(getFileId(), false);
+        }
+
+        private void leafWritten(int pageId) {
+            if (firstWrittenLeafPageId == IBufferCache.INVALID_PAGEID) {
+                firstWrittenLeafPageId = pageId;
+            }
+            lastWrittenLeafPageId = pageId;
+        }
+
+        private int takeRangePages(int count) throws HyracksDataException {
+            synchronized (metaFrame) {
+                if (count > 1) {
+                    return freePageManager.takeBlock(metaFrame, count);
+                }
+                if (unusedLeafPageId != IBufferCache.INVALID_PAGEID) {
+                    int pageId = unusedLeafPageId;
+                    unusedLeafPageId = IBufferCache.INVALID_PAGEID;
+                    return pageId;
+                }
+                return freePageManager.takePage(metaFrame);
+            }
+        }
+
+        /**
+         * Builds and writes the linked leaves of a key range. The last leaf is kept until the range is appended, when
+         * it becomes the leaf frontier of the tree and the keys of the other leaves are propagated to the interior
+         * levels.
+         */
+        private class RangeLoader implements IIndexBulkLoader {
+            private final IBTreeLeafFrame rangeLeafFrame;
+            private final ITreeIndexFrame rangeInteriorFrame;
+            private final ITreeIndexTupleWriter rangeTupleWriter;
+            private final ITreeIndexTupleReference lastTuple;
+            // the keys of the last tuples of the written leaves and the page ids of these leaves
+            private final List<byte[]> splitKeys = new ArrayList<>();
+            private final List<Integer> leafPageIds = new ArrayList<>();
+            private ICachedPage page;
+            private int pageId = IBufferCache.INVALID_PAGEID;
+            private int firstPageId = IBufferCache.INVALID_PAGEID;
+
+            RangeLoader() {
+                rangeLeafFrame = (IBTreeLeafFrame) leafFrameFactory.createFrame();
+                rangeLeafFrame.setMultiComparator(cmp);
+                rangeInteriorFrame = interiorFrameFactory.createFrame();
+                rangeInteriorFrame.setMultiComparator(cmp);
+                rangeTupleWriter = rangeLeafFrame.getTupleWriter();
+                lastTuple = rangeLeafFrame.createTupleReference();
+            }
+
+            @Override
+            public void add(ITupleReference tuple) throws HyracksDataException {
+                try {
+                    int tupleSize = Math.max(rangeLeafFrame.getBytesRequiredToWriteTuple(tuple),
+                            rangeInteriorFrame.getBytesRequiredToWriteTuple(tuple));
+                    if (page == null) {
+                        startLeaf(takeRangePages(1), tupleSize);
+                    } else {
+                        int spaceNeeded = rangeTupleWriter.bytesRequired(tuple) + slotSize;
+                        int spaceUsed = rangeLeafFrame.getBuffer().capacity() - rangeLeafFrame.getTotalFreeSpace();
+                        if (spaceUsed + spaceNeeded > leafMaxBytes && !bulkLoadOnlyLeaves) {
+                            rangeLeafFrame.compress();
+                            spaceUsed = rangeLeafFrame.getBuffer().capacity() - rangeLeafFrame.getTotalFreeSpace();
+                        }
+                        if (verifyInput) {
+                            lastTuple.resetByTupleIndex(rangeLeafFrame, rangeLeafFrame.getTupleCount() - 1);
+                            verifyInputTuple(tuple, lastTuple);
+                        }
+                        if (spaceUsed + spaceNeeded > leafMaxBytes) {
+                            startLeaf(finishLeaf(), tupleSize);
+                        }
+                    }
+                    rangeLeafFrame.insertSorted(tuple);
+                } catch (HyracksDataException | RuntimeException e) {
+                    abort();
+                    throw e;
+                }
+            }
+
+            /**
+             * Writes the current leaf
+             *
+             * @return the page id of the next leaf
+             */
+            private int finishLeaf() throws HyracksDataException {
+                lastTuple.resetByTupleIndex(rangeLeafFrame, rangeLeafFrame.getTupleCount() - 1);
+                byte[] key = new byte[rangeTupleWriter.bytesRequired(lastTuple, 0, cmp.getKeyFieldCount())];
+                rangeTupleWriter.writeTupleFields(lastTuple, 0, cmp.getKeyFieldCount(), key, 0);
+                splitKeys.add(key);
+                leafPageIds.add(pageId);
+                int nextLeafPageId = takeRangePages(1);
+                rangeLeafFrame.setNextLeaf(nextLeafPageId);
+                if (bulkLoadOnlyLeaves) {
+                    rangeLeafFrame.compress();
+                }
+                ICachedPage leaf = page;
+                page = null;
+                putInQueue(leaf);
+                return nextLeafPageId;
+            }
+
+            private void startLeaf(int leafPageId, int tupleSize) throws HyracksDataException {
+                final long dpid = BufferedFileHandle.getDiskPageId(getFileId(), leafPageId);
+                if (tupleSize > maxTupleSize) {
+                    int headerSize =
+                            Math.max(rangeLeafFrame.getPageHeaderSize(), rangeInteriorFrame.getPageHeaderSize());
+                    final int multiplier =
+                            (int) Math.ceil((double) tupleSize / (bufferCache.getPageSize() - headerSize));
+                    if (multiplier > 1) {
+                        page = bufferCache.confiscateLargePage(dpid, multiplier, takeRangePages(multiplier - 1));
+                    } else {
+                        page = bufferCache.confiscatePage(dpid);
+                    }
+                    rangeLeafFrame.setPage(page);
+                    rangeLeafFrame.initBuffer((byte) 0);
+                    rangeLeafFrame.setLargeFlag(true);
+                } else {
+                    page = bufferCache.confiscatePage(dpid);
+                    rangeLeafFrame.setPage(page);
+                    rangeLeafFrame.initBuffer((byte) 0);
+                }
+                pageId = leafPageId;
+                if (firstPageId == IBufferCache.INVALID_PAGEID) {
+                    firstPageId = leafPageId;
+                }
+            }
+
+            @Override
+            public void end() throws HyracksDataException {
+                if (page != null && bulkLoadOnlyLeaves) {
+                    // the last leaf becomes the leaf frontier of the tree, whose frame did not load it
+                    rangeLeafFrame.compress();
+                }
+            }
+
+            @Override
+            public void abort() throws HyracksDataException {
+                if (page != null) {
+                    bufferCache.returnPage(page, false);
+                    page = null;
+                }
+            }
+
+            @Override
+            public void writeFailed(ICachedPage failedPage, Throwable failure) {
+                BTreeBulkLoader.this.writeFailed(failedPage, failure);
+            }
+
+            @Override
+            public boolean hasFailed() {
+                return BTreeBulkLoader.this.hasFailed();
+            }
+
+            @Override
+            public Throwable getFailure() {
+                return BTreeBulkLoader.this.getFailure();
+            }
+        }
     }
 
     @SuppressWarnings("rawtypes")
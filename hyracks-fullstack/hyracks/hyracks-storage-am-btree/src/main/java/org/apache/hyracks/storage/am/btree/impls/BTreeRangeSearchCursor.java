@@ -19,12 +19,16 @@
 
 package org.apache.hyracks.storage.am.btree.impls;
 
+import java.util.BitSet;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TupleUtils;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafPageFilter;
+import org.apache.hyracks.storage.am.common.api.IProjectingTupleReference;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
 import org.apache.hyracks.storage.am.common.ophelpers.FindTupleMode;
@@ -45,6 +49,10 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     protected final ITreeIndexTupleReference frameTuple;
     protected final boolean exclusiveLatchNodes;
     protected boolean isPageDirty;
+    // whether leaf pages are pinned on behalf of a sequential scan
+    protected boolean sequentialScan = false;
+    // skips leaf pages without tuples of interest, if any
+    protected IBTreeLeafPageFilter leafPageFilter = null;
 
     protected IBufferCache bufferCache = null;
     protected int fileId = -1;
@@ -99,6 +107,47 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
         return pageId;
     }
 
+    public void setSequentialScan(boolean sequentialScan) {
+        this.sequentialScan = sequentialScan;
+    }
+
+    public boolean isSequentialScan() {
+        return sequentialScan;
+    }
+
+    /**
+     * Restrict the parts of the returned tuples that are read if the leaf frames support projections
+     *
+     * @param projection
+     *            see {@link IProjectingTupleReference#setProjection(BitSet)}
+     */
+    public void setProjection(BitSet projection) {
+        if (frameTuple instanceof IProjectingTupleReference) {
+            ((IProjectingTupleReference) frameTuple).setProjection(projection);
+        }
+    }
+
+    /**
+     * Skip the leaf pages that the given filter rules out. The filter is kept across opens until it is reset.
+     *
+     * @param leafPageFilter
+     *            the filter or null to visit all leaf pages
+     */
+    public void setLeafPageFilter(IBTreeLeafPageFilter leafPageFilter) {
+        this.leafPageFilter = leafPageFilter;
+    }
+
+    /**
+     * @return the id of the next leaf page that must be visited or -1 if there is none
+     */
+    protected int getNextLeafPage() {
+        int nextLeafPage = frame.getNextLeaf();
+        if (nextLeafPage >= 0 && leafPageFilter != null) {
+            nextLeafPage = leafPageFilter.getNextLeafPage(nextLeafPage);
+        }
+        return nextLeafPage;
+    }
+
     protected void fetchNextLeafPage(int nextLeafPage) throws HyracksDataException {
         do {
             ICachedPage nextLeaf = acquirePage(nextLeafPage);
@@ -115,7 +164,7 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     public boolean doHasNext() throws HyracksDataException {
         int nextLeafPage;
         if (tupleIndex >= frame.getTupleCount()) {
-            nextLeafPage = frame.getNextLeaf();
+            nextLeafPage = getNextLeafPage();
             if (nextLeafPage >= 0) {
                 fetchNextLeafPage(nextLeafPage);
                 tupleIndex = 0;
@@ -251,6 +300,10 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
 
         tupleIndex = getLowKeyIndex();
         stopTupleIndex = getHighKeyIndex();
+        if (leafPageFilter != null && leafPageFilter.getNextLeafPage(pageId) != pageId) {
+            // move on to the next page of interest
+            tupleIndex = frame.getTupleCount();
+        }
     }
 
     protected void resetBeforeOpen() throws HyracksDataException {
@@ -294,7 +347,7 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     }
 
     protected ICachedPage acquirePage(int pageId) throws HyracksDataException {
-        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequentialScan);
         if (exclusiveLatchNodes) {
             nextPage.acquireWriteLatch();
         } else {
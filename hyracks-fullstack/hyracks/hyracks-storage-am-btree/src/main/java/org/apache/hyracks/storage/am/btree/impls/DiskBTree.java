@@ -49,6 +49,11 @@ public class DiskBTree extends BTree {
         super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
     }
 
+    @Override
+    protected boolean isModifiable() {
+        return false;
+    }
+
     private void diskOrderScan(ITreeIndexCursor icursor, BTreeOpContext ctx) throws HyracksDataException {
         TreeIndexDiskOrderScanCursor cursor = (TreeIndexDiskOrderScanCursor) icursor;
         ctx.reset();
@@ -40,7 +40,7 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
     public boolean doHasNext() throws HyracksDataException {
         int nextLeafPage;
         if (tupleIndex >= frame.getTupleCount()) {
-            nextLeafPage = frame.getNextLeaf();
+            nextLeafPage = getNextLeafPage();
             if (nextLeafPage >= 0) {
                 fetchNextLeafPage(nextLeafPage);
                 tupleIndex = 0;
@@ -95,7 +95,7 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
 
     @Override
     protected ICachedPage acquirePage(int pageId) throws HyracksDataException {
-        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequentialScan);
     }
 
     @Override
@@ -0,0 +1,887 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.btree.impls;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.api.ITupleAcceptor;
+import org.apache.hyracks.storage.am.common.api.IBTreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriter;
+import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IModificationOperationCallback;
+import org.apache.hyracks.storage.common.ISearchOperationCallback;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.PageWriteFailureCallback;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * An in-memory BTree that orders its tuples with a concurrent skip list instead of latched pages. It is meant for the
+ * memory components of LSM indexes: modifications and searches never latch, and cursors hold no pages, so writers do
+ * not wait for each other or for searches. The tuples are written into slabs, which are pages of the (virtual) buffer
+ * cache that are taken from the page manager, so they count towards the memory budget of the buffer cache. The skip
+ * list that orders them lives on the heap, an estimate of its size is allocated in the slabs with each tuple so that
+ * the budget covers it as well.
+ * Each key has an entry in the skip list that points to its current tuple, which is swapped by updates.
+ * Tuples are never moved. The space of a replaced or deleted tuple is reused by later modifications once the
+ * operations that could still read it are done: modifications and open cursors are tracked by epochs, and a space
+ * that was released in an epoch is reused once all the operations that entered the tree before the next epoch began
+ * are done. A cursor that is left open therefore holds back the reuse of space, not its correctness.
+ * Searches are weakly consistent: a cursor sees the modifications of the keys that it did not pass yet.
+ * Modifications of the same key are expected to be serialized by the caller (as done by the LSM locks). A racing
+ * modification is retried, in which case the modification callback is called for each attempt.
+ */
+public class SkipListBTree extends BTree {
+
+    private static final Slab EMPTY_SLAB = new Slab(new byte[0]);
+    // estimates of the heap memory of a tuple: its skip list node with its expected share of index nodes, its entry
+    // with the reference to the tuple, its StoredTuple and the header of the array of its key fields
+    private static final int SKIP_LIST_NODE_SIZE = 48;
+    private static final int ENTRY_SIZE = 56;
+    private static final int STORED_TUPLE_SIZE = 32;
+    private static final int ARRAY_HEADER_SIZE = 16;
+    // released spaces are checked for reuse every so many releases
+    private static final int RECLAIM_INTERVAL = 64;
+
+    // the entries are their own keys
+    private final ConcurrentSkipListMap<ITupleReference, Entry> tuples;
+    // the comparators are not thread safe
+    private final ThreadLocal<MultiComparator> cmps;
+    private final Object slabLock = new Object();
+    private volatile Slab currentSlab = EMPTY_SLAB;
+    // the current epoch and the number of operations that entered the tree in an epoch of each parity
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicIntegerArray activeOperations = new AtomicIntegerArray(2);
+    // the spaces that were released and might still be read, roughly in epoch order
+    private final Queue<Space> releasedSpaces = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numReleasedSpaces = new AtomicInteger();
+    private final ReentrantLock reclaimLock = new ReentrantLock();
+    // the spaces that can be reused by the power of two of their length
+    @SuppressWarnings("unchecked")
+    private final Queue<Space>[] freeSpaces = new Queue[Integer.SIZE];
+
+    public SkipListBTree(IBufferCache bufferCache, IPageManager freePageManager,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory leafFrameFactory,
+            IBinaryComparatorFactory[] cmpFactories, int fieldCount, FileReference file) {
+        super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
+        tuples = new ConcurrentSkipListMap<>(this::compare);
+        cmps = ThreadLocal.withInitial(() -> MultiComparator.create(cmpFactories));
+        for (int i = 0; i < freeSpaces.length; i++) {
+            freeSpaces[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @return the number of bytes that are allocated in the slabs for the heap memory of a tuple
+     */
+    public static int getTupleHeapSize(int keyFieldCount) {
+        return SKIP_LIST_NODE_SIZE + ENTRY_SIZE + STORED_TUPLE_SIZE + ARRAY_HEADER_SIZE
+                + 2 * Integer.BYTES * keyFieldCount;
+    }
+
+    @Override
+    public synchronized void destroy() throws HyracksDataException {
+        super.destroy();
+        reset();
+    }
+
+    @Override
+    public synchronized void clear() throws HyracksDataException {
+        super.clear();
+        reset();
+    }
+
+    private void reset() {
+        tuples.clear();
+        currentSlab = EMPTY_SLAB;
+        // the pages of the slabs are released with the file
+        releasedSpaces.clear();
+        numReleasedSpaces.set(0);
+        for (Queue<Space> spaces : freeSpaces) {
+            spaces.clear();
+        }
+    }
+
+    @Override
+    public void validate() throws HyracksDataException {
+        MultiComparator cmp = MultiComparator.create(cmpFactories);
+        StoredTuple previous = null;
+        long operationEpoch = enter();
+        try {
+            Iterator<StoredTuple> it = iterator(null, null, true);
+            while (it.hasNext()) {
+                StoredTuple tuple = it.next();
+                if (previous != null && cmp.compare(previous, tuple) >= 0) {
+                    throw new HyracksDataException("The tuples of the skip list are out of order");
+                }
+                previous = tuple;
+            }
+        } finally {
+            exit(operationEpoch);
+        }
+    }
+
+    /**
+     * Creates a loader that inserts the tuples one by one. The fill factor does not apply since tuples are not
+     * stored in pages.
+     */
+    @Override
+    public IIndexBulkLoader createBulkLoader(float fillFactor, boolean verifyInput, long numElementsHint,
+            boolean checkIfEmptyIndex) throws HyracksDataException {
+        return new SkipListBulkLoader(verifyInput);
+    }
+
+    @Override
+    public BTreeAccessor createAccessor(IIndexAccessParameters iap) {
+        return new SkipListBTreeAccessor(this, iap.getModificationCallback(), iap.getSearchOperationCallback());
+    }
+
+    /**
+     * @return the tuples whose keys are not lower than the given low key in key order
+     */
+    Iterator<StoredTuple> iterator(ITupleReference lowKey, MultiComparator lowKeyCmp, boolean lowKeyInclusive)
+            throws HyracksDataException {
+        try {
+            if (lowKey == null) {
+                return new TupleIterator(tuples.values().iterator());
+            }
+            return new TupleIterator(
+                    tuples.tailMap(new SearchKey(lowKey, lowKeyCmp, lowKeyInclusive ? -1 : 1)).values().iterator());
+        } catch (UncheckedIOException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+    }
+
+    static boolean isAboveHighKey(RangePredicate pred, ITupleReference tuple) throws HyracksDataException {
+        if (pred.getHighKey() == null) {
+            return false;
+        }
+        int c = pred.getHighKeyComparator().compare(pred.getHighKey(), tuple);
+        return c < 0 || c == 0 && !pred.isHighKeyInclusive();
+    }
+
+    private int compare(ITupleReference a, ITupleReference b) {
+        try {
+            if (a instanceof SearchKey) {
+                return ((SearchKey) a).compareTo(b);
+            } else if (b instanceof SearchKey) {
+                return -((SearchKey) b).compareTo(a);
+            }
+            return cmps.get().compare(a, b);
+        } catch (HyracksDataException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Entry get(ITupleReference key) throws HyracksDataException {
+        try {
+            return tuples.get(key);
+        } catch (UncheckedIOException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+    }
+
+    /**
+     * Registers an operation that reads or modifies tuples. The space of the tuples it reads is not reused until
+     * it calls {@link #exit(long)}.
+     *
+     * @return the epoch of the operation
+     */
+    long enter() {
+        while (true) {
+            long current = epoch.get();
+            activeOperations.incrementAndGet((int) (current & 1));
+            if (epoch.get() == current) {
+                return current;
+            }
+            activeOperations.decrementAndGet((int) (current & 1));
+        }
+    }
+
+    void exit(long operationEpoch) {
+        activeOperations.decrementAndGet((int) (operationEpoch & 1));
+    }
+
+    /**
+     * Releases the space of a tuple that was removed from the skip list. It is reused once no operation can read it.
+     */
+    private void release(StoredTuple tuple) {
+        Space space = new Space(tuple.data, tuple.tupleOffset, tuple.spaceLength);
+        space.epoch = epoch.get();
+        releasedSpaces.offer(space);
+        if (numReleasedSpaces.incrementAndGet() % RECLAIM_INTERVAL == 0) {
+            reclaim();
+        }
+    }
+
+    /**
+     * Frees the space of a tuple that was never added to the skip list
+     */
+    private void free(StoredTuple tuple) {
+        addFreeSpace(new Space(tuple.data, tuple.tupleOffset, tuple.spaceLength));
+    }
+
+    private void reclaim() {
+        if (!reclaimLock.tryLock()) {
+            return;
+        }
+        try {
+            long current = epoch.get();
+            // the operations of an epoch of the other parity entered before the current epoch began
+            if (activeOperations.get((int) ((current + 1) & 1)) == 0 && epoch.compareAndSet(current, current + 1)) {
+                current++;
+            }
+            // the operations that could read a space released in an epoch entered in that epoch or in the previous
+            // one, which are both done once two more epochs began
+            Space space;
+            while ((space = releasedSpaces.peek()) != null && space.epoch + 2 <= current) {
+                releasedSpaces.poll();
+                addFreeSpace(space);
+            }
+        } finally {
+            reclaimLock.unlock();
+        }
+    }
+
+    private void addFreeSpace(Space space) {
+        freeSpaces[getSizeClass(space.length)].offer(space);
+    }
+
+    /**
+     * @return a free space of at least the given length or null if there is none
+     */
+    private Space takeFreeSpace(int length) {
+        // the spaces of the class of the length may be too short. the tuples of an index often have the same length,
+        // so the first one is likely to fit
+        int sizeClass = getSizeClass(length);
+        Space space = freeSpaces[sizeClass].poll();
+        if (space != null) {
+            if (space.length >= length) {
+                return space;
+            }
+            freeSpaces[sizeClass].offer(space);
+        }
+        // the spaces of the next classes are long enough. larger spaces are not used since they are not split
+        for (int i = sizeClass + 1; i < Math.min(sizeClass + 3, freeSpaces.length); i++) {
+            space = freeSpaces[i].poll();
+            if (space != null) {
+                return space;
+            }
+        }
+        return null;
+    }
+
+    private static int getSizeClass(int length) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(length);
+    }
+
+    private boolean add(StoredTuple tuple) throws HyracksDataException {
+        Entry entry = new Entry(tuple);
+        try {
+            return tuples.putIfAbsent(entry, entry) == null;
+        } catch (UncheckedIOException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+    }
+
+    /**
+     * Removes an entry whose key was deleted
+     */
+    private void unlink(Entry entry) throws HyracksDataException {
+        try {
+            tuples.remove(entry, entry);
+        } catch (UncheckedIOException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the tuple into a free space or a slab
+     *
+     * @param reader
+     *            a reference that is used to read the key of the written tuple
+     */
+    private StoredTuple write(ITupleReference tuple, ITreeIndexTupleWriter writer, ITreeIndexTupleReference reader)
+            throws HyracksDataException {
+        int length = writer.bytesRequired(tuple) + getTupleHeapSize(cmpFactories.length);
+        byte[] data;
+        int offset;
+        Space space = takeFreeSpace(length);
+        if (space != null) {
+            data = space.data;
+            offset = space.offset;
+            length = space.length;
+        } else {
+            Slab slab;
+            if (length > bufferCache.getPageSize()) {
+                slab = createSlab(length);
+                offset = slab.allocate(length);
+            } else {
+                slab = currentSlab;
+                while ((offset = slab.allocate(length)) < 0) {
+                    slab = nextSlab(slab);
+                }
+            }
+            data = slab.data;
+        }
+        writer.writeTuple(tuple, data, offset);
+        reader.resetByTupleOffset(data, offset);
+        return new StoredTuple(reader, offset, length, cmpFactories.length);
+    }
+
+    private Slab nextSlab(Slab full) throws HyracksDataException {
+        synchronized (slabLock) {
+            if (currentSlab == full) {
+                currentSlab = createSlab(bufferCache.getPageSize());
+            }
+            return currentSlab;
+        }
+    }
+
+    private Slab createSlab(int length) throws HyracksDataException {
+        // the page manager of an in-memory tree doesn't need a metadata frame. the pages stay pinned until the
+        // file of the tree is deleted
+        int pageId = freePageManager.takePage(null);
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), pageId), true);
+        int multiplier = (length + bufferCache.getPageSize() - 1) / bufferCache.getPageSize();
+        if (multiplier > 1) {
+            bufferCache.resizePage(page, multiplier, null);
+        }
+        return new Slab(page.getBuffer().array());
+    }
+
+    /**
+     * A region of a page that tuples are appended to by concurrent writers
+     */
+    private static class Slab {
+        private final byte[] data;
+        private final AtomicInteger end = new AtomicInteger();
+
+        Slab(byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         * @return the offset of the allocated space or -1 if the slab is full
+         */
+        int allocate(int length) {
+            int offset = end.getAndAdd(length);
+            return offset + length <= data.length ? offset : -1;
+        }
+    }
+
+    /**
+     * A released or free region of a slab
+     */
+    private static class Space {
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+        // the epoch in which the space was released
+        private long epoch;
+
+        Space(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A tuple in a slab. It exposes the key fields, which are located once when the tuple is written.
+     */
+    static class StoredTuple implements ITupleReference {
+        private final byte[] data;
+        private final int tupleOffset;
+        // the length of the space of the tuple in its slab
+        private final int spaceLength;
+        // the start and the length of each key field
+        private final int[] keyFields;
+
+        StoredTuple(ITupleReference tuple, int tupleOffset, int spaceLength, int keyFieldCount) {
+            this.data = tuple.getFieldData(0);
+            this.tupleOffset = tupleOffset;
+            this.spaceLength = spaceLength;
+            keyFields = new int[2 * keyFieldCount];
+            for (int i = 0; i < keyFieldCount; i++) {
+                keyFields[2 * i] = tuple.getFieldStart(i);
+                keyFields[2 * i + 1] = tuple.getFieldLength(i);
+            }
+        }
+
+        void reset(ITreeIndexTupleReference tuple) {
+            tuple.resetByTupleOffset(data, tupleOffset);
+        }
+
+        @Override
+        public int getFieldCount() {
+            return keyFields.length / 2;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return data;
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return keyFields[2 * fIdx];
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return keyFields[2 * fIdx + 1];
+        }
+    }
+
+    /**
+     * The entry of a key in the skip list. It is compared by its current tuple, which has the same key as the tuples
+     * that it replaced. It is marked when its key is deleted, after which its tuple does not change, and then it is
+     * removed from the skip list.
+     */
+    private static class Entry implements ITupleReference {
+        private final AtomicMarkableReference<StoredTuple> tuple;
+
+        Entry(StoredTuple tuple) {
+            this.tuple = new AtomicMarkableReference<>(tuple, false);
+        }
+
+        /**
+         * @return the current tuple or null if the key was deleted
+         */
+        StoredTuple getLiveTuple() {
+            return tuple.isMarked() ? null : tuple.getReference();
+        }
+
+        boolean replace(StoredTuple before, StoredTuple after) {
+            return tuple.compareAndSet(before, after, false, false);
+        }
+
+        boolean delete(StoredTuple before) {
+            return tuple.compareAndSet(before, before, false, true);
+        }
+
+        @Override
+        public int getFieldCount() {
+            return tuple.getReference().getFieldCount();
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return tuple.getReference().getFieldData(fIdx);
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return tuple.getReference().getFieldStart(fIdx);
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return tuple.getReference().getFieldLength(fIdx);
+        }
+    }
+
+    /**
+     * Iterates over the current tuples of entries, skipping the deleted keys
+     */
+    private static class TupleIterator implements Iterator<StoredTuple> {
+        private final Iterator<Entry> entries;
+        private StoredTuple next;
+
+        TupleIterator(Iterator<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && entries.hasNext()) {
+                next = entries.next().getLiveTuple();
+            }
+            return next != null;
+        }
+
+        @Override
+        public StoredTuple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StoredTuple tuple = next;
+            next = null;
+            return tuple;
+        }
+    }
+
+    /**
+     * A (possibly partial) key that is placed right before or right after the tuples with matching keys
+     */
+    private static class SearchKey implements ITupleReference {
+        private final ITupleReference key;
+        private final MultiComparator cmp;
+        private final int bias;
+
+        SearchKey(ITupleReference key, MultiComparator cmp, int bias) {
+            this.key = key;
+            this.cmp = cmp;
+            this.bias = bias;
+        }
+
+        int compareTo(ITupleReference tuple) throws HyracksDataException {
+            int c = cmp.compare(key, tuple);
+            return c != 0 ? c : bias;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return key.getFieldCount();
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return key.getFieldData(fIdx);
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return key.getFieldStart(fIdx);
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return key.getFieldLength(fIdx);
+        }
+    }
+
+    public class SkipListBTreeAccessor extends BTreeAccessor {
+        private final ITreeIndexTupleReference afterTuple;
+        private final ITreeIndexTupleReference beforeTuple;
+
+        public SkipListBTreeAccessor(SkipListBTree btree, IModificationOperationCallback modificationCallback,
+                ISearchOperationCallback searchCallback) {
+            super(btree, modificationCallback, searchCallback);
+            afterTuple = btree.getLeafFrameFactory().createFrame().createTupleReference();
+            beforeTuple = btree.getLeafFrameFactory().createFrame().createTupleReference();
+        }
+
+        SkipListBTree getSkipList() {
+            return (SkipListBTree) btree;
+        }
+
+        @Override
+        public void insert(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.INSERT);
+            modify(tuple, null, false);
+        }
+
+        @Override
+        public void update(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.UPDATE);
+            modify(tuple, null, true);
+        }
+
+        @Override
+        public void upsertIfConditionElseInsert(ITupleReference tuple, ITupleAcceptor acceptor)
+                throws HyracksDataException {
+            ctx.setOperation(IndexOperation.UPSERT);
+            modify(tuple, acceptor, false);
+        }
+
+        @Override
+        public void delete(ITupleReference tuple) throws HyracksDataException {
+            ctx.setOperation(IndexOperation.DELETE);
+            ctx.getModificationCallback().before(tuple);
+            SkipListBTree skipList = getSkipList();
+            long operationEpoch = skipList.enter();
+            try {
+                while (true) {
+                    Entry entry = skipList.get(tuple);
+                    StoredTuple before = entry == null ? null : entry.getLiveTuple();
+                    if (before == null) {
+                        if (entry != null) {
+                            skipList.unlink(entry);
+                        }
+                        throw HyracksDataException.create(ErrorCode.UPDATE_OR_DELETE_NON_EXISTENT_KEY);
+                    }
+                    before.reset(beforeTuple);
+                    ctx.getModificationCallback().found(beforeTuple, tuple);
+                    if (entry.delete(before)) {
+                        skipList.unlink(entry);
+                        skipList.release(before);
+                        return;
+                    }
+                }
+            } finally {
+                skipList.exit(operationEpoch);
+            }
+        }
+
+        /**
+         * Inserts the tuple if its key is absent and replaces the tuple with the same key if the acceptor accepts it
+         *
+         * @param acceptor
+         *            null if an existing tuple must not be replaced
+         * @param mustExist
+         *            whether the key must be present (in which case its tuple is replaced unconditionally)
+         */
+        private void modify(ITupleReference tuple, ITupleAcceptor acceptor, boolean mustExist)
+                throws HyracksDataException {
+            ctx.getModificationCallback().before(tuple);
+            SkipListBTree skipList = getSkipList();
+            ITreeIndexTupleWriter writer = ctx.getLeafFrame().getTupleWriter();
+            long operationEpoch = skipList.enter();
+            try {
+                while (true) {
+                    Entry entry = skipList.get(tuple);
+                    StoredTuple before = entry == null ? null : entry.getLiveTuple();
+                    if (before == null) {
+                        if (entry != null) {
+                            // the key is being deleted
+                            skipList.unlink(entry);
+                        }
+                        if (mustExist) {
+                            throw HyracksDataException.create(ErrorCode.UPDATE_OR_DELETE_NON_EXISTENT_KEY);
+                        }
+                        StoredTuple after = skipList.write(tuple, writer, afterTuple);
+                        ctx.getModificationCallback().found(null, tuple);
+                        if (skipList.add(after)) {
+                            return;
+                        }
+                        skipList.free(after);
+                    } else {
+                        before.reset(beforeTuple);
+                        if (!mustExist && (acceptor == null || !acceptor.accept(beforeTuple))) {
+                            throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+                        }
+                        // the update bit of the replaced tuple is flipped into the new tuple
+                        writer.setUpdated(beforeTuple instanceof IBTreeIndexTupleReference
+                                && !((IBTreeIndexTupleReference) beforeTuple).isUpdated());
+                        StoredTuple after;
+                        try {
+                            after = skipList.write(tuple, writer, afterTuple);
+                        } finally {
+                            writer.setUpdated(false);
+                        }
+                        ctx.getModificationCallback().found(beforeTuple, tuple);
+                        if (entry.replace(before, after)) {
+                            skipList.release(before);
+                            return;
+                        }
+                        skipList.free(after);
+                    }
+                }
+            } finally {
+                skipList.exit(operationEpoch);
+            }
+        }
+
+        @Override
+        public BTreeRangeSearchCursor createSearchCursor(boolean exclusive) {
+            IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) btree.getLeafFrameFactory().createFrame();
+            return new SkipListBTreeRangeSearchCursor(leafFrame, exclusive);
+        }
+
+        @Override
+        public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException {
+            if (!(btree instanceof SkipListBTree)) {
+                // LSM cursors reset the accessors of flushed memory components to the resulting disk components
+                super.search(cursor, searchPred);
+                return;
+            }
+            ctx.setOperation(IndexOperation.SEARCH);
+            ctx.reset();
+            RangePredicate pred = (RangePredicate) searchPred;
+            if (pred.getLowKeyComparator() == null) {
+                pred.setLowKeyComparator(ctx.getCmp());
+            }
+            if (pred.getHighKeyComparator() == null) {
+                pred.setHighKeyComparator(ctx.getCmp());
+            }
+            BTreeCursorInitialState initialState = ctx.getCursorInitialState();
+            initialState.setSearchOperationCallback(ctx.getSearchCallback());
+            initialState.setOriginialKeyComparator(ctx.getCmp());
+            initialState.setPage(null);
+            cursor.open(initialState, pred);
+        }
+
+        @Override
+        public ITreeIndexCursor createDiskOrderScanCursor() {
+            return createSearchCursor(false);
+        }
+
+        @Override
+        public void diskOrderScan(ITreeIndexCursor cursor) throws HyracksDataException {
+            search(cursor, new RangePredicate(null, null, true, true, null, null));
+        }
+
+        @Override
+        public ITreeIndexCursor createCountingSearchCursor() {
+            return new CountingCursor();
+        }
+    }
+
+    /**
+     * Inserts the tuples of a bulk load one by one
+     */
+    private class SkipListBulkLoader extends PageWriteFailureCallback implements IIndexBulkLoader {
+        private final boolean verifyInput;
+        private final ITreeIndexTupleWriter writer;
+        private final ITreeIndexTupleReference reader;
+        private final MultiComparator cmp = MultiComparator.create(cmpFactories);
+        private StoredTuple previous;
+
+        SkipListBulkLoader(boolean verifyInput) {
+            this.verifyInput = verifyInput;
+            writer = leafFrameFactory.createFrame().getTupleWriter();
+            reader = leafFrameFactory.createFrame().createTupleReference();
+        }
+
+        @Override
+        public void add(ITupleReference tuple) throws HyracksDataException {
+            if (verifyInput && previous != null) {
+                int c = cmp.compare(tuple, previous);
+                if (c < 0) {
+                    throw HyracksDataException.create(ErrorCode.UNSORTED_LOAD_INPUT);
+                } else if (c == 0) {
+                    throw HyracksDataException.create(ErrorCode.DUPLICATE_LOAD_INPUT);
+                }
+            }
+            StoredTuple stored = write(tuple, writer, reader);
+            if (!SkipListBTree.this.add(stored)) {
+                free(stored);
+                throw HyracksDataException.create(ErrorCode.DUPLICATE_LOAD_INPUT);
+            }
+            previous = stored;
+        }
+
+        @Override
+        public void end() throws HyracksDataException {
+            previous = null;
+        }
+
+        @Override
+        public void abort() throws HyracksDataException {
+            // the loaded tuples stay in the tree, like the pages of an aborted BTree load
+            previous = null;
+        }
+    }
+
+    /**
+     * Returns a single tuple with the number of tuples in the search range
+     */
+    private static class CountingCursor extends EnforcedIndexCursor implements ITreeIndexCursor {
+        private final byte[] countBuf = new byte[Integer.BYTES];
+        private final ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+        private final ArrayTupleReference countTuple = new ArrayTupleReference();
+        private int count = -1;
+
+        @Override
+        public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+            RangePredicate pred = (RangePredicate) searchPred;
+            SkipListBTree skipList =
+                    ((SkipListBTreeAccessor) ((BTreeCursorInitialState) initialState).getAccessor()).getSkipList();
+            count = 0;
+            long operationEpoch = skipList.enter();
+            try {
+                Iterator<StoredTuple> it =
+                        skipList.iterator(pred.getLowKey(), pred.getLowKeyComparator(), pred.isLowKeyInclusive());
+                while (it.hasNext() && !isAboveHighKey(pred, it.next())) {
+                    count++;
+                }
+            } catch (UncheckedIOException e) {
+                throw HyracksDataException.create(e.getCause());
+            } finally {
+                skipList.exit(operationEpoch);
+            }
+        }
+
+        @Override
+        public boolean doHasNext() {
+            return count >= 0;
+        }
+
+        @Override
+        public void doNext() throws HyracksDataException {
+            IntegerPointable.setInteger(countBuf, 0, count);
+            tupleBuilder.reset();
+            tupleBuilder.addField(countBuf, 0, countBuf.length);
+            countTuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+            count = -1;
+        }
+
+        @Override
+        public ITupleReference doGetTuple() {
+            return countTuple;
+        }
+
+        @Override
+        public void doClose() {
+            count = -1;
+        }
+
+        @Override
+        public void doDestroy() {
+            // nothing to release
+        }
+
+        @Override
+        public void setBufferCache(IBufferCache bufferCache) {
+            // no pages are read
+        }
+
+        @Override
+        public void setFileId(int fileId) {
+            // no pages are read
+        }
+
+        @Override
+        public boolean isExclusiveLatchNodes() {
+            return false;
+        }
+    }
+}
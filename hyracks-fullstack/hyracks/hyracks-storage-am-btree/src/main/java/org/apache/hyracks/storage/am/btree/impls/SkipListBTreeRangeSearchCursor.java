@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.btree.impls;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.impls.SkipListBTree.SkipListBTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.SkipListBTree.StoredTuple;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+/**
+ * A range cursor over a {@link SkipListBTree}. It doesn't pin pages, so it never blocks modifications. When it is
+ * opened on a page (by an accessor that was reset to a paged BTree), it behaves like a {@link BTreeRangeSearchCursor}.
+ */
+public class SkipListBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
+
+    private SkipListBTree skipList;
+    // the epoch in which the cursor entered the skip list. the tuples it reads are not reused until it is closed
+    private long epoch;
+    private Iterator<StoredTuple> iterator;
+    // whether frameTuple holds a tuple that was not returned yet
+    private boolean hasPendingTuple;
+
+    public SkipListBTreeRangeSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes) {
+        super(frame, exclusiveLatchNodes);
+    }
+
+    @Override
+    public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        if (initialState.getPage() != null) {
+            skipList = null;
+            super.doOpen(initialState, searchPred);
+            return;
+        }
+        skipList = ((SkipListBTreeAccessor) ((BTreeCursorInitialState) initialState).getAccessor()).getSkipList();
+        epoch = skipList.enter();
+        searchCb = initialState.getSearchOperationCallback();
+        originalKeyCmp = initialState.getOriginalKeyComparator();
+        pred = (RangePredicate) searchPred;
+        iterator = skipList.iterator(pred.getLowKey(), pred.getLowKeyComparator(), pred.isLowKeyInclusive());
+        hasPendingTuple = false;
+    }
+
+    @Override
+    public boolean doHasNext() throws HyracksDataException {
+        if (skipList == null) {
+            return super.doHasNext();
+        }
+        if (hasPendingTuple) {
+            return true;
+        }
+        if (!fetchNextTuple()) {
+            return false;
+        }
+        while (!searchCb.proceed(frameTuple)) {
+            // copy the key before reconciling as the tuple may be replaced in the meantime
+            if (tupleBuilder == null) {
+                tupleBuilder = new ArrayTupleBuilder(originalKeyCmp.getKeyFieldCount());
+            }
+            TupleUtils.copyTuple(tupleBuilder, frameTuple, originalKeyCmp.getKeyFieldCount());
+            reconciliationTuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+            searchCb.reconcile(reconciliationTuple);
+            // look the reconciled key up again
+            iterator = skipList.iterator(reconciliationTuple, originalKeyCmp, true);
+            if (!fetchNextTuple()) {
+                return false;
+            }
+            if (originalKeyCmp.compare(reconciliationTuple, frameTuple) == 0) {
+                break;
+            }
+            searchCb.cancel(reconciliationTuple);
+        }
+        hasPendingTuple = true;
+        return true;
+    }
+
+    private boolean fetchNextTuple() throws HyracksDataException {
+        try {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            iterator.next().reset(frameTuple);
+        } catch (UncheckedIOException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+        if (SkipListBTree.isAboveHighKey(pred, frameTuple)) {
+            iterator = Collections.emptyIterator();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void doNext() throws HyracksDataException {
+        if (skipList == null) {
+            super.doNext();
+            return;
+        }
+        hasPendingTuple = false;
+    }
+
+    @Override
+    public void doClose() throws HyracksDataException {
+        if (skipList == null) {
+            super.doClose();
+            return;
+        }
+        skipList.exit(epoch);
+        skipList = null;
+        iterator = null;
+        hasPendingTuple = false;
+        pred = null;
+    }
+}
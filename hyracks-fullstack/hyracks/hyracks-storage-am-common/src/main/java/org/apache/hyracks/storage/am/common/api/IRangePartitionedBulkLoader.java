@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.common.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+
+/**
+ * A bulk loader whose input can be split into disjoint key ranges that are loaded concurrently. The pages of each
+ * range are built by a range loader, which may be used by another thread, and become part of the index when the
+ * range is appended.
+ */
+public interface IRangePartitionedBulkLoader extends IIndexBulkLoader {
+
+    /**
+     * Creates a loader for the tuples of a key range. The loader must be ended before its range is appended.
+     *
+     * @return the range loader
+     * @throws HyracksDataException
+     */
+    IIndexBulkLoader createRangeLoader() throws HyracksDataException;
+
+    /**
+     * Appends the pages of a range after those of the tuples that were added or appended before. Ranges must be
+     * appended in key order.
+     *
+     * @param rangeLoader
+     *            an ended loader created by {@link #createRangeLoader()}
+     * @throws HyracksDataException
+     */
+    void appendRange(IIndexBulkLoader rangeLoader) throws HyracksDataException;
+}
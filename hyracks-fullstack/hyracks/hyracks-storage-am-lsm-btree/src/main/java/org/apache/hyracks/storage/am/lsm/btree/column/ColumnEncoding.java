@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+/**
+ * Layout of a column block of a leaf page. A block is
+ * [encoding (byte)][min length (short)][min][max length (short)][max][payload]
+ * where a negative min/max length indicates that the statistic is absent. The payload of each encoding is:
+ * <ul>
+ * <li>{@link #PLAIN}: [offset width (byte)] followed by either [value length (int)][values] when the offset width is
+ * zero (i.e., all values have the same length) or [value end offsets][values]</li>
+ * <li>{@link #RLE}: [number of runs (int)][run end width (byte)][run ends][PLAIN payload of the run values]</li>
+ * <li>{@link #DICTIONARY}: [dictionary size (int)][code bits (byte)][bit-packed codes][PLAIN payload of the
+ * dictionary]</li>
+ * </ul>
+ * All encodings support random access to the values without decoding the block.
+ */
+final class ColumnEncoding {
+    static final byte PLAIN = 0;
+    static final byte RLE = 1;
+    static final byte DICTIONARY = 2;
+
+    /**
+     * Min/max values that are longer than this are not stored
+     */
+    static final int MAX_STATISTIC_LENGTH = 16;
+    /**
+     * Marks the common length of a set of values with different lengths
+     */
+    static final int VARYING_LENGTH = -2;
+    /**
+     * Marks the common length of an empty set of values
+     */
+    static final int NO_LENGTH = -1;
+
+    private ColumnEncoding() {
+    }
+
+    static int combineLength(int commonLength, int length) {
+        if (commonLength == NO_LENGTH) {
+            return length;
+        }
+        return commonLength == length ? commonLength : VARYING_LENGTH;
+    }
+
+    static int getWidth(int maxValue) {
+        if (maxValue <= 0xFF) {
+            return 1;
+        }
+        return maxValue <= 0xFFFF ? 2 : 4;
+    }
+
+    static int getCodeBits(int dictionarySize) {
+        return dictionarySize <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(dictionarySize - 1);
+    }
+
+    static int getStatisticSize(int length) {
+        return Short.BYTES + (length >= 0 && length <= MAX_STATISTIC_LENGTH ? length : 0);
+    }
+
+    static int getPlainSize(int count, int totalLength, int commonLength) {
+        if (commonLength != VARYING_LENGTH) {
+            return 1 + Integer.BYTES + totalLength;
+        }
+        return 1 + count * getWidth(totalLength) + totalLength;
+    }
+
+    static int getRleSize(int count, int numRuns, int runsLength, int runsCommonLength) {
+        return Integer.BYTES + 1 + numRuns * getWidth(count) + getPlainSize(numRuns, runsLength, runsCommonLength);
+    }
+
+    static int getDictionarySize(int count, int dictionarySize, int dictionaryLength, int dictionaryCommonLength) {
+        long codeBytes = ((long) count * getCodeBits(dictionarySize) + Byte.SIZE - 1) / Byte.SIZE;
+        return Integer.BYTES + 1 + (int) codeBytes
+                + getPlainSize(dictionarySize, dictionaryLength, dictionaryCommonLength);
+    }
+
+    static int putWidth(byte[] target, int offset, int width, int value) {
+        switch (width) {
+            case 1:
+                target[offset] = (byte) value;
+                break;
+            case 2:
+                target[offset] = (byte) (value >>> 8);
+                target[offset + 1] = (byte) value;
+                break;
+            default:
+                putInt(target, offset, value);
+                break;
+        }
+        return offset + width;
+    }
+
+    static int getWidth(byte[] data, int offset, int width) {
+        switch (width) {
+            case 1:
+                return data[offset] & 0xFF;
+            case 2:
+                return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+            default:
+                return getInt(data, offset);
+        }
+    }
+
+    static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    static int getInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8)
+                | (data[offset + 3] & 0xFF);
+    }
+
+    static void putShort(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 8);
+        target[offset + 1] = (byte) value;
+    }
+
+    static short getShort(byte[] data, int offset) {
+        return (short) (((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF));
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMLeafFrame;
+import org.apache.hyracks.storage.am.common.api.ISplitKey;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IExtraPageBlockHelper;
+
+/**
+ * A BTree leaf frame that stores its tuples in PAX layout: the page holds one block per column (see
+ * {@link ColumnEncoding}) instead of a slotted array of tuples. The first non-key field (i.e., the record of a primary
+ * index) is split into the columns of an {@link IColumnShredder}. Every other field is stored in a column of its own,
+ * followed by a column that holds the antimatter flag of each tuple.
+ * Layout after the page header: [column block offsets (int each)][column blocks]
+ * Pages are only written by bulk loads (i.e., flushes and merges): the tuples of the page being loaded are
+ * accumulated per column and the page is written when it is compressed.
+ */
+public class ColumnLeafFrame extends BTreeNSMLeafFrame {
+    private static final byte ANTIMATTER = 1;
+    private static final byte MATTER = 0;
+    private static final byte[] FLAGS = { MATTER, ANTIMATTER };
+
+    private final int numFields;
+    private final int numKeyFields;
+    private final int shreddedField;
+    private final IColumnShredder shredder;
+    private final int numShreddedColumns;
+    private final int numColumns;
+    private final ArrayTupleBuilder shreddedValue;
+    private final ColumnValuesReader[] readers;
+    private final boolean[] validReaders;
+    private final int[] blockSizes;
+    private MultiComparator cmp;
+    private ColumnValuesBuilder[] builders;
+    private ICachedPage stagingPage;
+    private int encodedSize;
+
+    public ColumnLeafFrame(ColumnTupleWriter tupleWriter, IColumnShredder shredder) {
+        super(tupleWriter);
+        numFields = tupleWriter.getFieldCount();
+        numKeyFields = tupleWriter.getKeyFieldCount();
+        this.shredder = numFields > numKeyFields ? shredder : null;
+        shreddedField = this.shredder != null ? numKeyFields : -1;
+        numShreddedColumns = this.shredder != null ? this.shredder.getNumberOfColumns() : 0;
+        numColumns = numFields + Math.max(numShreddedColumns - 1, 0) + 1;
+        shreddedValue = new ArrayTupleBuilder(numShreddedColumns);
+        readers = new ColumnValuesReader[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            readers[i] = new ColumnValuesReader();
+        }
+        validReaders = new boolean[numColumns];
+        blockSizes = new int[numColumns];
+        tupleWriter.setFrame(this);
+    }
+
+    @Override
+    public void setPage(ICachedPage page) {
+        super.setPage(page);
+        invalidateReaders();
+    }
+
+    @Override
+    public void initBuffer(byte level) {
+        super.initBuffer(level);
+        if (builders == null) {
+            createBuilders();
+        }
+        encodedSize = numColumns * Integer.BYTES;
+        for (int i = 0; i < numColumns; i++) {
+            builders[i].reset();
+            blockSizes[i] = builders[i].getBlockSize();
+            encodedSize += blockSizes[i];
+        }
+        stagingPage = page;
+        invalidateReaders();
+        updateSpaceParams();
+    }
+
+    @Override
+    public void setMultiComparator(MultiComparator cmp) {
+        super.setMultiComparator(cmp);
+        this.cmp = cmp;
+    }
+
+    @Override
+    public void insertSorted(ITupleReference tuple) throws HyracksDataException {
+        if (stagingPage != page) {
+            throw new IllegalStateException("Tuples can only be appended to a page that is being loaded");
+        }
+        boolean antimatter = isAntimatter(tuple);
+        for (int i = 0; i < numFields; i++) {
+            if (i == shreddedField) {
+                if (antimatter) {
+                    for (int j = 0; j < numShreddedColumns; j++) {
+                        append(shreddedField + j, FLAGS, 0, 0, false);
+                    }
+                } else {
+                    shred(tuple);
+                    byte[] bytes = shreddedValue.getByteArray();
+                    int[] ends = shreddedValue.getFieldEndOffsets();
+                    for (int j = 0; j < numShreddedColumns; j++) {
+                        int start = j == 0 ? 0 : ends[j - 1];
+                        append(shreddedField + j, bytes, start, ends[j] - start, ends[j] > start);
+                    }
+                }
+            } else if (antimatter && i >= numKeyFields) {
+                append(getFieldColumn(i), FLAGS, 0, 0, false);
+            } else {
+                append(getFieldColumn(i), tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i),
+                        i < numKeyFields);
+            }
+        }
+        append(numColumns - 1, FLAGS, antimatter ? ANTIMATTER : MATTER, 1, false);
+        buf.putInt(Constants.TUPLE_COUNT_OFFSET, buf.getInt(Constants.TUPLE_COUNT_OFFSET) + 1);
+        updateSpaceParams();
+    }
+
+    /**
+     * @return the number of bytes by which appending the tuple to the page that is being loaded increases its size
+     */
+    int getBytesRequiredToAppend(ITupleReference tuple) {
+        if (stagingPage != page) {
+            return getBytesRequiredToWriteTuple(tuple);
+        }
+        boolean antimatter = isAntimatter(tuple);
+        int bytesRequired = 0;
+        for (int i = 0; i < numFields; i++) {
+            if (i == shreddedField) {
+                if (antimatter) {
+                    for (int j = 0; j < numShreddedColumns; j++) {
+                        bytesRequired += getBlockSizeIncrease(shreddedField + j, FLAGS, 0, 0, false);
+                    }
+                } else {
+                    shredUnchecked(tuple);
+                    byte[] bytes = shreddedValue.getByteArray();
+                    int[] ends = shreddedValue.getFieldEndOffsets();
+                    for (int j = 0; j < numShreddedColumns; j++) {
+                        int start = j == 0 ? 0 : ends[j - 1];
+                        bytesRequired +=
+                                getBlockSizeIncrease(shreddedField + j, bytes, start, ends[j] - start, ends[j] > start);
+                    }
+                }
+            } else if (antimatter && i >= numKeyFields) {
+                bytesRequired += getBlockSizeIncrease(getFieldColumn(i), FLAGS, 0, 0, false);
+            } else {
+                bytesRequired += getBlockSizeIncrease(getFieldColumn(i), tuple.getFieldData(i), tuple.getFieldStart(i),
+                        tuple.getFieldLength(i), i < numKeyFields);
+            }
+        }
+        return bytesRequired + getBlockSizeIncrease(numColumns - 1, FLAGS, antimatter ? ANTIMATTER : MATTER, 1, false);
+    }
+
+    /**
+     * @return the size of a page that only has the given tuple
+     */
+    @Override
+    public int getBytesRequiredToWriteTuple(ITupleReference tuple) {
+        boolean antimatter = isAntimatter(tuple);
+        int bytesRequired = numColumns * Integer.BYTES;
+        for (int i = 0; i < numFields; i++) {
+            if (i == shreddedField) {
+                if (antimatter) {
+                    bytesRequired += numShreddedColumns * ColumnValuesBuilder.getSingleValueBlockSize(0, false);
+                } else {
+                    shredUnchecked(tuple);
+                    int[] ends = shreddedValue.getFieldEndOffsets();
+                    for (int j = 0; j < numShreddedColumns; j++) {
+                        int length = ends[j] - (j == 0 ? 0 : ends[j - 1]);
+                        bytesRequired += ColumnValuesBuilder.getSingleValueBlockSize(length, length > 0);
+                    }
+                }
+            } else {
+                int length = antimatter && i >= numKeyFields ? 0 : tuple.getFieldLength(i);
+                bytesRequired += ColumnValuesBuilder.getSingleValueBlockSize(length, i < numKeyFields);
+            }
+        }
+        return bytesRequired + ColumnValuesBuilder.getSingleValueBlockSize(1, false);
+    }
+
+    /**
+     * Write the columns of the page that is being loaded
+     *
+     * @return true if the page was written, false if it is not being loaded
+     */
+    @Override
+    public boolean compress() {
+        if (stagingPage != page) {
+            return false;
+        }
+        byte[] target = buf.array();
+        int directoryOffset = getPageHeaderSize();
+        int offset = directoryOffset + numColumns * Integer.BYTES;
+        for (int i = 0; i < numColumns; i++) {
+            buf.putInt(directoryOffset + i * Integer.BYTES, offset);
+            offset = builders[i].write(target, offset);
+        }
+        if (offset != directoryOffset + encodedSize) {
+            throw new IllegalStateException(
+                    "Unexpected column page size " + (offset - directoryOffset) + " instead of " + encodedSize);
+        }
+        invalidateReaders();
+        return true;
+    }
+
+    /**
+     * @return true. {@link org.apache.hyracks.storage.am.btree.impls.BTree} refuses to use column pages in a tree
+     *         that can be modified, so the modification methods below are never called.
+     */
+    @Override
+    public boolean isBulkLoadOnly() {
+        return true;
+    }
+
+    @Override
+    public void insert(ITupleReference tuple, int tupleIndex) {
+        throw new UnsupportedOperationException("Column pages can only be bulk loaded");
+    }
+
+    @Override
+    public void update(ITupleReference newTuple, int oldTupleIndex, boolean inPlace) {
+        throw new UnsupportedOperationException("Column pages can only be bulk loaded");
+    }
+
+    @Override
+    public void delete(ITupleReference tuple, int tupleIndex) {
+        throw new UnsupportedOperationException("Column pages can only be bulk loaded");
+    }
+
+    @Override
+    public void split(ITreeIndexFrame rightFrame, ITupleReference tuple, ISplitKey splitKey,
+            IExtraPageBlockHelper extraPageBlockHelper, IBufferCache bufferCache) {
+        throw new UnsupportedOperationException("Column pages can only be bulk loaded");
+    }
+
+    @Override
+    public boolean compact() {
+        throw new UnsupportedOperationException("Column pages can only be bulk loaded");
+    }
+
+    @Override
+    public int getTupleOffset(int slotNum) {
+        throw new UnsupportedOperationException("Column pages have no tuple offsets");
+    }
+
+    public int getNumberOfColumns() {
+        return numColumns;
+    }
+
+    /**
+     * @return the column of a field. The first column of the shredded field is returned for the shredded field.
+     */
+    public int getFieldColumn(int field) {
+        return shreddedField < 0 || field <= shreddedField ? field : field + numShreddedColumns - 1;
+    }
+
+    /**
+     * @return the column of a column of the shredded field
+     */
+    public int getShreddedColumn(int shreddedColumn) {
+        return shreddedField + shreddedColumn;
+    }
+
+    /**
+     * Set the pointable to the minimum value of a column of the current (written) page
+     *
+     * @return false if the column has no minimum
+     */
+    public boolean getColumnMin(int column, IPointable min) {
+        ColumnValuesReader reader = getReader(column);
+        if (!reader.hasMin()) {
+            return false;
+        }
+        min.set(reader.getData(), reader.getMinOffset(), reader.getMinLength());
+        return true;
+    }
+
+    /**
+     * Set the pointable to the maximum value of a column of the current (written) page
+     *
+     * @return false if the column has no maximum
+     */
+    public boolean getColumnMax(int column, IPointable max) {
+        ColumnValuesReader reader = getReader(column);
+        if (!reader.hasMax()) {
+            return false;
+        }
+        max.set(reader.getData(), reader.getMaxOffset(), reader.getMaxLength());
+        return true;
+    }
+
+    IColumnValues getColumnValues(int column) {
+        return stagingPage == page ? builders[column] : getReader(column);
+    }
+
+    boolean isAntimatter(int tupleIndex) {
+        IColumnValues flags = getColumnValues(numColumns - 1);
+        return flags.getData()[flags.getStart(tupleIndex)] == ANTIMATTER;
+    }
+
+    int getShreddedField() {
+        return shreddedField;
+    }
+
+    int getNumberOfShreddedColumns() {
+        return numShreddedColumns;
+    }
+
+    IColumnShredder getShredder() {
+        return shredder;
+    }
+
+    private ColumnValuesReader getReader(int column) {
+        if (!validReaders[column]) {
+            readers[column].reset(buf.array(), buf.getInt(getPageHeaderSize() + column * Integer.BYTES),
+                    getTupleCount());
+            validReaders[column] = true;
+        }
+        return readers[column];
+    }
+
+    private void createBuilders() {
+        builders = new ColumnValuesBuilder[numColumns];
+        for (int i = 0; i < numFields; i++) {
+            if (i == shreddedField) {
+                for (int j = 0; j < numShreddedColumns; j++) {
+                    builders[shreddedField + j] = new ColumnValuesBuilder(shredder.getColumnComparator(j));
+                }
+            } else {
+                IBinaryComparator comparator = cmp != null && i < numKeyFields ? cmp.getComparators()[i] : null;
+                builders[getFieldColumn(i)] = new ColumnValuesBuilder(comparator);
+            }
+        }
+        builders[numColumns - 1] = new ColumnValuesBuilder(null);
+    }
+
+    private void append(int column, byte[] bytes, int start, int length, boolean hasStatistics)
+            throws HyracksDataException {
+        builders[column].append(bytes, start, length, hasStatistics);
+        int blockSize = builders[column].getBlockSize();
+        encodedSize += blockSize - blockSizes[column];
+        blockSizes[column] = blockSize;
+    }
+
+    private int getBlockSizeIncrease(int column, byte[] bytes, int start, int length, boolean hasStatistics) {
+        return builders[column].getBlockSizeWith(bytes, start, length, hasStatistics) - blockSizes[column];
+    }
+
+    private void shred(ITupleReference tuple) throws HyracksDataException {
+        shreddedValue.reset();
+        shredder.shred(tuple.getFieldData(shreddedField), tuple.getFieldStart(shreddedField),
+                tuple.getFieldLength(shreddedField), shreddedValue);
+    }
+
+    private void shredUnchecked(ITupleReference tuple) {
+        try {
+            shred(tuple);
+        } catch (HyracksDataException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void updateSpaceParams() {
+        buf.putInt(Constants.FREE_SPACE_OFFSET, getPageHeaderSize() + encodedSize);
+        buf.putInt(TOTAL_FREE_SPACE_OFFSET, buf.capacity() - getPageHeaderSize() - encodedSize);
+    }
+
+    private void invalidateReaders() {
+        for (int i = 0; i < numColumns; i++) {
+            validReaders[i] = false;
+        }
+    }
+
+    private static boolean isAntimatter(ITupleReference tuple) {
+        return tuple instanceof ILSMTreeTupleReference && ((ILSMTreeTupleReference) tuple).isAntimatter();
+    }
+}
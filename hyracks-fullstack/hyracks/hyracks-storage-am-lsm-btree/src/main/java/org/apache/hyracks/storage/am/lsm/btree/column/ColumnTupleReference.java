@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.util.BitSet;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IProjectingTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+
+/**
+ * Reads a tuple of a {@link ColumnLeafFrame}. Fields are located in their columns when they are accessed and the
+ * shredded field is only reassembled (from its projected columns) when it is accessed. Tuples of other frames and
+ * keys written by {@link ColumnTupleWriter} are read in the row format of {@link LSMBTreeTupleReference}.
+ */
+public class ColumnTupleReference implements ILSMTreeTupleReference, IProjectingTupleReference {
+    private final LSMBTreeTupleReference rowTuple;
+    private final int numFields;
+    private final int numKeyFields;
+    private final ShreddedColumns shreddedColumns;
+    private final ArrayBackedValueStorage shreddedValue;
+    private BitSet projection;
+    private int fieldStartIndex;
+    private int fieldCount;
+
+    // column mode only
+    private ColumnLeafFrame frame;
+    private int tupleIndex;
+    private boolean antimatter;
+    private boolean assembled;
+
+    public ColumnTupleReference(ITypeTraits[] typeTraits, int numKeyFields, boolean updateAware) {
+        rowTuple = new LSMBTreeTupleReference(typeTraits, numKeyFields, updateAware);
+        numFields = typeTraits.length;
+        this.numKeyFields = numKeyFields;
+        shreddedColumns = new ShreddedColumns();
+        shreddedValue = new ArrayBackedValueStorage();
+        fieldCount = -1;
+    }
+
+    @Override
+    public void setFieldCount(int fieldCount) {
+        rowTuple.setFieldCount(fieldCount);
+        this.fieldStartIndex = 0;
+        this.fieldCount = fieldCount;
+    }
+
+    @Override
+    public void setFieldCount(int fieldStartIndex, int fieldCount) {
+        rowTuple.setFieldCount(fieldStartIndex, fieldCount);
+        this.fieldStartIndex = fieldStartIndex;
+        this.fieldCount = fieldCount;
+    }
+
+    @Override
+    public void setProjection(BitSet projection) {
+        this.projection = projection;
+    }
+
+    @Override
+    public void resetByTupleOffset(byte[] buf, int tupleStartOffset) {
+        frame = null;
+        rowTuple.resetByTupleOffset(buf, tupleStartOffset);
+    }
+
+    @Override
+    public void resetByTupleIndex(ITreeIndexFrame frame, int tupleIndex) {
+        if (frame instanceof ColumnLeafFrame) {
+            this.frame = (ColumnLeafFrame) frame;
+            this.tupleIndex = tupleIndex;
+            antimatter = this.frame.isAntimatter(tupleIndex);
+            assembled = false;
+        } else {
+            this.frame = null;
+            rowTuple.resetByTupleIndex(frame, tupleIndex);
+        }
+    }
+
+    @Override
+    public boolean isAntimatter() {
+        return frame != null ? antimatter : rowTuple.isAntimatter();
+    }
+
+    @Override
+    public int getFieldCount() {
+        if (frame == null) {
+            return rowTuple.getFieldCount();
+        }
+        if (fieldCount >= 0) {
+            return fieldCount;
+        }
+        return antimatter ? numKeyFields : numFields;
+    }
+
+    @Override
+    public byte[] getFieldData(int fIdx) {
+        if (frame == null) {
+            return rowTuple.getFieldData(fIdx);
+        }
+        int field = fieldStartIndex + fIdx;
+        if (field == frame.getShreddedField()) {
+            assemble();
+            return shreddedValue.getByteArray();
+        }
+        return frame.getColumnValues(frame.getFieldColumn(field)).getData();
+    }
+
+    @Override
+    public int getFieldStart(int fIdx) {
+        if (frame == null) {
+            return rowTuple.getFieldStart(fIdx);
+        }
+        int field = fieldStartIndex + fIdx;
+        if (field == frame.getShreddedField()) {
+            assemble();
+            return shreddedValue.getStartOffset();
+        }
+        return frame.getColumnValues(frame.getFieldColumn(field)).getStart(tupleIndex);
+    }
+
+    @Override
+    public int getFieldLength(int fIdx) {
+        if (frame == null) {
+            return rowTuple.getFieldLength(fIdx);
+        }
+        int field = fieldStartIndex + fIdx;
+        if (field == frame.getShreddedField()) {
+            assemble();
+            return shreddedValue.getLength();
+        }
+        return frame.getColumnValues(frame.getFieldColumn(field)).getLength(tupleIndex);
+    }
+
+    @Override
+    public int getTupleSize() {
+        if (frame == null) {
+            return rowTuple.getTupleSize();
+        }
+        int size = 0;
+        for (int i = 0; i < getFieldCount(); i++) {
+            size += getFieldLength(i);
+        }
+        return size;
+    }
+
+    private void assemble() {
+        if (assembled) {
+            return;
+        }
+        shreddedValue.reset();
+        try {
+            frame.getShredder().assemble(shreddedColumns, projection, shreddedValue);
+        } catch (HyracksDataException e) {
+            throw new IllegalStateException(e);
+        }
+        assembled = true;
+    }
+
+    /**
+     * The columns of the shredded field of the current tuple
+     */
+    private class ShreddedColumns implements ITupleReference {
+        @Override
+        public int getFieldCount() {
+            return frame.getNumberOfShreddedColumns();
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return frame.getColumnValues(frame.getShreddedColumn(fIdx)).getData();
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return frame.getColumnValues(frame.getShreddedColumn(fIdx)).getStart(tupleIndex);
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return frame.getColumnValues(frame.getShreddedColumn(fIdx)).getLength(tupleIndex);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleWriter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleWriter;
+
+/**
+ * The tuple writer of {@link ColumnLeafFrame}. Tuples are appended to column pages by the frame itself, so this
+ * writer only reports the space a tuple takes in the page that is being loaded. Keys (e.g., split keys of interior
+ * frames) are written in the row format of {@link LSMBTreeTupleWriter}.
+ */
+public class ColumnTupleWriter implements ILSMTreeTupleWriter {
+    private final ITypeTraits[] typeTraits;
+    private final int numKeyFields;
+    private final boolean updateAware;
+    private final LSMBTreeTupleWriter rowWriter;
+    private ColumnLeafFrame frame;
+
+    public ColumnTupleWriter(ITypeTraits[] typeTraits, int numKeyFields, boolean updateAware) {
+        this.typeTraits = typeTraits;
+        this.numKeyFields = numKeyFields;
+        this.updateAware = updateAware;
+        rowWriter = new LSMBTreeTupleWriter(typeTraits, numKeyFields, false, updateAware);
+    }
+
+    void setFrame(ColumnLeafFrame frame) {
+        this.frame = frame;
+    }
+
+    int getFieldCount() {
+        return typeTraits.length;
+    }
+
+    int getKeyFieldCount() {
+        return numKeyFields;
+    }
+
+    @Override
+    public int writeTuple(ITupleReference tuple, ByteBuffer targetBuf, int targetOff) {
+        return rowWriter.writeTuple(tuple, targetBuf, targetOff);
+    }
+
+    @Override
+    public int writeTuple(ITupleReference tuple, byte[] targetBuf, int targetOff) {
+        return rowWriter.writeTuple(tuple, targetBuf, targetOff);
+    }
+
+    @Override
+    public int bytesRequired(ITupleReference tuple) {
+        return frame != null ? frame.getBytesRequiredToAppend(tuple) : rowWriter.bytesRequired(tuple);
+    }
+
+    @Override
+    public int writeTupleFields(ITupleReference tuple, int startField, int numFields, byte[] targetBuf, int targetOff) {
+        return rowWriter.writeTupleFields(tuple, startField, numFields, targetBuf, targetOff);
+    }
+
+    @Override
+    public int bytesRequired(ITupleReference tuple, int startField, int numFields) {
+        return rowWriter.bytesRequired(tuple, startField, numFields);
+    }
+
+    @Override
+    public ColumnTupleReference createTupleReference() {
+        return new ColumnTupleReference(typeTraits, numKeyFields, updateAware);
+    }
+
+    @Override
+    public int getCopySpaceRequired(ITupleReference tuple) {
+        return rowWriter.getCopySpaceRequired(tuple);
+    }
+
+    @Override
+    public void setAntimatter(boolean isAntimatter) {
+        rowWriter.setAntimatter(isAntimatter);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriterFactory;
+
+public class ColumnTupleWriterFactory implements ITreeIndexTupleWriterFactory {
+
+    private static final long serialVersionUID = 1L;
+    private final ITypeTraits[] typeTraits;
+    private final int numKeyFields;
+    private final boolean updateAware;
+
+    public ColumnTupleWriterFactory(ITypeTraits[] typeTraits, int numKeyFields, boolean updateAware) {
+        this.typeTraits = typeTraits;
+        this.numKeyFields = numKeyFields;
+        this.updateAware = updateAware;
+    }
+
+    @Override
+    public ColumnTupleWriter createTupleWriter() {
+        return new ColumnTupleWriter(typeTraits, numKeyFields, updateAware);
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import static org.apache.hyracks.storage.am.lsm.btree.column.ColumnEncoding.NO_LENGTH;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Accumulates the values of a column of the leaf page that is being bulk loaded. The exact size of the column's
+ * block under each encoding is maintained incrementally so that a page can be filled up to its capacity without
+ * trial encodings.
+ */
+class ColumnValuesBuilder implements IColumnValues {
+    static final int MAX_DICTIONARY_SIZE = 1 << 12;
+
+    private final IBinaryComparator comparator;
+
+    private byte[] data = new byte[64];
+    private int dataLength;
+    private int[] ends = new int[16];
+    private int count;
+    private int commonLength;
+
+    private int numRuns;
+    private int runsLength;
+    private int runsCommonLength;
+
+    private boolean dictionaryEnabled;
+    private int[] codes = new int[16];
+    private int[] dictionaryValues = new int[16];
+    private int[] dictionaryHashes = new int[16];
+    private int[] hashTable = new int[32];
+    private int dictionarySize;
+    private int dictionaryLength;
+    private int dictionaryCommonLength;
+
+    private int min;
+    private int max;
+
+    ColumnValuesBuilder(IBinaryComparator comparator) {
+        this.comparator = comparator;
+        reset();
+    }
+
+    void reset() {
+        dataLength = 0;
+        count = 0;
+        commonLength = NO_LENGTH;
+        numRuns = 0;
+        runsLength = 0;
+        runsCommonLength = NO_LENGTH;
+        dictionaryEnabled = true;
+        Arrays.fill(hashTable, 0);
+        dictionarySize = 0;
+        dictionaryLength = 0;
+        dictionaryCommonLength = NO_LENGTH;
+        min = -1;
+        max = -1;
+    }
+
+    /**
+     * @return the size of the column's block
+     */
+    int getBlockSize() {
+        return getBlockSize(count, dataLength, commonLength, numRuns, runsLength, runsCommonLength, dictionaryEnabled,
+                dictionarySize, dictionaryLength, dictionaryCommonLength, getStatisticsSize());
+    }
+
+    /**
+     * @return an upper bound of the size of the column's block if the given value was appended. The bound is exact
+     *         except for the min/max statistics which are assumed to be replaced by the value if it is larger.
+     */
+    int getBlockSizeWith(byte[] bytes, int start, int length, boolean hasStatistics) {
+        int newNumRuns = numRuns;
+        int newRunsLength = runsLength;
+        int newRunsCommonLength = runsCommonLength;
+        if (count == 0 || !equals(count - 1, bytes, start, length)) {
+            newNumRuns++;
+            newRunsLength += length;
+            newRunsCommonLength = ColumnEncoding.combineLength(runsCommonLength, length);
+        }
+        boolean newDictionaryEnabled = dictionaryEnabled;
+        int newDictionarySize = dictionarySize;
+        int newDictionaryLength = dictionaryLength;
+        int newDictionaryCommonLength = dictionaryCommonLength;
+        if (dictionaryEnabled && find(bytes, start, length, hash(bytes, start, length)) < 0) {
+            newDictionarySize++;
+            newDictionaryLength += length;
+            newDictionaryCommonLength = ColumnEncoding.combineLength(dictionaryCommonLength, length);
+            newDictionaryEnabled = newDictionarySize <= MAX_DICTIONARY_SIZE;
+        }
+        int statisticsSize = getStatisticsSize();
+        if (hasStatistics && comparator != null) {
+            int valueStatisticSize = ColumnEncoding.getStatisticSize(length);
+            statisticsSize = Math.max(ColumnEncoding.getStatisticSize(getLength(min)), valueStatisticSize)
+                    + Math.max(ColumnEncoding.getStatisticSize(getLength(max)), valueStatisticSize);
+        }
+        return getBlockSize(count + 1, dataLength + length, ColumnEncoding.combineLength(commonLength, length),
+                newNumRuns, newRunsLength, newRunsCommonLength, newDictionaryEnabled, newDictionarySize,
+                newDictionaryLength, newDictionaryCommonLength, statisticsSize);
+    }
+
+    /**
+     * @return the size of the block of a column that only has the given value
+     */
+    static int getSingleValueBlockSize(int length, boolean hasStatistics) {
+        int statisticLength = hasStatistics ? length : NO_LENGTH;
+        return 1 + ColumnEncoding.getStatisticSize(statisticLength) * 2
+                + ColumnEncoding.getPlainSize(1, length, length);
+    }
+
+    void append(byte[] bytes, int start, int length, boolean hasStatistics) throws HyracksDataException {
+        if (count == 0 || !equals(count - 1, bytes, start, length)) {
+            numRuns++;
+            runsLength += length;
+            runsCommonLength = ColumnEncoding.combineLength(runsCommonLength, length);
+        }
+        int hash = dictionaryEnabled ? hash(bytes, start, length) : 0;
+        int code = dictionaryEnabled ? find(bytes, start, length, hash) : -1;
+        ensureCapacity(length);
+        System.arraycopy(bytes, start, data, dataLength, length);
+        dataLength += length;
+        ends[count] = dataLength;
+        commonLength = ColumnEncoding.combineLength(commonLength, length);
+        if (dictionaryEnabled) {
+            if (code < 0) {
+                code = addToDictionary(count, hash, length);
+            }
+            codes[count] = code;
+        }
+        if (hasStatistics && comparator != null) {
+            if (min < 0 || compare(bytes, start, length, min) < 0) {
+                min = count;
+            }
+            if (max < 0 || compare(bytes, start, length, max) > 0) {
+                max = count;
+            }
+        }
+        count++;
+    }
+
+    /**
+     * Write the column's block
+     *
+     * @return the end offset of the block
+     */
+    int write(byte[] target, int offset) {
+        int plainSize = ColumnEncoding.getPlainSize(count, dataLength, commonLength);
+        int rleSize = ColumnEncoding.getRleSize(count, numRuns, runsLength, runsCommonLength);
+        int dictionarySize = dictionaryEnabled
+                ? ColumnEncoding.getDictionarySize(count, this.dictionarySize, dictionaryLength, dictionaryCommonLength)
+                : Integer.MAX_VALUE;
+        int pos = offset;
+        if (plainSize <= rleSize && plainSize <= dictionarySize) {
+            target[pos++] = ColumnEncoding.PLAIN;
+            pos = writeStatistics(target, pos);
+            pos = writePlain(target, pos, null, count, dataLength, commonLength);
+        } else if (rleSize <= dictionarySize) {
+            target[pos++] = ColumnEncoding.RLE;
+            pos = writeStatistics(target, pos);
+            pos = writeRle(target, pos);
+        } else {
+            target[pos++] = ColumnEncoding.DICTIONARY;
+            pos = writeStatistics(target, pos);
+            pos = writeDictionary(target, pos);
+        }
+        return pos;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    @Override
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public int getStart(int index) {
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    @Override
+    public int getLength(int index) {
+        return index < 0 ? NO_LENGTH : ends[index] - getStart(index);
+    }
+
+    private static int getBlockSize(int count, int dataLength, int commonLength, int numRuns, int runsLength,
+            int runsCommonLength, boolean dictionaryEnabled, int dictionarySize, int dictionaryLength,
+            int dictionaryCommonLength, int statisticsSize) {
+        int size = ColumnEncoding.getPlainSize(count, dataLength, commonLength);
+        size = Math.min(size, ColumnEncoding.getRleSize(count, numRuns, runsLength, runsCommonLength));
+        if (dictionaryEnabled) {
+            size = Math.min(size,
+                    ColumnEncoding.getDictionarySize(count, dictionarySize, dictionaryLength, dictionaryCommonLength));
+        }
+        return 1 + statisticsSize + size;
+    }
+
+    private int getStatisticsSize() {
+        return ColumnEncoding.getStatisticSize(getLength(min)) + ColumnEncoding.getStatisticSize(getLength(max));
+    }
+
+    private int writeStatistics(byte[] target, int offset) {
+        int pos = writeStatistic(target, offset, min);
+        return writeStatistic(target, pos, max);
+    }
+
+    private int writeStatistic(byte[] target, int offset, int index) {
+        int length = getLength(index);
+        if (length < 0 || length > ColumnEncoding.MAX_STATISTIC_LENGTH) {
+            ColumnEncoding.putShort(target, offset, -1);
+            return offset + Short.BYTES;
+        }
+        ColumnEncoding.putShort(target, offset, length);
+        System.arraycopy(data, getStart(index), target, offset + Short.BYTES, length);
+        return offset + Short.BYTES + length;
+    }
+
+    /**
+     * Write the PLAIN payload of the values at the given indexes or of all values if the indexes are {@code null}
+     */
+    private int writePlain(byte[] target, int offset, int[] indexes, int n, int totalLength, int valuesCommonLength) {
+        int pos = offset;
+        if (valuesCommonLength != ColumnEncoding.VARYING_LENGTH) {
+            target[pos++] = 0;
+            ColumnEncoding.putInt(target, pos, Math.max(valuesCommonLength, 0));
+            pos += Integer.BYTES;
+        } else {
+            int width = ColumnEncoding.getWidth(totalLength);
+            target[pos++] = (byte) width;
+            int end = 0;
+            for (int i = 0; i < n; i++) {
+                end += getLength(indexes == null ? i : indexes[i]);
+                pos = ColumnEncoding.putWidth(target, pos, width, end);
+            }
+        }
+        if (indexes == null) {
+            System.arraycopy(data, 0, target, pos, dataLength);
+            return pos + dataLength;
+        }
+        for (int i = 0; i < n; i++) {
+            int length = getLength(indexes[i]);
+            System.arraycopy(data, getStart(indexes[i]), target, pos, length);
+            pos += length;
+        }
+        return pos;
+    }
+
+    private int writeRle(byte[] target, int offset) {
+        int[] runValues = new int[numRuns];
+        int width = ColumnEncoding.getWidth(count);
+        ColumnEncoding.putInt(target, offset, numRuns);
+        target[offset + Integer.BYTES] = (byte) width;
+        int pos = offset + Integer.BYTES + 1;
+        int run = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || !equals(i - 1, data, getStart(i), getLength(i))) {
+                pos = ColumnEncoding.putWidth(target, pos, width, i);
+                runValues[run++] = i - 1;
+            }
+        }
+        return writePlain(target, pos, runValues, numRuns, runsLength, runsCommonLength);
+    }
+
+    private int writeDictionary(byte[] target, int offset) {
+        int bits = ColumnEncoding.getCodeBits(dictionarySize);
+        ColumnEncoding.putInt(target, offset, dictionarySize);
+        target[offset + Integer.BYTES] = (byte) bits;
+        int pos = offset + Integer.BYTES + 1;
+        int codeBytes = (count * bits + Byte.SIZE - 1) / Byte.SIZE;
+        Arrays.fill(target, pos, pos + codeBytes, (byte) 0);
+        for (int i = 0; i < count; i++) {
+            int bit = i * bits;
+            for (int b = 0; b < bits; b++, bit++) {
+                if ((codes[i] & (1 << b)) != 0) {
+                    target[pos + bit / Byte.SIZE] |= (byte) (1 << (bit % Byte.SIZE));
+                }
+            }
+        }
+        return writePlain(target, pos + codeBytes, dictionaryValues, dictionarySize, dictionaryLength,
+                dictionaryCommonLength);
+    }
+
+    private int addToDictionary(int index, int hash, int length) {
+        int code = dictionarySize++;
+        dictionaryLength += length;
+        dictionaryCommonLength = ColumnEncoding.combineLength(dictionaryCommonLength, length);
+        if (dictionarySize > MAX_DICTIONARY_SIZE) {
+            dictionaryEnabled = false;
+            return -1;
+        }
+        if (code == dictionaryValues.length) {
+            dictionaryValues = Arrays.copyOf(dictionaryValues, code * 2);
+            dictionaryHashes = Arrays.copyOf(dictionaryHashes, code * 2);
+        }
+        dictionaryValues[code] = index;
+        dictionaryHashes[code] = hash;
+        if (dictionarySize * 2 > hashTable.length) {
+            hashTable = new int[hashTable.length * 2];
+            for (int i = 0; i < dictionarySize; i++) {
+                insertIntoHashTable(i, dictionaryHashes[i]);
+            }
+        } else {
+            insertIntoHashTable(code, hash);
+        }
+        return code;
+    }
+
+    private void insertIntoHashTable(int code, int hash) {
+        int mask = hashTable.length - 1;
+        int slot = hash & mask;
+        while (hashTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        hashTable[slot] = code + 1;
+    }
+
+    private int find(byte[] bytes, int start, int length, int hash) {
+        int mask = hashTable.length - 1;
+        int slot = hash & mask;
+        while (hashTable[slot] != 0) {
+            int code = hashTable[slot] - 1;
+            if (dictionaryHashes[code] == hash && equals(dictionaryValues[code], bytes, start, length)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean equals(int index, byte[] bytes, int start, int length) {
+        int valueStart = getStart(index);
+        if (ends[index] - valueStart != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[valueStart + i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compare(byte[] bytes, int start, int length, int index) throws HyracksDataException {
+        return comparator.compare(bytes, start, length, data, getStart(index), getLength(index));
+    }
+
+    private void ensureCapacity(int length) {
+        if (dataLength + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length));
+        }
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        if (dictionaryEnabled && count == codes.length) {
+            codes = Arrays.copyOf(codes, count * 2);
+        }
+    }
+
+    private static int hash(byte[] bytes, int start, int length) {
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + bytes[start + i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+/**
+ * Reads the values of a column block (see {@link ColumnEncoding}) in place
+ */
+class ColumnValuesReader implements IColumnValues {
+    private byte[] data;
+    private byte encoding;
+    private int minOffset;
+    private int minLength;
+    private int maxOffset;
+    private int maxLength;
+
+    // encoding specific
+    private int numRuns;
+    private int runEndsOffset;
+    private int runEndWidth;
+    private int codesOffset;
+    private int codeBits;
+
+    // the PLAIN payload of the values, run values or dictionary
+    private int plainWidth;
+    private int plainFixedLength;
+    private int plainEndsOffset;
+    private int plainDataOffset;
+
+    // the last looked up value
+    private int lastIndex;
+    private int lastStart;
+    private int lastLength;
+
+    void reset(byte[] data, int blockOffset, int count) {
+        this.data = data;
+        lastIndex = -1;
+        int pos = blockOffset;
+        encoding = data[pos++];
+        minLength = ColumnEncoding.getShort(data, pos);
+        minOffset = pos + Short.BYTES;
+        pos = minOffset + Math.max(minLength, 0);
+        maxLength = ColumnEncoding.getShort(data, pos);
+        maxOffset = pos + Short.BYTES;
+        pos = maxOffset + Math.max(maxLength, 0);
+        switch (encoding) {
+            case ColumnEncoding.PLAIN:
+                resetPlain(pos, count);
+                break;
+            case ColumnEncoding.RLE:
+                numRuns = ColumnEncoding.getInt(data, pos);
+                runEndWidth = data[pos + Integer.BYTES];
+                runEndsOffset = pos + Integer.BYTES + 1;
+                resetPlain(runEndsOffset + numRuns * runEndWidth, numRuns);
+                break;
+            case ColumnEncoding.DICTIONARY:
+                int dictionarySize = ColumnEncoding.getInt(data, pos);
+                codeBits = data[pos + Integer.BYTES];
+                codesOffset = pos + Integer.BYTES + 1;
+                resetPlain(codesOffset + (count * codeBits + Byte.SIZE - 1) / Byte.SIZE, dictionarySize);
+                break;
+            default:
+                throw new IllegalStateException("Unknown column encoding " + encoding);
+        }
+    }
+
+    boolean hasMin() {
+        return minLength >= 0;
+    }
+
+    int getMinOffset() {
+        return minOffset;
+    }
+
+    int getMinLength() {
+        return minLength;
+    }
+
+    boolean hasMax() {
+        return maxLength >= 0;
+    }
+
+    int getMaxOffset() {
+        return maxOffset;
+    }
+
+    int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public int getStart(int index) {
+        lookup(index);
+        return lastStart;
+    }
+
+    @Override
+    public int getLength(int index) {
+        lookup(index);
+        return lastLength;
+    }
+
+    private void lookup(int index) {
+        if (index == lastIndex) {
+            return;
+        }
+        int plainIndex;
+        switch (encoding) {
+            case ColumnEncoding.RLE:
+                plainIndex = findRun(index);
+                break;
+            case ColumnEncoding.DICTIONARY:
+                plainIndex = getCode(index);
+                break;
+            default:
+                plainIndex = index;
+                break;
+        }
+        if (plainWidth == 0) {
+            lastStart = plainDataOffset + plainIndex * plainFixedLength;
+            lastLength = plainFixedLength;
+        } else {
+            int start = plainIndex == 0 ? 0
+                    : ColumnEncoding.getWidth(data, plainEndsOffset + (plainIndex - 1) * plainWidth, plainWidth);
+            int end = ColumnEncoding.getWidth(data, plainEndsOffset + plainIndex * plainWidth, plainWidth);
+            lastStart = plainDataOffset + start;
+            lastLength = end - start;
+        }
+        lastIndex = index;
+    }
+
+    private void resetPlain(int offset, int count) {
+        plainWidth = data[offset];
+        if (plainWidth == 0) {
+            plainFixedLength = ColumnEncoding.getInt(data, offset + 1);
+            plainDataOffset = offset + 1 + Integer.BYTES;
+        } else {
+            plainEndsOffset = offset + 1;
+            plainDataOffset = plainEndsOffset + count * plainWidth;
+        }
+    }
+
+    private int findRun(int index) {
+        // the first run whose (exclusive) end is greater than the index
+        int begin = 0;
+        int end = numRuns - 1;
+        while (begin < end) {
+            int mid = (begin + end) >>> 1;
+            if (ColumnEncoding.getWidth(data, runEndsOffset + mid * runEndWidth, runEndWidth) > index) {
+                end = mid;
+            } else {
+                begin = mid + 1;
+            }
+        }
+        return begin;
+    }
+
+    private int getCode(int index) {
+        int code = 0;
+        int bit = index * codeBits;
+        for (int b = 0; b < codeBits; b++, bit++) {
+            if ((data[codesOffset + bit / Byte.SIZE] & (1 << (bit % Byte.SIZE))) != 0) {
+                code |= 1 << b;
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.util.BitSet;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Splits the value of the first non-key field of a columnar LSM BTree (i.e., the record of a primary index) into a
+ * fixed number of columns when a disk component is written, and reassembles it when the value is read.
+ */
+public interface IColumnShredder {
+    /**
+     * @return the number of columns a value is shredded into
+     */
+    int getNumberOfColumns();
+
+    /**
+     * Shred a value into its columns
+     *
+     * @param data
+     *            the value's bytes
+     * @param start
+     *            the value's start offset
+     * @param length
+     *            the value's length
+     * @param columns
+     *            builder to which exactly {@link #getNumberOfColumns()} fields are added
+     */
+    void shred(byte[] data, int start, int length, ArrayTupleBuilder columns) throws HyracksDataException;
+
+    /**
+     * Reassemble a value from its columns
+     *
+     * @param columns
+     *            the columns of the value. Columns that are not in the projection must not be accessed.
+     * @param projection
+     *            the columns required by the reader or {@code null} if all of them are required
+     * @param value
+     *            storage to which the (possibly partial) value is written
+     */
+    void assemble(ITupleReference columns, BitSet projection, ArrayBackedValueStorage value)
+            throws HyracksDataException;
+
+    /**
+     * @param column
+     *            the column index
+     * @return a comparator that orders the values of the column for its min/max statistics or {@code null} if the
+     *         column has no meaningful order. Empty values are not part of the statistics.
+     */
+    IBinaryComparator getColumnComparator(int column);
+}
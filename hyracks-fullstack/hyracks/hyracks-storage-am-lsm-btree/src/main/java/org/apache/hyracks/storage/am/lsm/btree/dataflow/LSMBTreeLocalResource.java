@@ -32,7 +32,10 @@ import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.io.IJsonSerializable;
 import org.apache.hyracks.api.io.IPersistedResourceRegistry;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
 import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractorFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationSchedulerProvider;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
@@ -57,6 +60,11 @@ public class LSMBTreeLocalResource extends LsmResource {
     protected final boolean isPrimary;
     protected final int[] btreeFields;
     protected final ICompressorDecompressorFactory compressorDecompressorFactory;
+    // null unless the disk components are stored in the columnar format
+    protected final IColumnShredderFactory columnShredderFactory;
+    // null unless the disk components have zone maps
+    protected final IZoneMapValueExtractorFactory zoneMapValueExtractorFactory;
+    protected final LSMBTreeMemoryComponentType memoryComponentType;
 
     public LSMBTreeLocalResource(ITypeTraits[] typeTraits, IBinaryComparatorFactory[] cmpFactories,
             int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate, boolean isPrimary, String path,
@@ -67,6 +75,24 @@ public class LSMBTreeLocalResource extends LsmResource {
             IMetadataPageManagerFactory metadataPageManagerFactory, IVirtualBufferCacheProvider vbcProvider,
             ILSMIOOperationSchedulerProvider ioSchedulerProvider, boolean durable,
             ICompressorDecompressorFactory compressorDecompressorFactory) {
+        this(typeTraits, cmpFactories, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, path,
+                storageManager, mergePolicyFactory, mergePolicyProperties, filterTypeTraits, filterCmpFactories,
+                btreeFields, filterFields, opTrackerProvider, ioOpCallbackFactory, metadataPageManagerFactory,
+                vbcProvider, ioSchedulerProvider, durable, compressorDecompressorFactory, null, null,
+                LSMBTreeMemoryComponentType.BTREE);
+    }
+
+    public LSMBTreeLocalResource(ITypeTraits[] typeTraits, IBinaryComparatorFactory[] cmpFactories,
+            int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate, boolean isPrimary, String path,
+            IStorageManager storageManager, ILSMMergePolicyFactory mergePolicyFactory,
+            Map<String, String> mergePolicyProperties, ITypeTraits[] filterTypeTraits,
+            IBinaryComparatorFactory[] filterCmpFactories, int[] btreeFields, int[] filterFields,
+            ILSMOperationTrackerFactory opTrackerProvider, ILSMIOOperationCallbackFactory ioOpCallbackFactory,
+            IMetadataPageManagerFactory metadataPageManagerFactory, IVirtualBufferCacheProvider vbcProvider,
+            ILSMIOOperationSchedulerProvider ioSchedulerProvider, boolean durable,
+            ICompressorDecompressorFactory compressorDecompressorFactory, IColumnShredderFactory columnShredderFactory,
+            IZoneMapValueExtractorFactory zoneMapValueExtractorFactory,
+            LSMBTreeMemoryComponentType memoryComponentType) {
         super(path, storageManager, typeTraits, cmpFactories, filterTypeTraits, filterCmpFactories, filterFields,
                 opTrackerProvider, ioOpCallbackFactory, metadataPageManagerFactory, vbcProvider, ioSchedulerProvider,
                 mergePolicyFactory, mergePolicyProperties, durable);
@@ -75,17 +101,32 @@ public class LSMBTreeLocalResource extends LsmResource {
         this.isPrimary = isPrimary;
         this.btreeFields = btreeFields;
         this.compressorDecompressorFactory = compressorDecompressorFactory;
+        this.columnShredderFactory = columnShredderFactory;
+        this.zoneMapValueExtractorFactory = zoneMapValueExtractorFactory;
+        this.memoryComponentType = memoryComponentType;
     }
 
     protected LSMBTreeLocalResource(IPersistedResourceRegistry registry, JsonNode json, int[] bloomFilterKeyFields,
             double bloomFilterFalsePositiveRate, boolean isPrimary, int[] btreeFields,
             ICompressorDecompressorFactory compressorDecompressorFactory) throws HyracksDataException {
+        this(registry, json, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, btreeFields,
+                compressorDecompressorFactory, null, null, LSMBTreeMemoryComponentType.BTREE);
+    }
+
+    protected LSMBTreeLocalResource(IPersistedResourceRegistry registry, JsonNode json, int[] bloomFilterKeyFields,
+            double bloomFilterFalsePositiveRate, boolean isPrimary, int[] btreeFields,
+            ICompressorDecompressorFactory compressorDecompressorFactory, IColumnShredderFactory columnShredderFactory,
+            IZoneMapValueExtractorFactory zoneMapValueExtractorFactory, LSMBTreeMemoryComponentType memoryComponentType)
+            throws HyracksDataException {
         super(registry, json);
         this.bloomFilterKeyFields = bloomFilterKeyFields;
         this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
         this.isPrimary = isPrimary;
         this.btreeFields = btreeFields;
         this.compressorDecompressorFactory = compressorDecompressorFactory;
+        this.columnShredderFactory = columnShredderFactory;
+        this.zoneMapValueExtractorFactory = zoneMapValueExtractorFactory;
+        this.memoryComponentType = memoryComponentType;
     }
 
     @Override
@@ -101,8 +142,8 @@ public class LSMBTreeLocalResource extends LsmResource {
                 mergePolicyFactory.createMergePolicy(mergePolicyProperties, serviceCtx),
                 opTrackerProvider.getOperationTracker(serviceCtx, this), ioSchedulerProvider.getIoScheduler(serviceCtx),
                 ioOpCallbackFactory, isPrimary, filterTypeTraits, filterCmpFactories, btreeFields, filterFields,
-                durable, metadataPageManagerFactory, updateAware, serviceCtx.getTracer(),
-                compressorDecompressorFactory);
+                durable, metadataPageManagerFactory, updateAware, serviceCtx.getTracer(), compressorDecompressorFactory,
+                columnShredderFactory, zoneMapValueExtractorFactory, memoryComponentType);
     }
 
     @Override
@@ -121,8 +162,16 @@ public class LSMBTreeLocalResource extends LsmResource {
         final JsonNode compressorDecompressorNode = json.get("compressorDecompressorFactory");
         final ICompressorDecompressorFactory compDecompFactory = (ICompressorDecompressorFactory) registry
                 .deserializeOrDefault(compressorDecompressorNode, NoOpCompressorDecompressorFactory.class);
+        final IColumnShredderFactory columnShredderFactory = json.has("columnShredderFactory")
+                ? (IColumnShredderFactory) registry.deserialize(json.get("columnShredderFactory")) : null;
+        final IZoneMapValueExtractorFactory zoneMapValueExtractorFactory = json.has("zoneMapValueExtractorFactory")
+                ? (IZoneMapValueExtractorFactory) registry.deserialize(json.get("zoneMapValueExtractorFactory")) : null;
+        final LSMBTreeMemoryComponentType memoryComponentType = json.has("memoryComponentType")
+                ? LSMBTreeMemoryComponentType.valueOf(json.get("memoryComponentType").asText())
+                : LSMBTreeMemoryComponentType.BTREE;
         return new LSMBTreeLocalResource(registry, json, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary,
-                btreeFields, compDecompFactory);
+                btreeFields, compDecompFactory, columnShredderFactory, zoneMapValueExtractorFactory,
+                memoryComponentType);
     }
 
     @Override
@@ -134,6 +183,15 @@ public class LSMBTreeLocalResource extends LsmResource {
         json.put("isPrimary", isPrimary);
         json.putPOJO("btreeFields", btreeFields);
         json.putPOJO("compressorDecompressorFactory", compressorDecompressorFactory.toJson(registry));
+        if (columnShredderFactory != null) {
+            json.putPOJO("columnShredderFactory", columnShredderFactory.toJson(registry));
+        }
+        if (zoneMapValueExtractorFactory != null) {
+            json.putPOJO("zoneMapValueExtractorFactory", zoneMapValueExtractorFactory.toJson(registry));
+        }
+        if (memoryComponentType != LSMBTreeMemoryComponentType.BTREE) {
+            json.put("memoryComponentType", memoryComponentType.name());
+        }
     }
 
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
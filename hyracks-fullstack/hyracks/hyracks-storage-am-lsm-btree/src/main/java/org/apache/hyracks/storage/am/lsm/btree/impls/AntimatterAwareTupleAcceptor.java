@@ -20,7 +20,7 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.api.ITupleAcceptor;
-import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
 
 public enum AntimatterAwareTupleAcceptor implements ITupleAcceptor {
     INSTANCE;
@@ -30,7 +30,7 @@ public enum AntimatterAwareTupleAcceptor implements ITupleAcceptor {
         if (tuple == null) {
             return true;
         }
-        return ((LSMBTreeTupleReference) tuple).isAntimatter();
+        return ((ILSMTreeTupleReference) tuple).isAntimatter();
     }
 
 }
@@ -47,7 +47,8 @@ public class ExternalBTreeOpContext extends AbstractLSMIndexOperationContext {
         } else {
             this.cmp = null;
         }
-        bloomFilterCmp = MultiComparator.create(cmpFactories, 0, numBloomFilterKeyFields);
+        bloomFilterCmp =
+                numBloomFilterKeyFields == 0 ? null : MultiComparator.create(cmpFactories, 0, numBloomFilterKeyFields);
         this.insertLeafFrame = (IBTreeLeafFrame) insertLeafFrameFactory.createFrame();
         this.deleteLeafFrame = (IBTreeLeafFrame) deleteLeafFrameFactory.createFrame();
         if (insertLeafFrame != null && this.cmp != null) {
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Picks the keys that split the tuples of a sorted scan into key ranges of similar sizes. It keeps a bounded sample
+ * of the keys of the scan: one key every stride tuples, where the stride doubles whenever the sample is full.
+ */
+class KeyRangeSampler {
+    private static final int MAX_SAMPLES = 1024;
+
+    private final int numKeyFields;
+    private final List<ArrayTupleBuilder> samples = new ArrayList<>();
+    private long count = 0;
+    private long stride = 1;
+
+    KeyRangeSampler(int numKeyFields) {
+        this.numKeyFields = numKeyFields;
+    }
+
+    void add(ITupleReference tuple) throws HyracksDataException {
+        if (count % stride == 0) {
+            if (samples.size() == MAX_SAMPLES) {
+                // keep every other key
+                for (int i = 1; i < MAX_SAMPLES / 2; i++) {
+                    Collections.swap(samples, i, 2 * i);
+                }
+                samples.subList(MAX_SAMPLES / 2, MAX_SAMPLES).clear();
+                stride *= 2;
+            }
+            if (count % stride == 0) {
+                ArrayTupleBuilder key = new ArrayTupleBuilder(numKeyFields);
+                for (int i = 0; i < numKeyFields; i++) {
+                    key.addField(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+                }
+                samples.add(key);
+            }
+        }
+        count++;
+    }
+
+    /**
+     * @return the number of scanned tuples
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @param maxRanges
+     *            the maximum number of ranges
+     * @param minTuplesPerRange
+     *            the minimum number of tuples of a range
+     * @return the increasing keys that delimit the ranges, each key is the lowest key of a range
+     */
+    List<ITupleReference> getSplitKeys(int maxRanges, long minTuplesPerRange) {
+        int numRanges = (int) Math.min(Math.min(maxRanges, count / minTuplesPerRange), samples.size());
+        List<ITupleReference> splitKeys = new ArrayList<>();
+        for (int i = 1; i < numRanges; i++) {
+            ArrayTupleBuilder key = samples.get((int) ((long) i * samples.size() / numRanges));
+            ArrayTupleReference splitKey = new ArrayTupleReference();
+            splitKey.reset(key.getFieldEndOffsets(), key.getByteArray());
+            splitKeys.add(splitKey);
+        }
+        return splitKeys;
+    }
+}
@@ -20,28 +20,48 @@
 package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.util.HyracksConstants;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
-import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrame;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeBulkLoader;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.SkipListBTree;
 import org.apache.hyracks.storage.am.common.api.IExtendedModificationOperationCallback;
 import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.impls.AbstractTreeIndex.AbstractTreeIndexBulkLoader;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnLeafFrame;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.IComponentFilterHelper;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilterFrameFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
@@ -57,24 +77,35 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.api.IoOperationProgress;
 import org.apache.hyracks.storage.am.lsm.common.freepage.VirtualFreePageManager;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.impls.ChainedLSMDiskComponentBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.impls.ChainedLSMDiskComponentBulkLoader.RangeAdder;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor.ICursorFactory;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
 import org.apache.hyracks.storage.common.IIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.ISearchPredicate;
 import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 import org.apache.hyracks.util.trace.ITracer;
 
 public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
 
     private static final ICursorFactory cursorFactory = LSMBTreeSearchCursor::new;
+    // a flush is split into key ranges of at least this many tuples
+    private static final long MIN_TUPLES_PER_FLUSH_RANGE = 1024;
+    // the progress of a merge is reported once per this many merged tuples
+    private static final long MERGE_PROGRESS_BATCH_SIZE = 1024;
     // Common for in-memory and on-disk components.
     protected final ITreeIndexFrameFactory insertLeafFrameFactory;
     protected final ITreeIndexFrameFactory deleteLeafFrameFactory;
@@ -96,6 +127,28 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
             ILSMIOOperationCallbackFactory ioOpCallbackFactory, boolean needKeyDupCheck, int[] btreeFields,
             int[] filterFields, boolean durable, boolean updateAware, ITracer tracer) throws HyracksDataException {
+        this(ioManager, virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory, deleteLeafFrameFactory,
+                diskBufferCache, fileManager, componentFactory, bulkLoadComponentFactory, filterHelper,
+                filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, fieldCount, cmpFactories, mergePolicy,
+                opTracker, ioScheduler, ioOpCallbackFactory, needKeyDupCheck, btreeFields, filterFields, durable,
+                updateAware, LSMBTreeMemoryComponentType.BTREE, tracer);
+    }
+
+    /**
+     * @param memoryComponentType
+     *            the type of the trees that hold the memory components
+     */
+    public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
+            ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
+            ILSMIndexFileManager fileManager, ILSMDiskComponentFactory componentFactory,
+            ILSMDiskComponentFactory bulkLoadComponentFactory, IComponentFilterHelper filterHelper,
+            ILSMComponentFilterFrameFactory filterFrameFactory, LSMComponentFilterManager filterManager,
+            double bloomFilterFalsePositiveRate, int fieldCount, IBinaryComparatorFactory[] cmpFactories,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, boolean needKeyDupCheck, int[] btreeFields,
+            int[] filterFields, boolean durable, boolean updateAware, LSMBTreeMemoryComponentType memoryComponentType,
+            ITracer tracer) throws HyracksDataException {
         super(ioManager, virtualBufferCaches, diskBufferCache, fileManager, bloomFilterFalsePositiveRate, mergePolicy,
                 opTracker, ioScheduler, ioOpCallbackFactory, componentFactory, bulkLoadComponentFactory,
                 filterFrameFactory, filterManager, filterFields, durable, filterHelper, btreeFields, tracer);
@@ -105,11 +158,14 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.updateAware = updateAware;
         int i = 0;
         for (IVirtualBufferCache virtualBufferCache : virtualBufferCaches) {
-            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(this,
-                    new BTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache), interiorFrameFactory,
-                            insertLeafFrameFactory, cmpFactories, fieldCount,
-                            ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_" + i)),
-                    virtualBufferCache, filterHelper == null ? null : filterHelper.createFilter());
+            FileReference virtualFile = ioManager.resolveAbsolutePath(fileManager.getBaseDir() + "_virtual_" + i);
+            BTree btree = memoryComponentType == LSMBTreeMemoryComponentType.SKIPLIST
+                    ? new SkipListBTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache),
+                            interiorFrameFactory, insertLeafFrameFactory, cmpFactories, fieldCount, virtualFile)
+                    : new BTree(virtualBufferCache, new VirtualFreePageManager(virtualBufferCache),
+                            interiorFrameFactory, insertLeafFrameFactory, cmpFactories, fieldCount, virtualFile);
+            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(this, btree, virtualBufferCache,
+                    filterHelper == null ? null : filterHelper.createFilter());
             memoryComponents.add(mutableComponent);
             ++i;
         }
@@ -255,8 +311,10 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         try {
             RangePredicate nullPred = new RangePredicate(null, null, true, true, null, null);
             long numElements = 0L;
-            if (hasBloomFilter) {
-                //count elements in btree for creating Bloomfilter
+            IIoOperationWorkers workers = operation.getWorkers();
+            boolean splittable = workers != null && workers.getParallelism() > 1;
+            if (hasBloomFilter || splittable) {
+                //count elements in btree for creating Bloomfilter and for sizing the key ranges of the flush
                 IIndexCursor countingCursor = ((BTreeAccessor) accessor).createCountingSearchCursor();
                 accessor.search(countingCursor, nullPred);
                 try {
@@ -276,24 +334,36 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             }
             component = createDiskComponent(componentFactory, flushOp.getTarget(), null, flushOp.getBloomFilterTarget(),
                     true);
-            componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, numElements, false, false, false);
-            IIndexCursor scanCursor = accessor.createSearchCursor(false);
-            accessor.search(scanCursor, nullPred);
-            try {
-                while (scanCursor.hasNext()) {
-                    scanCursor.next();
-                    // we can safely throw away updated tuples in secondary BTree components, because they correspond to
-                    // deleted tuples
-                    if (updateAware && ((LSMBTreeTupleReference) scanCursor.getTuple()).isUpdated()) {
-                        continue;
-                    }
-                    componentBulkLoader.add(scanCursor.getTuple());
-                }
-            } finally {
+            ChainedLSMDiskComponentBulkLoader chainedBulkLoader = component.createBulkLoader(operation, 1.0f, false,
+                    hasBloomFilter ? numElements : 0L, false, false, false);
+            componentBulkLoader = chainedBulkLoader;
+            int numRanges =
+                    splittable ? (int) Math.min(workers.getParallelism(), numElements / MIN_TUPLES_PER_FLUSH_RANGE) : 1;
+            IRangePartitionedBulkLoader indexBulkLoader =
+                    numRanges > 1 ? chainedBulkLoader.getRangePartitionedBulkLoader() : null;
+            // columnar leaves are written with the state of the whole component, they are built by a single thread
+            if (indexBulkLoader != null
+                    && !(((AbstractTreeIndexBulkLoader) indexBulkLoader).getLeafFrame() instanceof ColumnLeafFrame)) {
+                flushRanges(workers, flushingComponent, numRanges, numElements, chainedBulkLoader, indexBulkLoader);
+            } else {
+                IIndexCursor scanCursor = accessor.createSearchCursor(false);
+                accessor.search(scanCursor, nullPred);
                 try {
-                    scanCursor.close();
+                    while (scanCursor.hasNext()) {
+                        scanCursor.next();
+                        // we can safely throw away updated tuples in secondary BTree components, because they
+                        // correspond to deleted tuples
+                        if (isUpdated(scanCursor.getTuple())) {
+                            continue;
+                        }
+                        componentBulkLoader.add(scanCursor.getTuple());
+                    }
                 } finally {
-                    scanCursor.destroy();
+                    try {
+                        scanCursor.close();
+                    } finally {
+                        scanCursor.destroy();
+                    }
                 }
             }
         } finally {
@@ -320,33 +390,200 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         return component;
     }
 
+    private boolean isUpdated(ITupleReference tuple) {
+        return updateAware && ((LSMBTreeTupleReference) tuple).isUpdated();
+    }
+
+    /**
+     * Flushes key ranges of similar sizes concurrently. This thread scans the component once: it passes the flushed
+     * tuples to the other loaders of the component (e.g. its Bloomfilter) and, every numTuples / numRanges tuples,
+     * hands the range it just passed to a worker of the operation, which builds its leaves. The ranges are then
+     * appended to the component in key order.
+     */
+    private void flushRanges(IIoOperationWorkers workers, LSMBTreeMemoryComponent flushingComponent, int numRanges,
+            long numTuples, ChainedLSMDiskComponentBulkLoader componentBulkLoader,
+            IRangePartitionedBulkLoader indexBulkLoader) throws HyracksDataException {
+        long tuplesPerRange = (numTuples + numRanges - 1) / numRanges;
+        List<IIndexBulkLoader> rangeLoaders = new ArrayList<>(numRanges);
+        List<Future<Void>> rangeFlushes = new ArrayList<>(numRanges);
+        AtomicBoolean aborted = new AtomicBoolean();
+        boolean appending = false;
+        try {
+            RangeAdder nonPartitionedLoaders = componentBulkLoader.createRangeAdder();
+            ITupleReference lowKey = null;
+            IIndexAccessor accessor = flushingComponent.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            try {
+                IIndexCursor scanCursor = accessor.createSearchCursor(false);
+                accessor.search(scanCursor, new RangePredicate(null, null, true, true, null, null));
+                try {
+                    long numScanned = 0;
+                    while (scanCursor.hasNext()) {
+                        scanCursor.next();
+                        ITupleReference tuple = scanCursor.getTuple();
+                        if (numScanned > 0 && numScanned % tuplesPerRange == 0 && rangeFlushes.size() < numRanges - 1) {
+                            // the tuple is the first one of the next range
+                            ITupleReference splitKey = copyKey(tuple);
+                            startRangeFlush(workers, flushingComponent, lowKey, splitKey, indexBulkLoader, rangeLoaders,
+                                    rangeFlushes, aborted);
+                            lowKey = splitKey;
+                        }
+                        numScanned++;
+                        if (!isUpdated(tuple)) {
+                            nonPartitionedLoaders.add(tuple);
+                        }
+                    }
+                } finally {
+                    try {
+                        scanCursor.close();
+                    } finally {
+                        scanCursor.destroy();
+                    }
+                }
+            } finally {
+                accessor.destroy();
+            }
+            startRangeFlush(workers, flushingComponent, lowKey, null, indexBulkLoader, rangeLoaders, rangeFlushes,
+                    aborted);
+            for (int i = 0; i < rangeFlushes.size(); i++) {
+                rangeFlushes.get(i).get();
+                appending = true;
+                indexBulkLoader.appendRange(rangeLoaders.get(i));
+                appending = false;
+            }
+        } catch (Exception e) {
+            aborted.set(true);
+            for (Future<Void> rangeFlush : rangeFlushes) {
+                try {
+                    rangeFlush.get();
+                } catch (Exception rangeFailure) { // NOSONAR the range flushes are only awaited
+                    e.addSuppressed(rangeFailure);
+                }
+            }
+            for (IIndexBulkLoader rangeLoader : rangeLoaders) {
+                rangeLoader.abort();
+            }
+            // a failed append has already released the pages of the index
+            if (!appending) {
+                indexBulkLoader.abort();
+            }
+            componentBulkLoader.cleanupArtifacts();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw HyracksDataException.create(e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    private void startRangeFlush(IIoOperationWorkers workers, LSMBTreeMemoryComponent flushingComponent,
+            ITupleReference lowKey, ITupleReference highKey, IRangePartitionedBulkLoader indexBulkLoader,
+            List<IIndexBulkLoader> rangeLoaders, List<Future<Void>> rangeFlushes, AtomicBoolean aborted)
+            throws HyracksDataException {
+        IIndexBulkLoader rangeLoader = indexBulkLoader.createRangeLoader();
+        rangeLoaders.add(rangeLoader);
+        rangeFlushes.add(workers.submit(() -> {
+            flushRange(flushingComponent, lowKey, highKey, rangeLoader, aborted);
+            return null;
+        }));
+    }
+
+    private ITupleReference copyKey(ITupleReference tuple) throws HyracksDataException {
+        ArrayTupleBuilder keyBuilder = new ArrayTupleBuilder(cmpFactories.length);
+        TupleUtils.copyTuple(keyBuilder, tuple, cmpFactories.length);
+        ArrayTupleReference key = new ArrayTupleReference();
+        key.reset(keyBuilder.getFieldEndOffsets(), keyBuilder.getByteArray());
+        return key;
+    }
+
+    private void flushRange(LSMBTreeMemoryComponent flushingComponent, ITupleReference lowKey, ITupleReference highKey,
+            IIndexBulkLoader rangeLoader, AtomicBoolean aborted) throws HyracksDataException {
+        MultiComparator cmp = MultiComparator.create(cmpFactories);
+        RangePredicate pred = new RangePredicate(lowKey, highKey, true, false, lowKey == null ? null : cmp,
+                highKey == null ? null : cmp);
+        IIndexAccessor accessor = flushingComponent.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        try {
+            IIndexCursor scanCursor = accessor.createSearchCursor(false);
+            accessor.search(scanCursor, pred);
+            try {
+                while (!aborted.get() && scanCursor.hasNext()) {
+                    scanCursor.next();
+                    if (!isUpdated(scanCursor.getTuple())) {
+                        rangeLoader.add(scanCursor.getTuple());
+                    }
+                }
+            } finally {
+                try {
+                    scanCursor.close();
+                } finally {
+                    scanCursor.destroy();
+                }
+            }
+            rangeLoader.end();
+        } finally {
+            accessor.destroy();
+        }
+    }
+
     @Override
     public ILSMDiskComponent doMerge(ILSMIOOperation operation) throws HyracksDataException {
         LSMBTreeMergeOperation mergeOp = (LSMBTreeMergeOperation) operation;
         IIndexCursor cursor = mergeOp.getCursor();
+        IoOperationProgress progress = mergeOp.getProgress();
         ILSMDiskComponent mergedComponent;
         ILSMDiskComponentBulkLoader componentBulkLoader = null;
         try {
-            try {
-                RangePredicate rangePred = new RangePredicate(null, null, true, true, null, null);
-                search(mergeOp.getAccessor().getOpContext(), cursor, rangePred);
+            List<ILSMComponent> mergedComponents = mergeOp.getMergingComponents();
+            if (fileManager instanceof AbstractLSMIndexFileManager) {
+                ((AbstractLSMIndexFileManager) fileManager).deleteObsoleteMergeCheckpoints(mergeOp.getTarget());
+            }
+            long numElements = getNumberOfElements(mergedComponents);
+            mergedComponent = createDiskComponent(componentFactory, mergeOp.getTarget(), null,
+                    mergeOp.getBloomFilterTarget(), true);
+            ChainedLSMDiskComponentBulkLoader chainedBulkLoader =
+                    mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false, false, false);
+            componentBulkLoader = chainedBulkLoader;
+            IIoOperationWorkers workers = operation.getWorkers();
+            IRangePartitionedBulkLoader indexBulkLoader = workers != null && workers.getParallelism() > 1
+                    ? chainedBulkLoader.getRangePartitionedBulkLoader() : null;
+            List<ITupleReference> splitKeys = Collections.emptyList();
+            // columnar leaves are written with the state of the whole component, they are built by a single thread
+            if (indexBulkLoader != null
+                    && !(((AbstractTreeIndexBulkLoader) indexBulkLoader).getLeafFrame() instanceof ColumnLeafFrame)) {
+                splitKeys = getMergeSplitKeys(mergedComponents, workers.getParallelism());
+            }
+            if (!splitKeys.isEmpty()) {
+                cursor.destroy();
+                // a failed range merge cleans up the merged component itself
+                componentBulkLoader = null;
+                mergeRanges(workers, mergeOp, (BTree) mergedComponent.getIndex(), splitKeys, chainedBulkLoader,
+                        indexBulkLoader);
+                componentBulkLoader = chainedBulkLoader;
+            } else {
                 try {
-                    List<ILSMComponent> mergedComponents = mergeOp.getMergingComponents();
-                    long numElements = getNumberOfElements(mergedComponents);
-                    mergedComponent = createDiskComponent(componentFactory, mergeOp.getTarget(), null,
-                            mergeOp.getBloomFilterTarget(), true);
-                    componentBulkLoader =
-                            mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false, false, false);
-                    while (cursor.hasNext()) {
-                        cursor.next();
-                        ITupleReference frameTuple = cursor.getTuple();
-                        componentBulkLoader.add(frameTuple);
+                    RangePredicate rangePred = new RangePredicate(null, null, true, true, null, null);
+                    search(mergeOp.getAccessor().getOpContext(), cursor, rangePred);
+                    try {
+                        long numMergedTuples = 0;
+                        while (cursor.hasNext()) {
+                            if (mergeOp.isCanceled()) {
+                                throw HyracksDataException.create(ErrorCode.MERGE_OPERATION_CANCELED,
+                                        getIndexIdentifier());
+                            }
+                            cursor.next();
+                            ITupleReference frameTuple = cursor.getTuple();
+                            componentBulkLoader.add(frameTuple);
+                            if (++numMergedTuples == MERGE_PROGRESS_BATCH_SIZE) {
+                                progress.tuplesWritten(numMergedTuples);
+                                numMergedTuples = 0;
+                            }
+                        }
+                        progress.tuplesWritten(numMergedTuples);
+                        progress.rangeCompleted();
+                    } finally {
+                        cursor.close();
                     }
                 } finally {
-                    cursor.close();
+                    cursor.destroy();
                 }
-            } finally {
-                cursor.destroy();
             }
             if (mergedComponent.getLSMComponentFilter() != null) {
                 List<ITupleReference> filterTuples = new ArrayList<>();
@@ -373,6 +610,257 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         return mergedComponent;
     }
 
+    /**
+     * Picks the keys that split a merge into key ranges of similar sizes from the interior pages of the largest
+     * merging component. The levels of its tree are read from the root down until a level has enough keys.
+     *
+     * @return the increasing keys that delimit the ranges, each key is the lowest key of a range
+     */
+    private List<ITupleReference> getMergeSplitKeys(List<ILSMComponent> mergingComponents, int maxRanges)
+            throws HyracksDataException {
+        ILSMDiskComponent largestComponent = null;
+        for (ILSMComponent component : mergingComponents) {
+            ILSMDiskComponent diskComponent = (ILSMDiskComponent) component;
+            if (largestComponent == null || diskComponent.getComponentSize() > largestComponent.getComponentSize()) {
+                largestComponent = diskComponent;
+            }
+        }
+        BTree btree = (BTree) largestComponent.getIndex();
+        IBufferCache bufferCache = btree.getBufferCache();
+        MultiComparator cmp = MultiComparator.create(cmpFactories);
+        BTreeNSMInteriorFrame interiorFrame = (BTreeNSMInteriorFrame) btree.getInteriorFrameFactory().createFrame();
+        interiorFrame.setMultiComparator(cmp);
+        ITreeIndexTupleReference frameTuple = interiorFrame.createTupleReference();
+        List<Integer> pageIds = Collections.singletonList(btree.getRootPageId());
+        while (true) {
+            KeyRangeSampler sampler = new KeyRangeSampler(cmpFactories.length);
+            List<Integer> childPageIds = new ArrayList<>();
+            boolean childrenAreLeaves = true;
+            for (int pageId : pageIds) {
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(btree.getFileId(), pageId), false);
+                page.acquireReadLatch();
+                try {
+                    interiorFrame.setPage(page);
+                    if (interiorFrame.isLeaf()) {
+                        // the tree is a single leaf
+                        return Collections.emptyList();
+                    }
+                    for (int i = 0; i < interiorFrame.getTupleCount(); i++) {
+                        frameTuple.resetByTupleIndex(interiorFrame, i);
+                        sampler.add(frameTuple);
+                    }
+                    childrenAreLeaves = interiorFrame.getLevel() == 1;
+                    childPageIds.addAll(interiorFrame.getChildren(cmp));
+                } finally {
+                    page.releaseReadLatch();
+                    bufferCache.unpin(page);
+                }
+            }
+            if (sampler.getCount() >= maxRanges - 1 || childrenAreLeaves) {
+                return sampler.getSplitKeys(maxRanges, 1);
+            }
+            pageIds = childPageIds;
+        }
+    }
+
+    /**
+     * Merges the key ranges that start at the split keys concurrently. The workers of the operation merge the ranges
+     * of the merging components, build the leaves of the ranges and pass the merged tuples to the other loaders of the
+     * component (e.g. its Bloomfilter). The ranges are then appended to the component in key order.
+     * <p>
+     * Once a range is appended, the leaves before it are forced and recorded by the checkpoint of the merge. A merge
+     * that was canceled or interrupted by a crash keeps the file of its merged tree and the next merge of the same
+     * components copies the recorded leaves and only merges the ranges after them.
+     */
+    private void mergeRanges(IIoOperationWorkers workers, LSMBTreeMergeOperation mergeOp, BTree mergedTree,
+            List<ITupleReference> splitKeys, ChainedLSMDiskComponentBulkLoader componentBulkLoader,
+            IRangePartitionedBulkLoader indexBulkLoader) throws HyracksDataException {
+        IoOperationProgress progress = mergeOp.getProgress();
+        List<IIndexBulkLoader> rangeLoaders = new ArrayList<>();
+        List<Future<Void>> rangeMerges = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        boolean appending = false;
+        MergeCheckpoint checkpoint = new MergeCheckpoint(fileManager.getBaseDir(), mergeOp.getTarget());
+        // the leaves of a compressed file are not written at their page ids
+        BTreeBulkLoader checkpointedLoader =
+                indexBulkLoader instanceof BTreeBulkLoader && !mergeOp.getTarget().isCompressed()
+                        ? (BTreeBulkLoader) indexBulkLoader : null;
+        try {
+            ITupleReference resumeKey = null;
+            if (checkpointedLoader != null && checkpoint.read()) {
+                resumeKey = copyMergedLeaves(checkpoint, mergedTree, checkpointedLoader,
+                        componentBulkLoader.createRangeAdder());
+            } else {
+                checkpoint.delete();
+            }
+            List<ITupleReference> rangeKeys = getRemainingSplitKeys(splitKeys, resumeKey);
+            int numRanges = rangeKeys.size() + 1;
+            progress.setNumRanges(numRanges);
+            for (int i = 0; i < numRanges; i++) {
+                ITupleReference lowKey = i == 0 ? resumeKey : rangeKeys.get(i - 1);
+                // the tuple at the key where the merge resumes was copied
+                boolean lowKeyInclusive = i > 0 || resumeKey == null;
+                ITupleReference highKey = i == numRanges - 1 ? null : rangeKeys.get(i);
+                IIndexBulkLoader rangeLoader = indexBulkLoader.createRangeLoader();
+                rangeLoaders.add(rangeLoader);
+                rangeMerges.add(workers.submit(() -> {
+                    mergeRange(mergeOp, lowKey, lowKeyInclusive, highKey, rangeLoader, componentBulkLoader, aborted);
+                    return null;
+                }));
+            }
+            for (int i = 0; i < numRanges; i++) {
+                rangeMerges.get(i).get();
+                appending = true;
+                indexBulkLoader.appendRange(rangeLoaders.get(i));
+                appending = false;
+                progress.rangeCompleted();
+                if (checkpointedLoader != null && i < numRanges - 1
+                        && checkpointedLoader.getLastWrittenLeafPageId() != checkpoint.getLastLeafPageId()) {
+                    checkpointedLoader.force();
+                    checkpoint.write(checkpointedLoader.getFirstWrittenLeafPageId(),
+                            checkpointedLoader.getLastWrittenLeafPageId(), checkpointedLoader.getMaxPageId());
+                }
+            }
+            checkpoint.delete();
+        } catch (Exception e) {
+            aborted.set(true);
+            for (Future<Void> rangeMerge : rangeMerges) {
+                try {
+                    rangeMerge.get();
+                } catch (Exception rangeFailure) { // NOSONAR the range merges are only awaited
+                    e.addSuppressed(rangeFailure);
+                }
+            }
+            for (IIndexBulkLoader rangeLoader : rangeLoaders) {
+                rangeLoader.abort();
+            }
+            // a failed append has already released the pages of the index
+            if (!appending) {
+                indexBulkLoader.abort();
+            }
+            // a canceled merge is resumed by the next merge of its components
+            if (checkpointedLoader == null || !mergeOp.isCanceled() || !checkpoint.keepTarget()) {
+                try {
+                    checkpoint.delete();
+                } catch (HyracksDataException deleteFailure) {
+                    e.addSuppressed(deleteFailure);
+                }
+            }
+            componentBulkLoader.cleanupArtifacts();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw HyracksDataException.create(e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Copies the leaves that the checkpoint of an interrupted merge recorded to the merged tree, at the same page ids,
+     * and passes their tuples to the other loaders of the component. A large leaf and the leaves after it are merged
+     * again. The partial file of the interrupted merge is deleted once the copies are durable.
+     *
+     * @return the key of the last copied tuple or {@code null} if no leaf was copied
+     */
+    private ITupleReference copyMergedLeaves(MergeCheckpoint checkpoint, BTree mergedTree,
+            BTreeBulkLoader indexBulkLoader, RangeAdder nonPartitionedLoaders) throws HyracksDataException {
+        IBufferCache bufferCache = mergedTree.getBufferCache();
+        IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) mergedTree.getLeafFrameFactory().createFrame();
+        ITreeIndexTupleReference tuple = leafFrame.createTupleReference();
+        ITupleReference lastKey = null;
+        indexBulkLoader.reservePages(checkpoint.getMaxPageId());
+        int partialFileId = bufferCache.openFile(checkpoint.getPartialFile());
+        try {
+            int pageId = checkpoint.getFirstLeafPageId();
+            boolean copying = pageId != IBufferCache.INVALID_PAGEID;
+            while (copying) {
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(partialFileId, pageId), false);
+                try {
+                    leafFrame.setPage(page);
+                    int tupleCount = leafFrame.getTupleCount();
+                    if (leafFrame.getLargeFlag() || tupleCount == 0) {
+                        break;
+                    }
+                    for (int i = 0; i < tupleCount; i++) {
+                        tuple.resetByTupleIndex(leafFrame, i);
+                        nonPartitionedLoaders.add(tuple);
+                    }
+                    lastKey = copyKey(tuple);
+                    ICachedPage leaf = bufferCache
+                            .confiscatePage(BufferedFileHandle.getDiskPageId(mergedTree.getFileId(), pageId));
+                    System.arraycopy(page.getBuffer().array(), 0, leaf.getBuffer().array(), 0,
+                            page.getBuffer().capacity());
+                    indexBulkLoader.appendLeaf(leaf, pageId);
+                    copying = pageId != checkpoint.getLastLeafPageId();
+                    pageId = leafFrame.getNextLeaf();
+                } finally {
+                    bufferCache.unpin(page);
+                }
+            }
+            indexBulkLoader.force();
+        } finally {
+            bufferCache.closeFile(partialFileId);
+        }
+        bufferCache.deleteFile(partialFileId);
+        return lastKey;
+    }
+
+    private List<ITupleReference> getRemainingSplitKeys(List<ITupleReference> splitKeys, ITupleReference resumeKey)
+            throws HyracksDataException {
+        if (resumeKey == null) {
+            return splitKeys;
+        }
+        MultiComparator cmp = MultiComparator.create(cmpFactories);
+        List<ITupleReference> remainingKeys = new ArrayList<>();
+        for (ITupleReference splitKey : splitKeys) {
+            if (cmp.compare(splitKey, resumeKey) > 0) {
+                remainingKeys.add(splitKey);
+            }
+        }
+        return remainingKeys;
+    }
+
+    private void mergeRange(LSMBTreeMergeOperation mergeOp, ITupleReference lowKey, boolean lowKeyInclusive,
+            ITupleReference highKey, IIndexBulkLoader rangeLoader,
+            ChainedLSMDiskComponentBulkLoader componentBulkLoader, AtomicBoolean aborted) throws HyracksDataException {
+        IoOperationProgress progress = mergeOp.getProgress();
+        MultiComparator cmp = MultiComparator.create(cmpFactories);
+        RangePredicate pred = new RangePredicate(lowKey, highKey, lowKeyInclusive, false, lowKey == null ? null : cmp,
+                highKey == null ? null : cmp);
+        LSMBTreeOpContext ctx = createOpContext(NoOpIndexAccessParameters.INSTANCE);
+        ctx.setOperation(IndexOperation.MERGE);
+        ctx.getComponentHolder().addAll(mergeOp.getMergingComponents());
+        IIndexCursor cursor = new LSMBTreeRangeSearchCursor(ctx, mergeOp.isReturnDeletedTuples());
+        RangeAdder nonPartitionedLoaders = componentBulkLoader.createRangeAdder();
+        try {
+            search(ctx, cursor, pred);
+            try {
+                long numMergedTuples = 0;
+                while (!aborted.get() && cursor.hasNext()) {
+                    if (mergeOp.isCanceled()) {
+                        throw HyracksDataException.create(ErrorCode.MERGE_OPERATION_CANCELED, getIndexIdentifier());
+                    }
+                    cursor.next();
+                    rangeLoader.add(cursor.getTuple());
+                    nonPartitionedLoaders.add(cursor.getTuple());
+                    if (++numMergedTuples == MERGE_PROGRESS_BATCH_SIZE) {
+                        progress.tuplesWritten(numMergedTuples);
+                        numMergedTuples = 0;
+                    }
+                }
+                progress.tuplesWritten(numMergedTuples);
+            } finally {
+                cursor.close();
+            }
+            rangeLoader.end();
+        } finally {
+            try {
+                cursor.destroy();
+            } finally {
+                ctx.destroy();
+            }
+        }
+    }
+
     private long getNumberOfElements(List<ILSMComponent> mergedComponents) throws HyracksDataException {
         long numElements = 0L;
         if (hasBloomFilter) {
@@ -395,12 +883,16 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
 
     @Override
     public LSMBTreeOpContext createOpContext(IIndexAccessParameters iap) {
-        int numBloomFilterKeyFields = hasBloomFilter
-                ? ((LSMBTreeWithBloomFilterDiskComponentFactory) componentFactory).getBloomFilterKeyFields().length : 0;
-        return new LSMBTreeOpContext(this, memoryComponents, insertLeafFrameFactory, deleteLeafFrameFactory,
-                (IExtendedModificationOperationCallback) iap.getModificationCallback(),
+        // range searches can only probe bloom filters that are built on a prefix of the key
+        int numBloomFilterKeyFields = hasBloomFilter ? LSMBTreeUtil.getBloomFilterPrefixLength(
+                ((LSMBTreeWithBloomFilterDiskComponentFactory) componentFactory).getBloomFilterKeyFields()) : 0;
+        LSMBTreeOpContext opCtx = new LSMBTreeOpContext(this, memoryComponents, insertLeafFrameFactory,
+                deleteLeafFrameFactory, (IExtendedModificationOperationCallback) iap.getModificationCallback(),
                 iap.getSearchOperationCallback(), numBloomFilterKeyFields, getTreeFields(), getFilterFields(),
                 getHarness(), getFilterCmpFactories(), tracer);
+        opCtx.getSearchInitialState()
+                .setProjection((BitSet) iap.getParameters().get(HyracksConstants.COLUMN_PROJECTION));
+        return opCtx;
     }
 
     @Override
@@ -475,6 +967,6 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         }
         LSMBTreeRangeSearchCursor cursor = new LSMBTreeRangeSearchCursor(opCtx, returnDeletedTuples);
         return new LSMBTreeMergeOperation(accessor, cursor, mergeFileRefs.getInsertIndexFileReference(),
-                mergeFileRefs.getBloomFilterFileReference(), callback, getIndexIdentifier());
+                mergeFileRefs.getBloomFilterFileReference(), callback, getIndexIdentifier(), returnDeletedTuples);
     }
 }
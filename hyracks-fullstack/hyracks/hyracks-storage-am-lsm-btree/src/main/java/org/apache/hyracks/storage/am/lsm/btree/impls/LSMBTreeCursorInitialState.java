@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.am.lsm.btree.impls;
 
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
@@ -40,6 +41,8 @@ public class LSMBTreeCursorInitialState implements ICursorInitialState {
     private ISearchOperationCallback searchCallback;
     private List<ILSMComponent> operationalComponents;
     private boolean isDiskComponentScan;
+    private BitSet projection;
+    private MultiComparator filterCmp;
 
     public LSMBTreeCursorInitialState(ITreeIndexFrameFactory leafFrameFactory, MultiComparator cmp,
             MultiComparator bloomFilterCmp, ILSMHarness lsmHarness, ISearchPredicate predicate,
@@ -88,6 +91,10 @@ public class LSMBTreeCursorInitialState implements ICursorInitialState {
         return predicate;
     }
 
+    /**
+     * @return the comparator of the bloom filter key fields or {@code null} if there are no bloom filters or their key
+     *         fields are not a prefix of the key
+     */
     public MultiComparator getBloomFilterComparator() {
         return bloomFilterCmp;
     }
@@ -116,4 +123,23 @@ public class LSMBTreeCursorInitialState implements ICursorInitialState {
     public boolean isDiskComponentScan() {
         return isDiskComponentScan;
     }
+
+    public void setProjection(BitSet projection) {
+        this.projection = projection;
+    }
+
+    public BitSet getProjection() {
+        return projection;
+    }
+
+    public void setFilterComparator(MultiComparator filterCmp) {
+        this.filterCmp = filterCmp;
+    }
+
+    /**
+     * @return the comparator of the LSM component filter tuples or {@code null} if the index has no filter
+     */
+    public MultiComparator getFilterComparator() {
+        return filterCmp;
+    }
 }
@@ -21,21 +21,62 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMappedComponent;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMap;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
 import org.apache.hyracks.storage.common.compression.file.CompressedFileReference;
 
-public class LSMBTreeDiskComponent extends AbstractLSMDiskComponent {
+public class LSMBTreeDiskComponent extends AbstractLSMDiskComponent implements IZoneMappedComponent {
     protected final DiskBTree btree;
+    private final ZoneMapHelper zoneMapHelper;
+    private volatile ZoneMap zoneMap;
 
     public LSMBTreeDiskComponent(AbstractLSMIndex lsmIndex, DiskBTree btree, ILSMComponentFilter filter) {
+        this(lsmIndex, btree, filter, null);
+    }
+
+    /**
+     * @param zoneMapHelper
+     *            builds the zone map of the component or {@code null} if the component has no zone map
+     */
+    public LSMBTreeDiskComponent(AbstractLSMIndex lsmIndex, DiskBTree btree, ILSMComponentFilter filter,
+            ZoneMapHelper zoneMapHelper) {
         super(lsmIndex, getMetadataPageManager(btree), filter);
         this.btree = btree;
+        this.zoneMapHelper = zoneMapHelper;
+    }
+
+    @Override
+    public ZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
+    @Override
+    public void activate(boolean createNewComponent) throws HyracksDataException {
+        super.activate(createNewComponent);
+        if (zoneMapHelper != null && !createNewComponent) {
+            zoneMap = ZoneMap.read(getMetadata());
+        }
+    }
+
+    @Override
+    public IChainedComponentBulkLoader createIndexBulkLoader(float fillFactor, boolean verifyInput,
+            long numElementsHint, boolean checkIfEmptyIndex) throws HyracksDataException {
+        if (zoneMapHelper == null) {
+            return super.createIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex);
+        }
+        return zoneMapHelper.createIndexBulkLoader(
+                btree.createBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex),
+                btree.getBufferCache().getPageSize(), getMetadata(), builtZoneMap -> zoneMap = builtZoneMap);
     }
 
     @Override
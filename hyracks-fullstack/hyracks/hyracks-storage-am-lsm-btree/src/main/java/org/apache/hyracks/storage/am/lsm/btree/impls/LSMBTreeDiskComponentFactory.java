@@ -21,6 +21,7 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.IComponentFilterHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
@@ -30,17 +31,24 @@ import org.apache.hyracks.storage.am.lsm.common.impls.TreeIndexFactory;
 public class LSMBTreeDiskComponentFactory implements ILSMDiskComponentFactory {
     protected final TreeIndexFactory<DiskBTree> btreeFactory;
     protected final IComponentFilterHelper filterHelper;
+    protected final ZoneMapHelper zoneMapHelper;
 
     public LSMBTreeDiskComponentFactory(TreeIndexFactory<DiskBTree> btreeFactory, IComponentFilterHelper filterHelper) {
+        this(btreeFactory, filterHelper, null);
+    }
+
+    public LSMBTreeDiskComponentFactory(TreeIndexFactory<DiskBTree> btreeFactory, IComponentFilterHelper filterHelper,
+            ZoneMapHelper zoneMapHelper) {
         this.btreeFactory = btreeFactory;
         this.filterHelper = filterHelper;
+        this.zoneMapHelper = zoneMapHelper;
     }
 
     @Override
     public LSMBTreeDiskComponent createComponent(AbstractLSMIndex lsmIndex, LSMComponentFileReferences cfr)
             throws HyracksDataException {
         return new LSMBTreeDiskComponent(lsmIndex, btreeFactory.createIndexInstance(cfr.getInsertIndexFileReference()),
-                filterHelper == null ? null : filterHelper.createFilter());
+                filterHelper == null ? null : filterHelper.createFilter(), zoneMapHelper);
     }
 
 }
@@ -30,11 +30,12 @@ import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.tuples.PermutingTupleReference;
-import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
 import org.apache.hyracks.storage.common.ICursorInitialState;
 import org.apache.hyracks.storage.common.IIndexCursor;
@@ -77,7 +78,10 @@ public class LSMBTreeDiskComponentScanCursor extends LSMIndexSearchCursor {
             ILSMComponent component = operationalComponents.get(i);
             BTree btree = (BTree) component.getIndex();
             btreeAccessors[i] = btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
-            rangeCursors[i] = btreeAccessors[i].createSearchCursor(false);
+            BTreeRangeSearchCursor rangeCursor = btreeAccessors[i].createSearchCursor(false);
+            // scanning disk components should not pollute the buffer cache
+            rangeCursor.setSequentialScan(true);
+            rangeCursors[i] = rangeCursor;
         }
         IndexCursorUtils.open(btreeAccessors, rangeCursors, searchPred);
         try {
@@ -106,7 +110,7 @@ public class LSMBTreeDiskComponentScanCursor extends LSMIndexSearchCursor {
         }
         while (super.doHasNext()) {
             super.doNext();
-            LSMBTreeTupleReference diskTuple = (LSMBTreeTupleReference) super.doGetTuple();
+            ILSMTreeTupleReference diskTuple = (ILSMTreeTupleReference) super.doGetTuple();
             if (diskTuple.isAntimatter()) {
                 if (setAntiMatterTuple(diskTuple, outputElement.getCursorIndex())) {
                     foundNext = true;
@@ -29,11 +29,22 @@ import org.apache.hyracks.storage.common.IIndexCursor;
 public class LSMBTreeMergeOperation extends MergeOperation {
 
     private final FileReference bloomFilterMergeTarget;
+    private final boolean returnDeletedTuples;
 
     public LSMBTreeMergeOperation(ILSMIndexAccessor accessor, IIndexCursor cursor, FileReference target,
-            FileReference bloomFilterMergeTarget, ILSMIOOperationCallback callback, String indexIdentifier) {
+            FileReference bloomFilterMergeTarget, ILSMIOOperationCallback callback, String indexIdentifier,
+            boolean returnDeletedTuples) {
         super(accessor, target, callback, indexIdentifier, cursor);
         this.bloomFilterMergeTarget = bloomFilterMergeTarget;
+        this.returnDeletedTuples = returnDeletedTuples;
+    }
+
+    /**
+     * @return true if the antimatter tuples are kept in the merged component, i.e. the oldest disk component is not
+     *         merged
+     */
+    public boolean isReturnDeletedTuples() {
+        return returnDeletedTuples;
     }
 
     public FileReference getBloomFilterTarget() {
@@ -106,9 +106,11 @@ public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
             deleteLeafFrame.setMultiComparator(getCmp());
         }
         searchPredicate = new RangePredicate(null, null, true, true, getCmp(), getCmp());
-        memCursor = (insertLeafFrame != null) ? new BTreeRangeSearchCursor(insertLeafFrame, false) : null;
+        // the mutable components' own cursor, which isn't a paged cursor if they are skip lists
+        memCursor = (insertLeafFrame != null) ? mutableBTreeAccessors[0].createSearchCursor(false) : null;
         searchInitialState = new LSMBTreeCursorInitialState(insertLeafFrameFactory, getCmp(), bloomFilterCmp,
                 lsmHarness, null, searchCallback, null);
+        searchInitialState.setFilterComparator(getFilterCmp());
         insertSearchCursor = new LSMBTreePointSearchCursor(this);
     }
 
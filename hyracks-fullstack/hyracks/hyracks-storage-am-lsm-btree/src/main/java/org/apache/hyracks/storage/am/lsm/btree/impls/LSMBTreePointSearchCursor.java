@@ -27,6 +27,7 @@ import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
@@ -203,6 +204,7 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
                 btreeAccessors[i].reset(btree, NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
                 btreeCursors[i].close();
             }
+            ((BTreeRangeSearchCursor) btreeCursors[i]).setProjection(lsmInitialState.getProjection());
         }
         nextHasBeenCalled = false;
         foundTuple = false;
@@ -26,12 +26,16 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.util.CleanupUtils;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapFilterBuilder;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
@@ -42,6 +46,7 @@ import org.apache.hyracks.storage.common.ICursorInitialState;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.ISearchOperationCallback;
 import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.storage.common.util.IndexCursorUtils;
 
 public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
@@ -50,10 +55,13 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
     private ISearchOperationCallback searchCallback;
     private BTreeAccessor[] btreeAccessors;
     private boolean[] isMemoryComponent;
+    private boolean[] isSkippedComponent;
     private ArrayTupleBuilder tupleBuilder;
     private boolean canCallProceed = true;
     private boolean resultOfSearchCallbackProceed = false;
     private int tupleFromMemoryComponentCount = 0;
+    private final long[] hashes = BloomFilter.createHashArray();
+    private final ZoneMapFilterBuilder zoneMapFilterBuilder = new ZoneMapFilterBuilder();
 
     public LSMBTreeRangeSearchCursor(ILSMIndexOperationContext opCtx) {
         this(opCtx, false);
@@ -342,6 +350,9 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
         reusablePred.setHighKey(predicate.getHighKey(), predicate.isHighKeyInclusive());
         reusablePred.setHighKeyComparator(predicate.getHighKeyComparator());
         includeMutableComponent = false;
+        // full range searches (e.g., merges and dataset scans) read the disk components sequentially
+        boolean sequentialScan = predicate.getLowKey() == null && predicate.getHighKey() == null;
+        ITupleReference bloomFilterKey = getBloomFilterKey(predicate, lsmInitialState.getBloomFilterComparator());
 
         int numBTrees = operationalComponents.size();
         if (rangeCursors == null) {
@@ -349,6 +360,7 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
             rangeCursors = new IIndexCursor[numBTrees];
             btreeAccessors = new BTreeAccessor[numBTrees];
             isMemoryComponent = new boolean[numBTrees];
+            isSkippedComponent = new boolean[numBTrees];
         } else if (rangeCursors.length != numBTrees) {
             // should destroy first
             Throwable failure = CleanupUtils.destroy(null, btreeAccessors);
@@ -361,6 +373,7 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
             rangeCursors = new IIndexCursor[numBTrees];
             btreeAccessors = new BTreeAccessor[numBTrees];
             isMemoryComponent = new boolean[numBTrees];
+            isSkippedComponent = new boolean[numBTrees];
         }
         for (int i = 0; i < numBTrees; i++) {
             ILSMComponent component = operationalComponents.get(i);
@@ -378,9 +391,26 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
                 rangeCursors[i].close();
             }
             isMemoryComponent[i] = component.getType() == LSMComponentType.MEMORY;
+            isSkippedComponent[i] = bloomFilterKey != null && component instanceof LSMBTreeWithBloomFilterDiskComponent
+                    && !((LSMBTreeWithBloomFilterDiskComponent) component).getBloomFilter().contains(bloomFilterKey,
+                            hashes);
+            ((BTreeRangeSearchCursor) rangeCursors[i]).setSequentialScan(sequentialScan && !isMemoryComponent[i]);
+            ((BTreeRangeSearchCursor) rangeCursors[i]).setProjection(lsmInitialState.getProjection());
+        }
+        // the zones of older components decide which pages of newer ones can be skipped
+        zoneMapFilterBuilder.reset(cmp, lsmInitialState.getFilterComparator(), predicate.getMinFilterTuple(),
+                predicate.getMaxFilterTuple());
+        for (int i = numBTrees - 1; i >= 0; i--) {
+            ((BTreeRangeSearchCursor) rangeCursors[i]).setLeafPageFilter(
+                    isMemoryComponent[i] ? null : zoneMapFilterBuilder.add(operationalComponents.get(i)));
         }
-        IndexCursorUtils.open(btreeAccessors, rangeCursors, searchPred);
         try {
+            for (int i = 0; i < numBTrees; i++) {
+                // the cursors of skipped components stay closed
+                if (!isSkippedComponent[i]) {
+                    btreeAccessors[i].search(rangeCursors[i], searchPred);
+                }
+            }
             setPriorityQueueComparator();
             initPriorityQueue();
             canCallProceed = true;
@@ -390,6 +420,34 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
         }
     }
 
+    /**
+     * @param bloomFilterCmp
+     *            the comparator of the bloom filter key fields, which are the leading key fields, or {@code null}
+     * @return the low key of the predicate if all the keys in its range share the bloom filter key fields of the low
+     *         key (e.g., an equality search on a prefix of the key that covers the bloom filter key fields), otherwise
+     *         {@code null}
+     */
+    private static ITupleReference getBloomFilterKey(RangePredicate predicate, MultiComparator bloomFilterCmp)
+            throws HyracksDataException {
+        ITupleReference lowKey = predicate.getLowKey();
+        ITupleReference highKey = predicate.getHighKey();
+        if (bloomFilterCmp == null || lowKey == null || highKey == null) {
+            return null;
+        }
+        int numBloomFilterKeyFields = bloomFilterCmp.getKeyFieldCount();
+        if (lowKey.getFieldCount() < numBloomFilterKeyFields || highKey.getFieldCount() < numBloomFilterKeyFields) {
+            return null;
+        }
+        return bloomFilterCmp.compare(lowKey, highKey) == 0 ? lowKey : null;
+    }
+
+    @Override
+    protected void pushIntoQueueFromCursorAndReplaceThisElement(PriorityQueueElement e) throws HyracksDataException {
+        if (!isSkippedComponent[e.getCursorIndex()]) {
+            super.pushIntoQueueFromCursorAndReplaceThisElement(e);
+        }
+    }
+
     private boolean destroyIncompatible(ILSMComponent component, int index) throws HyracksDataException {
         // exclusive or. if the component is memory and the previous one at that index was a disk component
         // or vice versa, then we should destroy the cursor and accessor since they need to be recreated
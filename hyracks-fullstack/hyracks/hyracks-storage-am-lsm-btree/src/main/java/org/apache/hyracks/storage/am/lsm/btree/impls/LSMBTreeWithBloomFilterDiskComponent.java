@@ -20,23 +20,43 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import java.util.Set;
 
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
-import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMappedComponent;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMap;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 
-public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFilterDiskComponent {
+public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFilterDiskComponent
+        implements IZoneMappedComponent {
 
     private final BTree btree;
     private final BloomFilter bloomFilter;
+    private final ZoneMapHelper zoneMapHelper;
+    private volatile ZoneMap zoneMap;
 
     public LSMBTreeWithBloomFilterDiskComponent(AbstractLSMIndex lsmIndex, BTree btree, BloomFilter bloomFilter,
             ILSMComponentFilter filter) {
+        this(lsmIndex, btree, bloomFilter, filter, null);
+    }
+
+    /**
+     * @param zoneMapHelper
+     *            builds the zone map of the component or {@code null} if the component has no zone map
+     */
+    public LSMBTreeWithBloomFilterDiskComponent(AbstractLSMIndex lsmIndex, BTree btree, BloomFilter bloomFilter,
+            ILSMComponentFilter filter, ZoneMapHelper zoneMapHelper) {
         super(lsmIndex, LSMBTreeDiskComponent.getMetadataPageManager(btree), filter);
         this.btree = btree;
         this.bloomFilter = bloomFilter;
+        this.zoneMapHelper = zoneMapHelper;
     }
 
     @Override
@@ -49,6 +69,31 @@ public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFi
         return getMetadataHolder().getBufferCache();
     }
 
+    @Override
+    public ZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
+    @Override
+    public void activate(boolean createNewComponent) throws HyracksDataException {
+        super.activate(createNewComponent);
+        if (zoneMapHelper != null && !createNewComponent) {
+            zoneMap = ZoneMap.read(getMetadata());
+        }
+    }
+
+    @Override
+    public IChainedComponentBulkLoader createIndexBulkLoader(float fillFactor, boolean verifyInput,
+            long numElementsHint, boolean checkIfEmptyIndex) throws HyracksDataException {
+        IIndexBulkLoader bulkLoader =
+                btree.createBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex);
+        if (zoneMapHelper != null) {
+            return zoneMapHelper.createIndexBulkLoader(bulkLoader, btree.getBufferCache().getPageSize(), getMetadata(),
+                    builtZoneMap -> zoneMap = builtZoneMap);
+        }
+        return new LSMIndexBulkLoader(bulkLoader);
+    }
+
     @Override
     public long getComponentSize() {
         return LSMBTreeDiskComponent.getComponentSize(btree) + getComponentSize(bloomFilter);
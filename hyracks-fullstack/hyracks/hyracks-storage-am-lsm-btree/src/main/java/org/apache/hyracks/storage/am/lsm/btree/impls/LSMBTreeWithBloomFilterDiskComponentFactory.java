@@ -21,6 +21,7 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilterFactory;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.IComponentFilterHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
@@ -31,12 +32,19 @@ public class LSMBTreeWithBloomFilterDiskComponentFactory implements ILSMDiskComp
     protected final TreeIndexFactory<DiskBTree> btreeFactory;
     protected final IComponentFilterHelper filterHelper;
     protected final BloomFilterFactory bloomFilterFactory;
+    protected final ZoneMapHelper zoneMapHelper;
 
     public LSMBTreeWithBloomFilterDiskComponentFactory(TreeIndexFactory<DiskBTree> btreeFactory,
             BloomFilterFactory bloomFilterFactory, IComponentFilterHelper filterHelper) {
+        this(btreeFactory, bloomFilterFactory, filterHelper, null);
+    }
+
+    public LSMBTreeWithBloomFilterDiskComponentFactory(TreeIndexFactory<DiskBTree> btreeFactory,
+            BloomFilterFactory bloomFilterFactory, IComponentFilterHelper filterHelper, ZoneMapHelper zoneMapHelper) {
         this.btreeFactory = btreeFactory;
         this.filterHelper = filterHelper;
         this.bloomFilterFactory = bloomFilterFactory;
+        this.zoneMapHelper = zoneMapHelper;
     }
 
     @Override
@@ -45,7 +53,7 @@ public class LSMBTreeWithBloomFilterDiskComponentFactory implements ILSMDiskComp
         return new LSMBTreeWithBloomFilterDiskComponent(lsmIndex,
                 btreeFactory.createIndexInstance(cfr.getInsertIndexFileReference()),
                 bloomFilterFactory.createBloomFiltertInstance(cfr.getBloomFilterFileReference()),
-                filterHelper == null ? null : filterHelper.createFilter());
+                filterHelper == null ? null : filterHelper.createFilter(), zoneMapHelper);
     }
 
     public int[] getBloomFilterKeyFields() {
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import static org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager.MERGE_CHECKPOINT_PREFIX;
+import static org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager.PARTIAL_MERGE_PREFIX;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+
+/**
+ * The checkpoint of a merge whose key ranges are written concurrently. It records the chain of leaves of the merged
+ * tree that are durable once the ranges before them are appended. When the merge is interrupted, the file of the
+ * merged tree is kept as a partial file and the next merge of the same components copies the recorded leaves instead
+ * of merging their tuples again.
+ */
+class MergeCheckpoint {
+    private static final int VERSION = 1;
+    private static final int SIZE = 4 * Integer.BYTES;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final Path target;
+    private final FileReference partialFile;
+    private int firstLeafPageId = IBufferCache.INVALID_PAGEID;
+    private int lastLeafPageId = IBufferCache.INVALID_PAGEID;
+    private int maxPageId = IBufferCache.INVALID_PAGEID;
+
+    MergeCheckpoint(FileReference baseDir, FileReference target) {
+        String targetName = target.getFile().getName();
+        this.file = baseDir.getChild(MERGE_CHECKPOINT_PREFIX + targetName).getFile().toPath();
+        this.target = target.getFile().toPath();
+        this.partialFile = baseDir.getChild(PARTIAL_MERGE_PREFIX + targetName);
+    }
+
+    /**
+     * Reads the checkpoint of an interrupted merge into the same merged tree
+     *
+     * @return true if the checkpoint and the partial file it describes exist
+     */
+    boolean read() throws HyracksDataException {
+        if (!Files.exists(file) || !partialFile.getFile().exists()) {
+            return false;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() != SIZE || buffer.getInt() != VERSION) {
+                return false;
+            }
+            firstLeafPageId = buffer.getInt();
+            lastLeafPageId = buffer.getInt();
+            maxPageId = buffer.getInt();
+            return true;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Replaces the checkpoint. The recorded leaves must be durable.
+     */
+    void write(int firstLeafPageId, int lastLeafPageId, int maxPageId) throws HyracksDataException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putInt(VERSION).putInt(firstLeafPageId).putInt(lastLeafPageId).putInt(maxPageId).flip();
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        this.firstLeafPageId = firstLeafPageId;
+        this.lastLeafPageId = lastLeafPageId;
+        this.maxPageId = maxPageId;
+    }
+
+    /**
+     * Keeps the file of the merged tree of a canceled merge as the partial file of its checkpoint before the merged
+     * component is deleted
+     *
+     * @return true if a checkpoint was written and the file is kept, otherwise the merge starts over
+     */
+    boolean keepTarget() {
+        if (lastLeafPageId == IBufferCache.INVALID_PAGEID || !Files.exists(file)) {
+            return false;
+        }
+        try {
+            Files.createLink(partialFile.getFile().toPath(), target);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) { // NOSONAR the merge starts over
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the checkpoint and the partial file, if any
+     */
+    void delete() throws HyracksDataException {
+        try {
+            Files.deleteIfExists(partialFile.getFile().toPath());
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + TEMP_SUFFIX));
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    FileReference getPartialFile() {
+        return partialFile;
+    }
+
+    int getFirstLeafPageId() {
+        return firstLeafPageId;
+    }
+
+    int getLastLeafPageId() {
+        return lastLeafPageId;
+    }
+
+    int getMaxPageId() {
+        return maxPageId;
+    }
+}
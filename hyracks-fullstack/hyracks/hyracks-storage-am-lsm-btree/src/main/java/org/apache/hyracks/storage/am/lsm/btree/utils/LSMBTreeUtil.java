@@ -32,20 +32,28 @@ import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrameFactory;
 import org.apache.hyracks.storage.am.btree.frames.BTreeNSMLeafFrameFactory;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.btree.impls.SkipListBTree;
 import org.apache.hyracks.storage.am.btree.tuples.BTreeTypeAwareTupleWriterFactory;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
 import org.apache.hyracks.storage.am.common.tuples.TypeAwareTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnLeafFrame;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnLeafFrameFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
 import org.apache.hyracks.storage.am.lsm.btree.impls.ExternalBTree;
 import org.apache.hyracks.storage.am.lsm.btree.impls.ExternalBTreeWithBuddy;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeFileManager;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeWithBloomFilterDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeWithBuddyDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeWithBuddyFileManager;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeCopyTupleWriterFactory;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractorFactory;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMapHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
@@ -75,6 +83,30 @@ public class LSMBTreeUtil {
             IBinaryComparatorFactory[] filterCmpFactories, int[] btreeFields, int[] filterFields, boolean durable,
             IMetadataPageManagerFactory freePageManagerFactory, boolean updateAware, ITracer tracer,
             ICompressorDecompressorFactory compressorDecompressorFactory) throws HyracksDataException {
+        return createLSMTree(ioManager, virtualBufferCaches, file, diskBufferCache, typeTraits, cmpFactories,
+                bloomFilterKeyFields, bloomFilterFalsePositiveRate, mergePolicy, opTracker, ioScheduler,
+                ioOpCallbackFactory, needKeyDupCheck, filterTypeTraits, filterCmpFactories, btreeFields, filterFields,
+                durable, freePageManagerFactory, updateAware, tracer, compressorDecompressorFactory, null, null,
+                LSMBTreeMemoryComponentType.BTREE);
+    }
+
+    /**
+     * Creates an LSM BTree whose disk components are stored in the columnar format of {@link ColumnLeafFrame} when
+     * a column shredder factory is given. The memory component is always stored in the row format, either in a
+     * latched BTree or in a {@link SkipListBTree}, depending on the memory component type. The disk components have
+     * zone maps of the LSM component filter values of their leaf pages when the index has a filter and a zone map value
+     * extractor factory is given.
+     */
+    public static LSMBTree createLSMTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            FileReference file, IBufferCache diskBufferCache, ITypeTraits[] typeTraits,
+            IBinaryComparatorFactory[] cmpFactories, int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, boolean needKeyDupCheck, ITypeTraits[] filterTypeTraits,
+            IBinaryComparatorFactory[] filterCmpFactories, int[] btreeFields, int[] filterFields, boolean durable,
+            IMetadataPageManagerFactory freePageManagerFactory, boolean updateAware, ITracer tracer,
+            ICompressorDecompressorFactory compressorDecompressorFactory, IColumnShredderFactory columnShredderFactory,
+            IZoneMapValueExtractorFactory zoneMapValueExtractorFactory, LSMBTreeMemoryComponentType memoryComponentType)
+            throws HyracksDataException {
         LSMBTreeTupleWriterFactory insertTupleWriterFactory =
                 new LSMBTreeTupleWriterFactory(typeTraits, cmpFactories.length, false, updateAware);
         LSMBTreeTupleWriterFactory deleteTupleWriterFactory =
@@ -89,6 +121,12 @@ public class LSMBTreeUtil {
         ITreeIndexFrameFactory deleteLeafFrameFactory = new BTreeNSMLeafFrameFactory(deleteTupleWriterFactory);
         ITreeIndexFrameFactory interiorFrameFactory = new BTreeNSMInteriorFrameFactory(insertTupleWriterFactory);
         ITreeIndexFrameFactory bulkLoadLeafFrameFactory = new BTreeNSMLeafFrameFactory(bulkLoadTupleWriterFactory);
+        if (columnShredderFactory != null) {
+            ITreeIndexFrameFactory columnLeafFrameFactory = new ColumnLeafFrameFactory(
+                    new ColumnTupleWriterFactory(typeTraits, cmpFactories.length, updateAware), columnShredderFactory);
+            copyTupleLeafFrameFactory = columnLeafFrameFactory;
+            bulkLoadLeafFrameFactory = columnLeafFrameFactory;
+        }
 
         TreeIndexFactory<DiskBTree> diskBTreeFactory =
                 new DiskBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory, interiorFrameFactory,
@@ -106,6 +144,8 @@ public class LSMBTreeUtil {
             filterFrameFactory = new LSMComponentFilterFrameFactory(filterTupleWriterFactory);
             filterManager = new LSMComponentFilterManager(filterFrameFactory);
         }
+        ZoneMapHelper zoneMapHelper = filterCmpFactories != null && zoneMapValueExtractorFactory != null
+                ? new ZoneMapHelper(zoneMapValueExtractorFactory, filterCmpFactories, cmpFactories.length) : null;
 
         ILSMIndexFileManager fileNameManager = new LSMBTreeFileManager(ioManager, file, diskBTreeFactory,
                 needKeyDupCheck, compressorDecompressorFactory);
@@ -115,20 +155,21 @@ public class LSMBTreeUtil {
         ILSMDiskComponentFactory bulkLoadComponentFactory;
         if (needKeyDupCheck) {
             BloomFilterFactory bloomFilterFactory = new BloomFilterFactory(diskBufferCache, bloomFilterKeyFields);
-            componentFactory =
-                    new LSMBTreeWithBloomFilterDiskComponentFactory(diskBTreeFactory, bloomFilterFactory, filterHelper);
+            componentFactory = new LSMBTreeWithBloomFilterDiskComponentFactory(diskBTreeFactory, bloomFilterFactory,
+                    filterHelper, zoneMapHelper);
             bulkLoadComponentFactory = new LSMBTreeWithBloomFilterDiskComponentFactory(bulkLoadBTreeFactory,
-                    bloomFilterFactory, filterHelper);
+                    bloomFilterFactory, filterHelper, zoneMapHelper);
         } else {
-            componentFactory = new LSMBTreeDiskComponentFactory(diskBTreeFactory, filterHelper);
-            bulkLoadComponentFactory = new LSMBTreeDiskComponentFactory(bulkLoadBTreeFactory, filterHelper);
+            componentFactory = new LSMBTreeDiskComponentFactory(diskBTreeFactory, filterHelper, zoneMapHelper);
+            bulkLoadComponentFactory =
+                    new LSMBTreeDiskComponentFactory(bulkLoadBTreeFactory, filterHelper, zoneMapHelper);
         }
 
         return new LSMBTree(ioManager, virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory,
                 deleteLeafFrameFactory, diskBufferCache, fileNameManager, componentFactory, bulkLoadComponentFactory,
                 filterHelper, filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, typeTraits.length,
                 cmpFactories, mergePolicy, opTracker, ioScheduler, ioOpCallbackFactory, needKeyDupCheck, btreeFields,
-                filterFields, durable, updateAware, tracer);
+                filterFields, durable, updateAware, memoryComponentType, tracer);
     }
 
     public static ExternalBTree createExternalBTree(IIOManager ioManager, FileReference file,
@@ -235,4 +276,38 @@ public class LSMBTreeUtil {
                 bulkLoadComponentFactory, bloomFilterFalsePositiveRate, mergePolicy, opTracker, ioScheduler,
                 ioOpCallbackFactory, cmpFactories, buddyBtreeCmpFactories, buddyBTreeFields, durable, tracer);
     }
+
+    /**
+     * @param numKeyFields
+     *            the number of key fields of the BTree
+     * @param prefixLength
+     *            the number of leading key fields the bloom filters are built on or 0 for all of them
+     * @return the bloom filter key fields. Bloom filters that are built on a prefix of the key can skip components in
+     *         range searches on that prefix (see {@link #getBloomFilterPrefixLength(int[])}) at the cost of more false
+     *         positives for point searches on the full key.
+     */
+    public static int[] getBloomFilterKeyFields(int numKeyFields, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > numKeyFields) {
+            throw new IllegalArgumentException(
+                    "Invalid bloom filter prefix length " + prefixLength + " for " + numKeyFields + " key fields");
+        }
+        int[] bloomFilterKeyFields = new int[prefixLength == 0 ? numKeyFields : prefixLength];
+        for (int i = 0; i < bloomFilterKeyFields.length; i++) {
+            bloomFilterKeyFields[i] = i;
+        }
+        return bloomFilterKeyFields;
+    }
+
+    /**
+     * @return the number of leading key fields that the bloom filter key fields are, or 0 if they are not a prefix of
+     *         the key, in which case the bloom filters cannot be probed with the keys of range searches
+     */
+    public static int getBloomFilterPrefixLength(int[] bloomFilterKeyFields) {
+        for (int i = 0; i < bloomFilterKeyFields.length; i++) {
+            if (bloomFilterKeyFields[i] != i) {
+                return 0;
+            }
+        }
+        return bloomFilterKeyFields.length;
+    }
 }
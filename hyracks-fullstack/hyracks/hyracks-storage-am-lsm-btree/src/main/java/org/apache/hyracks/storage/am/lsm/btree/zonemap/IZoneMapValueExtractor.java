@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Extracts the values of the LSM component filter fields from the tuples that are stored in the BTree of an LSM
+ * index, which do not include the filter fields. The zone maps of the disk components are built from these values.
+ */
+public interface IZoneMapValueExtractor {
+    /**
+     * @param tuple
+     *            a tuple in the format of the BTree (not an antimatter tuple)
+     * @param values
+     *            one pointable per filter field, which is set to the value of the field in the format of the filter
+     * @return whether the tuple has a value for every filter field. A tuple without values (e.g., null or missing
+     *         values) may match any filter.
+     */
+    boolean extract(ITupleReference tuple, IPointable[] values) throws HyracksDataException;
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafPageFilter;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * The min/max LSM component filter tuples per zone of consecutive leaf pages of a disk component, i.e., a component
+ * filter per zone. A zone is identified by its first leaf page and also keeps the key of its first tuple, which makes
+ * the key ranges of the zones known. A zone is either empty (it only has antimatter tuples), unbounded (some of its
+ * tuples have no filter values) or bounded by a min and a max filter tuple. Zone maps are immutable and are stored in
+ * the metadata of their components as [number of zones (int)][number of key fields (short)][number of filter fields
+ * (short)] followed by [first page (int)][state (byte)][first key][min][max] per zone. Keys and filter tuples are
+ * stored as [field length (short)][field] per field and the min and the max only if the zone is bounded.
+ */
+public class ZoneMap {
+    public static final MutableArrayValueReference ZONE_MAP_KEY = new MutableArrayValueReference("ZoneMap".getBytes());
+    static final byte EMPTY = 0;
+    static final byte UNBOUNDED = 1;
+    static final byte BOUNDED = 2;
+
+    private final int[] firstPages;
+    private final byte[] states;
+    private final ITupleReference[] firstKeys;
+    private final ITupleReference[] mins;
+    private final ITupleReference[] maxs;
+
+    ZoneMap(int[] firstPages, byte[] states, ITupleReference[] firstKeys, ITupleReference[] mins,
+            ITupleReference[] maxs) {
+        this.firstPages = firstPages;
+        this.states = states;
+        this.firstKeys = firstKeys;
+        this.mins = mins;
+        this.maxs = maxs;
+    }
+
+    public int getNumberOfZones() {
+        return firstPages.length;
+    }
+
+    /**
+     * @return the key of the first tuple of the zone. The keys of the tuples of the zone are less than the first key
+     *         of the next zone.
+     */
+    public ITupleReference getFirstKey(int zone) {
+        return firstKeys[zone];
+    }
+
+    /**
+     * @param filterCmp
+     *            the comparator of the LSM component filter tuples
+     * @param minFilterTuple
+     *            the lower bound of the filter tuples of interest or {@code null} if there is none
+     * @param maxFilterTuple
+     *            the upper bound of the filter tuples of interest or {@code null} if there is none
+     * @return whether a tuple of the zone may have a filter tuple of interest
+     */
+    public boolean mayMatch(int zone, MultiComparator filterCmp, ITupleReference minFilterTuple,
+            ITupleReference maxFilterTuple) throws HyracksDataException {
+        if (states[zone] != BOUNDED) {
+            return states[zone] == UNBOUNDED;
+        }
+        if (maxFilterTuple != null && filterCmp.compare(maxFilterTuple, mins[zone]) < 0) {
+            return false;
+        }
+        return minFilterTuple == null || filterCmp.compare(minFilterTuple, maxs[zone]) <= 0;
+    }
+
+    /**
+     * @param skippedZones
+     *            whether the leaf pages of each zone are skipped
+     * @return the filter or {@code null} if no zone is skipped
+     */
+    public IBTreeLeafPageFilter createLeafPageFilter(boolean[] skippedZones) {
+        int numZones = firstPages.length;
+        // the first zone that is not skipped at or after each zone
+        int[] nextZones = new int[numZones];
+        int next = -1;
+        boolean skips = false;
+        for (int i = numZones - 1; i >= 0; i--) {
+            if (skippedZones[i]) {
+                skips = true;
+            } else {
+                next = i;
+            }
+            nextZones[i] = next;
+        }
+        if (!skips) {
+            return null;
+        }
+        return pageId -> {
+            int zone = Arrays.binarySearch(firstPages, pageId);
+            if (zone < 0) {
+                // the zone that contains the page
+                zone = -zone - 2;
+                if (zone < 0) {
+                    return pageId;
+                }
+            }
+            int nextZone = nextZones[zone];
+            if (nextZone == zone) {
+                return pageId;
+            }
+            return nextZone < 0 ? -1 : firstPages[nextZone];
+        };
+    }
+
+    public void write(IComponentMetadata metadata) throws HyracksDataException {
+        int size = Integer.BYTES + 2 * Short.BYTES;
+        for (int i = 0; i < firstPages.length; i++) {
+            size += getZoneSize(states[i], firstKeys[i], mins[i], maxs[i]);
+        }
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage(size);
+        value.setSize(size);
+        ByteBuffer buffer = ByteBuffer.wrap(value.getByteArray(), 0, size);
+        buffer.putInt(firstPages.length);
+        buffer.putShort((short) (firstPages.length > 0 ? firstKeys[0].getFieldCount() : 0));
+        buffer.putShort((short) getNumberOfFilterFields());
+        for (int i = 0; i < firstPages.length; i++) {
+            buffer.putInt(firstPages[i]);
+            buffer.put(states[i]);
+            writeTuple(buffer, firstKeys[i]);
+            if (states[i] == BOUNDED) {
+                writeTuple(buffer, mins[i]);
+                writeTuple(buffer, maxs[i]);
+            }
+        }
+        metadata.put(ZONE_MAP_KEY, value);
+    }
+
+    /**
+     * @return the zone map of a component or {@code null} if the component has none
+     */
+    public static ZoneMap read(IComponentMetadata metadata) throws HyracksDataException {
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        metadata.get(ZONE_MAP_KEY, value);
+        if (value.getLength() == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value.getByteArray(), value.getStartOffset(), value.getLength());
+        int numZones = buffer.getInt();
+        int numKeyFields = buffer.getShort();
+        int numFilterFields = buffer.getShort();
+        int[] firstPages = new int[numZones];
+        byte[] states = new byte[numZones];
+        ITupleReference[] firstKeys = new ITupleReference[numZones];
+        ITupleReference[] mins = new ITupleReference[numZones];
+        ITupleReference[] maxs = new ITupleReference[numZones];
+        for (int i = 0; i < numZones; i++) {
+            firstPages[i] = buffer.getInt();
+            states[i] = buffer.get();
+            firstKeys[i] = readTuple(buffer, numKeyFields);
+            if (states[i] == BOUNDED) {
+                mins[i] = readTuple(buffer, numFilterFields);
+                maxs[i] = readTuple(buffer, numFilterFields);
+            }
+        }
+        return new ZoneMap(firstPages, states, firstKeys, mins, maxs);
+    }
+
+    static int getZoneSize(byte state, ITupleReference firstKey, ITupleReference min, ITupleReference max) {
+        int size = Integer.BYTES + 1 + getTupleSize(firstKey);
+        return state == BOUNDED ? size + getTupleSize(min) + getTupleSize(max) : size;
+    }
+
+    static int getTupleSize(ITupleReference tuple) {
+        int size = 0;
+        for (int i = 0; i < tuple.getFieldCount(); i++) {
+            size += Short.BYTES + tuple.getFieldLength(i);
+        }
+        return size;
+    }
+
+    /**
+     * @return a copy of the first fields of a tuple that does not share any state with the tuple
+     */
+    static ITupleReference copy(ITupleReference tuple, int numFields) {
+        int[] fieldEndOffsets = new int[numFields];
+        int size = 0;
+        for (int i = 0; i < numFields; i++) {
+            size += tuple.getFieldLength(i);
+            fieldEndOffsets[i] = size;
+        }
+        byte[] data = new byte[size];
+        for (int i = 0; i < numFields; i++) {
+            System.arraycopy(tuple.getFieldData(i), tuple.getFieldStart(i), data,
+                    fieldEndOffsets[i] - tuple.getFieldLength(i), tuple.getFieldLength(i));
+        }
+        ArrayTupleReference copy = new ArrayTupleReference();
+        copy.reset(fieldEndOffsets, data);
+        return copy;
+    }
+
+    private int getNumberOfFilterFields() {
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == BOUNDED) {
+                return mins[i].getFieldCount();
+            }
+        }
+        return 0;
+    }
+
+    private static void writeTuple(ByteBuffer buffer, ITupleReference tuple) {
+        for (int i = 0; i < tuple.getFieldCount(); i++) {
+            buffer.putShort((short) tuple.getFieldLength(i));
+            buffer.put(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+        }
+    }
+
+    private static ITupleReference readTuple(ByteBuffer buffer, int numFields) {
+        int[] fieldEndOffsets = new int[numFields];
+        int start = buffer.position();
+        int size = 0;
+        for (int i = 0; i < numFields; i++) {
+            int length = buffer.getShort();
+            buffer.position(buffer.position() + length);
+            size += length;
+            fieldEndOffsets[i] = size;
+        }
+        byte[] data = new byte[size];
+        buffer.position(start);
+        for (int i = 0; i < numFields; i++) {
+            int fieldStart = i > 0 ? fieldEndOffsets[i - 1] : 0;
+            buffer.getShort();
+            buffer.get(data, fieldStart, fieldEndOffsets[i] - fieldStart);
+        }
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        tuple.reset(fieldEndOffsets, data);
+        return tuple;
+    }
+}
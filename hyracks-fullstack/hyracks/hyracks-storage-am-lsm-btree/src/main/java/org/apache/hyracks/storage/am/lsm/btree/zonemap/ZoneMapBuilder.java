@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Collects the min/max filter tuples of the leaf pages of a disk component in the order in which the pages are
+ * written. A zone starts with one page and the zones are merged pairwise (doubling the number of pages per zone)
+ * whenever the serialized zone map would exceed its size limit. No zone map is built if the leaf pages are not
+ * written in the order of their ids or if a key or a filter tuple takes more than an eighth of the size limit.
+ */
+class ZoneMapBuilder {
+    private final IZoneMapValueExtractor extractor;
+    private final MultiComparator filterCmp;
+    private final int numKeyFields;
+    private final int maxSize;
+    private final IPointable[] values;
+    private final ArrayTupleBuilder valuesBuilder;
+    private final ArrayTupleReference valuesTuple = new ArrayTupleReference();
+    private final ArrayTupleBuilder pageMinBuilder;
+    private final ArrayTupleReference pageMin = new ArrayTupleReference();
+    private final ArrayTupleBuilder pageMaxBuilder;
+    private final ArrayTupleReference pageMax = new ArrayTupleReference();
+    private ITupleReference pageFirstKey;
+    private byte pageState = ZoneMap.EMPTY;
+    private int[] firstPages = new int[16];
+    private byte[] states = new byte[16];
+    private ITupleReference[] firstKeys = new ITupleReference[16];
+    private ITupleReference[] mins = new ITupleReference[16];
+    private ITupleReference[] maxs = new ITupleReference[16];
+    private int numZones = 0;
+    private int pagesPerZone = 1;
+    private int pagesInLastZone = 0;
+    private int size = Integer.BYTES + 2 * Short.BYTES;
+    private boolean failed = false;
+
+    ZoneMapBuilder(IZoneMapValueExtractor extractor, MultiComparator filterCmp, int numKeyFields, int maxSize) {
+        this.extractor = extractor;
+        this.filterCmp = filterCmp;
+        this.numKeyFields = numKeyFields;
+        this.maxSize = maxSize;
+        int numFilterFields = filterCmp.getKeyFieldCount();
+        values = new IPointable[numFilterFields];
+        for (int i = 0; i < numFilterFields; i++) {
+            values[i] = new VoidPointable();
+        }
+        valuesBuilder = new ArrayTupleBuilder(numFilterFields);
+        pageMinBuilder = new ArrayTupleBuilder(numFilterFields);
+        pageMaxBuilder = new ArrayTupleBuilder(numFilterFields);
+    }
+
+    /**
+     * Add a tuple to the leaf page that is being written
+     *
+     * @param antimatter
+     *            whether the tuple is an antimatter tuple, which does not have filter values
+     */
+    void add(ITupleReference tuple, boolean antimatter) throws HyracksDataException {
+        if (failed) {
+            return;
+        }
+        if (pageFirstKey == null) {
+            pageFirstKey = ZoneMap.copy(tuple, numKeyFields);
+        }
+        if (antimatter || pageState == ZoneMap.UNBOUNDED) {
+            return;
+        }
+        if (!extractor.extract(tuple, values)) {
+            pageState = ZoneMap.UNBOUNDED;
+            return;
+        }
+        valuesBuilder.reset();
+        for (IPointable value : values) {
+            valuesBuilder.addField(value);
+        }
+        valuesTuple.reset(valuesBuilder.getFieldEndOffsets(), valuesBuilder.getByteArray());
+        if (pageState == ZoneMap.EMPTY) {
+            set(pageMinBuilder, pageMin);
+            set(pageMaxBuilder, pageMax);
+            pageState = ZoneMap.BOUNDED;
+        } else if (filterCmp.compare(valuesTuple, pageMin) < 0) {
+            set(pageMinBuilder, pageMin);
+        } else if (filterCmp.compare(valuesTuple, pageMax) > 0) {
+            set(pageMaxBuilder, pageMax);
+        }
+    }
+
+    /**
+     * Completes the leaf page to which the tuples were added since the last page was completed
+     */
+    void pageCompleted(int pageId) throws HyracksDataException {
+        if (failed || pageFirstKey == null) {
+            return;
+        }
+        ITupleReference firstKey = pageFirstKey;
+        byte state = pageState;
+        ITupleReference min = state == ZoneMap.BOUNDED ? ZoneMap.copy(pageMin, pageMin.getFieldCount()) : null;
+        ITupleReference max = state == ZoneMap.BOUNDED ? ZoneMap.copy(pageMax, pageMax.getFieldCount()) : null;
+        pageFirstKey = null;
+        pageState = ZoneMap.EMPTY;
+        if (numZones > 0 && pageId <= firstPages[numZones - 1] || ZoneMap.getTupleSize(firstKey) > maxSize / 8
+                || state == ZoneMap.BOUNDED && ZoneMap.getTupleSize(min) + ZoneMap.getTupleSize(max) > maxSize / 4) {
+            failed = true;
+            return;
+        }
+        if (numZones > 0 && pagesInLastZone < pagesPerZone) {
+            int last = numZones - 1;
+            size -= ZoneMap.getZoneSize(states[last], firstKeys[last], mins[last], maxs[last]);
+            union(last, state, min, max);
+            size += ZoneMap.getZoneSize(states[last], firstKeys[last], mins[last], maxs[last]);
+            pagesInLastZone++;
+        } else {
+            if (numZones == firstPages.length) {
+                firstPages = Arrays.copyOf(firstPages, numZones * 2);
+                states = Arrays.copyOf(states, numZones * 2);
+                firstKeys = Arrays.copyOf(firstKeys, numZones * 2);
+                mins = Arrays.copyOf(mins, numZones * 2);
+                maxs = Arrays.copyOf(maxs, numZones * 2);
+            }
+            firstPages[numZones] = pageId;
+            states[numZones] = state;
+            firstKeys[numZones] = firstKey;
+            mins[numZones] = min;
+            maxs[numZones] = max;
+            numZones++;
+            pagesInLastZone = 1;
+            size += ZoneMap.getZoneSize(state, firstKey, min, max);
+        }
+        while (size > maxSize && numZones > 1) {
+            coarsen();
+        }
+    }
+
+    /**
+     * @return the zone map of the completed pages or {@code null} if no zone map could be built
+     */
+    ZoneMap build() {
+        if (failed) {
+            return null;
+        }
+        return new ZoneMap(Arrays.copyOf(firstPages, numZones), Arrays.copyOf(states, numZones),
+                Arrays.copyOf(firstKeys, numZones), Arrays.copyOf(mins, numZones), Arrays.copyOf(maxs, numZones));
+    }
+
+    private void coarsen() throws HyracksDataException {
+        int newNumZones = 0;
+        size = Integer.BYTES + 2 * Short.BYTES;
+        for (int i = 0; i < numZones; i += 2) {
+            firstPages[newNumZones] = firstPages[i];
+            states[newNumZones] = states[i];
+            firstKeys[newNumZones] = firstKeys[i];
+            mins[newNumZones] = mins[i];
+            maxs[newNumZones] = maxs[i];
+            if (i + 1 < numZones) {
+                union(newNumZones, states[i + 1], mins[i + 1], maxs[i + 1]);
+            }
+            size += ZoneMap.getZoneSize(states[newNumZones], firstKeys[newNumZones], mins[newNumZones],
+                    maxs[newNumZones]);
+            newNumZones++;
+        }
+        if (numZones % 2 == 0) {
+            // the last zone absorbed a full zone
+            pagesInLastZone += pagesPerZone;
+        }
+        Arrays.fill(firstKeys, newNumZones, numZones, null);
+        Arrays.fill(mins, newNumZones, numZones, null);
+        Arrays.fill(maxs, newNumZones, numZones, null);
+        numZones = newNumZones;
+        pagesPerZone *= 2;
+    }
+
+    private void union(int zone, byte state, ITupleReference min, ITupleReference max) throws HyracksDataException {
+        if (state == ZoneMap.EMPTY || states[zone] == ZoneMap.UNBOUNDED) {
+            return;
+        }
+        if (state == ZoneMap.UNBOUNDED || states[zone] == ZoneMap.EMPTY) {
+            states[zone] = state;
+            mins[zone] = min;
+            maxs[zone] = max;
+            return;
+        }
+        if (filterCmp.compare(min, mins[zone]) < 0) {
+            mins[zone] = min;
+        }
+        if (filterCmp.compare(max, maxs[zone]) > 0) {
+            maxs[zone] = max;
+        }
+    }
+
+    private void set(ArrayTupleBuilder builder, ArrayTupleReference tuple) throws HyracksDataException {
+        builder.reset();
+        for (int i = 0; i < valuesTuple.getFieldCount(); i++) {
+            builder.addField(valuesTuple.getFieldData(i), valuesTuple.getFieldStart(i), valuesTuple.getFieldLength(i));
+        }
+        tuple.reset(builder.getFieldEndOffsets(), builder.getByteArray());
+    }
+}
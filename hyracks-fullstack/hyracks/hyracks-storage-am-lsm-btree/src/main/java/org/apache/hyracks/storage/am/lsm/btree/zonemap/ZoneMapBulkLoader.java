@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import java.util.function.Consumer;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeBulkLoader;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexBulkLoader;
+
+/**
+ * Bulk loads the BTree of a disk component and builds the zone map of the component from the tuples of its leaf
+ * pages. The zone map is written to the metadata of the component when the bulk load ends.
+ */
+class ZoneMapBulkLoader extends LSMIndexBulkLoader {
+    private final ZoneMapBuilder zoneMapBuilder;
+    private final IComponentMetadata metadata;
+    private final Consumer<ZoneMap> zoneMapConsumer;
+
+    /**
+     * @param zoneMapConsumer
+     *            receives the zone map once it is written
+     */
+    ZoneMapBulkLoader(BTreeBulkLoader bulkLoader, ZoneMapBuilder zoneMapBuilder, IComponentMetadata metadata,
+            Consumer<ZoneMap> zoneMapConsumer) {
+        super(bulkLoader);
+        this.zoneMapBuilder = zoneMapBuilder;
+        this.metadata = metadata;
+        this.zoneMapConsumer = zoneMapConsumer;
+        bulkLoader.setLeafPageListener(zoneMapBuilder::pageCompleted);
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        super.add(tuple);
+        zoneMapBuilder.add(tuple,
+                tuple instanceof ILSMTreeTupleReference && ((ILSMTreeTupleReference) tuple).isAntimatter());
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        super.delete(tuple);
+        zoneMapBuilder.add(tuple, true);
+        return tuple;
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        super.end();
+        ZoneMap zoneMap = zoneMapBuilder.build();
+        if (zoneMap != null) {
+            zoneMap.write(metadata);
+        }
+        zoneMapConsumer.accept(zoneMap);
+    }
+
+    @Override
+    public IRangePartitionedBulkLoader getRangePartitionedBulkLoader() {
+        // the zones are built from the leaf pages in key order
+        return null;
+    }
+}
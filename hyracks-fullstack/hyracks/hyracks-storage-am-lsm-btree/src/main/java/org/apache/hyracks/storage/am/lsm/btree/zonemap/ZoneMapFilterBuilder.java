@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafPageFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Creates the leaf page filters of the disk components of a search with LSM component filter bounds. The components
+ * are added from the oldest to the newest. The pages of a zone that cannot match may still hide older versions of
+ * their tuples that do match. A zone is therefore only skipped if its key range does not overlap the key range of a
+ * zone of an older component that may match.
+ */
+public class ZoneMapFilterBuilder {
+    // the sorted and disjoint key ranges [lows[i], highs[i]) of the zones of the added components that may match. a
+    // null high is unbounded.
+    private List<ITupleReference> lows = new ArrayList<>();
+    private List<ITupleReference> highs = new ArrayList<>();
+    private List<ITupleReference> mergedLows = new ArrayList<>();
+    private List<ITupleReference> mergedHighs = new ArrayList<>();
+    private final List<ITupleReference> matchingLows = new ArrayList<>();
+    private final List<ITupleReference> matchingHighs = new ArrayList<>();
+    private MultiComparator keyCmp;
+    private MultiComparator filterCmp;
+    private ITupleReference minFilterTuple;
+    private ITupleReference maxFilterTuple;
+    // whether an added component may match anywhere
+    private boolean blocksAll;
+
+    /**
+     * @param keyCmp
+     *            the comparator of the keys of the index
+     * @param filterCmp
+     *            the comparator of the LSM component filter tuples
+     * @param minFilterTuple
+     *            the lower bound of the filter tuples of interest or {@code null} if there is none
+     * @param maxFilterTuple
+     *            the upper bound of the filter tuples of interest or {@code null} if there is none
+     */
+    public void reset(MultiComparator keyCmp, MultiComparator filterCmp, ITupleReference minFilterTuple,
+            ITupleReference maxFilterTuple) {
+        this.keyCmp = keyCmp;
+        this.filterCmp = filterCmp;
+        this.minFilterTuple = minFilterTuple;
+        this.maxFilterTuple = maxFilterTuple;
+        lows.clear();
+        highs.clear();
+        blocksAll = filterCmp == null || minFilterTuple == null && maxFilterTuple == null;
+    }
+
+    /**
+     * Add the next older disk component of the search
+     *
+     * @return the filter of the leaf pages of the component or {@code null} if no page can be skipped
+     */
+    public IBTreeLeafPageFilter add(ILSMComponent component) throws HyracksDataException {
+        if (blocksAll) {
+            return null;
+        }
+        ZoneMap zoneMap =
+                component instanceof IZoneMappedComponent ? ((IZoneMappedComponent) component).getZoneMap() : null;
+        if (zoneMap == null) {
+            blocksAll = true;
+            return null;
+        }
+        int numZones = zoneMap.getNumberOfZones();
+        boolean[] skippedZones = new boolean[numZones];
+        matchingLows.clear();
+        matchingHighs.clear();
+        for (int i = 0; i < numZones; i++) {
+            ITupleReference low = zoneMap.getFirstKey(i);
+            ITupleReference high = i + 1 < numZones ? zoneMap.getFirstKey(i + 1) : null;
+            if (!zoneMap.mayMatch(i, filterCmp, minFilterTuple, maxFilterTuple)) {
+                skippedZones[i] = !overlaps(low, high);
+            } else if (!matchingHighs.isEmpty() && matchingHighs.get(matchingHighs.size() - 1) == low) {
+                // extend the range of the previous zone
+                matchingHighs.set(matchingHighs.size() - 1, high);
+            } else {
+                matchingLows.add(low);
+                matchingHighs.add(high);
+            }
+        }
+        addMatchingRanges();
+        return zoneMap.createLeafPageFilter(skippedZones);
+    }
+
+    /**
+     * @return whether the key range [low, high) overlaps a range of a zone of an added component that may match
+     */
+    private boolean overlaps(ITupleReference low, ITupleReference high) throws HyracksDataException {
+        // the first range that ends after low
+        int begin = 0;
+        int end = highs.size();
+        while (begin < end) {
+            int mid = (begin + end) >>> 1;
+            if (highs.get(mid) == null || keyCmp.compare(highs.get(mid), low) > 0) {
+                end = mid;
+            } else {
+                begin = mid + 1;
+            }
+        }
+        return begin < highs.size() && (high == null || keyCmp.compare(lows.get(begin), high) < 0);
+    }
+
+    private void addMatchingRanges() throws HyracksDataException {
+        if (matchingLows.isEmpty()) {
+            return;
+        }
+        mergedLows.clear();
+        mergedHighs.clear();
+        int i = 0;
+        int j = 0;
+        while (i < lows.size() || j < matchingLows.size()) {
+            boolean fromOlder = j == matchingLows.size()
+                    || i < lows.size() && keyCmp.compare(lows.get(i), matchingLows.get(j)) <= 0;
+            ITupleReference low = fromOlder ? lows.get(i) : matchingLows.get(j);
+            ITupleReference high = fromOlder ? highs.get(i++) : matchingHighs.get(j++);
+            int last = mergedHighs.size() - 1;
+            if (last >= 0 && (mergedHighs.get(last) == null || keyCmp.compare(low, mergedHighs.get(last)) <= 0)) {
+                // the range overlaps or touches the previous one
+                if (mergedHighs.get(last) != null
+                        && (high == null || keyCmp.compare(high, mergedHighs.get(last)) > 0)) {
+                    mergedHighs.set(last, high);
+                }
+            } else {
+                mergedLows.add(low);
+                mergedHighs.add(high);
+            }
+        }
+        List<ITupleReference> swap = lows;
+        lows = mergedLows;
+        mergedLows = swap;
+        swap = highs;
+        highs = mergedHighs;
+        mergedHighs = swap;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.zonemap;
+
+import java.util.function.Consumer;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.impls.IChainedComponentBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * Creates the bulk loaders that build the zone maps of the disk components of an LSM BTree with an LSM component
+ * filter
+ */
+public class ZoneMapHelper {
+    private final IZoneMapValueExtractorFactory extractorFactory;
+    private final IBinaryComparatorFactory[] filterCmpFactories;
+    private final int numKeyFields;
+
+    public ZoneMapHelper(IZoneMapValueExtractorFactory extractorFactory, IBinaryComparatorFactory[] filterCmpFactories,
+            int numKeyFields) {
+        this.extractorFactory = extractorFactory;
+        this.filterCmpFactories = filterCmpFactories;
+        this.numKeyFields = numKeyFields;
+    }
+
+    /**
+     * @param bulkLoader
+     *            the bulk loader of the BTree of a disk component
+     * @param zoneMapConsumer
+     *            receives the zone map of the component once it is written or {@code null} if none could be built
+     */
+    public IChainedComponentBulkLoader createIndexBulkLoader(IIndexBulkLoader bulkLoader, int pageSize,
+            IComponentMetadata metadata, Consumer<ZoneMap> zoneMapConsumer) {
+        if (!(bulkLoader instanceof BTreeBulkLoader)) {
+            return new LSMIndexBulkLoader(bulkLoader);
+        }
+        // leave most of the metadata page to the other metadata of the component
+        ZoneMapBuilder zoneMapBuilder = new ZoneMapBuilder(extractorFactory.createExtractor(),
+                MultiComparator.create(filterCmpFactories), numKeyFields, pageSize / 4);
+        return new ZoneMapBulkLoader((BTreeBulkLoader) bulkLoader, zoneMapBuilder, metadata, zoneMapConsumer);
+    }
+}
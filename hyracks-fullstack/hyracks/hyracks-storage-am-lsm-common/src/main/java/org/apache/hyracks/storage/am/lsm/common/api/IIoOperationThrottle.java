@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Paces the writes of an IO operation. It is set on the operation by the IO scheduler.
+ */
+@FunctionalInterface
+public interface IIoOperationThrottle {
+    /**
+     * Called before the operation writes the given number of bytes to its new component. It blocks while the
+     * operation is throttled.
+     *
+     * @param bytes
+     *            the number of bytes to be written
+     * @throws HyracksDataException
+     *             if the operation is interrupted while being throttled
+     */
+    void beforeWrite(long bytes) throws HyracksDataException;
+
+    /**
+     * Called once the operation has written and forced its new component, whether it succeeded or not, before its
+     * completion is processed.
+     */
+    default void writesCompleted() {
+        // no op
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the parts of an IO operation that can be processed concurrently, such as the key ranges of a flush. It is set
+ * on the operation by the IO scheduler.
+ */
+public interface IIoOperationWorkers {
+    /**
+     * @return the maximum number of parts an operation is split into
+     */
+    int getParallelism();
+
+    /**
+     * Runs a part of an operation on a worker thread
+     *
+     * @param part
+     *            the part of the operation
+     * @return the future result of the part
+     */
+    <T> Future<T> submit(Callable<T> part);
+}
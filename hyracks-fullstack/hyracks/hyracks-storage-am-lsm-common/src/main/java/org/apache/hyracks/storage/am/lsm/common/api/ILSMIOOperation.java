@@ -153,4 +153,46 @@ public interface ILSMIOOperation extends Callable<LSMIOOperationStatus>, IPageWr
      * Get parameters passed when calling this IO operation
      */
     Map<String, Object> getParameters();
+
+    /**
+     * @return the throttle that paces the writes of the operation, null if the operation is not throttled
+     */
+    IIoOperationThrottle getThrottle();
+
+    /**
+     * Set the throttle that paces the writes of the operation
+     *
+     * @param throttle
+     */
+    void setThrottle(IIoOperationThrottle throttle);
+
+    /**
+     * @return the workers that run the parts of the operation concurrently, null if the operation runs on a single
+     *         thread
+     */
+    IIoOperationWorkers getWorkers();
+
+    /**
+     * Set the workers that run the parts of the operation concurrently
+     *
+     * @param workers
+     */
+    void setWorkers(IIoOperationWorkers workers);
+
+    /**
+     * @return the progress of the operation, which is only reported by the operations that are split into key ranges
+     */
+    IoOperationProgress getProgress();
+
+    /**
+     * Cancel the operation. A canceled merge fails at its next tuple and leaves the merging components in place, the
+     * other operations cannot be canceled. A merge that is split into key ranges may keep the ranges it completed so
+     * that the next merge of the same components resumes after them.
+     */
+    void cancel();
+
+    /**
+     * @return true if the operation was canceled
+     */
+    boolean isCanceled();
 }
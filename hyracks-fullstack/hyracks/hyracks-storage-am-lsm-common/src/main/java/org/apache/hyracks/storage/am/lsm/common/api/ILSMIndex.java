@@ -104,8 +104,26 @@ public interface ILSMIndex extends IIndex {
 
     ILSMDiskComponent merge(ILSMIOOperation operation) throws HyracksDataException;
 
+    /**
+     * @return the size of the disk components written by the flushes of the index since it was instantiated. Together
+     *         with {@link #getMergedBytes()}, it gives the write amplification of the merges. Bulk loads are not
+     *         counted.
+     */
+    long getFlushedBytes();
+
+    /**
+     * @return the size of the disk components written by the merges of the index since it was instantiated
+     */
+    long getMergedBytes();
+
     void addDiskComponent(ILSMDiskComponent index) throws HyracksDataException;
 
+    /**
+     * Adds the disk component of a flush, which unlike a bulk loaded component counts towards
+     * {@link #getFlushedBytes()}
+     */
+    void addFlushedComponent(ILSMDiskComponent component) throws HyracksDataException;
+
     void subsumeMergedComponents(ILSMDiskComponent newComponent, List<ILSMComponent> mergedComponents)
             throws HyracksDataException;
 
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of an IO operation whose key ranges are processed concurrently. It is updated by the threads that
+ * process the ranges and can be read while the operation runs.
+ */
+public class IoOperationProgress {
+    private final AtomicInteger numCompletedRanges = new AtomicInteger();
+    private final AtomicLong numTuples = new AtomicLong();
+    private volatile int numRanges = 1;
+
+    /**
+     * @return the number of key ranges the operation is split into
+     */
+    public int getNumRanges() {
+        return numRanges;
+    }
+
+    /**
+     * @return the number of key ranges that are completely processed
+     */
+    public int getNumCompletedRanges() {
+        return numCompletedRanges.get();
+    }
+
+    /**
+     * @return the number of tuples written so far by the operation
+     */
+    public long getNumTuples() {
+        return numTuples.get();
+    }
+
+    public void setNumRanges(int numRanges) {
+        this.numRanges = numRanges;
+    }
+
+    public void rangeCompleted() {
+        numCompletedRanges.incrementAndGet();
+    }
+
+    public void tuplesWritten(long count) {
+        numTuples.addAndGet(count);
+    }
+
+    @Override
+    public String toString() {
+        return "{\"ranges\": " + numRanges + ", \"completedRanges\": " + numCompletedRanges.get() + ", \"tuples\": "
+                + numTuples.get() + "}";
+    }
+}
@@ -26,11 +26,14 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.api.util.ExceptionUtils;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
+import org.apache.hyracks.storage.am.lsm.common.api.IoOperationProgress;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 
@@ -45,6 +48,10 @@ public abstract class AbstractIoOperation implements ILSMIOOperation {
     private ILSMDiskComponent newComponent;
     private boolean completed = false;
     private List<IoOperationCompleteListener> completeListeners;
+    private volatile IIoOperationThrottle throttle;
+    private volatile IIoOperationWorkers workers;
+    private volatile boolean canceled = false;
+    private final IoOperationProgress progress = new IoOperationProgress();
 
     public AbstractIoOperation(ILSMIndexAccessor accessor, FileReference target, ILSMIOOperationCallback callback,
             String indexIdentifier) {
@@ -159,6 +166,41 @@ public abstract class AbstractIoOperation implements ILSMIOOperation {
         return accessor.getOpContext().getParameters();
     }
 
+    @Override
+    public IIoOperationThrottle getThrottle() {
+        return throttle;
+    }
+
+    @Override
+    public void setThrottle(IIoOperationThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    @Override
+    public IIoOperationWorkers getWorkers() {
+        return workers;
+    }
+
+    @Override
+    public void setWorkers(IIoOperationWorkers workers) {
+        this.workers = workers;
+    }
+
+    @Override
+    public IoOperationProgress getProgress() {
+        return progress;
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
     @Override
     public synchronized void addCompleteListener(IoOperationCompleteListener listener) {
         if (completed) {
@@ -31,6 +31,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.ErrorCode;
@@ -108,6 +109,9 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
     // Factory for creating on-disk index components during bulkload.
     protected final ILSMDiskComponentFactory bulkLoadComponentFactory;
     private int numScheduledFlushes = 0;
+    // the sizes of the flushed (or bulk loaded) and merged components that were added since the index was instantiated
+    private final AtomicLong flushedBytes = new AtomicLong();
+    private final AtomicLong mergedBytes = new AtomicLong();
 
     public AbstractLSMIndex(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
             IBufferCache diskBufferCache, ILSMIndexFileManager fileManager, double bloomFilterFalsePositiveRate,
@@ -582,6 +586,14 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         validateComponentIds();
     }
 
+    @Override
+    public void addFlushedComponent(ILSMDiskComponent c) throws HyracksDataException {
+        addDiskComponent(c);
+        if (c != EmptyComponent.INSTANCE) {
+            flushedBytes.addAndGet(c.getComponentSize());
+        }
+    }
+
     @Override
     public void subsumeMergedComponents(ILSMDiskComponent newComponent, List<ILSMComponent> mergedComponents)
             throws HyracksDataException {
@@ -589,6 +601,7 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         diskComponents.removeAll(mergedComponents);
         if (newComponent != EmptyComponent.INSTANCE) {
             diskComponents.add(swapIndex, newComponent);
+            mergedBytes.addAndGet(newComponent.getComponentSize());
         }
         validateComponentIds();
     }
@@ -859,6 +872,16 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return opCtx.getOperation() == IndexOperation.DELETE_COMPONENTS ? EmptyComponent.INSTANCE : doMerge(operation);
     }
 
+    @Override
+    public long getFlushedBytes() {
+        return flushedBytes.get();
+    }
+
+    @Override
+    public long getMergedBytes() {
+        return mergedBytes.get();
+    }
+
     @Override
     public String getIndexIdentifier() {
         return fileManager.getBaseDir().getAbsolutePath();
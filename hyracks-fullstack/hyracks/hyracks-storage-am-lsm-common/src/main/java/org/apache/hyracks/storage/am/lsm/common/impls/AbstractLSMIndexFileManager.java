@@ -21,6 +21,8 @@ package org.apache.hyracks.storage.am.lsm.common.impls;
 
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -83,6 +85,15 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
      * Hides transaction components until they are either committed by removing this file or deleted along with the file
      */
     public static final String TXN_PREFIX = ".T";
+    /**
+     * Hides the checkpoint of a merge whose key ranges are written concurrently. It records the part of the file of
+     * the merged tree that is durable so that the merge can resume after it was interrupted.
+     */
+    public static final String MERGE_CHECKPOINT_PREFIX = ".M";
+    /**
+     * Hides the file of the merged tree of an interrupted merge until the merge resumes from its checkpoint
+     */
+    public static final String PARTIAL_MERGE_PREFIX = ".P";
 
     public static final FilenameFilter COMPONENT_FILES_FILTER = (dir, name) -> !name.startsWith(".");
     protected static final FilenameFilter txnFileNameFilter = (dir, name) -> name.startsWith(TXN_PREFIX);
@@ -153,15 +164,55 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
                 allFiles.add(IndexComponentFileReference.of(fileRef));
                 continue;
             }
-            TreeIndexState idxState = isValidTreeIndex(treeFactory.createIndexInstance(fileRef));
+            ITreeIndex treeIndex = treeFactory.createIndexInstance(fileRef);
+            TreeIndexState idxState = isValidTreeIndex(treeIndex);
             if (idxState == TreeIndexState.VALID) {
                 allFiles.add(IndexComponentFileReference.of(fileRef));
             } else if (idxState == TreeIndexState.INVALID) {
-                bufferCache.deleteFile(fileRef);
+                if (baseDir.getChild(MERGE_CHECKPOINT_PREFIX + fileName).getFile().exists()
+                        && !baseDir.getChild(PARTIAL_MERGE_PREFIX + fileName).getFile().exists()) {
+                    // the merge that was writing the tree can resume from its checkpoint. if the file of an earlier
+                    // attempt is still there, the tree may be missing some of the leaves it recorded
+                    treeIndex.purge();
+                    moveFile(fileRef, baseDir.getChild(PARTIAL_MERGE_PREFIX + fileName));
+                } else {
+                    bufferCache.deleteFile(fileRef);
+                }
             }
         }
     }
 
+    /**
+     * Deletes the checkpoints and the partially written files of the interrupted merges that can no longer resume
+     * because a merge of some of their components starts
+     *
+     * @param mergeTarget
+     *            the file of the merged tree of the merge that starts, whose own checkpoint is kept
+     */
+    public void deleteObsoleteMergeCheckpoints(FileReference mergeTarget) throws HyracksDataException {
+        String targetName = mergeTarget.getFile().getName();
+        IndexComponentFileReference target = IndexComponentFileReference.of(targetName);
+        String[] files = listDirFiles(baseDir,
+                (dir, name) -> name.startsWith(MERGE_CHECKPOINT_PREFIX) || name.startsWith(PARTIAL_MERGE_PREFIX));
+        for (String fileName : files) {
+            // both prefixes have the same length
+            String componentFileName = fileName.substring(MERGE_CHECKPOINT_PREFIX.length());
+            IndexComponentFileReference component = IndexComponentFileReference.of(componentFileName);
+            boolean overlaps = !component.isMoreRecentThan(target) && !target.isMoreRecentThan(component);
+            if (overlaps && !componentFileName.equals(targetName)) {
+                IoUtil.delete(baseDir.getChild(fileName));
+            }
+        }
+    }
+
+    private static void moveFile(FileReference source, FileReference target) throws HyracksDataException {
+        try {
+            Files.move(source.getFile().toPath(), target.getFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     static String[] listDirFiles(FileReference dir, FilenameFilter filter) throws HyracksDataException {
         /*
          * Returns null if this abstract pathname does not denote a directory, or if an I/O error occurs.
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+
+/**
+ * A merge policy that picks the components to merge by comparing the sizes of neighboring components. At most one
+ * merge is scheduled at a time and components that are larger than the max mergable component size are never merged.
+ * Merges are only scheduled when a disk component is added. The merge is lagging when a merge is ongoing and the
+ * components that are not being merged already call for another merge. Without an ongoing merge (e.g., after a
+ * restart), the merge is not lagging since the flush that waits would otherwise never add the component that
+ * schedules the next merge.
+ */
+public abstract class AbstractSizeRatioMergePolicy implements ILSMMergePolicy {
+    public static final String FANOUT = "fanout";
+    public static final String MAX_MERGABLE_SIZE = "max-mergable-component-size";
+
+    protected int fanout;
+    protected long maxMergableComponentSize;
+
+    @Override
+    public void diskComponentAdded(ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException {
+        List<ILSMDiskComponent> immutableComponents = new ArrayList<>(index.getDiskComponents());
+        if (!areComponentsReadableWritableState(immutableComponents)) {
+            return;
+        }
+        if (fullMergeIsRequested) {
+            index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleFullMerge();
+            return;
+        }
+        List<ILSMDiskComponent> mergableComponents = getMergableComponents(immutableComponents);
+        if (mergableComponents != null) {
+            index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleMerge(new ArrayList<>(mergableComponents));
+        }
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        fanout = Integer.parseInt(properties.get(FANOUT));
+        maxMergableComponentSize = Long.parseLong(properties.get(MAX_MERGABLE_SIZE));
+        if (fanout < 2) {
+            throw new IllegalArgumentException("The " + FANOUT + " of a merge policy must be at least 2");
+        }
+    }
+
+    @Override
+    public boolean isMergeLagging(ILSMIndex index) {
+        List<ILSMDiskComponent> immutableComponents = new ArrayList<>(index.getDiskComponents());
+        // the ongoing merge cannot keep up
+        return isMergeOngoing(immutableComponents) && getMergableComponents(immutableComponents) != null;
+    }
+
+    /**
+     * @param immutableComponents
+     *            the disk components of the index ordered from the newest to the oldest one
+     * @return the consecutive components (ordered from the newest to the oldest one) that should be merged next, or
+     *         null if no merge is needed
+     */
+    protected abstract List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents);
+
+    protected boolean isMergable(ILSMDiskComponent component) {
+        return component.getState() == ComponentState.READABLE_UNWRITABLE
+                && component.getComponentSize() <= maxMergableComponentSize;
+    }
+
+    private static boolean isMergeOngoing(List<ILSMDiskComponent> immutableComponents) {
+        for (ILSMDiskComponent c : immutableComponents) {
+            if (c.getState() == ComponentState.READABLE_MERGING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean areComponentsReadableWritableState(List<ILSMDiskComponent> immutableComponents) {
+        for (ILSMDiskComponent c : immutableComponents) {
+            if (c.getState() != ComponentState.READABLE_UNWRITABLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
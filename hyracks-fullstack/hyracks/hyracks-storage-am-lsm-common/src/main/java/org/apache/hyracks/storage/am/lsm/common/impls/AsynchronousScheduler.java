@@ -37,13 +37,44 @@ public class AsynchronousScheduler implements ILSMIOOperationScheduler, Closeabl
     // will be executed serially in same order of scheduling the operations. Look at asterix issue 630.
 
     private final ExecutorService executor;
+    private final IoOperationWorkers flushWorkers;
+    private final IoOperationWorkers mergeWorkers;
     private final Map<String, ILSMIOOperation> runningFlushOperations = new HashMap<>();
     private final Map<String, Deque<ILSMIOOperation>> waitingFlushOperations = new HashMap<>();
     private final Map<String, Throwable> failedGroups = new HashMap<>();
 
     public AsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback) {
+        this(threadFactory, callback, 1, 1);
+    }
+
+    /**
+     * @param flushParallelism
+     *            the maximum number of threads a flush runs on
+     * @param mergeParallelism
+     *            the maximum number of threads a merge runs on
+     */
+    public AsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback,
+            int flushParallelism, int mergeParallelism) {
+        this(threadFactory, callback, flushParallelism, mergeParallelism, 1);
+    }
+
+    /**
+     * @param flushParallelism
+     *            the maximum number of threads a flush runs on
+     * @param mergeParallelism
+     *            the maximum number of threads a merge runs on
+     * @param numIoDevices
+     *            the number of IO devices. the flushes and the merges can each keep that many operations split over
+     *            their parallelism
+     */
+    public AsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback,
+            int flushParallelism, int mergeParallelism, int numIoDevices) {
         executor = new IoOperationExecutor(threadFactory, this, callback, runningFlushOperations,
                 waitingFlushOperations, failedGroups);
+        flushWorkers = flushParallelism > 1
+                ? new IoOperationWorkers(threadFactory, flushParallelism, flushParallelism * numIoDevices) : null;
+        mergeWorkers = mergeParallelism > 1
+                ? new IoOperationWorkers(threadFactory, mergeParallelism, mergeParallelism * numIoDevices) : null;
     }
 
     @Override
@@ -53,7 +84,7 @@ public class AsynchronousScheduler implements ILSMIOOperationScheduler, Closeabl
                 scheduleFlush(operation);
                 break;
             case MERGE:
-                executor.submit(operation);
+                scheduleMerge(operation);
                 break;
             case NOOP:
                 return;
@@ -64,8 +95,14 @@ public class AsynchronousScheduler implements ILSMIOOperationScheduler, Closeabl
         }
     }
 
+    protected void scheduleMerge(ILSMIOOperation operation) {
+        operation.setWorkers(mergeWorkers);
+        executor.submit(operation);
+    }
+
     private void scheduleFlush(ILSMIOOperation operation) {
         String id = operation.getIndexIdentifier();
+        operation.setWorkers(flushWorkers);
         synchronized (executor) {
             if (failedGroups.containsKey(id)) {
                 // Group failure. Fail the operation right away
@@ -93,5 +130,11 @@ public class AsynchronousScheduler implements ILSMIOOperationScheduler, Closeabl
     @Override
     public void close() throws IOException {
         executor.shutdown();
+        if (flushWorkers != null) {
+            flushWorkers.shutdown();
+        }
+        if (mergeWorkers != null) {
+            mergeWorkers.shutdown();
+        }
     }
 }
@@ -20,6 +20,8 @@ package org.apache.hyracks.storage.am.lsm.common.impls;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter.BloomFilterBuilder;
 import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 
@@ -67,6 +69,27 @@ public class BloomFilterBulkLoader implements IChainedComponentBulkLoader {
         }
     }
 
+    @Override
+    public IChainedComponentBulkLoader createConcurrentLoader() {
+        if (!(bulkLoader instanceof BloomFilterBuilder)) {
+            return null;
+        }
+        BloomFilterBuilder builder = (BloomFilterBuilder) bulkLoader;
+        long[] hashes = BloomFilter.createHashArray();
+        return new BloomFilterBulkLoader(bulkLoader) {
+            @Override
+            public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+                builder.addConcurrently(tuple, hashes);
+                return tuple;
+            }
+
+            @Override
+            public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+                return add(tuple);
+            }
+        };
+    }
+
     @Override
     public void writeFailed(ICachedPage page, Throwable failure) {
         throw new UnsupportedOperationException();
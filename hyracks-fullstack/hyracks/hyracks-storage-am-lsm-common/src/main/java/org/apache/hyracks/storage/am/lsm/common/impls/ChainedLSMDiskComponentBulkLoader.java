@@ -23,6 +23,8 @@ import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
@@ -34,6 +36,8 @@ import org.apache.hyracks.util.annotations.CriticalPath;
  * Class encapsulates a chain of operations, happening during an LSM disk component bulkload
  */
 public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkLoader {
+    // the throttle of the operation is called once per this many bytes of added tuples
+    private static final int THROTTLE_BATCH_SIZE = 64 * 1024;
 
     private List<IChainedComponentBulkLoader> bulkloaderChain = new ArrayList<>();
     private final ILSMIOOperation operation;
@@ -41,6 +45,7 @@ public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkL
     private final boolean cleanupEmptyComponent;
     private boolean isEmptyComponent = true;
     private boolean cleanedUpArtifacts = false;
+    private long unthrottledBytes = 0;
 
     public ChainedLSMDiskComponentBulkLoader(ILSMIOOperation operation, ILSMDiskComponent diskComponent,
             boolean cleanupEmptyComponent) {
@@ -58,6 +63,7 @@ public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkL
     @CriticalPath
     public void add(ITupleReference tuple) throws HyracksDataException {
         try {
+            throttle(tuple);
             ITupleReference t = tuple;
             final int bulkloadersCount = bulkloaderChain.size();
             for (int i = 0; i < bulkloadersCount; i++) {
@@ -78,6 +84,7 @@ public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkL
     @CriticalPath
     public void delete(ITupleReference tuple) throws HyracksDataException {
         try {
+            throttle(tuple);
             ITupleReference t = tuple;
             final int bulkloadersCount = bulkloaderChain.size();
             for (int i = 0; i < bulkloadersCount; i++) {
@@ -93,6 +100,99 @@ public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkL
         }
     }
 
+    /**
+     * @return the loader of the index pages of the component if the pages of disjoint key ranges can be built
+     *         concurrently, null otherwise
+     */
+    public IRangePartitionedBulkLoader getRangePartitionedBulkLoader() {
+        final int bulkloadersCount = bulkloaderChain.size();
+        for (int i = 0; i < bulkloadersCount; i++) {
+            IRangePartitionedBulkLoader rangePartitionedBulkLoader =
+                    bulkloaderChain.get(i).getRangePartitionedBulkLoader();
+            if (rangePartitionedBulkLoader != null) {
+                return rangePartitionedBulkLoader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the adder that a thread which loads a range of the component uses to add the tuples of the range to all
+     * the bulk loaders of the chain except the loader of the index pages, whose ranges are loaded separately through
+     * {@link #getRangePartitionedBulkLoader()}. The adders of different threads add their tuples concurrently to the
+     * loaders that support it and one at a time to the others. On failure, the caller is responsible for cleaning up
+     * the artifacts of the component once these threads are done.
+     */
+    public RangeAdder createRangeAdder() {
+        return new RangeAdder();
+    }
+
+    private void throttle(ITupleReference tuple) throws HyracksDataException {
+        unthrottledBytes = throttle(tuple, unthrottledBytes);
+    }
+
+    /**
+     * @return the number of bytes that were added since the operation was last throttled
+     */
+    private long throttle(ITupleReference tuple, long unthrottledBytes) throws HyracksDataException {
+        IIoOperationThrottle throttle = operation.getThrottle();
+        if (throttle == null) {
+            return 0;
+        }
+        long bytes = unthrottledBytes;
+        for (int i = 0; i < tuple.getFieldCount(); i++) {
+            bytes += tuple.getFieldLength(i);
+        }
+        if (bytes >= THROTTLE_BATCH_SIZE) {
+            throttle.beforeWrite(bytes);
+            return 0;
+        }
+        return bytes;
+    }
+
+    /**
+     * Adds the tuples of a range to the bulk loaders of the chain that do not load the index pages
+     */
+    public class RangeAdder {
+        // the loaders that add tuples concurrently, or null for the loaders of the chain that are shared
+        private final IChainedComponentBulkLoader[] concurrentLoaders;
+        private long rangeUnthrottledBytes = 0;
+
+        private RangeAdder() {
+            concurrentLoaders = new IChainedComponentBulkLoader[bulkloaderChain.size()];
+            for (int i = 0; i < concurrentLoaders.length; i++) {
+                concurrentLoaders[i] = bulkloaderChain.get(i).createConcurrentLoader();
+            }
+        }
+
+        @SuppressWarnings("squid:S1181")
+        public void add(ITupleReference tuple) throws HyracksDataException {
+            try {
+                rangeUnthrottledBytes = throttle(tuple, rangeUnthrottledBytes);
+                ITupleReference t = tuple;
+                for (int i = 0; i < concurrentLoaders.length; i++) {
+                    IChainedComponentBulkLoader bulkloader = bulkloaderChain.get(i);
+                    if (bulkloader.getRangePartitionedBulkLoader() != null) {
+                        continue;
+                    }
+                    if (concurrentLoaders[i] != null) {
+                        t = concurrentLoaders[i].add(t);
+                    } else {
+                        synchronized (ChainedLSMDiskComponentBulkLoader.this) {
+                            t = bulkloader.add(t);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                operation.setFailure(e);
+                throw e;
+            }
+            if (isEmptyComponent) {
+                isEmptyComponent = false;
+            }
+        }
+    }
+
     @Override
     public void cleanupArtifacts() throws HyracksDataException {
         if (!cleanedUpArtifacts) {
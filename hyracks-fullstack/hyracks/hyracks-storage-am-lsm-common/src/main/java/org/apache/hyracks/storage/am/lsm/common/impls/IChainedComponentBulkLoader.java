@@ -20,6 +20,7 @@ package org.apache.hyracks.storage.am.lsm.common.impls;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteFailureCallback;
 
 public interface IChainedComponentBulkLoader extends IPageWriteFailureCallback {
@@ -61,4 +62,22 @@ public interface IChainedComponentBulkLoader extends IPageWriteFailureCallback {
      * @throws HyracksDataException
      */
     void cleanupArtifacts() throws HyracksDataException;
+
+    /**
+     * @return the loader of the index pages of the component if the pages of disjoint key ranges can be built
+     *         concurrently, null otherwise
+     */
+    default IRangePartitionedBulkLoader getRangePartitionedBulkLoader() {
+        return null;
+    }
+
+    /**
+     * Creates a loader that adds tuples to this loader concurrently with the other loaders created by this method.
+     * Only its {@link #add(ITupleReference)} is called, by a single thread, while this loader ends or aborts the load.
+     *
+     * @return the loader or null if tuples can only be added to this loader by one thread at a time
+     */
+    default IChainedComponentBulkLoader createConcurrentLoader() {
+        return null;
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
+
+/**
+ * The worker threads of the operations of an IO scheduler. They are separate from the threads that run the
+ * operations, which wait for their parts to complete. Their number is bounded: when all the workers are busy, the
+ * parts of concurrent operations are queued, since more threads would only compete for the same devices.
+ */
+public class IoOperationWorkers implements IIoOperationWorkers {
+    private static final long IDLE_WORKER_TIMEOUT = 60;
+
+    private final int parallelism;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param parallelism
+     *            the maximum number of parts an operation is split into
+     * @param numWorkers
+     *            the maximum number of worker threads
+     */
+    public IoOperationWorkers(ThreadFactory threadFactory, int parallelism, int numWorkers) {
+        this.parallelism = parallelism;
+        executor = new ThreadPoolExecutor(numWorkers, numWorkers, IDLE_WORKER_TIMEOUT, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        // the workers are only kept while operations are split
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> part) {
+        return executor.submit(part);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameTupleProcessor;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
@@ -266,7 +267,7 @@ public class LSMHarness implements ILSMHarness {
             case FLUSH:
                 // newComponent is null if the flush op. was not performed.
                 if (!failedOperation && newComponent != null) {
-                    lsmIndex.addDiskComponent(newComponent);
+                    lsmIndex.addFlushedComponent(newComponent);
                     // TODO: The following should also replicate component Id
                     // even if empty component
                     if (replicationEnabled && newComponent != EmptyComponent.INSTANCE) {
@@ -540,6 +541,10 @@ public class LSMHarness implements ILSMHarness {
                 LOGGER.log(Level.ERROR, "{} operation failed on {}", operation.getIOOpertionType(), lsmIndex, e);
             }
         } finally {
+            IIoOperationThrottle throttle = operation.getThrottle();
+            if (throttle != null) {
+                throttle.writesCompleted();
+            }
             try {
                 operation.getCallback().afterFinalize(operation);
             } catch (Throwable th) {// NOSONAR Must catch all
@@ -20,6 +20,7 @@ package org.apache.hyracks.storage.am.lsm.common.impls;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IRangePartitionedBulkLoader;
 import org.apache.hyracks.storage.am.common.impls.AbstractTreeIndex.AbstractTreeIndexBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleWriter;
 import org.apache.hyracks.storage.common.IIndexBulkLoader;
@@ -66,6 +67,11 @@ public class LSMIndexBulkLoader implements IChainedComponentBulkLoader {
         bulkLoader.abort();
     }
 
+    @Override
+    public IRangePartitionedBulkLoader getRangePartitionedBulkLoader() {
+        return bulkLoader instanceof IRangePartitionedBulkLoader ? (IRangePartitionedBulkLoader) bulkLoader : null;
+    }
+
     @Override
     public void writeFailed(ICachedPage page, Throwable failure) {
         throw new UnsupportedOperationException();
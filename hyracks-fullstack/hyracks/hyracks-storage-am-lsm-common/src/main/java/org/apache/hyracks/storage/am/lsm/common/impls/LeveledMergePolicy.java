@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+
+/**
+ * A leveled merge policy: the level of a component is given by its size. The largest level holds components up to the
+ * max mergable component size and every other level has a capacity that is {@link #fanout} times smaller than the one
+ * of the next larger level. A level holds a single component and, once it is over capacity, it is merged into the next
+ * larger level. As a result, the components grow from the newest to the oldest one, the number of components to search
+ * is logarithmic in the size of the index and every entry is rewritten at most {@link #fanout} times per level.
+ * Since the components of an index cover the whole key range, a level is merged as a whole.
+ */
+public class LeveledMergePolicy extends AbstractSizeRatioMergePolicy {
+
+    @Override
+    protected List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents) {
+        // merge the newest component that outgrew the level above its older neighbor into that neighbor
+        for (int i = 0; i + 1 < immutableComponents.size(); i++) {
+            ILSMDiskComponent newer = immutableComponents.get(i);
+            ILSMDiskComponent older = immutableComponents.get(i + 1);
+            if (isMergable(newer) && isMergable(older)
+                    && getDepth(newer.getComponentSize()) <= getDepth(older.getComponentSize())) {
+                return immutableComponents.subList(i, i + 2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of levels between the level of a component of the given size and the largest level
+     */
+    private int getDepth(long componentSize) {
+        int depth = 0;
+        double capacity = maxMergableComponentSize;
+        while (capacity >= fanout && componentSize <= capacity / fanout) {
+            capacity /= fanout;
+            depth++;
+        }
+        return depth;
+    }
+}
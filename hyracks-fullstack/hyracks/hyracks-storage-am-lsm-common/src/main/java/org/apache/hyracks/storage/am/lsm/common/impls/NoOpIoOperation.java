@@ -24,11 +24,14 @@ import java.util.Map;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
+import org.apache.hyracks.storage.am.lsm.common.api.IoOperationProgress;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 
@@ -128,6 +131,41 @@ public class NoOpIoOperation implements ILSMIOOperation {
         return null;
     }
 
+    @Override
+    public IIoOperationThrottle getThrottle() {
+        return null;
+    }
+
+    @Override
+    public void setThrottle(IIoOperationThrottle throttle) {
+        // No Op
+    }
+
+    @Override
+    public IIoOperationWorkers getWorkers() {
+        return null;
+    }
+
+    @Override
+    public void setWorkers(IIoOperationWorkers workers) {
+        // No Op
+    }
+
+    @Override
+    public IoOperationProgress getProgress() {
+        return new IoOperationProgress();
+    }
+
+    @Override
+    public void cancel() {
+        // No Op
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return false;
+    }
+
     @Override
     public void writeFailed(ICachedPage page, Throwable failure) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.List;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+
+/**
+ * A size-tiered merge policy: consecutive components of similar sizes form a tier and {@link #fanout} components of
+ * the same tier are merged into a component of the next tier. This keeps the write amplification low (every entry is
+ * rewritten once per tier) at the cost of having up to {@link #fanout} - 1 components per tier to search.
+ */
+public class SizeTieredMergePolicy extends AbstractSizeRatioMergePolicy {
+    /**
+     * A component belongs to the tier of its newer neighbors if it is not larger than this ratio times their average
+     * size. Since merged components are {@link #fanout} times larger than the components they replace, this separates
+     * the tiers for any fanout.
+     */
+    private static final double MAX_TIER_SIZE_RATIO = 1.5;
+
+    @Override
+    protected List<ILSMDiskComponent> getMergableComponents(List<ILSMDiskComponent> immutableComponents) {
+        // look for the newest tier that is full
+        int tierStart = 0;
+        long tierSize = 0;
+        for (int i = 0; i < immutableComponents.size(); i++) {
+            ILSMDiskComponent component = immutableComponents.get(i);
+            if (!isMergable(component)) {
+                tierStart = i + 1;
+                tierSize = 0;
+                continue;
+            }
+            long componentSize = component.getComponentSize();
+            int tierLength = i - tierStart;
+            if (tierLength > 0 && componentSize > MAX_TIER_SIZE_RATIO * tierSize / tierLength) {
+                // the component starts the next tier
+                tierStart = i;
+                tierSize = 0;
+            }
+            tierSize += componentSize;
+            if (i - tierStart + 1 == fanout) {
+                return immutableComponents.subList(tierStart, i + 1);
+            }
+        }
+        return null;
+    }
+}
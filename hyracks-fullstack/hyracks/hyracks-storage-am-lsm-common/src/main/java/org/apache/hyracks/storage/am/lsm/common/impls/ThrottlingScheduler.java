@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An asynchronous scheduler that keeps merges from monopolizing the disks:
+ * - at most a given number of merges run concurrently on a device, the other merges wait in FIFO order
+ * - the bytes written by all the merges are limited by a token bucket whose rate can be changed at runtime
+ * - flushes are neither limited nor throttled. A running merge yields to the flushes that are pending on its device
+ * when it writes, until they have written their components or for at most a given time. It does not wait for the
+ * flushes that were scheduled while it yields, so back-to-back flushes cannot starve it
+ * - merges can be paused and resumed, a running merge is paused at its next write
+ * The time each merge was queued and throttled is measured and logged when the merge completes. The measures of the
+ * last completed merges are kept for monitoring.
+ */
+public class ThrottlingScheduler extends AsynchronousScheduler {
+    private static final Logger LOGGER = LogManager.getLogger();
+    public static final long DEFAULT_MAX_FLUSH_YIELD_TIME = TimeUnit.SECONDS.toMillis(1);
+    private static final int MAX_COMPLETED_MERGES = 32;
+
+    private final int maxConcurrentMergesPerDevice;
+    private final TokenBucket mergeBandwidth;
+    private final Map<IODeviceHandle, Integer> runningMerges = new HashMap<>();
+    private final Map<IODeviceHandle, Deque<MergeThrottle>> waitingMerges = new HashMap<>();
+    private final Map<IODeviceHandle, NavigableSet<Long>> pendingFlushes = new HashMap<>();
+    private final Map<ILSMIOOperation, Long> trackedFlushes = new IdentityHashMap<>();
+    private final Deque<MergeThrottle> completedMerges = new ArrayDeque<>();
+    private final AtomicLong totalQueuedTime = new AtomicLong();
+    private final AtomicLong totalThrottledTime = new AtomicLong();
+    private final long maxFlushYieldTime;
+    private long flushSequence = 0;
+    private long numCompletedMerges = 0;
+    private boolean mergesPaused = false;
+
+    /**
+     * @param maxConcurrentMergesPerDevice
+     *            the maximum number of merges that run concurrently on a device, not positive for no limit
+     * @param mergeBytesPerSecond
+     *            the maximum number of bytes per second that are written by all the merges, not positive for no
+     *            limit
+     */
+    public ThrottlingScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            int maxConcurrentMergesPerDevice, long mergeBytesPerSecond) {
+        this(threadFactory, callback, maxConcurrentMergesPerDevice, mergeBytesPerSecond, 1, 1, 1,
+                DEFAULT_MAX_FLUSH_YIELD_TIME);
+    }
+
+    /**
+     * @param maxConcurrentMergesPerDevice
+     *            the maximum number of merges that run concurrently on a device, not positive for no limit
+     * @param mergeBytesPerSecond
+     *            the maximum number of bytes per second that are written by all the merges, not positive for no
+     *            limit
+     * @param flushParallelism
+     *            the maximum number of threads a flush runs on
+     * @param mergeParallelism
+     *            the maximum number of threads a merge runs on
+     * @param numIoDevices
+     *            the number of IO devices
+     * @param maxFlushYieldTime
+     *            the maximum time in milliseconds a merge yields to the flushes on its device at each write
+     */
+    public ThrottlingScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            int maxConcurrentMergesPerDevice, long mergeBytesPerSecond, int flushParallelism, int mergeParallelism,
+            int numIoDevices, long maxFlushYieldTime) {
+        super(threadFactory, callback, flushParallelism, mergeParallelism, numIoDevices);
+        this.maxConcurrentMergesPerDevice = maxConcurrentMergesPerDevice;
+        this.maxFlushYieldTime = TimeUnit.MILLISECONDS.toNanos(maxFlushYieldTime);
+        mergeBandwidth = new TokenBucket(mergeBytesPerSecond);
+    }
+
+    @Override
+    public void scheduleOperation(ILSMIOOperation operation) {
+        if (operation.getIOOpertionType() == LSMIOOperationType.FLUSH) {
+            trackFlush(operation);
+        }
+        super.scheduleOperation(operation);
+    }
+
+    @Override
+    protected void scheduleMerge(ILSMIOOperation operation) {
+        MergeThrottle throttle = new MergeThrottle(operation);
+        operation.setThrottle(throttle);
+        operation.addCompleteListener(this::mergeCompleted);
+        synchronized (this) {
+            if (mergesPaused || !canStart(operation.getDevice())) {
+                waitingMerges.computeIfAbsent(operation.getDevice(), d -> new ArrayDeque<>()).offer(throttle);
+                return;
+            }
+            start(throttle);
+        }
+    }
+
+    /**
+     * Pauses the merges. Waiting merges are not started and running merges block at their next write.
+     */
+    public synchronized void pauseMerges() {
+        mergesPaused = true;
+    }
+
+    /**
+     * Resumes the merges that were paused by {@link #pauseMerges()}
+     */
+    public synchronized void resumeMerges() {
+        mergesPaused = false;
+        notifyAll();
+        for (IODeviceHandle device : waitingMerges.keySet()) {
+            startWaitingMerges(device);
+        }
+    }
+
+    public synchronized boolean areMergesPaused() {
+        return mergesPaused;
+    }
+
+    /**
+     * Changes the bandwidth limit of the merges. Running merges are limited to the new bandwidth at their next write.
+     *
+     * @param mergeBytesPerSecond
+     *            the maximum number of bytes per second that are written by all the merges, not positive for no
+     *            limit
+     */
+    public void setMergeBandwidth(long mergeBytesPerSecond) {
+        mergeBandwidth.setRate(mergeBytesPerSecond);
+    }
+
+    public long getMergeBandwidth() {
+        return mergeBandwidth.getRate();
+    }
+
+    /**
+     * @return the number of merges that are waiting to start
+     */
+    public synchronized int getNumWaitingMerges() {
+        int count = 0;
+        for (Deque<MergeThrottle> merges : waitingMerges.values()) {
+            count += merges.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of merges that completed
+     */
+    public synchronized long getNumCompletedMerges() {
+        return numCompletedMerges;
+    }
+
+    /**
+     * @return the throttles of the last completed merges, the most recent first
+     */
+    public synchronized List<MergeThrottle> getCompletedMerges() {
+        return new ArrayList<>(completedMerges);
+    }
+
+    /**
+     * @return the time in nanoseconds the completed merges waited to start
+     */
+    public long getTotalQueuedTime() {
+        return totalQueuedTime.get();
+    }
+
+    /**
+     * @return the time in nanoseconds the completed merges were blocked by throttling, pauses or flushes
+     */
+    public long getTotalThrottledTime() {
+        return totalThrottledTime.get();
+    }
+
+    private void trackFlush(ILSMIOOperation operation) {
+        synchronized (this) {
+            // waiting flushes of an index are scheduled again when the previous flush of the index completes
+            if (trackedFlushes.containsKey(operation)) {
+                return;
+            }
+            long sequence = flushSequence++;
+            trackedFlushes.put(operation, sequence);
+            pendingFlushes.computeIfAbsent(operation.getDevice(), d -> new TreeSet<>()).add(sequence);
+        }
+        // the flush stops holding merges back once it has written its component. its completion can be delayed
+        // by a lagging merge, which could be the merge that yields to it.
+        operation.setThrottle(new FlushThrottle(operation));
+        // the listener is called with the wrapped operation of a traced operation
+        operation.addCompleteListener(completed -> flushWritten(operation));
+    }
+
+    private synchronized void flushWritten(ILSMIOOperation operation) {
+        Long sequence = trackedFlushes.remove(operation);
+        if (sequence == null) {
+            return;
+        }
+        NavigableSet<Long> pending = pendingFlushes.get(operation.getDevice());
+        pending.remove(sequence);
+        if (pending.isEmpty()) {
+            pendingFlushes.remove(operation.getDevice());
+        }
+        notifyAll();
+    }
+
+    private synchronized void mergeCompleted(ILSMIOOperation operation) {
+        MergeThrottle throttle = (MergeThrottle) operation.getThrottle();
+        throttle.completeTime = System.nanoTime();
+        totalQueuedTime.addAndGet(throttle.getQueuedTime());
+        totalThrottledTime.addAndGet(throttle.getThrottledTime());
+        numCompletedMerges++;
+        completedMerges.addFirst(throttle);
+        if (completedMerges.size() > MAX_COMPLETED_MERGES) {
+            completedMerges.removeLast();
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Merge on {} was queued for {} ms and throttled for {} ms", operation.getIndexIdentifier(),
+                    TimeUnit.NANOSECONDS.toMillis(throttle.getQueuedTime()),
+                    TimeUnit.NANOSECONDS.toMillis(throttle.getThrottledTime()));
+        }
+        if (throttle.startTime < 0) {
+            // completed without being started (e.g. the scheduler was closed)
+            return;
+        }
+        runningMerges.computeIfPresent(operation.getDevice(), (d, count) -> count > 1 ? count - 1 : null);
+        startWaitingMerges(operation.getDevice());
+    }
+
+    private void startWaitingMerges(IODeviceHandle device) {
+        Deque<MergeThrottle> merges = waitingMerges.get(device);
+        while (!mergesPaused && merges != null && !merges.isEmpty() && canStart(device)) {
+            start(merges.poll());
+        }
+    }
+
+    private boolean canStart(IODeviceHandle device) {
+        return maxConcurrentMergesPerDevice <= 0
+                || runningMerges.getOrDefault(device, 0) < maxConcurrentMergesPerDevice;
+    }
+
+    private void start(MergeThrottle throttle) {
+        runningMerges.merge(throttle.operation.getDevice(), 1, Integer::sum);
+        throttle.startTime = System.nanoTime();
+        super.scheduleMerge(throttle.operation);
+    }
+
+    private synchronized void awaitTurn(IODeviceHandle device) throws InterruptedException {
+        long lastFlush = -1;
+        long deadline = 0;
+        while (true) {
+            if (mergesPaused) {
+                wait();
+                continue;
+            }
+            NavigableSet<Long> pending = pendingFlushes.get(device);
+            if (pending == null || (lastFlush >= 0 && pending.first() > lastFlush)) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (lastFlush < 0) {
+                // only yield to the flushes that are pending now
+                lastFlush = pending.last();
+                deadline = now + maxFlushYieldTime;
+            }
+            if (deadline - now <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, deadline - now);
+        }
+    }
+
+    /**
+     * The throttle of a flush. Flushes are not throttled, merges yield to them until they have written their
+     * components.
+     */
+    private class FlushThrottle implements IIoOperationThrottle {
+        private final ILSMIOOperation operation;
+
+        private FlushThrottle(ILSMIOOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void beforeWrite(long bytes) {
+            // flushes are not throttled
+        }
+
+        @Override
+        public void writesCompleted() {
+            flushWritten(operation);
+        }
+    }
+
+    /**
+     * The throttle of a merge. It measures the time the merge was queued and throttled.
+     */
+    public class MergeThrottle implements IIoOperationThrottle {
+        private final ILSMIOOperation operation;
+        private final long scheduleTime;
+        private volatile long startTime = -1;
+        private volatile long completeTime = -1;
+        // the threads that merge the ranges of the merge are throttled concurrently
+        private final AtomicLong throttledTime = new AtomicLong();
+
+        private MergeThrottle(ILSMIOOperation operation) {
+            this.operation = operation;
+            scheduleTime = System.nanoTime();
+        }
+
+        @Override
+        public void beforeWrite(long bytes) throws HyracksDataException {
+            long start = System.nanoTime();
+            try {
+                awaitTurn(operation.getDevice());
+                mergeBandwidth.acquire(bytes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            } finally {
+                throttledTime.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * @return the merge
+         */
+        public ILSMIOOperation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return the time in nanoseconds the merge ran, or is running, after it was started
+         */
+        public long getRunningTime() {
+            if (startTime < 0) {
+                return 0;
+            }
+            return (completeTime < 0 ? System.nanoTime() : completeTime) - startTime;
+        }
+
+        /**
+         * @return the time in nanoseconds the merge waited to start
+         */
+        public long getQueuedTime() {
+            return startTime < 0 ? 0 : startTime - scheduleTime;
+        }
+
+        /**
+         * @return the time in nanoseconds the merge was blocked by throttling, pauses or flushes
+         */
+        public long getThrottledTime() {
+            return throttledTime.get();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that limits a rate in units (e.g. bytes) per second. The bucket holds at most one second worth of
+ * tokens. Acquiring more tokens than are available puts the bucket in debt and blocks the caller until the debt is
+ * paid, so that callers sharing the bucket are limited to the rate altogether. The rate can be changed at any time,
+ * a rate that is not positive disables the limit.
+ */
+public class TokenBucket {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long rate;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long rate) {
+        this.rate = rate;
+        tokens = Math.max(rate, 0);
+        lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Acquires the given number of tokens, blocking until they are available
+     *
+     * @param count
+     *            the number of tokens
+     * @return the time in nanoseconds the caller was blocked
+     * @throws InterruptedException
+     */
+    public synchronized long acquire(long count) throws InterruptedException {
+        refill();
+        if (rate <= 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        tokens -= count;
+        while (tokens < 0 && rate > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, (long) Math.ceil(-tokens * NANOS_PER_SECOND / rate));
+            refill();
+        }
+        return System.nanoTime() - start;
+    }
+
+    public synchronized long getRate() {
+        return rate;
+    }
+
+    /**
+     * Changes the rate of the bucket. Callers that are blocked are reevaluated against the new rate.
+     *
+     * @param rate
+     *            the new rate, not positive for no limit
+     */
+    public synchronized void setRate(long rate) {
+        refill();
+        this.rate = rate;
+        tokens = rate > 0 ? Math.min(tokens, rate) : 0;
+        notifyAll();
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (rate > 0) {
+            tokens = Math.min(rate, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+        }
+        lastRefill = now;
+    }
+}
@@ -24,11 +24,14 @@ import java.util.Map;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationThrottle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
+import org.apache.hyracks.storage.am.lsm.common.api.IoOperationProgress;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.util.trace.ITracer;
@@ -165,6 +168,41 @@ class TracedIOOperation implements ILSMIOOperation {
         return ioOp.getParameters();
     }
 
+    @Override
+    public IIoOperationThrottle getThrottle() {
+        return ioOp.getThrottle();
+    }
+
+    @Override
+    public void setThrottle(IIoOperationThrottle throttle) {
+        ioOp.setThrottle(throttle);
+    }
+
+    @Override
+    public IIoOperationWorkers getWorkers() {
+        return ioOp.getWorkers();
+    }
+
+    @Override
+    public void setWorkers(IIoOperationWorkers workers) {
+        ioOp.setWorkers(workers);
+    }
+
+    @Override
+    public IoOperationProgress getProgress() {
+        return ioOp.getProgress();
+    }
+
+    @Override
+    public void cancel() {
+        ioOp.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return ioOp.isCanceled();
+    }
+
     @Override
     public void writeFailed(ICachedPage page, Throwable failure) {
         ioOp.writeFailed(page, failure);
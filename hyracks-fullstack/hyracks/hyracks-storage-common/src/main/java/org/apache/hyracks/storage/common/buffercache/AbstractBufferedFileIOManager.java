@@ -70,6 +70,28 @@ public abstract class AbstractBufferedFileIOManager {
      */
     public abstract void read(CachedPage cPage) throws HyracksDataException;
 
+    /**
+     * Read a run of CachedPages with contiguous page ids from disk. The default implementation reads the pages
+     * one at a time. Implementations that can read the run with a single IO request should override it.
+     *
+     * @param cPages
+     *            CachedPages in {@link BufferCache} sorted by their page ids
+     * @param numPages
+     *            number of pages in the run
+     * @param staging
+     *            buffer that can hold the run including the page headers
+     * @return
+     *         the number of pages (starting from the first one) that were read
+     * @throws HyracksDataException
+     */
+    public int read(CachedPage[] cPages, int numPages, ByteBuffer staging) throws HyracksDataException {
+        for (int i = 0; i < numPages; i++) {
+            cPages[i].buffer.clear();
+            read(cPages[i]);
+        }
+        return numPages;
+    }
+
     /**
      * Write the CachedPage into disk
      *
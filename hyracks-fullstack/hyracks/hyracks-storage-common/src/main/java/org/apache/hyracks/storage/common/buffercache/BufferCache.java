@@ -22,6 +22,7 @@ import static org.apache.hyracks.control.nc.io.IOManager.IO_REQUEST_QUEUE_SIZE;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -34,6 +35,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -64,6 +66,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private static final int MAX_PIN_ATTEMPT_CYCLES = 1000;
     private static final int MAX_PAGE_READ_ATTEMPTS = 5;
     private static final long PERIOD_BETWEEN_READ_ATTEMPTS = 100;
+    private static final int MAX_CONCURRENT_READ_AHEADS = 8;
     public static final boolean DEBUG = false;
 
     private final int pageSize;
@@ -82,6 +85,18 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private IIOReplicationManager ioReplicationManager;
     private final List<ICachedPageInternal> cachedPages = new ArrayList<>();
     private final AtomicLong masterPinCount = new AtomicLong();
+    private final Executor executor;
+    // number of pages to read ahead of a sequential scan. 0 disables read-ahead
+    private final int readAheadPages;
+    private final AtomicInteger numReadAheadsInFlight = new AtomicInteger();
+    // fileId -> number of read-aheads of the file that still hold pins on its pages
+    private final Map<Integer, Integer> readAheadsInFlight = new HashMap<>();
+    private final BlockingQueue<ByteBuffer> readAheadBuffers = new ArrayBlockingQueue<>(MAX_CONCURRENT_READ_AHEADS);
+    private final AtomicLong readAheadRequestedPages = new AtomicLong();
+    private final AtomicLong readAheadHits = new AtomicLong();
+    private final AtomicLong readAheadMisses = new AtomicLong();
+    private final Map<Integer, BufferCachePartition> filePartitions = new ConcurrentHashMap<>();
+    private IBufferCachePartitionResolver partitionResolver;
 
     private boolean closed;
 
@@ -95,6 +110,15 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
             IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
             ThreadFactory threadFactory) {
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory, 0);
+    }
+
+    public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory, int readAheadPages) {
+        if (readAheadPages < 0) {
+            throw new IllegalArgumentException("Invalid number of read-ahead pages: " + readAheadPages);
+        }
         this.ioManager = ioManager;
         this.pageSize = pageReplacementStrategy.getPageSize();
         this.maxOpenFiles = maxOpenFiles;
@@ -106,8 +130,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         this.pageReplacementStrategy = pageReplacementStrategy;
         this.pageCleanerPolicy = pageCleanerPolicy;
         this.fileMapManager = fileMapManager;
+        this.readAheadPages = readAheadPages;
 
-        Executor executor = Executors.newCachedThreadPool(threadFactory);
+        executor = Executors.newCachedThreadPool(threadFactory);
         fileInfoMap = new HashMap<>();
         cleanerThread = new CleanerThread();
         executor.execute(cleanerThread);
@@ -126,11 +151,31 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
             IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
             ThreadFactory threadFactory, IIOReplicationManager ioReplicationManager) {
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory, 0,
+                ioReplicationManager);
+    }
 
-        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory);
+    public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory, int readAheadPages, IIOReplicationManager ioReplicationManager) {
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory,
+                readAheadPages);
         this.ioReplicationManager = ioReplicationManager;
     }
 
+    /**
+     * Sets the resolver of the partitions that the pages of the files opened from now on are accounted to.
+     * Must be called before any file is opened.
+     */
+    public void setPartitionResolver(IBufferCachePartitionResolver partitionResolver) {
+        this.partitionResolver = partitionResolver;
+    }
+
+    @Override
+    public List<BufferCachePartition> getPartitions() {
+        return partitionResolver == null ? Collections.emptyList() : partitionResolver.getPartitions();
+    }
+
     @Override
     public int getPageSize() {
         return pageSize;
@@ -166,6 +211,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
 
     @Override
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
+        return pin(dpid, newPage, false);
+    }
+
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
         // Calling the pinSanityCheck should be used only for debugging, since
         // the synchronized block over the fileInfoMap is a hot spot.
         if (DEBUG) {
@@ -185,13 +235,16 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     confiscateLock.unlock();
                 }
             }
+            boolean readFromDisk = false;
             // Resolve race of multiple threads trying to read the page from
             // disk.
             synchronized (cPage) {
+                awaitReadAhead(cPage);
                 if (!cPage.valid) {
                     try {
                         tryRead(cPage);
                         cPage.valid = true;
+                        readFromDisk = true;
                     } catch (Exception e) {
                         LOGGER.log(ExceptionUtils.causedByInterrupt(e) ? Level.DEBUG : Level.WARN,
                                 "Failure while trying to read a page from disk", e);
@@ -203,10 +256,25 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     }
                 }
             }
+            if (sequential && readAheadPages > 0) {
+                readAhead(cPage, readFromDisk);
+            }
+            final BufferCachePartition partition = cPage.getPartition();
+            if (partition != null) {
+                if (readFromDisk) {
+                    partition.miss();
+                } else {
+                    partition.hit();
+                }
+            }
         } else {
             cPage.valid = true;
         }
-        pageReplacementStrategy.notifyCachePageAccess(cPage);
+        if (sequential) {
+            pageReplacementStrategy.notifyCachePageSequentialAccess(cPage);
+        } else {
+            pageReplacementStrategy.notifyCachePageAccess(cPage);
+        }
         if (DEBUG) {
             pinnedPageOwner.put(cPage, Thread.currentThread().getStackTrace());
         }
@@ -248,7 +316,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
          * If we got here, the page was not in the hash table. Now we ask
          * the page replacement strategy to find us a victim.
          */
-        CachedPage victim = (CachedPage) pageReplacementStrategy.findVictim();
+        CachedPage victim = findVictim(dpid);
         if (victim == null) {
             return null;
         }
@@ -311,6 +379,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     return cPage;
                 }
                 victim.reset(dpid);
+                victim.setPartition(filePartitions.get(BufferedFileHandle.getFileId(dpid)));
                 victim.next = bucket.cachedPage;
                 bucket.cachedPage = victim;
             } finally {
@@ -353,6 +422,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     return cPage;
                 }
                 victim.reset(dpid);
+                victim.setPartition(filePartitions.get(BufferedFileHandle.getFileId(dpid)));
             } finally {
                 bucket.bucketLock.unlock();
             }
@@ -402,6 +472,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     victimPrev.next = victim.next;
                 }
                 victim.reset(dpid);
+                victim.setPartition(filePartitions.get(BufferedFileHandle.getFileId(dpid)));
                 victim.next = bucket.cachedPage;
                 bucket.cachedPage = victim;
             } finally {
@@ -415,6 +486,55 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
+    private CachedPage findVictim(long dpid) {
+        if (filePartitions.isEmpty()) {
+            return (CachedPage) pageReplacementStrategy.findVictim();
+        }
+        final BufferCachePartition requester = filePartitions.get(BufferedFileHandle.getFileId(dpid));
+        // a partition at its maximum replaces its own pages. otherwise, pages of partitions over their maximum go
+        // first. a candidate that an earlier request left for the partition saves the sweep for its pages
+        final boolean atMaxQuota = requester != null && requester.getNumPages() >= requester.getMaxPages();
+        boolean anyOverQuota = false;
+        CachedPage victim = atMaxQuota ? requester.takeVictimCandidate() : null;
+        for (BufferCachePartition partition : partitionResolver.getPartitions()) {
+            if (partition != requester && partition.isOverQuota()) {
+                anyOverQuota = true;
+                if (victim == null && !atMaxQuota) {
+                    victim = partition.takeVictimCandidate();
+                }
+            }
+        }
+        if (victim != null) {
+            return victim;
+        }
+        // a single sweep looks for a page that suits the request. the first replaceable page that does not suit it
+        // is kept as a fallback and the others are left as candidates of their partitions. pages of other
+        // partitions that hold no more than their minimum are never returned
+        final boolean overQuota = anyOverQuota;
+        final CachedPage[] fallback = new CachedPage[1];
+        victim = (CachedPage) pageReplacementStrategy.findVictim(page -> {
+            final CachedPage cPage = (CachedPage) page;
+            final BufferCachePartition owner = cPage.getPartition();
+            final boolean reserved = owner != null && owner != requester && owner.isReserved();
+            if (!reserved && (atMaxQuota ? owner == requester : !overQuota || owner != null && owner.isOverQuota())) {
+                return true;
+            }
+            if (!reserved && fallback[0] == null) {
+                fallback[0] = cPage;
+            } else if (owner != null) {
+                owner.offerVictimCandidate(cPage);
+            }
+            return false;
+        });
+        if (victim == null && fallback[0] != null) {
+            final BufferCachePartition owner = fallback[0].getPartition();
+            if (owner == null || owner == requester || !owner.isReserved()) {
+                victim = fallback[0];
+            }
+        }
+        return victim;
+    }
+
     private CachedPage findTargetInBucket(long dpid, CachedPage cPage, CachedPage victim) {
         while (cPage != null) {
             if (cPage.dpid == dpid) {
@@ -464,6 +584,15 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             }
         }
         buffer.append("Number of cached pages: ").append(nCachedPages).append('\n');
+        if (readAheadPages > 0) {
+            buffer.append("Read-ahead pages: ").append(readAheadPages).append('\n');
+            buffer.append("Read-ahead requested pages: ").append(readAheadRequestedPages.get()).append('\n');
+            buffer.append("Read-ahead hits: ").append(readAheadHits.get()).append('\n');
+            buffer.append("Read-ahead misses: ").append(readAheadMisses.get()).append('\n');
+        }
+        for (BufferCachePartition partition : getPartitions()) {
+            buffer.append("Partition ").append(partition).append('\n');
+        }
         if (DEBUG) {
             confiscateLock.lock();
             try {
@@ -517,6 +646,181 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         return false;
     }
 
+    /**
+     * Waits for an in-flight read-ahead of the page to complete. Must be called while holding the page's monitor.
+     */
+    private void awaitReadAhead(CachedPage cPage) throws HyracksDataException {
+        try {
+            while (cPage.readAheadPending) {
+                cPage.wait();
+            }
+        } catch (InterruptedException e) {
+            unpin(cPage);
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Called after a sequential pin of a valid page. A page that had to be read from disk starts a new read-ahead
+     * window after it. Pinning the first page of a window that was read ahead starts reading the next window so
+     * that the scan never waits on disk as long as the reads keep up with it.
+     */
+    private void readAhead(CachedPage cPage, boolean readFromDisk) {
+        final long dpid = cPage.dpid;
+        final int pageId = BufferedFileHandle.getPageId(dpid);
+        if (readFromDisk) {
+            readAheadMisses.incrementAndGet();
+            scheduleReadAhead(BufferedFileHandle.getFileId(dpid), pageId + 1);
+            return;
+        }
+        if (cPage.readAhead) {
+            cPage.readAhead = false;
+            readAheadHits.incrementAndGet();
+        }
+        if (cPage.readAheadTrigger) {
+            cPage.readAheadTrigger = false;
+            scheduleReadAhead(BufferedFileHandle.getFileId(dpid), pageId + readAheadPages);
+        }
+    }
+
+    private void scheduleReadAhead(int fileId, int firstPageId) {
+        if (closed || numReadAheadsInFlight.incrementAndGet() > MAX_CONCURRENT_READ_AHEADS) {
+            // too many read-aheads in flight. the scan will fall back to synchronous reads
+            numReadAheadsInFlight.decrementAndGet();
+            return;
+        }
+        // register the read-ahead before pinning any page so that closing the file waits for it
+        synchronized (readAheadsInFlight) {
+            readAheadsInFlight.merge(fileId, 1, Integer::sum);
+        }
+        boolean scheduled = false;
+        try {
+            final BufferedFileHandle fInfo = getFileHandle(fileId);
+            final int lastPageId = Math.min(firstPageId + readAheadPages, fInfo.getNumberOfPages()) - 1;
+            final CachedPage[] pages = new CachedPage[readAheadPages];
+            int numPages = 0;
+            for (int pageId = firstPageId; pageId <= lastPageId; pageId++) {
+                // never wait for a victim; read-ahead is only worth it when there is room in the cache
+                CachedPage page = (CachedPage) findPageInner(BufferedFileHandle.getDiskPageId(fileId, pageId));
+                if (page == null) {
+                    break;
+                }
+                synchronized (page) {
+                    if (page.valid || page.readAheadPending) {
+                        page.pinCount.decrementAndGet();
+                        page = null;
+                    } else {
+                        page.readAheadPending = true;
+                    }
+                }
+                if (page == null) {
+                    // the rest of the window is either cached or being read already
+                    break;
+                }
+                pages[numPages++] = page;
+            }
+            if (numPages > 0) {
+                pages[0].readAheadTrigger = true;
+                readAheadRequestedPages.addAndGet(numPages);
+                executor.execute(new ReadAheadTask(fInfo, pages, numPages));
+                scheduled = true;
+            }
+        } catch (Exception e) {
+            // read-ahead is only a hint. the pages will be read when they are pinned
+            LOGGER.debug("Failed to schedule a read-ahead for file {}", fileId, e);
+
+        } finally {
+            if (!scheduled) {
+                readAheadCompleted(fileId);
+            }
+        }
+    }
+
+    private class ReadAheadTask implements Runnable {
+        private final BufferedFileHandle fInfo;
+        private final CachedPage[] pages;
+        private final int numPages;
+
+        private ReadAheadTask(BufferedFileHandle fInfo, CachedPage[] pages, int numPages) {
+            this.fInfo = fInfo;
+            this.pages = pages;
+            this.numPages = numPages;
+        }
+
+        @Override
+        public void run() {
+            int numPagesRead = 0;
+            ByteBuffer staging = readAheadBuffers.poll();
+            try {
+                if (staging == null) {
+                    staging = ByteBuffer.allocate(readAheadPages * getPageSizeWithHeader());
+                }
+                numPagesRead = fInfo.read(pages, numPages, staging);
+            } catch (Exception e) {
+                // pages that were not read are left invalid and are read again when they are pinned
+                LOGGER.debug("Read-ahead of file {} failed", fInfo.getFileId(), e);
+
+            } finally {
+                if (staging != null) {
+                    readAheadBuffers.offer(staging); //NOSONAR
+                }
+                for (int i = 0; i < numPages; i++) {
+                    final CachedPage page = pages[i];
+                    synchronized (page) {
+                        page.valid = i < numPagesRead;
+                        page.readAhead = page.valid;
+                        page.readAheadPending = false;
+                        page.notifyAll();
+                    }
+                    page.pinCount.decrementAndGet();
+                }
+                readAheadCompleted(fInfo.getFileId());
+            }
+        }
+    }
+
+    private void readAheadCompleted(int fileId) {
+        synchronized (readAheadsInFlight) {
+            readAheadsInFlight.computeIfPresent(fileId, (k, v) -> v > 1 ? v - 1 : null);
+            readAheadsInFlight.notifyAll();
+        }
+        numReadAheadsInFlight.decrementAndGet();
+    }
+
+    private void awaitReadAheads(int fileId) {
+        synchronized (readAheadsInFlight) {
+            try {
+                while (readAheadsInFlight.containsKey(fileId)) {
+                    readAheadsInFlight.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the number of pages that were requested by read-aheads
+     */
+    public long getReadAheadRequestedPages() {
+        return readAheadRequestedPages.get();
+    }
+
+    /**
+     * @return the number of sequential pins of pages that were brought in by a read-ahead
+     */
+    public long getReadAheadHits() {
+        return readAheadHits.get();
+    }
+
+    /**
+     * @return the number of sequential pins that had to read the page from disk
+     */
+    public long getReadAheadMisses() {
+        return readAheadMisses.get();
+    }
+
     private void tryRead(CachedPage cPage) throws HyracksDataException {
         for (int i = 1; i <= MAX_PAGE_READ_ATTEMPTS; i++) {
             try {
@@ -819,6 +1123,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                         sweepAndFlush(fh, true);
                         entry.getValue().close();
                         fileInfoMap.remove(entryFileId);
+                        filePartitions.remove(entryFileId);
                         unreferencedFileFound = true;
                         // for-each iterator is invalid because we changed
                         // fileInfoMap
@@ -839,6 +1144,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
             return;
         }
         final int fileId = fInfo.getFileId();
+        // read-aheads keep their pages pinned until the read completes
+        awaitReadAheads(fileId);
         for (final CacheBucket bucket : pageMap) {
             bucket.bucketLock.lock();
             try {
@@ -1093,6 +1400,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                 assert old == victim;
             }
         }
+        victim.setPartition(null);
         return true;
     }
 
@@ -1202,6 +1510,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
         // if we found a page after all that, go ahead and finish
         if (returnPage != null) {
+            ((CachedPage) returnPage).setPartition(null);
             ((CachedPage) returnPage).confiscated.set(true);
             if (DEBUG) {
                 confiscateLock.lock();
@@ -1220,6 +1529,12 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private BufferedFileHandle getOrCreateFileHandle(int fileId) throws HyracksDataException {
         synchronized (fileInfoMap) {
             final FileReference fileRef = fileMapManager.lookupFileName(fileId);
+            if (partitionResolver != null && !filePartitions.containsKey(fileId)) {
+                final BufferCachePartition partition = partitionResolver.resolve(fileRef);
+                if (partition != null) {
+                    filePartitions.put(fileId, partition);
+                }
+            }
             return fileInfoMap.computeIfAbsent(fileId, id -> BufferedFileHandle.create(fileRef, fileId, this, ioManager,
                     headerPageCache, pageReplacementStrategy));
         }
@@ -1227,6 +1542,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
 
     private BufferedFileHandle removeFileHandle(int fileId) {
         synchronized (fileInfoMap) {
+            filePartitions.remove(fileId);
             return fileInfoMap.remove(fileId);
         }
     }
@@ -61,12 +61,19 @@ public class BufferCacheHeaderHelper {
     }
 
     public ByteBuffer processHeader(CachedPage cPage) {
-        cPage.setFrameSizeMultiplier(buf.getInt(FRAME_MULTIPLIER_OFF));
-        cPage.setExtraBlockPageId(buf.getInt(EXTRA_BLOCK_PAGE_ID_OFF));
+        processHeader(cPage, buf, 0);
         buf.position(RESERVED_HEADER_BYTES);
         return buf;
     }
 
+    /**
+     * Set the page info of the CachedPage from a header that starts at {@code headerOffset} of {@code buffer}
+     */
+    public static void processHeader(CachedPage cPage, ByteBuffer buffer, int headerOffset) {
+        cPage.setFrameSizeMultiplier(buffer.getInt(headerOffset + FRAME_MULTIPLIER_OFF));
+        cPage.setExtraBlockPageId(buffer.getInt(headerOffset + EXTRA_BLOCK_PAGE_ID_OFF));
+    }
+
     private void setPageInfo(CachedPage cPage) {
         buf.putInt(FRAME_MULTIPLIER_OFF, cPage.getFrameSizeMultiplier());
         buf.putInt(EXTRA_BLOCK_PAGE_ID_OFF, cPage.getExtraBlockPageId());
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A named share of the {@link BufferCache} pages. Pages of a partition that holds no more than its minimum number
+ * of pages are not evicted to make room for pages of other partitions. When a partition holds more than its maximum
+ * number of pages, pages of partitions that exceed their maximum are evicted before any other page.
+ */
+public class BufferCachePartition {
+    private final String name;
+    private final int minPages;
+    private final int maxPages;
+    private final AtomicInteger numPages = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicReference<CachedPage> victimCandidate = new AtomicReference<>();
+
+    public BufferCachePartition(String name, int minPages, int maxPages) {
+        if (minPages < 0 || maxPages < minPages) {
+            throw new IllegalArgumentException(
+                    "Invalid quota of buffer cache partition " + name + ": [" + minPages + ", " + maxPages + "]");
+        }
+        this.name = name;
+        this.minPages = minPages;
+        this.maxPages = maxPages;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinPages() {
+        return minPages;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public int getNumPages() {
+        return numPages.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public boolean isReserved() {
+        return numPages.get() <= minPages;
+    }
+
+    public boolean isOverQuota() {
+        return numPages.get() > maxPages;
+    }
+
+    void pageAdded() {
+        numPages.incrementAndGet();
+    }
+
+    void pageRemoved() {
+        numPages.decrementAndGet();
+    }
+
+    /**
+     * Remembers a page of this partition that the replacement strategy offered as a victim to a request that could
+     * not take it
+     */
+    void offerVictimCandidate(CachedPage cPage) {
+        victimCandidate.set(cPage);
+    }
+
+    /**
+     * @return the remembered victim candidate if it still belongs to this partition and can be replaced, null
+     *         otherwise. The candidate is forgotten either way.
+     */
+    CachedPage takeVictimCandidate() {
+        final CachedPage cPage = victimCandidate.getAndSet(null);
+        return cPage != null && cPage.getPartition() == this && cPage.isGoodVictim() ? cPage : null;
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [pages: " + numPages.get() + ", min: " + minPages + ", max: " + maxPages + ", hits: "
+                + hits.get() + ", misses: " + misses.get() + "]";
+    }
+}
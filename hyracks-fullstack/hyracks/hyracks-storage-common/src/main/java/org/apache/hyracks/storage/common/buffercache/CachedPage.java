@@ -41,6 +41,14 @@ public class CachedPage implements ICachedPageInternal {
     volatile long dpid; // disk page id (composed of file id and page id)
     CachedPage next;
     volatile boolean valid;
+    // the page is being read by an asynchronous read-ahead. guarded by the page's monitor
+    boolean readAheadPending;
+    // the page was brought in by a read-ahead and has not been pinned since
+    volatile boolean readAhead;
+    // pinning this page sequentially triggers the read-ahead of the next window
+    volatile boolean readAheadTrigger;
+    // the partition this page is accounted to, if any
+    private volatile BufferCachePartition partition;
     final AtomicBoolean confiscated;
     private IQueueInfo queueInfo;
     private int multiplier;
@@ -89,12 +97,32 @@ public class CachedPage implements ICachedPageInternal {
         this.dpid = dpid;
         dirty.set(false);
         valid = false;
+        readAhead = false;
+        readAheadTrigger = false;
+        setPartition(null);
         confiscated.set(false);
         pageReplacementStrategy.notifyCachePageReset(this);
         queueInfo = null;
         failureCallback = null;
     }
 
+    BufferCachePartition getPartition() {
+        return partition;
+    }
+
+    void setPartition(BufferCachePartition newPartition) {
+        final BufferCachePartition oldPartition = partition;
+        if (oldPartition != newPartition) {
+            if (oldPartition != null) {
+                oldPartition.pageRemoved();
+            }
+            if (newPartition != null) {
+                newPartition.pageAdded();
+            }
+            partition = newPartition;
+        }
+    }
+
     public void invalidate() {
         reset(-1);
     }
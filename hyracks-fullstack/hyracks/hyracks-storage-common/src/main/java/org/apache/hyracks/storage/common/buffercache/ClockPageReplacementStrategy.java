@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.logging.log4j.LogManager;
@@ -82,9 +83,18 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
 
     @Override
     public ICachedPageInternal findVictim(int multiplier) {
+        return findVictim(multiplier, null);
+    }
+
+    @Override
+    public ICachedPageInternal findVictim(Predicate<ICachedPageInternal> filter) {
+        return findVictim(1, filter);
+    }
+
+    private ICachedPageInternal findVictim(int multiplier, Predicate<ICachedPageInternal> filter) {
         while (numPages.get() + multiplier > maxAllowedNumPages) {
             // TODO: is dropping pages on the floor enough to adhere to memory budget?
-            ICachedPageInternal victim = findVictimByEviction();
+            ICachedPageInternal victim = findVictimByEviction(filter);
             if (victim == null) {
                 return null;
             }
@@ -99,7 +109,7 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         return allocatePage(multiplier);
     }
 
-    private ICachedPageInternal findVictimByEviction() {
+    private ICachedPageInternal findVictimByEviction(Predicate<ICachedPageInternal> filter) {
         //check if we're starved from confiscation
         assert (maxAllowedNumPages > 0);
         int clockPtr = advanceClock();
@@ -112,17 +122,13 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
             if (cPage != null) {
                 /*
                  * We do two things here:
-                 * 1. If the page has been accessed, then we skip it -- The CAS would return
-                 * false if the current value is false which makes the page a possible candidate
-                 * for replacement.
+                 * 1. We ask the strategy whether the page is a possible candidate for replacement,
+                 * advancing its replacement state as the clock passes over it.
                  * 2. We check with the buffer manager if it feels it's a good idea to use this
                  * page as a victim.
                  */
-                AtomicBoolean accessedFlag = getPerPageObject(cPage);
-                if (!accessedFlag.compareAndSet(true, false)) {
-                    if (cPage.isGoodVictim()) {
-                        return cPage;
-                    }
+                if (sweep(cPage, cycleCount) && cPage.isGoodVictim() && (filter == null || filter.test(cPage))) {
+                    return cPage;
                 }
             }
             if (clockPtr < lastClockPtr) {
@@ -144,6 +150,21 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         }
     }
 
+    /**
+     * Called when the clock passes over a page while looking for a victim.
+     * If the page has been accessed, then we skip it -- The CAS would return false if the current
+     * value is false which makes the page a possible candidate for replacement.
+     *
+     * @param cPage
+     *            the page under the clock
+     * @param cycleCount
+     *            the number of complete clock cycles made so far without finding a victim
+     * @return true if the page is a candidate for replacement, false otherwise
+     */
+    protected boolean sweep(ICachedPageInternal cPage, int cycleCount) {
+        return !getPerPageObject(cPage).compareAndSet(true, false);
+    }
+
     @Override
     public int getNumPages() {
         return numPages.get();
@@ -209,7 +230,7 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
 
     private void ensureBudgetForLargePages(int delta) {
         while (numPages.get() + delta > maxAllowedNumPages) {
-            ICachedPageInternal victim = findVictimByEviction();
+            ICachedPageInternal victim = findVictimByEviction(null);
             if (victim != null) {
                 final int victimMultiplier = victim.getFrameSizeMultiplier();
                 if (bufferCache.removePage(victim)) {
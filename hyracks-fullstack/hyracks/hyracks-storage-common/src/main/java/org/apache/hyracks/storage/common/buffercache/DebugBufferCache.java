@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -83,6 +84,13 @@ public class DebugBufferCache implements IBufferCache {
         return page;
     }
 
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(dpid, newPage, sequential);
+        pinCount.addAndGet(1);
+        return page;
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         bufferCache.unpin(page);
@@ -104,6 +112,11 @@ public class DebugBufferCache implements IBufferCache {
         return bufferCache.getPageBudget();
     }
 
+    @Override
+    public List<BufferCachePartition> getPartitions() {
+        return bufferCache.getPartitions();
+    }
+
     @Override
     public void close() throws HyracksDataException {
         bufferCache.close();
@@ -18,6 +18,9 @@
  */
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
@@ -104,6 +107,23 @@ public interface IBufferCache {
      */
     ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException;
 
+    /**
+     * Pin the page so it can't be evicted from the buffer cache...
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @param newPage
+     *            whether this page is expected to be new.
+     * @param sequential
+     *            whether the page is pinned as part of a sequential scan. Pages pinned by sequential
+     *            scans are not considered recently used by scan-resistant replacement strategies
+     * @return the pinned page
+     * @throws HyracksDataException
+     */
+    default ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        return pin(dpid, newPage);
+    }
+
     /**
      * Unpin a pinned page so its buffer can be recycled
      *
@@ -201,6 +221,14 @@ public interface IBufferCache {
      */
     int getPageBudget();
 
+    /**
+     * @return the partitions that the pages of this buffer cache are accounted to, empty if the pages are not
+     *         partitioned
+     */
+    default List<BufferCachePartition> getPartitions() {
+        return Collections.emptyList();
+    }
+
     /**
      * Get the number of pages used for a file
      *
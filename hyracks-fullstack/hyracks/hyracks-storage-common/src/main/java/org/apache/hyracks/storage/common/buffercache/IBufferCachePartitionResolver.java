@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.List;
+
+import org.apache.hyracks.api.io.FileReference;
+
+/**
+ * Maps the files of a {@link BufferCache} to its partitions
+ */
+public interface IBufferCachePartitionResolver {
+
+    /**
+     * @param fileRef
+     *            a file that is being opened in the buffer cache
+     * @return the partition the pages of the file are accounted to or null if the pages are not subject to any quota
+     */
+    BufferCachePartition resolve(FileReference fileRef);
+
+    /**
+     * @return all the partitions that files may be resolved to
+     */
+    List<BufferCachePartition> getPartitions();
+}
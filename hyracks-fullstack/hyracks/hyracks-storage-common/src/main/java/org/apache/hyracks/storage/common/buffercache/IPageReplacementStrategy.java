@@ -18,6 +18,8 @@
  */
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.util.function.Predicate;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
 public interface IPageReplacementStrategy {
@@ -31,12 +33,34 @@ public interface IPageReplacementStrategy {
 
     public void notifyCachePageAccess(ICachedPageInternal cPage);
 
+    /**
+     * Notify the strategy that the page was accessed as part of a sequential scan. A sequential access is not
+     * an indication that the page will be accessed again soon, so strategies may keep such pages as eviction
+     * candidates instead of treating them as recently used.
+     *
+     * @param cPage
+     *            the accessed page
+     */
+    default void notifyCachePageSequentialAccess(ICachedPageInternal cPage) {
+        notifyCachePageAccess(cPage);
+    }
+
     public void adviseWontNeed(ICachedPageInternal cPage);
 
     public ICachedPageInternal findVictim();
 
     public ICachedPageInternal findVictim(int multiplier);
 
+    /**
+     * Find a victim among the pages that the filter accepts. Pages that the filter rejects are passed over like
+     * pages that cannot be replaced.
+     *
+     * @param filter
+     *            tells whether a page that can be replaced may be the victim
+     * @return the victim or null if no page was accepted
+     */
+    public ICachedPageInternal findVictim(Predicate<ICachedPageInternal> filter);
+
     public int getNumPages();
 
     void fixupCapacityOnLargeRead(ICachedPageInternal cPage) throws HyracksDataException;
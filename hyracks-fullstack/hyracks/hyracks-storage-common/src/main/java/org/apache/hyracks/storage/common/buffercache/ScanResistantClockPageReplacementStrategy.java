@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A 2Q-like variant of the clock replacement strategy. Pages enter the cache on probation and are only
+ * promoted to the protected (hot) set once they are accessed again after the access that brought them in.
+ * The clock evicts probationary pages first and demotes protected pages back to probation only when the
+ * protected set grows beyond its share of the cache or when no probationary victim could be found.
+ * Accesses made by sequential scans never promote a page, so a single pass over a large component does not
+ * displace the pages used by point lookups.
+ */
+public class ScanResistantClockPageReplacementStrategy extends ClockPageReplacementStrategy {
+    public static final double DEFAULT_PROTECTED_RATIO = 0.75;
+
+    // page was (re)loaded and has not been accessed yet
+    private static final int NEW = 0;
+    // probationary page that has not been accessed since the clock last passed it
+    private static final int PROBATION = 1;
+    // probationary page that has been accessed again and will be promoted when the clock passes it
+    private static final int PROBATION_REFERENCED = 2;
+    // protected page that has not been accessed since the clock last passed it
+    private static final int PROTECTED = 3;
+    // protected page that has been accessed since the clock last passed it
+    private static final int PROTECTED_REFERENCED = 4;
+
+    private final int maxProtectedPages;
+    private final AtomicInteger numProtectedPages;
+
+    public ScanResistantClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize,
+            int maxAllowedNumPages) {
+        this(allocator, pageSize, maxAllowedNumPages, DEFAULT_PROTECTED_RATIO);
+    }
+
+    public ScanResistantClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize,
+            int maxAllowedNumPages, double protectedRatio) {
+        super(allocator, pageSize, maxAllowedNumPages);
+        if (protectedRatio < 0 || protectedRatio >= 1) {
+            throw new IllegalArgumentException("Invalid protected pages ratio: " + protectedRatio);
+        }
+        this.maxProtectedPages = (int) (maxAllowedNumPages * protectedRatio);
+        this.numProtectedPages = new AtomicInteger(0);
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger(NEW);
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        moveToProbation(cPage, NEW);
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        AtomicInteger state = getPageState(cPage);
+        while (true) {
+            int current = state.get();
+            int next;
+            switch (current) {
+                case NEW:
+                    next = PROBATION;
+                    break;
+                case PROBATION:
+                    next = PROBATION_REFERENCED;
+                    break;
+                case PROTECTED:
+                    next = PROTECTED_REFERENCED;
+                    break;
+                default:
+                    return;
+            }
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void notifyCachePageSequentialAccess(ICachedPageInternal cPage) {
+        // a sequential access only moves a newly read page into probation. it never counts as a re-access
+        getPageState(cPage).compareAndSet(NEW, PROBATION);
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        moveToProbation(cPage, PROBATION);
+    }
+
+    @Override
+    protected boolean sweep(ICachedPageInternal cPage, int cycleCount) {
+        AtomicInteger state = getPageState(cPage);
+        int current = state.get();
+        switch (current) {
+            case NEW:
+            case PROBATION:
+                return true;
+            case PROBATION_REFERENCED:
+                if (state.compareAndSet(PROBATION_REFERENCED, PROTECTED)) {
+                    numProtectedPages.incrementAndGet();
+                }
+                return false;
+            case PROTECTED_REFERENCED:
+                state.compareAndSet(PROTECTED_REFERENCED, PROTECTED);
+                return false;
+            case PROTECTED:
+                // only demote protected pages when the protected set is over its budget or when a whole clock
+                // cycle could not find a probationary victim
+                if ((cycleCount > 0 || numProtectedPages.get() > maxProtectedPages)
+                        && state.compareAndSet(PROTECTED, PROBATION)) {
+                    numProtectedPages.decrementAndGet();
+                }
+                return false;
+            default:
+                throw new IllegalStateException("Unknown page replacement state: " + current);
+        }
+    }
+
+    public int getNumProtectedPages() {
+        return numProtectedPages.get();
+    }
+
+    public int getMaxProtectedPages() {
+        return maxProtectedPages;
+    }
+
+    private void moveToProbation(ICachedPageInternal cPage, int newState) {
+        int previous = getPageState(cPage).getAndSet(newState);
+        if (previous == PROTECTED || previous == PROTECTED_REFERENCED) {
+            numProtectedPages.decrementAndGet();
+        }
+    }
+
+    private static AtomicInteger getPageState(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Built-in LZ4 compressor/decompressor wrapper. Level 0 uses the fast LZ4 compressor and levels 1 to 17 use the
+ * LZ4 HC (high compression) compressor. Both produce the same format which is decompressed equally fast.
+ */
+public class Lz4CompressorDecompressor implements ICompressorDecompressor {
+    public static final int FAST_LEVEL = 0;
+    public static final int MAX_LEVEL = 17;
+    private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    protected Lz4CompressorDecompressor(int level) {
+        compressor = level == FAST_LEVEL ? FACTORY.fastCompressor() : FACTORY.highCompressor(level);
+        decompressor = FACTORY.safeDecompressor();
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uncompressedBufferSize) {
+        return compressor.maxCompressedLength(uncompressedBufferSize);
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        try {
+            final int cLength = compressor.compress(uBuffer.array(), uBuffer.position(), uBuffer.remaining(),
+                    cBuffer.array(), cBuffer.position(), cBuffer.remaining());
+            cBuffer.limit(cBuffer.position() + cLength);
+            return cBuffer;
+        } catch (LZ4Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        try {
+            final int uLength = decompressor.decompress(cBuffer.array(), cBuffer.position(), cBuffer.remaining(),
+                    uBuffer.array(), uBuffer.position(), uBuffer.remaining());
+            uBuffer.limit(uBuffer.position() + uLength);
+            return uBuffer;
+        } catch (LZ4Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
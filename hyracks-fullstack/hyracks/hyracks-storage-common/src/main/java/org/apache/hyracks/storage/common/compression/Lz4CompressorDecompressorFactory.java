@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class Lz4CompressorDecompressorFactory implements ICompressorDecompressorFactory {
+    private static final long serialVersionUID = 1L;
+    private final int level;
+
+    public Lz4CompressorDecompressorFactory() {
+        this(Lz4CompressorDecompressor.FAST_LEVEL);
+    }
+
+    public Lz4CompressorDecompressorFactory(int level) {
+        if (level < Lz4CompressorDecompressor.FAST_LEVEL || level > Lz4CompressorDecompressor.MAX_LEVEL) {
+            throw new IllegalArgumentException("Invalid LZ4 compression level: " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    public ICompressorDecompressor createInstance() {
+        return new Lz4CompressorDecompressor(level);
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        final ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
+        json.put("level", level);
+        return json;
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        return new Lz4CompressorDecompressorFactory(json.get("level").asInt());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdException;
+
+/**
+ * Built-in Zstandard compressor/decompressor wrapper. If a dictionary is given, it is used for both compression and
+ * decompression. Dictionaries trained on samples of the stored pages improve the compression ratio of small pages.
+ */
+public class ZstdCompressorDecompressor implements ICompressorDecompressor {
+    private final int level;
+    private final ZstdDictCompress compressDictionary;
+    private final ZstdDictDecompress decompressDictionary;
+
+    protected ZstdCompressorDecompressor(int level, byte[] dictionary) {
+        this.level = level;
+        if (dictionary != null) {
+            compressDictionary = new ZstdDictCompress(dictionary, level);
+            decompressDictionary = new ZstdDictDecompress(dictionary);
+        } else {
+            compressDictionary = null;
+            decompressDictionary = null;
+        }
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uncompressedBufferSize) {
+        return (int) Zstd.compressBound(uncompressedBufferSize);
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        final long cLength;
+        try {
+            if (compressDictionary == null) {
+                cLength = Zstd.compressByteArray(cBuffer.array(), cBuffer.position(), cBuffer.remaining(),
+                        uBuffer.array(), uBuffer.position(), uBuffer.remaining(), level);
+            } else {
+                cLength = Zstd.compressFastDict(cBuffer.array(), cBuffer.position(), uBuffer.array(),
+                        uBuffer.position(), uBuffer.remaining(), compressDictionary);
+            }
+        } catch (ZstdException e) {
+            throw HyracksDataException.create(e);
+        }
+        cBuffer.limit(cBuffer.position() + checkResult(cLength));
+        return cBuffer;
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        final long uLength;
+        try {
+            if (decompressDictionary == null) {
+                uLength = Zstd.decompressByteArray(uBuffer.array(), uBuffer.position(), uBuffer.remaining(),
+                        cBuffer.array(), cBuffer.position(), cBuffer.remaining());
+            } else {
+                uLength = Zstd.decompressFastDict(uBuffer.array(), uBuffer.position(), cBuffer.array(),
+                        cBuffer.position(), cBuffer.remaining(), decompressDictionary);
+            }
+        } catch (ZstdException e) {
+            throw HyracksDataException.create(e);
+        }
+        uBuffer.limit(uBuffer.position() + checkResult(uLength));
+        return uBuffer;
+    }
+
+    private static int checkResult(long result) throws HyracksDataException {
+        if (Zstd.isError(result)) {
+            throw new HyracksDataException("Zstd failure: " + Zstd.getErrorName(result));
+        }
+        return (int) result;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.io.IOException;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.luben.zstd.Zstd;
+
+/**
+ * The (optional) dictionary is persisted along with the factory so that the pages stay readable regardless of
+ * where the dictionary was loaded from.
+ */
+public class ZstdCompressorDecompressorFactory implements ICompressorDecompressorFactory {
+    public static final int DEFAULT_LEVEL = 3;
+    private static final long serialVersionUID = 1L;
+    private final int level;
+    private final byte[] dictionary;
+
+    public ZstdCompressorDecompressorFactory() {
+        this(DEFAULT_LEVEL, null);
+    }
+
+    public ZstdCompressorDecompressorFactory(int level, byte[] dictionary) {
+        if (level < Zstd.minCompressionLevel() || level > Zstd.maxCompressionLevel()) {
+            throw new IllegalArgumentException("Invalid Zstd compression level: " + level);
+        }
+        this.level = level;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ICompressorDecompressor createInstance() {
+        return new ZstdCompressorDecompressor(level, dictionary);
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        final ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
+        json.put("level", level);
+        if (dictionary != null) {
+            json.put("dictionary", dictionary);
+        }
+        return json;
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json)
+            throws HyracksDataException {
+        try {
+            final byte[] dictionary = json.has("dictionary") ? json.get("dictionary").binaryValue() : null;
+            return new ZstdCompressorDecompressorFactory(json.get("level").asInt(), dictionary);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
@@ -87,6 +87,30 @@ public class BufferedFileHandle extends AbstractBufferedFileIOManager {
         readExtraPages(cPage);
     }
 
+    @Override
+    public int read(CachedPage[] cPages, int numPages, ByteBuffer staging) throws HyracksDataException {
+        final int pageSizeWithHeader = bufferCache.getPageSizeWithHeader();
+        staging.clear();
+        staging.limit(numPages * pageSizeWithHeader);
+        final long bytesRead = readToBuffer(staging, getFirstPageOffset(cPages[0]));
+        final int numPagesRead = bytesRead < 0 ? 0 : (int) Math.min(numPages, bytesRead / pageSizeWithHeader);
+        for (int i = 0; i < numPagesRead; i++) {
+            final CachedPage cPage = cPages[i];
+            final int headerOffset = i * pageSizeWithHeader;
+            staging.limit(headerOffset + pageSizeWithHeader);
+            BufferCacheHeaderHelper.processHeader(cPage, staging, headerOffset);
+            staging.position(headerOffset + BufferCache.RESERVED_HEADER_BYTES);
+            cPage.getBuffer().clear();
+            cPage.getBuffer().put(staging);
+            if (cPage.isLargePage()) {
+                // the pages that follow may hold the rest of this large page rather than pages with headers
+                readExtraPages(cPage);
+                return i + 1;
+            }
+        }
+        return numPagesRead;
+    }
+
     private void readExtraPages(CachedPage cPage) throws HyracksDataException {
         final int totalPages = cPage.getFrameSizeMultiplier();
         if (totalPages > 1) {
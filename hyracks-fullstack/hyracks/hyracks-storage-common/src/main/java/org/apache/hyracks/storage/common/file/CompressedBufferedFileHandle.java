@@ -73,6 +73,24 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
         }
     }
 
+    /**
+     * Compressed pages have their own sizes and offsets in the file. So, a run of pages cannot be read with a single
+     * request and each page is looked up and decompressed on its own.
+     */
+    @Override
+    public int read(CachedPage[] cPages, int numPages, ByteBuffer staging) throws HyracksDataException {
+        for (int i = 0; i < numPages; i++) {
+            final CachedPage cPage = cPages[i];
+            cPage.getBuffer().clear();
+            read(cPage);
+            if (cPage.isLargePage()) {
+                // the page ids that follow hold the rest of this large page
+                return i + 1;
+            }
+        }
+        return numPages;
+    }
+
     private void readExtraPages(CachedPage cPage, ByteBuffer cBuffer) throws HyracksDataException {
         final ByteBuffer uBuffer = cPage.getBuffer();
 
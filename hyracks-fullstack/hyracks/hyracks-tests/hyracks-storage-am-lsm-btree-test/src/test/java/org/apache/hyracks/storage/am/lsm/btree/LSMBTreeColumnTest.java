@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.SerdeUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrameFactory;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.CheckTuple;
+import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.common.tuples.TypeAwareTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnLeafFrameFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.ColumnTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.HalvingColumnShredderFactory;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("rawtypes")
+public class LSMBTreeColumnTest {
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils testUtils = new OrderedIndexTestUtils();
+    private final ISerializerDeserializer[] fieldSerdes = { IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private final int numKeys = 1;
+    private static final int numTuplesToInsert = 500;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        harness.tearDown();
+    }
+
+    private OrderedIndexTestContext createTestContext() throws Exception {
+        return LSMBTreeTestContext.create(harness.getIOManager(), harness.getVirtualBufferCaches(),
+                harness.getFileReference(), harness.getDiskBufferCache(), fieldSerdes, numKeys,
+                harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(), harness.getOperationTracker(),
+                harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getMetadataPageManagerFactory(), false, true, false, HalvingColumnShredderFactory.INSTANCE);
+    }
+
+    @Test
+    public void testDeletesAcrossComponents() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext();
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        flush(ctx);
+        // the antimatter tuples of the deletes are written to the second disk component
+        testUtils.deleteTuples(ctx, numTuplesToInsert / 2, harness.getRandom());
+        testUtils.insertIntTuples(ctx, numTuplesToInsert / 4, harness.getRandom());
+        flush(ctx);
+        Assert.assertEquals(2, ((LSMBTree) ctx.getIndex()).getDiskComponents().size());
+        testUtils.checkPointSearches(ctx);
+        testUtils.checkScan(ctx);
+
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndexAccessor();
+        accessor.scheduleMerge(((LSMBTree) ctx.getIndex()).getDiskComponents());
+        Assert.assertEquals(1, ((LSMBTree) ctx.getIndex()).getDiskComponents().size());
+        testUtils.checkPointSearches(ctx);
+        testUtils.checkScan(ctx);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext();
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        flush(ctx);
+
+        // only read the first column (i.e., the two high order bytes) of the shredded field
+        BitSet projection = new BitSet();
+        projection.set(0);
+        IndexAccessParameters iap =
+                new IndexAccessParameters(NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+        iap.getParameters().put(HyracksConstants.COLUMN_PROJECTION, projection);
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndex().createAccessor(iap);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        Iterator<CheckTuple> checkTuples = ctx.getCheckTuples().iterator();
+        try {
+            accessor.search(cursor, new RangePredicate(null, null, true, true, null, null));
+            while (cursor.hasNext()) {
+                cursor.next();
+                ITupleReference tuple = cursor.getTuple();
+                CheckTuple checkTuple = checkTuples.next();
+                Assert.assertEquals(checkTuple.getField(0), getInt(tuple, 0));
+                Assert.assertEquals(Short.BYTES, tuple.getFieldLength(1));
+                int expected = (Integer) checkTuple.getField(1) >>> Short.SIZE;
+                int actual = ((tuple.getFieldData(1)[tuple.getFieldStart(1)] & 0xFF) << Byte.SIZE)
+                        | (tuple.getFieldData(1)[tuple.getFieldStart(1) + 1] & 0xFF);
+                Assert.assertEquals(expected, actual);
+                Assert.assertEquals(checkTuple.getField(2), getInt(tuple, 2));
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        Assert.assertFalse(checkTuples.hasNext());
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    @Test
+    public void testModifiableTreeRejectsColumnPages() throws Exception {
+        ITypeTraits[] typeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
+        IBinaryComparatorFactory[] cmpFactories =
+                SerdeUtils.serdesToComparatorFactories(fieldSerdes, fieldSerdes.length);
+        ITreeIndexFrameFactory columnLeafFrameFactory = new ColumnLeafFrameFactory(
+                new ColumnTupleWriterFactory(typeTraits, numKeys, false), HalvingColumnShredderFactory.INSTANCE);
+        ITreeIndexFrameFactory interiorFrameFactory =
+                new BTreeNSMInteriorFrameFactory(new TypeAwareTupleWriterFactory(typeTraits));
+        IPageManager pageManager =
+                harness.getMetadataPageManagerFactory().createPageManager(harness.getDiskBufferCache());
+        try {
+            new BTree(harness.getDiskBufferCache(), pageManager, interiorFrameFactory, columnLeafFrameFactory,
+                    cmpFactories, fieldSerdes.length, harness.getFileReference());
+            Assert.fail("A tree that can be modified was created with column leaf pages");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        new DiskBTree(harness.getDiskBufferCache(), pageManager, interiorFrameFactory, columnLeafFrameFactory,
+                cmpFactories, fieldSerdes.length, harness.getFileReference());
+    }
+
+    private static int getInt(ITupleReference tuple, int field) {
+        return IntegerPointable.getInteger(tuple.getFieldData(field), tuple.getFieldStart(field));
+    }
+
+    private static void flush(OrderedIndexTestContext ctx) throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
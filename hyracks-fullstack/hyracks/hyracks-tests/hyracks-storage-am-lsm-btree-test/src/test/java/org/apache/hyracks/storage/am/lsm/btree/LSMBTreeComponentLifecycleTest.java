@@ -179,6 +179,36 @@ public class LSMBTreeComponentLifecycleTest {
         }
     }
 
+    @Test
+    public void testWrittenBytes() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext(fieldSerdes, numKeys);
+        ILSMIndex index = (ILSMIndex) ctx.getIndex();
+        index.create();
+        index.activate();
+        // flushing an unmodified component writes nothing
+        flush(ctx);
+        Assert.assertEquals(0, index.getFlushedBytes());
+        // bulk loads are not flushes
+        testUtils.bulkLoadIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        Assert.assertEquals(1, index.getDiskComponents().size());
+        Assert.assertEquals(0, index.getFlushedBytes());
+        long flushedBytes = 0;
+        for (int i = 0; i < 2; i++) {
+            testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+            flush(ctx);
+            flushedBytes += index.getDiskComponents().get(0).getComponentSize();
+            Assert.assertEquals(flushedBytes, index.getFlushedBytes());
+        }
+        Assert.assertEquals(0, index.getMergedBytes());
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) index.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        accessor.scheduleMerge(new ArrayList<>(index.getDiskComponents()));
+        Assert.assertEquals(1, index.getDiskComponents().size());
+        Assert.assertEquals(index.getDiskComponents().get(0).getComponentSize(), index.getMergedBytes());
+        Assert.assertEquals(flushedBytes, index.getFlushedBytes());
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
     @Test
     public void testFlushUnModifiedComponent() throws Exception {
         OrderedIndexTestContext ctx = createTestContext(fieldSerdes, numKeys);
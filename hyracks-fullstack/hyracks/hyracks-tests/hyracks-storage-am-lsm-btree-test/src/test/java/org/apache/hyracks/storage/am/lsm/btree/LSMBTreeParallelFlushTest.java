@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.config.AccessMethodTestsConfig;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests flushes whose key ranges are loaded concurrently into the disk component
+ */
+@SuppressWarnings("rawtypes")
+public class LSMBTreeParallelFlushTest {
+    private static final int FLUSH_PARALLELISM = 4;
+    private static final int NUM_TUPLES_TO_INSERT = 10000;
+    // large enough for the inserted tuples not to trigger flushes
+    private static final int MEM_NUM_PAGES = 16384;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils testUtils = new OrderedIndexTestUtils();
+    private final ISerializerDeserializer[] fieldSerdes = { IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private final int numKeys = 2;
+    private final AtomicInteger numThreads = new AtomicInteger();
+    private AsynchronousScheduler ioScheduler;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        ioScheduler = new AsynchronousScheduler(r -> new Thread(r, "LsmIoThread-" + numThreads.getAndIncrement()),
+                NoOpIoOperationFailedCallback.INSTANCE, FLUSH_PARALLELISM, 1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            ioScheduler.close();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testParallelFlush() throws Exception {
+        testFlushes(LSMBTreeMemoryComponentType.BTREE);
+    }
+
+    @Test
+    public void testParallelFlushOfSkipList() throws Exception {
+        testFlushes(LSMBTreeMemoryComponentType.SKIPLIST);
+    }
+
+    private void testFlushes(LSMBTreeMemoryComponentType memoryComponentType) throws Exception {
+        List<IVirtualBufferCache> virtualBufferCaches = new ArrayList<>();
+        for (int i = 0; i < harness.getVirtualBufferCaches().size(); i++) {
+            virtualBufferCaches.add(new VirtualBufferCache(new HeapBufferAllocator(),
+                    AccessMethodTestsConfig.LSM_BTREE_MEM_PAGE_SIZE, MEM_NUM_PAGES));
+        }
+        OrderedIndexTestContext ctx = LSMBTreeTestContext.create(harness.getIOManager(), virtualBufferCaches,
+                harness.getFileReference(), harness.getDiskBufferCache(), fieldSerdes, numKeys,
+                harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(), harness.getOperationTracker(),
+                ioScheduler, harness.getIOOperationCallbackFactory(), harness.getMetadataPageManagerFactory(), false,
+                true, false, null, memoryComponentType);
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        testUtils.insertIntTuples(ctx, NUM_TUPLES_TO_INSERT, harness.getRandom());
+        flush(ctx);
+        // the flush ran on the IO thread and on its workers
+        Assert.assertTrue(numThreads.get() > 1);
+        check(ctx);
+        // the second component shadows deleted and updated tuples of the first one
+        testUtils.deleteTuples(ctx, NUM_TUPLES_TO_INSERT / 4, harness.getRandom());
+        testUtils.upsertIntTuples(ctx, NUM_TUPLES_TO_INSERT / 2, harness.getRandom());
+        flush(ctx);
+        check(ctx);
+        // a small memory component is flushed by a single thread
+        testUtils.insertIntTuples(ctx, 10, harness.getRandom());
+        flush(ctx);
+        check(ctx);
+        Assert.assertEquals(3, ((LSMBTree) ctx.getIndex()).getDiskComponents().size());
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    private void check(OrderedIndexTestContext ctx) throws Exception {
+        testUtils.checkPointSearches(ctx);
+        testUtils.checkScan(ctx);
+        testUtils.checkRangeSearch(ctx, TupleUtils.createIntegerTuple(-1000),
+                TupleUtils.createIntegerTuple(NUM_TUPLES_TO_INSERT), true, false);
+    }
+
+    private static void flush(OrderedIndexTestContext ctx) throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
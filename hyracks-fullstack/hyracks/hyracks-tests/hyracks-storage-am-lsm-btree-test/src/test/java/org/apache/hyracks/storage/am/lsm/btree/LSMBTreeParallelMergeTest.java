@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.config.AccessMethodTestsConfig;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationWorkers;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests merges whose key ranges are merged concurrently into the merged component
+ */
+@SuppressWarnings("rawtypes")
+public class LSMBTreeParallelMergeTest {
+    private static final int MERGE_PARALLELISM = 4;
+    private static final int NUM_TUPLES_TO_INSERT = 10000;
+    // large enough for the inserted tuples not to trigger flushes
+    private static final int MEM_NUM_PAGES = 4096;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils testUtils = new OrderedIndexTestUtils();
+    private final ISerializerDeserializer[] fieldSerdes = { IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private final int numKeys = 2;
+    private final AtomicInteger numThreads = new AtomicInteger();
+    private AsynchronousScheduler ioScheduler;
+    private volatile boolean cancelMerges = false;
+    private volatile boolean interruptMerges = false;
+    private OrderedIndexTestContext ctx;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        ioScheduler = new AsynchronousScheduler(r -> new Thread(r, "LsmIoThread-" + numThreads.getAndIncrement()),
+                NoOpIoOperationFailedCallback.INSTANCE, 1, MERGE_PARALLELISM);
+        List<IVirtualBufferCache> virtualBufferCaches = new ArrayList<>();
+        for (int i = 0; i < harness.getVirtualBufferCaches().size(); i++) {
+            virtualBufferCaches.add(new VirtualBufferCache(new HeapBufferAllocator(),
+                    AccessMethodTestsConfig.LSM_BTREE_MEM_PAGE_SIZE, MEM_NUM_PAGES));
+        }
+        ctx = LSMBTreeTestContext.create(harness.getIOManager(), virtualBufferCaches, harness.getFileReference(),
+                harness.getDiskBufferCache(), fieldSerdes, numKeys, harness.getBoomFilterFalsePositiveRate(),
+                harness.getMergePolicy(), harness.getOperationTracker(), operation -> {
+                    if (cancelMerges && operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+                        operation.cancel();
+                    }
+                    if (interruptMerges && operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+                        runInterruptedMerge(operation);
+                    } else {
+                        ioScheduler.scheduleOperation(operation);
+                    }
+                }, harness.getIOOperationCallbackFactory(), harness.getMetadataPageManagerFactory(), false, true, false,
+                null);
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            ctx.getIndex().deactivate();
+            ctx.getIndex().destroy();
+            ioScheduler.close();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testParallelMerge() throws Exception {
+        createComponents();
+        List<ILSMDiskComponent> diskComponents = getDiskComponents();
+        // the antimatter tuples of the newer components are kept as the oldest component is not merged
+        ILSMIOOperation merge = merge(diskComponents.subList(0, 2));
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertTrue(merge.getProgress().getNumRanges() > 1);
+        Assert.assertEquals(merge.getProgress().getNumRanges(), merge.getProgress().getNumCompletedRanges());
+        // the merge ran on the IO thread and on its workers
+        Assert.assertTrue(numThreads.get() > 1);
+        Assert.assertEquals(2, getDiskComponents().size());
+        check();
+        merge = merge(getDiskComponents());
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertTrue(merge.getProgress().getNumRanges() > 1);
+        Assert.assertEquals(merge.getProgress().getNumRanges(), merge.getProgress().getNumCompletedRanges());
+        Assert.assertEquals(ctx.getCheckTuples().size(), merge.getProgress().getNumTuples());
+        Assert.assertEquals(1, getDiskComponents().size());
+        check();
+    }
+
+    @Test
+    public void testCanceledMerge() throws Exception {
+        createComponents();
+        cancelMerges = true;
+        ILSMIOOperation merge = merge(getDiskComponents());
+        Assert.assertEquals(LSMIOOperationStatus.FAILURE, merge.getStatus());
+        Assert.assertTrue(merge.isCanceled());
+        Assert.assertEquals(ErrorCode.MERGE_OPERATION_CANCELED,
+                ((HyracksDataException) merge.getFailure()).getErrorCode());
+        // the merging components are left in place and can be merged again
+        Assert.assertEquals(3, getDiskComponents().size());
+        check();
+        cancelMerges = false;
+        merge = merge(getDiskComponents());
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertEquals(1, getDiskComponents().size());
+        check();
+    }
+
+    @Test
+    public void testResumedMerge() throws Exception {
+        createComponents();
+        interruptMerges = true;
+        ILSMIOOperation merge = merge(getDiskComponents());
+        Assert.assertEquals(LSMIOOperationStatus.FAILURE, merge.getStatus());
+        Assert.assertTrue(merge.getProgress().getNumCompletedRanges() >= 1);
+        Assert.assertEquals(3, getDiskComponents().size());
+        FileReference target = merge.getTarget();
+        File checkpoint = getHiddenFile(target, AbstractLSMIndexFileManager.MERGE_CHECKPOINT_PREFIX);
+        File partialFile = getHiddenFile(target, AbstractLSMIndexFileManager.PARTIAL_MERGE_PREFIX);
+        Assert.assertTrue(checkpoint.exists());
+        Assert.assertTrue(partialFile.exists());
+        // a crash leaves the invalid merged tree behind, the recovery of the index keeps it for the next merge
+        Assert.assertTrue(partialFile.renameTo(target.getFile()));
+        ctx.getIndex().deactivate();
+        ctx.getIndex().activate();
+        Assert.assertFalse(target.getFile().exists());
+        Assert.assertTrue(partialFile.exists());
+        Assert.assertEquals(3, getDiskComponents().size());
+        check();
+        // the merge resumes after the ranges that were completed
+        interruptMerges = false;
+        merge = merge(getDiskComponents());
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertTrue(merge.getProgress().getNumTuples() < ctx.getCheckTuples().size());
+        Assert.assertFalse(checkpoint.exists());
+        Assert.assertFalse(partialFile.exists());
+        Assert.assertEquals(1, getDiskComponents().size());
+        check();
+    }
+
+    /**
+     * Runs a merge whose first range is merged while its other ranges cancel the merge
+     */
+    private void runInterruptedMerge(ILSMIOOperation merge) {
+        AtomicInteger numRanges = new AtomicInteger();
+        merge.setWorkers(new IIoOperationWorkers() {
+            @Override
+            public int getParallelism() {
+                return MERGE_PARALLELISM;
+            }
+
+            @Override
+            public <T> Future<T> submit(Callable<T> part) {
+                boolean firstRange = numRanges.getAndIncrement() == 0;
+                FutureTask<T> task = new FutureTask<>(() -> {
+                    if (!firstRange) {
+                        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+                        while (merge.getProgress().getNumCompletedRanges() == 0 && System.nanoTime() < deadline) {
+                            Thread.sleep(10);
+                        }
+                        merge.cancel();
+                    }
+                    return part.call();
+                });
+                new Thread(task).start();
+                return task;
+            }
+        });
+        new Thread(() -> {
+            try {
+                merge.call();
+            } catch (HyracksDataException e) {
+                merge.setFailure(e);
+                merge.setStatus(LSMIOOperationStatus.FAILURE);
+            } finally {
+                merge.complete();
+            }
+        }).start();
+    }
+
+    private static File getHiddenFile(FileReference file, String prefix) {
+        return new File(file.getFile().getParentFile(), prefix + file.getFile().getName());
+    }
+
+    private void createComponents() throws Exception {
+        testUtils.insertIntTuples(ctx, NUM_TUPLES_TO_INSERT, harness.getRandom());
+        flush();
+        // the second component shadows deleted and updated tuples of the first one
+        testUtils.deleteTuples(ctx, NUM_TUPLES_TO_INSERT / 4, harness.getRandom());
+        testUtils.upsertIntTuples(ctx, NUM_TUPLES_TO_INSERT / 2, harness.getRandom());
+        flush();
+        testUtils.deleteTuples(ctx, NUM_TUPLES_TO_INSERT / 10, harness.getRandom());
+        flush();
+        Assert.assertEquals(3, getDiskComponents().size());
+    }
+
+    private List<ILSMDiskComponent> getDiskComponents() {
+        return new ArrayList<>(((LSMBTree) ctx.getIndex()).getDiskComponents());
+    }
+
+    private void check() throws Exception {
+        testUtils.checkPointSearches(ctx);
+        testUtils.checkScan(ctx);
+        testUtils.checkRangeSearch(ctx, TupleUtils.createIntegerTuple(-1000),
+                TupleUtils.createIntegerTuple(NUM_TUPLES_TO_INSERT), true, false);
+    }
+
+    private void flush() throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+
+    private ILSMIOOperation merge(List<ILSMDiskComponent> components)
+            throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation merge = accessor.scheduleMerge(components);
+        merge.sync();
+        return merge;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests range searches on a prefix of the key of an LSM BTree whose bloom filters are built over that prefix
+ */
+public class LSMBTreePrefixBloomFilterTest {
+    private static final ITypeTraits[] TYPE_TRAITS =
+            { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES =
+            { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY),
+                    PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+    // the bloom filters are built on the first of the two key fields
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = LSMBTreeUtil.getBloomFilterKeyFields(2, 1);
+    private static final int NUM_COMPONENTS = 4;
+    private static final int PREFIXES_PER_COMPONENT = 10;
+    private static final int SUFFIXES_PER_PREFIX = 10;
+    private static final int NUM_PREFIXES = NUM_COMPONENTS * PREFIXES_PER_COMPONENT;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    // the expected values by prefix and suffix (-1 if absent)
+    private final int[][] expected = new int[NUM_PREFIXES][SUFFIXES_PER_PREFIX];
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        for (int[] values : expected) {
+            Arrays.fill(values, -1);
+        }
+    }
+
+    private void createTree(int[] bloomFilterKeyFields) throws HyracksDataException {
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, TYPE_TRAITS, CMP_FACTORIES, bloomFilterKeyFields, null,
+                null, null, null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            if (lsmBtree != null) {
+                lsmBtree.deactivate();
+                lsmBtree.destroy();
+            }
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testPrefixSearches() throws Exception {
+        createTree(BLOOM_FILTER_KEY_FIELDS);
+        loadComponentsByPrefix();
+        checkPrefixSearches();
+        checkRangeSearch(5, 25);
+    }
+
+    @Test
+    public void testBloomFilterOnKeySuffix() throws Exception {
+        // bloom filters that are not built on a prefix of the key cannot be probed with the keys of prefix searches
+        createTree(new int[] { 1 });
+        Assert.assertEquals(0, LSMBTreeUtil.getBloomFilterPrefixLength(new int[] { 1 }));
+        loadComponentsByPrefix();
+        checkPrefixSearches();
+        checkRangeSearch(5, 25);
+    }
+
+    private void loadComponentsByPrefix() throws Exception {
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        // each component holds its own prefixes
+        for (int c = 0; c < NUM_COMPONENTS; c++) {
+            for (int prefix = c * PREFIXES_PER_COMPONENT; prefix < (c + 1) * PREFIXES_PER_COMPONENT; prefix++) {
+                for (int suffix = 0; suffix < SUFFIXES_PER_PREFIX; suffix++) {
+                    accessor.insert(TupleUtils.createIntegerTuple(prefix, suffix, c));
+                    expected[prefix][suffix] = c;
+                }
+            }
+            flush(accessor);
+        }
+    }
+
+    @Test
+    public void testPrefixSearchesAfterDeletesAndUpdates() throws Exception {
+        createTree(BLOOM_FILTER_KEY_FIELDS);
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        for (int prefix = 0; prefix < NUM_PREFIXES; prefix++) {
+            for (int suffix = 0; suffix < SUFFIXES_PER_PREFIX; suffix++) {
+                accessor.insert(TupleUtils.createIntegerTuple(prefix, suffix, 0));
+                expected[prefix][suffix] = 0;
+            }
+        }
+        flush(accessor);
+        // newer versions and antimatter tuples must be found in the newer components
+        accessor.delete(TupleUtils.createIntegerTuple(3, 4, 0));
+        expected[3][4] = -1;
+        accessor.upsert(TupleUtils.createIntegerTuple(17, 2, 1));
+        expected[17][2] = 1;
+        flush(accessor);
+        accessor.upsert(TupleUtils.createIntegerTuple(29, 9, 2));
+        expected[29][9] = 2;
+        checkPrefixSearches();
+        flush(accessor);
+        checkPrefixSearches();
+        checkRangeSearch(0, NUM_PREFIXES - 1);
+    }
+
+    private void checkPrefixSearches() throws Exception {
+        for (int prefix = -1; prefix <= NUM_PREFIXES; prefix++) {
+            int[][] found = search(prefix, prefix);
+            for (int p = 0; p < NUM_PREFIXES; p++) {
+                int[] expectedValues = new int[SUFFIXES_PER_PREFIX];
+                Arrays.fill(expectedValues, -1);
+                if (p == prefix) {
+                    expectedValues = expected[p];
+                }
+                Assert.assertArrayEquals("prefix " + p, expectedValues, found[p]);
+            }
+        }
+    }
+
+    private void checkRangeSearch(int lowPrefix, int highPrefix) throws Exception {
+        int[][] found = search(lowPrefix, highPrefix);
+        for (int p = 0; p < NUM_PREFIXES; p++) {
+            if (p >= lowPrefix && p <= highPrefix) {
+                Assert.assertArrayEquals("prefix " + p, expected[p], found[p]);
+            }
+        }
+    }
+
+    /**
+     * @return the values by prefix and suffix (-1 if absent) of the tuples whose prefixes are in the given range
+     */
+    private int[][] search(int lowPrefix, int highPrefix) throws Exception {
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int[][] found = new int[NUM_PREFIXES][SUFFIXES_PER_PREFIX];
+        for (int[] values : found) {
+            Arrays.fill(values, -1);
+        }
+        ITupleReference lowKey = TupleUtils.createIntegerTuple(lowPrefix);
+        ITupleReference highKey = TupleUtils.createIntegerTuple(highPrefix);
+        MultiComparator lowKeyCmp = BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, lowKey);
+        MultiComparator highKeyCmp = BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, highKey);
+        try {
+            accessor.search(cursor, new RangePredicate(lowKey, highKey, true, true, lowKeyCmp, highKeyCmp));
+            while (cursor.hasNext()) {
+                cursor.next();
+                ITupleReference tuple = cursor.getTuple();
+                int prefix = getInt(tuple, 0);
+                Assert.assertTrue(prefix >= lowPrefix && prefix <= highPrefix);
+                found[prefix][getInt(tuple, 1)] = getInt(tuple, 2);
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        return found;
+    }
+
+    private static int getInt(ITupleReference tuple, int field) {
+        return IntegerPointable.getInteger(tuple.getFieldData(field), tuple.getFieldStart(field));
+    }
+
+    private static void flush(ILSMIndexAccessor accessor) throws HyracksDataException, InterruptedException {
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
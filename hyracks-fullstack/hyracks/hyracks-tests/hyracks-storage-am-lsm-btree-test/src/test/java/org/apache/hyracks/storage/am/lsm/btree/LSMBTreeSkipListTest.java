@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.SkipListBTree;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponent;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.freepage.VirtualFreePageManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("rawtypes")
+public class LSMBTreeSkipListTest {
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils testUtils = new OrderedIndexTestUtils();
+    private final ISerializerDeserializer[] fieldSerdes = { IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private final int numKeys = 1;
+    private static final int numTuplesToInsert = 500;
+    private static final int numThreads = 4;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        harness.tearDown();
+    }
+
+    private OrderedIndexTestContext createTestContext() throws Exception {
+        return LSMBTreeTestContext.create(harness.getIOManager(), harness.getVirtualBufferCaches(),
+                harness.getFileReference(), harness.getDiskBufferCache(), fieldSerdes, numKeys,
+                harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(), harness.getOperationTracker(),
+                harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getMetadataPageManagerFactory(), false, true, false, null,
+                LSMBTreeMemoryComponentType.SKIPLIST);
+    }
+
+    @Test
+    public void testModificationsAcrossFlushes() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext();
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        LSMBTree lsmBtree = (LSMBTree) ctx.getIndex();
+        Assert.assertTrue(
+                ((LSMBTreeMemoryComponent) lsmBtree.getCurrentMemoryComponent()).getIndex() instanceof SkipListBTree);
+        testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        check(ctx);
+        flush(ctx);
+        // the memory component shadows the disk component
+        testUtils.deleteTuples(ctx, numTuplesToInsert / 2, harness.getRandom());
+        testUtils.upsertIntTuples(ctx, numTuplesToInsert / 4, harness.getRandom());
+        check(ctx);
+        flush(ctx);
+        check(ctx);
+        // the cleared memory component is reused
+        testUtils.insertIntTuples(ctx, numTuplesToInsert / 4, harness.getRandom());
+        testUtils.deleteTuples(ctx, numTuplesToInsert / 4, harness.getRandom());
+        check(ctx);
+        flush(ctx);
+        check(ctx);
+        // the memory component may also fill up and get flushed between the explicit flushes
+        Assert.assertTrue(lsmBtree.getDiskComponents().size() >= 3);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    @Test
+    public void testConcurrentInserts() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext();
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    ILSMIndexAccessor accessor =
+                            (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                    // the keys of the threads are interleaved
+                    for (int i = thread; i < numThreads * numTuplesToInsert; i += numThreads) {
+                        accessor.insert(TupleUtils.createIntegerTuple(i, thread, i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        checkAllKeys(ctx);
+        flush(ctx);
+        checkAllKeys(ctx);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    @Test
+    public void testReplacedTuplesAreReused() throws Exception {
+        VirtualBufferCache vbc = new VirtualBufferCache(new HeapBufferAllocator(), harness.getMemPageSize(), 1000);
+        SkipListBTree skipList = createSkipList(vbc);
+        try {
+            BTreeAccessor accessor = skipList.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            for (int i = 0; i < numTuplesToInsert; i++) {
+                accessor.insert(TupleUtils.createIntegerTuple(i, 0, i));
+            }
+            int usage = vbc.getUsage();
+            // the tuple heap memory is allocated in the buffer cache
+            Assert.assertTrue(
+                    usage * harness.getMemPageSize() >= numTuplesToInsert * SkipListBTree.getTupleHeapSize(numKeys));
+            for (int round = 1; round <= 10; round++) {
+                for (int i = 0; i < numTuplesToInsert; i++) {
+                    accessor.upsert(TupleUtils.createIntegerTuple(i, round, i));
+                }
+                for (int i = 0; i < numTuplesToInsert; i += 2) {
+                    accessor.delete(TupleUtils.createIntegerTuple(i, round, i));
+                    accessor.insert(TupleUtils.createIntegerTuple(i, round, i));
+                }
+            }
+            Assert.assertTrue("usage grew from " + usage + " to " + vbc.getUsage() + " pages",
+                    vbc.getUsage() < 2 * usage);
+            checkSkipList(skipList, numTuplesToInsert, 10);
+        } finally {
+            destroySkipList(skipList, vbc);
+        }
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        VirtualBufferCache vbc = new VirtualBufferCache(new HeapBufferAllocator(), harness.getMemPageSize(), 1000);
+        SkipListBTree skipList = createSkipList(vbc);
+        try {
+            IIndexBulkLoader loader = skipList.createBulkLoader(1.0f, true, numTuplesToInsert, true);
+            for (int i = 0; i < numTuplesToInsert; i++) {
+                loader.add(TupleUtils.createIntegerTuple(i, 0, i));
+            }
+            loader.end();
+            checkSkipList(skipList, numTuplesToInsert, 0);
+            IIndexBulkLoader unsortedLoader = skipList.createBulkLoader(1.0f, true, 2, true);
+            unsortedLoader.add(TupleUtils.createIntegerTuple(numTuplesToInsert + 1, 0, 0));
+            try {
+                unsortedLoader.add(TupleUtils.createIntegerTuple(numTuplesToInsert, 0, 0));
+                Assert.fail("an unsorted load was accepted");
+            } catch (HyracksDataException e) {
+                Assert.assertEquals(ErrorCode.UNSORTED_LOAD_INPUT, e.getErrorCode());
+            }
+            unsortedLoader.abort();
+        } finally {
+            destroySkipList(skipList, vbc);
+        }
+    }
+
+    /**
+     * Creates a skip list with the layout of the memory components of the LSM BTree of the test
+     */
+    private SkipListBTree createSkipList(VirtualBufferCache vbc) throws Exception {
+        LSMBTree lsmBtree = (LSMBTree) createTestContext().getIndex();
+        SkipListBTree template =
+                (SkipListBTree) ((LSMBTreeMemoryComponent) lsmBtree.getCurrentMemoryComponent()).getIndex();
+        vbc.open();
+        SkipListBTree skipList = new SkipListBTree(vbc, new VirtualFreePageManager(vbc),
+                template.getInteriorFrameFactory(), template.getLeafFrameFactory(), template.getComparatorFactories(),
+                template.getFieldCount(),
+                harness.getIOManager().resolveAbsolutePath(harness.getFileReference().getAbsolutePath() + "_skiplist"));
+        skipList.create();
+        skipList.activate();
+        return skipList;
+    }
+
+    private static void destroySkipList(SkipListBTree skipList, VirtualBufferCache vbc) throws Exception {
+        skipList.deactivate();
+        skipList.destroy();
+        vbc.close();
+    }
+
+    private static void checkSkipList(SkipListBTree skipList, int numTuples, int lastRound) throws Exception {
+        skipList.validate();
+        BTreeAccessor accessor = skipList.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int expected = 0;
+        try {
+            accessor.search(cursor, new RangePredicate(null, null, true, true, null, null));
+            while (cursor.hasNext()) {
+                cursor.next();
+                Assert.assertEquals(expected, getInt(cursor.getTuple(), 0));
+                Assert.assertEquals(lastRound, getInt(cursor.getTuple(), 1));
+                expected++;
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        Assert.assertEquals(numTuples, expected);
+    }
+
+    private void check(OrderedIndexTestContext ctx) throws Exception {
+        testUtils.checkPointSearches(ctx);
+        testUtils.checkScan(ctx);
+        testUtils.checkRangeSearch(ctx, TupleUtils.createIntegerTuple(numTuplesToInsert / 4),
+                TupleUtils.createIntegerTuple(numTuplesToInsert / 2), true, false);
+    }
+
+    private static void checkAllKeys(OrderedIndexTestContext ctx) throws Exception {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int expected = 0;
+        try {
+            accessor.search(cursor, new RangePredicate(null, null, true, true, null, null));
+            while (cursor.hasNext()) {
+                cursor.next();
+                ITupleReference tuple = cursor.getTuple();
+                Assert.assertEquals(expected, getInt(tuple, 0));
+                Assert.assertEquals(expected % numThreads, getInt(tuple, 1));
+                expected++;
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        Assert.assertEquals(numThreads * numTuplesToInsert, expected);
+    }
+
+    private static int getInt(ITupleReference tuple, int field) {
+        return IntegerPointable.getInteger(tuple.getFieldData(field), tuple.getFieldStart(field));
+    }
+
+    private static void flush(OrderedIndexTestContext ctx) throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
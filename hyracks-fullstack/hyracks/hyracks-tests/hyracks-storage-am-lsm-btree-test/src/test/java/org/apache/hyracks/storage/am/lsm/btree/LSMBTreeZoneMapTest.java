@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeMemoryComponentType;
+import org.apache.hyracks.storage.am.lsm.btree.util.HalvingColumnShredderFactory;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.util.ValueFieldZoneMapValueExtractorFactory;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMappedComponent;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.ZoneMap;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("rawtypes")
+public class LSMBTreeZoneMapTest {
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final ISerializerDeserializer[] fieldSerdes =
+            { IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private final int numKeys = 1;
+    private static final int numTuplesToInsert = 2000;
+    private static final int valueStep = 1000;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        harness.tearDown();
+    }
+
+    private OrderedIndexTestContext createTestContext(IColumnShredderFactory columnShredderFactory) throws Exception {
+        OrderedIndexTestContext ctx = LSMBTreeTestContext.create(harness.getIOManager(),
+                harness.getVirtualBufferCaches(), harness.getFileReference(), harness.getDiskBufferCache(), fieldSerdes,
+                numKeys, harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(),
+                harness.getOperationTracker(), harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getMetadataPageManagerFactory(), true, true, false, columnShredderFactory,
+                LSMBTreeMemoryComponentType.BTREE, ValueFieldZoneMapValueExtractorFactory.INSTANCE);
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        return ctx;
+    }
+
+    @Test
+    public void testFilteredScanSkipsPages() throws Exception {
+        checkFilteredScanSkipsPages(null);
+    }
+
+    @Test
+    public void testColumnFilteredScanSkipsPages() throws Exception {
+        checkFilteredScanSkipsPages(HalvingColumnShredderFactory.INSTANCE);
+    }
+
+    @Test
+    public void testZoneMapOfMergedAndReactivatedComponent() throws Exception {
+        checkZoneMapOfMergedAndReactivatedComponent(null);
+    }
+
+    @Test
+    public void testColumnZoneMapOfMergedAndReactivatedComponent() throws Exception {
+        checkZoneMapOfMergedAndReactivatedComponent(HalvingColumnShredderFactory.INSTANCE);
+    }
+
+    @Test
+    public void testNewerComponentsSkipPages() throws Exception {
+        OrderedIndexTestContext ctx = createTestContext(null);
+        insert(ctx, 0, numTuplesToInsert);
+        flush(ctx);
+        insert(ctx, numTuplesToInsert, 2 * numTuplesToInsert);
+        flush(ctx);
+        Assert.assertTrue(getZoneMap(ctx, 0).getNumberOfZones() > 1);
+        // the keys of the newer component do not overlap the zones of the older component that match
+        int[] values = checkFilteredScan(ctx, 100000, 200000, 2 * numTuplesToInsert);
+        int numReturnedFromNewer = 0;
+        for (int i = numTuplesToInsert; i < values.length; i++) {
+            numReturnedFromNewer += values[i] >= 0 ? 1 : 0;
+        }
+        Assert.assertEquals(0, numReturnedFromNewer);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    @Test
+    public void testOlderVersionsStayHidden() throws Exception {
+        checkOlderVersionsStayHidden(null);
+    }
+
+    @Test
+    public void testColumnOlderVersionsStayHidden() throws Exception {
+        checkOlderVersionsStayHidden(HalvingColumnShredderFactory.INSTANCE);
+    }
+
+    private void checkFilteredScanSkipsPages(IColumnShredderFactory columnShredderFactory) throws Exception {
+        OrderedIndexTestContext ctx = createTestContext(columnShredderFactory);
+        insert(ctx, 0, numTuplesToInsert);
+        flush(ctx);
+        Assert.assertTrue(getZoneMap(ctx, 0).getNumberOfZones() > 1);
+        checkFilteredScan(ctx, 600000, 700000, numTuplesToInsert);
+        checkFilteredScan(ctx, 0, 0, numTuplesToInsert);
+        checkFilteredScan(ctx, numTuplesToInsert * valueStep, Integer.MAX_VALUE, numTuplesToInsert);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    private void checkZoneMapOfMergedAndReactivatedComponent(IColumnShredderFactory columnShredderFactory)
+            throws Exception {
+        OrderedIndexTestContext ctx = createTestContext(columnShredderFactory);
+        insert(ctx, 0, numTuplesToInsert / 2);
+        flush(ctx);
+        insert(ctx, numTuplesToInsert / 2, numTuplesToInsert);
+        flush(ctx);
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        accessor.scheduleMerge(((LSMBTree) ctx.getIndex()).getDiskComponents());
+        Assert.assertEquals(1, ((LSMBTree) ctx.getIndex()).getDiskComponents().size());
+        int numZones = getZoneMap(ctx, 0).getNumberOfZones();
+        Assert.assertTrue(numZones > 1);
+        checkFilteredScan(ctx, 1200000, 1300000, numTuplesToInsert);
+
+        ctx.getIndex().deactivate();
+        ctx.getIndex().activate();
+        Assert.assertEquals(numZones, getZoneMap(ctx, 0).getNumberOfZones());
+        checkFilteredScan(ctx, 1200000, 1300000, numTuplesToInsert);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    private void checkOlderVersionsStayHidden(IColumnShredderFactory columnShredderFactory) throws Exception {
+        OrderedIndexTestContext ctx = createTestContext(columnShredderFactory);
+        insert(ctx, 0, numTuplesToInsert);
+        flush(ctx);
+        // move a tuple out of the range and another one into it
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        accessor.upsert(TupleUtils.createIntegerTuple(650, 1900000, 1900000));
+        accessor.upsert(TupleUtils.createIntegerTuple(1900, 650000, 650000));
+        flush(ctx);
+        // a component that only has an antimatter tuple
+        accessor.delete(TupleUtils.createIntegerTuple(660, 660000, 660000));
+        flush(ctx);
+        int[] values = scan(ctx, 600000, 700000);
+        Assert.assertNotEquals(650000, values[650]);
+        Assert.assertEquals(-1, values[660]);
+        Assert.assertEquals(650000, values[1900]);
+        Assert.assertEquals(651000, values[651]);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    private static void insert(OrderedIndexTestContext ctx, int from, int to) throws HyracksDataException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        for (int i = from; i < to; i++) {
+            accessor.insert(TupleUtils.createIntegerTuple(i, i * valueStep, i * valueStep));
+        }
+    }
+
+    /**
+     * Check that a scan of the tuples with values in the given range returns all of them but not all numTuples tuples
+     *
+     * @return the values by key (see {@link #scan})
+     */
+    private static int[] checkFilteredScan(OrderedIndexTestContext ctx, int min, int max, int numTuples)
+            throws Exception {
+        int[] values = scan(ctx, min, max);
+        int numReturned = 0;
+        for (int i = 0; i < numTuples; i++) {
+            long value = (long) i * valueStep;
+            if (value >= min && value <= max) {
+                Assert.assertEquals(value, values[i]);
+            }
+            if (values[i] >= 0) {
+                Assert.assertEquals(value, values[i]);
+                numReturned++;
+            }
+        }
+        Assert.assertTrue(numReturned < numTuples);
+        return values;
+    }
+
+    /**
+     * @return the values by key (-1 if absent) returned by a scan of the tuples with values in the given range. The
+     *         scan may return more tuples.
+     */
+    private static int[] scan(OrderedIndexTestContext ctx, int min, int max) throws Exception {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int[] values = new int[2 * numTuplesToInsert];
+        Arrays.fill(values, -1);
+        try {
+            accessor.search(cursor, new RangePredicate(null, null, true, true, null, null,
+                    TupleUtils.createIntegerTuple(min), TupleUtils.createIntegerTuple(max)));
+            int previousKey = -1;
+            while (cursor.hasNext()) {
+                cursor.next();
+                ITupleReference tuple = cursor.getTuple();
+                int key = getInt(tuple, 0);
+                Assert.assertTrue(key > previousKey);
+                previousKey = key;
+                values[key] = getInt(tuple, 1);
+            }
+        } finally {
+            cursor.close();
+            cursor.destroy();
+        }
+        return values;
+    }
+
+    private static ZoneMap getZoneMap(OrderedIndexTestContext ctx, int component) {
+        ZoneMap zoneMap =
+                ((IZoneMappedComponent) ((LSMBTree) ctx.getIndex()).getDiskComponents().get(component)).getZoneMap();
+        Assert.assertNotNull(zoneMap);
+        return zoneMap;
+    }
+
+    private static int getInt(ITupleReference tuple, int field) {
+        return IntegerPointable.getInteger(tuple.getFieldData(field), tuple.getFieldStart(field));
+    }
+
+    private static void flush(OrderedIndexTestContext ctx) throws HyracksDataException, InterruptedException {
+        ILSMIndexAccessor accessor =
+                (ILSMIndexAccessor) ctx.getIndex().createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
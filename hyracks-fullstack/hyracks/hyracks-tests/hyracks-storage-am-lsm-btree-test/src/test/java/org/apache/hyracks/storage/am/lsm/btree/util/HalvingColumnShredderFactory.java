@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.util;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredder;
+import org.apache.hyracks.storage.am.lsm.btree.column.IColumnShredderFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Shreds a value into two columns holding its first and second half
+ */
+public class HalvingColumnShredderFactory implements IColumnShredderFactory {
+    private static final long serialVersionUID = 1L;
+    public static final HalvingColumnShredderFactory INSTANCE = new HalvingColumnShredderFactory();
+
+    private HalvingColumnShredderFactory() {
+    }
+
+    @Override
+    public IColumnShredder createShredder() {
+        return new HalvingColumnShredder();
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        return registry.getClassIdentifier(getClass(), serialVersionUID);
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        return INSTANCE;
+    }
+
+    private static class HalvingColumnShredder implements IColumnShredder {
+        @Override
+        public int getNumberOfColumns() {
+            return 2;
+        }
+
+        @Override
+        public void shred(byte[] data, int start, int length, ArrayTupleBuilder columns) throws HyracksDataException {
+            int half = length / 2;
+            columns.addField(data, start, half);
+            columns.addField(data, start + half, length - half);
+        }
+
+        @Override
+        public void assemble(ITupleReference columns, BitSet projection, ArrayBackedValueStorage value)
+                throws HyracksDataException {
+            try {
+                for (int i = 0; i < columns.getFieldCount(); i++) {
+                    if (projection == null || projection.get(i)) {
+                        value.getDataOutput().write(columns.getFieldData(i), columns.getFieldStart(i),
+                                columns.getFieldLength(i));
+                    }
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        @Override
+        public IBinaryComparator getColumnComparator(int column) {
+            return null;
+        }
+    }
+}
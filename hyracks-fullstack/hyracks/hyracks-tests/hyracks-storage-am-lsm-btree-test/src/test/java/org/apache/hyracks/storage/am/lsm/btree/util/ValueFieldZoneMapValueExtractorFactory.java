@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.util;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractor;
+import org.apache.hyracks.storage.am.lsm.btree.zonemap.IZoneMapValueExtractorFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Extracts the filter value of the filtered LSM BTrees of {@link LSMBTreeTestContext} with one key field, which is the
+ * value of the second field of their tuples
+ */
+public class ValueFieldZoneMapValueExtractorFactory implements IZoneMapValueExtractorFactory {
+    private static final long serialVersionUID = 1L;
+    public static final ValueFieldZoneMapValueExtractorFactory INSTANCE = new ValueFieldZoneMapValueExtractorFactory();
+
+    private ValueFieldZoneMapValueExtractorFactory() {
+    }
+
+    @Override
+    public IZoneMapValueExtractor createExtractor() {
+        return (tuple, values) -> {
+            values[0].set(tuple.getFieldData(1), tuple.getFieldStart(1), tuple.getFieldLength(1));
+            return true;
+        };
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        return registry.getClassIdentifier(getClass(), serialVersionUID);
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        return INSTANCE;
+    }
+}
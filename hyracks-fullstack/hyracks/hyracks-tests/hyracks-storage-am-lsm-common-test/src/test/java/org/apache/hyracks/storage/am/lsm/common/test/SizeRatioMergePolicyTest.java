@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractSizeRatioMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.LeveledMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.SizeTieredMergePolicy;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SizeRatioMergePolicyTest {
+
+    private static final int MAX_COMPONENT_SIZE = 1000;
+
+    @Test
+    public void testSizeTieredMergesFullTier() throws HyracksDataException {
+        ILSMMergePolicy policy = createMergePolicy(new SizeTieredMergePolicy(), 4);
+        // components are listed from the newest to the oldest one
+        assertMerged(policy, Arrays.asList(1L, 1L, 1L), Arrays.asList());
+        assertMerged(policy, Arrays.asList(1L, 1L, 1L, 1L), Arrays.asList(1L, 1L, 1L, 1L));
+        assertMerged(policy, Arrays.asList(2L, 1L, 2L, 1L, 8L), Arrays.asList(2L, 1L, 2L, 1L));
+        assertMerged(policy, Arrays.asList(1L, 1L, 1L, 4L, 4L, 4L), Arrays.asList());
+        assertMerged(policy, Arrays.asList(1L, 1L, 4L, 4L, 4L, 4L, 16L), Arrays.asList(4L, 4L, 4L, 4L));
+    }
+
+    @Test
+    public void testSizeTieredSkipsLargeComponents() throws HyracksDataException {
+        ILSMMergePolicy policy = createMergePolicy(new SizeTieredMergePolicy(), 3);
+        assertMerged(policy, Arrays.asList(1L, 1L, 1001L, 1L, 1L), Arrays.asList());
+        assertMerged(policy, Arrays.asList(1001L, 1001L, 1001L), Arrays.asList());
+    }
+
+    @Test
+    public void testSizeTieredWriteAmplification() throws HyracksDataException {
+        int fanout = 4;
+        // at most fanout - 1 components in each of the 4 tiers that are not full
+        long[] written = simulateFlushes(createMergePolicy(new SizeTieredMergePolicy(), fanout), 256, 4 * (fanout - 1));
+        // every entry is rewritten once per tier above the first one (4 tiers for 256 flushes)
+        Assert.assertEquals(4 * written[0], written[1]);
+    }
+
+    @Test
+    public void testLeveledMergesLevelsOverCapacity() throws HyracksDataException {
+        // the levels hold up to 1, 10, 100 and 1000 bytes
+        ILSMMergePolicy policy = createMergePolicy(new LeveledMergePolicy(), 10);
+        assertMerged(policy, Arrays.asList(1L, 5L), Arrays.asList());
+        assertMerged(policy, Arrays.asList(5L, 5L), Arrays.asList(5L, 5L));
+        assertMerged(policy, Arrays.asList(50L, 5L), Arrays.asList(50L, 5L));
+        assertMerged(policy, Arrays.asList(1L, 10L, 1000L), Arrays.asList());
+        assertMerged(policy, Arrays.asList(1L, 1L, 100L), Arrays.asList(1L, 1L));
+        assertMerged(policy, Arrays.asList(1L, 20L, 100L), Arrays.asList(20L, 100L));
+        assertMerged(policy, Arrays.asList(1L, 500L, 1001L), Arrays.asList());
+    }
+
+    @Test
+    public void testLeveledWriteAmplification() throws HyracksDataException {
+        int fanout = 4;
+        int numFlushes = 256;
+        // 4 levels above the flushed components for 256 flushes, each holding at most one component
+        int numLevels = 4;
+        long[] written =
+                simulateFlushes(createMergePolicy(new LeveledMergePolicy(), fanout), numFlushes, numLevels + 1);
+        // a leveled policy rewrites more than a tiered one, but every entry at most fanout times per level
+        Assert.assertTrue(written[1] > numLevels * written[0]);
+        Assert.assertTrue(written[1] <= fanout * numLevels * written[0]);
+    }
+
+    @Test
+    public void testMergeLagging() throws HyracksDataException {
+        ILSMMergePolicy policy = createMergePolicy(new SizeTieredMergePolicy(), 2);
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        components.add(mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+        components.add(mockComponent(2L, ComponentState.READABLE_MERGING));
+        components.add(mockComponent(2L, ComponentState.READABLE_MERGING));
+        List<List<ILSMDiskComponent>> merges = new ArrayList<>();
+        ILSMIndex index = mockIndex(components, merges);
+        Assert.assertFalse(policy.isMergeLagging(index));
+        components.add(0, mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+        Assert.assertTrue(policy.isMergeLagging(index));
+        // only one merge at a time
+        policy.diskComponentAdded(index, false);
+        Assert.assertTrue(merges.isEmpty());
+    }
+
+    @Test
+    public void testMergeLaggingWithoutOngoingMerge() throws HyracksDataException {
+        ILSMMergePolicy policy = createMergePolicy(new SizeTieredMergePolicy(), 2);
+        // e.g., after a restart, the components call for a merge but none is ongoing
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        components.add(mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+        components.add(mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+        List<List<ILSMDiskComponent>> merges = new ArrayList<>();
+        ILSMIndex index = mockIndex(components, merges);
+        // a flush must not wait and checking does not schedule a merge
+        Assert.assertFalse(policy.isMergeLagging(index));
+        Assert.assertTrue(merges.isEmpty());
+        // the flushed component schedules it
+        components.add(0, mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+        policy.diskComponentAdded(index, false);
+        Assert.assertEquals(1, merges.size());
+    }
+
+    /**
+     * Flushes components of size 1, lets the policy merge them and checks the number of components.
+     *
+     * @return the bytes written by flushes and merges
+     */
+    private static long[] simulateFlushes(ILSMMergePolicy policy, int numFlushes, int maxNumComponents)
+            throws HyracksDataException {
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        List<List<ILSMDiskComponent>> merges = new ArrayList<>();
+        ILSMIndex index = mockIndex(components, merges);
+        long[] written = new long[2];
+        for (int i = 0; i < numFlushes; i++) {
+            components.add(0, mockComponent(1L, ComponentState.READABLE_UNWRITABLE));
+            written[0]++;
+            int numMerges;
+            do {
+                numMerges = merges.size();
+                policy.diskComponentAdded(index, false);
+                if (merges.size() > numMerges) {
+                    written[1] += sum(merges.get(numMerges));
+                }
+            } while (merges.size() > numMerges);
+            Assert.assertTrue(components.size() <= maxNumComponents);
+            Assert.assertFalse(policy.isMergeLagging(index));
+        }
+        Assert.assertEquals(numFlushes, sum(components));
+        return written;
+    }
+
+    private static void assertMerged(ILSMMergePolicy policy, List<Long> sizes, List<Long> mergedSizes)
+            throws HyracksDataException {
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        for (Long size : sizes) {
+            components.add(mockComponent(size, ComponentState.READABLE_UNWRITABLE));
+        }
+        List<List<ILSMDiskComponent>> merges = new ArrayList<>();
+        policy.diskComponentAdded(mockIndex(components, merges), false);
+        List<Long> actualSizes = new ArrayList<>();
+        for (List<ILSMDiskComponent> merge : merges) {
+            merge.forEach(c -> actualSizes.add(c.getComponentSize()));
+        }
+        Assert.assertEquals(mergedSizes, actualSizes);
+    }
+
+    private static ILSMMergePolicy createMergePolicy(AbstractSizeRatioMergePolicy policy, int fanout) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(AbstractSizeRatioMergePolicy.FANOUT, String.valueOf(fanout));
+        properties.put(AbstractSizeRatioMergePolicy.MAX_MERGABLE_SIZE, String.valueOf(MAX_COMPONENT_SIZE));
+        policy.configure(properties);
+        return policy;
+    }
+
+    private static ILSMDiskComponent mockComponent(long size, ComponentState state) {
+        ILSMDiskComponent component = Mockito.mock(ILSMDiskComponent.class);
+        Mockito.when(component.getComponentSize()).thenReturn(size);
+        Mockito.when(component.getState()).thenReturn(state);
+        return component;
+    }
+
+    /**
+     * @return an index whose merges complete immediately, replacing the merged components with one component
+     */
+    private static ILSMIndex mockIndex(List<ILSMDiskComponent> components, List<List<ILSMDiskComponent>> merges)
+            throws HyracksDataException {
+        ILSMIndex index = Mockito.mock(ILSMIndex.class);
+        Mockito.when(index.getDiskComponents()).thenReturn(components);
+        ILSMIndexAccessor accessor = Mockito.mock(ILSMIndexAccessor.class);
+        Mockito.doAnswer(invocation -> {
+            List<ILSMDiskComponent> mergedComponents = invocation.getArgumentAt(0, List.class);
+            merges.add(new ArrayList<>(mergedComponents));
+            int position = components.indexOf(mergedComponents.get(0));
+            components.removeAll(mergedComponents);
+            components.add(position, mockComponent(sum(mergedComponents), ComponentState.READABLE_UNWRITABLE));
+            return null;
+        }).when(accessor).scheduleMerge(Mockito.anyListOf(ILSMDiskComponent.class));
+        Mockito.when(index.createAccessor(Mockito.any(IIndexAccessParameters.class))).thenReturn(accessor);
+        return index;
+    }
+
+    private static long sum(List<ILSMDiskComponent> components) {
+        long sum = 0;
+        for (ILSMDiskComponent c : components) {
+            sum += c.getComponentSize();
+        }
+        return sum;
+    }
+}
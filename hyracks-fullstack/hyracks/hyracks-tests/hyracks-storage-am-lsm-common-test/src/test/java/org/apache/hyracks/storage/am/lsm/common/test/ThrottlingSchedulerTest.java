@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractIoOperation;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThrottlingScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThrottlingScheduler.MergeThrottle;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThrottlingSchedulerTest {
+
+    private static final IODeviceHandle DEVICE_1 = new IODeviceHandle(new File("device1"), null);
+    private static final IODeviceHandle DEVICE_2 = new IODeviceHandle(new File("device2"), null);
+    private static final int MB = 1024 * 1024;
+
+    private ThrottlingScheduler scheduler;
+
+    @After
+    public void tearDown() throws Exception {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentMergesPerDevice() throws Exception {
+        scheduler = createScheduler(1, 0);
+        AtomicInteger running1 = new AtomicInteger();
+        AtomicInteger maxRunning1 = new AtomicInteger();
+        AtomicInteger running2 = new AtomicInteger();
+        AtomicInteger maxRunning2 = new AtomicInteger();
+        // the merges that start right away wait until all merges are queued
+        CountDownLatch allScheduled = new CountDownLatch(1);
+        List<TestOperation> merges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            merges.add(new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> {
+                await(allScheduled);
+                run(running1, maxRunning1);
+            }));
+            merges.add(new TestOperation(LSMIOOperationType.MERGE, DEVICE_2, op -> {
+                await(allScheduled);
+                run(running2, maxRunning2);
+            }));
+        }
+        for (TestOperation merge : merges) {
+            scheduler.scheduleOperation(merge);
+        }
+        allScheduled.countDown();
+        for (TestOperation merge : merges) {
+            merge.sync();
+        }
+        Assert.assertEquals(1, maxRunning1.get());
+        Assert.assertEquals(1, maxRunning2.get());
+        // the last merge of a device waited for the two others
+        MergeThrottle throttle = (MergeThrottle) merges.get(merges.size() - 1).getThrottle();
+        Assert.assertTrue(throttle.getQueuedTime() >= TimeUnit.MILLISECONDS.toNanos(2 * 20));
+        Assert.assertTrue(scheduler.getTotalQueuedTime() >= throttle.getQueuedTime());
+        Assert.assertEquals(0, scheduler.getNumWaitingMerges());
+    }
+
+    @Test
+    public void testFlushesArePrioritized() throws Exception {
+        scheduler = createScheduler(1, 0);
+        CountDownLatch mergeStarted = new CountDownLatch(1);
+        CountDownLatch flushScheduled = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        AtomicInteger mergeWrites = new AtomicInteger();
+        TestOperation merge = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> {
+            mergeStarted.countDown();
+            await(flushScheduled);
+            op.getThrottle().beforeWrite(1);
+            mergeWrites.incrementAndGet();
+        });
+        TestOperation flush = new TestOperation(LSMIOOperationType.FLUSH, DEVICE_1, op -> await(releaseFlush));
+        TestOperation otherDeviceFlush = new TestOperation(LSMIOOperationType.FLUSH, DEVICE_2, op -> {
+        });
+        scheduler.scheduleOperation(merge);
+        await(mergeStarted);
+        // flushes are not limited by the running merge
+        scheduler.scheduleOperation(otherDeviceFlush);
+        otherDeviceFlush.sync();
+        scheduler.scheduleOperation(flush);
+        flushScheduled.countDown();
+        // the merge yields to the flush on its device
+        Thread.sleep(100);
+        Assert.assertEquals(0, mergeWrites.get());
+        releaseFlush.countDown();
+        flush.sync();
+        merge.sync();
+        Assert.assertEquals(1, mergeWrites.get());
+        Assert.assertTrue(
+                ((MergeThrottle) merge.getThrottle()).getThrottledTime() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testMergesDoNotWaitForFlushCompletion() throws Exception {
+        scheduler = createScheduler(1, 0, TimeUnit.MINUTES.toMillis(1));
+        CountDownLatch mergeStarted = new CountDownLatch(1);
+        CountDownLatch flushScheduled = new CountDownLatch(1);
+        CountDownLatch flushWritten = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        AtomicInteger mergeWrites = new AtomicInteger();
+        TestOperation merge = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> {
+            mergeStarted.countDown();
+            await(flushScheduled);
+            op.getThrottle().beforeWrite(1);
+            mergeWrites.incrementAndGet();
+        });
+        // a flush completes after it has written its component, e.g. once a lagging merge is done
+        TestOperation flush = new TestOperation(LSMIOOperationType.FLUSH, DEVICE_1, op -> {
+            await(flushWritten);
+            op.getThrottle().writesCompleted();
+            await(releaseFlush);
+        });
+        TestOperation nextFlush = new TestOperation(LSMIOOperationType.FLUSH, DEVICE_1, op -> {
+        });
+        scheduler.scheduleOperation(merge);
+        await(mergeStarted);
+        scheduler.scheduleOperation(flush);
+        flushScheduled.countDown();
+        Thread.sleep(100);
+        Assert.assertEquals(0, mergeWrites.get());
+        // the merge does not wait for the flushes that are scheduled while it yields
+        scheduler.scheduleOperation(nextFlush);
+        flushWritten.countDown();
+        merge.sync();
+        Assert.assertEquals(1, mergeWrites.get());
+        releaseFlush.countDown();
+        flush.sync();
+        nextFlush.sync();
+        Assert.assertEquals(1, scheduler.getNumCompletedMerges());
+        Assert.assertSame(merge.getThrottle(), scheduler.getCompletedMerges().get(0));
+    }
+
+    @Test
+    public void testFlushYieldIsLimited() throws Exception {
+        scheduler = createScheduler(1, 0, 200);
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        TestOperation flush = new TestOperation(LSMIOOperationType.FLUSH, DEVICE_1, op -> {
+            flushStarted.countDown();
+            await(releaseFlush);
+        });
+        TestOperation merge = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> write(op, 1, 1));
+        scheduler.scheduleOperation(flush);
+        await(flushStarted);
+        scheduler.scheduleOperation(merge);
+        merge.sync();
+        long throttledTime = ((MergeThrottle) merge.getThrottle()).getThrottledTime();
+        Assert.assertTrue(throttledTime >= TimeUnit.MILLISECONDS.toNanos(200));
+        Assert.assertTrue(throttledTime < TimeUnit.SECONDS.toNanos(10));
+        releaseFlush.countDown();
+        flush.sync();
+    }
+
+    @Test
+    public void testMergeBandwidth() throws Exception {
+        scheduler = createScheduler(0, MB);
+        // the first MB is available right away and the next half MB takes half a second
+        TestOperation merge = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> write(op, 3, MB / 2));
+        long start = System.nanoTime();
+        scheduler.scheduleOperation(merge);
+        merge.sync();
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400));
+        Assert.assertTrue(
+                ((MergeThrottle) merge.getThrottle()).getThrottledTime() >= TimeUnit.MILLISECONDS.toNanos(400));
+        // the bandwidth can be changed at runtime
+        scheduler.setMergeBandwidth(0);
+        Assert.assertEquals(0, scheduler.getMergeBandwidth());
+        merge = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> write(op, 100, MB));
+        start = System.nanoTime();
+        scheduler.scheduleOperation(merge);
+        merge.sync();
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    public void testPauseAndResumeMerges() throws Exception {
+        scheduler = createScheduler(0, 0);
+        CountDownLatch mergeStarted = new CountDownLatch(1);
+        CountDownLatch mergesPaused = new CountDownLatch(1);
+        AtomicInteger mergeWrites = new AtomicInteger();
+        TestOperation running = new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> {
+            mergeStarted.countDown();
+            await(mergesPaused);
+            op.getThrottle().beforeWrite(1);
+            mergeWrites.incrementAndGet();
+        });
+        TestOperation waiting =
+                new TestOperation(LSMIOOperationType.MERGE, DEVICE_1, op -> mergeWrites.incrementAndGet());
+        scheduler.scheduleOperation(running);
+        await(mergeStarted);
+        scheduler.pauseMerges();
+        Assert.assertTrue(scheduler.areMergesPaused());
+        mergesPaused.countDown();
+        scheduler.scheduleOperation(waiting);
+        Thread.sleep(100);
+        // the running merge is blocked and the new merge is not started
+        Assert.assertEquals(0, mergeWrites.get());
+        Assert.assertEquals(1, scheduler.getNumWaitingMerges());
+        scheduler.resumeMerges();
+        running.sync();
+        waiting.sync();
+        Assert.assertEquals(2, mergeWrites.get());
+        Assert.assertTrue(
+                ((MergeThrottle) waiting.getThrottle()).getQueuedTime() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    private static ThrottlingScheduler createScheduler(int maxConcurrentMergesPerDevice, long mergeBytesPerSecond) {
+        return new ThrottlingScheduler(Executors.defaultThreadFactory(), NoOpIoOperationFailedCallback.INSTANCE,
+                maxConcurrentMergesPerDevice, mergeBytesPerSecond);
+    }
+
+    private static ThrottlingScheduler createScheduler(int maxConcurrentMergesPerDevice, long mergeBytesPerSecond,
+            long maxFlushYieldTime) {
+        return new ThrottlingScheduler(Executors.defaultThreadFactory(), NoOpIoOperationFailedCallback.INSTANCE,
+                maxConcurrentMergesPerDevice, mergeBytesPerSecond, 1, 1, 1, maxFlushYieldTime);
+    }
+
+    private static void run(AtomicInteger running, AtomicInteger maxRunning) throws HyracksDataException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private static void write(ILSMIOOperation operation, int count, long bytes) throws HyracksDataException {
+        for (int i = 0; i < count; i++) {
+            operation.getThrottle().beforeWrite(bytes);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws HyracksDataException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOperationBody {
+        void run(ILSMIOOperation operation) throws HyracksDataException;
+    }
+
+    private static class TestOperation extends AbstractIoOperation {
+        private final LSMIOOperationType type;
+        private final IOperationBody body;
+
+        TestOperation(LSMIOOperationType type, IODeviceHandle device, IOperationBody body) {
+            super(null, new FileReference(device, "index"),
+                    NoOpIOOperationCallbackFactory.INSTANCE.createIoOpCallback(null), "index");
+            this.type = type;
+            this.body = body;
+        }
+
+        @Override
+        public LSMIOOperationType getIOOpertionType() {
+            return type;
+        }
+
+        @Override
+        public LSMIOOperationStatus call() throws HyracksDataException {
+            body.run(this);
+            return LSMIOOperationStatus.SUCCESS;
+        }
+
+        @Override
+        protected LSMComponentFileReferences getComponentFiles() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.BufferCachePartition;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCachePartitionResolver;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BufferCachePartitionTest {
+    private static final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMyy-hhmmssSS");
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 20;
+    private static final int NUM_HOT_PAGES = 8;
+    private static final int NUM_SCAN_PAGES = 40;
+    private static final int SCAN_MAX_PAGES = 4;
+
+    @Test
+    public void partitionQuotasTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        BufferCache bufferCache = BufferCacheTestUtils.createBufferCache(ioManager, prs, 0);
+        BufferCachePartition hot = new BufferCachePartition("hot", NUM_HOT_PAGES, NUM_PAGES);
+        BufferCachePartition scan = new BufferCachePartition("scan", 0, SCAN_MAX_PAGES);
+        bufferCache.setPartitionResolver(new IBufferCachePartitionResolver() {
+            @Override
+            public BufferCachePartition resolve(FileReference fileRef) {
+                if (fileRef.getRelativePath().endsWith(hot.getName())) {
+                    return hot;
+                }
+                return fileRef.getRelativePath().endsWith(scan.getName()) ? scan : null;
+            }
+
+            @Override
+            public List<BufferCachePartition> getPartitions() {
+                return Arrays.asList(hot, scan);
+            }
+        });
+        try {
+            String prefix = simpleDateFormat.format(new Date()) + "-";
+            int hotFileId = BufferCacheTestUtils.createFile(bufferCache, ioManager.resolve(prefix + hot.getName()),
+                    NUM_HOT_PAGES);
+            int scanFileId = BufferCacheTestUtils.createFile(bufferCache, ioManager.resolve(prefix + scan.getName()),
+                    NUM_SCAN_PAGES);
+            int otherFileId =
+                    BufferCacheTestUtils.createFile(bufferCache, ioManager.resolve(prefix + "other"), NUM_SCAN_PAGES);
+
+            BufferCacheTestUtils.readPages(bufferCache, hotFileId, 0, NUM_HOT_PAGES, false);
+            Assert.assertEquals(NUM_HOT_PAGES, hot.getNumPages());
+            // a scan of a partition is bounded by its maximum and does not evict the reserved pages of others
+            BufferCacheTestUtils.readPages(bufferCache, scanFileId, 0, NUM_SCAN_PAGES, false);
+            Assert.assertEquals(NUM_HOT_PAGES,
+                    BufferCacheTestUtils.countResidentPages(bufferCache, prs, hotFileId, NUM_HOT_PAGES));
+            Assert.assertTrue(scan.getNumPages() <= SCAN_MAX_PAGES);
+            BufferCacheTestUtils.readPages(bufferCache, hotFileId, 0, NUM_HOT_PAGES, false);
+            // pages that do not belong to any partition can only use the pages that are not reserved
+            BufferCacheTestUtils.readPages(bufferCache, otherFileId, 0, NUM_SCAN_PAGES, false);
+            Assert.assertEquals(NUM_HOT_PAGES,
+                    BufferCacheTestUtils.countResidentPages(bufferCache, prs, hotFileId, NUM_HOT_PAGES));
+            Assert.assertEquals(NUM_HOT_PAGES, hot.getHits());
+            Assert.assertEquals(NUM_HOT_PAGES, hot.getMisses());
+            Assert.assertEquals(0, scan.getHits());
+            Assert.assertEquals(NUM_SCAN_PAGES, scan.getMisses());
+
+            for (int fileId : new int[] { hotFileId, scanFileId, otherFileId }) {
+                bufferCache.closeFile(fileId);
+                bufferCache.deleteFile(fileId);
+            }
+            Assert.assertEquals(0, hot.getNumPages());
+            Assert.assertEquals(0, scan.getNumPages());
+        } finally {
+            bufferCache.close();
+        }
+    }
+
+    @Test
+    public void reservedPagesAreNotEvictedTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        BufferCache bufferCache = BufferCacheTestUtils.createBufferCache(ioManager, prs, 0);
+        BufferCachePartition hot = new BufferCachePartition("hot", NUM_HOT_PAGES, NUM_PAGES);
+        bufferCache.setPartitionResolver(new IBufferCachePartitionResolver() {
+            @Override
+            public BufferCachePartition resolve(FileReference fileRef) {
+                return fileRef.getRelativePath().endsWith(hot.getName()) ? hot : null;
+            }
+
+            @Override
+            public List<BufferCachePartition> getPartitions() {
+                return Collections.singletonList(hot);
+            }
+        });
+        try {
+            String prefix = simpleDateFormat.format(new Date()) + "-";
+            int hotFileId = BufferCacheTestUtils.createFile(bufferCache, ioManager.resolve(prefix + hot.getName()),
+                    NUM_HOT_PAGES);
+            int otherFileId =
+                    BufferCacheTestUtils.createFile(bufferCache, ioManager.resolve(prefix + "other"), NUM_SCAN_PAGES);
+            BufferCacheTestUtils.readPages(bufferCache, hotFileId, 0, NUM_HOT_PAGES, false);
+            // pin every page that is not reserved
+            List<ICachedPage> pinned = new ArrayList<>();
+            for (int i = 0; i < NUM_PAGES - NUM_HOT_PAGES; i++) {
+                pinned.add(bufferCache.pin(BufferedFileHandle.getDiskPageId(otherFileId, i), false));
+            }
+            // the next page waits for a page that is not reserved instead of evicting a reserved one
+            CompletableFuture<ICachedPage> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return bufferCache.pin(BufferedFileHandle.getDiskPageId(otherFileId, NUM_PAGES), false);
+                } catch (HyracksDataException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            Thread.sleep(500);
+            Assert.assertFalse(waiting.isDone());
+            Assert.assertEquals(NUM_HOT_PAGES,
+                    BufferCacheTestUtils.countResidentPages(bufferCache, prs, hotFileId, NUM_HOT_PAGES));
+            bufferCache.unpin(pinned.remove(0));
+            ICachedPage page = waiting.get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(NUM_PAGES, page.getBuffer().getInt(0));
+            bufferCache.unpin(page);
+            for (ICachedPage pinnedPage : pinned) {
+                bufferCache.unpin(pinnedPage);
+            }
+            Assert.assertEquals(NUM_HOT_PAGES,
+                    BufferCacheTestUtils.countResidentPages(bufferCache, prs, hotFileId, NUM_HOT_PAGES));
+
+            for (int fileId : new int[] { hotFileId, otherFileId }) {
+                bufferCache.closeFile(fileId);
+                bufferCache.deleteFile(fileId);
+            }
+        } finally {
+            bufferCache.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileReference;
+import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BufferCacheReadAheadTest {
+    private static final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMyy-hhmmssSS");
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 40;
+    private static final int NUM_FILE_PAGES = 32;
+    private static final int READ_AHEAD_PAGES = 4;
+    private static final ICompressorDecompressor compDecomp =
+            new SnappyCompressorDecompressorFactory().createInstance();
+
+    @Test
+    public void sequentialScanReadAheadTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        BufferCache bufferCache = createBufferCache(ioManager);
+        try {
+            FileReference file = ioManager.resolve(simpleDateFormat.format(new Date()) + "-readahead");
+            int fileId = BufferCacheTestUtils.createFile(bufferCache, file, NUM_FILE_PAGES);
+            // drop the pages from the cache so that the scan has to read them from disk
+            bufferCache.closeFile(fileId);
+            bufferCache.purgeHandle(fileId);
+            fileId = bufferCache.openFile(file);
+            scanPages(bufferCache, fileId);
+
+            // a read-ahead that is still in flight must not prevent the file from being deleted
+            bufferCache.closeFile(fileId);
+            bufferCache.purgeHandle(fileId);
+            fileId = bufferCache.openFile(file);
+            bufferCache.unpin(bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, 0), false, true));
+            bufferCache.closeFile(fileId);
+            bufferCache.deleteFile(fileId);
+        } finally {
+            bufferCache.close();
+        }
+    }
+
+    @Test
+    public void compressedSequentialScanReadAheadTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        BufferCache bufferCache = createBufferCache(ioManager);
+        try {
+            FileReference fileRef = ioManager.resolve(simpleDateFormat.format(new Date()) + "-compressed-readahead");
+            CompressedFileReference file = new CompressedFileReference(fileRef.getDeviceHandle(), compDecomp,
+                    fileRef.getRelativePath(), fileRef.getRelativePath() + ".dic");
+            int fileId = bufferCache.createFile(file);
+            bufferCache.openFile(fileId);
+            ICompressedPageWriter writer = bufferCache.getCompressedPageWriter(fileId);
+            BufferCacheTestUtils.writePages(bufferCache, fileId, NUM_FILE_PAGES, writer);
+            writer.endWriting();
+            // drop the pages from the cache so that the scan has to read and decompress them
+            bufferCache.closeFile(fileId);
+            bufferCache.purgeHandle(fileId);
+            fileId = bufferCache.openFile(file);
+            scanPages(bufferCache, fileId);
+            bufferCache.closeFile(fileId);
+            bufferCache.deleteFile(fileId);
+        } finally {
+            bufferCache.close();
+        }
+    }
+
+    private static BufferCache createBufferCache(IIOManager ioManager) {
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        return BufferCacheTestUtils.createBufferCache(ioManager, prs, READ_AHEAD_PAGES);
+    }
+
+    private static void scanPages(BufferCache bufferCache, int fileId) throws HyracksDataException {
+        BufferCacheTestUtils.readPages(bufferCache, fileId, 0, NUM_FILE_PAGES, true);
+        // only the first page is read synchronously. each window triggers the read of the next one
+        Assert.assertEquals(1, bufferCache.getReadAheadMisses());
+        Assert.assertEquals(NUM_FILE_PAGES - 1, bufferCache.getReadAheadHits());
+        Assert.assertEquals(NUM_FILE_PAGES - 1, bufferCache.getReadAheadRequestedPages());
+    }
+}
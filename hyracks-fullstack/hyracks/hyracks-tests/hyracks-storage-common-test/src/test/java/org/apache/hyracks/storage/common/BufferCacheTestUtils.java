@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.ICachedPageInternal;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageQueue;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
+import org.junit.Assert;
+
+/**
+ * Creates buffer caches and files of numbered pages for the buffer cache tests
+ */
+class BufferCacheTestUtils {
+    private static final int MAX_OPEN_FILES = 20;
+
+    private BufferCacheTestUtils() {
+    }
+
+    static BufferCache createBufferCache(IIOManager ioManager, IPageReplacementStrategy prs, int readAheadPages) {
+        return new BufferCache(ioManager, prs, new DelayPageCleanerPolicy(1000), new FileMapManager(), MAX_OPEN_FILES,
+                Thread::new, readAheadPages);
+    }
+
+    /**
+     * Creates and opens a file and writes its pages through a single FIFO queue
+     *
+     * @see #writePages(BufferCache, int, int, ICompressedPageWriter)
+     */
+    static int createFile(BufferCache bufferCache, FileReference file, int numPages) throws HyracksDataException {
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        writePages(bufferCache, fileId, numPages, null);
+        return fileId;
+    }
+
+    /**
+     * Writes the pages [0, numPages) of a file. Page i holds i in its first and -i in its last int and zeros in
+     * between, which makes it compressible.
+     *
+     * @param writer
+     *            the compressed page writer of the file or null if the file is not compressed
+     */
+    static void writePages(BufferCache bufferCache, int fileId, int numPages, ICompressedPageWriter writer)
+            throws HyracksDataException {
+        IFIFOPageQueue queue = bufferCache.createFIFOQueue();
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            if (writer != null) {
+                writer.prepareWrite(page);
+            }
+            Arrays.fill(page.getBuffer().array(), (byte) 0);
+            page.getBuffer().putInt(0, i);
+            page.getBuffer().putInt(page.getBuffer().capacity() - Integer.BYTES, -i);
+            queue.put(page, HaltOnFailureCallback.INSTANCE);
+        }
+        bufferCache.finishQueue();
+    }
+
+    /**
+     * Pins the pages [from, to) of a file in order and checks that they hold what {@link #writePages} wrote
+     */
+    static void readPages(BufferCache bufferCache, int fileId, int from, int to, boolean sequential)
+            throws HyracksDataException {
+        for (int i = from; i < to; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false, sequential);
+            try {
+                Assert.assertEquals(i, page.getBuffer().getInt(0));
+                Assert.assertEquals(-i, page.getBuffer().getInt(page.getBuffer().capacity() - Integer.BYTES));
+                Assert.assertEquals(0, page.getBuffer().getInt(page.getBuffer().capacity() / 2));
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached pages of a file whose page id is below maxPageId
+     */
+    static int countResidentPages(BufferCache bufferCache, IPageReplacementStrategy prs, int fileId, int maxPageId) {
+        int residentPages = 0;
+        for (int cpid = 0; cpid < prs.getNumPages(); cpid++) {
+            ICachedPageInternal cPage = bufferCache.getPage(cpid);
+            long dpid = cPage.getDiskPageId();
+            if (dpid >= 0 && BufferedFileHandle.getFileId(dpid) == fileId
+                    && BufferedFileHandle.getPageId(dpid) < maxPageId) {
+                residentPages++;
+            }
+        }
+        return residentPages;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.ZstdCompressorDecompressorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressorDecompressorTest {
+    private static final int PAGE_SIZE = 32 * 1024;
+    private static final byte[] DICTIONARY =
+            "|1|O|173665.47|1996-01-02|5-LOW|Clerk#000000951|0|nstructions sleep furiously among"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private static final List<ICompressorDecompressorFactory> FACTORIES = Arrays.asList(
+            new SnappyCompressorDecompressorFactory(), new Lz4CompressorDecompressorFactory(),
+            new Lz4CompressorDecompressorFactory(9), new ZstdCompressorDecompressorFactory(),
+            new ZstdCompressorDecompressorFactory(19, null), new ZstdCompressorDecompressorFactory(3, DICTIONARY));
+
+    @Test
+    public void compressiblePageTest() throws Exception {
+        final ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        final byte[] row = "1|O|173665.47|1996-01-02|5-LOW|Clerk#000000951|0|".getBytes(StandardCharsets.UTF_8);
+        final Random random = new Random(0);
+        while (page.remaining() >= row.length) {
+            row[0] = (byte) ('0' + random.nextInt(10));
+            page.put(row);
+        }
+        for (ICompressorDecompressorFactory factory : FACTORIES) {
+            final int compressedSize = roundTrip(factory.createInstance(), page);
+            Assert.assertTrue(factory.getClass().getSimpleName() + " did not compress", compressedSize < PAGE_SIZE);
+        }
+    }
+
+    @Test
+    public void incompressiblePageTest() throws Exception {
+        final ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        new Random(0).nextBytes(page.array());
+        for (ICompressorDecompressorFactory factory : FACTORIES) {
+            roundTrip(factory.createInstance(), page);
+        }
+    }
+
+    private static int roundTrip(ICompressorDecompressor compDecomp, ByteBuffer page) throws Exception {
+        final ByteBuffer cBuffer = ByteBuffer.allocate(compDecomp.computeCompressedBufferSize(PAGE_SIZE));
+        final ByteBuffer uBuffer = ByteBuffer.allocate(PAGE_SIZE);
+        page.clear();
+        compDecomp.compress(page, cBuffer);
+        final int compressedSize = cBuffer.remaining();
+        compDecomp.uncompress(cBuffer, uBuffer);
+        page.clear();
+        Assert.assertEquals(page, uBuffer);
+        return compressedSize;
+    }
+}
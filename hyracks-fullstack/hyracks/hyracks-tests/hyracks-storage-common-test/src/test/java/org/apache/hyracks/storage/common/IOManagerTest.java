@@ -21,12 +21,20 @@ package org.apache.hyracks.storage.common;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IAsyncRequest;
+import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
 import org.apache.hyracks.control.nc.io.FileHandle;
+import org.apache.hyracks.control.nc.io.IOManager;
 import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -70,6 +78,48 @@ public class IOManagerTest {
         Assert.assertEquals(theOnlyOne, readBuffer.getInt(0));
     }
 
+    @Test
+    public void multiDeviceAsyncRequestsTest() throws Exception {
+        final int numRequests = 64;
+        final int numDevices = 2;
+        final File testDir =
+                new File(System.getProperty("java.io.tmpdir"), "iomanagertest-" + System.currentTimeMillis());
+        IODeviceHandle first = new IODeviceHandle(new File(testDir, "1"), "storage");
+        IODeviceHandle second = new IODeviceHandle(new File(testDir, "2"), "storage");
+        // fewer queue slots than requests so that submitters have to wait for the device workers
+        IOManager ioManager = new IOManager(Arrays.asList(first, second), new DefaultDeviceResolver(), 4, 8);
+        try {
+            List<IFileHandle> handles = new ArrayList<>();
+            for (int i = 0; i < numDevices; i++) {
+                FileReference fileRef = ioManager.getFileReference(i, "storage" + File.separator + "f" + i);
+                IoUtil.create(fileRef);
+                handles.add(ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
+                        IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC));
+            }
+            List<IAsyncRequest> requests = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).putInt(0, i);
+                requests.add(ioManager.asyncWrite(handles.get(i % numDevices), (long) i * Integer.BYTES, buffer));
+            }
+            for (IAsyncRequest request : requests) {
+                request.await();
+            }
+            ByteBuffer readBuffer = ByteBuffer.allocate(Integer.BYTES);
+            for (int i = 0; i < numRequests; i++) {
+                readBuffer.clear();
+                Assert.assertEquals(Integer.BYTES,
+                        ioManager.syncRead(handles.get(i % numDevices), (long) i * Integer.BYTES, readBuffer));
+                Assert.assertEquals(i, readBuffer.getInt(0));
+            }
+            for (IFileHandle handle : handles) {
+                ioManager.close(handle);
+            }
+        } finally {
+            ioManager.close();
+            FileUtils.deleteDirectory(testDir);
+        }
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         FileUtils.deleteQuietly(testFile);
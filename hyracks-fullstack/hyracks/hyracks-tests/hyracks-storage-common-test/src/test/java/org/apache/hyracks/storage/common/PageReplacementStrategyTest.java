@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.ScanResistantClockPageReplacementStrategy;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PageReplacementStrategyTest {
+    private static final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMyy-hhmmssSS");
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 10;
+    private static final int NUM_HOT_PAGES = 4;
+    private static final int NUM_FILE_PAGES = 40;
+    private static final int HOT_PAGE_ACCESSES = 3;
+
+    @Test
+    public void scanResistantStrategyKeepsHotPagesTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IPageReplacementStrategy prs =
+                new ScanResistantClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        Assert.assertEquals("hot pages were evicted by the scan", NUM_HOT_PAGES, runHotPagesAndScan(ioManager, prs));
+    }
+
+    @Test
+    public void clockStrategyEvictsHotPagesTest() throws Exception {
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        Assert.assertEquals("hot pages survived the scan", 0, runHotPagesAndScan(ioManager, prs));
+    }
+
+    /**
+     * Accesses a small set of hot pages a few times, scans the rest of the file sequentially and returns the number
+     * of hot pages which are still cached after the scan
+     */
+    private int runHotPagesAndScan(IIOManager ioManager, IPageReplacementStrategy prs) throws HyracksDataException {
+        BufferCache bufferCache = BufferCacheTestUtils.createBufferCache(ioManager, prs, 0);
+        try {
+            FileReference file =
+                    ioManager.resolve(simpleDateFormat.format(new Date()) + prs.getClass().getSimpleName());
+            int fileId = BufferCacheTestUtils.createFile(bufferCache, file, NUM_FILE_PAGES);
+            for (int access = 0; access < HOT_PAGE_ACCESSES; access++) {
+                BufferCacheTestUtils.readPages(bufferCache, fileId, 0, NUM_HOT_PAGES, false);
+            }
+            BufferCacheTestUtils.readPages(bufferCache, fileId, NUM_HOT_PAGES, NUM_FILE_PAGES, true);
+            int residentHotPages = BufferCacheTestUtils.countResidentPages(bufferCache, prs, fileId, NUM_HOT_PAGES);
+            bufferCache.closeFile(fileId);
+            bufferCache.deleteFile(fileId);
+            return residentHotPages;
+        } finally {
+            bufferCache.close();
+        }
+    }
+}